@@ -0,0 +1,21 @@
+package com.simpleaccounts.config;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * PostgreSQL dialect with the functions used by the DAO layer that JPQL has no syntax for.
+ */
+public class SimpleAccountsPostgreSQLDialect extends PostgreSQLDialect {
+
+	/**
+	 * Total number of rows matched by a query, before LIMIT and OFFSET are applied.
+	 */
+	public static final String TOTAL_COUNT_FUNCTION = "total_count";
+
+	public SimpleAccountsPostgreSQLDialect() {
+		super();
+		registerFunction(TOTAL_COUNT_FUNCTION, new SQLFunctionTemplate(StandardBasicTypes.LONG, "count(*) over ()"));
+	}
+}
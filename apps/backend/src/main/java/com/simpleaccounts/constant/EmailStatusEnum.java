@@ -0,0 +1,10 @@
+package com.simpleaccounts.constant;
+
+/**
+ * Delivery state of an EMAIL_LOGS row queued by the mail dispatcher. Rows written before the outbox have no
+ * status.
+ */
+public enum EmailStatusEnum {
+
+	PENDING, SENDING, SENT, FAILED;
+}
@@ -2,14 +2,21 @@ package com.simpleaccounts.dao;
 
 import com.simpleaccounts.constant.dbfilter.DbFilter;
 import com.simpleaccounts.constant.dbfilter.ORDERBYENUM;
+import com.simpleaccounts.config.SimpleAccountsPostgreSQLDialect;
+import com.simpleaccounts.exceptions.InvalidContinuationTokenException;
 import com.simpleaccounts.rest.PaginationModel;
+import com.simpleaccounts.rest.PaginationResponseModel;
+import com.simpleaccounts.search.SearchDocumentType;
+import com.simpleaccounts.search.SearchIndex;
 
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -17,17 +24,42 @@ import javax.persistence.EntityTransaction;
 import javax.persistence.FlushModeType;
 import javax.persistence.PersistenceContext;
 import javax.persistence.PersistenceUnit;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Order;
+import javax.persistence.criteria.ParameterExpression;
 import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Root;
-import lombok.extern.slf4j.Slf4j;
+import javax.persistence.metamodel.EntityType;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.NullValueInNestedPathException;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.ClassUtils;
 
 @Slf4j
 public abstract class AbstractDao<PK, ENTITY> implements Dao<PK, ENTITY> {
 
+	private static final String POSTGRESQL = "PostgreSQL";
+
+	private static final String FETCH_GRAPH = "javax.persistence.fetchgraph";
+
+	private static final String DELETE_FLAG = "deleteFlag";
+
+	private static final String IN = "IN";
+
+	/**
+	 * Most ids a {@code like} filter is narrowed to by the search index, filters matching more documents are left
+	 * to the database alone.
+	 */
+	private static final int MAX_INDEXED_IDS = 500;
+
 	protected Class<ENTITY> entityClass;
 
 	@PersistenceContext
@@ -36,6 +68,19 @@ public abstract class AbstractDao<PK, ENTITY> implements Dao<PK, ENTITY> {
 	@PersistenceUnit
 	private EntityManagerFactory emf;
 
+	@Autowired(required = false)
+	private SearchIndex searchIndex;
+
+	/**
+	 * Entities written per flush by {@link #persistAll(List)} and {@link #updateAll(List)}.
+	 */
+	@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+	private int batchSize = 50;
+
+	private volatile Boolean totalCountFunctionSupported;
+
+	private volatile String idAttribute;
+
 	@SuppressWarnings("unchecked")
 	protected AbstractDao() {
 		ParameterizedType genericSuperclass = (ParameterizedType) getClass().getGenericSuperclass();
@@ -47,6 +92,25 @@ public abstract class AbstractDao<PK, ENTITY> implements Dao<PK, ENTITY> {
 		return entityManager.find(entityClass, pk);
 	}
 
+	@Override
+	public ENTITY findByPK(PK pk, String entityGraph) {
+		// a query rather than find(), so the graph applies whatever batch fetch style the loaders use
+		String entityName = entityManager.getMetamodel().entity(entityClass).getName();
+		List<ENTITY> results = withEntityGraph(entityManager.createQuery(
+				"SELECT e FROM " + entityName + " e WHERE e." + getIdAttribute() + " = :id", entityClass), entityGraph)
+				.setParameter("id", pk)
+				.getResultList();
+		return results.isEmpty() ? null : results.get(0);
+	}
+
+	/**
+	 * Fetches the associations of the named entity graph with the results of the query.
+	 */
+	protected <Q extends Query> Q withEntityGraph(Q query, String entityGraph) {
+		query.setHint(FETCH_GRAPH, entityManager.getEntityGraph(entityGraph));
+		return query;
+	}
+
 	@Override
 	public List<ENTITY> executeNamedQuery(String namedQuery) {
 		return entityManager.createNamedQuery(namedQuery, entityClass).getResultList();
@@ -54,83 +118,360 @@ public abstract class AbstractDao<PK, ENTITY> implements Dao<PK, ENTITY> {
 
 	@Override
 	public List<ENTITY> executeQuery(List<DbFilter> dbFilters) {
-		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-		CriteriaQuery<ENTITY> cq = cb.createQuery(entityClass);
-		Root<ENTITY> root = cq.from(entityClass);
+		dbFilters = narrowBySearchIndex(dbFilters);
+		CriteriaPlan<ENTITY> plan = buildCriteriaPlan(QueryKind.LIST, dbFilters, null);
+		TypedQuery<ENTITY> typedQuery = entityManager.createQuery(plan.getCriteriaQuery());
+		plan.bind(typedQuery, dbFilters);
+		return typedQuery.getResultList();
+	}
 
-		List<Predicate> predicates = buildPredicates(dbFilters, root, cb);
-		if (!predicates.isEmpty()) {
-			cq.where(predicates.toArray(new Predicate[0]));
+	@Override
+	public List<ENTITY> executeQuery(List<DbFilter> dbFilters, PaginationModel paginationModel) {
+		dbFilters = narrowBySearchIndex(dbFilters);
+		CriteriaPlan<ENTITY> plan = buildCriteriaPlan(QueryKind.LIST, dbFilters, paginationModel);
+		TypedQuery<ENTITY> typedQuery = entityManager.createQuery(plan.getCriteriaQuery());
+		plan.bind(typedQuery, dbFilters);
+
+		if (paginationModel != null && !paginationModel.isPaginationDisable()) {
+			typedQuery.setFirstResult(paginationModel.getPageNo());
+			typedQuery.setMaxResults(paginationModel.getPageSize());
 		}
 
-		TypedQuery<ENTITY> typedQuery = entityManager.createQuery(cq);
 		return typedQuery.getResultList();
 	}
 
 	@Override
-	public List<ENTITY> executeQuery(List<DbFilter> dbFilters, PaginationModel paginationModel) {
+	public Integer getResultCount(List<DbFilter> dbFilters) {
+		dbFilters = narrowBySearchIndex(dbFilters);
+		CriteriaPlan<Long> plan = buildCriteriaPlan(QueryKind.COUNT, dbFilters, null);
+		TypedQuery<Long> typedQuery = entityManager.createQuery(plan.getCriteriaQuery());
+		plan.bind(typedQuery, dbFilters);
+		return typedQuery.getSingleResult().intValue();
+	}
+
+	/**
+	 * Returns the page of {@link #executeQuery(List, PaginationModel)} together with the total of
+	 * {@link #getResultCount(List)}. When the dialect provides
+	 * {@link SimpleAccountsPostgreSQLDialect#TOTAL_COUNT_FUNCTION} both come from a single query using a window
+	 * function, otherwise two queries are executed.
+	 */
+	@Override
+	public PaginationResponseModel executeQueryWithCount(List<DbFilter> dbFilters, PaginationModel paginationModel) {
+		dbFilters = narrowBySearchIndex(dbFilters);
+		if (paginationModel == null || paginationModel.isPaginationDisable() || !isTotalCountFunctionSupported()) {
+			return new PaginationResponseModel(getResultCount(dbFilters), executeQuery(dbFilters, paginationModel));
+		}
+		CriteriaPlan<Object[]> plan = buildCriteriaPlan(QueryKind.LIST_WITH_COUNT, dbFilters, paginationModel);
+		TypedQuery<Object[]> typedQuery = entityManager.createQuery(plan.getCriteriaQuery());
+		plan.bind(typedQuery, dbFilters);
+		typedQuery.setFirstResult(paginationModel.getPageNo());
+		typedQuery.setMaxResults(paginationModel.getPageSize());
+		List<Object[]> rows = typedQuery.getResultList();
+
+		List<ENTITY> data = new ArrayList<>(rows.size());
+		for (Object[] row : rows) {
+			data.add(entityClass.cast(row[0]));
+		}
+		Integer count;
+		if (!rows.isEmpty()) {
+			count = ((Number) rows.get(0)[1]).intValue();
+		} else {
+			// a page past the last row carries no count, only the first page proves there are no rows
+			count = paginationModel.getPageNo() == 0 ? 0 : getResultCount(dbFilters);
+		}
+		return new PaginationResponseModel(count, data);
+	}
+
+	private boolean isTotalCountFunctionSupported() {
+		Boolean supported = totalCountFunctionSupported;
+		if (supported == null) {
+			supported = Boolean.FALSE;
+			try {
+				EntityManagerFactory factory = entityManager.getEntityManagerFactory();
+				// the function is only registered by the PostgreSQL dialect, which may also be used against H2
+				if (factory != null && factory.unwrap(SessionFactoryImplementor.class).getSqlFunctionRegistry()
+						.findSQLFunction(SimpleAccountsPostgreSQLDialect.TOTAL_COUNT_FUNCTION) != null) {
+					supported = POSTGRESQL.equalsIgnoreCase(entityManager.unwrap(Session.class)
+							.doReturningWork(connection -> connection.getMetaData().getDatabaseProductName()));
+				}
+			} catch (RuntimeException e) {
+				log.debug("Could not look up the total count function, using a separate count query", e);
+			}
+			totalCountFunctionSupported = supported;
+		}
+		return supported;
+	}
+
+	/**
+	 * Returns a page that continues after the row encoded in {@link PaginationModel#getContinuationToken()}
+	 * instead of skipping {@link PaginationModel#getPageNo()} rows, so reading deep pages costs as much as
+	 * reading the first one. Rows are ordered by the sort column of the pagination model, else by the first
+	 * ORDER BY filter, else by id descending, with the id as tie breaker; null sort values come last when
+	 * ascending and first when descending, as in PostgreSQL. The total is only counted for the first page
+	 * and not at all with {@link PaginationModel#isSkipCount()}, later pages return a {@code null} count.
+	 *
+	 * @throws InvalidContinuationTokenException if the token is malformed or was issued for another sort order
+	 */
+	@Override
+	public PaginationResponseModel executeKeysetQuery(List<DbFilter> dbFilters, PaginationModel paginationModel) {
+		if (paginationModel == null || paginationModel.isPaginationDisable()) {
+			return executeQueryWithCount(dbFilters, paginationModel);
+		}
+		dbFilters = narrowBySearchIndex(dbFilters);
+		KeysetSort sort = getKeysetSort(dbFilters, paginationModel);
+		String token = paginationModel.getContinuationToken();
+		KeysetToken after = token == null || token.isEmpty() ? null
+				: KeysetToken.decode(token, sort.getColumn(), sort.isAscending());
+		SeekState seekState = after == null ? SeekState.FIRST : after.hasNullValue() ? SeekState.NULL : SeekState.VALUE;
+
+		CriteriaPlan<ENTITY> plan = buildKeysetPlan(dbFilters, sort, seekState);
+		TypedQuery<ENTITY> typedQuery = entityManager.createQuery(plan.getCriteriaQuery());
+		plan.bind(typedQuery, dbFilters);
+		if (after != null) {
+			plan.bindSeek(typedQuery, after);
+		}
+		int pageSize = paginationModel.getPageSize();
+		// one row more than the page tells whether there is a next page
+		typedQuery.setMaxResults(pageSize + 1);
+		List<ENTITY> rows = typedQuery.getResultList();
+
+		String nextToken = null;
+		List<ENTITY> data = rows;
+		if (rows.size() > pageSize) {
+			data = new ArrayList<>(rows.subList(0, pageSize));
+			BeanWrapper last = PropertyAccessorFactory.forBeanPropertyAccess(data.get(pageSize - 1));
+			nextToken = KeysetToken.encode(sort.getColumn(), sort.isAscending(), getPropertyValue(last, sort.getColumn()),
+					last.getPropertyValue(sort.getIdAttribute()));
+		}
+		Integer count = after == null && !paginationModel.isSkipCount() ? getResultCount(dbFilters) : null;
+		PaginationResponseModel response = new PaginationResponseModel(count, data);
+		response.setContinuationToken(nextToken);
+		return response;
+	}
+
+	private KeysetSort getKeysetSort(List<DbFilter> dbFilters, PaginationModel paginationModel) {
+		String id = getIdAttribute();
+		if (isSortable(paginationModel)) {
+			return new KeysetSort(paginationModel.getSortingCol(),
+					!paginationModel.getOrder().equalsIgnoreCase(ORDERBYENUM.DESC.toString()), id);
+		}
+		for (DbFilter dbFilter : dbFilters) {
+			if (isOrderBy(dbFilter)) {
+				return new KeysetSort(dbFilter.getDbCoulmnName(),
+						dbFilter.getValue().toString().equalsIgnoreCase(ORDERBYENUM.ASC.toString()), id);
+			}
+		}
+		return new KeysetSort(id, false, id);
+	}
+
+	/**
+	 * Adds an id {@code IN} filter next to each {@code like} filter on text the {@link SearchIndex} holds, so the
+	 * database reads the rows of the ids the index finds instead of scanning the table for {@code '%x%'}. The
+	 * {@code like} filter is kept, as the index only finds the rows that can match it. Filters are left as they
+	 * are when the index is not built yet, the entity is not indexed, deleted rows are not filtered out (the index
+	 * drops them), or the index finds no id or more than {@link #MAX_INDEXED_IDS}. Rows written by bulk
+	 * statements are only found again once the index is rebuilt, as for the global search.
+	 *
+	 * @return the filters with the id filters added, the same list when none is added
+	 */
+	private List<DbFilter> narrowBySearchIndex(List<DbFilter> dbFilters) {
+		SearchDocumentType type = SearchDocumentType.of(entityClass);
+		if (searchIndex == null || type == null || !searchIndex.isReady() || !filtersOutDeleted(dbFilters)) {
+			return dbFilters;
+		}
+		String id = getIdAttribute();
+		for (DbFilter dbFilter : dbFilters) {
+			if (id.equals(dbFilter.getDbCoulmnName()) && IN.equalsIgnoreCase(dbFilter.getCondition().trim())) {
+				// already narrowed, by an outer call
+				return dbFilters;
+			}
+		}
+		List<DbFilter> narrowed = dbFilters;
+		for (DbFilter dbFilter : dbFilters) {
+			if (hasValue(dbFilter) && dbFilter.getCondition().toLowerCase().contains("like")
+					&& type.getTextAttributes().contains(dbFilter.getDbCoulmnName())) {
+				Set<Integer> ids = searchIndex.findContaining(type, dbFilter.getValue().toString(), MAX_INDEXED_IDS);
+				// without ids the like filter finds no row either, and an empty IN list is not valid everywhere
+				if (ids != null && !ids.isEmpty()) {
+					if (narrowed == dbFilters) {
+						narrowed = new ArrayList<>(dbFilters);
+					}
+					narrowed.add(new DbFilter(id, IN, new ArrayList<>(ids)));
+				}
+			}
+		}
+		return narrowed;
+	}
+
+	private static boolean filtersOutDeleted(List<DbFilter> dbFilters) {
+		for (DbFilter dbFilter : dbFilters) {
+			if (DELETE_FLAG.equals(dbFilter.getDbCoulmnName()) && Boolean.FALSE.equals(dbFilter.getValue())
+					&& dbFilter.getCondition().trim().startsWith("=")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private String getIdAttribute() {
+		String attribute = idAttribute;
+		if (attribute == null) {
+			EntityType<ENTITY> entityType = entityManager.getMetamodel().entity(entityClass);
+			attribute = entityType.getId(entityType.getIdType().getJavaType()).getName();
+			idAttribute = attribute;
+		}
+		return attribute;
+	}
+
+	private static Object getPropertyValue(BeanWrapper beanWrapper, String propertyPath) {
+		try {
+			return beanWrapper.getPropertyValue(propertyPath);
+		} catch (NullValueInNestedPathException e) {
+			return null;
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private CriteriaPlan<ENTITY> buildKeysetPlan(List<DbFilter> dbFilters, KeysetSort sort, SeekState seekState) {
 		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
 		CriteriaQuery<ENTITY> cq = cb.createQuery(entityClass);
 		Root<ENTITY> root = cq.from(entityClass);
-
-		List<Predicate> predicates = buildPredicates(dbFilters, root, cb);
+		List<FilterParameter> parameters = new ArrayList<>(dbFilters.size());
+		List<Predicate> predicates = buildPredicates(dbFilters, root, cb, parameters);
+
+		Path sortPath = getPath(root, sort.getColumn());
+		Path idPath = root.get(sort.getIdAttribute());
+		Class<?> sortType = ClassUtils.resolvePrimitiveIfNecessary(sortPath.getJavaType());
+		Class<?> idType = ClassUtils.resolvePrimitiveIfNecessary(idPath.getJavaType());
+		boolean sortById = sort.getColumn().equals(sort.getIdAttribute());
+		ParameterExpression seekValue = null;
+		ParameterExpression seekId = null;
+		if (seekState != SeekState.FIRST) {
+			seekId = cb.parameter(idType);
+			Predicate idAfter = sort.isAscending() ? cb.greaterThan(idPath, seekId) : cb.lessThan(idPath, seekId);
+			if (sortById) {
+				predicates.add(idAfter);
+			} else if (seekState == SeekState.NULL) {
+				// the previous page ended inside the null sort values
+				Predicate nullsAfter = cb.and(cb.isNull(sortPath), idAfter);
+				predicates.add(sort.isAscending() ? nullsAfter : cb.or(cb.isNotNull(sortPath), nullsAfter));
+			} else {
+				seekValue = cb.parameter(sortType);
+				Predicate valueAfter = sort.isAscending() ? cb.greaterThan(sortPath, seekValue)
+						: cb.lessThan(sortPath, seekValue);
+				Predicate tieAfter = cb.and(cb.equal(sortPath, seekValue), idAfter);
+				predicates.add(sort.isAscending() ? cb.or(valueAfter, tieAfter, cb.isNull(sortPath))
+						: cb.or(valueAfter, tieAfter));
+			}
+		}
 		if (!predicates.isEmpty()) {
 			cq.where(predicates.toArray(new Predicate[0]));
 		}
-
-		// Add sorting
-		List<Order> orders = buildOrders(dbFilters, root, cb, paginationModel);
-		if (!orders.isEmpty()) {
-			cq.orderBy(orders);
+		List<Order> orders = new ArrayList<>(2);
+		orders.add(sort.isAscending() ? cb.asc(sortPath) : cb.desc(sortPath));
+		if (!sortById) {
+			orders.add(sort.isAscending() ? cb.asc(idPath) : cb.desc(idPath));
 		}
+		cq.orderBy(orders);
 
-		TypedQuery<ENTITY> typedQuery = entityManager.createQuery(cq);
+		return new CriteriaPlan<>(cq, parameters, seekValue, sortType, seekId, idType);
+	}
 
-		if (paginationModel != null && !paginationModel.isPaginationDisable()) {
-			typedQuery.setFirstResult(paginationModel.getPageNo());
-			typedQuery.setMaxResults(paginationModel.getPageSize());
+	private static Path<?> getPath(Root<?> root, String attributePath) {
+		Path<?> path = root;
+		for (String attribute : attributePath.split("\\.")) {
+			path = path.get(attribute);
 		}
-
-		return typedQuery.getResultList();
+		return path;
 	}
 
-	@Override
-	public Integer getResultCount(List<DbFilter> dbFilters) {
+	/**
+	 * Builds the criteria query for the filters with a parameter per filter value. The query is built on every
+	 * call, as a criteria query and its root belong to the entity manager that created them and must not be
+	 * shared between threads; the JPQL rendered from it is the same for filters of the same shape, so Hibernate's
+	 * query plan cache still saves parsing it again.
+	 */
+	@SuppressWarnings("unchecked")
+	private <R> CriteriaPlan<R> buildCriteriaPlan(QueryKind kind, List<DbFilter> dbFilters, PaginationModel paginationModel) {
 		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
-		Root<ENTITY> root = cq.from(entityClass);
-		cq.select(cb.count(root)); // Select count for result size
+		CriteriaQuery<R> cq;
+		Root<ENTITY> root;
+		if (kind == QueryKind.COUNT) {
+			CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+			root = countQuery.from(entityClass);
+			countQuery.select(cb.count(root)); // Select count for result size
+			cq = (CriteriaQuery<R>) countQuery;
+		} else if (kind == QueryKind.LIST_WITH_COUNT) {
+			CriteriaQuery<Object[]> pageQuery = cb.createQuery(Object[].class);
+			root = pageQuery.from(entityClass);
+			pageQuery.multiselect(root, cb.function(SimpleAccountsPostgreSQLDialect.TOTAL_COUNT_FUNCTION, Long.class));
+			cq = (CriteriaQuery<R>) pageQuery;
+		} else {
+			CriteriaQuery<ENTITY> listQuery = cb.createQuery(entityClass);
+			root = listQuery.from(entityClass);
+			cq = (CriteriaQuery<R>) listQuery;
+		}
 
-		List<Predicate> predicates = buildPredicates(dbFilters, root, cb);
+		List<FilterParameter> parameters = new ArrayList<>(dbFilters.size());
+		List<Predicate> predicates = buildPredicates(dbFilters, root, cb, parameters);
 		if (!predicates.isEmpty()) {
 			cq.where(predicates.toArray(new Predicate[0]));
 		}
 
-		TypedQuery<Long> typedQuery = entityManager.createQuery(cq);
-		return typedQuery.getSingleResult().intValue();
+		if (kind != QueryKind.COUNT) {
+			// Add sorting
+			List<Order> orders = buildOrders(dbFilters, root, cb, paginationModel);
+			if (!orders.isEmpty()) {
+				cq.orderBy(orders);
+			}
+		}
+		return new CriteriaPlan<>(cq, parameters);
 	}
 
-	private List<Predicate> buildPredicates(List<DbFilter> dbFilters, Root<ENTITY> root, CriteriaBuilder cb) {
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private List<Predicate> buildPredicates(List<DbFilter> dbFilters, Root<ENTITY> root, CriteriaBuilder cb,
+			List<FilterParameter> parameters) {
 		List<Predicate> predicates = new ArrayList<>();
 		for (DbFilter dbFilter : dbFilters) {
-			if (dbFilter.getValue() != null && !dbFilter.getValue().toString().isEmpty()) {
-				String condition = dbFilter.getCondition().trim().toLowerCase();
-				// Handle typical JPQL conditions containing parameter placeholders
-				if (condition.startsWith("=")) {
-					predicates.add(cb.equal(root.get(dbFilter.getDbCoulmnName()), dbFilter.getValue()));
-				} else if (condition.contains("like")) {
-					predicates.add(cb.like(root.get(dbFilter.getDbCoulmnName()), "%" + dbFilter.getValue() + "%"));
-				} else if (condition.startsWith(">=")) {
-					predicates.add(cb.greaterThanOrEqualTo(root.get(dbFilter.getDbCoulmnName()), (Comparable) dbFilter.getValue()));
-				} else if (condition.startsWith("<=")) {
-					predicates.add(cb.lessThanOrEqualTo(root.get(dbFilter.getDbCoulmnName()), (Comparable) dbFilter.getValue()));
-				} else if (condition.startsWith(">")) {
-					predicates.add(cb.greaterThan(root.get(dbFilter.getDbCoulmnName()), (Comparable) dbFilter.getValue()));
-				} else if (condition.startsWith("<")) {
-					predicates.add(cb.lessThan(root.get(dbFilter.getDbCoulmnName()), (Comparable) dbFilter.getValue()));
-				} else {
-					log.warn("Unsupported condition: {}", dbFilter.getCondition());
-				}
+			if (!hasValue(dbFilter) || isOrderBy(dbFilter)) {
+				// ORDER BY filters only sort, see buildOrders
+				parameters.add(null);
+				continue;
+			}
+			String condition = dbFilter.getCondition().trim().toLowerCase();
+			Class valueType = dbFilter.getValue().getClass();
+			// Handle typical JPQL conditions containing parameter placeholders
+			if (condition.startsWith("=")) {
+				ParameterExpression parameter = cb.parameter(valueType);
+				predicates.add(cb.equal(root.get(dbFilter.getDbCoulmnName()), parameter));
+				parameters.add(new FilterParameter(parameter, false));
+			} else if (condition.equals("in")) {
+				ParameterExpression<Collection> parameter = cb.parameter(Collection.class);
+				predicates.add(root.get(dbFilter.getDbCoulmnName()).in(parameter));
+				parameters.add(new FilterParameter(parameter, false));
+			} else if (condition.contains("like")) {
+				ParameterExpression<String> parameter = cb.parameter(String.class);
+				predicates.add(cb.like(root.get(dbFilter.getDbCoulmnName()), parameter));
+				parameters.add(new FilterParameter(parameter, true));
+			} else if (condition.startsWith(">=")) {
+				ParameterExpression parameter = cb.parameter(valueType);
+				predicates.add(cb.greaterThanOrEqualTo(root.get(dbFilter.getDbCoulmnName()), parameter));
+				parameters.add(new FilterParameter(parameter, false));
+			} else if (condition.startsWith("<=")) {
+				ParameterExpression parameter = cb.parameter(valueType);
+				predicates.add(cb.lessThanOrEqualTo(root.get(dbFilter.getDbCoulmnName()), parameter));
+				parameters.add(new FilterParameter(parameter, false));
+			} else if (condition.startsWith(">")) {
+				ParameterExpression parameter = cb.parameter(valueType);
+				predicates.add(cb.greaterThan(root.get(dbFilter.getDbCoulmnName()), parameter));
+				parameters.add(new FilterParameter(parameter, false));
+			} else if (condition.startsWith("<")) {
+				ParameterExpression parameter = cb.parameter(valueType);
+				predicates.add(cb.lessThan(root.get(dbFilter.getDbCoulmnName()), parameter));
+				parameters.add(new FilterParameter(parameter, false));
+			} else {
+				log.warn("Unsupported condition: {}", dbFilter.getCondition());
+				parameters.add(null);
 			}
 		}
 		return predicates;
@@ -151,8 +492,7 @@ public abstract class AbstractDao<PK, ENTITY> implements Dao<PK, ENTITY> {
 		}
 		
 		// Also consider paginationModel's sortingCol and order
-		if (paginationModel != null && paginationModel.getSortingCol() != null
-				&& !paginationModel.getSortingCol().isEmpty() && !paginationModel.getSortingCol().contains(" ") && !paginationModel.getSortingCol().contains("-1")) {
+		if (isSortable(paginationModel)) {
 			if (paginationModel.getOrder().equalsIgnoreCase(ORDERBYENUM.ASC.toString())) {
 				orders.add(cb.asc(root.get(paginationModel.getSortingCol())));
 			} else if (paginationModel.getOrder().equalsIgnoreCase(ORDERBYENUM.DESC.toString())) {
@@ -162,6 +502,16 @@ public abstract class AbstractDao<PK, ENTITY> implements Dao<PK, ENTITY> {
 		return orders;
 	}
 
+	private static boolean isSortable(PaginationModel paginationModel) {
+		return paginationModel != null && paginationModel.getSortingCol() != null
+				&& !paginationModel.getSortingCol().isEmpty() && !paginationModel.getSortingCol().contains(" ")
+				&& !paginationModel.getSortingCol().contains("-1");
+	}
+
+	private static boolean hasValue(DbFilter dbFilter) {
+		return dbFilter.getValue() != null && !dbFilter.getValue().toString().isEmpty();
+	}
+
 	@Override
 	public ENTITY persist(ENTITY entity) {
 		entityManager.persist(entity);
@@ -175,6 +525,46 @@ public abstract class AbstractDao<PK, ENTITY> implements Dao<PK, ENTITY> {
 		return entityManager.merge(entity);
 	}
 
+	@Override
+	public void persistAll(List<ENTITY> entities) {
+		List<ENTITY> chunk = new ArrayList<>(Math.min(entities.size(), batchSize));
+		for (ENTITY entity : entities) {
+			entityManager.persist(entity);
+			chunk.add(entity);
+			if (chunk.size() == batchSize) {
+				flushAndDetach(chunk);
+			}
+		}
+		entityManager.flush();
+	}
+
+	@Override
+	public List<ENTITY> updateAll(List<ENTITY> entities) {
+		List<ENTITY> merged = new ArrayList<>(entities.size());
+		List<ENTITY> chunk = new ArrayList<>(Math.min(entities.size(), batchSize));
+		for (ENTITY entity : entities) {
+			ENTITY managed = entityManager.merge(entity);
+			merged.add(managed);
+			chunk.add(managed);
+			if (chunk.size() == batchSize) {
+				flushAndDetach(chunk);
+			}
+		}
+		entityManager.flush();
+		return merged;
+	}
+
+	/**
+	 * Writes the chunk and drops it from the persistence context, leaving the entities the caller loaded managed.
+	 */
+	private void flushAndDetach(List<ENTITY> chunk) {
+		entityManager.flush();
+		for (ENTITY entity : chunk) {
+			entityManager.detach(entity);
+		}
+		chunk.clear();
+	}
+
 	@Override
 	public void delete(ENTITY entity) {
 		entityManager.remove(entityManager.contains(entity) ? entity : entityManager.merge(entity));
@@ -281,4 +671,118 @@ public abstract class AbstractDao<PK, ENTITY> implements Dao<PK, ENTITY> {
 				&& (dbFilter.getValue().toString().equalsIgnoreCase(ORDERBYENUM.ASC.toString())
 						|| dbFilter.getValue().toString().equalsIgnoreCase(ORDERBYENUM.DESC.toString())));
 	}
+
+	private enum QueryKind {
+		LIST, COUNT, LIST_WITH_COUNT
+	}
+
+	/**
+	 * Position of a keyset page: the first page, or after a row with a null or a non null sort value.
+	 */
+	private enum SeekState {
+		FIRST, NULL, VALUE
+	}
+
+	private static class KeysetSort {
+
+		private final String column;
+
+		private final boolean ascending;
+
+		private final String idAttribute;
+
+		KeysetSort(String column, boolean ascending, String idAttribute) {
+			this.column = column;
+			this.ascending = ascending;
+			this.idAttribute = idAttribute;
+		}
+
+		String getColumn() {
+			return column;
+		}
+
+		boolean isAscending() {
+			return ascending;
+		}
+
+		String getIdAttribute() {
+			return idAttribute;
+		}
+	}
+
+	/**
+	 * Parameter of a filter in a criteria query, {@code like} filters bind their value wrapped in
+	 * wildcards.
+	 */
+	private static class FilterParameter {
+
+		private final ParameterExpression<?> parameter;
+
+		private final boolean like;
+
+		FilterParameter(ParameterExpression<?> parameter, boolean like) {
+			this.parameter = parameter;
+			this.like = like;
+		}
+	}
+
+	/**
+	 * Criteria query built for a list of filters with a parameter per filter position, {@code null} where the
+	 * filter has no value or an unsupported condition. Keyset queries also hold the parameters of the last
+	 * sort value and id.
+	 */
+	private static class CriteriaPlan<R> {
+
+		private final CriteriaQuery<R> criteriaQuery;
+
+		private final List<FilterParameter> parameters;
+
+		private final ParameterExpression<?> seekValue;
+
+		private final Class<?> seekValueType;
+
+		private final ParameterExpression<?> seekId;
+
+		private final Class<?> seekIdType;
+
+		CriteriaPlan(CriteriaQuery<R> criteriaQuery, List<FilterParameter> parameters) {
+			this(criteriaQuery, parameters, null, null, null, null);
+		}
+
+		CriteriaPlan(CriteriaQuery<R> criteriaQuery, List<FilterParameter> parameters, ParameterExpression<?> seekValue,
+				Class<?> seekValueType, ParameterExpression<?> seekId, Class<?> seekIdType) {
+			this.criteriaQuery = criteriaQuery;
+			this.parameters = parameters;
+			this.seekValue = seekValue;
+			this.seekValueType = seekValueType;
+			this.seekId = seekId;
+			this.seekIdType = seekIdType;
+		}
+
+		CriteriaQuery<R> getCriteriaQuery() {
+			return criteriaQuery;
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		void bind(TypedQuery<?> typedQuery, List<DbFilter> dbFilters) {
+			for (int i = 0; i < parameters.size(); i++) {
+				FilterParameter filterParameter = parameters.get(i);
+				if (filterParameter != null) {
+					Object value = dbFilters.get(i).getValue();
+					typedQuery.setParameter((ParameterExpression) filterParameter.parameter,
+							filterParameter.like ? "%" + value + "%" : value);
+				}
+			}
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		void bindSeek(TypedQuery<?> typedQuery, KeysetToken after) {
+			if (seekValue != null) {
+				typedQuery.setParameter((ParameterExpression) seekValue, after.getValue(seekValueType));
+			}
+			if (seekId != null) {
+				typedQuery.setParameter((ParameterExpression) seekId, after.getId(seekIdType));
+			}
+		}
+	}
 }
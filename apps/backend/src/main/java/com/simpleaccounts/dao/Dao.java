@@ -2,6 +2,7 @@ package com.simpleaccounts.dao;
 
 import com.simpleaccounts.constant.dbfilter.DbFilter;
 import com.simpleaccounts.rest.PaginationModel;
+import com.simpleaccounts.rest.PaginationResponseModel;
 
 import java.util.List;
 import java.util.Map;
@@ -12,6 +13,11 @@ public interface Dao<PK, ENTITY> {
 
 	public ENTITY findByPK(PK pk);
 
+	/**
+	 * Loads the entity together with the associations of the named entity graph, which are left lazy otherwise.
+	 */
+	public ENTITY findByPK(PK pk, String entityGraph);
+
 	public List<ENTITY> executeNamedQuery(String namedQuery);
 
 	public List<ENTITY> executeQuery(List<DbFilter> dbFilters, PaginationModel paginationModel);
@@ -20,6 +26,20 @@ public interface Dao<PK, ENTITY> {
 
 	public ENTITY update(ENTITY entity);
 
+	/**
+	 * Persists the entities without the flush and refresh of {@link #persist(Object)}, so the inserts go out in JDBC
+	 * batches. Every chunk of the batch size is flushed and then detached, which bounds the persistence context;
+	 * entities of the list must not be changed after the call without {@link #update(Object)}.
+	 */
+	public void persistAll(List<ENTITY> entities);
+
+	/**
+	 * Merges the entities a chunk at a time like {@link #persistAll(List)}.
+	 *
+	 * @return the merged entities, in the order given
+	 */
+	public List<ENTITY> updateAll(List<ENTITY> entities);
+
 	public void delete(ENTITY entity);
 
 	public List<ENTITY> findByAttributes(Map<String, Object> attributes);
@@ -41,4 +61,16 @@ public interface Dao<PK, ENTITY> {
 	List<ENTITY> executeQuery(List<DbFilter> dbFilters);
 
 	Integer getResultCount(List<DbFilter> dbFilters);
+
+	/**
+	 * Returns the page of {@link #executeQuery(List, PaginationModel)} together with the total of
+	 * {@link #getResultCount(List)}, in one round trip where the database supports it.
+	 */
+	PaginationResponseModel executeQueryWithCount(List<DbFilter> dbFilters, PaginationModel paginationModel);
+
+	/**
+	 * Returns the page after {@link PaginationModel#getContinuationToken()} by seeking on the sort key and id
+	 * instead of an offset, with the token of the next page in the response.
+	 */
+	PaginationResponseModel executeKeysetQuery(List<DbFilter> dbFilters, PaginationModel paginationModel);
 }
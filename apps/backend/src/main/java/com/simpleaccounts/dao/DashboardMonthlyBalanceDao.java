@@ -0,0 +1,32 @@
+package com.simpleaccounts.dao;
+
+import com.simpleaccounts.entity.DashboardMonthlyBalance;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DashboardMonthlyBalanceDao extends Dao<Integer, DashboardMonthlyBalance> {
+
+    /**
+     * Adds the amount to the row of the category for the month.
+     *
+     * @return number of rows updated, {@code 0} if the category has no row for the month yet
+     */
+    public int addToMonth(TransactionCategory transactionCategory, LocalDate balanceMonth, BigDecimal amount);
+
+    /**
+     * Adds the amount to every row of the category for a month after {@code balanceMonth} in a single UPDATE.
+     *
+     * @return number of rows updated
+     */
+    public int addToMonthsAfter(TransactionCategory transactionCategory, LocalDate balanceMonth, BigDecimal amount);
+
+    /**
+     * @return rows of the months between both months inclusive for categories of the chart of account codes,
+     *         with category and chart of account fetched, ordered by month
+     */
+    public List<DashboardMonthlyBalance> getListByChartOfAccountCodes(LocalDate fromMonth, LocalDate toMonth,
+                                                                      List<String> chartOfAccountCodes);
+}
@@ -1,6 +1,27 @@
 package com.simpleaccounts.dao;
 
 import com.simpleaccounts.entity.EmailLogs;
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface EmailLogsDao  extends Dao<Integer, EmailLogs> {
+
+	/**
+	 * @return ids of the pending mails due at {@code now}, oldest due first
+	 */
+	List<Integer> getDueEmailIds(LocalDateTime now, int limit);
+
+	/**
+	 * Moves the mail from pending to sending unless another sender claimed it first.
+	 *
+	 * @return {@code true} if this call claimed the mail
+	 */
+	boolean claimEmail(Integer id, LocalDateTime now);
+
+	/**
+	 * Returns mails left in sending since before the date, by a sender that stopped, to pending.
+	 */
+	int releaseStaleEmails(LocalDateTime staleBefore);
+
+	List<EmailLogs> getEmailsByIds(List<Integer> ids);
 }
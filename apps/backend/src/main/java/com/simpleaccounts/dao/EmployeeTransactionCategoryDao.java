@@ -1,9 +1,16 @@
 package com.simpleaccounts.dao;
 
 import com.simpleaccounts.entity.EmployeeTransactionCategoryRelation;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Created By Zain Khan
  */
 public interface EmployeeTransactionCategoryDao extends Dao<Integer, EmployeeTransactionCategoryRelation>{
+
+    /**
+     * @return the relations of the employees with their transaction category, ordered by employee and relation id
+     */
+    List<EmployeeTransactionCategoryRelation> getRelationsByEmployeeIds(Collection<Integer> employeeIds);
 }
@@ -26,6 +26,11 @@ public interface ExpenseDao extends Dao<Integer, Expense> {
 
 	public void deleteByIds(List<Integer> ids);
 
+	/**
+	 * Exact match on the indexed expense number of active expenses.
+	 */
+	public boolean isExpenseNumberInUse(String expenseNumber);
+
 	public PaginationResponseModel getExpenseList(Map<ExpenseFIlterEnum, Object> filterMap, PaginationModel paginationModel);
 
     void sumOfTotalExpensesWithVat(ReportRequestModel reportRequestModel, VatReportResponseModel vatReportResponseModel);
@@ -34,4 +34,63 @@ public interface InventoryDao  extends Dao<Integer, Inventory> {
     public BigDecimal getTotalInventoryValue();
 
  Integer getTotalInventoryCountForContact(int contactId);
+
+    /**
+     * @return the rows of the product that still hold stock, oldest first, as [inventoryId, stockOnHand] read from
+     * the database rather than from the persistence context
+     */
+    List<Object[]> getStockLayers(Integer productId);
+
+    /**
+     * @return the oldest row of the product bought from the supplier, or null
+     */
+    Inventory getInventoryRow(Integer productId, Integer supplierId);
+
+    Integer getStockOnHand(Integer inventoryId);
+
+    /**
+     * Takes the quantity off the row in one statement, and only when the row still holds that much.
+     *
+     * @return 1 when the stock was taken, 0 when a concurrent movement got there first
+     */
+    int issueStock(Integer inventoryId, int quantity);
+
+    /**
+     * Puts a sold quantity back on the row.
+     */
+    int returnStock(Integer inventoryId, int quantity);
+
+    /**
+     * Adds a purchased quantity to the row and folds its cost into the weighted average unit cost of the row.
+     */
+    int receiveStock(Integer inventoryId, int quantity, float unitCost);
+
+    /**
+     * Adds a returned quantity to the row at the unit cost the row already carries.
+     */
+    int restock(Integer inventoryId, int quantity);
+
+    /**
+     * Takes a purchased quantity back off the row.
+     */
+    int removeReceipt(Integer inventoryId, int quantity);
+
+    /**
+     * @return the value of the stock on hand of the product divided by its quantity, zero without stock
+     */
+    BigDecimal getAveragePurchaseCost(Integer productId);
+
+    /**
+     * Writes the average purchase cost of the product without loading it, so concurrent movements of the same
+     * product do not collide on its version.
+     */
+    int updateAveragePurchaseCost(Integer productId, BigDecimal avgPurchaseCost);
+
+    /**
+     * Totals every INVENTORY row in one grouped scan, for the inventory dashboard.
+     *
+     * @return one row per product: [productId, productName, stockOnHand, quantitySold, rows at or below their
+     * reorder level, avgPurchaseCost]
+     */
+    List<Object[]> getInventorySummary();
 }
@@ -22,4 +22,11 @@ public interface InventoryHistoryDao extends Dao<Integer, InventoryHistory> {
     public TopInventoryRevenueModel getLowSellingProductsForInventory();
 
     List<InventoryHistory> getHistory(Integer productId, Integer supplierId);
+
+    /**
+     * @return the stock movements posted by the invoice, with their inventory rows
+     */
+    List<InventoryHistory> getMovementsByInvoiceId(Integer invoiceId);
+
+    long getMovementCount(Integer inventoryId);
 }
@@ -37,6 +37,11 @@ public interface InvoiceDao extends Dao<Integer, Invoice> {
 
 	public Invoice getLastInvoice(Integer invoiceType);
 
+	/**
+	 * Exact match on the indexed reference number of active invoices of any type.
+	 */
+	public boolean isReferenceNumberInUse(String referenceNumber);
+
 	public List<Invoice> getInvoiceList(Date startDate, Date endDate);
 
 	public EarningDetailsModel getTotalEarnings();
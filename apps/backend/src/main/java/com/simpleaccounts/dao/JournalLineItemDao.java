@@ -9,6 +9,7 @@ import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import com.simpleaccounts.entity.JournalLineItem;
 import com.simpleaccounts.entity.VatReportFiling;
@@ -30,6 +31,14 @@ public interface JournalLineItemDao extends Dao<Integer, JournalLineItem> {
 	public void deleteByJournalId(Integer journalId);
 
 	public List<JournalLineItem> getList(ReportRequestModel reportRequestModel);
+
+	/**
+	 * Reads the journal line items of the report period ordered by transaction category, journal date and id,
+	 * handing them to the consumer in chunks of {@code chunkSize}. Each chunk is detached from the persistence
+	 * context once consumed, so memory use does not depend on the size of the period.
+	 */
+	public void processListOrderedByCategory(ReportRequestModel reportRequestModel, int chunkSize,
+			Consumer<List<JournalLineItem>> chunkConsumer);
 	public Map<Integer, CreditDebitAggregator> getAggregateTransactionCategoryMap(FinancialReportRequestModel financialReportRequestModel, String reportType);
 
 	public List<JournalLineItem> getListByTransactionCategory(TransactionCategory transactionCategory);
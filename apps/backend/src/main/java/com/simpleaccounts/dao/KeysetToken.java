@@ -0,0 +1,105 @@
+package com.simpleaccounts.dao;
+
+import java.io.IOException;
+import java.util.Base64;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.simpleaccounts.exceptions.InvalidContinuationTokenException;
+
+/**
+ * Continuation token of a keyset page: the sort column and direction of the listing and the sort value and
+ * id of the last row returned, as URL safe Base64 of a small JSON object. The sort column and direction are
+ * kept so that a token is not applied to a listing sorted differently.
+ */
+final class KeysetToken {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new JavaTimeModule())
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+	private static final String SORT = "s";
+	private static final String ASCENDING = "a";
+	private static final String VALUE = "v";
+	private static final String ID = "i";
+
+	private final String sortColumn;
+
+	private final boolean ascending;
+
+	private final JsonNode value;
+
+	private final JsonNode id;
+
+	private KeysetToken(String sortColumn, boolean ascending, JsonNode value, JsonNode id) {
+		this.sortColumn = sortColumn;
+		this.ascending = ascending;
+		this.value = value;
+		this.id = id;
+	}
+
+	static String encode(String sortColumn, boolean ascending, Object value, Object id) {
+		ObjectNode node = MAPPER.createObjectNode();
+		node.put(SORT, sortColumn);
+		node.put(ASCENDING, ascending);
+		node.set(VALUE, MAPPER.valueToTree(value));
+		node.set(ID, MAPPER.valueToTree(id));
+		try {
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(node));
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not write continuation token", e);
+		}
+	}
+
+	/**
+	 * @throws InvalidContinuationTokenException if the token is malformed or belongs to another sort order
+	 */
+	static KeysetToken decode(String token, String sortColumn, boolean ascending) {
+		JsonNode node;
+		try {
+			node = MAPPER.readTree(Base64.getUrlDecoder().decode(token));
+		} catch (IOException | IllegalArgumentException e) {
+			throw new InvalidContinuationTokenException("Invalid continuation token", e);
+		}
+		if (node == null || !node.path(SORT).isTextual() || !node.path(ASCENDING).isBoolean() || !node.has(VALUE)
+				|| node.path(ID).isNull() || node.path(ID).isMissingNode()) {
+			throw new InvalidContinuationTokenException("Invalid continuation token");
+		}
+		if (!node.get(SORT).asText().equals(sortColumn) || node.get(ASCENDING).asBoolean() != ascending) {
+			throw new InvalidContinuationTokenException("Continuation token does not match the sort order of the listing");
+		}
+		return new KeysetToken(sortColumn, ascending, node.get(VALUE), node.get(ID));
+	}
+
+	String getSortColumn() {
+		return sortColumn;
+	}
+
+	boolean isAscending() {
+		return ascending;
+	}
+
+	boolean hasNullValue() {
+		return value.isNull();
+	}
+
+	<T> T getValue(Class<T> type) {
+		return convert(value, type);
+	}
+
+	<T> T getId(Class<T> type) {
+		return convert(id, type);
+	}
+
+	private static <T> T convert(JsonNode node, Class<T> type) {
+		try {
+			return MAPPER.treeToValue(node, type);
+		} catch (IOException | IllegalArgumentException e) {
+			throw new InvalidContinuationTokenException("Invalid continuation token", e);
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package com.simpleaccounts.dao;
+
+import java.util.List;
+
+import com.simpleaccounts.search.SearchDocumentType;
+
+/**
+ * Reads the entities of the global search, for rebuilding the index and for searching while it is not built yet.
+ */
+public interface SearchDocumentDao {
+
+	/**
+	 * @return the next page of not deleted entities of the type, in id order, starting after the given id
+	 */
+	List<?> getDocuments(SearchDocumentType type, Integer afterId, int pageSize);
+
+	/**
+	 * Matches the text attributes of the type with a case insensitive {@code LIKE '%text%'}. Only meant for the time
+	 * until the index is built, as such a LIKE cannot use an index.
+	 */
+	List<?> findByText(SearchDocumentType type, String text, int limit);
+
+}
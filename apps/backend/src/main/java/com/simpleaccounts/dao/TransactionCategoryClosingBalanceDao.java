@@ -27,6 +27,16 @@ public interface TransactionCategoryClosingBalanceDao extends Dao<Integer, Trans
                                                                                             TransactionCategory transactionCategory);
 
     public TransactionCategoryClosingBalance getLastClosingBalanceByDate(TransactionCategory category);
+
+    /**
+     * Adds the amounts to the opening and closing balance of every row of the category dated after
+     * {@code closingBalanceDate} in a single UPDATE statement.
+     *
+     * @param bankAmount amount for the bank account balance columns, {@code null} to leave them untouched
+     * @return number of rows updated
+     */
+    public int addToClosingBalancesAfter(LocalDateTime closingBalanceDate, TransactionCategory transactionCategory,
+                                         BigDecimal amount, BigDecimal bankAmount);
     public TransactionCategoryClosingBalance getFirstClosingBalanceByDate(TransactionCategory category);
 
     public List<TransactionCategoryClosingBalance> getList(ReportRequestModel reportRequestModel);
@@ -0,0 +1,51 @@
+package com.simpleaccounts.dao;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Grouped totals of the documents of a VAT period, from which the boxes of the VAT return are worked out. Every
+ * method reads its table once; amounts are converted to the base currency with the exchange rate of the document.
+ */
+public interface VatReturnDao {
+
+	/**
+	 * Totals of the standard rated, zero rated and exempt lines of invoices that are not drafts.
+	 *
+	 * @return rows of invoice type, VAT category id, reverse charge flag, delete flag, edit flag, place of supply id,
+	 *         place of supply name, line amount, line VAT, and the line amount and line VAT of invoices with VAT
+	 */
+	List<Object[]> getInvoiceLineTotals(LocalDate startDate, LocalDate endDate);
+
+	/**
+	 * Totals of supplier invoices with VAT subject to the reverse charge that are not drafts or deleted.
+	 *
+	 * @return rows of edit flag, invoice amount and invoice VAT
+	 */
+	List<Object[]> getReverseChargeInvoiceTotals(LocalDate startDate, LocalDate endDate);
+
+	/**
+	 * Totals of the standard and zero rated expenses that are not drafts or deleted.
+	 *
+	 * @return rows of VAT category id, reverse charge flag, VAT claimable flag, edit flag, amount and VAT
+	 */
+	List<Object[]> getExpenseTotals(LocalDate startDate, LocalDate endDate);
+
+	/**
+	 * Totals of the standard rated lines of debit notes that are not deleted.
+	 *
+	 * @return amount and VAT of the lines of debit notes that are not drafts, and the discount of all lines
+	 */
+	Object[] getDebitNoteTotals(OffsetDateTime startDate, OffsetDateTime endDate);
+
+	/**
+	 * Debits and credits booked on the input and output VAT accounts.
+	 *
+	 * @return rows of transaction category id, reference type, reversal flag, status of the referenced invoice,
+	 *         status and VAT claimable flag of the referenced expense, status of the referenced debit note, debit
+	 *         and credit
+	 */
+	List<Object[]> getVatAccountTotals(LocalDate startDate, LocalDate endDate, List<Integer> transactionCategoryIds);
+
+}
@@ -8,8 +8,10 @@ import com.simpleaccounts.model.TransactionReportRestModel;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 
 import com.simpleaccounts.dao.Dao;
 import com.simpleaccounts.entity.bankaccount.BankAccount;
@@ -86,7 +88,11 @@ public interface TransactionDao extends Dao<Integer, Transaction> {
 
   public  Boolean matchClosingBalanceForReconcile(LocalDateTime reconcileDate, BigDecimal closingBalance, Integer bankId);
 
-   public boolean isAlreadyExistSimilarTransaction(BigDecimal transactionAmount, LocalDateTime transactionDate, BankAccount bankAccount,String transactionDescription);
+   /**
+    * @return those of the fingerprints that a transaction of the bank account, not deleted, already has; looked up
+    * with one query per chunk of fingerprints
+    */
+   public Set<String> getExistingFingerprints(Integer bankAccountId, Collection<String> fingerprints);
 
    public void updateStatusByIds(ArrayList<Integer> ids, TransactionCreationMode potentialDuplicate);
 
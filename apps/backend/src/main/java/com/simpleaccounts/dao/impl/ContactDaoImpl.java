@@ -118,8 +118,7 @@ public class ContactDaoImpl extends AbstractDao<Integer, Contact> implements Con
 						.condition(productFilter.getCondition()).value(value).build()));
 		paginationModel.setSortingCol(
 				dataTableUtil.getColName(paginationModel.getSortingCol(), DatatableSortingFilterConstant.CONTACT));
-		return new PaginationResponseModel(this.getResultCount(dbFilters),
-				this.executeQuery(dbFilters, paginationModel));
+		return this.executeQueryWithCount(dbFilters, paginationModel);
 	}
 
 	@Override
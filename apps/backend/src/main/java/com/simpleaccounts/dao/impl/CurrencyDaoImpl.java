@@ -127,8 +127,7 @@ public class CurrencyDaoImpl extends AbstractDao<Integer, Currency> implements C
 		filterMap.forEach((currencyFilter, value) -> dbFilters
 				.add(DbFilter.builder().dbCoulmnName(currencyFilter.getDbColumnName())
 						.condition(currencyFilter.getCondition()).value(value).build()));
-		return new PaginationResponseModel(this.getResultCount(dbFilters),
-				this.executeQuery(dbFilters, paginationModel));
+		return this.executeQueryWithCount(dbFilters, paginationModel);
 	}
 	@Override
 	public void updateCurrency(Integer currencyCode){
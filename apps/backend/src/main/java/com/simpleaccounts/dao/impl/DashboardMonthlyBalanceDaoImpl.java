@@ -0,0 +1,57 @@
+package com.simpleaccounts.dao.impl;
+
+import com.simpleaccounts.constant.CommonColumnConstants;
+import com.simpleaccounts.dao.AbstractDao;
+import com.simpleaccounts.dao.DashboardMonthlyBalanceDao;
+import com.simpleaccounts.entity.DashboardMonthlyBalance;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class DashboardMonthlyBalanceDaoImpl extends AbstractDao<Integer, DashboardMonthlyBalance>
+        implements DashboardMonthlyBalanceDao {
+
+    private static final String BALANCE_MONTH = "balanceMonth";
+
+    private static final String AMOUNT = "amount";
+
+    @Override
+    public int addToMonth(TransactionCategory transactionCategory, LocalDate balanceMonth, BigDecimal amount) {
+        return getEntityManager().createQuery("update DashboardMonthlyBalance b set b.closingBalance = b.closingBalance + :amount "
+                + "where b.transactionCategory = :transactionCategory and b.balanceMonth = :balanceMonth")
+                .setParameter(AMOUNT, amount)
+                .setParameter(CommonColumnConstants.TRANSACTION_CATEGORY, transactionCategory)
+                .setParameter(BALANCE_MONTH, balanceMonth)
+                .executeUpdate();
+    }
+
+    @Override
+    public int addToMonthsAfter(TransactionCategory transactionCategory, LocalDate balanceMonth, BigDecimal amount) {
+        return getEntityManager().createQuery("update DashboardMonthlyBalance b set b.closingBalance = b.closingBalance + :amount "
+                + "where b.transactionCategory = :transactionCategory and b.balanceMonth > :balanceMonth")
+                .setParameter(AMOUNT, amount)
+                .setParameter(CommonColumnConstants.TRANSACTION_CATEGORY, transactionCategory)
+                .setParameter(BALANCE_MONTH, balanceMonth)
+                .executeUpdate();
+    }
+
+    @Override
+    public List<DashboardMonthlyBalance> getListByChartOfAccountCodes(LocalDate fromMonth, LocalDate toMonth,
+                                                                     List<String> chartOfAccountCodes) {
+        if (chartOfAccountCodes == null || chartOfAccountCodes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return getEntityManager().createQuery("select b from DashboardMonthlyBalance b "
+                + "join fetch b.transactionCategory tc join fetch tc.chartOfAccount coa "
+                + "where b.balanceMonth between :startDate and :endDate and coa.chartOfAccountCode in :accountCodes "
+                + "order by b.balanceMonth", DashboardMonthlyBalance.class)
+                .setParameter(CommonColumnConstants.START_DATE, fromMonth)
+                .setParameter(CommonColumnConstants.END_DATE, toMonth)
+                .setParameter("accountCodes", chartOfAccountCodes)
+                .getResultList();
+    }
+}
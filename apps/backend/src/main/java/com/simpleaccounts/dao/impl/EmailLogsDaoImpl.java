@@ -1,10 +1,60 @@
 package com.simpleaccounts.dao.impl;
 
+import com.simpleaccounts.constant.EmailStatusEnum;
 import com.simpleaccounts.dao.AbstractDao;
 import com.simpleaccounts.dao.EmailLogsDao;
 import com.simpleaccounts.entity.EmailLogs;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
 import org.springframework.stereotype.Repository;
 
 @Repository("emailLogs")
 public class EmailLogsDaoImpl extends AbstractDao<Integer, EmailLogs> implements EmailLogsDao {
+
+	private static final String STATUS = "status";
+
+	private static final String NOW = "now";
+
+	@Override
+	public List<Integer> getDueEmailIds(LocalDateTime now, int limit) {
+		return getEntityManager().createQuery("select e.id from EmailLogs e where e.status = :status "
+				+ "and e.nextAttemptDate <= :now order by e.nextAttemptDate, e.id", Integer.class)
+				.setParameter(STATUS, EmailStatusEnum.PENDING)
+				.setParameter(NOW, now)
+				.setMaxResults(limit)
+				.getResultList();
+	}
+
+	@Override
+	public boolean claimEmail(Integer id, LocalDateTime now) {
+		return getEntityManager().createQuery("update EmailLogs e set e.status = :sending, e.lastUpdateDate = :now, "
+				+ "e.versionNumber = e.versionNumber + 1 where e.id = :id and e.status = :status")
+				.setParameter("sending", EmailStatusEnum.SENDING)
+				.setParameter(NOW, now)
+				.setParameter("id", id)
+				.setParameter(STATUS, EmailStatusEnum.PENDING)
+				.executeUpdate() == 1;
+	}
+
+	@Override
+	public int releaseStaleEmails(LocalDateTime staleBefore) {
+		return getEntityManager().createQuery("update EmailLogs e set e.status = :pending, "
+				+ "e.versionNumber = e.versionNumber + 1 where e.status = :status and e.lastUpdateDate < :staleBefore")
+				.setParameter("pending", EmailStatusEnum.PENDING)
+				.setParameter(STATUS, EmailStatusEnum.SENDING)
+				.setParameter("staleBefore", staleBefore)
+				.executeUpdate();
+	}
+
+	@Override
+	public List<EmailLogs> getEmailsByIds(List<Integer> ids) {
+		if (ids == null || ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return getEntityManager().createQuery("select e from EmailLogs e where e.id in :ids order by e.nextAttemptDate, e.id",
+				EmailLogs.class)
+				.setParameter("ids", ids)
+				.getResultList();
+	}
 }
@@ -142,8 +142,7 @@ public class EmployeeDaoImpl extends AbstractDao<Integer, Employee> implements E
 				(productFilter, value) -> dbFilters.add(DbFilter.builder().dbCoulmnName(productFilter.getDbColumnName())
 						.condition(productFilter.getCondition()).value(value).build()));
 		paginationModel.setSortingCol(dataTableUtil.getColName(paginationModel.getSortingCol(), DatatableSortingFilterConstant.EMPLOYEE));
-		return new PaginationResponseModel(this.getResultCount(dbFilters),
-				this.executeQuery(dbFilters, paginationModel));
+		return this.executeQueryWithCount(dbFilters, paginationModel);
 
 	}
 
@@ -3,6 +3,9 @@ package com.simpleaccounts.dao.impl;
 import com.simpleaccounts.dao.AbstractDao;
 import com.simpleaccounts.dao.EmployeeTransactionCategoryDao;
 import com.simpleaccounts.entity.EmployeeTransactionCategoryRelation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -10,4 +13,21 @@ import org.springframework.stereotype.Repository;
  */
 @Repository("employeeTransactionCategoryDao")
 public class EmployeeTransactionCategoryDaoImpl extends AbstractDao<Integer, EmployeeTransactionCategoryRelation> implements EmployeeTransactionCategoryDao {
+
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    @Override
+    public List<EmployeeTransactionCategoryRelation> getRelationsByEmployeeIds(Collection<Integer> employeeIds) {
+        List<Integer> ids = new ArrayList<>(employeeIds);
+        List<EmployeeTransactionCategoryRelation> relations = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            relations.addAll(getEntityManager().createQuery(
+                    "SELECT r FROM EmployeeTransactionCategoryRelation r JOIN FETCH r.transactionCategory "
+                            + "WHERE r.employee.id IN :employeeIds ORDER BY r.employee.id, r.id",
+                    EmployeeTransactionCategoryRelation.class)
+                    .setParameter("employeeIds", ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size())))
+                    .getResultList());
+        }
+        return relations;
+    }
 }
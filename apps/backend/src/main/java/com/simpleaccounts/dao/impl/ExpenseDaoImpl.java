@@ -167,6 +167,14 @@ public class ExpenseDaoImpl extends AbstractDao<Integer, Expense> implements Exp
 		}
 	}
 
+	@Override
+	public boolean isExpenseNumberInUse(String expenseNumber) {
+		return !getEntityManager()
+				.createQuery("select e.expenseId from Expense e where e.expenseNumber = :expenseNumber and e.deleteFlag = false",
+						Integer.class)
+				.setParameter("expenseNumber", expenseNumber).setMaxResults(1).getResultList().isEmpty();
+	}
+
 	@Override
 	public PaginationResponseModel getExpenseList(Map<ExpenseFIlterEnum, Object> filterMap,
 			PaginationModel paginationModel) {
@@ -13,6 +13,7 @@ import com.simpleaccounts.rest.PaginationModel;
 import com.simpleaccounts.rest.PaginationResponseModel;
 import com.simpleaccounts.rest.productcontroller.InventoryListModel;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -40,8 +41,7 @@ public class InventoryDaoImpl extends AbstractDao<Integer, Inventory> implements
         if (paginationModel != null)
             paginationModel.setSortingCol(
                     dataTableUtil.getColName(paginationModel.getSortingCol(), DatatableSortingFilterConstant.INVENTORY));
-        return new PaginationResponseModel(this.getResultCount(dbFilters),
-                this.executeQuery(dbFilters, paginationModel));
+        return this.executeQueryWithCount(dbFilters, paginationModel);
     }
 
     /**
@@ -154,4 +154,146 @@ public class InventoryDaoImpl extends AbstractDao<Integer, Inventory> implements
         return null;
 
     }
+
+    @Override
+    public List<Object[]> getStockLayers(Integer productId) {
+        return getEntityManager().createQuery(
+                "SELECT i.inventoryID, i.stockOnHand FROM Inventory i WHERE i.productId.productID = :productId"
+                        + " AND i.stockOnHand > 0 ORDER BY i.inventoryID", Object[].class)
+                .setParameter(CommonColumnConstants.PRODUCT_ID, productId)
+                .getResultList();
+    }
+
+    @Override
+    public Inventory getInventoryRow(Integer productId, Integer supplierId) {
+        TypedQuery<Inventory> query = getEntityManager().createQuery("SELECT i FROM Inventory i"
+                + " WHERE i.productId.productID = :productId AND "
+                + (supplierId != null ? "i.supplierId.contactId = :supplierId" : "i.supplierId IS NULL")
+                + " ORDER BY i.inventoryID", Inventory.class);
+        query.setParameter(CommonColumnConstants.PRODUCT_ID, productId);
+        if (supplierId != null) {
+            query.setParameter("supplierId", supplierId);
+        }
+        List<Inventory> result = query.setMaxResults(1).getResultList();
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @Override
+    public Integer getStockOnHand(Integer inventoryId) {
+        List<Integer> result = getEntityManager().createQuery(
+                "SELECT i.stockOnHand FROM Inventory i WHERE i.inventoryID = :inventoryId", Integer.class)
+                .setParameter("inventoryId", inventoryId)
+                .getResultList();
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @Override
+    public int issueStock(Integer inventoryId, int quantity) {
+        return getEntityManager().createQuery("UPDATE Inventory i SET i.stockOnHand = i.stockOnHand - :quantity,"
+                + " i.quantitySold = COALESCE(i.quantitySold, 0) + :quantity, i.lastUpdateDate = :now,"
+                + " i.versionNumber = i.versionNumber + 1"
+                + " WHERE i.inventoryID = :inventoryId AND i.stockOnHand >= :quantity")
+                .setParameter("quantity", quantity)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("inventoryId", inventoryId)
+                .executeUpdate();
+    }
+
+    @Override
+    public int returnStock(Integer inventoryId, int quantity) {
+        return getEntityManager().createQuery("UPDATE Inventory i SET i.stockOnHand = i.stockOnHand + :quantity,"
+                + " i.quantitySold = COALESCE(i.quantitySold, 0) - :quantity, i.lastUpdateDate = :now,"
+                + " i.versionNumber = i.versionNumber + 1"
+                + " WHERE i.inventoryID = :inventoryId")
+                .setParameter("quantity", quantity)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("inventoryId", inventoryId)
+                .executeUpdate();
+    }
+
+    @Override
+    public int receiveStock(Integer inventoryId, int quantity, float unitCost) {
+        String increment = " i.stockOnHand = i.stockOnHand + :quantity,"
+                + " i.purchaseQuantity = COALESCE(i.purchaseQuantity, 0) + :quantity, i.lastUpdateDate = :now,"
+                + " i.versionNumber = i.versionNumber + 1";
+        while (true) {
+            int updated = getEntityManager().createQuery("UPDATE Inventory i SET"
+                    + " i.unitCost = (i.stockOnHand * i.unitCost + :quantity * :unitCost) / (i.stockOnHand + :quantity),"
+                    + increment + " WHERE i.inventoryID = :inventoryId AND i.stockOnHand > 0")
+                    .setParameter("quantity", quantity)
+                    .setParameter("unitCost", unitCost)
+                    .setParameter("now", LocalDateTime.now())
+                    .setParameter("inventoryId", inventoryId)
+                    .executeUpdate();
+            if (updated == 0) {
+                // an empty row takes the cost of the new stock
+                updated = getEntityManager().createQuery("UPDATE Inventory i SET i.unitCost = :unitCost,"
+                        + increment + " WHERE i.inventoryID = :inventoryId AND i.stockOnHand <= 0")
+                        .setParameter("quantity", quantity)
+                        .setParameter("unitCost", unitCost)
+                        .setParameter("now", LocalDateTime.now())
+                        .setParameter("inventoryId", inventoryId)
+                        .executeUpdate();
+            }
+            if (updated > 0 || getStockOnHand(inventoryId) == null) {
+                return updated;
+            }
+        }
+    }
+
+    @Override
+    public int restock(Integer inventoryId, int quantity) {
+        return getEntityManager().createQuery("UPDATE Inventory i SET i.stockOnHand = i.stockOnHand + :quantity,"
+                + " i.purchaseQuantity = COALESCE(i.purchaseQuantity, 0) + :quantity, i.lastUpdateDate = :now,"
+                + " i.versionNumber = i.versionNumber + 1"
+                + " WHERE i.inventoryID = :inventoryId")
+                .setParameter("quantity", quantity)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("inventoryId", inventoryId)
+                .executeUpdate();
+    }
+
+    @Override
+    public int removeReceipt(Integer inventoryId, int quantity) {
+        return getEntityManager().createQuery("UPDATE Inventory i SET i.stockOnHand = i.stockOnHand - :quantity,"
+                + " i.purchaseQuantity = COALESCE(i.purchaseQuantity, 0) - :quantity, i.lastUpdateDate = :now,"
+                + " i.versionNumber = i.versionNumber + 1"
+                + " WHERE i.inventoryID = :inventoryId")
+                .setParameter("quantity", quantity)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("inventoryId", inventoryId)
+                .executeUpdate();
+    }
+
+    @Override
+    public BigDecimal getAveragePurchaseCost(Integer productId) {
+        Object[] totals = getEntityManager().createQuery(
+                "SELECT SUM(i.stockOnHand), SUM(i.stockOnHand * i.unitCost) FROM Inventory i"
+                        + " WHERE i.productId.productID = :productId AND i.stockOnHand > 0", Object[].class)
+                .setParameter(CommonColumnConstants.PRODUCT_ID, productId)
+                .getSingleResult();
+        if (totals[0] == null || ((Number) totals[0]).longValue() == 0 || totals[1] == null) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(((Number) totals[1]).doubleValue() / ((Number) totals[0]).doubleValue());
+    }
+
+    @Override
+    public int updateAveragePurchaseCost(Integer productId, BigDecimal avgPurchaseCost) {
+        return getEntityManager().createQuery(
+                "UPDATE Product p SET p.avgPurchaseCost = :avgPurchaseCost WHERE p.productID = :productId")
+                .setParameter("avgPurchaseCost", avgPurchaseCost)
+                .setParameter(CommonColumnConstants.PRODUCT_ID, productId)
+                .executeUpdate();
+    }
+
+    @Override
+    public List<Object[]> getInventorySummary() {
+        return getEntityManager().createQuery("SELECT p.productID, p.productName, SUM(i.stockOnHand),"
+                + " SUM(COALESCE(i.quantitySold, 0)),"
+                + " SUM(CASE WHEN i.stockOnHand <= i.reorderLevel THEN 1 ELSE 0 END), p.avgPurchaseCost"
+                + " FROM Inventory i JOIN i.productId p"
+                + " GROUP BY p.productID, p.productName, p.avgPurchaseCost ORDER BY p.productID", Object[].class)
+                .getResultList();
+    }
 }
@@ -60,11 +60,12 @@ public class InventoryHistoryDaoImpl extends AbstractDao<Integer, InventoryHisto
     }
 
     private BigDecimal getTotalQtySold(Date startDate, Date endDate) {
-        TypedQuery<BigDecimal> query = getEntityManager().createNamedQuery("getTotalQtySold", BigDecimal.class);
+        TypedQuery<Double> query = getEntityManager().createNamedQuery("getTotalQtySold", Double.class);
         query.setParameter(CommonColumnConstants.START_DATE, dateUtil.get(startDate));
         query.setParameter(CommonColumnConstants.END_DATE, dateUtil.get(endDate));
         query.setMaxResults(1);
-        return query.getSingleResult();
+        Double result = query.getSingleResult();
+        return result != null ? BigDecimal.valueOf(result) : BigDecimal.ZERO;
     }
     public InventoryRevenueModel getTotalQuantitySoldForInventory(){
         Date date = new Date();
@@ -210,4 +211,20 @@ public class InventoryHistoryDaoImpl extends AbstractDao<Integer, InventoryHisto
        query.setParameter("supplierId",supplierId);
       return query.getResultList();
    }
+
+    @Override
+    public List<InventoryHistory> getMovementsByInvoiceId(Integer invoiceId) {
+        return getEntityManager().createQuery("SELECT ih FROM InventoryHistory ih JOIN FETCH ih.inventory"
+                + " WHERE ih.invoice.id = :invoiceId ORDER BY ih.inventoryHistoryId", InventoryHistory.class)
+                .setParameter("invoiceId", invoiceId)
+                .getResultList();
+    }
+
+    @Override
+    public long getMovementCount(Integer inventoryId) {
+        return getEntityManager().createQuery(
+                "SELECT COUNT(ih) FROM InventoryHistory ih WHERE ih.inventory.inventoryID = :inventoryId", Long.class)
+                .setParameter("inventoryId", inventoryId)
+                .getSingleResult();
+    }
 }
@@ -72,10 +72,10 @@ public class InvoiceDaoImpl extends AbstractDao<Integer, Invoice> implements Inv
 						.condition(productFilter.getCondition()).value(value).build()));
 		paginationModel.setSortingCol(
 				datatableUtil.getColName(paginationModel.getSortingCol(), DatatableSortingFilterConstant.INVOICE));
-		PaginationResponseModel response = new PaginationResponseModel();
-		response.setCount(this.getResultCount(dbFilters));
-		response.setData(this.executeQuery(dbFilters, paginationModel));
-		return response;
+		if (paginationModel.isKeysetPagination()) {
+			return this.executeKeysetQuery(dbFilters, paginationModel);
+		}
+		return this.executeQueryWithCount(dbFilters, paginationModel);
 	}
 	@Override
 	public List<DropdownModel> getInvoicesForDropdown(Integer type) {
@@ -116,6 +116,13 @@ public class InvoiceDaoImpl extends AbstractDao<Integer, Invoice> implements Inv
 		return invoiceList != null && !invoiceList.isEmpty() ? invoiceList.get(0) : null;
 	}
 	@Override
+	public boolean isReferenceNumberInUse(String referenceNumber) {
+		return !getEntityManager()
+				.createQuery("select i.id from Invoice i where i.referenceNumber = :referenceNumber and i.deleteFlag = false",
+						Integer.class)
+				.setParameter("referenceNumber", referenceNumber).setMaxResults(1).getResultList().isEmpty();
+	}
+	@Override
 	public List<Invoice> getInvoiceList(Date startDate, Date endDate) {
 		TypedQuery<Invoice> query = getEntityManager().createNamedQuery("activeInvoicesByDateRange", Invoice.class);
 		query.setParameter(CommonColumnConstants.START_DATE, dateUtil.get(startDate).toLocalDate());
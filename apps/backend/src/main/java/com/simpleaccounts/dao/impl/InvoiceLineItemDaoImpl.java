@@ -5,22 +5,28 @@ import com.simpleaccounts.constant.CommonColumnConstants;
 import com.simpleaccounts.dao.AbstractDao;
 import com.simpleaccounts.entity.InvoiceLineItem;
 import com.simpleaccounts.dao.InvoiceLineItemDao;
+import com.simpleaccounts.helper.VatLedgerVersion;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
 
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Repository
+@RequiredArgsConstructor
 public class InvoiceLineItemDaoImpl extends AbstractDao<Integer, InvoiceLineItem> implements InvoiceLineItemDao {
 
+    private final VatLedgerVersion vatLedgerVersion;
+
     @Override
     @Transactional
     public void deleteByInvoiceId(Integer invoiceId) {
         Query query = getEntityManager().createQuery("DELETE FROM InvoiceLineItem i WHERE i.invoice.id = :invoiceId ");
         query.setParameter("invoiceId", invoiceId);
         query.executeUpdate();
+        vatLedgerVersion.changed();
     }
     @Override
     public Integer getTotalInvoiceCountByProductId(Integer productId){
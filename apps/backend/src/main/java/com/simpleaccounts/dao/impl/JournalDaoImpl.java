@@ -20,9 +20,11 @@ import com.simpleaccounts.dao.AbstractDao;
 import com.simpleaccounts.dao.JournalDao;
 import com.simpleaccounts.entity.Journal;
 import com.simpleaccounts.entity.JournalLineItem;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
 import com.simpleaccounts.rest.PaginationModel;
 import com.simpleaccounts.rest.PaginationResponseModel;
 import com.simpleaccounts.service.TransactionCategoryBalanceService;
+import com.simpleaccounts.service.impl.BalanceUpdateCoordinator;
 
 import javax.persistence.Query;
 @Slf4j
@@ -36,6 +38,8 @@ public class JournalDaoImpl extends AbstractDao<Integer, Journal> implements Jou
 
 	private final JournalLineItemDao journalLineItemDao;
 
+	private final BalanceUpdateCoordinator balanceUpdateCoordinator;
+
 	@Override
 	public void deleteByIds(List<Integer> ids) {
 		if (ids != null && !ids.isEmpty()) {
@@ -43,6 +47,7 @@ public class JournalDaoImpl extends AbstractDao<Integer, Journal> implements Jou
 				Journal journal = findByPK(id);
 				journal.setDeleteFlag(Boolean.TRUE);
 				if (journal.getJournalLineItems() != null && !journal.getJournalLineItems().isEmpty()) {
+					lockTransactionCategories(journal);
 					for (JournalLineItem journalLineItem : journal.getJournalLineItems()) {
 						journalLineItem.setDeleteFlag(true);
 						transactionCategoryBalanceService.updateRunningBalance(journalLineItem);
@@ -61,6 +66,7 @@ public class JournalDaoImpl extends AbstractDao<Integer, Journal> implements Jou
 				Journal journal = findByPK(id);
 				journal.setDeleteFlag(Boolean.TRUE);
 				if (journal.getJournalLineItems() != null && !journal.getJournalLineItems().isEmpty()) {
+					lockTransactionCategories(journal);
 					for (JournalLineItem journalLineItem : journal.getJournalLineItems()) {
 						journalLineItem.setDeleteFlag(true);
 						transactionCategoryBalanceService.updateRunningBalanceAndOpeningBalance(journalLineItem ,updateOpeningBalance);
@@ -71,6 +77,14 @@ public class JournalDaoImpl extends AbstractDao<Integer, Journal> implements Jou
 			}
 		}
 	}
+	private void lockTransactionCategories(Journal journal) {
+		List<TransactionCategory> categories = new ArrayList<>();
+		for (JournalLineItem journalLineItem : journal.getJournalLineItems()) {
+			categories.add(journalLineItem.getTransactionCategory());
+		}
+		balanceUpdateCoordinator.lockCategories(categories);
+	}
+
 	@Override
 	public PaginationResponseModel getJornalList(Map<JournalFilterEnum, Object> filterMap,
 			PaginationModel paginationModel) {
@@ -24,6 +24,7 @@ import com.simpleaccounts.dao.AbstractDao;
 import com.simpleaccounts.dao.JournalLineItemDao;
 import com.simpleaccounts.entity.JournalLineItem;
 import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.helper.VatLedgerVersion;
 import com.simpleaccounts.rest.detailedgeneralledgerreport.ReportRequestModel;
 import com.simpleaccounts.utils.DateFormatUtil;
 import java.math.BigDecimal;
@@ -31,6 +32,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.persistence.ParameterMode;
@@ -45,16 +47,30 @@ public class JournalLineItemDaoImpl extends AbstractDao<Integer, JournalLineItem
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(JournalLineItemDaoImpl.class);
 
+	private static final String DETAILED_LEDGER_QUERY = "select jn from JournalLineItem jn join fetch jn.journal j"
+			+ " join fetch jn.transactionCategory tc left join tc.parentTransactionCategory ptc"
+			+ " left join fetch jn.contact left join fetch jn.vatCategory"
+			+ " where j.journalDate between :startDate and :endDate";
+
+	private static final String DETAILED_LEDGER_KEYSET = " and (tc.transactionCategoryId > :lastCategoryId"
+			+ " or (tc.transactionCategoryId = :lastCategoryId and j.journalDate > :lastJournalDate)"
+			+ " or (tc.transactionCategoryId = :lastCategoryId and j.journalDate = :lastJournalDate and jn.id > :lastLineItemId))";
+
+	private static final String DETAILED_LEDGER_ORDER = " order by tc.transactionCategoryId, j.journalDate, jn.id";
+
 	private final DateFormatUtil dateUtil;
 
 	private final DatatableSortingFilterConstant datatableUtil;
 
+	private final VatLedgerVersion vatLedgerVersion;
+
 	@Override
 	@Transactional
 	public void deleteByJournalId(Integer journalId) {
 		Query query = getEntityManager().createQuery("DELETE FROM JournalLineItem e WHERE e.journal.id = :journalId ");
 		query.setParameter("journalId", journalId);
 		query.executeUpdate();
+		vatLedgerVersion.changed();
 	}
 
 	@Override
@@ -111,6 +127,59 @@ public class JournalLineItemDaoImpl extends AbstractDao<Integer, JournalLineItem
 		return list != null && !list.isEmpty() ? list : null;
 	}
 
+	@Override
+	public void processListOrderedByCategory(ReportRequestModel reportRequestModel, int chunkSize,
+			Consumer<List<JournalLineItem>> chunkConsumer) {
+		DateTimeFormatter formatter = DateTimeFormatter.ofPattern(CommonColumnConstants.DD_MM_YYYY);
+		LocalDate fromDate = LocalDate.parse(reportRequestModel.getStartDate(), formatter);
+		LocalDate toDate = LocalDate.parse(reportRequestModel.getEndDate(), formatter);
+		boolean cashBasis = "CASH".equals(reportRequestModel.getReportBasis());
+
+		StringBuilder filter = new StringBuilder();
+		if (reportRequestModel.getChartOfAccountId() != null) {
+			filter.append("tc.transactionCategoryId = :transactionCategoryId or ptc.transactionCategoryId = :transactionCategoryId");
+		}
+		if (cashBasis) {
+			filter.append(filter.length() > 0 ? " or " : "").append("tc.transactionCategoryCode in :transactionCategoryCodes");
+		}
+		String queryStr = DETAILED_LEDGER_QUERY + (filter.length() > 0 ? " and (" + filter + ")" : "");
+
+		Integer lastCategoryId = null;
+		LocalDate lastJournalDate = null;
+		Integer lastLineItemId = null;
+		List<JournalLineItem> chunk;
+		do {
+			String chunkQueryStr = queryStr + (lastLineItemId != null ? DETAILED_LEDGER_KEYSET : "") + DETAILED_LEDGER_ORDER;
+			TypedQuery<JournalLineItem> query = getEntityManager().createQuery(chunkQueryStr, JournalLineItem.class)
+					.setParameter(CommonColumnConstants.START_DATE, fromDate)
+					.setParameter(CommonColumnConstants.END_DATE, toDate)
+					.setMaxResults(chunkSize);
+			if (reportRequestModel.getChartOfAccountId() != null) {
+				query.setParameter(CommonColumnConstants.TRANSACTION_CATEGORY_ID, reportRequestModel.getChartOfAccountId());
+			}
+			if (cashBasis) {
+				query.setParameter("transactionCategoryCodes",
+						Arrays.asList(TransactionCategoryCodeEnum.ACCOUNT_RECEIVABLE.getCode(),
+								TransactionCategoryCodeEnum.ACCOUNT_PAYABLE.getCode()));
+			}
+			if (lastLineItemId != null) {
+				query.setParameter("lastCategoryId", lastCategoryId);
+				query.setParameter("lastJournalDate", lastJournalDate);
+				query.setParameter("lastLineItemId", lastLineItemId);
+			}
+			chunk = query.getResultList();
+			if (chunk.isEmpty()) {
+				break;
+			}
+			JournalLineItem last = chunk.get(chunk.size() - 1);
+			lastCategoryId = last.getTransactionCategory().getTransactionCategoryId();
+			lastJournalDate = last.getJournal().getJournalDate();
+			lastLineItemId = last.getId();
+			chunkConsumer.accept(chunk);
+			getEntityManager().clear();
+		} while (chunk.size() == chunkSize);
+	}
+
 	@Override
 	public List<JournalLineItem> getListByTransactionCategory(TransactionCategory transactionCategory) {
 		return getEntityManager().createNamedQuery("getListByTransactionCategory")
@@ -127,10 +196,10 @@ public class JournalLineItemDaoImpl extends AbstractDao<Integer, JournalLineItem
 					datatableUtil.getColName(paginationModel.getSortingCol(), DatatableSortingFilterConstant.JOURNAL_LINE_ITEM));
 		   dbFilters.add(DbFilter.builder().dbCoulmnName("transactionCategory")
 				.condition(" IN (:transactionCategory) ").value(transactionCategoryList).build());
-			PaginationResponseModel response = new PaginationResponseModel();
-			response.setCount(this.getResultCount(dbFilters));
-			response.setData(this.executeQuery(dbFilters, paginationModel));
-			return response;
+			if (paginationModel.isKeysetPagination()) {
+				return this.executeKeysetQuery(dbFilters, paginationModel);
+			}
+			return this.executeQueryWithCount(dbFilters, paginationModel);
 	}
 
 	@Override
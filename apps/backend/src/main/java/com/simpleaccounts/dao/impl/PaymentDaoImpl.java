@@ -53,8 +53,7 @@ public class PaymentDaoImpl extends AbstractDao<Integer, Payment> implements Pay
 						.condition(productFilter.getCondition()).value(value).build()));
 		paginationModel.setSortingCol(
 				dataTableUtil.getColName(paginationModel.getSortingCol(), DatatableSortingFilterConstant.PAYMENT));
-		return new PaginationResponseModel(this.getResultCount(dbFilters),
-				this.executeQuery(dbFilters, paginationModel));
+		return this.executeQueryWithCount(dbFilters, paginationModel);
 	}
 
 	@Override
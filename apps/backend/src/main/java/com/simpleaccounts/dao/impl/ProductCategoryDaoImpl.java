@@ -29,8 +29,7 @@ public class ProductCategoryDaoImpl extends AbstractDao<Integer, ProductCategory
 				.add(DbFilter.builder().dbCoulmnName(productCategoryFilter.getDbColumnName())
 						.condition(productCategoryFilter.getCondition()).value(value).build()));
 		paginationModel.setSortingCol(dataTableUtil.getColName(paginationModel.getSortingCol(), DatatableSortingFilterConstant.PRODUCT_CATEGORY));
-		return new PaginationResponseModel(this.getResultCount(dbFilters),
-				this.executeQuery(dbFilters, paginationModel));
+		return this.executeQueryWithCount(dbFilters, paginationModel);
 	}
 
 	@Override
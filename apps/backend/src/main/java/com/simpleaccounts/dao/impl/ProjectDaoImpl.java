@@ -34,8 +34,7 @@ public class ProjectDaoImpl extends AbstractDao<Integer, Project> implements Pro
 				(projectFilter, value) -> dbFilters.add(DbFilter.builder().dbCoulmnName(projectFilter.getDbColumnName())
 						.condition(projectFilter.getCondition()).value(value).build()));
 		paginationModel.setSortingCol(dataTableUtil.getColName(paginationModel.getSortingCol(), DatatableSortingFilterConstant.PROJECT));
-		return new PaginationResponseModel(this.getResultCount(dbFilters),
-				this.executeQuery(dbFilters, paginationModel));
+		return this.executeQueryWithCount(dbFilters, paginationModel);
 	}
 
 	@Override
@@ -0,0 +1,48 @@
+package com.simpleaccounts.dao.impl;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.stereotype.Repository;
+
+import com.simpleaccounts.dao.SearchDocumentDao;
+import com.simpleaccounts.search.SearchDocumentType;
+
+@Repository
+public class SearchDocumentDaoImpl implements SearchDocumentDao {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<?> getDocuments(SearchDocumentType type, Integer afterId, int pageSize) {
+		String jpql = "SELECT e FROM " + type.getEntityClass().getSimpleName() + " e" + type.getFetch()
+				+ " WHERE e.deleteFlag = false AND e." + type.getIdAttribute() + " > :afterId ORDER BY e."
+				+ type.getIdAttribute();
+		return entityManager.createQuery(jpql, type.getEntityClass())
+				.setParameter("afterId", afterId != null ? afterId : Integer.MIN_VALUE).setMaxResults(pageSize)
+				.getResultList();
+	}
+
+	@Override
+	public List<?> findByText(SearchDocumentType type, String text, int limit) {
+		StringJoiner matches = new StringJoiner(" OR ", "(", ")");
+		for (String attribute : type.getTextAttributes()) {
+			matches.add("LOWER(e." + attribute + ") LIKE :text ESCAPE '!'");
+		}
+		String jpql = "SELECT e FROM " + type.getEntityClass().getSimpleName() + " e" + type.getFetch()
+				+ " WHERE e.deleteFlag = false AND " + matches + " ORDER BY e." + type.getIdAttribute() + " DESC";
+		return entityManager.createQuery(jpql, type.getEntityClass())
+				.setParameter("text", "%" + escape(text.toLowerCase(Locale.ROOT)) + "%").setMaxResults(limit)
+				.getResultList();
+	}
+
+	private static String escape(String text) {
+		return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+	}
+
+}
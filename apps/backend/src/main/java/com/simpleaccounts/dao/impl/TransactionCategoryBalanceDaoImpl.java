@@ -67,8 +67,7 @@ public class TransactionCategoryBalanceDaoImpl extends AbstractDao<Integer, Tran
 										.condition(" NOT IN(:transactionCategory)")
 										.value(transactionCategories).build());
 
-		return new PaginationResponseModel(this.getResultCount(dbFilters),
-				this.executeQuery(dbFilters, paginationModel));
+		return this.executeQueryWithCount(dbFilters, paginationModel);
 	}
 
 }
@@ -154,6 +154,7 @@ public class TransactionCategoryClosingBalanceDaoImpl extends AbstractDao<Intege
         TypedQuery<TransactionCategoryClosingBalance> query = getEntityManager().createNamedQuery("getListByForDate", TransactionCategoryClosingBalance.class);
         query.setParameter(CommonColumnConstants.END_DATE, closingBalanceEndDate);
         query.setParameter(CommonColumnConstants.TRANSACTION_CATEGORY, transactionCategory);
+        query.setMaxResults(1);
         List<TransactionCategoryClosingBalance> transactionCategoryClosingBalanceList = query.getResultList();
         return transactionCategoryClosingBalanceList != null && !transactionCategoryClosingBalanceList.isEmpty() ?
                 transactionCategoryClosingBalanceList.get(0) : null;
@@ -162,10 +163,36 @@ public class TransactionCategoryClosingBalanceDaoImpl extends AbstractDao<Intege
     {
         TypedQuery<TransactionCategoryClosingBalance> query = getEntityManager().createNamedQuery("getLastClosingBalanceByDate", TransactionCategoryClosingBalance.class);
         query.setParameter(CommonColumnConstants.TRANSACTION_CATEGORY, category);
+        query.setMaxResults(1);
         List<TransactionCategoryClosingBalance> transactionCategoryClosingBalanceList = query.getResultList();
         return transactionCategoryClosingBalanceList != null && !transactionCategoryClosingBalanceList.isEmpty() ?
                 transactionCategoryClosingBalanceList.get(0) :null;
     }
+
+    @Override
+    public int addToClosingBalancesAfter(LocalDateTime closingBalanceDate, TransactionCategory transactionCategory,
+                                         BigDecimal amount, BigDecimal bankAmount)
+    {
+        StringBuilder queryStr = new StringBuilder("update TransactionCategoryClosingBalance tcb set ")
+                .append("tcb.openingBalance = tcb.openingBalance + :amount, ")
+                .append("tcb.closingBalance = tcb.closingBalance + :amount, ");
+        if (bankAmount != null) {
+            queryStr.append("tcb.bankAccountOpeningBalance = coalesce(tcb.bankAccountOpeningBalance, :zero) + :bankAmount, ")
+                    .append("tcb.bankAccountClosingBalance = coalesce(tcb.bankAccountClosingBalance, :zero) + :bankAmount, ");
+        }
+        queryStr.append("tcb.versionNumber = tcb.versionNumber + 1 ")
+                .append("where tcb.transactionCategory = :transactionCategory and tcb.closingBalanceDate > :endDate");
+
+        Query query = getEntityManager().createQuery(queryStr.toString());
+        query.setParameter("amount", amount);
+        if (bankAmount != null) {
+            query.setParameter("bankAmount", bankAmount);
+            query.setParameter("zero", BigDecimal.ZERO);
+        }
+        query.setParameter(CommonColumnConstants.TRANSACTION_CATEGORY, transactionCategory);
+        query.setParameter(CommonColumnConstants.END_DATE, closingBalanceDate);
+        return query.executeUpdate();
+    }
     public TransactionCategoryClosingBalance getFirstClosingBalanceByDate(TransactionCategory category)
     {
         TypedQuery<TransactionCategoryClosingBalance> query = getEntityManager().createNamedQuery("getLastClosingBalanceByDate", TransactionCategoryClosingBalance.class);
@@ -31,7 +31,8 @@ public class UserDaoImpl extends AbstractDao<Integer, User> implements UserDao {
 	private final DatatableSortingFilterConstant dataTableUtil;
 
 	public Optional<User> getUserByEmail(String emailAddress) {
-		Query query = this.getEntityManager().createQuery("SELECT u FROM User AS u WHERE u.userEmail =:email AND u.isActive=true AND u.deleteFlag=false");
+		Query query = withEntityGraph(this.getEntityManager().createQuery("SELECT u FROM User AS u WHERE u.userEmail =:email AND u.isActive=true AND u.deleteFlag=false"),
+				User.PRINCIPAL_GRAPH);
 		query.setParameter("email", emailAddress);
 		List resultList = query.getResultList();
 		if (CollectionUtils.isNotEmpty(resultList) && resultList.size() == 1) {
@@ -102,8 +103,7 @@ public class UserDaoImpl extends AbstractDao<Integer, User> implements UserDao {
 				(productFilter, value) -> dbFilters.add(DbFilter.builder().dbCoulmnName(productFilter.getDbColumnName())
 						.condition(productFilter.getCondition()).value(value).build()));
 		paginationModel.setSortingCol(dataTableUtil.getColName(paginationModel.getSortingCol(), DatatableSortingFilterConstant.USER));
-		return new PaginationResponseModel(this.getResultCount(dbFilters),
-				this.executeQuery(dbFilters, paginationModel));
+		return this.executeQueryWithCount(dbFilters, paginationModel);
 	}
 
 	@Override
@@ -75,8 +75,7 @@ public class VatCategoryDaoImpl extends AbstractDao<Integer, VatCategory> implem
 		if (paginationModel != null && paginationModel.getSortingCol() != null)
 			paginationModel.setSortingCol(
 					dataTableUtil.getColName(paginationModel.getSortingCol(), DatatableSortingFilterConstant.VAT_CATEGORY));
-		return new PaginationResponseModel(this.getResultCount(dbFilters),
-				this.executeQuery(dbFilters, paginationModel));
+		return this.executeQueryWithCount(dbFilters, paginationModel);
 
 	}
 }
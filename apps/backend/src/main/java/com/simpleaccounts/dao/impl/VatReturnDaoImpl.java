@@ -0,0 +1,104 @@
+package com.simpleaccounts.dao.impl;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.stereotype.Repository;
+
+import com.simpleaccounts.constant.CommonColumnConstants;
+import com.simpleaccounts.constant.DiscountType;
+import com.simpleaccounts.dao.VatReturnDao;
+
+@Repository
+public class VatReturnDaoImpl implements VatReturnDao {
+
+	private static final String INVOICE_LINE_TOTALS = "SELECT i.type, il.vatCategory.id, i.isReverseChargeEnabled, "
+			+ "i.deleteFlag, i.editFlag, p.id, p.placeOfSupply, SUM(il.subTotal*i.exchangeRate), "
+			+ "SUM(il.vatAmount*i.exchangeRate), "
+			+ "SUM(CASE WHEN i.totalVatAmount > 0 THEN (il.subTotal*i.exchangeRate) END), "
+			+ "SUM(CASE WHEN i.totalVatAmount > 0 THEN (il.vatAmount*i.exchangeRate) END) "
+			+ "FROM InvoiceLineItem il JOIN il.invoice i LEFT JOIN i.placeOfSupplyId p "
+			+ "WHERE i.status <> 2 AND i.type IN (1,2) AND il.vatCategory.id IN (1,2,3) "
+			+ "AND i.invoiceDate BETWEEN :startDate AND :endDate "
+			+ "GROUP BY i.type, il.vatCategory.id, i.isReverseChargeEnabled, i.deleteFlag, i.editFlag, p.id, "
+			+ "p.placeOfSupply";
+
+	private static final String REVERSE_CHARGE_INVOICE_TOTALS = "SELECT i.editFlag, "
+			+ "SUM(i.totalAmount*i.exchangeRate), SUM(i.totalVatAmount*i.exchangeRate) FROM Invoice i "
+			+ "WHERE i.status <> 2 AND i.type = 1 AND i.isReverseChargeEnabled = true AND i.deleteFlag = false "
+			+ "AND i.totalVatAmount > 0 AND i.invoiceDate BETWEEN :startDate AND :endDate GROUP BY i.editFlag";
+
+	private static final String EXPENSE_TOTALS = "SELECT e.vatCategory.id, e.isReverseChargeEnabled, "
+			+ "e.vatClaimable, e.editFlag, SUM(e.expenseAmount*e.exchangeRate), "
+			+ "SUM(e.expenseVatAmount*e.exchangeRate) FROM Expense e "
+			+ "WHERE e.status <> 1 AND e.deleteFlag = false AND e.vatCategory.id IN (1,2) "
+			+ "AND e.expenseDate BETWEEN :startDate AND :endDate "
+			+ "GROUP BY e.vatCategory.id, e.isReverseChargeEnabled, e.vatClaimable, e.editFlag";
+
+	private static final String DEBIT_NOTE_TOTALS = "SELECT "
+			+ "SUM(CASE WHEN c.status <> 2 THEN (il.exciseAmount+il.vatAmount+il.quantity*il.unitPrice*c.exchangeRate) END), "
+			+ "SUM(CASE WHEN c.status <> 2 THEN (il.vatAmount*c.exchangeRate) END), "
+			+ "SUM(CASE WHEN il.discountType = :fixed THEN (il.discount*c.exchangeRate) "
+			+ "WHEN il.discountType = :percentage THEN (il.unitPrice*il.quantity*il.discount/100) END) "
+			+ "FROM CreditNoteLineItem il JOIN il.creditNote c "
+			+ "WHERE c.type = 13 AND c.deleteFlag = false AND il.vatCategory.id = 1 "
+			+ "AND c.creditNoteDate BETWEEN :startDate AND :endDate";
+
+	private static final String VAT_ACCOUNT_TOTALS = "SELECT jl.transactionCategory.transactionCategoryId, "
+			+ "jl.referenceType, jl.reversalFlag, i.status, e.status, e.vatClaimable, c.status, "
+			+ "SUM(jl.debitAmount), SUM(jl.creditAmount) FROM JournalLineItem jl JOIN jl.journal j "
+			+ "LEFT JOIN Invoice i ON i.id = jl.referenceId AND jl.referenceType IN ('INVOICE','REVERSE_INVOICE') "
+			+ "LEFT JOIN Expense e ON e.expenseId = jl.referenceId AND jl.referenceType IN ('EXPENSE','REVERSE_EXPENSE') "
+			+ "LEFT JOIN CreditNote c ON c.creditNoteId = jl.referenceId "
+			+ "AND jl.referenceType IN ('DEBIT_NOTE','REVERSE_DEBIT_NOTE') "
+			+ "WHERE jl.transactionCategory.transactionCategoryId IN (:transactionCategoryIds) "
+			+ "AND j.transactionDate BETWEEN :startDate AND :endDate "
+			+ "GROUP BY jl.transactionCategory.transactionCategoryId, jl.referenceType, jl.reversalFlag, i.status, "
+			+ "e.status, e.vatClaimable, c.status";
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<Object[]> getInvoiceLineTotals(LocalDate startDate, LocalDate endDate) {
+		return entityManager.createQuery(INVOICE_LINE_TOTALS, Object[].class)
+				.setParameter(CommonColumnConstants.START_DATE, startDate)
+				.setParameter(CommonColumnConstants.END_DATE, endDate).getResultList();
+	}
+
+	@Override
+	public List<Object[]> getReverseChargeInvoiceTotals(LocalDate startDate, LocalDate endDate) {
+		return entityManager.createQuery(REVERSE_CHARGE_INVOICE_TOTALS, Object[].class)
+				.setParameter(CommonColumnConstants.START_DATE, startDate)
+				.setParameter(CommonColumnConstants.END_DATE, endDate).getResultList();
+	}
+
+	@Override
+	public List<Object[]> getExpenseTotals(LocalDate startDate, LocalDate endDate) {
+		return entityManager.createQuery(EXPENSE_TOTALS, Object[].class)
+				.setParameter(CommonColumnConstants.START_DATE, startDate)
+				.setParameter(CommonColumnConstants.END_DATE, endDate).getResultList();
+	}
+
+	@Override
+	public Object[] getDebitNoteTotals(OffsetDateTime startDate, OffsetDateTime endDate) {
+		return entityManager.createQuery(DEBIT_NOTE_TOTALS, Object[].class)
+				.setParameter("fixed", DiscountType.FIXED).setParameter("percentage", DiscountType.PERCENTAGE)
+				.setParameter(CommonColumnConstants.START_DATE, startDate)
+				.setParameter(CommonColumnConstants.END_DATE, endDate).getSingleResult();
+	}
+
+	@Override
+	public List<Object[]> getVatAccountTotals(LocalDate startDate, LocalDate endDate,
+			List<Integer> transactionCategoryIds) {
+		return entityManager.createQuery(VAT_ACCOUNT_TOTALS, Object[].class)
+				.setParameter("transactionCategoryIds", transactionCategoryIds)
+				.setParameter(CommonColumnConstants.START_DATE, startDate)
+				.setParameter(CommonColumnConstants.END_DATE, endDate).getResultList();
+	}
+
+}
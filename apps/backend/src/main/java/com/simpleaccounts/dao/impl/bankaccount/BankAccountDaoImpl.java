@@ -84,10 +84,7 @@ public class BankAccountDaoImpl extends AbstractDao<Integer, BankAccount> implem
 		paginationModel
 				.setSortingCol(dataTableUtil.getColName((paginationModel.getSortingCol()), DatatableSortingFilterConstant.BANK_ACCOUNT));
 
-		PaginationResponseModel resposne = new PaginationResponseModel();
-		resposne.setCount(this.getResultCount(dbFilters));
-		resposne.setData(this.executeQuery(dbFilters, paginationModel));
-		return resposne;
+		return this.executeQueryWithCount(dbFilters, paginationModel);
 	}
 
 	@Override
@@ -53,8 +53,7 @@ public class ReconcileStatusDaoImpl extends AbstractDao<Integer,ReconcileStatus
         List<DbFilter> dbFilters = new ArrayList<>();
         filterMap.forEach((filter, value) -> dbFilters.add(DbFilter.builder().dbCoulmnName(filter.getDbColumnName())
                 .condition(filter.getCondition()).value(value).build()));
-        return new PaginationResponseModel(this.getResultCount(dbFilters),
-                this.executeQuery(dbFilters, paginationModel));
+        return this.executeQueryWithCount(dbFilters, paginationModel);
     }
 
 }
@@ -70,24 +70,26 @@ public class TransactionCategoryDaoImpl extends AbstractDao<Integer, Transaction
 
 	@Override
 	public List<TransactionCategory> findAllTransactionCategoryByChartOfAccount(Integer chartOfAccountId) {
-		TypedQuery<TransactionCategory> query = getEntityManager().createQuery(
+		TypedQuery<TransactionCategory> query = withEntityGraph(getEntityManager().createQuery(
 				"SELECT t FROM TransactionCategory t where t.deleteFlag=FALSE AND (t.chartOfAccount.chartOfAccountId =:chartOfAccountId  or t.chartOfAccount.parentChartOfAccount.chartOfAccountId =:chartOfAccountId) ORDER BY t.defaltFlag DESC , t.orderSequence,t.transactionCategoryName ASC",
-				TransactionCategory.class);
+				TransactionCategory.class), TransactionCategory.POSTING_GRAPH);
 		query.setParameter(CommonColumnConstants.CHARTOFACCOUNT_ID, chartOfAccountId);
-		if (query.getResultList() != null && !query.getResultList().isEmpty()) {
-			return query.getResultList();
+		List<TransactionCategory> transactionCategoryList = query.getResultList();
+		if (transactionCategoryList != null && !transactionCategoryList.isEmpty()) {
+			return transactionCategoryList;
 		}
 		return new ArrayList<>();
 	}
 
 	@Override
 	public TransactionCategory findTransactionCategoryByTransactionCategoryCode(String transactionCategoryCode) {
-		TypedQuery<TransactionCategory> query = getEntityManager().createQuery(
+		TypedQuery<TransactionCategory> query = withEntityGraph(getEntityManager().createQuery(
 				"SELECT t FROM TransactionCategory t where t.transactionCategoryCode =:transactionCategoryCode",
-				TransactionCategory.class);
+				TransactionCategory.class), TransactionCategory.POSTING_GRAPH);
 		query.setParameter("transactionCategoryCode", transactionCategoryCode);
-		if (query.getResultList() != null && !query.getResultList().isEmpty()) {
-			return query.getResultList().get(0);
+		List<TransactionCategory> transactionCategoryList = query.getResultList();
+		if (transactionCategoryList != null && !transactionCategoryList.isEmpty()) {
+			return transactionCategoryList.get(0);
 		}
 		return null;
 	}
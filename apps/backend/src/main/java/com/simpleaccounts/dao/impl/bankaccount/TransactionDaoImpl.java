@@ -19,9 +19,12 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.persistence.Query;
 import javax.persistence.TemporalType;
 import javax.persistence.TypedQuery;
@@ -34,6 +37,9 @@ import org.springframework.stereotype.Repository;
 public class TransactionDaoImpl extends AbstractDao<Integer, Transaction> implements TransactionDao {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(TransactionDaoImpl.class);
+
+	private static final int MAX_FINGERPRINTS_PER_QUERY = 1000;
+
 	private final DateUtils dateUtils;
 
 	@Override
@@ -525,8 +531,10 @@ public class TransactionDaoImpl extends AbstractDao<Integer, Transaction> implem
 		List<DbFilter> dbFilters = new ArrayList<>();
 		filterMap.forEach((filter, value) -> dbFilters.add(DbFilter.builder().dbCoulmnName(filter.getDbColumnName())
 				.condition(filter.getCondition()).value(value).build()));
-		return new PaginationResponseModel(this.getResultCount(dbFilters),
-				this.executeQuery(dbFilters, paginationModel));
+		if (paginationModel.isKeysetPagination()) {
+			return this.executeKeysetQuery(dbFilters, paginationModel);
+		}
+		return this.executeQueryWithCount(dbFilters, paginationModel);
 	}
 
 	public Integer isTransactionsReadyForReconcile(LocalDateTime startDate, LocalDateTime endDate, Integer bankId){
@@ -607,18 +615,22 @@ public class TransactionDaoImpl extends AbstractDao<Integer, Transaction> implem
 		return closingBalance.floatValue() == transactionList.get(0).getCurrentBalance().floatValue();
 	}
 
-	public boolean isAlreadyExistSimilarTransaction(BigDecimal transactionAmount, LocalDateTime transactionDate, BankAccount bankAccount, String transactionDescription)
-	{
-		StringBuilder queryBuilder = new StringBuilder("SELECT t FROM Transaction t " +
-				"WHERE t.bankAccount = :bankAccount and t.transactionDate =:transactionDate and t.transactionAmount=:transactionAmount and t.transactionDescription=:transactionDescription and t.deleteFlag=false");
-		TypedQuery<Transaction> query = getEntityManager().createQuery(queryBuilder.toString(),	Transaction.class);
-		query.setParameter("bankAccount",bankAccount);
-		query.setParameter(CommonColumnConstants.TRANSACTION_DATE, transactionDate);
-		query.setParameter("transactionAmount", transactionAmount);
-		query.setParameter("transactionDescription",transactionDescription);
-		List<Transaction> transactionList = query.getResultList();
-		return transactionList!=null && !transactionList.isEmpty();
+	@Override
+	public Set<String> getExistingFingerprints(Integer bankAccountId, Collection<String> fingerprints) {
+		List<String> values = new ArrayList<>(fingerprints);
+		Set<String> existing = new HashSet<>();
+		for (int from = 0; from < values.size(); from += MAX_FINGERPRINTS_PER_QUERY) {
+			existing.addAll(getEntityManager().createQuery(
+					"SELECT t.fingerprint FROM Transaction t WHERE t.bankAccount.bankAccountId = :bankAccountId "
+							+ "AND t.fingerprint IN :fingerprints AND t.deleteFlag = false", String.class)
+					.setParameter(BankAccountConstant.BANK_ACCOUNT_ID, bankAccountId)
+					.setParameter("fingerprints",
+							values.subList(from, Math.min(from + MAX_FINGERPRINTS_PER_QUERY, values.size())))
+					.getResultList());
+		}
+		return existing;
 	}
+
     @Override
 	public Integer getExplainedTransactionCountByTransactionCategoryId(Integer transactionCategoryId){
 		Query query = getEntityManager().createQuery(
@@ -20,7 +20,7 @@ public class Activity {
 
     	@Id
     @Column(name = "ACTIVITY_ID", updatable = false, nullable = false)
-	@SequenceGenerator(name="ACTIVITY_SEQ", sequenceName="ACTIVITY_SEQ", allocationSize=1, initialValue = 10000)
+	@SequenceGenerator(name="ACTIVITY_SEQ", sequenceName="ACTIVITY_SEQ", allocationSize=50, initialValue = 10000)
 	@GeneratedValue(strategy=GenerationType.SEQUENCE, generator="ACTIVITY_SEQ")
     private Integer activityId;
     @Column(name = "ORDER_SEQUENCE")
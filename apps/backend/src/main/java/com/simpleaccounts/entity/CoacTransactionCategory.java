@@ -53,7 +53,7 @@ public class CoacTransactionCategory implements Serializable {
 	@JoinColumn(name = "TRANSACTION_CATEGORY_ID",foreignKey = @javax.persistence.ForeignKey(name = "FK_COAC_TRANX_CAT_TRANX_CAT_ID_TRANX_CAT"))
 	private TransactionCategory transactionCategory;
 
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "CHART_OF_ACCOUNT_CATEGORY_ID ",foreignKey = @javax.persistence.ForeignKey(name = "FK_COAC_TRANX_CAT_COA_CAT_ID_COA_CAT"))
 	private ChartOfAccountCategory chartOfAccountCategory;
 
@@ -121,7 +121,7 @@ public class Company implements Serializable {
     @JoinColumn(name = "INVOICING_COUNTRY_CODE",foreignKey = @javax.persistence.ForeignKey(name = "FK_COMPANY_INVOICING_COUNTRY_CODE_COUNTRY"))
     private Country invoicingCountryCode;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "CURRENCY_CODE",foreignKey = @javax.persistence.ForeignKey(name = "FK_COMPANY_CURRENCY_CODE_CURRENCY"))
     private Currency currencyCode;
 
@@ -54,7 +54,7 @@ public class ContactTransactionCategoryRelation {
     @JoinColumn(name = "TRANSACTION_CATEGORY_ID",foreignKey = @javax.persistence.ForeignKey(name = "FK_USER_CONTACT_TRANX_CAT_RELATION_TRANX_CAT_ID_TRANX_CAT"))
     private TransactionCategory transactionCategory;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "CONTACT_ID",foreignKey = @javax.persistence.ForeignKey(name = "FK_USER_CONTACT_TRANX_CATEGORY_RELATION_CONTACT_ID_CONTACT"))
     private Contact contact;
 
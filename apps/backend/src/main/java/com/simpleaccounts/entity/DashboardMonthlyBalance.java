@@ -0,0 +1,53 @@
+package com.simpleaccounts.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+
+import javax.persistence.*;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+
+import lombok.Data;
+
+/**
+ * Closing balance of a transaction category at the end of a month in which the category has a
+ * TRANSACTION_CATEGORY_CLOSING_BALANCE row, kept up to date by journal posting so that the dashboard
+ * reads one row per category and month.
+ */
+@Entity
+@Table(name = "DASHBOARD_MONTHLY_BALANCE", uniqueConstraints = @UniqueConstraint(
+		name = "UK_DASHBOARD_MONTHLY_BALANCE_CATEGORY_MONTH", columnNames = {"TRANSACTION_CATEGORY_ID", "BALANCE_MONTH"}))
+@Data
+public class DashboardMonthlyBalance {
+
+	@Id
+	@Column(name = "DASHBOARD_MONTHLY_BALANCE_ID", updatable = false, nullable = false)
+	@SequenceGenerator(name = "DASHBOARD_MONTHLY_BALANCE_SEQ", sequenceName = "DASHBOARD_MONTHLY_BALANCE_SEQ", allocationSize = 1, initialValue = 10000)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "DASHBOARD_MONTHLY_BALANCE_SEQ")
+	private Integer id;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "TRANSACTION_CATEGORY_ID", foreignKey = @javax.persistence.ForeignKey(name = "FK_DASHBOARD_MONTHLY_BALANCE_TRANX_CAT_ID_TRANX_CAT"))
+	@Basic(optional = false)
+	private TransactionCategory transactionCategory;
+
+	/**
+	 * First day of the month.
+	 */
+	@Column(name = "BALANCE_MONTH", nullable = false)
+	private LocalDate balanceMonth;
+
+	@Column(name = "CLOSING_BALANCE")
+	@ColumnDefault(value = "0.00")
+	@Basic(optional = false)
+	private BigDecimal closingBalance = BigDecimal.ZERO;
+
+	@Column(name = "LAST_UPDATE_DATE")
+	@Temporal(TemporalType.TIMESTAMP)
+	@UpdateTimestamp
+	private Date lastUpdateDate;
+}
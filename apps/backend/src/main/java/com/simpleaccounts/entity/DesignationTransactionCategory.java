@@ -52,7 +52,7 @@ public class DesignationTransactionCategory {
     @JoinColumn(name = "TRANSACTION_CATEGORY_ID",foreignKey = @javax.persistence.ForeignKey(name = "FK_DESIG_TRANX_CAT_TRANSX_CAT_ID_TRANX_CAT"))
     private TransactionCategory transactionCategory;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "DESIGNATION_ID",foreignKey = @javax.persistence.ForeignKey(name = "FK_DESIG_TRANX_CAT_DESIG_ID_DESIG"))
     private EmployeeDesignation designation;
 
@@ -1,8 +1,11 @@
 package com.simpleaccounts.entity;
 
+import com.simpleaccounts.constant.EmailStatusEnum;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Type;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -71,6 +74,33 @@ public class EmailLogs {
     @Basic(optional = false)
     private String emailTo;
 
+    /**
+     * Outbox state, {@code null} for rows that only log a mail sent directly.
+     */
+    @Column(name = "STATUS")
+    @Enumerated(EnumType.STRING)
+    private EmailStatusEnum status;
+
+    @Column(name = "ATTEMPTS")
+    @ColumnDefault(value = "0")
+    @Basic(optional = false)
+    private Integer attempts = 0;
+
+    @Column(name = "NEXT_ATTEMPT_DATE")
+    private LocalDateTime nextAttemptDate;
+
+    @Column(name = "LAST_ERROR", length = 1000)
+    private String lastError;
+
+    /**
+     * The composed message in RFC 822 form, kept until it is sent.
+     */
+    @Lob
+    @Type(type = "org.hibernate.type.ImageType")
+    @Column(name = "MIME_MESSAGE")
+    @ToString.Exclude
+    private byte[] mimeMessage;
+
     @Column(name = "VERSION_NUMBER")
     @ColumnDefault(value = "1")
     @Basic(optional = false)
@@ -25,7 +25,7 @@ public class EmployeeTransactionCategoryRelation {
     @JoinColumn(name = "TRANSACTION_CATEGORY_ID",foreignKey = @javax.persistence.ForeignKey(name = "FK_EMP_SALARY_COM_RELATION_TRANX_CAT_ID_TRANX_CAT"))
     private TransactionCategory transactionCategory;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "EMPLOYEE_ID",foreignKey = @javax.persistence.ForeignKey(name = "FK_EMP_TRANX_CAT_RELATION_EMP_ID_EMP"))
     private Employee employee;
 
@@ -26,7 +26,7 @@ public class EmployeeUserRelation {
     @JoinColumn(name = "USER_ID",foreignKey = @javax.persistence.ForeignKey(name = "FK_EMPLOYEE_USER_RELATION_USER_ID_SA_USER"))
     private User user;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "EMPLOYEE_ID",foreignKey = @javax.persistence.ForeignKey(name = "FK_EMPLOYEE_USER_RELATION_EMPLOYEE_ID_EMPLOYEE"))
     private Employee employee;
 
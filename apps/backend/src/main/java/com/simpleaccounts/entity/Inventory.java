@@ -95,6 +95,11 @@ public class Inventory implements Serializable{
     @Basic(optional = false)
     private Boolean deleteFlag = Boolean.FALSE;
 
+    @Column(name = "VERSION_NUMBER")
+    @ColumnDefault(value = "1")
+    @Version
+    private Integer versionNumber = 1;
+
     @Basic(optional = false)
     @ColumnDefault(value = "false")
     @Column(name = "IS_MIGRATED_RECORD")
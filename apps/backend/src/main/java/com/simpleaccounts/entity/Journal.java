@@ -32,7 +32,7 @@ public class Journal implements Serializable {
 	private static final long serialVersionUID = -6038849464759772457L;
 
 	@Id
-	@SequenceGenerator(name="JOURNAL_SEQ", sequenceName="JOURNAL_SEQ", allocationSize=1, initialValue = 10000)
+	@SequenceGenerator(name="JOURNAL_SEQ", sequenceName="JOURNAL_SEQ", allocationSize=50, initialValue = 10000)
 	@GeneratedValue(strategy=GenerationType.SEQUENCE, generator="JOURNAL_SEQ")
 	@Column(name = "JOURNAL_ID", updatable = false, nullable = false)
 	private int id;
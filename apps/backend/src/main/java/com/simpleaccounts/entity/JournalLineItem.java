@@ -72,7 +72,7 @@ public class JournalLineItem implements Serializable {
 	private static final long serialVersionUID = 7790907788120167278L;
 
 	@Id
-	@SequenceGenerator(name="JOURNAL_LINE_ITEM_SEQ", sequenceName="JOURNAL_LINE_ITEM_SEQ", allocationSize=1, initialValue = 10000)
+	@SequenceGenerator(name="JOURNAL_LINE_ITEM_SEQ", sequenceName="JOURNAL_LINE_ITEM_SEQ", allocationSize=50, initialValue = 10000)
 	@GeneratedValue(strategy=GenerationType.SEQUENCE, generator="JOURNAL_LINE_ITEM_SEQ")
 	@Column(name = "JOURNAL_LINE_ITEM_ID", updatable = false, nullable = false)
 	private int id;
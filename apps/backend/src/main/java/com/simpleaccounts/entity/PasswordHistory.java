@@ -35,7 +35,7 @@ public class PasswordHistory {
     @Column(name = "LAST_UPDATE_DATE")
     private LocalDateTime lastUpdateDate;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "USER_ID",foreignKey = @javax.persistence.ForeignKey(name = "FK_PASSWORD_HISTORY_USER_USER_ID"))
     private User user;
 
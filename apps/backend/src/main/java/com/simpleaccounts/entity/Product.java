@@ -20,6 +20,10 @@ import lombok.Data;
  */
 @NamedQueries({
 		@NamedQuery(name = "allProduct", query = "SELECT p FROM Product p where p.createdBy = :createdBy and p.deleteFlag = FALSE ") })
+@NamedEntityGraph(name = Product.DETAIL_GRAPH, attributeNodes = @NamedAttributeNode(value = "lineItemList", subgraph = "lineItem"),
+		subgraphs = {
+				@NamedSubgraph(name = "lineItem", attributeNodes = @NamedAttributeNode(value = "transactioncategory", subgraph = "transactionCategory")),
+				@NamedSubgraph(name = "transactionCategory", attributeNodes = @NamedAttributeNode("chartOfAccount")) })
 @Entity
 @Table(name = "PRODUCT")
 @Data
@@ -27,6 +31,12 @@ import lombok.Data;
 public class Product implements Serializable {
 
 	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Fetch plan of a single product: its sales and purchase line items with their transaction categories.
+	 */
+	public static final String DETAIL_GRAPH = "Product.detail";
+
 	@Id
 	@SequenceGenerator(name="PRODUCT_SEQ", sequenceName="PRODUCT_SEQ", allocationSize=1, initialValue = 10000)
 	@GeneratedValue(strategy=GenerationType.SEQUENCE, generator="PRODUCT_SEQ")
@@ -70,7 +80,7 @@ public class Product implements Serializable {
 	@ColumnDefault(value = "false")
 	private Boolean vatIncluded = Boolean.FALSE;
 
-	@OneToMany(fetch = FetchType.EAGER, cascade = CascadeType.ALL, mappedBy = "product")
+	@OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL, mappedBy = "product")
 	@org.hibernate.annotations.ForeignKey(name = "none")
 	private List<ProductLineItem> lineItemList;
 
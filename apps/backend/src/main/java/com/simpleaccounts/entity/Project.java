@@ -49,7 +49,7 @@ public class Project implements Serializable {
     @Column(name = "CONTRACT_PO_NUMBER")
     private String contractPoNumber;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "CONTACT_ID",foreignKey = @javax.persistence.ForeignKey(name = "FK_PROJECT_CONTACT_ID_CONTACT"))
     private Contact contact;
 
@@ -18,7 +18,7 @@ public class Salary implements Serializable {
 
     	@Id
     @Column(name = "SALARY_ID", updatable = false, nullable = false)
-	@SequenceGenerator(name="SALARY_SEQ", sequenceName="SALARY_SEQ", allocationSize=1, initialValue = 10000)
+	@SequenceGenerator(name="SALARY_SEQ", sequenceName="SALARY_SEQ", allocationSize=50, initialValue = 10000)
 	@GeneratedValue(strategy=GenerationType.SEQUENCE, generator="SALARY_SEQ")
     private Integer id;
 
@@ -20,6 +20,7 @@ import org.hibernate.annotations.Type;
 				+ " FROM User c,Role r where c.role.roleCode=r.roleCode and r.roleCode in (1,2,3,104) and  c.userId= :userId  AND c.deleteFlag = FALSE"),
 		@NamedQuery(name = "userForDropdown", query = "SELECT  new " + CommonConstant.DROPDOWN_MODEL_PACKAGE + "(c.userId , CONCAT(c.firstName,' ', c.lastName)) "
 				+ " FROM User c where  c.deleteFlag = FALSE order by c.firstName, c.lastName ")})
+@NamedEntityGraph(name = User.PRINCIPAL_GRAPH, attributeNodes = @NamedAttributeNode("role"))
 @Entity
 @Table(name = "SA_USER")
 @Data
@@ -27,6 +28,11 @@ public class User implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * Fetch plan of the authenticated principal: the user with its role.
+	 */
+	public static final String PRINCIPAL_GRAPH = "User.principal";
+
 	@Id
 	@Column(name = "USER_ID", updatable = false, nullable = false)
 	@SequenceGenerator(name="USER_SEQ", sequenceName="USER_SEQ", allocationSize=1, initialValue = 10000)
@@ -50,7 +56,7 @@ public class User implements Serializable {
 
 	private LocalDateTime dateOfBirth;
 
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "COMPANY_ID",foreignKey = @javax.persistence.ForeignKey(name = "FK_SA_USER_COMPANY_ID_COMPANY"))
 	private Company company;
 
@@ -88,7 +94,7 @@ public class User implements Serializable {
 	@Version
 	private Integer versionNumber = 1;
 
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "ROLE_CODE",foreignKey = @javax.persistence.ForeignKey(name = "FK_SA_USER_ROLE_CODE_ROLE"))
 	private Role role;
 
@@ -101,7 +107,7 @@ public class User implements Serializable {
 	@Column(name = "PROFILE_IMAGE")
 	private byte[] profileImageBinary;
 
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "EMPLOYEE_ID",foreignKey = @javax.persistence.ForeignKey(name = "FK_SA_USER_EMPLOYEE_ID_EMPLOYEE"))
 	private Contact employeeId;
 
@@ -35,7 +35,7 @@ public class UserCredential {
     @Column(name = "LAST_UPDATE_DATE")
     private LocalDateTime lastUpdateDate;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "USER_ID",foreignKey = @javax.persistence.ForeignKey(name = "FK_USER_CREDENTIAL_USER_ID_USER"))
     private User user;
 
@@ -2,13 +2,19 @@ package com.simpleaccounts.entity.bankaccount;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
 
 import javax.persistence.*;
 
 import com.simpleaccounts.entity.*;
 import org.hibernate.annotations.ColumnDefault;
+import org.springframework.util.DigestUtils;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.simpleaccounts.constant.TransactionCreationMode;
@@ -30,9 +36,11 @@ public class Transaction implements Serializable {
 
 	private static final long serialVersionUID = 848122185643690684L;
 
+	private static final Pattern WHITE_SPACE = Pattern.compile("\\s+");
+
 	@Id
 	@Column(name = "TRANSACTION_ID", updatable = false, nullable = false)
-	@SequenceGenerator(name="TRANSACTION_SEQ", sequenceName="TRANSACTION_SEQ", allocationSize=1, initialValue = 10000)
+	@SequenceGenerator(name="TRANSACTION_SEQ", sequenceName="TRANSACTION_SEQ", allocationSize=50, initialValue = 10000)
 	@GeneratedValue(strategy=GenerationType.SEQUENCE, generator="TRANSACTION_SEQ")
 	private Integer transactionId;
 
@@ -198,15 +206,57 @@ public class Transaction implements Serializable {
 	@Basic(optional = true)
 	private Integer orderSequence;
 
+	/**
+	 * Hash of the bank account, day, direction, amount and description, indexed so that an imported statement is
+	 * checked for rows that are already booked with one query per chunk.
+	 */
+	@Column(name = "FINGERPRINT", length = 32)
+	private String fingerprint;
+
 	@PrePersist
 	public void updateDates() {
 		createdDate = LocalDateTime.now();
 		lastUpdateDate = LocalDateTime.now();
+		refreshFingerprint();
 	}
 
 	@PreUpdate
 	public void updateLastUpdatedDate() {
 		lastUpdateDate = LocalDateTime.now();
+		refreshFingerprint();
+	}
+
+	/**
+	 * @return the fingerprint of the current values, also kept in {@link #getFingerprint()}; null while the bank
+	 * account, date or amount is missing
+	 */
+	public String refreshFingerprint() {
+		fingerprint = bankAccount != null ? fingerprintOf(bankAccount.getBankAccountId(), transactionDate,
+				debitCreditFlag, transactionAmount, transactionDescription) : null;
+		return fingerprint;
+	}
+
+	/**
+	 * The description is trimmed, lower cased and its runs of white space collapsed, and the amount is taken at the
+	 * two decimals of its column. Changeset simpleaccounts:79 computes the same value in SQL for the rows that existed
+	 * before, so both must change together.
+	 */
+	public static String fingerprintOf(Integer bankAccountId, LocalDateTime transactionDate, Character debitCreditFlag,
+			BigDecimal transactionAmount, String transactionDescription) {
+		if (bankAccountId == null || transactionDate == null || transactionAmount == null) {
+			return null;
+		}
+		StringJoiner key = new StringJoiner("|");
+		key.add(bankAccountId.toString());
+		key.add(transactionDate.toLocalDate().toString());
+		if (debitCreditFlag != null) {
+			key.add(debitCreditFlag.toString());
+		}
+		key.add(transactionAmount.setScale(2, RoundingMode.HALF_UP).toPlainString());
+		key.add(transactionDescription != null
+				? WHITE_SPACE.matcher(transactionDescription.trim()).replaceAll(" ").toLowerCase(Locale.ROOT)
+				: "");
+		return DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8));
 	}
 
 }
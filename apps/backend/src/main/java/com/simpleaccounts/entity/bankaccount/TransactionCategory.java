@@ -26,6 +26,7 @@ import lombok.Data;
 		@NamedQuery(name = "getTransactionCategoryListForInventory", query = "SELECT t FROM TransactionCategory t WHERE t.chartOfAccount.chartOfAccountId in ('20') AND t.transactionCategoryId in ('150')"),
 })
 
+@NamedEntityGraph(name = TransactionCategory.POSTING_GRAPH, attributeNodes = @NamedAttributeNode("chartOfAccount"))
 @Entity
 @Table(name = "TRANSACTION_CATEGORY")
 @Data
@@ -33,6 +34,11 @@ public class TransactionCategory implements Serializable {
 
 	private static final long serialVersionUID = 848122185643690684L;
 
+	/**
+	 * Fetch plan of categories that are posted to or listed by account: the category with its chart of account.
+	 */
+	public static final String POSTING_GRAPH = "TransactionCategory.posting";
+
 	@Id
 	@Column(name = "TRANSACTION_CATEGORY_ID", updatable = false, nullable = false)
 	@SequenceGenerator(name="TRANSACTION_CATEGORY_SEQ", sequenceName="TRANSACTION_CATEGORY_SEQ", allocationSize=1, initialValue = 10000)
@@ -51,7 +57,7 @@ public class TransactionCategory implements Serializable {
 	@Column(name = "TRANSACTION_CATEGORY_CODE")
 	private String transactionCategoryCode;
 
-	@OneToOne(fetch = FetchType.EAGER)
+	@OneToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "CHART_OF_ACCOUNT_ID",foreignKey = @javax.persistence.ForeignKey(name = "FK_TRANSACTION_CATEGORY_CHART_OF_ACCOUNT_ID_CHART_OF_ACCOUNT"))
 	private ChartOfAccount chartOfAccount;
 
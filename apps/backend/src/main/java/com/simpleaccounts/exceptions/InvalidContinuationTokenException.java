@@ -0,0 +1,21 @@
+package com.simpleaccounts.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown for a keyset continuation token the client sent malformed, tampered with or for another sort order.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidContinuationTokenException extends IllegalArgumentException {
+
+	private static final long serialVersionUID = 1L;
+
+	public InvalidContinuationTokenException(String message) {
+		super(message);
+	}
+
+	public InvalidContinuationTokenException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
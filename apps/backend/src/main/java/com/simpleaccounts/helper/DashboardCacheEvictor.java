@@ -0,0 +1,185 @@
+package com.simpleaccounts.helper;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import lombok.extern.slf4j.Slf4j;
+import net.sf.ehcache.Ehcache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts the cached dashboard responses that cover a changed month instead of waiting for their time to live.
+ *
+ * Every dashboard chart shows the months from {@code monthCount - 1} months ago up to the current month, and
+ * its cache key carries the month count. A change dated in month M therefore only evicts the keys whose
+ * month count reaches back to M; changes dated after the current month evict nothing. The bank chart also
+ * carries the balance of earlier months forward, so every key of the bank account is evicted. Eviction runs
+ * once right away and again after the transaction commits, so a request running concurrently with the
+ * change cannot cache the old result.
+ */
+@Slf4j
+@Component
+public class DashboardCacheEvictor {
+
+	public static final String PROFIT_LOSS = "dashboardProfitLoss";
+	public static final String CASH_FLOW = "dashboardCashFlow";
+	public static final String INVOICE_CHART = "dashboardInvoiceChart";
+	public static final String BANK_CHART = "dashboardBankChart";
+	public static final String BANK_TOTAL_BALANCE = "dashboardBankTotalBalance";
+	public static final String INVENTORY = "dashboardInventory";
+
+	private static final int MAX_MONTHS = 12;
+
+	private final CacheManager cacheManager;
+
+	private final Clock clock;
+
+	@Autowired
+	public DashboardCacheEvictor(CacheManager cacheManager) {
+		this(cacheManager, Clock.systemDefaultZone());
+	}
+
+	DashboardCacheEvictor(CacheManager cacheManager, Clock clock) {
+		this.cacheManager = cacheManager;
+		this.clock = clock;
+	}
+
+	/**
+	 * Evicts the profit and loss charts of all users that show the month, keyed {@code user:monthCount}.
+	 */
+	public void evictProfitLoss(YearMonth month) {
+		evict(PROFIT_LOSS, month, key -> {
+			String value = String.valueOf(key);
+			return monthCount(value.substring(value.lastIndexOf(':') + 1));
+		});
+	}
+
+	/**
+	 * Evicts the cash flow charts that show the month, keyed by month count.
+	 */
+	public void evictCashFlow(YearMonth month) {
+		evict(CASH_FLOW, month, DashboardCacheEvictor::monthCount);
+	}
+
+	/**
+	 * Evicts the invoice charts that show the month, keyed by month count.
+	 */
+	public void evictInvoiceChart(YearMonth month) {
+		evict(INVOICE_CHART, month, DashboardCacheEvictor::monthCount);
+	}
+
+	/**
+	 * Evicts the charts of the bank account, keyed {@code bankId-monthCount}, and the total bank balance.
+	 */
+	public void evictBankAccount(Integer bankAccountId, YearMonth month) {
+		if (month != null && month.isAfter(YearMonth.now(clock))) {
+			return;
+		}
+		String prefix = bankAccountId + "-";
+		afterCommitToo(() -> {
+			evictKeys(BANK_CHART, key -> bankAccountId == null || String.valueOf(key).startsWith(prefix));
+			Cache totalBalance = cacheManager.getCache(BANK_TOTAL_BALANCE);
+			if (totalBalance != null) {
+				totalBalance.clear();
+			}
+		});
+	}
+
+	/**
+	 * Evicts the inventory dashboard snapshot, which does not depend on the month of the change.
+	 */
+	public void evictInventory() {
+		afterCommitToo(() -> {
+			Cache inventory = cacheManager.getCache(INVENTORY);
+			if (inventory != null) {
+				inventory.clear();
+			}
+		});
+	}
+
+	private void evict(String cacheName, YearMonth month, Function<Object, Integer> monthCount) {
+		YearMonth currentMonth = YearMonth.now(clock);
+		if (month != null && month.isAfter(currentMonth)) {
+			return;
+		}
+		afterCommitToo(() -> evictKeys(cacheName, key -> month == null
+				|| covers(monthCount.apply(key), month, currentMonth)));
+	}
+
+	/**
+	 * A missing month count stands for the default window of a year, an unreadable one is always evicted.
+	 */
+	static boolean covers(Integer monthCount, YearMonth month, YearMonth currentMonth) {
+		if (monthCount != null && monthCount < 0) {
+			return true;
+		}
+		int count = monthCount != null ? monthCount : MAX_MONTHS;
+		return !month.isBefore(currentMonth.minusMonths(Math.max(count, 1) - 1L));
+	}
+
+	private static Integer monthCount(Object key) {
+		if (key instanceof Integer || key == null) {
+			return (Integer) key;
+		}
+		String count = key.toString();
+		try {
+			return Integer.valueOf(count);
+		} catch (NumberFormatException e) {
+			return "null".equals(count) ? null : -1;
+		}
+	}
+
+	private void evictKeys(String cacheName, Predicate<Object> matches) {
+		Cache cache = cacheManager.getCache(cacheName);
+		if (cache == null) {
+			return;
+		}
+		Collection<?> keys = getKeys(cache);
+		if (keys == null) {
+			cache.clear();
+			return;
+		}
+		int evicted = 0;
+		for (Object key : keys) {
+			if (matches.test(key)) {
+				cache.evict(key);
+				evicted++;
+			}
+		}
+		log.debug("Evicted {} of {} entries from {}", evicted, keys.size(), cacheName);
+	}
+
+	private static Collection<?> getKeys(Cache cache) {
+		Object nativeCache = cache.getNativeCache();
+		if (nativeCache instanceof Ehcache) {
+			return new ArrayList<>(((Ehcache) nativeCache).getKeys());
+		}
+		if (nativeCache instanceof Map) {
+			return new ArrayList<>(((Map<?, ?>) nativeCache).keySet());
+		}
+		return null;
+	}
+
+	private static void afterCommitToo(Runnable eviction) {
+		eviction.run();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+				@Override
+				public void afterCommit() {
+					eviction.run();
+				}
+			});
+		}
+	}
+}
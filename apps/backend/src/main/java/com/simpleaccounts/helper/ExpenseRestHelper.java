@@ -20,7 +20,6 @@ import com.simpleaccounts.rest.expensescontroller.ExpenseModel;
 import com.simpleaccounts.service.*;
 import com.simpleaccounts.service.bankaccount.TransactionService;
 import com.simpleaccounts.utils.FileHelper;
-import com.simpleaccounts.utils.InvoiceNumberUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +39,8 @@ import java.time.LocalDate;
 @RequiredArgsConstructor
 public class ExpenseRestHelper {
 
+	private static final int EXPENSE_NUMBERING = 10;
+
 	private final Logger logger = LoggerFactory.getLogger(ExpenseRestHelper.class);
 
 	private final VatCategoryService vatCategoryService;
@@ -60,8 +61,6 @@ public class ExpenseRestHelper {
 
 	private final CustomizeInvoiceTemplateService customizeInvoiceTemplateService;
 
-	private final InvoiceNumberUtil invoiceNumberUtil;
-
 	private final TaxTreatmentService taxTreatmentService;
 
 	private final PlaceOfSupplyService placeOfSupplyService;
@@ -100,15 +99,8 @@ public class ExpenseRestHelper {
 	}
 
 	private void updateInvoiceTemplateIfNeeded(ExpenseModel model, Expense expense) {
-		CustomizeInvoiceTemplate template = customizeInvoiceTemplateService.getInvoiceTemplate(10);
 		expense.setExpenseNumber(model.getExpenseNumber());
-		if (model.getExpenseNumber() != null) {
-			String suffix = invoiceNumberUtil.fetchSuffixFromString(model.getExpenseNumber());
-			template.setSuffix(Integer.parseInt(suffix));
-			String prefix = expense.getExpenseNumber().substring(0, expense.getExpenseNumber().lastIndexOf(suffix));
-			template.setPrefix(prefix);
-			customizeInvoiceTemplateService.persist(template);
-		}
+		customizeInvoiceTemplateService.recordNumber(EXPENSE_NUMBERING, model.getExpenseNumber());
 	}
 
 	private void setTaxAndSupplyInfo(Expense expense, ExpenseModel model) {
@@ -312,12 +304,13 @@ public class ExpenseRestHelper {
 		return BigDecimal.valueOf(expenseAmountFloat);
 	}
 
+	/**
+	 * Locks the expense numbering before checking, so in a transaction that goes on to save the expense no
+	 * concurrent save can take the same number between the check and the insert.
+	 */
 	public Boolean doesInvoiceNumberExist(String referenceNumber){
-		Map<String, Object> attribute = new HashMap<String, Object>();
-		attribute.put("expenseNumber", referenceNumber);
-		attribute.put("deleteFlag",false);
-		List<Expense> expenseList = expenseService.findByAttributes(attribute);
-		return !expenseList.isEmpty();
+		customizeInvoiceTemplateService.lockInvoiceTemplate(EXPENSE_NUMBERING);
+		return referenceNumber != null && expenseService.isExpenseNumberInUse(referenceNumber);
 	}
 
 	public BigDecimal calculateVatAmount(BigDecimal vatPercent, BigDecimal expenseAmount) {
@@ -0,0 +1,164 @@
+package com.simpleaccounts.helper;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Keeps the reference data behind the dropdowns of every screen, such as countries, VAT categories or unit types, as
+ * snapshots that are loaded once and then shared by all requests.
+ *
+ * A snapshot carries an ETag computed from its JSON and the time it was loaded, so {@link #respond(Snapshot)} lets a
+ * browser revalidate its copy and receive 304 Not Modified until the data changes. Services that write reference
+ * data call {@link #invalidate(String)}, once right away and again after the transaction commits; a snapshot that
+ * was being loaded while it was invalidated is returned to its caller but not kept.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataRegistry {
+
+	public static final String COUNTRIES = "countries";
+	public static final String STATES = "states";
+	public static final String COMPANY_TYPES = "companyTypes";
+	public static final String INDUSTRY_TYPES = "industryTypes";
+	public static final String INVOICE_STATUS_TYPES = "invoiceStatusTypes";
+	public static final String CONTACT_TYPES = "contactTypes";
+	public static final String PAY_MODES = "payModes";
+	public static final String VAT_CATEGORIES = "vatCategories";
+	public static final String EXCISE_TAXES = "exciseTaxes";
+	public static final String PRODUCT_CATEGORIES = "productCategories";
+	public static final String UNIT_TYPES = "unitTypes";
+	public static final String TAX_TREATMENTS = "taxTreatments";
+	public static final String CHART_OF_ACCOUNTS = "chartOfAccounts";
+
+	private final ObjectMapper objectMapper;
+
+	private final Map<String, Snapshot<?>> snapshots = new ConcurrentHashMap<>();
+
+	private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+	private final AtomicLong generation = new AtomicLong();
+
+	/**
+	 * @param key    name of the reference data, followed by {@code :parameter} when it depends on one
+	 * @param loader reads the data from the database; lists and maps it returns are wrapped read only
+	 * @return the snapshot of the key, loading it on first use
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Snapshot<T> get(String key, Supplier<T> loader) {
+		Snapshot<T> snapshot = (Snapshot<T>) snapshots.get(key);
+		if (snapshot != null) {
+			return snapshot;
+		}
+		synchronized (loadLocks.computeIfAbsent(key, k -> new Object())) {
+			snapshot = (Snapshot<T>) snapshots.get(key);
+			if (snapshot != null) {
+				return snapshot;
+			}
+			long loadedGeneration = generation.get();
+			T data = readOnly(loader.get());
+			long lastModified = System.currentTimeMillis();
+			snapshot = new Snapshot<>(data, lastModified, etag(data, lastModified));
+			if (generation.get() == loadedGeneration) {
+				snapshots.put(key, snapshot);
+			}
+			return snapshot;
+		}
+	}
+
+	/**
+	 * @param key name of the reference data; also drops the snapshots of every parameter of it
+	 */
+	public void invalidate(String key) {
+		Runnable eviction = () -> {
+			generation.incrementAndGet();
+			snapshots.keySet().removeIf(cached -> cached.equals(key) || cached.startsWith(key + ':'));
+		};
+		eviction.run();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+				@Override
+				public void afterCommit() {
+					eviction.run();
+				}
+			});
+		}
+	}
+
+	/**
+	 * @return the data with its ETag and Last-Modified headers; a request whose If-None-Match or
+	 * If-Modified-Since still matches is answered with 304 Not Modified and no body
+	 */
+	public <T> ResponseEntity<T> respond(Snapshot<T> snapshot) {
+		return ResponseEntity.status(HttpStatus.OK)
+				.cacheControl(CacheControl.noCache().cachePrivate())
+				.eTag(snapshot.getEtag())
+				.lastModified(snapshot.getLastModified())
+				.body(snapshot.getData());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T readOnly(T data) {
+		if (data instanceof List) {
+			return (T) Collections.unmodifiableList((List<?>) data);
+		}
+		if (data instanceof Map) {
+			return (T) Collections.unmodifiableMap((Map<?, ?>) data);
+		}
+		return data;
+	}
+
+	private String etag(Object data, long lastModified) {
+		try {
+			return '"' + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(data)) + '"';
+		} catch (JsonProcessingException e) {
+			log.warn("Falling back to a time based ETag: {}", e.getMessage());
+			return "\"" + lastModified + '"';
+		}
+	}
+
+	/**
+	 * Reference data as it was loaded. The data must not be modified.
+	 */
+	@Getter
+	public static final class Snapshot<T> {
+
+		private final T data;
+
+		private final long lastModified;
+
+		private final String etag;
+
+		private Snapshot(T data, long lastModified, String etag) {
+			this.data = data;
+			this.lastModified = lastModified;
+			this.etag = etag;
+		}
+
+		/**
+		 * @return true when the data is an empty list or map, or missing
+		 */
+		public boolean isEmpty() {
+			return data == null || data instanceof List && ((List<?>) data).isEmpty()
+					|| data instanceof Map && ((Map<?, ?>) data).isEmpty();
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package com.simpleaccounts.helper;
+
+import com.simpleaccounts.entity.CreditNote;
+import com.simpleaccounts.entity.CreditNoteLineItem;
+import com.simpleaccounts.entity.Expense;
+import com.simpleaccounts.entity.Invoice;
+import com.simpleaccounts.entity.InvoiceLineItem;
+import com.simpleaccounts.entity.Journal;
+import com.simpleaccounts.entity.JournalLineItem;
+import com.simpleaccounts.entity.VatReportFiling;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Version of the data a VAT return is computed from, raised whenever an invoice, expense, debit note, journal or
+ * VAT filing changes. A VAT return computed at one version stays valid until the version moves on.
+ *
+ * Changes made through entities raise the version when their transaction commits. Bulk statements bypass the
+ * entity events, so code deleting or updating such rows in bulk calls {@link #changed()} itself.
+ */
+@Component
+public class VatLedgerVersion implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+		PostCommitDeleteEventListener {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final List<Class<?>> VAT_ENTITIES = Arrays.asList(Invoice.class, InvoiceLineItem.class,
+			Expense.class, CreditNote.class, CreditNoteLineItem.class, Journal.class, JournalLineItem.class,
+			VatReportFiling.class);
+
+	private final transient EntityManagerFactory entityManagerFactory;
+
+	private final AtomicLong version = new AtomicLong();
+
+	public VatLedgerVersion(EntityManagerFactory entityManagerFactory) {
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	@PostConstruct
+	public void register() {
+		EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+				.getServiceRegistry().getService(EventListenerRegistry.class);
+		registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+		registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+		registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+	}
+
+	public long current() {
+		return version.get();
+	}
+
+	/**
+	 * Raises the version right away and again after the current transaction commits, so a VAT return computed
+	 * while the transaction was running is not kept either.
+	 */
+	public void changed() {
+		version.incrementAndGet();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+				@Override
+				public void afterCommit() {
+					version.incrementAndGet();
+				}
+			});
+		}
+	}
+
+	@Override
+	public void onPostInsert(PostInsertEvent event) {
+		if (requiresPostCommitHanding(event.getPersister())) {
+			version.incrementAndGet();
+		}
+	}
+
+	@Override
+	public void onPostUpdate(PostUpdateEvent event) {
+		if (requiresPostCommitHanding(event.getPersister())) {
+			version.incrementAndGet();
+		}
+	}
+
+	@Override
+	public void onPostDelete(PostDeleteEvent event) {
+		if (requiresPostCommitHanding(event.getPersister())) {
+			version.incrementAndGet();
+		}
+	}
+
+	@Override
+	public void onPostInsertCommitFailed(PostInsertEvent event) {
+		// Nothing changed.
+	}
+
+	@Override
+	public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+		// Nothing changed.
+	}
+
+	@Override
+	public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+		// Nothing changed.
+	}
+
+	@Override
+	public boolean requiresPostCommitHanding(EntityPersister persister) {
+		Class<?> mappedClass = persister.getMappedClass();
+		for (Class<?> entity : VAT_ENTITIES) {
+			if (entity.isAssignableFrom(mappedClass)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,417 @@
+package com.simpleaccounts.integration;
+
+import com.simpleaccounts.constant.EmailStatusEnum;
+import com.simpleaccounts.entity.EmailLogs;
+import com.simpleaccounts.service.EmaiLogsService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.mail.internet.MimeMessage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends mails in the background through a persistent outbox on EMAIL_LOGS.
+ *
+ * Mails are composed on a bounded pool; when its queue is full the calling thread composes the mail itself,
+ * which slows down a bulk send instead of piling up work. A composed mail is stored with its EMAIL_LOGS row
+ * as pending and handed to a single sender thread, which claims the due mails in batches and sends each
+ * batch over one SMTP connection of the cached {@link MailSenderProvider} sender. Failed mails are retried
+ * with exponential backoff up to the configured number of attempts and then marked failed. Pending mails
+ * left by a restart are picked up by a periodic sweep. Queue depth, outcomes and latencies are exported over
+ * JMX.
+ */
+@Slf4j
+@Component
+@ManagedResource(objectName = "com.simpleaccounts:type=Mail,name=MailDispatcher",
+		description = "Outbound mail dispatcher")
+public class MailDispatcher implements DisposableBean {
+
+	private static final int MAX_ERROR_LENGTH = 1000;
+
+	private static final int MAX_ADDRESS_LENGTH = 255;
+
+	private static final long MAX_RETRY_DELAY_SECONDS = 3600;
+
+	/**
+	 * Mails in sending longer than this belong to a sender that stopped and are sent again.
+	 */
+	private static final Duration STALE_SENDING = Duration.ofMinutes(15);
+
+	private final MailSenderProvider mailSenderProvider;
+
+	private final EmaiLogsService emaiLogsService;
+
+	private final int batchSize;
+
+	private final int maxAttempts;
+
+	private final long retryDelaySeconds;
+
+	private final ThreadPoolExecutor composer;
+
+	private final ScheduledExecutorService sender;
+
+	private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+	private final LongAdder queued = new LongAdder();
+
+	private final LongAdder composedByCaller = new LongAdder();
+
+	private final LongAdder composeFailures = new LongAdder();
+
+	private final LongAdder sent = new LongAdder();
+
+	private final LongAdder failedAttempts = new LongAdder();
+
+	private final LongAdder givenUp = new LongAdder();
+
+	private final LongAdder sendNanos = new LongAdder();
+
+	private final LongAdder sendCount = new LongAdder();
+
+	private final AtomicLong maxSendNanos = new AtomicLong();
+
+	private final LongAdder deliveryMillis = new LongAdder();
+
+	public MailDispatcher(MailSenderProvider mailSenderProvider, EmaiLogsService emaiLogsService,
+			@Value("${simpleaccounts.mail.dispatch.threads:4}") int threads,
+			@Value("${simpleaccounts.mail.dispatch.queue-capacity:200}") int queueCapacity,
+			@Value("${simpleaccounts.mail.dispatch.batch-size:20}") int batchSize,
+			@Value("${simpleaccounts.mail.dispatch.max-attempts:5}") int maxAttempts,
+			@Value("${simpleaccounts.mail.dispatch.retry-delay-seconds:60}") long retryDelaySeconds,
+			@Value("${simpleaccounts.mail.dispatch.poll-seconds:30}") long pollSeconds) {
+		this.mailSenderProvider = mailSenderProvider;
+		this.emaiLogsService = emaiLogsService;
+		this.batchSize = Math.max(batchSize, 1);
+		this.maxAttempts = Math.max(maxAttempts, 1);
+		this.retryDelaySeconds = Math.max(retryDelaySeconds, 0);
+		this.composer = new ThreadPoolExecutor(Math.max(threads, 1), Math.max(threads, 1), 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)), new CustomizableThreadFactory("mail-composer-"),
+				(task, executor) -> {
+					composedByCaller.increment();
+					if (!executor.isShutdown()) {
+						task.run();
+					}
+				});
+		this.composer.allowCoreThreadTimeOut(true);
+		this.sender = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("mail-sender-"));
+		if (pollSeconds > 0) {
+			sender.scheduleWithFixedDelay(this::sweep, 0, pollSeconds, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Queues a mail. The preparator fills the message on a pool thread, so expensive content such as PDF
+	 * attachments is rendered there too. The EMAIL_LOGS row describes the mail and becomes its outbox entry.
+	 */
+	public void dispatch(EmailLogs emailLog, MimeMessagePreparator preparator) {
+		queued.increment();
+		composer.execute(() -> compose(emailLog, preparator));
+	}
+
+	/**
+	 * Returns a new EMAIL_LOGS row for a mail of the module, for callers that do not log more details.
+	 */
+	public static EmailLogs emailLog(String moduleName, String from, String... to) {
+		EmailLogs emailLog = new EmailLogs();
+		emailLog.setModuleName(moduleName);
+		emailLog.setEmailFrom(abbreviate(from != null ? from : "-", MAX_ADDRESS_LENGTH));
+		emailLog.setEmailTo(abbreviate(to != null && to.length > 0 ? String.join(",", to) : "-", MAX_ADDRESS_LENGTH));
+		emailLog.setBaseUrl("-");
+		emailLog.setEmailDate(LocalDateTime.now());
+		return emailLog;
+	}
+
+	void compose(EmailLogs emailLog, MimeMessagePreparator preparator) {
+		LocalDateTime now = LocalDateTime.now();
+		try {
+			MimeMessage message = mailSenderProvider.getSender().createMimeMessage();
+			preparator.prepare(message);
+			message.saveChanges();
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			message.writeTo(content);
+			emailLog.setMimeMessage(content.toByteArray());
+			emailLog.setStatus(EmailStatusEnum.PENDING);
+			emailLog.setNextAttemptDate(now);
+		} catch (Exception e) {
+			log.error("Error composing mail to {}", emailLog.getEmailTo(), e);
+			composeFailures.increment();
+			emailLog.setStatus(EmailStatusEnum.FAILED);
+			emailLog.setLastError(errorMessage(e));
+		}
+		emailLog.setAttempts(0);
+		emailLog.setLastUpdateDate(now);
+		if (emailLog.getEmailDate() == null) {
+			emailLog.setEmailDate(now);
+		}
+		try {
+			emaiLogsService.persist(emailLog);
+		} catch (RuntimeException e) {
+			log.error("Error queueing mail to {}", emailLog.getEmailTo(), e);
+			return;
+		}
+		if (emailLog.getStatus() == EmailStatusEnum.PENDING) {
+			requestDrain();
+		}
+	}
+
+	/**
+	 * Lets the sender thread send the due mails, once for any number of requests made while it is busy.
+	 */
+	private void requestDrain() {
+		if (drainRequested.compareAndSet(false, true)) {
+			try {
+				sender.execute(this::drain);
+			} catch (RuntimeException e) {
+				drainRequested.set(false);
+				log.warn("Mail sender is not running, queued mails are sent after restart");
+			}
+		}
+	}
+
+	private void drain() {
+		drainRequested.set(false);
+		try {
+			while (sendDue() == batchSize) {
+				log.debug("Sent a full batch of {} mails, sending the next", batchSize);
+			}
+		} catch (RuntimeException e) {
+			log.error("Error sending queued mails", e);
+		}
+	}
+
+	private void sweep() {
+		try {
+			int released = emaiLogsService.releaseStaleEmails(LocalDateTime.now().minus(STALE_SENDING));
+			if (released > 0) {
+				log.warn("Released {} mails left in sending", released);
+			}
+		} catch (RuntimeException e) {
+			log.error("Error releasing stale mails", e);
+		}
+		drain();
+	}
+
+	/**
+	 * Claims one batch of due mails and sends it over one connection.
+	 *
+	 * @return number of mails claimed
+	 */
+	int sendDue() {
+		List<EmailLogs> batch = emaiLogsService.claimDueEmails(LocalDateTime.now(), batchSize);
+		if (batch.isEmpty()) {
+			return 0;
+		}
+		JavaMailSender mailSender = mailSenderProvider.getSender();
+		Map<MimeMessage, EmailLogs> messages = new LinkedHashMap<>();
+		List<EmailLogs> unreadable = new ArrayList<>();
+		for (EmailLogs emailLog : batch) {
+			if (emailLog.getMimeMessage() == null) {
+				unreadable.add(emailLog);
+				continue;
+			}
+			try {
+				messages.put(mailSender.createMimeMessage(new ByteArrayInputStream(emailLog.getMimeMessage())), emailLog);
+			} catch (MailException e) {
+				log.error("Stored mail {} cannot be read", emailLog.getId(), e);
+				unreadable.add(emailLog);
+			}
+		}
+		Map<Object, Exception> failures = Collections.emptyMap();
+		long start = System.nanoTime();
+		if (!messages.isEmpty()) {
+			try {
+				mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+			} catch (MailSendException e) {
+				failures = e.getFailedMessages().isEmpty() ? allFailed(messages, e) : e.getFailedMessages();
+			} catch (MailException e) {
+				failures = allFailed(messages, e);
+			}
+			recordSendTime(System.nanoTime() - start, messages.size());
+		}
+		LocalDateTime now = LocalDateTime.now();
+		for (Map.Entry<MimeMessage, EmailLogs> entry : messages.entrySet()) {
+			Exception failure = failures.get(entry.getKey());
+			if (failure == null) {
+				markSent(entry.getValue(), now);
+			} else {
+				markFailedAttempt(entry.getValue(), failure, now, false);
+			}
+		}
+		for (EmailLogs emailLog : unreadable) {
+			markFailedAttempt(emailLog, new IllegalStateException("Stored message cannot be read"), now, true);
+		}
+		emaiLogsService.updateEmails(batch);
+		return batch.size();
+	}
+
+	private void markSent(EmailLogs emailLog, LocalDateTime now) {
+		emailLog.setStatus(EmailStatusEnum.SENT);
+		emailLog.setAttempts(attempts(emailLog) + 1);
+		emailLog.setNextAttemptDate(null);
+		emailLog.setLastError(null);
+		emailLog.setMimeMessage(null);
+		emailLog.setLastUpdateDate(now);
+		sent.increment();
+		if (emailLog.getCreatedDate() != null) {
+			deliveryMillis.add(Math.max(Duration.between(emailLog.getCreatedDate(), now).toMillis(), 0));
+		}
+	}
+
+	/**
+	 * Schedules the next attempt after {@code retryDelay * 2^(attempts - 1)}, or gives the mail up.
+	 */
+	private void markFailedAttempt(EmailLogs emailLog, Exception failure, LocalDateTime now, boolean permanent) {
+		int attempts = attempts(emailLog) + 1;
+		emailLog.setAttempts(attempts);
+		emailLog.setLastError(errorMessage(failure));
+		emailLog.setLastUpdateDate(now);
+		failedAttempts.increment();
+		if (permanent || attempts >= maxAttempts) {
+			log.error("Giving up mail {} to {} after {} attempts", emailLog.getId(), emailLog.getEmailTo(), attempts,
+					failure);
+			emailLog.setStatus(EmailStatusEnum.FAILED);
+			emailLog.setNextAttemptDate(null);
+			givenUp.increment();
+			return;
+		}
+		long delay = Math.min(retryDelaySeconds << Math.min(attempts - 1, 20), MAX_RETRY_DELAY_SECONDS);
+		log.warn("Mail {} to {} failed on attempt {}, retrying in {}s: {}", emailLog.getId(), emailLog.getEmailTo(),
+				attempts, delay, failure.getMessage());
+		emailLog.setStatus(EmailStatusEnum.PENDING);
+		emailLog.setNextAttemptDate(now.plusSeconds(delay));
+	}
+
+	private void recordSendTime(long nanos, int messageCount) {
+		sendNanos.add(nanos);
+		sendCount.add(messageCount);
+		long perMessage = nanos / messageCount;
+		maxSendNanos.accumulateAndGet(perMessage, Math::max);
+	}
+
+	private static Map<Object, Exception> allFailed(Map<MimeMessage, EmailLogs> messages, Exception failure) {
+		Map<Object, Exception> failures = new LinkedHashMap<>();
+		for (MimeMessage message : messages.keySet()) {
+			failures.put(message, failure);
+		}
+		return failures;
+	}
+
+	private static int attempts(EmailLogs emailLog) {
+		return emailLog.getAttempts() != null ? emailLog.getAttempts() : 0;
+	}
+
+	private static String errorMessage(Exception e) {
+		String message = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+		return abbreviate(message, MAX_ERROR_LENGTH);
+	}
+
+	private static String abbreviate(String value, int maxLength) {
+		return value.length() > maxLength ? value.substring(0, maxLength) : value;
+	}
+
+	@ManagedOperation(description = "Sends the due mails now")
+	public void sendQueuedMails() {
+		requestDrain();
+	}
+
+	@ManagedAttribute(description = "Mails waiting to be composed")
+	public int getQueueDepth() {
+		return composer.getQueue().size();
+	}
+
+	@ManagedAttribute(description = "Mails being composed")
+	public int getActiveComposers() {
+		return composer.getActiveCount();
+	}
+
+	@ManagedAttribute(description = "Mails queued since start")
+	public long getQueuedCount() {
+		return queued.sum();
+	}
+
+	@ManagedAttribute(description = "Mails composed by the calling thread because the queue was full")
+	public long getComposedByCallerCount() {
+		return composedByCaller.sum();
+	}
+
+	@ManagedAttribute(description = "Mails that could not be composed")
+	public long getComposeFailureCount() {
+		return composeFailures.sum();
+	}
+
+	@ManagedAttribute(description = "Mails sent")
+	public long getSentCount() {
+		return sent.sum();
+	}
+
+	@ManagedAttribute(description = "Send attempts that failed")
+	public long getFailedAttemptCount() {
+		return failedAttempts.sum();
+	}
+
+	@ManagedAttribute(description = "Mails given up after the last attempt")
+	public long getGivenUpCount() {
+		return givenUp.sum();
+	}
+
+	@ManagedAttribute(description = "Average SMTP time per mail in milliseconds")
+	public double getAverageSendMillis() {
+		long count = sendCount.sum();
+		return count == 0 ? 0d : sendNanos.sum() / 1_000_000d / count;
+	}
+
+	@ManagedAttribute(description = "Longest SMTP time per mail of a batch in milliseconds")
+	public double getMaxSendMillis() {
+		return maxSendNanos.get() / 1_000_000d;
+	}
+
+	@ManagedAttribute(description = "Average time from queueing to delivery in milliseconds")
+	public double getAverageDeliveryMillis() {
+		long count = sent.sum();
+		return count == 0 ? 0d : (double) deliveryMillis.sum() / count;
+	}
+
+	/**
+	 * Lets queued mails be composed and stored, so they are sent after restart if not before.
+	 */
+	@Override
+	public void destroy() throws InterruptedException {
+		composer.shutdown();
+		if (!composer.awaitTermination(30, TimeUnit.SECONDS)) {
+			log.warn("{} mails were not composed before shutdown", composer.shutdownNow().size());
+		}
+		sender.shutdown();
+		if (!sender.awaitTermination(30, TimeUnit.SECONDS)) {
+			sender.shutdownNow();
+		}
+	}
+}
@@ -65,7 +65,15 @@ public class MailIntegration {
 
 	public void sendHtmlEmail(final MimeMultipart mimeMultipart, final Mail mail, JavaMailSender javaMailSender,boolean isHtml)
 	{
-		MimeMessagePreparator preparator = mimeMessage -> {
+		javaMailSender.send(htmlEmailPreparator(mimeMultipart, mail, isHtml));
+		logger.info("Email send to =" +mail );
+	}
+
+	/**
+	 * Fills a message the way {@link #sendHtmlEmail} sends it, for mails queued on the {@link MailDispatcher}.
+	 */
+	public MimeMessagePreparator htmlEmailPreparator(final MimeMultipart mimeMultipart, final Mail mail, boolean isHtml) {
+		return mimeMessage -> {
 			MimeMessageHelper mimeMessagePreparator = new MimeMessageHelper(mimeMessage, true, UTF_8);
 			mimeMessagePreparator.setTo(mail.getTo());
 			mimeMessagePreparator.setFrom(new InternetAddress(mail.getFrom(), mail.getFromName()));
@@ -75,15 +83,29 @@ public class MailIntegration {
 				mimeMessagePreparator.getMimeMessage().setContent(mimeMultipart);
 			}
 		};
-		javaMailSender.send(preparator);
-		logger.info("Email send to =" +mail );
 	}
+
 	public void sendHtmlEmails(final List<MimeMultipart> mimeMultiparts, final Mail mail, JavaMailSender javaMailSender,boolean isHtml,List<File> attachments) {
 
 		try {
 
 			MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+			htmlEmailsPreparator(mimeMultiparts, mail, isHtml).prepare(mimeMessage);
+			javaMailSender.send(mimeMessage);
+		}catch(Exception e){
+			logger.error("Error sending mail", e);
+		}
 
+		logger.info("Email send to =" +mail );
+	}
+
+	/**
+	 * Fills a message the way {@link #sendHtmlEmails} sends it, with copies, for mails queued on the
+	 * {@link MailDispatcher}.
+	 */
+	public MimeMessagePreparator htmlEmailsPreparator(final List<MimeMultipart> mimeMultiparts, final Mail mail,
+			boolean isHtml) {
+		return mimeMessage -> {
 			// use the true flag to indicate you need a multipart message
 			MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true);
 			helper.setTo(mail.getTo());
@@ -100,12 +122,7 @@ public class MailIntegration {
 					mimeMessage.setContent(mimeMultipart);
 				}
 			}
-			javaMailSender.send(mimeMessage);
-		}catch(Exception e){
-			logger.error("Error sending mail", e);
-		}
-
-		logger.info("Email send to =" +mail );
+		};
 	}
 	public void sendHtmlMail(final Mail mail, List<MailAttachment> mailAttachmentList, JavaMailSender javaMailSender)
 			{
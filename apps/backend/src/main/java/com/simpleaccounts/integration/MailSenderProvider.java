@@ -0,0 +1,80 @@
+package com.simpleaccounts.integration;
+
+import com.simpleaccounts.dao.ConfigurationDao;
+import com.simpleaccounts.utils.MailConfigurationModel;
+import com.simpleaccounts.utils.MailUtility;
+import lombok.RequiredArgsConstructor;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps one {@link JavaMailSender} for the current SMTP configuration instead of reading the configuration and
+ * building a sender for every mail.
+ *
+ * The sender holds its mail session, so mails sent through it share the session and its transport provider.
+ * {@link #invalidate()} drops the cached configuration when the settings are saved; the sender is only rebuilt
+ * when the reloaded configuration actually differs.
+ */
+@Component
+@RequiredArgsConstructor
+public class MailSenderProvider {
+
+	private final ConfigurationDao configurationDao;
+
+	private volatile CachedSender cachedSender;
+
+	private volatile boolean stale = true;
+
+	public JavaMailSender getSender() {
+		return getCachedSender().sender;
+	}
+
+	public MailConfigurationModel getConfiguration() {
+		return getCachedSender().configuration;
+	}
+
+	/**
+	 * Reloads the configuration on next use, again after the transaction commits so a mail sent concurrently
+	 * cannot keep the old settings.
+	 */
+	public void invalidate() {
+		stale = true;
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+				@Override
+				public void afterCommit() {
+					stale = true;
+				}
+			});
+		}
+	}
+
+	private synchronized CachedSender getCachedSender() {
+		CachedSender current = cachedSender;
+		if (current == null || stale) {
+			stale = false;
+			MailConfigurationModel configuration = MailUtility
+					.getEMailConfigurationList(configurationDao.getConfigurationList());
+			if (current == null || !current.configuration.equals(configuration)) {
+				current = new CachedSender(configuration, MailUtility.getJavaMailSender(configuration));
+				cachedSender = current;
+			}
+		}
+		return current;
+	}
+
+	private static class CachedSender {
+
+		private final MailConfigurationModel configuration;
+
+		private final JavaMailSender sender;
+
+		CachedSender(MailConfigurationModel configuration, JavaMailSender sender) {
+			this.configuration = configuration;
+			this.sender = sender;
+		}
+	}
+}
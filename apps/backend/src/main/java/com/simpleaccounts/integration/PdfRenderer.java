@@ -0,0 +1,327 @@
+package com.simpleaccounts.integration;
+
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.HtmlConverter;
+import com.itextpdf.html2pdf.resolver.font.DefaultFontProvider;
+import com.itextpdf.layout.font.FontSet;
+import com.itextpdf.styledxmlparser.resolver.font.BasicFontProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Renders the HTML of invoices, credit notes, quotations and payslips to PDF.
+ *
+ * The fonts are loaded once at startup; every conversion gets its own font provider over the shared font set,
+ * because a provider keeps the fonts of the document it is used for. Conversions run on a bounded pool, and when
+ * its queue is full the calling thread renders itself. Once the pool is shut down, documents that are not cached
+ * are refused with a {@link RejectedExecutionException}. Rendered documents are kept in a least recently used cache
+ * keyed by the SHA-256 of the HTML, so sending the same document again does not convert it again, and concurrent
+ * requests for the same HTML share one conversion.
+ */
+@Slf4j
+@Component
+@ManagedResource(objectName = "com.simpleaccounts:type=Pdf,name=PdfRenderer", description = "HTML to PDF renderer")
+public class PdfRenderer implements DisposableBean {
+
+	private final FontSet fontSet;
+
+	private final String defaultFontFamily;
+
+	private final long maxCacheBytes;
+
+	private final long maxEntryBytes;
+
+	private final ThreadPoolExecutor workers;
+
+	private final Map<String, byte[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final Map<String, CompletableFuture<byte[]>> rendering = new ConcurrentHashMap<>();
+
+	private long cachedBytes;
+
+	private final LongAdder renders = new LongAdder();
+
+	private final LongAdder renderNanos = new LongAdder();
+
+	private final LongAdder cacheHits = new LongAdder();
+
+	private final LongAdder renderedByCaller = new LongAdder();
+
+	public PdfRenderer(@Value("${simpleaccounts.pdf.threads:2}") int threads,
+			@Value("${simpleaccounts.pdf.queue-capacity:50}") int queueCapacity,
+			@Value("${simpleaccounts.pdf.cache-megabytes:32}") long cacheMegabytes) {
+		DefaultFontProvider fontProvider = new DefaultFontProvider();
+		this.fontSet = fontProvider.getFontSet();
+		this.defaultFontFamily = fontProvider.getDefaultFontFamily();
+		this.maxCacheBytes = Math.max(cacheMegabytes, 0) * 1024 * 1024;
+		this.maxEntryBytes = maxCacheBytes / 8;
+		this.workers = new ThreadPoolExecutor(Math.max(threads, 1), Math.max(threads, 1), 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)), new CustomizableThreadFactory("pdf-renderer-"),
+				(task, executor) -> {
+					if (executor.isShutdown()) {
+						throw new RejectedExecutionException("PDF renderer is shut down");
+					}
+					renderedByCaller.increment();
+					task.run();
+				});
+		this.workers.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Starts rendering on the pool, so the caller can go on and collect the document when it needs it.
+	 */
+	public CompletableFuture<byte[]> renderAsync(String html) {
+		if (html == null) {
+			CompletableFuture<byte[]> failed = new CompletableFuture<>();
+			failed.completeExceptionally(new IllegalArgumentException("No HTML to render"));
+			return failed;
+		}
+		String key = key(html);
+		byte[] cached = getCached(key);
+		if (cached != null) {
+			return CompletableFuture.completedFuture(cached);
+		}
+		CompletableFuture<byte[]> future = new CompletableFuture<>();
+		CompletableFuture<byte[]> running = rendering.putIfAbsent(key, future);
+		if (running != null) {
+			return running;
+		}
+		try {
+			workers.execute(() -> complete(key, html, future));
+		} catch (RejectedExecutionException e) {
+			rendering.remove(key, future);
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	/**
+	 * Renders on the calling thread unless the document is cached or already being rendered.
+	 *
+	 * @return the PDF, shared with the cache and not to be modified
+	 */
+	public byte[] render(String html) {
+		String key = key(html);
+		byte[] cached = getCached(key);
+		if (cached != null) {
+			return cached;
+		}
+		CompletableFuture<byte[]> future = new CompletableFuture<>();
+		CompletableFuture<byte[]> running = rendering.putIfAbsent(key, future);
+		if (running == null) {
+			complete(key, html, future);
+			running = future;
+		}
+		return running.join();
+	}
+
+	/**
+	 * Writes the PDF to the stream, for example an HTTP response. A document that is not cached is converted
+	 * straight into the stream and only copied aside when it is small enough to be cached.
+	 */
+	public void render(String html, OutputStream outputStream) throws IOException {
+		String key = key(html);
+		byte[] cached = getCached(key);
+		if (cached != null) {
+			outputStream.write(cached);
+			return;
+		}
+		CappedCopy copy = new CappedCopy(outputStream, maxEntryBytes);
+		convert(html, copy);
+		if (copy.isComplete()) {
+			putCached(key, copy.toByteArray());
+		}
+	}
+
+	private void complete(String key, String html, CompletableFuture<byte[]> future) {
+		try {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+			convert(html, buffer);
+			byte[] pdf = buffer.toByteArray();
+			putCached(key, pdf);
+			future.complete(pdf);
+		} catch (RuntimeException e) {
+			future.completeExceptionally(e);
+		} finally {
+			rendering.remove(key, future);
+		}
+	}
+
+	private void convert(String html, OutputStream outputStream) {
+		long start = System.nanoTime();
+		ConverterProperties properties = new ConverterProperties()
+				.setFontProvider(new BasicFontProvider(fontSet, defaultFontFamily));
+		HtmlConverter.convertToPdf(html, outputStream, properties);
+		renders.increment();
+		renderNanos.add(System.nanoTime() - start);
+	}
+
+	private synchronized byte[] getCached(String key) {
+		byte[] pdf = cache.get(key);
+		if (pdf != null) {
+			cacheHits.increment();
+		}
+		return pdf;
+	}
+
+	private synchronized void putCached(String key, byte[] pdf) {
+		if (pdf.length > maxEntryBytes) {
+			return;
+		}
+		byte[] previous = cache.put(key, pdf);
+		cachedBytes += pdf.length - (previous != null ? previous.length : 0);
+		Iterator<byte[]> eldest = cache.values().iterator();
+		while (cachedBytes > maxCacheBytes && eldest.hasNext()) {
+			cachedBytes -= eldest.next().length;
+			eldest.remove();
+		}
+	}
+
+	private static String key(String html) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Base64.getEncoder().encodeToString(digest.digest(html.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@ManagedOperation(description = "Drops the cached documents")
+	public synchronized void clearCache() {
+		cache.clear();
+		cachedBytes = 0;
+	}
+
+	@ManagedAttribute(description = "Documents waiting to be rendered")
+	public int getQueueDepth() {
+		return workers.getQueue().size();
+	}
+
+	@ManagedAttribute(description = "Documents rendered since start")
+	public long getRenderCount() {
+		return renders.sum();
+	}
+
+	@ManagedAttribute(description = "Documents rendered by the calling thread because the queue was full")
+	public long getRenderedByCallerCount() {
+		return renderedByCaller.sum();
+	}
+
+	@ManagedAttribute(description = "Average conversion time in milliseconds")
+	public double getAverageRenderMillis() {
+		long count = renders.sum();
+		return count == 0 ? 0 : renderNanos.sum() / 1_000_000d / count;
+	}
+
+	@ManagedAttribute(description = "Documents served from the cache")
+	public long getCacheHitCount() {
+		return cacheHits.sum();
+	}
+
+	@ManagedAttribute(description = "Documents in the cache")
+	public synchronized int getCachedCount() {
+		return cache.size();
+	}
+
+	@ManagedAttribute(description = "Bytes held by the cache")
+	public synchronized long getCachedBytes() {
+		return cachedBytes;
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		workers.shutdown();
+		if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+			log.warn("PDF rendering did not finish within 10 seconds, {} documents dropped",
+					workers.shutdownNow().size());
+		}
+		RejectedExecutionException dropped = new RejectedExecutionException("PDF renderer is shut down");
+		rendering.values().forEach(future -> future.completeExceptionally(dropped));
+	}
+
+	/**
+	 * Passes everything through and keeps a copy as long as it stays within the limit.
+	 */
+	private static class CappedCopy extends OutputStream {
+
+		private final OutputStream target;
+
+		private final long limit;
+
+		private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+		CappedCopy(OutputStream target, long limit) {
+			this.target = target;
+			this.limit = limit;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			target.write(b);
+			if (keep(1)) {
+				copy.write(b);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			target.write(b, off, len);
+			if (keep(len)) {
+				copy.write(b, off, len);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			target.flush();
+		}
+
+		/**
+		 * The converter closes the stream it writes to; the caller owns the target and closes it.
+		 */
+		@Override
+		public void close() throws IOException {
+			target.flush();
+		}
+
+		private boolean keep(int length) {
+			if (copy != null && copy.size() + length > limit) {
+				copy = null;
+			}
+			return copy != null;
+		}
+
+		boolean isComplete() {
+			return copy != null;
+		}
+
+		byte[] toByteArray() {
+			return copy.toByteArray();
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.simpleaccounts.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Box totals of the VAT 201 return of one period, in the base currency. The totals are shared by every caller
+ * asking for the same period and are never changed once built; a total is null when no document of the period
+ * contributes to it.
+ */
+@Getter
+@Builder
+public class VatReturnBoxes {
+
+	private final LocalDate startDate;
+
+	private final LocalDate endDate;
+
+	/** Box 1: standard rated sales with VAT, one entry per emirate */
+	private final List<VatReportModel> standardRatedSupplies;
+
+	/** Box 4: zero rated sales */
+	private final BigDecimal zeroRatedSupplies;
+
+	/** Box 5: exempt sales */
+	private final BigDecimal exemptSupplies;
+
+	/** Box 9: standard rated supplier invoices, reverse charge excluded */
+	private final BigDecimal supplierInvoiceAmount;
+
+	private final BigDecimal supplierInvoiceVat;
+
+	/** Box 9: standard rated VAT claimable expenses, reverse charge excluded */
+	private final BigDecimal expenseAmount;
+
+	private final BigDecimal expenseVat;
+
+	/** Box 3 and 10: supplier invoices and expenses subject to the reverse charge */
+	private final BigDecimal reverseChargeAmount;
+
+	private final BigDecimal reverseChargeVat;
+
+	/** Standard rated debit notes net of their line discounts, which reduce box 9 */
+	private final BigDecimal debitNoteSales;
+
+	private final BigDecimal debitNoteSalesVat;
+
+	/** Balance of the input VAT account booked for the period */
+	private final BigDecimal inputVat;
+
+	/** Balance of the output VAT account booked for the period */
+	private final BigDecimal outputVat;
+}
@@ -2,7 +2,6 @@ package com.simpleaccounts.parserengine;
 
 import com.simpleaccounts.criteria.enums.TransactionEnum;
 import com.simpleaccounts.dao.DateFormatDao;
-import com.simpleaccounts.entity.DateFormat;
 import com.simpleaccounts.entity.bankaccount.Transaction;
 import com.simpleaccounts.rest.transactionparsingcontroller.TransactionParsingSettingDetailModel;
 import com.simpleaccounts.rest.transactionparsingcontroller.TransactionParsingSettingPersistModel;
@@ -13,8 +12,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -101,6 +99,11 @@ public class CsvParser implements TransactionFileParser {
 				headerIndexMap.put(model.getIndexMap().get(transactionEnum), transactionEnum);
 			}
 
+			// looked up once per file, not once per row
+			String datePattern = model.getDateFormatId() != null
+					? dateformatDao.findByPK(model.getDateFormatId()).getFormat()
+					: null;
+
 			int rowCount = 0;
 			while ((line = br.readLine()) != null) {
 
@@ -118,11 +121,9 @@ public class CsvParser implements TransactionFileParser {
 									&& displayName.equalsIgnoreCase(TransactionEnum.TRANSACTION_DATE.getDisplayName())) {
 
 								try {
-									DateFormat format = dateformatDao.findByPK(model.getDateFormatId());
-									SimpleDateFormat formatter = new SimpleDateFormat(format.getFormat());
-									formatter.parse(data);
+									StatementDateFormats.parse(datePattern, data);
 									dataMap.put(displayName, data);
-								} catch (ParseException e) {
+								} catch (DateTimeParseException e) {
 
 									errorList.add(rowCount + "," + cellCount);
 								}
@@ -2,30 +2,41 @@ package com.simpleaccounts.parserengine;
 
 import com.simpleaccounts.criteria.enums.TransactionEnum;
 import com.simpleaccounts.dao.DateFormatDao;
-import com.simpleaccounts.entity.DateFormat;
 import com.simpleaccounts.entity.bankaccount.Transaction;
 import com.simpleaccounts.rest.transactionparsingcontroller.TransactionParsingSettingDetailModel;
 import com.simpleaccounts.rest.transactionparsingcontroller.TransactionParsingSettingPersistModel;
 import java.io.IOException;
-import lombok.RequiredArgsConstructor;
+import java.io.InputStream;
 import java.math.BigDecimal;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.*;
+import javax.xml.parsers.ParserConfigurationException;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.EncryptedDocumentException;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
 @Component
 @RequiredArgsConstructor
@@ -82,102 +93,34 @@ public class ExcelParser implements TransactionFileParser {
 
 	}
 
-	// consider for singel page in sheet
+	/**
+	 * Reads the rows of the first sheet. An .xlsx file is streamed row by row from its sheet XML rather than loaded
+	 * into a workbook, so large statements are read in constant memory; older .xls files still go through the
+	 * workbook model.
+	 */
 	public Map parseImportData(TransactionParsingSettingDetailModel model, MultipartFile file) {
 
-		Integer firstRowIndex = model.getHeaderRowNo() != null ? model.getHeaderRowNo() - 1 : 0;
-
 		if (file != null) {
-			Map<Integer, Set<Integer>> errorRowCellIndexMap = new HashMap<>();
-			List<String> errorList = new ArrayList<>();
-			Map<Integer, TransactionEnum> headerIndexMap = new HashMap<>();
-			for (TransactionEnum transactionEnum : model.getIndexMap().keySet()) {
-				headerIndexMap.put(model.getIndexMap().get(transactionEnum), transactionEnum);
-			}
-			List<Map<String, String>> list = new ArrayList<>();
-
-			// Creating a Workbook from an Excel file (.xls or .xlsx)
-			try (Workbook workbook = WorkbookFactory.create(file.getInputStream())) {
-
-				// Create a DataFormatter to format and get each cell's value as String
-				DateFormat format = dateformatDao.findByPK(model.getDateFormatId());
-
-				DataFormatter dataFormatter = new DataFormatter();
-
-				Sheet sheet = workbook.getSheetAt(0);
-				Iterator<Row> iterator = sheet.rowIterator();
-				while(iterator.hasNext()) {
-					Row row = iterator.next();
-					if(isEmptyRow(row))
-						continue;
-
-					Map<String, String> dataMap = new LinkedHashMap<>();
-
-					for (Cell cell : row) {
-						String cellValue = dataFormatter.formatCellValue(cell);
-						if (cell.getRow().getRowNum() > firstRowIndex) {
-							if (headerIndexMap.containsKey(cell.getColumnIndex())) {
-
-								//
-								String displayName = headerIndexMap.get(cell.getColumnIndex()).getDisplayName();
-								// check for date format
-								if (model.getDateFormatId() != null
-										&& displayName.equals(TransactionEnum.TRANSACTION_DATE.getDisplayName())) {
-
-									String validDate = isValidDate(cellValue, format);
-
-									if (validDate.isEmpty()) {
-										errorRowCellIndexMap = addErrorCellInRow(errorRowCellIndexMap,
-												cell.getRow().getRowNum(), cell.getColumnIndex());
-										errorList.add(cell.getRow().getRowNum() + "," + cell.getColumnIndex());
-
-									} else {
-										cellValue = validDate;
-									}
-								}
-
-								// chcek for credit amount
-								if (displayName.equals(TransactionEnum.CR_AMOUNT.getDisplayName())) {
-									try {
-										if(cellValue!=null&&cellValue.trim().isEmpty())
-											cellValue ="0";
-										new BigDecimal(cellValue.trim());
-									} catch (Exception e) {
-										errorRowCellIndexMap = addErrorCellInRow(errorRowCellIndexMap,
-												cell.getRow().getRowNum(), cell.getColumnIndex());
-										errorList.add(cell.getRow().getRowNum() + "," + cell.getColumnIndex());
-									}
-								}
-
-								// chcek for Debit amount
-								if (displayName.equals(TransactionEnum.DR_AMOUNT.getDisplayName())) {
-									try {
-										if(cellValue!=null&&cellValue.trim().isEmpty())
-											cellValue ="0";
-										new BigDecimal(cellValue.trim());
-									} catch (Exception e) {
-										errorRowCellIndexMap = addErrorCellInRow(errorRowCellIndexMap,
-												cell.getRow().getRowNum(), cell.getColumnIndex());
-										errorList.add(cell.getRow().getRowNum() + "," + cell.getColumnIndex());
-									}
-								}
-
-								//
-								dataMap.put(headerIndexMap.get(cell.getColumnIndex()).getDisplayName(), cellValue);
-							}
-						}
-					}
-					if (!dataMap.isEmpty()) {
-						list.add(dataMap);
-					}
+			// looked up once per file, not once per row
+			String datePattern = model.getDateFormatId() != null
+					? dateformatDao.findByPK(model.getDateFormatId()).getFormat()
+					: null;
+			ImportRows rows = new ImportRows(model, datePattern);
+
+			try (InputStream inputStream = FileMagic.prepareToCheckMagic(file.getInputStream())) {
+				if (FileMagic.valueOf(inputStream) == FileMagic.OOXML) {
+					streamFirstSheet(inputStream, rows);
+				} else {
+					readFirstSheet(inputStream, rows);
 				}
 
 				Map responseMap = new LinkedHashMap<>();
-				responseMap.put("data", list);
-				responseMap.put("error", errorList);
+				responseMap.put("data", rows.list);
+				responseMap.put("error", rows.errorList);
 
 				return responseMap;
-			} catch (EncryptedDocumentException | IOException | InvalidFormatException e) {
+			} catch (EncryptedDocumentException | IOException | OpenXML4JException | SAXException
+					| ParserConfigurationException e) {
 				logger.error(LOG_ERROR_PREFIX, e);
 			}
 
@@ -185,6 +128,44 @@ public class ExcelParser implements TransactionFileParser {
 		return new HashMap<>();
 
 	}
+
+	private void streamFirstSheet(InputStream inputStream, ImportRows rows)
+			throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+		OPCPackage opcPackage = OPCPackage.open(inputStream);
+		try {
+			XSSFReader reader = new XSSFReader(opcPackage);
+			Iterator<InputStream> sheets = reader.getSheetsData();
+			if (!sheets.hasNext()) {
+				return;
+			}
+			XMLReader sheetParser = SAXHelper.newXMLReader();
+			sheetParser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(),
+					new ReadOnlySharedStringsTable(opcPackage), rows, new DataFormatter(), false));
+			try (InputStream sheet = sheets.next()) {
+				sheetParser.parse(new InputSource(sheet));
+			}
+		} finally {
+			// closes the package without writing it back
+			opcPackage.revert();
+		}
+	}
+
+	private void readFirstSheet(InputStream inputStream, ImportRows rows) throws IOException, InvalidFormatException {
+		try (Workbook workbook = WorkbookFactory.create(inputStream)) {
+			DataFormatter dataFormatter = new DataFormatter();
+			for (Row row : workbook.getSheetAt(0)) {
+				if (isEmptyRow(row)) {
+					continue;
+				}
+				Map<Integer, String> cells = new LinkedHashMap<>();
+				for (Cell cell : row) {
+					cells.put(cell.getColumnIndex(), dataFormatter.formatCellValue(cell));
+				}
+				rows.add(row.getRowNum(), cells);
+			}
+		}
+	}
+
 	boolean isEmptyRow(Row row){
 		boolean isEmptyRow = true;
 		for(int cellNum = row.getFirstCellNum(); cellNum < row.getLastCellNum(); cellNum++){
@@ -246,16 +227,93 @@ public class ExcelParser implements TransactionFileParser {
 		return map;
 	}
 
-	private String isValidDate(String dateStr, DateFormat format) {
-		try {
-			// bydefault excel give dd/mm/yyyy convert to specific format
-			SimpleDateFormat formatter = new SimpleDateFormat(format.getFormat());
-			Date date = formatter.parse(dateStr);
-
-			formatter = new SimpleDateFormat(format.getFormat());
-			return formatter.format(date);
-		} catch (ParseException e) {
-			return "";
+	/**
+	 * Collects the mapped columns of the rows below the header, checking dates and amounts as it goes.
+	 */
+	private static final class ImportRows implements SheetContentsHandler {
+
+		private final Map<Integer, TransactionEnum> headerIndexMap = new HashMap<>();
+
+		private final int firstRowIndex;
+
+		private final String datePattern;
+
+		private final List<Map<String, String>> list = new ArrayList<>();
+
+		private final List<String> errorList = new ArrayList<>();
+
+		private Map<Integer, String> cells;
+
+		private ImportRows(TransactionParsingSettingDetailModel model, String datePattern) {
+			for (TransactionEnum transactionEnum : model.getIndexMap().keySet()) {
+				headerIndexMap.put(model.getIndexMap().get(transactionEnum), transactionEnum);
+			}
+			this.firstRowIndex = model.getHeaderRowNo() != null ? model.getHeaderRowNo() - 1 : 0;
+			this.datePattern = datePattern;
+		}
+
+		@Override
+		public void startRow(int rowNum) {
+			cells = new LinkedHashMap<>();
+		}
+
+		@Override
+		public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+			cells.put((int) new CellReference(cellReference).getCol(), formattedValue);
+		}
+
+		@Override
+		public void endRow(int rowNum) {
+			if (cells.values().stream().anyMatch(StringUtils::isNotBlank)) {
+				add(rowNum, cells);
+			}
+		}
+
+		@Override
+		public void headerFooter(String text, boolean isHeader, String tagName) {
+			// not part of the statement
+		}
+
+		private void add(int rowNum, Map<Integer, String> rowCells) {
+			if (rowNum <= firstRowIndex) {
+				return;
+			}
+			Map<String, String> dataMap = new LinkedHashMap<>();
+			for (Map.Entry<Integer, String> rowCell : rowCells.entrySet()) {
+				Integer columnIndex = rowCell.getKey();
+				String cellValue = rowCell.getValue();
+				if (!headerIndexMap.containsKey(columnIndex)) {
+					continue;
+				}
+				String displayName = headerIndexMap.get(columnIndex).getDisplayName();
+				// check for date format
+				if (datePattern != null && displayName.equals(TransactionEnum.TRANSACTION_DATE.getDisplayName())) {
+					// bydefault excel give dd/mm/yyyy convert to specific format
+					String validDate = StatementDateFormats.normalize(datePattern, cellValue);
+					if (validDate.isEmpty()) {
+						errorList.add(rowNum + "," + columnIndex);
+					} else {
+						cellValue = validDate;
+					}
+				}
+
+				// chcek for credit and debit amount
+				if (displayName.equals(TransactionEnum.CR_AMOUNT.getDisplayName())
+						|| displayName.equals(TransactionEnum.DR_AMOUNT.getDisplayName())) {
+					try {
+						if (cellValue != null && cellValue.trim().isEmpty())
+							cellValue = "0";
+						new BigDecimal(cellValue.trim());
+					} catch (Exception e) {
+						errorList.add(rowNum + "," + columnIndex);
+					}
+				}
+
+				dataMap.put(displayName, cellValue);
+			}
+			if (!dataMap.isEmpty()) {
+				list.add(dataMap);
+			}
 		}
 	}
 }
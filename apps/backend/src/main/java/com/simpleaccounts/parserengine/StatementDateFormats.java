@@ -0,0 +1,57 @@
+package com.simpleaccounts.parserengine;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses the dates of imported bank statements with the pattern of their parsing template.
+ *
+ * A formatter is built once per pattern and shared by every import, as DateTimeFormatter is immutable and thread
+ * safe. Parsing is lenient about the width of numbers and the case of month names, like the SimpleDateFormat it
+ * replaces, so {@code 1/5/2024} still matches {@code dd/MM/yyyy}.
+ */
+public final class StatementDateFormats {
+
+	private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+	private StatementDateFormats() {
+	}
+
+	/**
+	 * @param pattern date pattern of the template, such as {@code dd/MM/yyyy}
+	 * @return the shared formatter of the pattern
+	 */
+	public static DateTimeFormatter getFormatter(String pattern) {
+		return FORMATTERS.computeIfAbsent(pattern, p -> new DateTimeFormatterBuilder().parseCaseInsensitive()
+				.parseLenient().appendPattern(p).toFormatter(Locale.US));
+	}
+
+	/**
+	 * @return the date and time of the value, at the start of the day when the pattern has no time
+	 * @throws DateTimeParseException when the value does not match the pattern
+	 */
+	public static LocalDateTime parse(String pattern, String value) {
+		TemporalAccessor parsed = getFormatter(pattern).parseBest(value.trim(), LocalDateTime::from, LocalDate::from);
+		return parsed instanceof LocalDateTime ? (LocalDateTime) parsed : ((LocalDate) parsed).atStartOfDay();
+	}
+
+	/**
+	 * @return the value written again with the pattern, or an empty string when it does not match
+	 */
+	public static String normalize(String pattern, String value) {
+		try {
+			TemporalAccessor parsed = getFormatter(pattern).parseBest(value.trim(), LocalDateTime::from,
+					LocalDate::from);
+			return getFormatter(pattern).format(parsed);
+		} catch (DateTimeParseException e) {
+			return "";
+		}
+	}
+}
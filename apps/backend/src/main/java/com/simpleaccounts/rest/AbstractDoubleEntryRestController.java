@@ -17,6 +17,7 @@ import com.simpleaccounts.rest.invoicecontroller.InvoiceRestHelper;
 import com.simpleaccounts.security.JwtTokenUtil;
 import com.simpleaccounts.service.*;
 import com.simpleaccounts.service.bankaccount.TransactionService;
+import com.simpleaccounts.service.impl.InventoryLedger;
 import io.swagger.annotations.ApiOperation;
 import java.util.HashMap;
 import java.util.List;
@@ -67,7 +68,7 @@ public abstract class AbstractDoubleEntryRestController {
 
 	private CreditNoteRepository creditNoteRepository;
 
-	private InventoryHistoryService inventoryHistoryService;
+	private InventoryLedger inventoryLedger;
 
 	private JournalLineItemRepository journalLineItemRepository;
 
@@ -90,7 +91,7 @@ public abstract class AbstractDoubleEntryRestController {
 			InventoryService inventoryService,
 			CreditNoteRestHelper creditNoteRestHelper,
 			CreditNoteRepository creditNoteRepository,
-			InventoryHistoryService inventoryHistoryService,
+			InventoryLedger inventoryLedger,
 			JournalLineItemRepository journalLineItemRepository,
 			TransactionService transactionService,
 			TransactionExpensesService transactionExpensesService,
@@ -105,7 +106,7 @@ public abstract class AbstractDoubleEntryRestController {
 		this.inventoryService = inventoryService;
 		this.creditNoteRestHelper = creditNoteRestHelper;
 		this.creditNoteRepository = creditNoteRepository;
-		this.inventoryHistoryService = inventoryHistoryService;
+		this.inventoryLedger = inventoryLedger;
 		this.journalLineItemRepository = journalLineItemRepository;
 		this.transactionService = transactionService;
 		this.transactionExpensesService = transactionExpensesService;
@@ -183,42 +184,9 @@ public abstract class AbstractDoubleEntryRestController {
 				Invoice invoice = invoiceService.findByPK(postingRequestModel.getPostingRefId());
 				invoice.setStatus(CommonStatusEnum.PENDING.getValue());
 				invoice.setDueAmount(invoice.getDueAmount());
-				for (	InvoiceLineItem invoiceLineItem : invoice.getInvoiceLineItems()){
-					if (invoiceLineItem.getProduct().getIsInventoryEnabled()!=null && invoiceLineItem.getProduct().getIsInventoryEnabled()) {
-						Map<String, Object> inventoryHistoryFilterMap = new HashMap<>();
-						inventoryHistoryFilterMap.put("invoice", invoice);
-						List<InventoryHistory> inventoryHistoryList = inventoryHistoryService.findByAttributes(inventoryHistoryFilterMap);
-						for (InventoryHistory inventoryHistory : inventoryHistoryList) {
-							Inventory inventory = inventoryService.findByPK(inventoryHistory.getInventory().getInventoryID());
-							if (invoice.getType() == 2) {
-								if (inventory.getStockOnHand() != null) {
-									inventory.setStockOnHand(inventory.getStockOnHand() + inventory.getQuantitySold());
-								}
-								if (inventory.getQuantitySold() != null) {
-									inventory.setQuantitySold( inventory.getQuantitySold() - inventory.getQuantitySold());
-								}
-								inventoryService.update(inventory);
-								inventoryHistoryService.delete(inventoryHistory);
-							}
-							if (invoice.getType() == 1) {
-								if (inventory.getPurchaseQuantity() != null) {
-									inventory.setPurchaseQuantity(inventory.getPurchaseQuantity() - inventoryHistory.getQuantity().intValue());
-								}
-								inventory.setStockOnHand(inventory.getStockOnHand() - inventoryHistory.getQuantity().intValue());
-								//to check multiple usage of single inventory item
-								Map<String, Object> map = new HashMap<>();
-								map.put("inventory", inventory);
-								List<InventoryHistory> list = inventoryHistoryService.findByAttributes(map);
-								if (list != null && list.size() == 1) {
-									inventoryHistoryService.delete(inventoryHistory);
-									inventoryService.delete(inventory);
-								} else {
-									inventoryHistoryService.delete(inventoryHistory);
-									inventoryService.update(inventory);
-								}
-							}
-						}
-					}
+				if (invoice.getInvoiceLineItems().stream().anyMatch(invoiceLineItem ->
+						Boolean.TRUE.equals(invoiceLineItem.getProduct().getIsInventoryEnabled()))) {
+					inventoryLedger.reverse(invoice);
 				}
 				if(postingRequestModel.getComment()!=null) {
 					String notes = invoice.getNotes();
@@ -173,11 +173,18 @@ public class InventoryController {
         }
     }
     
+    @LogRequest
+    @ApiOperation(value = "Get Every Tile Of The Inventory Dashboard")
+    @GetMapping(value = "/getInventoryDashboard")
+    public ResponseEntity<InventoryDashboardModel> getInventoryDashboard(){
+        return new ResponseEntity<>(inventoryService.getInventoryDashboard(), HttpStatus.OK);
+    }
+
     @LogRequest
     @ApiOperation(value = "Get Product Count For Inventory")
     @GetMapping(value = "/getProductCountForInventory")
     public ResponseEntity<Integer> getProductCountForInventory(){
-        Integer response = inventoryService.getProductCountForInventory();
+        Integer response = inventoryService.getInventoryDashboard().getProductCount();
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
     
@@ -185,7 +192,7 @@ public class InventoryController {
     @ApiOperation(value = "Get Total Stock On Hand ")
     @GetMapping(value = "/getTotalStockOnHand")
     public ResponseEntity<Integer> getTotalStockOnHand(){
-        Integer response = inventoryService.totalStockOnHand();
+        Integer response = inventoryService.getInventoryDashboard().getTotalStockOnHand();
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
     
@@ -193,7 +200,7 @@ public class InventoryController {
     @ApiOperation(value = "Get Low Stock Product Count For Inventory")
     @GetMapping(value = "/getlowStockProductCountForInventory")
     public ResponseEntity<Integer> getlowStockProductCountForInventory(){
-        Integer response = inventoryService.getlowStockProductCountForInventory();
+        Integer response = inventoryService.getInventoryDashboard().getLowStockProductCount();
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -223,7 +230,7 @@ public class InventoryController {
     @ApiOperation(value = "Get Top Selling Product List For Inventory")
     @GetMapping(value = "/getTopSellingProductListForInventory")
     public ResponseEntity<List<InventoryListModel>> getTopSellingProductListForInventory(){
-        List<InventoryListModel> response = inventoryService.getTopSellingProductListForInventory();
+        List<InventoryListModel> response = inventoryService.getInventoryDashboard().getTopSellingProductList();
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
     
@@ -231,7 +238,7 @@ public class InventoryController {
     @ApiOperation(value = "Get Out Of Stock Product From Inventory ")
     @GetMapping(value = "/getOutOfStockCountOfInventory")
     public ResponseEntity<Integer> getOutOfStockCountOfInventory(){
-        Integer response = inventoryService.getOutOfStockCountOfInventory();
+        Integer response = inventoryService.getInventoryDashboard().getOutOfStockCount();
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
     
@@ -239,7 +246,7 @@ public class InventoryController {
     @ApiOperation(value = "Get Total Inventory Value ")
     @GetMapping(value = "/getTotalInventoryValue")
     public ResponseEntity<BigDecimal> getTotalInventoryValue(){
-        BigDecimal response = inventoryService.getTotalInventoryValue();
+        BigDecimal response = inventoryService.getInventoryDashboard().getTotalInventoryValue();
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -247,7 +254,7 @@ public class InventoryController {
     @ApiOperation(value = "Get Total Revenue Of Inventory ")
     @GetMapping(value = "/getTotalRevenueOfInventory")
     public ResponseEntity<InventoryRevenueModel> getTotalRevenueForInventory(){
-        InventoryRevenueModel response= inventoryHistoryService.getTotalRevenueForInventory();
+        InventoryRevenueModel response= inventoryService.getInventoryDashboard().getTotalRevenue();
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
     
@@ -255,7 +262,7 @@ public class InventoryController {
     @ApiOperation(value = "Get Total Quantity Sold For Inventory ")
     @GetMapping(value = "/getTotalQuantitySoldForInventory")
     public ResponseEntity<InventoryRevenueModel> getTotalQuantitySoldForInventory(){
-        InventoryRevenueModel response= inventoryHistoryService.getTotalQuantitySoldForInventory();
+        InventoryRevenueModel response= inventoryService.getInventoryDashboard().getTotalQuantitySold();
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
     
@@ -263,7 +270,7 @@ public class InventoryController {
     @ApiOperation(value = "Get Top Selling Products For Inventory ")
     @GetMapping(value = "/getTopSellingProductsForInventory")
     public ResponseEntity<TopInventoryRevenueModel> getTopSellingProductsForInventory(){
-        TopInventoryRevenueModel response= inventoryHistoryService.getTopSellingProductsForInventory();
+        TopInventoryRevenueModel response= inventoryService.getInventoryDashboard().getTopSellingProducts();
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
     
@@ -271,7 +278,7 @@ public class InventoryController {
     @ApiOperation(value = "Get Top Profit Generating Products For Inventory ")
     @GetMapping(value = "/getTopProfitGeneratingProductsForInventory")
     public ResponseEntity<TopInventoryRevenueModel> getTopProfitGeneratingProductsForInventory(){
-        TopInventoryRevenueModel response= inventoryHistoryService.getTopProfitGeneratingProductsForInventory();
+        TopInventoryRevenueModel response= inventoryService.getInventoryDashboard().getTopProfitGeneratingProducts();
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
     
@@ -279,7 +286,7 @@ public class InventoryController {
     @ApiOperation(value = "Get Low Selling Products For Inventory ")
     @GetMapping(value = "/getLowSellingProductsForInventory")
     public ResponseEntity<TopInventoryRevenueModel> getLowSellingProductsForInventory(){
-        TopInventoryRevenueModel response= inventoryHistoryService.getLowSellingProductsForInventory();
+        TopInventoryRevenueModel response= inventoryService.getInventoryDashboard().getLowSellingProducts();
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
     
@@ -0,0 +1,27 @@
+package com.simpleaccounts.rest.InventoryController;
+
+import com.simpleaccounts.rest.productcontroller.InventoryListModel;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Every tile of the inventory dashboard, computed together and cached until stock moves.
+ */
+@Data
+public class InventoryDashboardModel {
+
+    private Integer productCount;
+    private Integer totalStockOnHand;
+    private Integer lowStockProductCount;
+    private Integer outOfStockCount;
+    private BigDecimal totalInventoryValue;
+    private List<InventoryListModel> topSellingProductList;
+    private InventoryRevenueModel totalRevenue;
+    private InventoryRevenueModel totalQuantitySold;
+    private TopInventoryRevenueModel topSellingProducts;
+    private TopInventoryRevenueModel topProfitGeneratingProducts;
+    private TopInventoryRevenueModel lowSellingProducts;
+
+}
@@ -92,7 +92,7 @@ public class InvoiceScannerRestController {
             FileHelper.setRootPath(rootPath);
             log.info("In Controller :{}",requestModel.getInvoiceDueDate());
             Integer userId = jwtTokenUtil.getUserIdFromHttpRequest(request);
-            Boolean checkInvoiceNumber = invoiceRestHelper.doesInvoiceNumberExist(requestModel.getReferenceNumber());
+            Boolean checkInvoiceNumber = invoiceRestHelper.doesInvoiceNumberExist(requestModel.getReferenceNumber(), requestModel.getType());
             if (Boolean.TRUE.equals(checkInvoiceNumber)) {
                 SimpleAccountsMessage errorMessage = new SimpleAccountsMessage("0023",
                         MessageUtil.getMessage("invoicenumber.alreadyexists.0023"), true);
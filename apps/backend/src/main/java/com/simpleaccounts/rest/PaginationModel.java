@@ -20,6 +20,18 @@ import lombok.Data;
 		private String order;
 	private String sortingCol;
 	private boolean paginationDisable;
+	/**
+	 * Pages by the sort key of the last row instead of by offset, see {@link #continuationToken}.
+	 */
+	private boolean keysetPagination;
+	/**
+	 * Token of the previous keyset page, {@code null} for the first page.
+	 */
+	private String continuationToken;
+	/**
+	 * Leaves out the total count of a keyset first page.
+	 */
+	private boolean skipCount;
 
 	public String getOrder() {
 		if (order == null || (order != null && order.isEmpty())) {
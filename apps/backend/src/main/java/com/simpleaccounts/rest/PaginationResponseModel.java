@@ -1,5 +1,7 @@
 package com.simpleaccounts.rest;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,5 +13,15 @@ public class PaginationResponseModel {
 
 	private Integer count;
 	private Object data;
+	/**
+	 * Token for the next keyset page, {@code null} on the last page and for offset pages.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private String continuationToken;
+
+	public PaginationResponseModel(Integer count, Object data) {
+		this.count = count;
+		this.data = data;
+	}
 
 }
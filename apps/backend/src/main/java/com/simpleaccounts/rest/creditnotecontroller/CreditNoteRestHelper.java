@@ -25,6 +25,7 @@ import com.simpleaccounts.rest.receiptcontroller.ReceiptRequestModel;
 import com.simpleaccounts.security.JwtTokenUtil;
 import com.simpleaccounts.service.*;
 import com.simpleaccounts.service.bankaccount.TransactionService;
+import com.simpleaccounts.service.impl.InventoryLedger;
 import com.simpleaccounts.utils.*;
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -90,7 +91,7 @@ public class CreditNoteRestHelper {
 
     private final InventoryService inventoryService;
 
-    private final InventoryHistoryService inventoryHistoryService;
+    private final InventoryLedger inventoryLedger;
 
     private final DateUtils dateUtils;
 
@@ -567,9 +568,10 @@ public class CreditNoteRestHelper {
             Product product = productService.findByPK(lineItem.getProduct().getProductID());
             if (Boolean.TRUE.equals(product.getIsInventoryEnabled())) {
                 if (lineItem.getCreditNote().getType() == 7) {
-                    handleCreditNoteInventory(lineItem, product, userId);
+                    handleCreditNoteInventory(lineItem);
                 } else {
-                    handleDebitNoteInventory(lineItem, product, lineItem.getCreditNote().getContact(), userId);
+                    inventoryLedger.restock(product, lineItem.getCreditNote().getContact(), lineItem.getQuantity(),
+                            lineItem.getUnitPrice(), userId);
                 }
 	            }
 	            if (isCustomerInvoice)
@@ -594,103 +596,11 @@ public class CreditNoteRestHelper {
         }
     }
 
-    private void handleCreditNoteInventory(CreditNoteLineItem model, Product product, Integer userId) {
+    private void handleCreditNoteInventory(CreditNoteLineItem model) {
         Map<String, Object> relationMap = new HashMap<>();
         relationMap.put(JSON_KEY_CREDIT_NOTE, model.getCreditNote());
         CreditNoteInvoiceRelation creditNoteInvoiceRelation = creditNoteInvoiceRelationService.findByAttributes(relationMap).get(0);
-
-        Map<String,Object> inventoryHistoryFilterMap = new HashMap<>();
-        inventoryHistoryFilterMap.put("invoice",creditNoteInvoiceRelation.getInvoice());
-        List<InventoryHistory> inventoryHistoryList = inventoryHistoryService.findByAttributes(inventoryHistoryFilterMap);
-        for(InventoryHistory inventoryHistory:inventoryHistoryList)
-
-        {
-            Inventory inventory = inventoryService.findByPK(inventoryHistory.getInventory().getInventoryID());
-            if (creditNoteInvoiceRelation.getInvoice().getType() == 2) {
-                if (inventory.getStockOnHand() != null) {
-                    inventory.setStockOnHand(inventory.getStockOnHand() + inventoryHistory.getQuantity().intValue());
-                }
-                if (inventory.getQuantitySold() != null) {
-                    inventory.setQuantitySold(inventory.getQuantitySold() - inventoryHistory.getQuantity().intValue());
-                }
-                inventoryService.update(inventory);
-                inventoryHistoryService.delete(inventoryHistory);
-            }
-            if (creditNoteInvoiceRelation.getInvoice().getType() == 1) {
-                if (inventory.getPurchaseQuantity() != null) {
-                    inventory.setPurchaseQuantity(inventory.getPurchaseQuantity() -inventoryHistory.getQuantity().intValue());
-                }
-                inventory.setStockOnHand(inventory.getStockOnHand() - inventoryHistory.getQuantity().intValue());
-                //to check multiple usage of single inventory item
-                Map<String,Object> map = new HashMap<>();
-                map.put("inventory",inventory);
-                List<InventoryHistory> list = inventoryHistoryService.findByAttributes(map);
-                if (list!=null && list.size()==1){
-                    inventoryHistoryService.delete(inventoryHistory);
-                    inventoryService.delete(inventory);
-                }
-                else {
-                    inventoryHistoryService.delete(inventoryHistory);
-                    inventoryService.update(inventory);
-                }
-            }
-        }
-    }
-
-    void handleDebitNoteInventory(CreditNoteLineItem model, Product product, Contact supplier, Integer userId) {
-        Map<String, Object> attribute = new HashMap<>();
-        attribute.put("productId", product);
-        attribute.put("supplierId", supplier);
-
-        List<Inventory> inventoryList = inventoryService.findByAttributes(attribute);
-        if (inventoryList != null && !inventoryList.isEmpty()) {
-            for (Inventory inventory : inventoryList) {
-                int stockOnHand = inventory.getStockOnHand();
-                int purchaseQuantity = inventory.getPurchaseQuantity();
-                inventory.setStockOnHand(model.getQuantity() + stockOnHand);
-                inventory.setPurchaseQuantity(model.getQuantity() + purchaseQuantity);
-                inventoryService.update(inventory);
-                InventoryHistory inventoryHistory = new InventoryHistory();
-                inventoryHistory.setInventory(inventory);
-                inventoryHistory.setProductId(inventory.getProductId());
-                inventoryHistory.setUnitCost(inventory.getUnitCost());
-                inventoryHistory.setQuantity(model.getQuantity().floatValue());
-                inventoryHistory.setSupplierId(inventory.getSupplierId());
-                inventoryHistory.setCreatedBy(userId);
-                inventoryHistory.setCreatedDate(LocalDateTime.now());
-                inventoryHistory.setLastUpdateBy(inventory.getLastUpdateBy());
-                inventoryHistory.setLastUpdateDate(LocalDateTime.now());
-                inventoryHistory.setTransactionDate(LocalDate.now());
-                inventoryHistoryService.update(inventoryHistory);
-            }
-        } else {
-            Inventory inventory = new Inventory();
-            inventory.setProductId(product);
-            // Check for supplier id From contact entity
-            inventory.setSupplierId(supplier);
-            inventory.setPurchaseQuantity(model.getQuantity());
-            inventory.setStockOnHand(model.getQuantity());
-            inventory.setQuantitySold(0);
-            inventory.setCreatedBy(userId);
-            inventory.setCreatedDate(LocalDateTime.now());
-            inventory.setLastUpdateBy(inventory.getLastUpdateBy());
-            inventory.setLastUpdateDate(LocalDateTime.now());
-            int reOrderLevel = model.getQuantity() / 10;
-            inventory.setReorderLevel(reOrderLevel);
-            inventory.setUnitCost(model.getUnitPrice().floatValue());
-            inventoryService.persist(inventory);
-            InventoryHistory inventoryHistory = new InventoryHistory();
-            inventoryHistory.setInventory(inventory);
-            inventoryHistory.setProductId(inventory.getProductId());
-            inventoryHistory.setUnitCost(inventory.getUnitCost());
-            inventoryHistory.setSupplierId(inventory.getSupplierId());
-            inventoryHistory.setQuantity((model.getQuantity().floatValue()));
-            inventoryHistory.setCreatedBy(userId);
-            inventoryHistory.setCreatedDate(LocalDateTime.now());
-            inventoryHistory.setLastUpdateBy(inventory.getLastUpdateBy());
-            inventoryHistory.setLastUpdateDate(LocalDateTime.now());
-            inventoryHistoryService.update(inventoryHistory);
-        }
+        inventoryLedger.reverse(creditNoteInvoiceRelation.getInvoice());
     }
 
     public CreditNoteRequestModel getRequestModel(CreditNote creditNote) {
@@ -1837,52 +1747,21 @@ public SimpleAccountsMessage recordPaymentForCN(RecordPaymentForCN requestModel,
             Product product=productService.findByPK(creditNoteLineItem.getProduct().getProductID());
             if(product.getIsInventoryEnabled() != null && product.getIsInventoryEnabled() )
             {
-                handleReverseCNInventory(creditNoteLineItem,userId);
+                handleReverseCNInventory(creditNoteLineItem);
             }
         }
     }
-    private void handleReverseCNInventory(CreditNoteLineItem model,Integer userId) {
+    private void handleReverseCNInventory(CreditNoteLineItem model) {
         Map<String, Object> relationMap = new HashMap<>();
         relationMap.put(JSON_KEY_CREDIT_NOTE, model.getCreditNote());
         CreditNoteInvoiceRelation creditNoteInvoiceRelation = creditNoteInvoiceRelationService.findByAttributes(relationMap).get(0);
-        List<Inventory> inventoryList = inventoryService.getProductByProductId(model.getProduct().getProductID());
-        int remainingQty = model.getQuantity();
-        for(Inventory inventory : inventoryList)
-        {
-            Integer auditUserId = userId != null ? userId : inventory.getLastUpdateBy();
-            int stockOnHand = inventory.getStockOnHand();
-            if(stockOnHand > remainingQty )
-            {
-                stockOnHand = stockOnHand - remainingQty ;
-                inventory.setQuantitySold(inventory.getQuantitySold()+remainingQty);
-                remainingQty -= remainingQty;
-                inventory.setStockOnHand(stockOnHand);
-            }
-            else
-            {
-                remainingQty -= stockOnHand;
-                inventory.setStockOnHand(0);
-                inventory.setQuantitySold(inventory.getQuantitySold()+stockOnHand);
-            }
-            inventoryService.update(inventory);
-            InventoryHistory inventoryHistory = new InventoryHistory();
-            inventoryHistory.setCreatedBy(auditUserId);
-            inventoryHistory.setCreatedDate(LocalDateTime.now());
-            inventoryHistory.setLastUpdateBy(auditUserId);
-            inventoryHistory.setLastUpdateDate(LocalDateTime.now());
-            inventoryHistory.setTransactionDate(creditNoteInvoiceRelation.getInvoice().getInvoiceDate());
-            inventoryHistory.setInventory(inventory);
-            inventoryHistory.setInvoice(creditNoteInvoiceRelation.getInvoice());
-            inventoryHistory.setProductId(inventory.getProductId());
-            inventoryHistory.setUnitCost(inventory.getUnitCost());
-            inventoryHistory.setQuantity((float) stockOnHand);
-            inventoryHistory.setUnitSellingPrice(model.getUnitPrice().floatValue()*creditNoteInvoiceRelation.getInvoice().getExchangeRate().floatValue());
-            inventoryHistory.setSupplierId(inventory.getSupplierId());
-            inventoryHistoryService.update(inventoryHistory);
-
-            if(remainingQty==0)
-                break;
-        }
+        // the returned quantity is sold again against the invoice the credit note was raised for
+        InvoiceLineItem lineItem = new InvoiceLineItem();
+        lineItem.setInvoice(creditNoteInvoiceRelation.getInvoice());
+        lineItem.setProduct(model.getProduct());
+        lineItem.setQuantity(model.getQuantity());
+        lineItem.setUnitPrice(model.getUnitPrice());
+        inventoryLedger.issue(lineItem);
     }
     public void sendCNRefundMail(Contact contact, Integer invoiceType,String number, String amount, String date, HttpServletRequest request) {
         long millis=System.currentTimeMillis();
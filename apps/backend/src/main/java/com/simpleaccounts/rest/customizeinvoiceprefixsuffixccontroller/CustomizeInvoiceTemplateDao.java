@@ -12,4 +12,10 @@ public interface CustomizeInvoiceTemplateDao extends Dao<Integer, CustomizeInvoi
     public CustomizeInvoiceTemplate getLastInvoiceNo(Integer invoiceType);
 
     public CustomizeInvoiceTemplate getType(Integer invoiceType);
+
+    /**
+     * Reads the numbering template of the document type with SELECT ... FOR UPDATE, so the row stays locked until
+     * the transaction ends.
+     */
+    public CustomizeInvoiceTemplate getInvoiceTemplateForUpdate(Integer invoiceType);
 }
@@ -2,11 +2,10 @@ package com.simpleaccounts.rest.customizeinvoiceprefixsuffixccontroller;
 
 import com.simpleaccounts.dao.AbstractDao;
 import com.simpleaccounts.entity.CustomizeInvoiceTemplate;
+import javax.persistence.LockModeType;
 import javax.persistence.TypedQuery;
 import org.springframework.stereotype.Repository;
 import java.util.List;
-import javax.persistence.TypedQuery;
-import org.springframework.stereotype.Repository;
 
 @Repository
 public class CustomizeInvoiceTemplateDaoImpl extends AbstractDao<Integer, CustomizeInvoiceTemplate> implements CustomizeInvoiceTemplateDao {
@@ -38,4 +37,14 @@ public class CustomizeInvoiceTemplateDaoImpl extends AbstractDao<Integer, Custom
         List<CustomizeInvoiceTemplate> invoiceList = query.getResultList();
         return invoiceList != null && !invoiceList.isEmpty() ? invoiceList.get(0) : null;
     }
+
+    @Override
+    public CustomizeInvoiceTemplate getInvoiceTemplateForUpdate(Integer invoiceType) {
+        TypedQuery<CustomizeInvoiceTemplate> query = getEntityManager().createNamedQuery("lastInvoiceSuffixNo", CustomizeInvoiceTemplate.class);
+        query.setParameter("type", invoiceType);
+        query.setMaxResults(1);
+        query.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        List<CustomizeInvoiceTemplate> invoiceList = query.getResultList();
+        return invoiceList.isEmpty() ? null : invoiceList.get(0);
+    }
 }
@@ -16,4 +16,25 @@ public abstract class CustomizeInvoiceTemplateService extends SimpleAccountsServ
     public abstract String getLastInvoice(Integer invoiceType);
 
     public abstract CustomizeInvoiceTemplate getInvoiceTemplate(Integer invoiceType);
+
+    /**
+     * Locks the numbering template of the document type until the current transaction ends, so concurrent saves of
+     * that type check and take their numbers one after the other.
+     */
+    public abstract CustomizeInvoiceTemplate lockInvoiceTemplate(Integer invoiceType);
+
+    /**
+     * Takes the next number of the document type under the template lock. Unlike {@link #getLastInvoice(Integer)},
+     * which only previews it, the number is consumed and no concurrent caller gets it again.
+     *
+     * @return the allocated number, or null when the type has no template
+     */
+    public abstract String allocateNextNumber(Integer invoiceType);
+
+    /**
+     * Moves the counter of the document type to a number that was entered or confirmed by the user. The counter
+     * only goes forward within the same prefix, so a lower number entered by hand does not hand out used numbers
+     * again.
+     */
+    public abstract void recordNumber(Integer invoiceType, String number);
 }
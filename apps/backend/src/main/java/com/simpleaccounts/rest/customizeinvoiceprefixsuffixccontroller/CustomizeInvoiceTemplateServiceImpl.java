@@ -1,11 +1,12 @@
 package com.simpleaccounts.rest.customizeinvoiceprefixsuffixccontroller;
 
 import com.simpleaccounts.dao.Dao;
-import lombok.RequiredArgsConstructor;
 import com.simpleaccounts.entity.CustomizeInvoiceTemplate;
+import com.simpleaccounts.utils.InvoiceNumberUtil;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Created By Zain Khan On 20-11-2020
@@ -17,6 +18,8 @@ public class CustomizeInvoiceTemplateServiceImpl extends CustomizeInvoiceTemplat
 
     private final CustomizeInvoiceTemplateDao customizeInvoiceTemplateDao;
 
+    private final InvoiceNumberUtil invoiceNumberUtil;
+
     @Override
     protected Dao<Integer, CustomizeInvoiceTemplate> getDao() {
 
@@ -42,4 +45,42 @@ public class CustomizeInvoiceTemplateServiceImpl extends CustomizeInvoiceTemplat
 
     }
 
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public CustomizeInvoiceTemplate lockInvoiceTemplate(Integer invoiceType) {
+        return customizeInvoiceTemplateDao.getInvoiceTemplateForUpdate(invoiceType);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public String allocateNextNumber(Integer invoiceType) {
+        CustomizeInvoiceTemplate template = customizeInvoiceTemplateDao.getInvoiceTemplateForUpdate(invoiceType);
+        if (template == null) {
+            return null;
+        }
+        template.setSuffix(template.getSuffix() + 1);
+        customizeInvoiceTemplateDao.update(template);
+        return template.getPrefix() + template.getSuffix();
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void recordNumber(Integer invoiceType, String number) {
+        if (number == null) {
+            return;
+        }
+        String suffix = invoiceNumberUtil.fetchSuffixFromString(number);
+        CustomizeInvoiceTemplate template = customizeInvoiceTemplateDao.getInvoiceTemplateForUpdate(invoiceType);
+        if (template == null || suffix.isEmpty()) {
+            return;
+        }
+        String prefix = number.substring(0, number.lastIndexOf(suffix));
+        Integer value = Integer.valueOf(suffix);
+        if (prefix.equals(template.getPrefix()) && template.getSuffix() != null && value <= template.getSuffix()) {
+            return;
+        }
+        template.setPrefix(prefix);
+        template.setSuffix(value);
+        customizeInvoiceTemplateDao.update(template);
+    }
 }
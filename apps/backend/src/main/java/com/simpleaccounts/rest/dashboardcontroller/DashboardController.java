@@ -6,16 +6,13 @@ import static com.simpleaccounts.constant.ErrorConstant.ERROR;
 import com.simpleaccounts.aop.LogRequest;
 import com.simpleaccounts.constant.ChartOfAccountCategoryCodeEnum;
 import com.simpleaccounts.constant.TransactionCategoryCodeEnum;
-import com.simpleaccounts.entity.TransactionCategoryClosingBalance;
+import com.simpleaccounts.entity.DashboardMonthlyBalance;
 import com.simpleaccounts.entity.bankaccount.TransactionCategory;
 import com.simpleaccounts.helper.DashboardRestHelper;
-import com.simpleaccounts.rest.detailedgeneralledgerreport.ReportRequestModel;
 import com.simpleaccounts.rest.financialreport.FinancialReportController;
 import com.simpleaccounts.rest.financialreport.FinancialReportRestHelper;
-import com.simpleaccounts.service.TransactionCategoryClosingBalanceService;
+import com.simpleaccounts.service.DashboardMonthlyBalanceService;
 import com.simpleaccounts.service.TransactionCategoryService;
-import com.simpleaccounts.utils.ChartUtil;
-import com.simpleaccounts.utils.DateFormatUtil;
 import io.swagger.annotations.ApiOperation;
 import java.math.BigDecimal;
 import java.time.YearMonth;
@@ -50,13 +47,9 @@ public class DashboardController {
 	private static final String DATE_FORMAT_DD_MM_YYYY = "dd/MM/yyyy";
 	private final Logger logger = LoggerFactory.getLogger(FinancialReportController.class);
 
-	private final ChartUtil chartUtil;
-
-	private final DateFormatUtil dateFormatUtil;
-
 	private final FinancialReportRestHelper financialReportRestHelper;
 
-	private final TransactionCategoryClosingBalanceService transactionCategoryClosingBalanceService;
+	private final DashboardMonthlyBalanceService dashboardMonthlyBalanceService;
 
 	private final TransactionCategoryService transactionCategoryService;
 
@@ -67,29 +60,23 @@ public class DashboardController {
 	public ResponseEntity<Object> getVatReport(@RequestParam Integer monthNo) {
 
 		try {
-			Date startDate = null;
-			Date endDate = chartUtil.getEndDate().getTime();
-			if (monthNo != null) {
-				startDate = chartUtil.getStartDate(Calendar.MONTH, -monthNo).getTime();
-			} else {
-				startDate = chartUtil.getStartDate(Calendar.YEAR, -1).getTime();
-			}
-			ReportRequestModel requestModel = new ReportRequestModel();
-			requestModel.setStartDate(dateFormatUtil.getDateAsString(startDate, DATE_FORMAT_DD_MM_YYYY));
-			requestModel.setEndDate(dateFormatUtil.getDateAsString(endDate, DATE_FORMAT_DD_MM_YYYY));
+			YearMonth toMonth = YearMonth.now();
+			YearMonth fromMonth = toMonth.minusMonths((monthNo != null ? monthNo : 12) - 1L);
 			String chartOfAccountCodes = financialReportRestHelper.getChartOfAccountCategoryCodes("VatReport");
-			requestModel.setChartOfAccountCodes(chartOfAccountCodes);
-			List<TransactionCategoryClosingBalance> closingBalanceList = transactionCategoryClosingBalanceService.getListByChartOfAccountIds(requestModel);
+			List<DashboardMonthlyBalance> monthlyBalanceList = dashboardMonthlyBalanceService.getList(fromMonth, toMonth, chartOfAccountCodes);
 			Map<String, BigDecimal> output = new HashMap<>();
-			if (closingBalanceList != null && !closingBalanceList.isEmpty()) {
-				Map<Integer, TransactionCategoryClosingBalance> transactionCategoryClosingBalanceMap = financialReportRestHelper.processTransactionCategoryClosingBalance(closingBalanceList);
+			if (monthlyBalanceList != null && !monthlyBalanceList.isEmpty()) {
+				Map<Integer, DashboardMonthlyBalance> latestBalanceMap = new LinkedHashMap<>();
+				for (DashboardMonthlyBalance monthlyBalance : monthlyBalanceList) {
+					latestBalanceMap.put(monthlyBalance.getTransactionCategory().getTransactionCategoryId(), monthlyBalance);
+				}
 				BigDecimal totalInputVat = BigDecimal.ZERO;
 				BigDecimal totalOutputVat = BigDecimal.ZERO;
 
-				for (Map.Entry<Integer, TransactionCategoryClosingBalance> entry : transactionCategoryClosingBalanceMap.entrySet()) {
-					TransactionCategoryClosingBalance transactionCategoryClosingBalance = entry.getValue();
-					String transactionCategoryCode = transactionCategoryClosingBalance.getTransactionCategory().getChartOfAccount().getChartOfAccountCode();
-					BigDecimal closingBalance = transactionCategoryClosingBalance.getClosingBalance();
+				for (DashboardMonthlyBalance monthlyBalance : latestBalanceMap.values()) {
+					TransactionCategory transactionCategory = monthlyBalance.getTransactionCategory();
+					String transactionCategoryCode = transactionCategory.getChartOfAccount().getChartOfAccountCode();
+					BigDecimal closingBalance = monthlyBalance.getClosingBalance();
 					if (closingBalance.longValue() < 0) {
 						closingBalance = closingBalance.negate();
 					}
@@ -98,7 +85,6 @@ public class DashboardController {
 						continue;
 					switch (chartOfAccountCategoryCodeEnum) {
 						case OTHER_CURRENT_LIABILITIES:
-							TransactionCategory transactionCategory = transactionCategoryClosingBalance.getTransactionCategory();
 							if (transactionCategory.getTransactionCategoryCode().equalsIgnoreCase
 									(TransactionCategoryCodeEnum.OUTPUT_VAT.getCode())) {
 								output.put("OutputVat", closingBalance);
@@ -107,7 +93,6 @@ public class DashboardController {
 							break;
 
 						case OTHER_CURRENT_ASSET:
-							transactionCategory = transactionCategoryClosingBalance.getTransactionCategory();
 							if (transactionCategory.getTransactionCategoryCode().equalsIgnoreCase
 									(TransactionCategoryCodeEnum.INPUT_VAT.getCode())) {
 								output.put("InputVat", closingBalance);
@@ -148,21 +133,16 @@ public ResponseEntity<Object> getDashboardProfitAndLoss(@RequestParam(required =
 		String chartOfAccountCodes = financialReportRestHelper.getChartOfAccountCategoryCodes("ProfitLoss");
 		logger.info("[PERF] getChartOfAccountCategoryCodes took {} ms", System.currentTimeMillis() - coaStart);
 
-		// OPTIMIZATION: Single query for full date range instead of N queries
-		String fullStartDate = dateRequestModelList.get(0).getStartDate();
-		String fullEndDate = dateRequestModelList.get(dateRequestModelList.size() - 1).getEndDate();
-
-		ReportRequestModel fullRangeRequest = new ReportRequestModel();
-		fullRangeRequest.setStartDate(fullStartDate);
-		fullRangeRequest.setEndDate(fullEndDate);
-		fullRangeRequest.setChartOfAccountCodes(chartOfAccountCodes);
+		// One pre-aggregated row per category and month, maintained by journal posting
+		YearMonth fromMonth = parseYearMonth(dateRequestModelList.get(0).getStartDate());
+		YearMonth toMonth = parseYearMonth(dateRequestModelList.get(dateRequestModelList.size() - 1).getStartDate());
 
 		long dbStart = System.currentTimeMillis();
-		List<TransactionCategoryClosingBalance> allClosingBalances =
-			transactionCategoryClosingBalanceService.getListByChartOfAccountIds(fullRangeRequest);
-		logger.info("[PERF] Single DB query for full range ({} to {}): {} ms, returned {} records",
-			fullStartDate, fullEndDate, System.currentTimeMillis() - dbStart,
-			allClosingBalances != null ? allClosingBalances.size() : 0);
+		List<DashboardMonthlyBalance> allMonthlyBalances =
+			dashboardMonthlyBalanceService.getList(fromMonth, toMonth, chartOfAccountCodes);
+		logger.info("[PERF] Monthly balance query ({} to {}): {} ms, returned {} records",
+			fromMonth, toMonth, System.currentTimeMillis() - dbStart,
+			allMonthlyBalances != null ? allMonthlyBalances.size() : 0);
 
 		// Initialize response structure
 		Map<String,Object> resultMap = initializeProfitLossResponse();
@@ -175,8 +155,8 @@ public ResponseEntity<Object> getDashboardProfitAndLoss(@RequestParam(required =
 
 		// Group data by month and calculate totals
 		long groupingStart = System.currentTimeMillis();
-		Map<YearMonth, List<TransactionCategoryClosingBalance>> groupedByMonth =
-			groupClosingBalancesByMonth(allClosingBalances);
+		Map<YearMonth, List<DashboardMonthlyBalance>> groupedByMonth =
+			groupMonthlyBalancesByMonth(allMonthlyBalances);
 		logger.info("[PERF] Grouping by month took {} ms, created {} groups",
 			System.currentTimeMillis() - groupingStart, groupedByMonth.size());
 
@@ -184,7 +164,7 @@ public ResponseEntity<Object> getDashboardProfitAndLoss(@RequestParam(required =
 		long processingStart = System.currentTimeMillis();
 		for (DateRequestModel dateRequestModel : dateRequestModelList) {
 			YearMonth yearMonth = parseYearMonth(dateRequestModel.getStartDate());
-			List<TransactionCategoryClosingBalance> monthData = groupedByMonth.getOrDefault(yearMonth, Collections.emptyList());
+			List<DashboardMonthlyBalance> monthData = groupedByMonth.getOrDefault(yearMonth, Collections.emptyList());
 
 			ProfitLossTotal totals = calculateProfitAndLossTotalsFromList(monthData);
 			incomeData.add(totals.getIncome());
@@ -201,7 +181,7 @@ public ResponseEntity<Object> getDashboardProfitAndLoss(@RequestParam(required =
 		resultMap.put("Expense", aggregateExpense);
 		resultMap.put("NetProfit", aggregateIncome.subtract(aggregateExpense));
 
-		logger.info("[PERF] Total method execution: {} ms (OPTIMIZED - single query)",
+		logger.info("[PERF] Total method execution: {} ms",
 			System.currentTimeMillis() - methodStart);
 		return new ResponseEntity<>(resultMap, HttpStatus.OK);
 	} catch (Exception e) {
@@ -210,14 +190,13 @@ public ResponseEntity<Object> getDashboardProfitAndLoss(@RequestParam(required =
 	return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
 }
 
-private Map<YearMonth, List<TransactionCategoryClosingBalance>> groupClosingBalancesByMonth(
-		List<TransactionCategoryClosingBalance> balances) {
+private Map<YearMonth, List<DashboardMonthlyBalance>> groupMonthlyBalancesByMonth(
+		List<DashboardMonthlyBalance> balances) {
 	if (balances == null || balances.isEmpty()) {
 		return Collections.emptyMap();
 	}
 	return balances.stream()
-		.filter(b -> b.getClosingBalanceDate() != null)
-		.collect(Collectors.groupingBy(b -> YearMonth.from(b.getClosingBalanceDate())));
+		.collect(Collectors.groupingBy(b -> YearMonth.from(b.getBalanceMonth())));
 }
 
 private YearMonth parseYearMonth(String dateStr) {
@@ -227,25 +206,21 @@ private YearMonth parseYearMonth(String dateStr) {
 	return YearMonth.from(date);
 }
 
-private ProfitLossTotal calculateProfitAndLossTotalsFromList(List<TransactionCategoryClosingBalance> closingBalanceList) {
-	if (closingBalanceList == null || closingBalanceList.isEmpty()) {
+private ProfitLossTotal calculateProfitAndLossTotalsFromList(List<DashboardMonthlyBalance> monthlyBalanceList) {
+	if (monthlyBalanceList == null || monthlyBalanceList.isEmpty()) {
 		return ProfitLossTotal.empty();
 	}
 
-	Map<Integer, TransactionCategoryClosingBalance> transactionCategoryClosingBalanceMap =
-			financialReportRestHelper.processTransactionCategoryClosingBalance(closingBalanceList);
-
 	BigDecimal totalOperatingIncome = BigDecimal.ZERO;
 	BigDecimal totalCostOfGoodsSold = BigDecimal.ZERO;
 	BigDecimal totalOperatingExpense = BigDecimal.ZERO;
 	BigDecimal totalNonOperatingIncome = BigDecimal.ZERO;
 	BigDecimal totalNonOperatingExpense = BigDecimal.ZERO;
 
-	for (Map.Entry<Integer, TransactionCategoryClosingBalance> entry : transactionCategoryClosingBalanceMap.entrySet()) {
-		TransactionCategoryClosingBalance transactionCategoryClosingBalance = entry.getValue();
-		String transactionCategoryCode = transactionCategoryClosingBalance.getTransactionCategory().getChartOfAccount().getChartOfAccountCode();
-		String transactionCategoryName = transactionCategoryClosingBalance.getTransactionCategory().getTransactionCategoryName();
-		BigDecimal closingBalance = transactionCategoryClosingBalance.getClosingBalance();
+	for (DashboardMonthlyBalance monthlyBalance : monthlyBalanceList) {
+		String transactionCategoryCode = monthlyBalance.getTransactionCategory().getChartOfAccount().getChartOfAccountCode();
+		String transactionCategoryName = monthlyBalance.getTransactionCategory().getTransactionCategoryName();
+		BigDecimal closingBalance = monthlyBalance.getClosingBalance();
 		ChartOfAccountCategoryCodeEnum chartOfAccountCategoryCodeEnum = ChartOfAccountCategoryCodeEnum.getChartOfAccountCategoryCodeEnum(transactionCategoryCode);
 		if (chartOfAccountCategoryCodeEnum == null) {
 			continue;
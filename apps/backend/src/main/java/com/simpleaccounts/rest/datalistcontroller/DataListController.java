@@ -8,6 +8,8 @@ import com.simpleaccounts.constant.dbfilter.*;
 import com.simpleaccounts.entity.*;
 import com.simpleaccounts.entity.bankaccount.ChartOfAccount;
 import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.helper.ReferenceDataRegistry;
+import com.simpleaccounts.helper.ReferenceDataRegistry.Snapshot;
 import com.simpleaccounts.model.ProductCategoryListModel;
 import com.simpleaccounts.model.UnitTypeListModel;
 import com.simpleaccounts.repository.CompanyTypeRepository;
@@ -24,7 +26,6 @@ import com.simpleaccounts.rest.vatcontroller.VatCategoryModel;
 import com.simpleaccounts.rest.vatcontroller.VatCategoryRestHelper;
 import com.simpleaccounts.service.*;
 import com.simpleaccounts.service.bankaccount.ChartOfAccountService;
-import com.simpleaccounts.utils.ChartOfAccountCacheService;
 import com.simpleaccounts.utils.MessageUtil;
 import com.simpleaccounts.utils.SimpleAccountsMessage;
 import io.swagger.annotations.ApiOperation;
@@ -89,14 +90,17 @@ public class DataListController {
 
 	private final ProductCategoryRepository productCategoryRepository;
 
+	private final ReferenceDataRegistry referenceDataRegistry;
+
 	@LogRequest
 	@GetMapping(value = "/getcountry")
 	public ResponseEntity<List<Country>> getCountry() {
 		try {
 
-			List<Country> countryList = countryService.getCountries();
-			if (countryList != null && !countryList.isEmpty()) {
-				return new ResponseEntity<>(countryList, HttpStatus.OK);
+			Snapshot<List<Country>> countries = referenceDataRegistry.get(ReferenceDataRegistry.COUNTRIES,
+					countryService::getCountries);
+			if (!countries.isEmpty()) {
+				return referenceDataRegistry.respond(countries);
 			} else {
 				return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 			}
@@ -111,17 +115,19 @@ public class DataListController {
 	public ResponseEntity<List<DropdownModel>> getCompanyType() {
 		try {
 
-			List<CompanyType> companyList = companyTypeRepository.findAll();
-			List<DropdownModel> dropdownModelList=new ArrayList<>();
-			for (CompanyType companyType:
-				 companyList) {
-				DropdownModel dropdownModel =new DropdownModel();
-				dropdownModel.setLabel(companyType.getCompanyTypeName());
-				dropdownModel.setValue(companyType.getId());
-				dropdownModelList.add(dropdownModel);
-			}
-			if (dropdownModelList != null && ! dropdownModelList.isEmpty()) {
-				return new ResponseEntity<>(dropdownModelList, HttpStatus.OK);
+			Snapshot<List<DropdownModel>> companyTypes = referenceDataRegistry.get(ReferenceDataRegistry.COMPANY_TYPES,
+					() -> {
+						List<DropdownModel> dropdownModelList = new ArrayList<>();
+						for (CompanyType companyType : companyTypeRepository.findAll()) {
+							DropdownModel dropdownModel = new DropdownModel();
+							dropdownModel.setLabel(companyType.getCompanyTypeName());
+							dropdownModel.setValue(companyType.getId());
+							dropdownModelList.add(dropdownModel);
+						}
+						return dropdownModelList;
+					});
+			if (!companyTypes.isEmpty()) {
+				return referenceDataRegistry.respond(companyTypes);
 			} else {
 				return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 			}
@@ -183,34 +189,9 @@ public class DataListController {
 	public ResponseEntity<List<DropdownModel>> getInvoiceStatusTypes() {
 		try {
 			List<CommonStatusEnum> statusEnums = CommonStatusEnum.getInvoiceStatusList();
-			List<DropdownModel> dropdownModels = new ArrayList<>();
 			if (statusEnums != null && !statusEnums.isEmpty()) {
-				for (CommonStatusEnum statusEnum : statusEnums) {
-					switch (statusEnum) {
-						case PENDING:
-						case PAID:
-						case POST:
-						case PARTIALLY_PAID:
-						case OPEN:
-						case CLOSED:
-						case APPROVED:
-						case POST_GRN:
-							dropdownModels.add(new DropdownModel(statusEnum.getValue(), statusEnum.getDesc()));
-							break;
-						case SAVED:
-						case REJECTED:
-						case INVOICED:
-						case UN_FILED:
-						case FILED:
-						case CLAIMED:
-							// These statuses are not included in the dropdown list
-							break;
-						default:
-							// Unknown status enum - no action needed
-							break;
-					}
-				}
-				return new ResponseEntity<>(dropdownModels, HttpStatus.OK);
+				return referenceDataRegistry.respond(referenceDataRegistry.get(
+						ReferenceDataRegistry.INVOICE_STATUS_TYPES, () -> getInvoiceStatusDropdown(statusEnums)));
 			} else {
 				return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 			}
@@ -219,6 +200,36 @@ public class DataListController {
 		}
 		return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
 	}
+
+	private List<DropdownModel> getInvoiceStatusDropdown(List<CommonStatusEnum> statusEnums) {
+		List<DropdownModel> dropdownModels = new ArrayList<>();
+		for (CommonStatusEnum statusEnum : statusEnums) {
+			switch (statusEnum) {
+				case PENDING:
+				case PAID:
+				case POST:
+				case PARTIALLY_PAID:
+				case OPEN:
+				case CLOSED:
+				case APPROVED:
+				case POST_GRN:
+					dropdownModels.add(new DropdownModel(statusEnum.getValue(), statusEnum.getDesc()));
+					break;
+				case SAVED:
+				case REJECTED:
+				case INVOICED:
+				case UN_FILED:
+				case FILED:
+				case CLAIMED:
+					// These statuses are not included in the dropdown list
+					break;
+				default:
+					// Unknown status enum - no action needed
+					break;
+			}
+		}
+		return dropdownModels;
+	}
 	
 	@LogRequest
 	@ApiOperation(value = "All Contact Types")
@@ -226,12 +237,14 @@ public class DataListController {
 	public ResponseEntity<List<DropdownModel>> getContactTypes() {
 		try {
 			List<ContactTypeEnum> typeEnums = Arrays.asList(ContactTypeEnum.values());
-			List<DropdownModel> dropdownModels = new ArrayList<>();
 			if (typeEnums != null && !typeEnums.isEmpty()) {
-				for (ContactTypeEnum typeEnum : typeEnums) {
-					dropdownModels.add(new DropdownModel(typeEnum.getValue(), typeEnum.getDesc()));
-				}
-				return new ResponseEntity<>(dropdownModels, HttpStatus.OK);
+				return referenceDataRegistry.respond(referenceDataRegistry.get(ReferenceDataRegistry.CONTACT_TYPES, () -> {
+					List<DropdownModel> dropdownModels = new ArrayList<>();
+					for (ContactTypeEnum typeEnum : typeEnums) {
+						dropdownModels.add(new DropdownModel(typeEnum.getValue(), typeEnum.getDesc()));
+					}
+					return dropdownModels;
+				}));
 			} else {
 				return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 			}
@@ -246,13 +259,19 @@ public class DataListController {
 	@GetMapping(value = "/getIndustryTypes")
 	public ResponseEntity<List<DropdownModel>> getIndustryTypes() {
 		try {
-			List<DropdownModel> dropdownModels = new ArrayList<>();
-			List<IndustryType> industryTypes = industryTypeService.getIndustryTypes();
-			if (industryTypes != null && !industryTypes.isEmpty()) {
-				for (IndustryType type : industryTypes) {
-					dropdownModels.add(new DropdownModel(type.getId(), type.getIndustryTypeName()));
-				}
-				return new ResponseEntity<>(dropdownModels, HttpStatus.OK);
+			Snapshot<List<DropdownModel>> industryTypes = referenceDataRegistry.get(ReferenceDataRegistry.INDUSTRY_TYPES,
+					() -> {
+						List<DropdownModel> dropdownModels = new ArrayList<>();
+						List<IndustryType> types = industryTypeService.getIndustryTypes();
+						if (types != null) {
+							for (IndustryType type : types) {
+								dropdownModels.add(new DropdownModel(type.getId(), type.getIndustryTypeName()));
+							}
+						}
+						return dropdownModels;
+					});
+			if (!industryTypes.isEmpty()) {
+				return referenceDataRegistry.respond(industryTypes);
 			} else {
 				return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 			}
@@ -266,13 +285,16 @@ public class DataListController {
 	@GetMapping(value = "/vatCategory")
 	public ResponseEntity< List<VatCategoryModel> > getVatCAtegory() {
 		try {
-			Map<VatCategoryFilterEnum, Object> filterDataMap = new HashMap<>();
-			filterDataMap.put(VatCategoryFilterEnum.ORDER_BY, ORDERBYENUM.DESC);
-			filterDataMap.put(VatCategoryFilterEnum.DELETE_FLAG, false);
-
- 			PaginationResponseModel respone = vatCategoryService.getVatCategoryList(filterDataMap, null);
-			if (respone != null) {
-				return new ResponseEntity<>(vatCategoryRestHelper.getList(respone.getData()), HttpStatus.OK);
+			Snapshot<List<VatCategoryModel>> vatCategories = referenceDataRegistry.get(
+					ReferenceDataRegistry.VAT_CATEGORIES, () -> {
+						Map<VatCategoryFilterEnum, Object> filterDataMap = new HashMap<>();
+						filterDataMap.put(VatCategoryFilterEnum.ORDER_BY, ORDERBYENUM.DESC);
+						filterDataMap.put(VatCategoryFilterEnum.DELETE_FLAG, false);
+						PaginationResponseModel respone = vatCategoryService.getVatCategoryList(filterDataMap, null);
+						return respone != null ? vatCategoryRestHelper.getList(respone.getData()) : null;
+					});
+			if (vatCategories.getData() != null) {
+				return referenceDataRegistry.respond(vatCategories);
 			} else {
 				return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 			}
@@ -287,15 +309,19 @@ public class DataListController {
 	@GetMapping(value ="/getProductCategoryList")
 	public ResponseEntity<Object> getProductCategoryList(){
 		try {
-			List<ProductCategory> list = productCategoryRepository.getProductCategories(logger.getName());
-			List<ProductCategoryListModel> productCategoryListModels=new ArrayList<>();
-			for (ProductCategory productCategory:list ) {
-				ProductCategoryListModel productCategoryList=new ProductCategoryListModel();
-				productCategoryList.setLabel(productCategory.getProductCategoryName());
-				productCategoryList.setValue(productCategory.getId());
-				productCategoryListModels.add(productCategoryList);
-			}
-			return new ResponseEntity<>(productCategoryListModels,HttpStatus.OK);
+			Snapshot<Object> productCategories = referenceDataRegistry.get(ReferenceDataRegistry.PRODUCT_CATEGORIES,
+					() -> {
+						List<ProductCategory> list = productCategoryRepository.getProductCategories(logger.getName());
+						List<ProductCategoryListModel> productCategoryListModels = new ArrayList<>();
+						for (ProductCategory productCategory : list) {
+							ProductCategoryListModel productCategoryList = new ProductCategoryListModel();
+							productCategoryList.setLabel(productCategory.getProductCategoryName());
+							productCategoryList.setValue(productCategory.getId());
+							productCategoryListModels.add(productCategoryList);
+						}
+						return productCategoryListModels;
+					});
+			return referenceDataRegistry.respond(productCategories);
 		}catch (Exception e){
 			logger.error(ERROR, e);
 		}
@@ -306,26 +332,23 @@ public class DataListController {
 	@GetMapping(value = "/exciseTax")
 	public ResponseEntity< List<ExciseTaxModel> > getExciseTax() {
 		try {
-			List<ExciseTax> response = new ArrayList<>();
-
-			response = exciseTaxRestHelper.getExciseTaxList();
-
-			List<ExciseTaxModel> exciseTaxModelList = new ArrayList<>();
-			for(ExciseTax exciseTax : response)
-			{
-				ExciseTaxModel exciseTaxModel = new ExciseTaxModel();
-
-				exciseTaxModel.setId(exciseTax.getId());
-				exciseTaxModel.setName(exciseTax.getName());
-				exciseTaxModel.setExcise(exciseTax.getExcisePercentage());
-
-				exciseTaxModelList.add(exciseTaxModel);
-			}
+			Snapshot<List<ExciseTaxModel>> exciseTaxes = referenceDataRegistry.get(ReferenceDataRegistry.EXCISE_TAXES,
+					() -> {
+						List<ExciseTaxModel> exciseTaxModelList = new ArrayList<>();
+						for (ExciseTax exciseTax : exciseTaxRestHelper.getExciseTaxList()) {
+							ExciseTaxModel exciseTaxModel = new ExciseTaxModel();
+							exciseTaxModel.setId(exciseTax.getId());
+							exciseTaxModel.setName(exciseTax.getName());
+							exciseTaxModel.setExcise(exciseTax.getExcisePercentage());
+							exciseTaxModelList.add(exciseTaxModel);
+						}
+						return exciseTaxModelList;
+					});
 
-				if (exciseTaxModelList.isEmpty()) {
+				if (exciseTaxes.isEmpty()) {
 					return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 				}
-				return new ResponseEntity<>(exciseTaxModelList, HttpStatus.OK);
+				return referenceDataRegistry.respond(exciseTaxes);
 
 		} catch (Exception e) {
 			logger.error(ERROR, e);
@@ -340,22 +363,8 @@ public class DataListController {
 		try {
 			List<PayMode> payModes = Arrays.asList(PayMode.values());
 			if (payModes != null && !payModes.isEmpty()) {
-				List<EnumDropdownModel> modelList = new ArrayList<>();
-				for (PayMode payMode : payModes)
-					switch (payMode){
-
-						case CASH:
-							modelList.add(new  EnumDropdownModel(payMode.toString(), payMode.toString()));
-							break;
-						case BANK:
-							// BANK mode is commented out - not included in dropdown
-							break;
-						default:
-							// Unknown pay mode - no action needed
-							break;
-					}
-
-				return new ResponseEntity<>(modelList, HttpStatus.OK);
+				return referenceDataRegistry.respond(referenceDataRegistry.get(ReferenceDataRegistry.PAY_MODES,
+						() -> getPayModeDropdown(payModes)));
 			} else {
 				return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 			}
@@ -365,50 +374,87 @@ public class DataListController {
 		return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
 	}
 
+	private List<EnumDropdownModel> getPayModeDropdown(List<PayMode> payModes) {
+		List<EnumDropdownModel> modelList = new ArrayList<>();
+		for (PayMode payMode : payModes)
+			switch (payMode){
+
+				case CASH:
+					modelList.add(new  EnumDropdownModel(payMode.toString(), payMode.toString()));
+					break;
+				case BANK:
+					// BANK mode is commented out - not included in dropdown
+					break;
+				default:
+					// Unknown pay mode - no action needed
+					break;
+			}
+
+		return modelList;
+	}
+
 	@LogRequest
 	@ApiOperation(value = "All subChartofAccount")
 	@GetMapping(value = "/getsubChartofAccount")
 	public ResponseEntity<Map<String, List<DropdownModel>>> getsubChartofAccount() {
 		try {
-			// Check if the chartOf Account result is already cached.
-			Map<String, List<DropdownModel>> chartOfAccountMap = ChartOfAccountCacheService.getInstance()
-					.getChartOfAccountCacheMap();
-
-			if (chartOfAccountMap != null && !chartOfAccountMap.isEmpty()) {
-				// If cached return the result
-				return new ResponseEntity<>(chartOfAccountMap, HttpStatus.OK);
-			} else if (chartOfAccountMap != null && chartOfAccountMap.isEmpty()) {
-				// If result not cached read all the chart of accounts from the from db/
-				List<ChartOfAccount> chartOfAccountList = transactionTypeService.findAll();
-				// Process them to get the desired result.
-				chartOfAccountMap = ChartOfAccountCacheService.getInstance()
-						.loadChartOfAccountCacheMap(chartOfAccountList);
-
-				return new ResponseEntity<>(chartOfAccountMap, HttpStatus.OK);
-			} else {
-				return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-			}
+			return referenceDataRegistry.respond(referenceDataRegistry.get(ReferenceDataRegistry.CHART_OF_ACCOUNTS,
+					() -> getSubChartOfAccountMap(transactionTypeService.findAll())));
 		} catch (Exception e) {
 			logger.error(ERROR, e);
 		}
 		return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
 	}
 
+	/**
+	 * Groups the chart of accounts that have a parent by the name of the parent.
+	 */
+	private Map<String, List<DropdownModel>> getSubChartOfAccountMap(List<ChartOfAccount> chartOfAccountList) {
+		Map<Integer, List<ChartOfAccount>> chartOfAccountIdCategoryListMap = new HashMap<>();
+		if (chartOfAccountList != null) {
+			for (ChartOfAccount chartOfAccount : chartOfAccountList) {
+				if (chartOfAccount.getParentChartOfAccount() != null) {
+					chartOfAccountIdCategoryListMap
+							.computeIfAbsent(chartOfAccount.getParentChartOfAccount().getChartOfAccountId(),
+									id -> new ArrayList<>())
+							.add(chartOfAccount);
+				}
+			}
+		}
+		Map<String, List<DropdownModel>> chartOfAccountMap = new HashMap<>();
+		for (List<ChartOfAccount> categoryList : chartOfAccountIdCategoryListMap.values()) {
+			List<DropdownModel> dropDownModelList = new ArrayList<>();
+			for (ChartOfAccount chartOfAccount : categoryList) {
+				dropDownModelList.add(
+						new DropdownModel(chartOfAccount.getChartOfAccountId(), chartOfAccount.getChartOfAccountName()));
+			}
+			chartOfAccountMap.put(categoryList.get(0).getParentChartOfAccount().getChartOfAccountName(),
+					Collections.unmodifiableList(dropDownModelList));
+		}
+		return chartOfAccountMap;
+	}
+
 	@LogRequest
 	@GetMapping(value = "/getstate")
 	public ResponseEntity<List<DropdownModel>> getState(@RequestParam Integer countryCode) {
 		try {
 
-			Map<StateFilterEnum, Object> filterMap = new EnumMap<>(StateFilterEnum.class);
-			filterMap.put(StateFilterEnum.COUNTRY, countryService.getCountry(countryCode));
-			List<State> stateList = stateService.getstateList(filterMap);
-			List<DropdownModel> modelList = new ArrayList<>();
-			if (stateList != null && !stateList.isEmpty()) {
-				for (State state : stateList)
-					modelList.add(new DropdownModel(state.getId(), state.getStateName()));
-				return new ResponseEntity<>(modelList, HttpStatus.OK);
+			Snapshot<List<DropdownModel>> states = referenceDataRegistry.get(
+					ReferenceDataRegistry.STATES + ':' + countryCode, () -> {
+						Map<StateFilterEnum, Object> filterMap = new EnumMap<>(StateFilterEnum.class);
+						filterMap.put(StateFilterEnum.COUNTRY, countryService.getCountry(countryCode));
+						List<State> stateList = stateService.getstateList(filterMap);
+						List<DropdownModel> modelList = new ArrayList<>();
+						if (stateList != null) {
+							for (State state : stateList)
+								modelList.add(new DropdownModel(state.getId(), state.getStateName()));
+						}
+						return modelList;
+					});
+			if (!states.isEmpty()) {
+				return referenceDataRegistry.respond(states);
 			} else {
-				return new ResponseEntity<>(modelList, HttpStatus.NOT_FOUND);
+				return new ResponseEntity<>(states.getData(), HttpStatus.NOT_FOUND);
 			}
 		} catch (Exception e) {
 			logger.error(ERROR, e);
@@ -561,8 +607,9 @@ public class DataListController {
 	@GetMapping(value ="/getTaxTreatment")
 	public ResponseEntity<Object> getTaxTreatmentList(){
 		try {
-			List<TaxtTreatmentdto> list = taxTreatmentService.getList();
-			return new ResponseEntity<>(list,HttpStatus.OK);
+			Snapshot<Object> taxTreatments = referenceDataRegistry.get(ReferenceDataRegistry.TAX_TREATMENTS,
+					taxTreatmentService::getList);
+			return referenceDataRegistry.respond(taxTreatments);
 		}catch (Exception e){
 			logger.error(ERROR, e);
 		}
@@ -574,17 +621,19 @@ public class DataListController {
 	@GetMapping(value ="/getUnitTypeList")
 	public ResponseEntity<Object> getUnitTypeList(){
 		try {
-			List<UnitType> list = unitTypesRepository.findAll();
-			List<UnitTypeListModel> unitTypeListModels=new ArrayList<>();
-			for (UnitType unitType:list ) {
-				UnitTypeListModel unitTypeModel=new UnitTypeListModel();
-				unitTypeModel.setUnitTypeId(unitType.getUnitTypeId());
-				unitTypeModel.setUnitTypeCode(unitType.getUnitTypeCode());
-				unitTypeModel.setUnitType(unitType.getUnitType() + " ( "+unitType.getUnitTypeCode()+" ) ");
-				unitTypeModel.setUnitTypeStatus(unitType.getUnitTypeStatus());
-				unitTypeListModels.add(unitTypeModel);
-			}
-			return new ResponseEntity<>(unitTypeListModels,HttpStatus.OK);
+			Snapshot<Object> unitTypes = referenceDataRegistry.get(ReferenceDataRegistry.UNIT_TYPES, () -> {
+				List<UnitTypeListModel> unitTypeListModels = new ArrayList<>();
+				for (UnitType unitType : unitTypesRepository.findAll()) {
+					UnitTypeListModel unitTypeModel = new UnitTypeListModel();
+					unitTypeModel.setUnitTypeId(unitType.getUnitTypeId());
+					unitTypeModel.setUnitTypeCode(unitType.getUnitTypeCode());
+					unitTypeModel.setUnitType(unitType.getUnitType() + " ( " + unitType.getUnitTypeCode() + " ) ");
+					unitTypeModel.setUnitTypeStatus(unitType.getUnitTypeStatus());
+					unitTypeListModels.add(unitTypeModel);
+				}
+				return unitTypeListModels;
+			});
+			return referenceDataRegistry.respond(unitTypes);
 		}catch (Exception e){
 			logger.error(ERROR, e);
 		}
@@ -0,0 +1,61 @@
+package com.simpleaccounts.rest.detailedgeneralledgerreport;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+/**
+ * Writes the detailed general ledger report as CSV while the rows are generated, one record per row with
+ * the transaction category in the first column.
+ */
+public class DetailedGeneralLedgerCsvWriter implements DetailedGeneralLedgerReportListener {
+
+	static final String[] HEADER = { "Account", "Date", "Transaction Type", "Name", "Transaction Ref No",
+			"Reference No", "Debit Amount", "Credit Amount", "Amount" };
+
+	private final CSVPrinter printer;
+
+	private String transactionCategoryName;
+
+	public DetailedGeneralLedgerCsvWriter(OutputStream outputStream) throws IOException {
+		this.printer = new CSVPrinter(
+				new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)),
+				CSVFormat.EXCEL.withHeader(HEADER));
+	}
+
+	@Override
+	public void onCategoryStart(String transactionCategoryName) {
+		this.transactionCategoryName = transactionCategoryName;
+	}
+
+	@Override
+	public void onRow(DetailedGeneralLedgerReportListModel row) {
+		try {
+			printer.printRecord(transactionCategoryName, row.getDate(), row.getPostingReferenceTypeEnum(),
+					row.getName(), row.getTransactonRefNo(), row.getReferenceNo(), row.getDebitAmount(),
+					row.getCreditAmount(), row.getAmount());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void onCategoryEnd() {
+		transactionCategoryName = null;
+	}
+
+	@Override
+	public void onComplete() {
+		try {
+			printer.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
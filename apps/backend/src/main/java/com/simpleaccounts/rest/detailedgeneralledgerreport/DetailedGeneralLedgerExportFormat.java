@@ -0,0 +1,8 @@
+package com.simpleaccounts.rest.detailedgeneralledgerreport;
+
+/**
+ * Output formats of the detailed general ledger export.
+ */
+public enum DetailedGeneralLedgerExportFormat {
+	JSON, CSV
+}
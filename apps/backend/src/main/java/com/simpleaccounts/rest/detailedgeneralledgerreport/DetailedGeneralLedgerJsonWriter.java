@@ -0,0 +1,66 @@
+package com.simpleaccounts.rest.detailedgeneralledgerreport;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes the detailed general ledger report in the JSON form of the list endpoint, an array holding one
+ * array of rows per transaction category, while the rows are generated.
+ */
+public class DetailedGeneralLedgerJsonWriter implements DetailedGeneralLedgerReportListener {
+
+	private final ObjectWriter rowWriter;
+
+	private final JsonGenerator generator;
+
+	public DetailedGeneralLedgerJsonWriter(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+		this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		this.generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)
+				.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		this.generator.writeStartArray();
+	}
+
+	@Override
+	public void onCategoryStart(String transactionCategoryName) {
+		try {
+			generator.writeStartArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void onRow(DetailedGeneralLedgerReportListModel row) {
+		try {
+			rowWriter.writeValue(generator, row);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void onCategoryEnd() {
+		try {
+			generator.writeEndArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void onComplete() {
+		try {
+			generator.writeEndArray();
+			generator.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -12,16 +12,21 @@ import com.simpleaccounts.security.JwtTokenUtil;
 import com.simpleaccounts.service.TransactionCategoryClosingBalanceService;
 import com.simpleaccounts.service.UserService;
 import io.swagger.annotations.ApiOperation;
+import java.io.IOException;
 import java.util.*;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.simpleaccounts.aop.LogRequest;
@@ -63,6 +68,26 @@ public class DetailedGeneralLedgerReportController {
 		return new ResponseEntity<>(list, HttpStatus.OK);
 	}
 
+	/**
+	 * Streams the detailed general ledger report to the response as it is read, in the JSON shape of
+	 * {@code /getList} or as CSV.
+	 */
+	@LogRequest
+	@ApiOperation(value = "Export Detailed General Ledger Report")
+	@GetMapping(value = "/export")
+	public void exportDetailedGeneralLedgerReport(ReportRequestModel reportRequestModel,
+			@RequestParam(defaultValue = "JSON") DetailedGeneralLedgerExportFormat format,
+			HttpServletRequest request, HttpServletResponse response) throws IOException {
+		if (format == DetailedGeneralLedgerExportFormat.CSV) {
+			response.setContentType("text/csv;charset=UTF-8");
+			response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"DetailedGeneralLedger.csv\"");
+		} else {
+			response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+		}
+		detailedGeneralLedgerRestHelper.writeDetailedGeneralLedgerReport(reportRequestModel, format,
+				response.getOutputStream());
+	}
+
 	/**
 	 * Get Transaction category list that are in use
 	 *
@@ -0,0 +1,16 @@
+package com.simpleaccounts.rest.detailedgeneralledgerreport;
+
+/**
+ * Receives the detailed general ledger report while it is generated, one transaction category after the
+ * other. The rows of a category arrive in journal date order, framed by its opening and closing balance rows.
+ */
+public interface DetailedGeneralLedgerReportListener {
+
+	void onCategoryStart(String transactionCategoryName);
+
+	void onRow(DetailedGeneralLedgerReportListModel row);
+
+	void onCategoryEnd();
+
+	void onComplete();
+}
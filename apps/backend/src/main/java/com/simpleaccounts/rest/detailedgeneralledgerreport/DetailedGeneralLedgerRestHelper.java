@@ -1,13 +1,8 @@
 package com.simpleaccounts.rest.detailedgeneralledgerreport;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.simpleaccounts.constant.CommonColumnConstants;
 import com.simpleaccounts.constant.PostingReferenceTypeEnum;
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.util.*;
-import lombok.RequiredArgsConstructor;
 import com.simpleaccounts.entity.*;
 import com.simpleaccounts.entity.bankaccount.BankAccount;
 import com.simpleaccounts.entity.bankaccount.Transaction;
@@ -18,11 +13,14 @@ import com.simpleaccounts.rest.creditnotecontroller.CreditNoteRepository;
 import com.simpleaccounts.service.*;
 import com.simpleaccounts.service.bankaccount.TransactionService;
 import com.simpleaccounts.utils.DateFormatUtil;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import javax.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +33,25 @@ public class DetailedGeneralLedgerRestHelper {
 
 	private static final Logger logger = LoggerFactory.getLogger(DetailedGeneralLedgerRestHelper.class);
 
+	static final int EXPORT_CHUNK_SIZE = 500;
+
+	static final String TRANSACTIONS_QUERY = "SELECT t FROM Transaction t LEFT JOIN FETCH t.bankAccount WHERE t.transactionId IN (:ids)";
+
+	static final String EXPENSES_QUERY = "SELECT e FROM Expense e LEFT JOIN FETCH e.userId LEFT JOIN FETCH e.employee WHERE e.expenseId IN (:ids)";
+
+	static final String INVOICES_QUERY = "SELECT i FROM Invoice i LEFT JOIN FETCH i.contact WHERE i.id IN (:ids)";
+
+	static final String CREDIT_NOTES_QUERY = "SELECT c FROM CreditNote c LEFT JOIN FETCH c.contact WHERE c.creditNoteId IN (:ids)";
+
+	static final String RECEIPTS_QUERY = "SELECT r FROM Receipt r LEFT JOIN FETCH r.contact LEFT JOIN FETCH r.invoice WHERE r.id IN (:ids)";
+
+	static final String PAYMENTS_QUERY = "SELECT p FROM Payment p LEFT JOIN FETCH p.supplier LEFT JOIN FETCH p.invoice WHERE p.paymentId IN (:ids)";
+
+	static final String FIRST_CUSTOMER_INVOICE_RECEIPT_QUERY = "SELECT c FROM CustomerInvoiceReceipt c WHERE c.deleteFlag = false ORDER BY c.id";
+
+	static final String FIRST_SUPPLIER_INVOICE_PAYMENT_QUERY = "SELECT s FROM SupplierInvoicePayment s JOIN FETCH s.payment p"
+			+ " LEFT JOIN FETCH p.supplier LEFT JOIN FETCH p.invoice WHERE s.deleteFlag = false ORDER BY s.id";
+
 	private final JournalLineItemService journalLineItemService;
 
 	private final TransactionService transactionalService;
@@ -58,9 +75,9 @@ public class DetailedGeneralLedgerRestHelper {
 
 	private final TransactionCategoryClosingBalanceService transactionCategoryClosingBalanceService;
 
-	private final CustomerInvoiceReceiptService customerInvoiceReceiptService;
+	private final EntityManager entityManager;
 
-	private final SupplierInvoicePaymentService supplierInvoicePaymentService;
+	private final ObjectMapper objectMapper;
 
 	public Map<Integer, Expense> findOrGetFromDbEx(Map<Integer, Expense> expenseMap, Integer id) {
 
@@ -142,361 +159,492 @@ public class DetailedGeneralLedgerRestHelper {
 	public List<Object> getDetailedGeneralLedgerReport(ReportRequestModel reportRequestModel) {
 
 		List<Object> resposneList = new ArrayList<>();
+		processDetailedGeneralLedgerReport(reportRequestModel, new DetailedGeneralLedgerReportListener() {
+
+			private List<DetailedGeneralLedgerReportListModel> dataList;
+
+			@Override
+			public void onCategoryStart(String transactionCategoryName) {
+				dataList = new LinkedList<>();
+				resposneList.add(dataList);
+			}
+
+			@Override
+			public void onRow(DetailedGeneralLedgerReportListModel row) {
+				dataList.add(row);
+			}
+
+			@Override
+			public void onCategoryEnd() {
+				dataList = null;
+			}
+
+			@Override
+			public void onComplete() {
+				// rows are already collected
+			}
+		});
+		return resposneList;
+	}
 
-		List<JournalLineItem> itemList = journalLineItemService.getList(reportRequestModel);
+	public void writeDetailedGeneralLedgerReport(ReportRequestModel reportRequestModel,
+			DetailedGeneralLedgerExportFormat format, OutputStream outputStream) throws IOException {
+		DetailedGeneralLedgerReportListener writer = format == DetailedGeneralLedgerExportFormat.CSV
+				? new DetailedGeneralLedgerCsvWriter(outputStream)
+				: new DetailedGeneralLedgerJsonWriter(objectMapper, outputStream);
+		processDetailedGeneralLedgerReport(reportRequestModel, writer);
+	}
+
+	/**
+	 * Generates the report from journal line items read in chunks ordered by transaction category and journal
+	 * date, so no category has to be grouped or sorted in memory. The documents referenced by a chunk are
+	 * loaded with one query per document type before its rows are built.
+	 */
+	public void processDetailedGeneralLedgerReport(ReportRequestModel reportRequestModel,
+			DetailedGeneralLedgerReportListener listener) {
 		List<TransactionCategoryClosingBalance> closingBalanceList = transactionCategoryClosingBalanceService.getList(reportRequestModel);
-	    if (itemList != null && !itemList.isEmpty()) {
-			Map<Integer,TransactionCategoryClosingBalance> transactionCategoryClosingBalanceMap = processTransactionCategoryClosingBalance(closingBalanceList);
-			Map<Integer, List<JournalLineItem>> map = new HashMap<>();
-			Map<Integer, Expense> expenseMap = new HashMap<>();
-			Map<Integer, Transaction> transactionMap = new HashMap<>();
-			Map<Integer, BankAccount> bankAccountMap = new HashMap<>();
-			Map<Integer, Invoice> invoiceMap = new HashMap<>();
-			Map<Integer, Receipt> receiptMap = new HashMap<>();
-			Map<Integer, Payment> paymentMap = new HashMap<>();
-			Map<Integer, CreditNote> creditNoteMap = new HashMap<>();
-			for (JournalLineItem item : itemList) {
-				if (item.getTransactionCategory() != null) {
-					if (map.containsKey(item.getTransactionCategory().getTransactionCategoryId())) {
-						map.get(item.getTransactionCategory().getTransactionCategoryId()).add(item);
+		Map<Integer, TransactionCategoryClosingBalance> transactionCategoryClosingBalanceMap = processTransactionCategoryClosingBalance(closingBalanceList);
+		CategoryRows category = new CategoryRows(reportRequestModel, listener);
+		journalLineItemService.processListOrderedByCategory(reportRequestModel, EXPORT_CHUNK_SIZE, chunk -> {
+			LedgerDocuments documents = loadDocuments(chunk);
+			for (JournalLineItem lineItem : chunk) {
+				Integer transactionCategoryId = lineItem.getTransactionCategory().getTransactionCategoryId();
+				if (!transactionCategoryId.equals(category.transactionCategoryId)) {
+					category.end();
+					category.start(transactionCategoryId, lineItem.getTransactionCategory().getTransactionCategoryName(),
+							transactionCategoryClosingBalanceMap.get(transactionCategoryId));
+				}
+				category.add(toReportRow(lineItem, documents));
+			}
+		});
+		category.end();
+		listener.onComplete();
+	}
+
+	private DetailedGeneralLedgerReportListModel toReportRow(JournalLineItem lineItem, LedgerDocuments documents) {
+		DetailedGeneralLedgerReportListModel model = new DetailedGeneralLedgerReportListModel();
+
+		Journal journal = lineItem.getJournal();
+		LocalDateTime date = journal.getJournalDate().atStartOfDay();
+		model.setDate(dateUtil.getLocalDateTimeAsString(date, CommonColumnConstants.DD_MM_YYYY));
+		model.setTransactionTypeName(lineItem.getTransactionCategory().getTransactionCategoryName());
+
+		PostingReferenceTypeEnum postingType = lineItem.getReferenceType();
+		model.setPostingReferenceTypeEnum(postingType.getDisplayName());
+		model.setPostingReferenceType(postingType);
+		model.setReferenceId(lineItem.getReferenceId());
+		boolean isDebit = lineItem.getDebitAmount() != null || (lineItem.getDebitAmount() != null
+				&& new BigDecimal(0).equals(lineItem.getDebitAmount())) ? Boolean.TRUE : Boolean.FALSE;
+
+		switch (postingType) {
+			case BANK_ACCOUNT:
+
+				model.setAmount(lineItem.getDebitAmount() != null ? lineItem.getDebitAmount() : lineItem.getCreditAmount());
+				model.setDebitAmount(lineItem.getDebitAmount());
+				model.setCreditAmount(lineItem.getCreditAmount());
+
+				break;
+
+			case TRANSACTION_RECONSILE:
+			case TRANSACTION_RECONSILE_INVOICE:
+			case REVERSE_TRANSACTION_RECONSILE:
+				Transaction tr = findOrGetFromDbTr(documents.transactionMap, lineItem.getReferenceId()).get(lineItem.getReferenceId());
+				model.setAmount(lineItem.getDebitAmount() != null ? lineItem.getDebitAmount() : lineItem.getCreditAmount());
+				model.setDebitAmount(lineItem.getDebitAmount());
+				model.setCreditAmount(lineItem.getCreditAmount());
+				if (tr.getTransactionDate()!=null){
+					model.setDate(tr.getTransactionDate().format(DateTimeFormatter.ofPattern(CommonColumnConstants.DD_MM_YYYY)));
+				}
+				model.setName(tr.getBankAccount() != null ? tr.getBankAccount().getBankName() + "-" + tr.getBankAccount().getBankAccountName() : "-");
+				break;
+
+			case EXPENSE:
+			case REVERSE_EXPENSE:
+				Expense expense = findOrGetFromDbEx(documents.expenseMap, lineItem.getReferenceId()).get(lineItem.getReferenceId());
+				if (expense != null) {
+
+					model.setCreditAmount(lineItem.getCreditAmount());
+					model.setDebitAmount(lineItem.getDebitAmount());
+						if (lineItem.getCreditAmount().compareTo(BigDecimal.ZERO)>0){
+							model.setAmount(lineItem.getCreditAmount());
+						}
+					else {
+						model.setAmount(lineItem.getDebitAmount());
+					}
+					if (expense.getUserId() != null) {
+						model.setName(expense.getUserId().getFirstName() + " " + expense.getUserId().getLastName());
+					} else if (expense.getEmployee() != null) {
+						model.setName(expense.getEmployee().getFirstName() + " " + expense.getEmployee().getLastName());
 					} else {
-						List<JournalLineItem> jlList = new ArrayList<>();
-						jlList.add(item);
-						map.put(item.getTransactionCategory().getTransactionCategoryId(), jlList);
+						if (expense.getPayee() != null && expense.getPayee().equalsIgnoreCase(CommonColumnConstants.COMPANY_EXPENSE))
+							model.setName(expense.getPayee());
+						else {
+							model.setName(documents.payeeNameMap.computeIfAbsent(expense.getPayee(), payee -> {
+								TransactionCategory transactionCategory = transactionCategoryService.findByPK(Integer.parseInt(payee));
+								return transactionCategory.getParentTransactionCategory().getTransactionCategoryName() + "-"
+										+ transactionCategory.getTransactionCategoryName();
+							}));
+						}
+					}
+					if (expense.getExpenseDate()!=null){
+						model.setDate(expense.getExpenseDate().format(DateTimeFormatter.ofPattern(CommonColumnConstants.DD_MM_YYYY)));
 					}
+					model.setTransactonRefNo(expense.getExpenseNumber());
 				}
-			}
+				break;
 
-			for (Integer item : map.keySet()) {
-				List<DetailedGeneralLedgerReportListModel> dataList = new LinkedList<>();
-				List<JournalLineItem> journalLineItemList = map.get(item);
-
-				Comparator<JournalLineItem> dateComparator = Comparator.comparing(j -> j.getJournal().getJournalDate());
-
-				Collections.sort(journalLineItemList, dateComparator);
-
-				for (JournalLineItem lineItem : journalLineItemList) 	{
-
-					DetailedGeneralLedgerReportListModel model = new DetailedGeneralLedgerReportListModel();
-
-					Journal journal = lineItem.getJournal();
-					LocalDateTime date = journal.getJournalDate().atStartOfDay();
-					if (lineItem == null)
-						date = LocalDateTime.now();
-					model.setDate(dateUtil.getLocalDateTimeAsString(date, CommonColumnConstants.DD_MM_YYYY));
-					model.setTransactionTypeName(lineItem.getTransactionCategory().getTransactionCategoryName());
-
-					PostingReferenceTypeEnum postingType = lineItem.getReferenceType();
-					model.setPostingReferenceTypeEnum(postingType.getDisplayName());
-					model.setPostingReferenceType(postingType);
-					model.setReferenceId(lineItem.getReferenceId());
-					boolean isDebit = lineItem.getDebitAmount() != null || (lineItem.getDebitAmount() != null
-							&& new BigDecimal(0).equals(lineItem.getDebitAmount())) ? Boolean.TRUE : Boolean.FALSE;
-
-					switch (postingType) {
-						case BANK_ACCOUNT:
-
-							model.setAmount(lineItem.getDebitAmount() != null ? lineItem.getDebitAmount() : lineItem.getCreditAmount());
-							model.setDebitAmount(lineItem.getDebitAmount());
-							model.setCreditAmount(lineItem.getCreditAmount());
-
-							break;
-
-						case TRANSACTION_RECONSILE:
-						case TRANSACTION_RECONSILE_INVOICE:
-						case REVERSE_TRANSACTION_RECONSILE:
-							transactionMap = findOrGetFromDbTr(transactionMap, lineItem.getReferenceId());
-							Transaction tr = transactionMap.get(lineItem.getReferenceId());
-							model.setAmount(lineItem.getDebitAmount() != null ? lineItem.getDebitAmount() : lineItem.getCreditAmount());
-
-							model.setDebitAmount(lineItem.getDebitAmount());
-							DateTimeFormatter formatter = DateTimeFormatter.ofPattern(CommonColumnConstants.DD_MM_YYYY);
-							if (tr.getTransactionDate()!=null){
-								String d = tr.getTransactionDate().format(formatter);
-								model.setDate(d);
-							}
-
-							model.setCreditAmount(lineItem.getCreditAmount());
-
-							if (tr.getTransactionDate()!=null){
-								String d = tr.getTransactionDate().format(formatter);
-								model.setDate(d);
-							}
-							model.setCreditAmount(lineItem.getCreditAmount());
-							model.setName(tr.getBankAccount() != null ? tr.getBankAccount().getBankName() + "-" + tr.getBankAccount().getBankAccountName() : "-");
-							break;
-
-						case EXPENSE:
-						case REVERSE_EXPENSE:
-							expenseMap = findOrGetFromDbEx(expenseMap, lineItem.getReferenceId());
-							Expense expense = expenseMap.get(lineItem.getReferenceId());
-							if (expense != null) {
-
-								model.setCreditAmount(lineItem.getCreditAmount());
-								model.setDebitAmount(lineItem.getDebitAmount());
-									if (lineItem.getCreditAmount().compareTo(BigDecimal.ZERO)>0){
-										model.setAmount(lineItem.getCreditAmount());
-									}
-								else {
-									model.setAmount(lineItem.getDebitAmount());
-								}
-								if (expense.getUserId() != null) {
-									model.setName(expense.getUserId().getFirstName() + " " + expense.getUserId().getLastName());
-								} else if (expense.getEmployee() != null) {
-									model.setName(expense.getEmployee().getFirstName() + " " + expense.getEmployee().getLastName());
-								} else {
-									if (expense.getPayee() != null && expense.getPayee().equalsIgnoreCase(CommonColumnConstants.COMPANY_EXPENSE))
-										model.setName(expense.getPayee());
-									else {
-										TransactionCategory transactionCategory = transactionCategoryService.findByPK(Integer.parseInt(expense.getPayee()));
-										StringBuilder payeeName = new StringBuilder();
-										payeeName.append(transactionCategory.getParentTransactionCategory().getTransactionCategoryName()).append("-")
-												.append(transactionCategory.getTransactionCategoryName());
-										model.setName(payeeName.toString());
-									}
-								}
-								DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(CommonColumnConstants.DD_MM_YYYY);
-								if (expense.getExpenseDate()!=null){
-									String d = expense.getExpenseDate().format(dateFormatter);
-									model.setDate(d);
-								}
-								model.setTransactonRefNo(expense.getExpenseNumber());
-							}
-							break;
-
-						case INVOICE:
-						case REVERSE_INVOICE:
-							invoiceMap = findOrGetFromDbIn(invoiceMap, lineItem.getReferenceId());
-							Invoice invoice = invoiceMap.get(lineItem.getReferenceId());
-
-							BigDecimal amount = BigDecimal.ZERO;
-
-							model.setCreditAmount(lineItem.getCreditAmount());
-							model.setDebitAmount(lineItem.getDebitAmount());
-								if (lineItem.getCreditAmount().compareTo(BigDecimal.ZERO)>0){
-									model.setAmount(lineItem.getCreditAmount());
-								}
-							else {
-								model.setAmount(lineItem.getDebitAmount());
-							}
-
-							if (invoice.getContact().getOrganization() != null && !invoice.getContact().getOrganization().isEmpty()){
-								model.setName(invoice.getContact().getOrganization());
-							}else{
-								model.setName(invoice.getContact().getFirstName() + " " + invoice.getContact().getLastName());
-							}
-							model.setTransactonRefNo(invoice.getReferenceNumber());
-							model.setInvoiceType(invoice.getType());
-							DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(CommonColumnConstants.DDMMYYYY);
-							if (invoice.getInvoiceDate()!=null){
-								String d = invoice.getInvoiceDate().format(dateFormatter);
-								model.setDate(d);
-							}
-							break;
-						case CREDIT_NOTE:
-						case REVERSE_CREDIT_NOTE:
-						case DEBIT_NOTE:
-						case REVERSE_DEBIT_NOTE:
-							creditNoteMap = findOrGetFromDbCn(creditNoteMap, lineItem.getReferenceId());
-							CreditNote creditNote = creditNoteMap.get(lineItem.getReferenceId());
-
-							model.setReferenceNo(journal.getJournlReferencenNo());
-
-							 amount = BigDecimal.ZERO;
-							if (isDebit) {
-								model.setDebitAmount(lineItem.getDebitAmount());
-								model.setCreditAmount(lineItem.getCreditAmount());
-								amount = lineItem.getCreditAmount();
-							} else {
-								model.setCreditAmount(lineItem.getCreditAmount());
-								model.setDebitAmount(lineItem.getDebitAmount());
-								amount = lineItem.getDebitAmount();
-							}
-							model.setAmount(amount);
-
-							if (creditNote.getContact().getOrganization() != null && !creditNote.getContact().getOrganization().isEmpty()){
-								model.setName(creditNote.getContact().getOrganization());
-							}else{
-								model.setName(creditNote.getContact().getFirstName() + " " + creditNote.getContact().getLastName());
-							}
-							model.setTransactonRefNo(creditNote.getCreditNoteNumber());
-							model.setInvoiceType(creditNote.getType());
-							break;
-
-						case MANUAL:
-						case BALANCE_ADJUSTMENT:
-							model.setReferenceNo(journal.getJournlReferencenNo());
-							model.setAmount(isDebit ? lineItem.getDebitAmount() : lineItem.getCreditAmount());
-							model.setCreditAmount(lineItem.getCreditAmount());
-							model.setDebitAmount(lineItem.getDebitAmount());
-							model.setName(lineItem.getContact() != null
-									? lineItem.getContact().getFirstName() + " " + lineItem.getContact().getLastName()
-									: "");
-							break;
-						case PAYROLL:
-						case PAYROLL_APPROVED:
-						case PAYROLL_EXPLAINED:
-						case REVERSE_PAYROLL_EXPLAINED:
-							model.setName(journal.getDescription());
-							model.setAmount(isDebit ? lineItem.getDebitAmount() : lineItem.getCreditAmount());
-							model.setCreditAmount(lineItem.getCreditAmount());
-							model.setDebitAmount(lineItem.getDebitAmount());
-							break;
-						case RECEIPT:
-						case PAYMENT:
-						case REVERSE_PAYMENT:
-						case REVERSE_RECEIPT:
-							model.setReferenceNo(journal.getJournlReferencenNo());
-
-							model.setAmount(isDebit ? lineItem.getDebitAmount() : lineItem.getCreditAmount());
-							model.setCreditAmount(lineItem.getCreditAmount());
-							model.setDebitAmount(lineItem.getDebitAmount());
-							Contact contact = null;
-							if (postingType.equals(PostingReferenceTypeEnum.RECEIPT)) {
-								receiptMap = findOrGetFromDbReceipt(receiptMap, Integer.valueOf(journal.getJournlReferencenNo()));
-								Receipt receipt = receiptMap.get(Integer.valueOf(journal.getJournlReferencenNo()));
-								if(receipt!=null){
-									contact = receipt.getContact();
-									model.setTransactonRefNo(receipt.getInvoice().getReferenceNumber());
-									invoice = receipt.getInvoice();
-									model.setInvoiceType(invoice.getType());
-								}
-							} else {
-								paymentMap = findOrGetFromDbPaymnt(paymentMap, lineItem.getReferenceId());
-								Payment payment = paymentMap.get(lineItem.getReferenceId());
-								if(payment!=null){
-									contact = payment.getSupplier();
-									model.setTransactonRefNo(payment.getInvoice().getReferenceNumber());
-								}
-
-							}
-							if(contact != null){
-							if (contact.getOrganization() != null && !contact.getOrganization().isEmpty()){
-								model.setName(contact.getOrganization());
-							}else{
-								model.setName(contact.getFirstName() + " " + contact.getLastName());
-							}}
-
-							break;
-
-						case REFUND:
-						case CANCEL_REFUND:
-						case PURCHASE:
-						case PETTY_CASH:
-							model.setAmount(isDebit ? lineItem.getDebitAmount() : lineItem.getCreditAmount());
-							model.setDebitAmount(lineItem.getDebitAmount());
-							model.setCreditAmount(lineItem.getCreditAmount());
-							break;
-						case VAT_REPORT_FILED:
-						case VAT_REPORT_UNFILED:
-						case VAT_PAYMENT:
-						case VAT_PENALTY_AMOUNT:
-						case VAT_CLAIM:
-						case REVERSE_VAT_PAYMENT:
-							if(lineItem.getDebitAmount()!=null && lineItem.getDebitAmount().compareTo(BigDecimal.ZERO)>0){
-								model.setAmount(lineItem.getDebitAmount());
-							}
-							else {
-								model.setAmount(lineItem.getCreditAmount());
-							}
-							model.setDebitAmount(lineItem.getDebitAmount());
-							model.setCreditAmount(lineItem.getCreditAmount());
-							break;
-
-						case BANK_PAYMENT:
-						case BANK_RECEIPT:
-						case REVERSE_BANK_PAYMENT:
-						case REVERSE_BANK_RECEIPT:
-							model.setReferenceNo(journal.getJournlReferencenNo());
-							model.setAmount(isDebit ? lineItem.getDebitAmount() : lineItem.getCreditAmount());
-							model.setCreditAmount(lineItem.getCreditAmount());
-							model.setDebitAmount(lineItem.getDebitAmount());
-							 contact = null;
-							 Receipt receipt = null;
-							 Payment payment = null;
-							Map<String, Object> objectMap =new HashMap<>();
-							objectMap.put("deleteFlag",Boolean.FALSE);
-							 if (postingType.equals(PostingReferenceTypeEnum.BANK_RECEIPT)){
-								CustomerInvoiceReceipt customerInvoiceReceipts = null;
-								try {
-									customerInvoiceReceipts = customerInvoiceReceiptService.findByAttributes(objectMap).get(0);
-									receipt = customerInvoiceReceipts.getReceipt();
-								} catch (Exception exception){
-
-								}
-
-							 }
-
-								if(receipt!=null){
-									contact = receipt.getContact();
-									model.setTransactonRefNo(receipt.getInvoice().getReferenceNumber());
-								}
-
-								if (postingType.equals(PostingReferenceTypeEnum.BANK_PAYMENT)){
-									SupplierInvoicePayment supplierInvoicePayment = supplierInvoicePaymentService.findByAttributes(objectMap).get(0);
-									payment = supplierInvoicePayment.getPayment();
-								}
-								if(payment!=null){
-									contact = payment.getSupplier();
-									model.setTransactonRefNo(payment.getInvoice().getReferenceNumber());
-								}
-
-							if(contact != null){
-								if (contact.getOrganization() != null && !contact.getOrganization().isEmpty()){
-									model.setName(contact.getOrganization());
-								}else{
-							model.setName(contact.getFirstName() + " " + contact.getLastName());
-						}}
-					break;
-					default:
-						// Unknown posting type - no action needed
-						break;
+			case INVOICE:
+			case REVERSE_INVOICE:
+				Invoice invoice = findOrGetFromDbIn(documents.invoiceMap, lineItem.getReferenceId()).get(lineItem.getReferenceId());
+
+				model.setCreditAmount(lineItem.getCreditAmount());
+				model.setDebitAmount(lineItem.getDebitAmount());
+					if (lineItem.getCreditAmount().compareTo(BigDecimal.ZERO)>0){
+						model.setAmount(lineItem.getCreditAmount());
+					}
+				else {
+					model.setAmount(lineItem.getDebitAmount());
+				}
+
+				model.setName(getContactName(invoice.getContact()));
+				model.setTransactonRefNo(invoice.getReferenceNumber());
+				model.setInvoiceType(invoice.getType());
+				if (invoice.getInvoiceDate()!=null){
+					model.setDate(invoice.getInvoiceDate().format(DateTimeFormatter.ofPattern(CommonColumnConstants.DDMMYYYY)));
+				}
+				break;
+			case CREDIT_NOTE:
+			case REVERSE_CREDIT_NOTE:
+			case DEBIT_NOTE:
+			case REVERSE_DEBIT_NOTE:
+				CreditNote creditNote = findOrGetFromDbCn(documents.creditNoteMap, lineItem.getReferenceId()).get(lineItem.getReferenceId());
+
+				model.setReferenceNo(journal.getJournlReferencenNo());
+
+				BigDecimal amount;
+				if (isDebit) {
+					model.setDebitAmount(lineItem.getDebitAmount());
+					model.setCreditAmount(lineItem.getCreditAmount());
+					amount = lineItem.getCreditAmount();
+				} else {
+					model.setCreditAmount(lineItem.getCreditAmount());
+					model.setDebitAmount(lineItem.getDebitAmount());
+					amount = lineItem.getDebitAmount();
+				}
+				model.setAmount(amount);
+
+				model.setName(getContactName(creditNote.getContact()));
+				model.setTransactonRefNo(creditNote.getCreditNoteNumber());
+				model.setInvoiceType(creditNote.getType());
+				break;
+
+			case MANUAL:
+			case BALANCE_ADJUSTMENT:
+				model.setReferenceNo(journal.getJournlReferencenNo());
+				model.setAmount(isDebit ? lineItem.getDebitAmount() : lineItem.getCreditAmount());
+				model.setCreditAmount(lineItem.getCreditAmount());
+				model.setDebitAmount(lineItem.getDebitAmount());
+				model.setName(lineItem.getContact() != null
+						? lineItem.getContact().getFirstName() + " " + lineItem.getContact().getLastName()
+						: "");
+				break;
+			case PAYROLL:
+			case PAYROLL_APPROVED:
+			case PAYROLL_EXPLAINED:
+			case REVERSE_PAYROLL_EXPLAINED:
+				model.setName(journal.getDescription());
+				model.setAmount(isDebit ? lineItem.getDebitAmount() : lineItem.getCreditAmount());
+				model.setCreditAmount(lineItem.getCreditAmount());
+				model.setDebitAmount(lineItem.getDebitAmount());
+				break;
+			case RECEIPT:
+			case PAYMENT:
+			case REVERSE_PAYMENT:
+			case REVERSE_RECEIPT:
+				model.setReferenceNo(journal.getJournlReferencenNo());
+
+				model.setAmount(isDebit ? lineItem.getDebitAmount() : lineItem.getCreditAmount());
+				model.setCreditAmount(lineItem.getCreditAmount());
+				model.setDebitAmount(lineItem.getDebitAmount());
+				Contact contact = null;
+				if (postingType.equals(PostingReferenceTypeEnum.RECEIPT)) {
+					Integer receiptId = Integer.valueOf(journal.getJournlReferencenNo());
+					Receipt receipt = findOrGetFromDbReceipt(documents.receiptMap, receiptId).get(receiptId);
+					if(receipt!=null){
+						contact = receipt.getContact();
+						model.setTransactonRefNo(receipt.getInvoice().getReferenceNumber());
+						model.setInvoiceType(receipt.getInvoice().getType());
+					}
+				} else {
+					Payment payment = findOrGetFromDbPaymnt(documents.paymentMap, lineItem.getReferenceId()).get(lineItem.getReferenceId());
+					if(payment!=null){
+						contact = payment.getSupplier();
+						model.setTransactonRefNo(payment.getInvoice().getReferenceNumber());
 					}
-					model.setAmount(model.getAmount());
 
-					dataList.add(model);
+				}
+				if(contact != null){
+					model.setName(getContactName(contact));
 				}
 
-				if(transactionCategoryClosingBalanceMap.get(item)!=null)
-				{
-					TransactionCategoryClosingBalance transactionCategoryClosingBalance = transactionCategoryClosingBalanceMap.get(item);
-					updateOpeningClosingBalance(dataList,reportRequestModel,transactionCategoryClosingBalance);
+				break;
+
+			case REFUND:
+			case CANCEL_REFUND:
+			case PURCHASE:
+			case PETTY_CASH:
+				model.setAmount(isDebit ? lineItem.getDebitAmount() : lineItem.getCreditAmount());
+				model.setDebitAmount(lineItem.getDebitAmount());
+				model.setCreditAmount(lineItem.getCreditAmount());
+				break;
+			case VAT_REPORT_FILED:
+			case VAT_REPORT_UNFILED:
+			case VAT_PAYMENT:
+			case VAT_PENALTY_AMOUNT:
+			case VAT_CLAIM:
+			case REVERSE_VAT_PAYMENT:
+				if(lineItem.getDebitAmount()!=null && lineItem.getDebitAmount().compareTo(BigDecimal.ZERO)>0){
+					model.setAmount(lineItem.getDebitAmount());
 				}
-				resposneList.add(dataList);
+				else {
+					model.setAmount(lineItem.getCreditAmount());
+				}
+				model.setDebitAmount(lineItem.getDebitAmount());
+				model.setCreditAmount(lineItem.getCreditAmount());
+				break;
+
+			case BANK_PAYMENT:
+			case BANK_RECEIPT:
+			case REVERSE_BANK_PAYMENT:
+			case REVERSE_BANK_RECEIPT:
+				model.setReferenceNo(journal.getJournlReferencenNo());
+				model.setAmount(isDebit ? lineItem.getDebitAmount() : lineItem.getCreditAmount());
+				model.setCreditAmount(lineItem.getCreditAmount());
+				model.setDebitAmount(lineItem.getDebitAmount());
+				contact = null;
+				if (postingType.equals(PostingReferenceTypeEnum.BANK_RECEIPT)) {
+					Receipt receipt = documents.getFirstCustomerInvoiceReceipt();
+					if(receipt!=null){
+						contact = receipt.getContact();
+						model.setTransactonRefNo(receipt.getInvoice().getReferenceNumber());
+					}
+				}
+				if (postingType.equals(PostingReferenceTypeEnum.BANK_PAYMENT)) {
+					Payment payment = documents.getFirstSupplierInvoicePayment();
+					if(payment!=null){
+						contact = payment.getSupplier();
+						model.setTransactonRefNo(payment.getInvoice().getReferenceNumber());
+					}
+				}
+				if(contact != null){
+					model.setName(getContactName(contact));
+				}
+				break;
+			default:
+				// Unknown posting type - no action needed
+				break;
+		}
+		return model;
+	}
+
+	private static String getContactName(Contact contact) {
+		if (contact.getOrganization() != null && !contact.getOrganization().isEmpty()) {
+			return contact.getOrganization();
+		}
+		return contact.getFirstName() + " " + contact.getLastName();
+	}
+
+	/**
+	 * Loads the documents referenced by the line items of a chunk with one IN query per document type, with
+	 * the associations needed for the row names fetched alongside. Documents missing from the result are
+	 * still looked up one by one through the findOrGetFromDb methods.
+	 */
+	private LedgerDocuments loadDocuments(List<JournalLineItem> chunk) {
+		Set<Integer> transactionIds = new HashSet<>();
+		Set<Integer> expenseIds = new HashSet<>();
+		Set<Integer> invoiceIds = new HashSet<>();
+		Set<Integer> creditNoteIds = new HashSet<>();
+		Set<Integer> receiptIds = new HashSet<>();
+		Set<Integer> paymentIds = new HashSet<>();
+		for (JournalLineItem lineItem : chunk) {
+			switch (lineItem.getReferenceType()) {
+				case TRANSACTION_RECONSILE:
+				case TRANSACTION_RECONSILE_INVOICE:
+				case REVERSE_TRANSACTION_RECONSILE:
+					transactionIds.add(lineItem.getReferenceId());
+					break;
+				case EXPENSE:
+				case REVERSE_EXPENSE:
+					expenseIds.add(lineItem.getReferenceId());
+					break;
+				case INVOICE:
+				case REVERSE_INVOICE:
+					invoiceIds.add(lineItem.getReferenceId());
+					break;
+				case CREDIT_NOTE:
+				case REVERSE_CREDIT_NOTE:
+				case DEBIT_NOTE:
+				case REVERSE_DEBIT_NOTE:
+					creditNoteIds.add(lineItem.getReferenceId());
+					break;
+				case RECEIPT:
+					try {
+						receiptIds.add(Integer.valueOf(lineItem.getJournal().getJournlReferencenNo()));
+					} catch (NumberFormatException e) {
+						logger.debug("Journal reference {} is not a receipt id", lineItem.getJournal().getJournlReferencenNo());
+					}
+					break;
+				case PAYMENT:
+				case REVERSE_PAYMENT:
+				case REVERSE_RECEIPT:
+					paymentIds.add(lineItem.getReferenceId());
+					break;
+				default:
+					break;
 			}
+		}
+		LedgerDocuments documents = new LedgerDocuments();
+		for (Transaction transaction : findByIds(TRANSACTIONS_QUERY, Transaction.class, transactionIds)) {
+			documents.transactionMap.put(transaction.getTransactionId(), transaction);
+		}
+		for (Expense expense : findByIds(EXPENSES_QUERY, Expense.class, expenseIds)) {
+			documents.expenseMap.put(expense.getExpenseId(), expense);
+		}
+		for (Invoice invoice : findByIds(INVOICES_QUERY, Invoice.class, invoiceIds)) {
+			documents.invoiceMap.put(invoice.getId(), invoice);
+		}
+		for (CreditNote creditNote : findByIds(CREDIT_NOTES_QUERY, CreditNote.class, creditNoteIds)) {
+			documents.creditNoteMap.put(creditNote.getCreditNoteId(), creditNote);
+		}
+		for (Receipt receipt : findByIds(RECEIPTS_QUERY, Receipt.class, receiptIds)) {
+			documents.receiptMap.put(receipt.getId(), receipt);
+		}
+		for (Payment payment : findByIds(PAYMENTS_QUERY, Payment.class, paymentIds)) {
+			documents.paymentMap.put(payment.getPaymentId(), payment);
+		}
+		return documents;
+	}
 
+	private <T> List<T> findByIds(String queryStr, Class<T> type, Set<Integer> ids) {
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
 		}
+		return entityManager.createQuery(queryStr, type).setParameter("ids", ids).getResultList();
+	}
 
-		return resposneList;
+	/**
+	 * Bank receipts and payments are shown with the first active customer invoice receipt or supplier
+	 * invoice payment, which is read once per chunk instead of loading the whole table for every line.
+	 */
+	private <T> T findFirst(String queryStr, Class<T> type) {
+		List<T> result = entityManager.createQuery(queryStr, type).setMaxResults(1).getResultList();
+		return result.isEmpty() ? null : result.get(0);
 	}
 
-	private void updateOpeningClosingBalance(List<DetailedGeneralLedgerReportListModel> dataList, ReportRequestModel reportRequestModel,
-											 TransactionCategoryClosingBalance transactionCategoryClosingBalance) {
-		BigDecimal creditAmount = BigDecimal.ZERO;
-		BigDecimal debitAmount = BigDecimal.ZERO;
-		String transactionTypeName = dataList.get(0).getTransactionTypeName();
-		for(DetailedGeneralLedgerReportListModel model : dataList )
-		{
-			creditAmount = creditAmount.add(model.getCreditAmount()!=null?model.getCreditAmount():BigDecimal.ZERO);
-			debitAmount = debitAmount.add(model.getDebitAmount()!=null?model.getDebitAmount():BigDecimal.ZERO);
+	/**
+	 * Documents referenced by the line items of one chunk.
+	 */
+	private class LedgerDocuments {
+
+		private final Map<Integer, Expense> expenseMap = new HashMap<>();
+		private final Map<Integer, Transaction> transactionMap = new HashMap<>();
+		private final Map<Integer, Invoice> invoiceMap = new HashMap<>();
+		private final Map<Integer, Receipt> receiptMap = new HashMap<>();
+		private final Map<Integer, Payment> paymentMap = new HashMap<>();
+		private final Map<Integer, CreditNote> creditNoteMap = new HashMap<>();
+		private final Map<String, String> payeeNameMap = new HashMap<>();
+		private CustomerInvoiceReceipt firstCustomerInvoiceReceipt;
+		private SupplierInvoicePayment firstSupplierInvoicePayment;
+		private boolean firstCustomerInvoiceReceiptLoaded;
+		private boolean firstSupplierInvoicePaymentLoaded;
+
+		Receipt getFirstCustomerInvoiceReceipt() {
+			if (!firstCustomerInvoiceReceiptLoaded) {
+				firstCustomerInvoiceReceipt = findFirst(FIRST_CUSTOMER_INVOICE_RECEIPT_QUERY, CustomerInvoiceReceipt.class);
+				firstCustomerInvoiceReceiptLoaded = true;
+			}
+			return firstCustomerInvoiceReceipt != null ? firstCustomerInvoiceReceipt.getReceipt() : null;
 		}
-		boolean isCredit = creditAmount.longValue() >= debitAmount.longValue() ;
+
+		Payment getFirstSupplierInvoicePayment() {
+			if (!firstSupplierInvoicePaymentLoaded) {
+				firstSupplierInvoicePayment = findFirst(FIRST_SUPPLIER_INVOICE_PAYMENT_QUERY, SupplierInvoicePayment.class);
+				firstSupplierInvoicePaymentLoaded = true;
+			}
+			return firstSupplierInvoicePayment != null ? firstSupplierInvoicePayment.getPayment() : null;
+		}
+	}
+
+	/**
+	 * Tracks the category whose rows are being written and frames them with its opening and closing
+	 * balance rows.
+	 */
+	private static class CategoryRows {
+
+		private final ReportRequestModel reportRequestModel;
+		private final DetailedGeneralLedgerReportListener listener;
+		private Integer transactionCategoryId;
+		private TransactionCategoryClosingBalance closingBalance;
+		private BigDecimal creditAmount;
+		private BigDecimal debitAmount;
+		private boolean empty;
+
+		CategoryRows(ReportRequestModel reportRequestModel, DetailedGeneralLedgerReportListener listener) {
+			this.reportRequestModel = reportRequestModel;
+			this.listener = listener;
+		}
+
+		void start(Integer transactionCategoryId, String transactionCategoryName,
+				TransactionCategoryClosingBalance closingBalance) {
+			this.transactionCategoryId = transactionCategoryId;
+			this.closingBalance = closingBalance;
+			this.creditAmount = BigDecimal.ZERO;
+			this.debitAmount = BigDecimal.ZERO;
+			this.empty = true;
+			listener.onCategoryStart(transactionCategoryName);
+		}
+
+		void add(DetailedGeneralLedgerReportListModel row) {
+			if (empty && closingBalance != null) {
+				listener.onRow(getOpeningBalanceRow(reportRequestModel, closingBalance, row.getTransactionTypeName()));
+			}
+			empty = false;
+			creditAmount = creditAmount.add(row.getCreditAmount() != null ? row.getCreditAmount() : BigDecimal.ZERO);
+			debitAmount = debitAmount.add(row.getDebitAmount() != null ? row.getDebitAmount() : BigDecimal.ZERO);
+			listener.onRow(row);
+		}
+
+		void end() {
+			if (transactionCategoryId == null) {
+				return;
+			}
+			if (closingBalance != null) {
+				listener.onRow(getClosingBalanceRow(reportRequestModel, closingBalance, creditAmount, debitAmount));
+			}
+			listener.onCategoryEnd();
+			transactionCategoryId = null;
+		}
+	}
+
+	private static DetailedGeneralLedgerReportListModel getOpeningBalanceRow(ReportRequestModel reportRequestModel,
+			TransactionCategoryClosingBalance transactionCategoryClosingBalance, String transactionTypeName) {
 		DetailedGeneralLedgerReportListModel openingBalanceModel = new DetailedGeneralLedgerReportListModel();
-		DetailedGeneralLedgerReportListModel closingBalanceModel = new DetailedGeneralLedgerReportListModel();
-		DetailedGeneralLedgerReportListModel tempopeningBalanceModel = dataList.get(0);
 		openingBalanceModel.setDate("As on "+reportRequestModel.getStartDate());
-		BigDecimal openingBalance = transactionCategoryClosingBalance.getOpeningBalance();
 		if(transactionCategoryClosingBalance.getOpeningBalance().longValue()<=0) {
 			openingBalanceModel.setCreditAmount(transactionCategoryClosingBalance.getOpeningBalance().negate());
-
 		}else {
-
 			openingBalanceModel.setDebitAmount(transactionCategoryClosingBalance.getOpeningBalance());
-		}openingBalanceModel.setAmount(transactionCategoryClosingBalance.getOpeningBalance());
+		}
+		openingBalanceModel.setAmount(transactionCategoryClosingBalance.getOpeningBalance());
 		openingBalanceModel.setTransactionTypeName(transactionTypeName);
 		openingBalanceModel.setPostingReferenceTypeEnum("Opening Balance");
-		dataList.add(0,openingBalanceModel);
+		return openingBalanceModel;
+	}
 
+	private static DetailedGeneralLedgerReportListModel getClosingBalanceRow(ReportRequestModel reportRequestModel,
+			TransactionCategoryClosingBalance transactionCategoryClosingBalance, BigDecimal creditAmount, BigDecimal debitAmount) {
+		boolean isCredit = creditAmount.longValue() >= debitAmount.longValue() ;
+		DetailedGeneralLedgerReportListModel closingBalanceModel = new DetailedGeneralLedgerReportListModel();
 		closingBalanceModel.setDate("As on "+reportRequestModel.getEndDate());
 
 		BigDecimal closingBalance = transactionCategoryClosingBalance.getClosingBalance();
@@ -504,14 +652,12 @@ public class DetailedGeneralLedgerRestHelper {
 			closingBalance= closingBalance.negate();
 		if(isCredit) {
 			closingBalanceModel.setCreditAmount(closingBalance);
-
 		}
 		else {
-
 			closingBalanceModel.setDebitAmount(closingBalance);
 		}
 		closingBalanceModel.setPostingReferenceTypeEnum("Closing Balance");
-		dataList.add(closingBalanceModel);
+		return closingBalanceModel;
 	}
 
 	private Map<Integer, TransactionCategoryClosingBalance> processTransactionCategoryClosingBalance(List<TransactionCategoryClosingBalance> closingBalanceList) {
@@ -8,25 +8,19 @@ import java.util.*;
 
 import com.simpleaccounts.constant.ChartOfAccountCategoryCodeEnum;
 import com.simpleaccounts.constant.CommonColumnConstants;
-import com.simpleaccounts.constant.DiscountType;
-import com.simpleaccounts.entity.CreditNoteLineItem;
 import com.simpleaccounts.entity.TransactionCategoryClosingBalance;
-import com.simpleaccounts.entity.VatReportFiling;
 import com.simpleaccounts.model.TrialBalanceResponseModel;
 import com.simpleaccounts.model.VatReportModel;
 import com.simpleaccounts.model.VatReportResponseModel;
-import com.simpleaccounts.repository.CreditNoteLineItemRepository;
+import com.simpleaccounts.model.VatReturnBoxes;
 import com.simpleaccounts.rest.detailedgeneralledgerreport.ReportRequestModel;
-import com.simpleaccounts.service.ExpenseService;
-import com.simpleaccounts.service.InvoiceService;
 import com.simpleaccounts.service.TransactionCategoryClosingBalanceService;
+import com.simpleaccounts.service.impl.VatReturnEngine;
 import com.simpleaccounts.utils.DateFormatUtil;
 import java.math.BigDecimal;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -43,15 +37,7 @@ public class FinancialReportRestHelper {
 
 	private final TransactionCategoryClosingBalanceService transactionCategoryClosingBalanceService;
 
-	private final InvoiceService invoiceService;
-
-	private final ExpenseService expenseService;
-
-	private final CreditNoteLineItemRepository creditNoteLineItemRepository;
-
-	private final EntityManager entityManager;
-
-	private final VatReportFilingRepository vatReportFilingRepository;
+	private final VatReturnEngine vatReturnEngine;
 
 	private final DateFormatUtil dateUtil;
 
@@ -667,21 +653,25 @@ public class FinancialReportRestHelper {
 	public  VatReportResponseModel getVatReturnReport(FinancialReportRequestModel financialReportRequestModel){
 		VatReportResponseModel vatReportResponseModel = new VatReportResponseModel();
 		initDefaultValue(vatReportResponseModel);
-		ReportRequestModel reportRequestModel = new ReportRequestModel();
-		// Check the end date getting call
-		reportRequestModel.setStartDate(financialReportRequestModel.getStartDate());
-		reportRequestModel.setEndDate(financialReportRequestModel.getEndDate());
-		invoiceService.getSumOfTotalAmountWithVat(reportRequestModel,vatReportResponseModel);
-		invoiceService.sumOfTotalAmountWithoutVat(reportRequestModel,vatReportResponseModel);
-		expenseService.sumOfTotalExpensesWithVat(reportRequestModel,vatReportResponseModel);
-		sumOfTotalStandardRated(reportRequestModel,vatReportResponseModel);
-		invoiceService.getSumOfTotalAmountWithVatForRCM(reportRequestModel,vatReportResponseModel);
-		invoiceService.sumOfTotalAmountWithoutVatForRCM(reportRequestModel,vatReportResponseModel);
-		transactionCategoryClosingBalanceService.sumOfTotalAmountExce(financialReportRequestModel,vatReportResponseModel);
-		List<VatReportModel> list = transactionCategoryClosingBalanceService.getListByPlaceOfSupply(financialReportRequestModel);
-         if(list==null)
-         	return vatReportResponseModel;
-		 for(VatReportModel vatReportModel : list)
+		DateTimeFormatter formatter = DateTimeFormatter.ofPattern(CommonColumnConstants.DD_MM_YYYY);
+		VatReturnBoxes boxes = vatReturnEngine.getBoxes(
+				LocalDate.parse(financialReportRequestModel.getStartDate(), formatter),
+				LocalDate.parse(financialReportRequestModel.getEndDate(), formatter));
+		vatReportResponseModel.setTotalAmountWithVatForSupplierInvoice(boxes.getSupplierInvoiceAmount());
+		vatReportResponseModel.setTotalVatAmountForSupplierInvoice(boxes.getSupplierInvoiceVat());
+		vatReportResponseModel.setZeroRatedSupplies(boxes.getZeroRatedSupplies());
+		vatReportResponseModel.setTotalAmountForExpense(boxes.getExpenseAmount());
+		vatReportResponseModel.setTotalVatAmountForExpense(boxes.getExpenseVat());
+		if (boxes.getDebitNoteSales() != null) {
+			vatReportResponseModel.setDebitNoteSales(boxes.getDebitNoteSales());
+		}
+		if (boxes.getDebitNoteSalesVat() != null) {
+			vatReportResponseModel.setDebitNoteSalesVat(boxes.getDebitNoteSalesVat());
+		}
+		vatReportResponseModel.setReverseChargeProvisionsTotalAmount(boxes.getReverseChargeAmount());
+		vatReportResponseModel.setReverseChargeProvisionsVatAmount(boxes.getReverseChargeVat());
+		vatReportResponseModel.setExemptSupplies(boxes.getExemptSupplies());
+		 for(VatReportModel vatReportModel : boxes.getStandardRatedSupplies())
 		 {
 			 vatReportResponseModel.setTotalAmount(vatReportResponseModel.getTotalAmount().add(vatReportModel.getTotalAmount()));
 			 vatReportResponseModel.setTotalVatAmount(vatReportResponseModel.getTotalVatAmount().add(vatReportModel.getTotalVatAmount()));
@@ -1043,75 +1033,4 @@ public class FinancialReportRestHelper {
 		}
 		return responseModel;
 	}
-	public void sumOfTotalStandardRated(ReportRequestModel reportRequestModel, VatReportResponseModel vatReportResponseModel) {
-		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-		LocalDate startDate = LocalDate.parse(reportRequestModel.getStartDate(), formatter);
-		LocalDate endDate = LocalDate.parse(reportRequestModel.getEndDate(), formatter);
-        VatReportFiling vatReportFiling = vatReportFilingRepository.getVatReportFilingByStartDateAndEndDate(startDate, endDate);
-		List<CreditNoteLineItem> creditNoteLineItems = creditNoteLineItemRepository.findAllByDates(startDate,endDate);
-		BigDecimal dnDiscountVat1 = BigDecimal.ZERO;
-		BigDecimal dnDiscountVat2 = BigDecimal.ZERO;
-		BigDecimal dnDiscountVat3 = BigDecimal.ZERO;
-		BigDecimal dnDiscountVat4 = BigDecimal.ZERO;
-
-		if(creditNoteLineItems!=null && creditNoteLineItems.size()>0){
-			for(CreditNoteLineItem lineItem : creditNoteLineItems) {
-				if (lineItem.getCreditNote().getType().equals(13)) {
-					//Calculating discount for different vat categories
-					if (lineItem.getDiscountType().equals(DiscountType.FIXED) && lineItem.getVatCategory().getId().equals(1)) {
-						dnDiscountVat1 = dnDiscountVat1.add(lineItem.getDiscount().multiply(lineItem.getCreditNote().getExchangeRate()));
-					}
-					if (lineItem.getDiscountType().equals(DiscountType.FIXED) && lineItem.getVatCategory().getId().equals(2)) {
-						dnDiscountVat2 = dnDiscountVat2.add(lineItem.getDiscount().multiply(lineItem.getCreditNote().getExchangeRate()));
-					}
-					if (lineItem.getDiscountType().equals(DiscountType.FIXED) && lineItem.getVatCategory().getId().equals(3)) {
-						dnDiscountVat3 = dnDiscountVat3.add(lineItem.getDiscount().multiply(lineItem.getCreditNote().getExchangeRate()));
-					}
-					if (lineItem.getDiscountType().equals(DiscountType.FIXED) && lineItem.getVatCategory().getId().equals(4)) {
-						dnDiscountVat4 = dnDiscountVat4.add(lineItem.getDiscount().multiply(lineItem.getCreditNote().getExchangeRate()));
-					}
-					if (lineItem.getDiscountType().equals(DiscountType.PERCENTAGE) && lineItem.getVatCategory().getId().equals(1)) {
-						dnDiscountVat1 = dnDiscountVat1.add(lineItem.getUnitPrice().multiply(BigDecimal.valueOf(lineItem.getQuantity())).multiply(lineItem.getDiscount().divide(BigDecimal.valueOf(100.00))));
-					}
-					if (lineItem.getDiscountType().equals(DiscountType.PERCENTAGE) && lineItem.getVatCategory().getId().equals(2)) {
-						dnDiscountVat2 = dnDiscountVat2.add(lineItem.getUnitPrice().multiply(BigDecimal.valueOf(lineItem.getQuantity())).multiply(lineItem.getDiscount().divide(BigDecimal.valueOf(100.00))));
-					}
-					if (lineItem.getDiscountType().equals(DiscountType.PERCENTAGE) && lineItem.getVatCategory().getId().equals(3)) {
-						dnDiscountVat3 = dnDiscountVat3.add(lineItem.getUnitPrice().multiply(BigDecimal.valueOf(lineItem.getQuantity())).multiply(lineItem.getDiscount().divide(BigDecimal.valueOf(100.00))));
-					}
-					if (lineItem.getDiscountType().equals(DiscountType.PERCENTAGE) && lineItem.getVatCategory().getId().equals(4)) {
-						dnDiscountVat4 = dnDiscountVat4.add(lineItem.getUnitPrice().multiply(BigDecimal.valueOf(lineItem.getQuantity())).multiply(lineItem.getDiscount().divide(BigDecimal.valueOf(100.00))));
-					}
-				}
-			}
-
-		}
-		ZoneOffset offset = ZoneOffset.UTC;
-		OffsetDateTime stDate = startDate.atStartOfDay().atOffset(offset);
-		OffsetDateTime edDate = endDate.atStartOfDay().atOffset(offset);
-
-		TypedQuery<BigDecimal> debitNote = entityManager.createQuery( "SELECT SUM(il.exciseAmount+il.vatAmount+il.quantity*il.unitPrice*i.exchangeRate) AS TOTAL_AMOUNT " +
-				" FROM CreditNote i,CreditNoteLineItem  il WHERE i.status not in(2) AND i.type=13 and i.creditNoteId = il.creditNote.creditNoteId and il.vatCategory.id in (1) AND i.deleteFlag = false AND i.creditNoteDate between :startDate and :endDate",BigDecimal.class);
-		debitNote.setParameter("startDate",stDate);
-		debitNote.setParameter("endDate",edDate);
-		BigDecimal debitNoteSales = BigDecimal.ZERO;
-		debitNoteSales	= debitNote.getSingleResult();
-		if(dnDiscountVat1!=null && debitNoteSales!=null ){
-			debitNoteSales = debitNoteSales.subtract(dnDiscountVat1);
-		}
-		if(debitNoteSales!=null){
-			vatReportResponseModel.setDebitNoteSales(debitNoteSales);
-		}
-
-		TypedQuery<BigDecimal> debitNoteVat = entityManager.createQuery( "SELECT SUM(il.vatAmount*i.exchangeRate) AS TOTAL_AMOUNT " +
-				" FROM CreditNote i,CreditNoteLineItem  il WHERE i.status not in(2) AND i.type=13 and i.creditNoteId = il.creditNote.creditNoteId and il.vatCategory.id in (1) AND i.deleteFlag = false AND i.creditNoteDate between :startDate and :endDate",BigDecimal.class);
-		debitNoteVat.setParameter("startDate",stDate);
-		debitNoteVat.setParameter("endDate",edDate);
-		BigDecimal debitNoteSalesVat = BigDecimal.ZERO;
-		debitNoteSalesVat	= debitNoteVat.getSingleResult();
-		if(debitNoteSalesVat!=null){
-			vatReportResponseModel.setDebitNoteSalesVat(debitNoteSalesVat);
-		}
-
-	}
 }
@@ -45,6 +45,7 @@ import com.simpleaccounts.entity.Journal;
 import com.simpleaccounts.entity.PlaceOfSupply;
 import com.simpleaccounts.entity.QuotationInvoiceRelation;
 import com.simpleaccounts.entity.User;
+import com.simpleaccounts.exceptions.InvalidContinuationTokenException;
 import com.simpleaccounts.helper.ExpenseRestHelper;
 import com.simpleaccounts.model.EarningDetailsModel;
 import com.simpleaccounts.model.OverDueAmountDetailsModel;
@@ -197,6 +198,9 @@ public class InvoiceRestController extends AbstractDoubleEntryRestController {
 			}
 			responseModel.setData(invoiceRestHelper.getListModel(responseModel.getData()));
 			return new ResponseEntity<>(responseModel, HttpStatus.OK);
+		} catch (InvalidContinuationTokenException e) {
+			logger.warn(e.getMessage());
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 		} catch (Exception e) {
 			logger.error(ERROR, e);
 			return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -282,7 +286,7 @@ public class InvoiceRestController extends AbstractDoubleEntryRestController {
 			FileHelper.setRootPath(rootPath);
 			log.info("In Controller :{}",requestModel.getInvoiceDueDate());
 			Integer userId = jwtTokenUtil.getUserIdFromHttpRequest(request);
-			Boolean checkInvoiceNumber = invoiceRestHelper.doesInvoiceNumberExist(requestModel.getReferenceNumber());
+			Boolean checkInvoiceNumber = invoiceRestHelper.doesInvoiceNumberExist(requestModel.getReferenceNumber(), requestModel.getType());
 				if (Boolean.TRUE.equals(checkInvoiceNumber)){
 					SimpleAccountsMessage errorMessage = new SimpleAccountsMessage("0023",
 							MessageUtil.getMessage("invoicenumber.alreadyexists.0023"), true);
@@ -17,20 +17,17 @@ import com.simpleaccounts.rest.creditnotecontroller.CreditNoteRepository;
 import com.simpleaccounts.rest.customizeinvoiceprefixsuffixccontroller.CustomizeInvoiceTemplateResponseModel;
 import com.simpleaccounts.rest.customizeinvoiceprefixsuffixccontroller.CustomizeInvoiceTemplateService;
 import com.simpleaccounts.service.*;
+import com.simpleaccounts.service.impl.InventoryLedger;
 import com.simpleaccounts.utils.*;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
-import javax.persistence.EntityManager;
-import javax.persistence.Query;
 import javax.servlet.http.HttpServletRequest;
 import javax.xml.bind.DatatypeConverter;
 import lombok.RequiredArgsConstructor;
@@ -38,7 +35,6 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -56,17 +52,14 @@ public class InvoiceRestHelper {
 	private final Logger logger = LoggerFactory.getLogger(InvoiceRestHelper.class);
 	private static final String DATE_FORMAT_DD_MM_YYYY = "dd-MM-yyyy";
 	private static final String ERROR_PROCESSING_INVOICE = "Error processing invoice";
-	private static final String CLASSPATH_PREFIX = "classpath:";
 	private static final String JSON_KEY_INVOICE = "invoice";
 	private static final String TEMPLATE_PLACEHOLDER_AMOUNT_IN_WORDS = "{amountInWords}";
 	private static final String TEMPLATE_PLACEHOLDER_VAT_IN_WORDS = "{vatInWords}";
 	private static final String TEMPLATE_PLACEHOLDER_CURRENCY = "{currency}";
 	private final VatCategoryService vatCategoryService;
 
-	private final EntityManager entityManager;
 	private final ProjectService projectService;
 
-	private final ResourceLoader resourceLoader;
 	private final ContactService contactService;
 
 	private final CurrencyService currencyService;
@@ -79,7 +72,7 @@ public class InvoiceRestHelper {
 
 	private final MailUtility mailUtility;
 
-	private final EmaiLogsService emaiLogsService;
+	private final MailTemplateCache mailTemplateCache;
 
 	private final UserService userService;
 
@@ -97,11 +90,9 @@ public class InvoiceRestHelper {
 
 	private final CustomizeInvoiceTemplateService customizeInvoiceTemplateService;
 
-	private final InvoiceNumberUtil invoiceNumberUtil;
-
 	private final InventoryService inventoryService;
 
-	private final InventoryHistoryService inventoryHistoryService;
+	private final InventoryLedger inventoryLedger;
 
 	private final ProductLineItemService productLineItemService;
 
@@ -186,13 +177,7 @@ public class InvoiceRestHelper {
 		if (invoiceModel.getType() != null && !invoiceModel.getType().isEmpty()) {
 			Integer invoiceType=Integer.parseInt(invoiceModel.getType());
 			invoice.setType(invoiceType);
-			CustomizeInvoiceTemplate template = customizeInvoiceTemplateService.getInvoiceTemplate(invoiceType);
-
-			String suffix=invoiceNumberUtil.fetchSuffixFromString(invoiceModel.getReferenceNumber());
-			template.setSuffix(Integer.parseInt(suffix));
-			String prefix= invoice.getReferenceNumber().substring(0,invoice.getReferenceNumber().lastIndexOf(suffix));
-			template.setPrefix(prefix);
-			customizeInvoiceTemplateService.persist(template);
+			customizeInvoiceTemplateService.recordNumber(invoiceType, invoiceModel.getReferenceNumber());
 
 		}
 		if (invoiceModel.getProjectId() != null) {
@@ -320,131 +305,6 @@ public class InvoiceRestHelper {
 		return lineItems;
 	}
 
-	private void handleCustomerInvoiceInventory(InvoiceLineItem model) {
-		List<Inventory> inventoryList = inventoryService.getProductByProductId(model.getProduct().getProductID());
-		int remainingQty = model.getQuantity();
-		for(Inventory inventory : inventoryList)
-		{
-			int stockOnHand = inventory.getStockOnHand();
-
-			if(stockOnHand > remainingQty )
-			{
-				stockOnHand = stockOnHand - remainingQty ;
-				inventory.setQuantitySold(inventory.getQuantitySold()+remainingQty);
-				remainingQty -= remainingQty;
-				inventory.setStockOnHand(stockOnHand);
-
-			}
-			else
-			{
-				remainingQty -= stockOnHand;
-				inventory.setStockOnHand(0);
-				inventory.setQuantitySold(inventory.getQuantitySold()+stockOnHand);
-
-			}
-			inventoryService.update(inventory);
-			InventoryHistory inventoryHistory = new InventoryHistory();
-			inventoryHistory.setCreatedBy(inventory.getCreatedBy());
-			inventoryHistory.setCreatedDate(LocalDateTime.now());
-			inventoryHistory.setLastUpdateBy(inventory.getLastUpdateBy());
-			inventoryHistory.setLastUpdateDate(LocalDateTime.now());
-			inventoryHistory.setTransactionDate(model.getInvoice().getInvoiceDate());
-			inventoryHistory.setInventory(inventory);
-			inventoryHistory.setInvoice(model.getInvoice());
-			inventoryHistory.setProductId(inventory.getProductId());
-			inventoryHistory.setUnitCost(inventory.getUnitCost());
-			inventoryHistory.setQuantity((float) stockOnHand);
-			inventoryHistory.setUnitSellingPrice(model.getUnitPrice().floatValue()*model.getInvoice().getExchangeRate().floatValue());
-			inventoryHistory.setSupplierId(inventory.getSupplierId());
-			inventoryHistoryService.update(inventoryHistory);
-
-			if(remainingQty==0)
-				break;
-		}
-	}
-	void handleSupplierInvoiceInventory(InvoiceLineItem model,Product product,Contact supplier,Integer userId){
-		Map<String, Object> attribute = new HashMap<>();
-		attribute.put("productId", product);
-		attribute.put("supplierId",supplier);
-
-		List<Inventory> inventoryList = inventoryService.findByAttributes(attribute);
-			if (inventoryList!=null && !inventoryList.isEmpty()) {
-				for (Inventory inventory : inventoryList) {
-					int stockOnHand = inventory.getStockOnHand();
-					int purchaseQuantity = inventory.getPurchaseQuantity();
-				inventory.setUnitCost(((stockOnHand*inventory.getUnitCost())+(model.getQuantity().floatValue()*
-						model.getUnitPrice().floatValue()))/(inventory.getStockOnHand().floatValue()+model.getQuantity().
-						floatValue()));
-				inventory.setStockOnHand(model.getQuantity() + stockOnHand);
-				inventory.setPurchaseQuantity(model.getQuantity() + purchaseQuantity);
-				inventoryService.update(inventory);
-				InventoryHistory inventoryHistory = new InventoryHistory();
-				inventoryHistory.setInventory(inventory);
-				inventoryHistory.setInvoice(model.getInvoice());
-				inventoryHistory.setProductId(inventory.getProductId());
-				inventoryHistory.setUnitCost(model.getUnitPrice().floatValue());
-
-				inventoryHistory.setQuantity(model.getQuantity().floatValue());
-				inventoryHistory.setUnitSellingPrice(model.getUnitPrice().floatValue()*model.getInvoice().getExchangeRate().floatValue());
-				inventoryHistory.setSupplierId(inventory.getSupplierId());
-				inventoryHistory.setCreatedBy(userId);
-				inventoryHistory.setCreatedDate(LocalDateTime.now());
-				inventoryHistory.setLastUpdateBy(inventory.getLastUpdateBy());
-				inventoryHistory.setLastUpdateDate(LocalDateTime.now());
-				inventoryHistory.setTransactionDate(model.getInvoice().getInvoiceDate());
-				inventoryHistoryService.update(inventoryHistory);
-			}
-		}
-		else {
-			Inventory inventory = new Inventory();
-			inventory.setProductId(product);
-			// Check for supplier id From contact entity
-			inventory.setSupplierId(supplier);
-			inventory.setPurchaseQuantity(model.getQuantity());
-			inventory.setStockOnHand(model.getQuantity());
-			inventory.setQuantitySold(0);
-			inventory.setCreatedBy(userId);
-			inventory.setCreatedDate(LocalDateTime.now());
-			inventory.setLastUpdateBy(inventory.getLastUpdateBy());
-			inventory.setLastUpdateDate(LocalDateTime.now());
-
-			int reOrderLevel = model.getQuantity()/10;
-			inventory.setReorderLevel(reOrderLevel);
-
-			inventory.setUnitCost((model.getUnitPrice().multiply(model.getInvoice().getExchangeRate())).floatValue());
-
-			inventoryService.persist(inventory);
-			InventoryHistory inventoryHistory = new InventoryHistory();
-			inventoryHistory.setInventory(inventory);
-			inventoryHistory.setInvoice(model.getInvoice());
-			inventoryHistory.setProductId(inventory.getProductId());
-			inventoryHistory.setUnitCost(inventory.getUnitCost());
-			inventoryHistory.setSupplierId(inventory.getSupplierId());
-			inventoryHistory.setQuantity((model.getQuantity().floatValue()));
-			inventoryHistory.setCreatedBy(userId);
-			inventoryHistory.setCreatedDate(LocalDateTime.now());
-			inventoryHistory.setLastUpdateBy(inventory.getLastUpdateBy());
-			inventoryHistory.setLastUpdateDate(LocalDateTime.now());
-			inventoryHistory.setTransactionDate(model.getInvoice().getInvoiceDate());
-			inventoryHistoryService.update(inventoryHistory);
-		}
-		Map<String,Object> map = new HashMap<>();
-		map.put("productId",product);
-		List<Inventory> inventoriesProduct = inventoryService.findByAttributes(map);
-		Float totalStockOnHand =0f;
-		Float totalInventoryAsset = 0f;
-		for (Inventory inventoryProduct:inventoriesProduct){
-			totalStockOnHand = totalStockOnHand + (inventoryProduct.getStockOnHand());
-			totalInventoryAsset = totalInventoryAsset + (inventoryProduct.getUnitCost()*inventoryProduct.getStockOnHand());
-		}
-		if (totalStockOnHand > 0) {
-			product.setAvgPurchaseCost(BigDecimal.valueOf(totalInventoryAsset/totalStockOnHand));
-		} else {
-			product.setAvgPurchaseCost(BigDecimal.ZERO);
-		}
-		productService.update(product);
-	}
-
 	public InvoiceRequestModel getRequestModel(Invoice invoice) {
 		InvoiceRequestModel requestModel = new InvoiceRequestModel();
 		Map<String,Object> map = new HashMap<>();
@@ -794,19 +654,14 @@ public class InvoiceRestHelper {
 	public void send(Invoice invoice, Integer userId, PostingRequestModel postingRequestModel, HttpServletRequest request) {
 		String subject = "";
 		String body = "";
-		String quertStr = "SELECT m FROM MailThemeTemplates m WHERE m.moduleId=1 and m.templateEnable=true";
 
-		Query query = entityManager.createQuery(quertStr);
-
-		MailThemeTemplates invoiceEmailBody = (MailThemeTemplates) query.getSingleResult();
+		MailThemeTemplates invoiceEmailBody = mailTemplateCache.getActiveTemplate(1);
 
 		Contact contact = invoice.getContact();
 
 		Map<String, String> map = getInvoiceData(invoice, userId);
 
 		String content = "";
-		String htmlText = "";
-		String htmlContent = "";
 
 		String amountInWords = "-";
 		String vatInWords = "-";
@@ -816,44 +671,31 @@ public class InvoiceRestHelper {
 
 		if (postingRequestModel != null && postingRequestModel.getVatInWords() != null)
 			vatInWords = postingRequestModel.getVatInWords();
+		map.put(TEMPLATE_PLACEHOLDER_AMOUNT_IN_WORDS, amountInWords);
+		map.put(TEMPLATE_PLACEHOLDER_VAT_IN_WORDS, vatInWords);
 		try {
-			String emailBody = invoiceEmailBody.getPath();
-
-			byte[] bodyData = Files.readAllBytes(Paths.get(resourceLoader.getResource(CLASSPATH_PREFIX + emailBody).getURI()));
-			byte[] contentData = Files.readAllBytes(Paths.get(resourceLoader.getResource(CLASSPATH_PREFIX + INVOICE_TEMPLATE).getURI()));
+			Map<String, String> contentMap = new HashMap<>(map);
+			contentMap.put(TEMPLATE_PLACEHOLDER_CURRENCY, invoice.getCurrency().getCurrencyIsoCode());
+			content = mailUtility.create(contentMap, mailTemplateCache.getTemplate(INVOICE_TEMPLATE));
 
-			htmlText = new String(bodyData, StandardCharsets.UTF_8).replace(TEMPLATE_PLACEHOLDER_AMOUNT_IN_WORDS, amountInWords).replace(TEMPLATE_PLACEHOLDER_VAT_IN_WORDS, vatInWords);
-			htmlContent = new String(contentData, StandardCharsets.UTF_8).replace(TEMPLATE_PLACEHOLDER_CURRENCY, invoice.getCurrency().getCurrencyIsoCode())
-					.replace(TEMPLATE_PLACEHOLDER_AMOUNT_IN_WORDS, amountInWords)
-					.replace(TEMPLATE_PLACEHOLDER_VAT_IN_WORDS, vatInWords);
-		} catch (IOException e) {
+			int lineItemCount = invoice.getInvoiceLineItems().size();
+			if (lineItemCount > 1) {
+				body = mailUtility.create(map, updateInvoiceLineItem(lineItemCount, invoiceEmailBody));
+			} else {
+				body = mailUtility.create(map, mailTemplateCache.getTemplate(invoiceEmailBody.getPath()));
+			}
+		} catch (UncheckedIOException e) {
 			logger.error(ERROR_PROCESSING_INVOICE, e);
 		}
 
-			if (!StringUtils.isEmpty(htmlContent)) {
-				content = mailUtility.create(map, htmlContent);
-			}
-
-		if (invoiceEmailBody != null && invoiceEmailBody.getTemplateSubject() != null) {
+		if (invoiceEmailBody.getTemplateSubject() != null) {
 			subject = mailUtility.create(map, invoiceEmailBody.getTemplateSubject());
 		}
-
-		if (invoiceEmailBody != null && !StringUtils.isEmpty(htmlText)) {
-			if (invoice.getInvoiceLineItems().size()>1){
-				body = mailUtility.create(map, updateInvoiceLineItem(invoice.getInvoiceLineItems().size(),invoiceEmailBody));
-			}
-			else {
-				body = mailUtility.create(map, htmlText);
-			}
-		}
 		body=getTaxableSummaryString(invoice,body)
 				.replace(TEMPLATE_PLACEHOLDER_AMOUNT_IN_WORDS, amountInWords)
 				.replace(TEMPLATE_PLACEHOLDER_VAT_IN_WORDS, vatInWords);
 
 		if (invoice.getContact() != null && contact.getBillingEmail() != null && !contact.getBillingEmail().isEmpty()) {
-			mailUtility.triggerEmailOnBackground2(subject, content, body, null, EmailConstant.ADMIN_SUPPORT_EMAIL,
-					EmailConstant.ADMIN_EMAIL_SENDER_NAME, new String[]{invoice.getContact().getBillingEmail()},
-					true);
 			EmailLogs emailLogs = new EmailLogs();
 			emailLogs.setEmailDate(LocalDateTime.now());
 			emailLogs.setEmailTo(invoice.getContact().getBillingEmail());
@@ -866,7 +708,9 @@ public class InvoiceRestHelper {
 					.toUriString();
 			System.out.println(baseUrl);
 			emailLogs.setBaseUrl(baseUrl);
-			emaiLogsService.persist(emailLogs);
+			mailUtility.triggerEmailOnBackground2(subject, content, body, null, EmailConstant.ADMIN_SUPPORT_EMAIL,
+					EmailConstant.ADMIN_EMAIL_SENDER_NAME, new String[]{invoice.getContact().getBillingEmail()},
+					true, emailLogs);
 		} else {
 			logger.info("BILLING ADDRESS NOT PRESENT");
 		}
@@ -925,11 +769,7 @@ public class InvoiceRestHelper {
 	public void sendCN(Invoice invoice, Integer userId,PostingRequestModel postingRequestModel,HttpServletRequest request,CreditNote creditNote) {
 		String subject = "";
 		String body = "";
-		String quertStr = "SELECT m FROM MailThemeTemplates m WHERE m.moduleId=7 and m.templateEnable=true";
-
-		Query query = entityManager.createQuery(quertStr);
-
-		MailThemeTemplates creditNoteEmailBody =(MailThemeTemplates) query.getSingleResult();
+		MailThemeTemplates creditNoteEmailBody = mailTemplateCache.getActiveTemplate(7);
 		Map<String, String> map = null;
 		Contact contact = null;
 		Currency currency = null;
@@ -969,8 +809,6 @@ public class InvoiceRestHelper {
 			map = getCNData(contact, userId,creditNote);
 		}
 		String content = "";
-		String htmlText="";
-		String htmlContent="";
 
 		String amountInWords = "-";
 		String vatInWords = "-";
@@ -980,56 +818,39 @@ public class InvoiceRestHelper {
 
 		if (postingRequestModel != null && postingRequestModel.getVatInWords() != null)
 			vatInWords = postingRequestModel.getVatInWords();
+		map.put(TEMPLATE_PLACEHOLDER_AMOUNT_IN_WORDS, amountInWords);
+		map.put(TEMPLATE_PLACEHOLDER_VAT_IN_WORDS, vatInWords);
+		boolean withProduct = creditNote.getInvoiceId() != null && creditNote.getIsCNWithoutProduct() == Boolean.FALSE;
 		try {
-			String emailBody=creditNoteEmailBody.getPath();
-			byte[] bodyData = null;
-			if(creditNote.getInvoiceId()!=null && creditNote.getIsCNWithoutProduct()==Boolean.FALSE) {
-			 bodyData = Files.readAllBytes(Paths.get(resourceLoader.getResource(CLASSPATH_PREFIX + emailBody).getURI()));
-			}
-			else{
-				bodyData = Files.readAllBytes(Paths.get(resourceLoader.getResource(CLASSPATH_PREFIX +CN_WITHOUT_PRODUCT).getURI()));
-			}
-			byte[] contentData = Files.readAllBytes(Paths.get(  resourceLoader.getResource(CLASSPATH_PREFIX+CN_TEMPLATE).getURI()));
-
-			htmlText = new String(bodyData, StandardCharsets.UTF_8).replace(TEMPLATE_PLACEHOLDER_AMOUNT_IN_WORDS,amountInWords).replace(TEMPLATE_PLACEHOLDER_VAT_IN_WORDS,vatInWords);;
-
-			if(creditNote.getInvoiceId()!=null && creditNote.getIsCNWithoutProduct()==Boolean.FALSE) {
-				htmlContent = new String(contentData, StandardCharsets.UTF_8).replace(TEMPLATE_PLACEHOLDER_CURRENCY, currency.getCurrencyIsoCode())
-						.replace(TEMPLATE_PLACEHOLDER_AMOUNT_IN_WORDS, amountInWords)
-						.replace("{message}", message)
-						.replace(TEMPLATE_PLACEHOLDER_VAT_IN_WORDS, vatInWords);
-			}
-			else {
-				htmlContent = new String(contentData, StandardCharsets.UTF_8).replace(TEMPLATE_PLACEHOLDER_CURRENCY, currency.getCurrencyIsoCode())
-						.replace(TEMPLATE_PLACEHOLDER_AMOUNT_IN_WORDS, amountInWords)
-						.replace("{message}", message)
-						.replace("{creditNoteNumber}",creditNote.getCreditNoteNumber())
-						.replace("{invoiceAmount}",creditNote.getTotalAmount().toString())
-						.replace(TEMPLATE_PLACEHOLDER_VAT_IN_WORDS, vatInWords);
+			Map<String, String> contentMap = new HashMap<>(map);
+			contentMap.put(TEMPLATE_PLACEHOLDER_CURRENCY, currency.getCurrencyIsoCode());
+			contentMap.put("{message}", mailUtility.create(map, message));
+			if (!withProduct) {
+				contentMap.put("{creditNoteNumber}", creditNote.getCreditNoteNumber());
+				contentMap.put("{invoiceAmount}", creditNote.getTotalAmount().toString());
+			}
+			content = mailUtility.create(contentMap, mailTemplateCache.getTemplate(CN_TEMPLATE));
+
+			if (creditNoteEmailBody.getTemplateBody() != null) {
+				int lineItemCount = creditNote.getCreditNoteLineItems().size();
+				if (lineItemCount > 1) {
+					body = mailUtility.create(map, updateCreditNoteLineItem(lineItemCount, creditNoteEmailBody));
+				} else {
+					body = mailUtility.create(map, mailTemplateCache
+							.getTemplate(withProduct ? creditNoteEmailBody.getPath() : CN_WITHOUT_PRODUCT));
+				}
 			}
-
-		} catch (IOException e) {
+		} catch (UncheckedIOException e) {
 			logger.error(ERROR_PROCESSING_INVOICE, e);
 		}
 
-			if (!StringUtils.isEmpty(htmlContent)) {
-				content = mailUtility.create(map, htmlContent);
-			}
-		if (invoice!=null && creditNoteEmailBody != null && creditNoteEmailBody.getTemplateSubject() != null && creditNote.getIsCNWithoutProduct()==Boolean.FALSE) {
+		if (invoice!=null && creditNoteEmailBody.getTemplateSubject() != null && creditNote.getIsCNWithoutProduct()==Boolean.FALSE) {
 			subject = mailUtility.create(map, creditNoteEmailBody.getTemplateSubject());
 		}
 		else{
 			subject = "CREDIT NOTE-"+creditNote.getCreditNoteNumber();
 		}
 
-		if (creditNoteEmailBody != null && creditNoteEmailBody.getTemplateBody() != null) {
-			if (creditNote!=null && creditNote.getCreditNoteLineItems().size()>1){
-				body = mailUtility.create(map, updateCreditNoteLineItem(creditNote.getCreditNoteLineItems().size(),creditNoteEmailBody));
-			}
-			else {
-				body = mailUtility.create(map,htmlText );
-			}
-		}
 		if(invoice!=null) {
 			body = getTaxableSummaryString(invoice, body)
 					.replace(TEMPLATE_PLACEHOLDER_AMOUNT_IN_WORDS, amountInWords)
@@ -1037,9 +858,6 @@ public class InvoiceRestHelper {
 		}
 
 		if (contact!= null && contact.getBillingEmail() != null && !contact.getBillingEmail().isEmpty()) {
-			mailUtility.triggerEmailOnBackground2(subject, content,body, null, EmailConstant.ADMIN_SUPPORT_EMAIL,
-					EmailConstant.ADMIN_EMAIL_SENDER_NAME, new String[] { contact.getBillingEmail() },
-					true);
 			EmailLogs emailLogs = new EmailLogs();
 			emailLogs.setEmailDate(LocalDateTime.now());
 			emailLogs.setEmailTo(contact.getBillingEmail());
@@ -1052,13 +870,15 @@ public class InvoiceRestHelper {
 					.toUriString();
 			System.out.println(baseUrl);
 			emailLogs.setBaseUrl(baseUrl);
-			emaiLogsService.persist(emailLogs);
+			mailUtility.triggerEmailOnBackground2(subject, content,body, null, EmailConstant.ADMIN_SUPPORT_EMAIL,
+					EmailConstant.ADMIN_EMAIL_SENDER_NAME, new String[] { contact.getBillingEmail() },
+					true, emailLogs);
 		} else {
 			logger.info("BILLING ADDRESS NOT PRESENT");
 		}
 	}
 
-	private String updateInvoiceLineItem(int size, MailThemeTemplates invoiceEmailBody) {
+	private MailTemplate updateInvoiceLineItem(int size, MailThemeTemplates invoiceEmailBody) {
 
 		String productRow="<tr><td style=\"word-wrap: break-word; width: 25%;max-width:20px;\"><b>{product} </b><br> {description}</td><td style=\"text-align:center\">{quantity}</td><td style=\"text-align:center\">{unitType}</td><td style=\"text-align:right\">{unitPrice}</td><td style=\"text-align:right\">{discount}</td><td style=\"text-align:center\">{invoiceLineItemExciseTax}</td><td style=\"text-align:right\">{exciseAmount}</td><td style=\"text-align:center\">{vatType}</td><td style=\"text-align:right\">{invoiceLineItemVatAmount}</td><td style=\"text-align:right\">{subTotal}</td></tr>" ;
 		StringBuilder productRowBuilder = new StringBuilder(productRow);
@@ -1077,28 +897,18 @@ public class InvoiceRestHelper {
 					"</tr>");
 		}
 
-			String htmlText="";
-
-		try {
-			byte[] bodyData = Files.readAllBytes(Paths.get(resourceLoader.getResource(CLASSPATH_PREFIX+invoiceEmailBody.getPath()).getURI()));
-
-			htmlText = new String(bodyData, StandardCharsets.UTF_8);
-
-		} catch (IOException e) {
-			logger.error(ERROR_PROCESSING_INVOICE, e);
-		}
-
-		//Adding product details html content
-		StringBuilder emailBodyBuilder = new StringBuilder();
-		emailBodyBuilder.append(htmlText.substring(0,htmlText.indexOf(productRow)+1));
-		emailBodyBuilder.append(productRowBuilder.toString());
-		emailBodyBuilder.append(htmlText.substring(htmlText.indexOf(productRow)+1+productRow.length(),htmlText.length()));
-			log.info(emailBodyBuilder.toString());
-
-		return emailBodyBuilder.toString();
+		String productRows = productRowBuilder.toString();
+		return mailTemplateCache.getTemplate(invoiceEmailBody.getPath(), "invoiceLineItems" + size, htmlText -> {
+			//Adding product details html content
+			StringBuilder emailBodyBuilder = new StringBuilder();
+			emailBodyBuilder.append(htmlText.substring(0,htmlText.indexOf(productRow)+1));
+			emailBodyBuilder.append(productRows);
+			emailBodyBuilder.append(htmlText.substring(htmlText.indexOf(productRow)+1+productRow.length(),htmlText.length()));
+			return emailBodyBuilder.toString();
+		});
 	}
 
-	private String updateCreditNoteLineItem(int size, MailThemeTemplates invoiceEmailBody) {
+	private MailTemplate updateCreditNoteLineItem(int size, MailThemeTemplates invoiceEmailBody) {
 
 		String productRow="<tr><td style=\"word-wrap: break-word; width: 25%;max-width:20px;\"><b>{Cn_product} </b><br> {cnDescription}</td><td style=\"text-align:center\">{Cnquantity}</td><td style=\"text-align:center\">{CnunitType}</td><td style=\"text-align:right\">{cnUnitPrice}</td><td style=\"text-align:right\">{Cndiscount}</td><td style=\"text-align:center\">{CnLineItemExciseTax}</td><td style=\"text-align:right\">{CnexciseAmount}</td><td style=\"text-align:center\">{CnvatType}</td><td style=\"text-align:right\">{CnVatAmount}</td><td style=\"text-align:right\">{CnsubTotal}</td></tr>" ;
 		StringBuilder productRowBuilder = new StringBuilder(productRow);
@@ -1116,23 +926,16 @@ public class InvoiceRestHelper {
 					"<td style=\"text-align:right\">{CnsubTotal"+row+"}</td>" +
 					"</tr>");
 		}
-		String htmlText="";
-
-		try {
-			byte[] bodyData = Files.readAllBytes(Paths.get(resourceLoader.getResource(CLASSPATH_PREFIX+invoiceEmailBody.getPath()).getURI()));
-
-			htmlText = new String(bodyData, StandardCharsets.UTF_8);
 
-		} catch (IOException e) {
-			logger.error(ERROR_PROCESSING_INVOICE, e);
-		}
-		//Adding product details html content
-		StringBuilder emailBodyBuilder = new StringBuilder();
-		emailBodyBuilder.append(htmlText.substring(0,htmlText.indexOf(productRow)+1));
-		emailBodyBuilder.append(productRowBuilder.toString());
-		emailBodyBuilder.append(htmlText.substring(htmlText.indexOf(productRow)+1+productRow.length(),htmlText.length()));
-		log.info(emailBodyBuilder.toString());
-		return emailBodyBuilder.toString();
+		String productRows = productRowBuilder.toString();
+		return mailTemplateCache.getTemplate(invoiceEmailBody.getPath(), "creditNoteLineItems" + size, htmlText -> {
+			//Adding product details html content
+			StringBuilder emailBodyBuilder = new StringBuilder();
+			emailBodyBuilder.append(htmlText.substring(0,htmlText.indexOf(productRow)+1));
+			emailBodyBuilder.append(productRows);
+			emailBodyBuilder.append(htmlText.substring(htmlText.indexOf(productRow)+1+productRow.length(),htmlText.length()));
+			return emailBodyBuilder.toString();
+		});
 	}
 	public Map<String, String> getInvoiceData(Invoice invoice, Integer userId) {
 		Map<String, String> map = mailUtility.getInvoiceEmailParamMap();
@@ -2875,9 +2678,10 @@ public class InvoiceRestHelper {
 								if(Boolean.TRUE.equals(product.getIsInventoryEnabled()))
 								{
 									if(lineItem.getInvoice().getType() ==2){
-										handleCustomerInvoiceInventory(lineItem);
+										inventoryLedger.issue(lineItem);
 									}
-									else {					handleSupplierInvoiceInventory(lineItem,product,lineItem.getInvoice().getContact(),userId);
+									else {
+										inventoryLedger.receive(lineItem,product,lineItem.getInvoice().getContact(),userId);
 				}
 			}
 				if (isCustomerInvoice)
@@ -2975,14 +2779,18 @@ public class InvoiceRestHelper {
 		return customizeInvoiceTemplateResponseModdelList;
 	}
 	public Boolean doesInvoiceNumberExist(String referenceNumber){
-		Map<String, Object> attribute = new HashMap<>();
-		attribute.put("referenceNumber", referenceNumber);
-		attribute.put("deleteFlag",false);
-		List<Invoice> invoiceList = invoiceService.findByAttributes(attribute);
-		if (invoiceList.isEmpty()){
-			return false;
-		}
-		return true;
+		return referenceNumber != null && invoiceService.isReferenceNumberInUse(referenceNumber);
+	}
+
+	/**
+	 * Locks the numbering of the invoice type before checking, so in a transaction that goes on to save the invoice
+	 * no concurrent save can take the same number between the check and the insert.
+	 */
+	public Boolean doesInvoiceNumberExist(String referenceNumber, String invoiceType){
+		if (invoiceType != null && !invoiceType.isEmpty()) {
+			customizeInvoiceTemplateService.lockInvoiceTemplate(Integer.parseInt(invoiceType));
+		}
+		return doesInvoiceNumberExist(referenceNumber);
 	}
 
 	private void getPostZipCode(Invoice invoice, Map<String, String> invoiceDataMap, String value) {
@@ -10,5 +10,7 @@ public class DataMigrationRespModel {
     private Long recordCount;
     private Long recordsMigrated;
     private Long recordsRemoved;
+    private Long durationMillis;
+    private Double recordsPerSecond;
 
 }
@@ -18,6 +18,7 @@ import com.simpleaccounts.rest.payroll.model.GeneratePayrollPersistModel;
 import com.simpleaccounts.rest.payroll.model.PayrolRequestModel;
 import com.simpleaccounts.rest.payroll.model.PayrollEmployeeModel;
 import com.simpleaccounts.rest.payroll.model.PayrollListModel;
+import com.simpleaccounts.rest.payroll.model.PayslipJobModel;
 import com.simpleaccounts.rest.payroll.payrolService.PayrolService;
 import com.simpleaccounts.rest.payroll.service.SalaryComponentService;
 import com.simpleaccounts.rest.payroll.service.SalaryRoleService;
@@ -107,6 +108,7 @@ public class PayrollController {
     private final TransactionCategoryBalanceService transactionCategoryBalanceService;
     private final PayrollEmployeeRepository payrollEmployeeRepository;
     private final SalaryComponentRepository salaryComponentRepository;
+    private final PayslipJobRunner payslipJobRunner;
 
     @LogRequest
     @Transactional(rollbackFor = Exception.class)
@@ -979,6 +981,17 @@ public class PayrollController {
         }
     }
 
+    @LogRequest
+    @ApiOperation(value = "Get progress of the payslips sent on approval")
+    @GetMapping(value = "/getPayslipProgress")
+    public ResponseEntity<PayslipJobModel> getPayslipProgress(@RequestParam(value = "payrollId") Integer payrollId) {
+        PayslipJobModel progress = payslipJobRunner.getProgress(payrollId);
+        if (progress == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(progress, HttpStatus.OK);
+    }
+
     /**
      * Payroll Void Journal Reverse Entry
      *
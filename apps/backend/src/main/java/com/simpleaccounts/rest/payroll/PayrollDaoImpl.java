@@ -27,9 +27,6 @@ public class PayrollDaoImpl extends AbstractDao<Integer, Payroll> implements Pay
                    .condition(productFilter.getCondition()).value(value).build()));
    paginationModel.setSortingCol(
            datatableUtil.getColName(paginationModel.getSortingCol(), DatatableSortingFilterConstant.PAYROLL));
-   PaginationResponseModel response = new PaginationResponseModel();
-   response.setCount(this.getResultCount(dbFilters));
-   response.setData(this.executeQuery(dbFilters, paginationModel));
-   return response;
+   return this.executeQueryWithCount(dbFilters, paginationModel);
   }
 }
\ No newline at end of file
@@ -5,12 +5,10 @@ import static com.simpleaccounts.rest.invoicecontroller.HtmlTemplateConstants.*;
 import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.RequiredArgsConstructor;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.simpleaccounts.constant.DefaultTypeConstant;
 import com.simpleaccounts.constant.EmailConstant;
 import com.simpleaccounts.constant.PostingReferenceTypeEnum;
 import com.simpleaccounts.entity.*;
 import com.simpleaccounts.entity.SalaryComponent;
-import com.simpleaccounts.entity.bankaccount.TransactionCategory;
 import com.simpleaccounts.model.EmployeeBankDetailsPersistModel;
 import com.simpleaccounts.model.EmploymentPersistModel;
 import com.simpleaccounts.repository.*;
@@ -25,7 +23,6 @@ import com.simpleaccounts.rest.payroll.model.PayrollListModel;
 import com.simpleaccounts.rest.payroll.payrolService.PayrolService;
 import com.simpleaccounts.rest.payroll.service.*;
 import com.simpleaccounts.service.*;
-import com.simpleaccounts.service.bankaccount.ChartOfAccountService;
 import com.simpleaccounts.utils.DateFormatUtil;
 import com.simpleaccounts.utils.EmailSender;
 import com.simpleaccounts.utils.InvoiceNumberUtil;
@@ -63,17 +60,13 @@ public class PayrollRestHepler {
     private final EmployeeBankDetailsService employeeBankDetailsService;
     private final RoleModuleRelationService roleModuleRelationService;
 
-    private final CoacTransactionCategoryService coacTransactionCategoryService;
-    private final ChartOfAccountService chartOfAccountService;
     private final JournalService journalService;
-    private final EmployeeTransactioncategoryService employeeTransactioncategoryService;
     private final CustomizeInvoiceTemplateService customizeInvoiceTemplateService;
     private final InvoiceNumberUtil invoiceNumberUtil;
     private final EmployeeSalaryComponentRelationService employeeSalaryComponentRelationService;
 
     private final EmploymentService employmentService;
 
-    private final TransactionCategoryService transactionCategoryService;
     private final SalaryService salaryService;
 
     private final SalaryRoleService salaryRoleService;
@@ -109,7 +102,7 @@ public class PayrollRestHepler {
 
     private final JournalLineItemRepository journalLineItemRepository;
 
-    private final SalaryController salaryController;
+    private final PayrollRunEngine payrollRunEngine;
     private final PayrollEmployeeRepository payrollEmployeeRepository;
     private final EmployeeSalaryComponentRelationRepository employeeSalaryComponentRelationRepository;
 
@@ -1263,6 +1256,8 @@ public class PayrollRestHepler {
             }
 
             BigDecimal totalPayrollAmount = BigDecimal.ZERO;
+            Payroll salaryPayroll = payrollRepository.findById(payroll.getId());
+            List<Salary> salaries = new ArrayList<>();
 
         for (GeneratePayrollPersistModel model:generatePayrollPersistModels) {
 
@@ -1288,7 +1283,7 @@ public class PayrollRestHepler {
                     salary.setType(0);
                     salary.setNoOfDays(model.getNoOfDays());
                     salary.setLopDays(model.getLopDay());
-                    salary.setPayrollId(payrollRepository.findById(payroll.getId()));
+                    salary.setPayrollId(salaryPayroll);
 
                     if (payrolRequestModel.getSalaryDate() != null) {
                         Instant instant = Instant.ofEpochMilli(payrolRequestModel.getSalaryDate().getTime());
@@ -1296,7 +1291,7 @@ public class PayrollRestHepler {
                                 ZoneId.systemDefault());
                         salary.setSalaryDate(salaryDate);}
                     salary.setTotalAmount(salaryAsPerNoOfWorkingDays);
-                    salaryService.persist(salary);
+                    salaries.add(salary);
                     if (!Objects.equals(salaryComponent.getSalaryStructure().getId(), PayrollEnumConstants.Deduction.getId())){
                           totalSalary = totalSalary.add(salaryAsPerNoOfWorkingDays);
                     }
@@ -1309,7 +1304,7 @@ public class PayrollRestHepler {
                 salary.setNoOfDays(model.getNoOfDays());
                 salary.setLopDays(model.getLopDay());
                 salary.setType(1);
-                salary.setPayrollId(payrollRepository.findById(payroll.getId()));
+                salary.setPayrollId(salaryPayroll);
 
             if (payrolRequestModel.getSalaryDate() != null) {
                 Instant instant = Instant.ofEpochMilli(payrolRequestModel.getSalaryDate().getTime());
@@ -1317,10 +1312,11 @@ public class PayrollRestHepler {
                         ZoneId.systemDefault());
                 salary.setSalaryDate(salaryDate);}
                 salary.setTotalAmount(totalSalary);
-                salaryService.persist(salary);
+                salaries.add(salary);
             totalPayrollAmount = totalPayrollAmount.add(totalSalary);
         }
 
+            salaryService.persistAll(salaries);
             empCount= payrolRequestModel.getEmployeeListIds().size();
             payroll.setStatus("Draft");
             payroll.setEmployeeCount(empCount);
@@ -1387,129 +1383,7 @@ public class PayrollRestHepler {
     }
     @Transactional(rollbackFor = Exception.class)
     public void generatePayroll(User user, Integer payrollId,String startDate,String endDate,HttpServletRequest request,List<Integer> payrollEmployeesIdsListToSendMail) {
-
-        Map<String, Object> paramSalary = new HashMap<>();
-        paramSalary.put("payrollId", payrollId);
-        List<Salary> salaryList = salaryService.findByAttributes(paramSalary);
-        BigDecimal totalSalary =null;
-        Payroll payroll = payrollRepository.findById(payrollId);
-        if (salaryList != null && !salaryList.isEmpty()) {
-            for (Salary salary : salaryList) {
-                Employee employee = salary.getEmployeeId();
-                if (salary.getType() == 1){
-                    totalSalary=salary.getTotalAmount();
-                    Map<String, Object> CategoryParam = new HashMap<>();
-                CategoryParam.put("transactionCategoryName", "Payroll Liability");
-                List<TransactionCategory> payrollTransactionCategoryList = transactionCategoryService.findByAttributes(CategoryParam);
-
-                if (payrollTransactionCategoryList != null && !payrollTransactionCategoryList.isEmpty()) {
-
-                    List<JournalLineItem> journalLineItemList = new ArrayList<>();
-                    Journal journal = new Journal();
-                    JournalLineItem journalLineItem1 = new JournalLineItem();
-                    journalLineItem1.setTransactionCategory(payrollTransactionCategoryList.get(0));
-                    journalLineItem1.setCreditAmount(totalSalary);
-                    journalLineItem1.setReferenceType(PostingReferenceTypeEnum.PAYROLL_APPROVED);
-                    journalLineItem1.setCreatedBy(user.getUserId());
-                    journalLineItem1.setJournal(journal);
-                    journalLineItem1.setReferenceId(payrollId);
-                    journalLineItemList.add(journalLineItem1);
-                    Map<String, Object> employeeCategoryParam = new HashMap<>();
-                    employeeCategoryParam.put("employee", employee.getId());
-                    List<EmployeeTransactionCategoryRelation> employeeTransactionCategoryList = employeeTransactioncategoryService.findByAttributes(employeeCategoryParam);
-                    TransactionCategory transactionCategoryForSalaryWages = employeeTransactionCategoryList.get(1).getTransactionCategory();
-                    JournalLineItem journalLineItem2 = new JournalLineItem();
-                    journalLineItem2.setTransactionCategory(transactionCategoryForSalaryWages);
-                    journalLineItem2.setDebitAmount(totalSalary);
-                    journalLineItem2.setReferenceType(PostingReferenceTypeEnum.PAYROLL_APPROVED);
-                    journalLineItem2.setCreatedBy(user.getUserId());
-                    journalLineItem2.setJournal(journal);
-                    journalLineItem2.setReferenceId(payrollId);
-                    journalLineItemList.add(journalLineItem2);
-                    journal.setJournalLineItems(journalLineItemList);
-                    journal.setCreatedBy(user.getUserId());
-                    journal.setPostingReferenceType(PostingReferenceTypeEnum.PAYROLL_APPROVED);
-                    journal.setJournalDate(payroll.getPayrollDate().toLocalDate());
-                    journal.setTransactionDate(LocalDateTime.now().toLocalDate());
-                    if (payroll.getPayrollSubject()!=null){
-                        journal.setDescription(payroll.getPayrollSubject());
-                    }
-                    journalService.persist(journal);
-                    payroll.setStatus("Approved");
-                    payroll.setPayrollApprover(user.getUserId());
-                    payroll.setRunDate(LocalDateTime.now());
-                    payrollRepository.save(payroll);
-
-                } else {
-                    TransactionCategory finalPayrolltransactionCategory = new TransactionCategory();
-                    finalPayrolltransactionCategory.setChartOfAccount(chartOfAccountService.findByPK(13));
-                    finalPayrolltransactionCategory.setSelectableFlag(Boolean.FALSE);
-                    finalPayrolltransactionCategory.setTransactionCategoryCode("02-02-016");
-                    finalPayrolltransactionCategory.setTransactionCategoryName("Payroll Liability");
-                    finalPayrolltransactionCategory.setTransactionCategoryDescription("Other Liability");
-                    //ParentTransactionCategory null
-                    finalPayrolltransactionCategory.setCreatedDate(LocalDateTime.now());
-                    finalPayrolltransactionCategory.setCreatedBy(user.getUserId());
-                    finalPayrolltransactionCategory.setEditableFlag(false);
-                    finalPayrolltransactionCategory.setSelectableFlag(true);
-                    finalPayrolltransactionCategory.setDefaltFlag(DefaultTypeConstant.NO);
-                    finalPayrolltransactionCategory.setVersionNumber(1);
-                    transactionCategoryService.persist(finalPayrolltransactionCategory);
-                    CoacTransactionCategory coacTransactionCategoryRelation = new CoacTransactionCategory();
-                    coacTransactionCategoryService.addCoacTransactionCategory(finalPayrolltransactionCategory.getChartOfAccount(), finalPayrolltransactionCategory);
-
-                    Map<String, Object> payrollCategoryParam = new HashMap<>();
-                    payrollCategoryParam.put("transactionCategoryName", "Payroll Liability");
-                    List<TransactionCategory> payrollList = transactionCategoryService.findByAttributes(payrollCategoryParam);
-
-                    List<JournalLineItem> journalLineItemList = new ArrayList<>();
-                    Journal journal = new Journal();
-                    JournalLineItem journalLineItem1 = new JournalLineItem();
-                    journalLineItem1.setTransactionCategory(payrollList.get(0));
-                    journalLineItem1.setCreditAmount(totalSalary);
-                    journalLineItem1.setReferenceType(PostingReferenceTypeEnum.PAYROLL_APPROVED);
-                    journalLineItem1.setCreatedBy(user.getUserId());
-                    journalLineItem1.setJournal(journal);
-                    journalLineItem1.setReferenceId(payrollId);
-                    journalLineItemList.add(journalLineItem1);
-                    Map<String, Object> employeeCategoryParam = new HashMap<>();
-                    employeeCategoryParam.put("employee", employee.getId());
-                    List<EmployeeTransactionCategoryRelation> employeeTransactionCategoryList = employeeTransactioncategoryService.findByAttributes(employeeCategoryParam);
-                    TransactionCategory transactionCategoryForSalaryWages = employeeTransactionCategoryList.get(1).getTransactionCategory();
-                    JournalLineItem journalLineItem2 = new JournalLineItem();
-                    journalLineItem2.setTransactionCategory(transactionCategoryForSalaryWages);
-                    journalLineItem2.setDebitAmount(totalSalary);
-                    journalLineItem2.setReferenceType(PostingReferenceTypeEnum.PAYROLL_APPROVED);
-                    journalLineItem2.setCreatedBy(user.getUserId());
-                    journalLineItem2.setJournal(journal);
-                    journalLineItem2.setReferenceId(payrollId);
-                    journalLineItemList.add(journalLineItem2);
-                    journal.setJournalLineItems(journalLineItemList);
-                    journal.setCreatedBy(user.getUserId());
-                    journal.setPostingReferenceType(PostingReferenceTypeEnum.PAYROLL_APPROVED);
-                    journal.setJournalDate(payroll.getPayrollDate().toLocalDate());
-                    journal.setTransactionDate(LocalDateTime.now().toLocalDate());
-                    if (payroll.getPayrollSubject()!=null){
-                        journal.setDescription(payroll.getPayrollSubject());
-                    }
-                    journalService.persist(journal);
-                    payroll.setStatus("Approved");
-                    payroll.setPayrollApprover(user.getUserId());
-                    payroll.setRunDate(LocalDateTime.now());
-                    payrollRepository.save(payroll);
-
-                }
-
-                    /**
-                     * On Payroll Approval Payslip will be sent to employee email
-                     */
-              }
-            }
-        }
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_FORMAT_DD_MM_YYYY);
-        for(Integer employeeId :payrollEmployeesIdsListToSendMail) {
-            salaryController.getSalariesByEmployeeId(employeeId, payroll.getPayrollDate().format(formatter).replace("-", "/"), startDate, endDate, true, request);
-        }
+        payrollRunEngine.approveAndRun(user, payrollId, startDate, endDate, payrollEmployeesIdsListToSendMail);
     }
 
     public void rejectPayroll(User user, Integer payrollId,String comment,HttpServletRequest request) {
@@ -0,0 +1,183 @@
+package com.simpleaccounts.rest.payroll;
+
+import com.simpleaccounts.constant.DefaultTypeConstant;
+import com.simpleaccounts.constant.PostingReferenceTypeEnum;
+import com.simpleaccounts.entity.Journal;
+import com.simpleaccounts.entity.JournalLineItem;
+import com.simpleaccounts.entity.Payroll;
+import com.simpleaccounts.entity.Salary;
+import com.simpleaccounts.entity.User;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.repository.PayrollRepository;
+import com.simpleaccounts.rest.payroll.service.SalaryService;
+import com.simpleaccounts.service.CoacTransactionCategoryService;
+import com.simpleaccounts.service.EmployeeTransactioncategoryService;
+import com.simpleaccounts.service.JournalService;
+import com.simpleaccounts.service.TransactionCategoryService;
+import com.simpleaccounts.service.bankaccount.ChartOfAccountService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Approves a payroll and posts its salary journals.
+ *
+ * The payroll liability category and the salary categories of all employees are loaded once, the journals of all
+ * employees are posted together through {@link JournalService#postJournals(List)}, and the payslips are handed to
+ * the {@link PayslipJobRunner} once the postings are committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class PayrollRunEngine {
+
+    static final String PAYROLL_LIABILITY = "Payroll Liability";
+
+    private static final int SALARY_TYPE_TOTAL = 1;
+
+    private static final int SALARY_CATEGORY_INDEX = 1;
+
+    private final SalaryService salaryService;
+
+    private final PayrollRepository payrollRepository;
+
+    private final TransactionCategoryService transactionCategoryService;
+
+    private final ChartOfAccountService chartOfAccountService;
+
+    private final CoacTransactionCategoryService coacTransactionCategoryService;
+
+    private final EmployeeTransactioncategoryService employeeTransactioncategoryService;
+
+    private final JournalService journalService;
+
+    private final PayslipJobRunner payslipJobRunner;
+
+    /**
+     * Posts a journal per employee crediting the payroll liability and debiting the salary category of the
+     * employee, marks the payroll approved and queues the payslips of the given employees.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void approveAndRun(User user, Integer payrollId, String startDate, String endDate,
+                              List<Integer> employeeIdsToMail) {
+        Map<String, Object> paramSalary = new HashMap<>();
+        paramSalary.put("payrollId", payrollId);
+        List<Salary> salaryList = salaryService.findByAttributes(paramSalary);
+        Payroll payroll = payrollRepository.findById(payrollId);
+
+        List<Salary> totals = new ArrayList<>();
+        Set<Integer> employeeIds = new LinkedHashSet<>();
+        if (salaryList != null) {
+            for (Salary salary : salaryList) {
+                if (salary.getType() != null && salary.getType() == SALARY_TYPE_TOTAL) {
+                    totals.add(salary);
+                    employeeIds.add(salary.getEmployeeId().getId());
+                }
+            }
+        }
+        if (!totals.isEmpty()) {
+            TransactionCategory payrollLiability = getPayrollLiability(user);
+            Map<Integer, List<TransactionCategory>> employeeCategories =
+                    employeeTransactioncategoryService.getTransactionCategoriesByEmployeeIds(employeeIds);
+            LocalDate journalDate = payroll.getPayrollDate().toLocalDate();
+            LocalDate transactionDate = LocalDate.now();
+
+            List<Journal> journals = new ArrayList<>(totals.size());
+            for (Salary salary : totals) {
+                Integer employeeId = salary.getEmployeeId().getId();
+                List<TransactionCategory> categories =
+                        employeeCategories.getOrDefault(employeeId, Collections.emptyList());
+                if (categories.size() <= SALARY_CATEGORY_INDEX) {
+                    throw new IllegalStateException("Employee " + employeeId + " has no salary transaction category");
+                }
+                Journal journal = new Journal();
+                List<JournalLineItem> journalLineItemList = new ArrayList<>();
+                journalLineItemList.add(createLineItem(journal, payrollLiability, payrollId, user, salary.getTotalAmount(), false));
+                journalLineItemList.add(createLineItem(journal, categories.get(SALARY_CATEGORY_INDEX), payrollId, user,
+                        salary.getTotalAmount(), true));
+                journal.setJournalLineItems(journalLineItemList);
+                journal.setCreatedBy(user.getUserId());
+                journal.setPostingReferenceType(PostingReferenceTypeEnum.PAYROLL_APPROVED);
+                journal.setJournalDate(journalDate);
+                journal.setTransactionDate(transactionDate);
+                if (payroll.getPayrollSubject() != null) {
+                    journal.setDescription(payroll.getPayrollSubject());
+                }
+                journals.add(journal);
+            }
+            journalService.postJournals(journals);
+
+            payroll.setStatus("Approved");
+            payroll.setPayrollApprover(user.getUserId());
+            payroll.setRunDate(LocalDateTime.now());
+            payrollRepository.save(payroll);
+        }
+
+        String salaryDate = payroll.getPayrollDate().format(DateTimeFormatter.ofPattern("dd-MM-yyyy")).replace("-", "/");
+        Runnable sendPayslips = () -> payslipJobRunner.submit(payrollId, user.getUserId(), employeeIdsToMail, salaryDate,
+                startDate, endDate);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    sendPayslips.run();
+                }
+            });
+        } else {
+            sendPayslips.run();
+        }
+    }
+
+    private TransactionCategory getPayrollLiability(User user) {
+        Map<String, Object> categoryParam = new HashMap<>();
+        categoryParam.put("transactionCategoryName", PAYROLL_LIABILITY);
+        List<TransactionCategory> payrollTransactionCategoryList = transactionCategoryService.findByAttributes(categoryParam);
+        if (payrollTransactionCategoryList != null && !payrollTransactionCategoryList.isEmpty()) {
+            return payrollTransactionCategoryList.get(0);
+        }
+        TransactionCategory payrollLiability = new TransactionCategory();
+        payrollLiability.setChartOfAccount(chartOfAccountService.findByPK(13));
+        payrollLiability.setTransactionCategoryCode("02-02-016");
+        payrollLiability.setTransactionCategoryName(PAYROLL_LIABILITY);
+        payrollLiability.setTransactionCategoryDescription("Other Liability");
+        payrollLiability.setCreatedDate(LocalDateTime.now());
+        payrollLiability.setCreatedBy(user.getUserId());
+        payrollLiability.setEditableFlag(false);
+        payrollLiability.setSelectableFlag(true);
+        payrollLiability.setDefaltFlag(DefaultTypeConstant.NO);
+        payrollLiability.setVersionNumber(1);
+        transactionCategoryService.persist(payrollLiability);
+        coacTransactionCategoryService.addCoacTransactionCategory(payrollLiability.getChartOfAccount(), payrollLiability);
+        return payrollLiability;
+    }
+
+    private JournalLineItem createLineItem(Journal journal, TransactionCategory category, Integer payrollId, User user,
+                                           BigDecimal amount, boolean debit) {
+        JournalLineItem journalLineItem = new JournalLineItem();
+        journalLineItem.setTransactionCategory(category);
+        if (debit) {
+            journalLineItem.setDebitAmount(amount);
+        } else {
+            journalLineItem.setCreditAmount(amount);
+        }
+        journalLineItem.setReferenceType(PostingReferenceTypeEnum.PAYROLL_APPROVED);
+        journalLineItem.setReferenceId(payrollId);
+        journalLineItem.setCreatedBy(user.getUserId());
+        journalLineItem.setJournal(journal);
+        return journalLineItem;
+    }
+}
@@ -0,0 +1,153 @@
+package com.simpleaccounts.rest.payroll;
+
+import com.simpleaccounts.entity.User;
+import com.simpleaccounts.rest.payroll.model.PayslipJobModel;
+import com.simpleaccounts.rest.payroll.service.SalaryService;
+import com.simpleaccounts.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds and mails the payslips of an approved payroll in the background, one employee at a time, so approving a
+ * payroll does not wait for a payslip per employee. Each payslip is built in its own transaction, and an employee
+ * whose payslip fails is counted and skipped. The progress of the latest runs is kept in memory.
+ */
+@Slf4j
+@Component
+public class PayslipJobRunner implements DisposableBean {
+
+    public static final String STATUS_QUEUED = "Queued";
+    public static final String STATUS_RUNNING = "Running";
+    public static final String STATUS_COMPLETED = "Completed";
+
+    private final SalaryService salaryService;
+
+    /**
+     * Looked up when the first payslip is sent, because the helper depends on beans that depend on the payroll
+     * helper approving the payroll.
+     */
+    private final ObjectProvider<SalaryRestHelper> salaryRestHelper;
+
+    private final UserService userService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("payslip-"));
+
+    private final Map<Integer, PayslipJobModel> jobs;
+
+    public PayslipJobRunner(SalaryService salaryService, ObjectProvider<SalaryRestHelper> salaryRestHelper, UserService userService,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${simpleaccounts.payroll.payslip-jobs-kept:100}") int jobsKept) {
+        this.salaryService = salaryService;
+        this.salaryRestHelper = salaryRestHelper;
+        this.userService = userService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobs = new LinkedHashMap<Integer, PayslipJobModel>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, PayslipJobModel> eldest) {
+                return size() > Math.max(jobsKept, 1);
+            }
+        };
+    }
+
+    /**
+     * Queues the payslips of a payroll run.
+     *
+     * @param salaryDate payroll date as dd/MM/yyyy, see {@link SalaryService#getSalaryByEmployeeId}
+     */
+    public PayslipJobModel submit(Integer payrollId, Integer userId, List<Integer> employeeIds, String salaryDate,
+                                  String startDate, String endDate) {
+        List<Integer> employees = employeeIds != null ? new ArrayList<>(employeeIds) : new ArrayList<>();
+        PayslipJobModel job = new PayslipJobModel();
+        job.setPayrollId(payrollId);
+        job.setTotal(employees.size());
+        job.setStatus(STATUS_QUEUED);
+        job.setQueuedAt(LocalDateTime.now());
+        synchronized (jobs) {
+            jobs.remove(payrollId);
+            jobs.put(payrollId, job);
+        }
+        worker.execute(() -> run(job, userId, employees, salaryDate, startDate, endDate));
+        return copy(job);
+    }
+
+    /**
+     * @return the progress of the latest payslip run of the payroll, null if none is known
+     */
+    public PayslipJobModel getProgress(Integer payrollId) {
+        synchronized (jobs) {
+            PayslipJobModel job = jobs.get(payrollId);
+            return job != null ? copy(job) : null;
+        }
+    }
+
+    private void run(PayslipJobModel job, Integer userId, List<Integer> employeeIds, String salaryDate,
+                     String startDate, String endDate) {
+        synchronized (jobs) {
+            job.setStatus(STATUS_RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+        }
+        for (Integer employeeId : employeeIds) {
+            boolean sent = false;
+            try {
+                transactionTemplate.execute(status -> {
+                    User user = userService.findByPK(userId);
+                    SalarySlipModel salarySlipModel = salaryService.getSalaryByEmployeeId(employeeId, salaryDate);
+                    salaryRestHelper.getObject().sendPayslipEmail(salarySlipModel, employeeId, startDate, endDate, user);
+                    return null;
+                });
+                sent = true;
+            } catch (RuntimeException e) {
+                log.error("Payslip of employee {} for payroll {} could not be sent", employeeId, job.getPayrollId(), e);
+            }
+            synchronized (jobs) {
+                if (sent) {
+                    job.setSent(job.getSent() + 1);
+                } else {
+                    job.setFailed(job.getFailed() + 1);
+                }
+            }
+        }
+        synchronized (jobs) {
+            job.setStatus(STATUS_COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+        }
+    }
+
+    private static PayslipJobModel copy(PayslipJobModel job) {
+        PayslipJobModel copy = new PayslipJobModel();
+        copy.setPayrollId(job.getPayrollId());
+        copy.setStatus(job.getStatus());
+        copy.setTotal(job.getTotal());
+        copy.setSent(job.getSent());
+        copy.setFailed(job.getFailed());
+        copy.setQueuedAt(job.getQueuedAt());
+        copy.setStartedAt(job.getStartedAt());
+        copy.setFinishedAt(job.getFinishedAt());
+        return copy;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        worker.shutdown();
+        if (!worker.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Payslip sending did not finish within 30 seconds, {} runs dropped", worker.shutdownNow().size());
+        }
+    }
+}
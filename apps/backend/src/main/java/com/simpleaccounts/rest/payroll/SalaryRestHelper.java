@@ -96,7 +96,7 @@ public class SalaryRestHelper {
     private final EmployeeSalaryComponentRelationService employeeSalaryComponentRelationService;
     private final ResourceLoader resourceLoader;
     private final EmailSender emailSender;
-    private final EmaiLogsService emaiLogsService;
+
     private final MailUtility mailUtility;
     private final EmployeeController employeeController;
     private final SalaryServiceImpl salaryServiceImpl;
@@ -106,6 +106,7 @@ public class SalaryRestHelper {
 
         Integer userId = jwtTokenUtil.getUserIdFromHttpRequest(request);
         User user = userService.findByPK(userId);
+        List<Salary> salaries = new ArrayList<>();
 
         Map<String, Object> CategoryParam = new HashMap<>();
 CategoryParam.put("transactionCategoryName", PAYROLL_LIABILITY);
@@ -142,7 +143,7 @@ CategoryParam.put("transactionCategoryName", PAYROLL_LIABILITY);
                     salary.setNoOfDays(salaryComponent.getNoOfDays());
                     salary.setSalaryDate(dateFormatUtil.getDateStrAsLocalDateTime(salaryPersistModel.getSalaryDate(), DATE_FORMAT_DD_SLASH_MM_SLASH_YYYY));
                     salary.setTotalAmount(salaryAsPerNoOfWorkingDays);
-                    salaryService.persist(salary);
+                    salaries.add(salary);
                     if (Objects.equals(salaryComponent.getSalaryStructure().getId(), PayrollEnumConstants.Deduction.getId())){
 
                     }
@@ -166,7 +167,7 @@ CategoryParam.put("transactionCategoryName", PAYROLL_LIABILITY);
                 salary.setType(1);
                 salary.setSalaryDate(dateFormatUtil.getDateStrAsLocalDateTime(salaryPersistModel.getSalaryDate(), DATE_FORMAT_DD_SLASH_MM_SLASH_YYYY));
                 salary.setTotalAmount(salaryForjournalEntry);
-                salaryService.persist(salary);
+                salaries.add(salary);
 
                 List<JournalLineItem> journalLineItemList = new ArrayList<>();
                 Journal journal = new Journal();
@@ -251,7 +252,7 @@ CategoryParam.put("transactionCategoryName", PAYROLL_LIABILITY);
                     salary.setNoOfDays(salaryComponent.getNoOfDays());
                     salary.setSalaryDate(dateFormatUtil.getDateStrAsLocalDateTime(salaryPersistModel.getSalaryDate(), DATE_FORMAT_DD_SLASH_MM_SLASH_YYYY));
                     salary.setTotalAmount(salaryAsPerNoOfWorkingDays);
-                    salaryService.persist(salary);
+                    salaries.add(salary);
                     if (Objects.equals(salaryComponent.getSalaryStructure().getId(), PayrollEnumConstants.Deduction.getId())){
                         salaryForjournalEntry = salaryForjournalEntry.subtract(totalSalaryForSingleDay.multiply(salaryComponent.getNoOfDays()));
                     }
@@ -272,7 +273,7 @@ CategoryParam.put("transactionCategoryName", PAYROLL_LIABILITY);
                 salary.setType(1);
                 salary.setSalaryDate(dateFormatUtil.getDateStrAsLocalDateTime(salaryPersistModel.getSalaryDate(), DATE_FORMAT_DD_SLASH_MM_SLASH_YYYY));
                 salary.setTotalAmount(salaryForjournalEntry);
-                salaryService.persist(salary);
+                salaries.add(salary);
 
                 List<JournalLineItem> journalLineItemList = new ArrayList<>();
                 Journal journal = new Journal();
@@ -305,6 +306,7 @@ CategoryParam.put("transactionCategoryName", PAYROLL_LIABILITY);
             }
         }
 
+            salaryService.persistAll(salaries);
             return "Salary generated successfully" ;
         }
 
@@ -337,7 +339,14 @@ CategoryParam.put("transactionCategoryName", PAYROLL_LIABILITY);
      */
      void sendPayslipEmail(SalarySlipModel salarySlipModel, Integer employeeId,String startDate,String endDate,HttpServletRequest request) {
          Integer userId = jwtTokenUtil.getUserIdFromHttpRequest(request);
-         User user = userService.findByPK(userId);
+         sendPayslipEmail(salarySlipModel, employeeId, startDate, endDate, userService.findByPK(userId));
+     }
+
+    /**
+     * Sends the payslip on behalf of the given user, for callers without a request such as the payslip job of a
+     * payroll run.
+     */
+     public void sendPayslipEmail(SalarySlipModel salarySlipModel, Integer employeeId,String startDate,String endDate,User user) {
          Company company = null;
          if(user!=null) {
              company = user.getCompany();
@@ -471,17 +480,15 @@ CategoryParam.put("transactionCategoryName", PAYROLL_LIABILITY);
                  .replace("{startDate}",salarySlipModel.getPayPeriod().substring(0, Math.min(salarySlipModel.getPayPeriod().length(), 10)).replace("/", "-"))
                  .replace("{endDate}",salarySlipModel.getPayPeriod().substring(Math.max(salarySlipModel.getPayPeriod().length() - 10, 0)).replace("/", "-"));
 
-        mailUtility.triggerEmailOnBackground2("Payslip", mail,pdf, null, EmailConstant.ADMIN_SUPPORT_EMAIL,
-                EmailConstant.ADMIN_EMAIL_SENDER_NAME, new String[]{employee.getEmail()},
-                true);
-
         EmailLogs emailLogs = new EmailLogs();
         emailLogs.setEmailDate(LocalDateTime.now());
         emailLogs.setEmailTo(user.getUserEmail());
         emailLogs.setEmailFrom( EmailConstant.ADMIN_SUPPORT_EMAIL);
         emailLogs.setModuleName("PAYROLL");
         emailLogs.setBaseUrl("-");
-        emaiLogsService.persist(emailLogs);
+        mailUtility.triggerEmailOnBackground2("Payslip", mail,pdf, null, EmailConstant.ADMIN_SUPPORT_EMAIL,
+                EmailConstant.ADMIN_EMAIL_SENDER_NAME, new String[]{employee.getEmail()},
+                true, emailLogs);
         logger.info("PAYSLIP sent successfully....!");
         logger.info("Email send to =" +emailLogs );
     }
@@ -42,10 +42,7 @@ public class SalaryComponentDaoImpl extends AbstractDao<Integer, SalaryComponent
     public PaginationResponseModel getSalaryComponentList(Map<Object, Object> filterDataMap, PaginationModel paginationModel){
 
         List<DbFilter> dbFilters = new ArrayList<>();
-        PaginationResponseModel resposne = new PaginationResponseModel();
-        resposne.setCount(this.getResultCount(dbFilters));
-        resposne.setData(this.executeQuery(dbFilters, paginationModel));
-        return resposne;
+        return this.executeQueryWithCount(dbFilters, paginationModel);
     }
 
     public List<SalaryComponent> getDefaultSalaryComponentList(){
@@ -20,10 +20,7 @@ public class SalaryStructureDaoImpl extends AbstractDao<Integer, SalaryStructure
     public PaginationResponseModel getSalaryStructureList(Map<Object, Object> filterDataMap, PaginationModel paginationModel)
     {
         List<DbFilter> dbFilters = new ArrayList<>();
-        PaginationResponseModel resposne = new PaginationResponseModel();
-        resposne.setCount(this.getResultCount(dbFilters));
-        resposne.setData(this.executeQuery(dbFilters, paginationModel));
-        return resposne;
+        return this.executeQueryWithCount(dbFilters, paginationModel);
     }
 
     public List<DropdownObjectModel> getSalaryStructureDropdown(){
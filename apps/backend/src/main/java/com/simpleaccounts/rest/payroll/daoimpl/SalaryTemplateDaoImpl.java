@@ -19,10 +19,7 @@ public class SalaryTemplateDaoImpl extends AbstractDao<Integer, SalaryTemplate>
 
   public PaginationResponseModel getSalaryTemplateList(Map<Object, Object> filterDataMap, PaginationModel paginationModel){
     List<DbFilter> dbFilters = new ArrayList<>();
-    PaginationResponseModel resposne = new PaginationResponseModel();
-    resposne.setCount(this.getResultCount(dbFilters));
-    resposne.setData(this.executeQuery(dbFilters, paginationModel));
-    return resposne;
+    return this.executeQueryWithCount(dbFilters, paginationModel);
 
   }
 
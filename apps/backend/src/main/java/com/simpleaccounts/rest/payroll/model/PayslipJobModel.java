@@ -0,0 +1,20 @@
+package com.simpleaccounts.rest.payroll.model;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of sending the payslips of a payroll run.
+ */
+@Data
+public class PayslipJobModel {
+    private Integer payrollId;
+    private String status;
+    private int total;
+    private int sent;
+    private int failed;
+    private LocalDateTime queuedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
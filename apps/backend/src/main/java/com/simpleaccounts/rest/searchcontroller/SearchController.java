@@ -0,0 +1,64 @@
+package com.simpleaccounts.rest.searchcontroller;
+
+import com.simpleaccounts.aop.LogRequest;
+import com.simpleaccounts.entity.User;
+import com.simpleaccounts.search.SearchDocumentType;
+import com.simpleaccounts.search.SearchHit;
+import com.simpleaccounts.search.SearchIndexer;
+import com.simpleaccounts.security.JwtTokenUtil;
+import com.simpleaccounts.service.UserService;
+import io.swagger.annotations.ApiOperation;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import javax.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Global search over contacts, invoices, products, bank transactions and chart of account categories.
+ */
+@RestController
+@RequestMapping(value = "/rest/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+	private static final int MAX_LIMIT = 100;
+
+	private final SearchRestHelper searchRestHelper;
+
+	private final SearchIndexer searchIndexer;
+
+	private final JwtTokenUtil jwtTokenUtil;
+
+	private final UserService userService;
+
+	@LogRequest
+	@ApiOperation(value = "Search by prefix or close spelling, best matches first")
+	@GetMapping
+	public ResponseEntity<List<SearchHit>> search(@RequestParam String query,
+			@RequestParam(required = false) List<SearchDocumentType> type,
+			@RequestParam(defaultValue = "20") int limit) {
+		Set<SearchDocumentType> types = type == null || type.isEmpty() ? null : EnumSet.copyOf(type);
+		return new ResponseEntity<>(searchRestHelper.search(query, types, Math.min(limit, MAX_LIMIT)), HttpStatus.OK);
+	}
+
+	@LogRequest
+	@ApiOperation(value = "Rebuild the search index from the database")
+	@PostMapping(value = "/rebuild")
+	public ResponseEntity<Object> rebuild(HttpServletRequest request) {
+		Integer userId = jwtTokenUtil.getUserIdFromHttpRequest(request);
+		User user = userService.findByPK(userId);
+		if (user.getRole().getRoleCode() != 1) {
+			return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+		}
+		searchIndexer.rebuild();
+		return new ResponseEntity<>(HttpStatus.ACCEPTED);
+	}
+}
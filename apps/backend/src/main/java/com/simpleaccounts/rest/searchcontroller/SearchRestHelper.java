@@ -0,0 +1,50 @@
+package com.simpleaccounts.rest.searchcontroller;
+
+import com.simpleaccounts.dao.SearchDocumentDao;
+import com.simpleaccounts.search.SearchDocument;
+import com.simpleaccounts.search.SearchDocumentType;
+import com.simpleaccounts.search.SearchHit;
+import com.simpleaccounts.search.SearchIndex;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Answers global searches from the {@link SearchIndex}, or from the database while the index is still being built
+ * after startup.
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchRestHelper {
+
+	private final SearchIndex searchIndex;
+
+	private final SearchDocumentDao searchDocumentDao;
+
+	public List<SearchHit> search(String query, Set<SearchDocumentType> types, int limit) {
+		if (query == null || query.trim().isEmpty() || limit <= 0) {
+			return new ArrayList<>();
+		}
+		if (searchIndex.isReady()) {
+			return searchIndex.search(query, types, limit);
+		}
+		List<SearchHit> hits = new ArrayList<>();
+		Set<SearchDocumentType> searched = types == null || types.isEmpty() ? EnumSet.allOf(SearchDocumentType.class)
+				: types;
+		for (SearchDocumentType type : searched) {
+			for (Object entity : searchDocumentDao.findByText(type, query.trim(), limit - hits.size())) {
+				SearchDocument document = SearchDocument.of(entity);
+				if (document != null) {
+					hits.add(new SearchHit(document, 0));
+				}
+			}
+			if (hits.size() >= limit) {
+				break;
+			}
+		}
+		return hits;
+	}
+}
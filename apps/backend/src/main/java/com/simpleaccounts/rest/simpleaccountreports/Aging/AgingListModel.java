@@ -7,5 +7,7 @@ import java.util.List;
 @Data
 public class AgingListModel  {
 
+    private List<String> bucketLabels;
+
     private List<AgingResponseModel> agingResponseModelList;
 }
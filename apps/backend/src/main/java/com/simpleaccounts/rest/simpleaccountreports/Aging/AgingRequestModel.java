@@ -2,9 +2,17 @@ package com.simpleaccounts.rest.simpleaccountreports.Aging;
 
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class AgingRequestModel {
 
     private String endDate;
 
+    /**
+     * Upper day limits of the aging buckets, e.g. {@code 30,60,90} for 0-30/31-60/61-90/90+. The last bucket
+     * holds everything older than the last limit. Defaults to {@code 15,30}.
+     */
+    private List<Integer> bucketDays;
+
 }
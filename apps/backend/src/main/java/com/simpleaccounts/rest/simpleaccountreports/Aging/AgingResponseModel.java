@@ -3,10 +3,13 @@ package com.simpleaccounts.rest.simpleaccountreports.Aging;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 public class AgingResponseModel {
 
+    private Integer contactId;
     private String contactName;
     private String organizationName;
     private BigDecimal currentAmount;
@@ -14,4 +17,6 @@ public class AgingResponseModel {
     private BigDecimal between15to30 = BigDecimal.ZERO;
     private BigDecimal morethan30 = BigDecimal.ZERO;
     private BigDecimal totalAmount = BigDecimal.ZERO;
+    /** Outstanding amount per bucket, in the order of {@link AgingListModel#getBucketLabels()}. */
+    private List<BigDecimal> bucketAmounts = new ArrayList<>();
 }
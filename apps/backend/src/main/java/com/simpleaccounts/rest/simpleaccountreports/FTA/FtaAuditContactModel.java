@@ -0,0 +1,26 @@
+package com.simpleaccounts.rest.simpleaccountreports.FTA;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Customer or supplier row of the FTA audit file.
+ */
+@Data
+@AllArgsConstructor
+public class FtaAuditContactModel {
+
+    private String firstName;
+    private String middleName;
+    private String lastName;
+    private String countryName;
+    private String vatRegistrationNumber;
+
+    public String getFullName() {
+        return fullName(firstName, middleName, lastName);
+    }
+
+    static String fullName(String firstName, String middleName, String lastName) {
+        return firstName + " " + middleName + " " + lastName;
+    }
+}
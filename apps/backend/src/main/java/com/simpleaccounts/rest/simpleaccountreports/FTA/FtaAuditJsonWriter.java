@@ -0,0 +1,93 @@
+package com.simpleaccounts.rest.simpleaccountreports.FTA;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Writes the FTA audit file as the JSON form of {@link FtaAuditResponseModel} while it is generated.
+ * Rows are serialised as soon as they arrive, the company information and totals are written as the
+ * last properties of the object once they are known.
+ */
+public class FtaAuditJsonWriter implements FtaAuditReportListener {
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter rowWriter;
+
+    private final JsonGenerator generator;
+
+    private final Set<String> writtenSections = new HashSet<>();
+
+    public FtaAuditJsonWriter(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.writeStartObject();
+    }
+
+    @Override
+    public void onSectionStart(FtaAuditSection section) {
+        try {
+            generator.writeArrayFieldStart(section.getPropertyName());
+            writtenSections.add(section.getPropertyName());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onRow(FtaAuditSection section, Object row) {
+        try {
+            rowWriter.writeValue(generator, row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onSectionEnd(FtaAuditSection section) {
+        try {
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onComplete(FtaAuditResponseModel summary) {
+        try {
+            // a token buffer keeps the exact scale of the BigDecimal totals, a tree would normalise them
+            TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+            rowWriter.writeValue(buffer, summary);
+            JsonParser parser = buffer.asParser();
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String propertyName = parser.getCurrentName();
+                parser.nextToken();
+                if (writtenSections.contains(propertyName)) {
+                    parser.skipChildren();
+                } else {
+                    generator.writeFieldName(propertyName);
+                    generator.copyCurrentStructure(parser);
+                }
+            }
+            generator.writeEndObject();
+            generator.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
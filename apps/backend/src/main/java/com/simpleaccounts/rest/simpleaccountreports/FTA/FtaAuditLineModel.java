@@ -0,0 +1,68 @@
+package com.simpleaccounts.rest.simpleaccountreports.FTA;
+
+import com.simpleaccounts.constant.ProductType;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One invoice line of the FTA audit file, read as a projection so that no invoice, contact or product
+ * entity is loaded into the persistence context.
+ */
+@Data
+public class FtaAuditLineModel {
+
+    private Integer lineItemId;
+    private Integer invoiceId;
+    private Integer invoiceType;
+    private String referenceNumber;
+    private LocalDate invoiceDate;
+    private Integer contactId;
+    private String contactFirstName;
+    private String contactMiddleName;
+    private String contactLastName;
+    private String contactCountry;
+    private String contactTRN;
+    private String productName;
+    private ProductType productType;
+    private String productDescription;
+    private BigDecimal unitPrice;
+    private BigDecimal vatAmount;
+    private BigDecimal exciseAmount;
+
+    //Latest payment or receipt of the invoice, null when it is not settled
+    private FtaAuditSettlementModel settlement;
+
+    public FtaAuditLineModel(Integer lineItemId, Integer invoiceId, Integer invoiceType, String referenceNumber,
+                             LocalDate invoiceDate, Integer contactId, String contactFirstName,
+                             String contactMiddleName, String contactLastName, String contactCountry,
+                             String contactTRN, String productName, ProductType productType,
+                             String productDescription, BigDecimal unitPrice, BigDecimal vatAmount,
+                             BigDecimal exciseAmount) {
+        this.lineItemId = lineItemId;
+        this.invoiceId = invoiceId;
+        this.invoiceType = invoiceType;
+        this.referenceNumber = referenceNumber;
+        this.invoiceDate = invoiceDate;
+        this.contactId = contactId;
+        this.contactFirstName = contactFirstName;
+        this.contactMiddleName = contactMiddleName;
+        this.contactLastName = contactLastName;
+        this.contactCountry = contactCountry;
+        this.contactTRN = contactTRN;
+        this.productName = productName;
+        this.productType = productType;
+        this.productDescription = productDescription;
+        this.unitPrice = unitPrice;
+        this.vatAmount = vatAmount;
+        this.exciseAmount = exciseAmount;
+    }
+
+    public String getContactFullName() {
+        if (contactId == null) {
+            return " - ";
+        }
+        return FtaAuditContactModel.fullName(contactFirstName, contactMiddleName, contactLastName);
+    }
+}
@@ -0,0 +1,22 @@
+package com.simpleaccounts.rest.simpleaccountreports.FTA;
+
+/**
+ * Receives the FTA audit file while it is generated, one row at a time, so the output can be written
+ * incrementally instead of being held in memory.
+ *
+ * Sections arrive in {@link FtaAuditSection} order, each between {@link #onSectionStart} and
+ * {@link #onSectionEnd}. {@link #onComplete} is always called last with the header and totals.
+ */
+public interface FtaAuditReportListener {
+
+    void onSectionStart(FtaAuditSection section);
+
+    void onRow(FtaAuditSection section, Object row);
+
+    void onSectionEnd(FtaAuditSection section);
+
+    /**
+     * @param summary company information and totals, all row lists are {@code null}
+     */
+    void onComplete(FtaAuditResponseModel summary);
+}
@@ -0,0 +1,42 @@
+package com.simpleaccounts.rest.simpleaccountreports.FTA;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Row sections of the FTA audit file in the order they are produced.
+ */
+@SuppressWarnings("unchecked")
+public enum FtaAuditSection {
+
+    CUSTOMER_DATA("customerDataResponseModels",
+            (model, rows) -> model.setCustomerDataResponseModels((List<CustomerDataResponseModel>) rows)),
+    SUPPLIER_DATA("supplierDataResponseModels",
+            (model, rows) -> model.setSupplierDataResponseModels((List<SupplierDataResponseModel>) rows)),
+    SUPPLIER_SUPPLY_LISTING("supplierSupplyListingResponseModels",
+            (model, rows) -> model.setSupplierSupplyListingResponseModels((List<SupplierSupplyListingResponseModel>) rows)),
+    CUSTOMER_SUPPLY_LISTING("customerSupplyListingResponseModel",
+            (model, rows) -> model.setCustomerSupplyListingResponseModel((List<CustomerSupplyListingResponseModel>) rows)),
+    GENERAL_LEDGER_LISTING("generalLedgerListingResponseModels",
+            (model, rows) -> model.setGeneralLedgerListingResponseModels((List<GeneralLedgerListingResponseModel>) rows));
+
+    private final String propertyName;
+
+    private final BiConsumer<FtaAuditResponseModel, List<?>> setter;
+
+    FtaAuditSection(String propertyName, BiConsumer<FtaAuditResponseModel, List<?>> setter) {
+        this.propertyName = propertyName;
+        this.setter = setter;
+    }
+
+    /**
+     * @return name of the list property in the JSON form of {@link FtaAuditResponseModel}
+     */
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    public void setRows(FtaAuditResponseModel model, List<?> rows) {
+        setter.accept(model, rows);
+    }
+}
@@ -0,0 +1,22 @@
+package com.simpleaccounts.rest.simpleaccountreports.FTA;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bank transaction of a supplier payment or customer receipt referenced by the FTA audit file.
+ */
+@Data
+@AllArgsConstructor
+public class FtaAuditSettlementModel {
+
+    private Integer invoiceId;
+    private Integer transactionId;
+    private LocalDateTime transactionDate;
+    private Integer bankAccountId;
+    private String accountName;
+    private String transactionDescription;
+    private Character debitCreditFlag;
+}
@@ -2,6 +2,7 @@ package com.simpleaccounts.rest.simpleaccountreports;
 
 import com.simpleaccounts.rest.simpleaccountreports.Aging.AgingListModel;
 import com.simpleaccounts.rest.simpleaccountreports.Aging.AgingRequestModel;
+import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditReportListener;
 import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditRequestModel;
 import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditResponseModel;
 import com.simpleaccounts.rest.simpleaccountreports.soa.StatementOfAccountRequestModel;
@@ -45,6 +46,8 @@ public interface SimpleAccountReportDao {
 
     FtaAuditResponseModel getFtaExciseAuditReport (FtaAuditRequestModel requestModel);
 
+    void writeFtaAuditReport(FtaAuditRequestModel requestModel, boolean exciseReport, FtaAuditReportListener listener);
+
    AgingListModel getAgingReport(AgingRequestModel responseModel);
 
 }
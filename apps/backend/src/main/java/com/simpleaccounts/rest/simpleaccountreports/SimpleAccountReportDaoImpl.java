@@ -22,8 +22,11 @@ import java.math.BigDecimal;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +40,35 @@ public class SimpleAccountReportDaoImpl extends AbstractDao<Integer, SalesByCust
     private static final String QUERY_PARAM_START_DATE = "startDate";
     private static final String QUERY_PARAM_END_DATE = "endDate";
     private static final String ACCOUNT_RECEIVABLE = "Account Receivable";
+    private static final String ACCOUNT_PAYABLE = "Account Payable";
+
+    static final int FTA_AUDIT_CHUNK_SIZE = 500;
+    static final List<Integer> DEFAULT_AGING_BUCKET_DAYS = Collections.unmodifiableList(Arrays.asList(15, 30));
+    private static final List<Integer> AGING_INVOICE_STATUSES = Arrays.asList(
+            CommonStatusEnum.POST.getValue(), CommonStatusEnum.PARTIALLY_PAID.getValue());
+    private static final String AGING_CUTOFF = "cutoff";
+    private static final String AGING_OUTSTANDING_AMOUNT = "(COALESCE(i.dueAmount, i.totalAmount) * COALESCE(i.exchangeRate, 1))";
+    private static final List<Integer> FTA_CUSTOMER_CONTACT_TYPES = Arrays.asList(2, 3);
+    private static final List<Integer> FTA_SUPPLIER_CONTACT_TYPES = Arrays.asList(1, 3);
+    static final String FTA_AUDIT_CONTACTS_QUERY = "SELECT new com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditContactModel("
+            + "c.firstName, c.middleName, c.lastName, co.countryName, c.vatRegistrationNumber) "
+            + "FROM Contact c LEFT JOIN c.country co WHERE c.contactType IN (:contactTypes) AND c.deleteFlag=false ORDER BY c.contactId";
+    static final String FTA_AUDIT_LINES_QUERY = "SELECT new com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditLineModel("
+            + "li.id, i.id, i.type, i.referenceNumber, i.invoiceDate, c.contactId, c.firstName, c.middleName, c.lastName, "
+            + "co.countryName, c.vatRegistrationNumber, p.productName, p.productType, p.productDescription, "
+            + "li.unitPrice, li.vatAmount, li.exciseAmount) "
+            + "FROM InvoiceLineItem li JOIN li.invoice i LEFT JOIN i.contact c LEFT JOIN c.country co LEFT JOIN li.product p "
+            + "WHERE i.type IN (:invoiceTypes) AND i.status = :status AND li.id > :lastLineItemId";
+    static final String FTA_AUDIT_PAYMENTS_QUERY = "SELECT new com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditSettlementModel("
+            + "s.supplierInvoice.id, t.transactionId, t.transactionDate, ba.bankAccountId, coa.chartOfAccountCategoryName, "
+            + "t.transactionDescription, t.debitCreditFlag) "
+            + "FROM SupplierInvoicePayment s JOIN s.transaction t LEFT JOIN t.bankAccount ba LEFT JOIN t.coaCategory coa "
+            + "WHERE s.supplierInvoice.id IN (:invoiceIds) ORDER BY s.id";
+    static final String FTA_AUDIT_RECEIPTS_QUERY = "SELECT new com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditSettlementModel("
+            + "r.customerInvoice.id, t.transactionId, t.transactionDate, ba.bankAccountId, coa.chartOfAccountCategoryName, "
+            + "t.transactionDescription, t.debitCreditFlag) "
+            + "FROM CustomerInvoiceReceipt r JOIN r.transaction t LEFT JOIN t.bankAccount ba LEFT JOIN t.coaCategory coa "
+            + "WHERE r.customerInvoice.id IN (:invoiceIds) ORDER BY r.id";
 
     private final DateFormatUtil dateUtil;
     private static final Logger LOGGER = LoggerFactory.getLogger(TransactionCategoryClosingBalanceDaoImpl.class);
@@ -1306,493 +1338,442 @@ public InvoiceDetailsResponseModel getInvoiceDetails(ReportRequestModel requestM
     }
     @Override
     public FtaAuditResponseModel getFtaAuditReport(FtaAuditRequestModel requestModel) {
-        FtaAuditResponseModel fta_response = new FtaAuditResponseModel();
-        Integer lineNo = 1;
-        BigDecimal purchaseTotal = new BigDecimal(0);
-        BigDecimal supplyTotal = new BigDecimal(0);
-        BigDecimal supplierVATTotal = new BigDecimal(0);
-        BigDecimal customerVATTotal = new BigDecimal(0);
-        BigDecimal TransactionCountTotal = new BigDecimal(0);
-        BigDecimal TotalDebit = new BigDecimal(0);
-        BigDecimal TotalCredit =  new BigDecimal(0);
-        List<SupplierSupplyListingResponseModel> supplierSupplyListingRes = new LinkedList<>();
-        List<CustomerSupplyListingResponseModel> customerSupplyListingRes = new LinkedList<>();
-        List<GeneralLedgerListingResponseModel> generalLedgerListingRes = new LinkedList<>();
-        List<CustomerDataResponseModel> customerData = new LinkedList<>();
-        List<SupplierDataResponseModel> supplierData = new LinkedList<>();
-
-        Optional<Company> optionalCompany = companyRepository.findById(requestModel.getCompanyId());
-
-        String CquertStr = "SELECT c  FROM Contact c WHERE c.contactType IN (2,3) AND c.deleteFlag=false ";
-        Query Cquery = getEntityManager().createQuery(CquertStr);
-        List<Contact> customerList = Cquery.getResultList();
+        FtaAuditResponseCollector collector = new FtaAuditResponseCollector();
+        writeFtaAuditReport(requestModel, false, collector);
+        return collector.getResponse();
+    }
 
-        String SquertStr = "SELECT c  FROM Contact c WHERE c.contactType IN (1,3) AND c.deleteFlag=false ";
-        Query Squery = getEntityManager().createQuery(SquertStr);
-        List<Contact> supplierList = Squery.getResultList();
+    @Override
+    public FtaAuditResponseModel getFtaExciseAuditReport(FtaAuditRequestModel requestModel) {
+        FtaAuditResponseCollector collector = new FtaAuditResponseCollector();
+        writeFtaAuditReport(requestModel, true, collector);
+        return collector.getResponse();
+    }
 
-        List<InvoiceLineItem> invoiceLineItemList = invoiceLineitemRepository.findAll();
+    /**
+     * Generates the FTA VAT or excise audit file for the requested period. Invoice lines are read as
+     * projections in chunks of {@link #FTA_AUDIT_CHUNK_SIZE} ordered by line id, and the payments or
+     * receipts of each chunk are fetched with one query, so memory use does not grow with the ledger.
+     */
+    @Override
+    public void writeFtaAuditReport(FtaAuditRequestModel requestModel, boolean exciseReport,
+                                    FtaAuditReportListener listener) {
+        FtaAuditResponseModel summary = new FtaAuditResponseModel();
 
+        Optional<Company> optionalCompany = companyRepository.findById(requestModel.getCompanyId());
         Optional<VatTaxAgency> optionalTaxAgency = taxAgencyRepository.findById(requestModel.getTaxAgencyId());
 
         if (optionalCompany.isPresent() && optionalTaxAgency.isPresent()) {
 
             Company company = optionalCompany.get();
-         VatTaxAgency vatTaxAgency = optionalTaxAgency.get();
-
-            fta_response.setCompanyName(company.getCompanyName());
-        fta_response.setTaxablePersonNameEn(vatTaxAgency.getTaxablePersonNameInEnglish());
-       fta_response.setTaxablePersonNameAr(vatTaxAgency.getTaxablePersonNameInArabic());
-            fta_response.setTaxRegistrationNumber(company.getVatNumber());
-       fta_response.setTaxAgencyName(vatTaxAgency.getTaxAgencyName());
-        fta_response.setTaxAgencyNumber(vatTaxAgency.getTaxAgencyNumber());
-        fta_response.setTaxAgentName(vatTaxAgency.getTaxAgentName());
-        fta_response.setTaxAgencyAgentNumber(vatTaxAgency.getTaxAgentApprovalNumber());
-        fta_response.setStartDate(requestModel.getStartDate());
-        fta_response.setEndDate(requestModel.getEndDate());
-        fta_response.setProductVersion("-");
-        fta_response.setFafVersion("-");
-
-            fta_response.setCreationDate(vatTaxAgency.getCreatedDate());
+            VatTaxAgency vatTaxAgency = optionalTaxAgency.get();
+
+            summary.setCompanyName(company.getCompanyName());
+            summary.setTaxablePersonNameEn(vatTaxAgency.getTaxablePersonNameInEnglish());
+            summary.setTaxablePersonNameAr(vatTaxAgency.getTaxablePersonNameInArabic());
+            summary.setTaxRegistrationNumber(company.getVatNumber());
+            summary.setTaxAgencyName(vatTaxAgency.getTaxAgencyName());
+            summary.setTaxAgencyNumber(vatTaxAgency.getTaxAgencyNumber());
+            summary.setTaxAgentName(vatTaxAgency.getTaxAgentName());
+            summary.setTaxAgencyAgentNumber(vatTaxAgency.getTaxAgentApprovalNumber());
+            summary.setStartDate(requestModel.getStartDate());
+            summary.setEndDate(requestModel.getEndDate());
+            summary.setProductVersion("-");
+            summary.setFafVersion("-");
+            summary.setCreationDate(vatTaxAgency.getCreatedDate());
+            summary.setGLTCurrency(company.getCurrencyCode().getCurrencyIsoCode());
+
+            LocalDate startDate = parseFtaAuditDate(requestModel.getStartDate());
+            LocalDate endDate = parseFtaAuditDate(requestModel.getEndDate());
 
             //  Customer Data
-            for (Contact contact : customerList) {
+            listener.onSectionStart(FtaAuditSection.CUSTOMER_DATA);
+            for (FtaAuditContactModel contact : getFtaAuditContacts(FTA_CUSTOMER_CONTACT_TYPES)) {
                 CustomerDataResponseModel model = new CustomerDataResponseModel();
-                model.setCustomerName(getContactFullName(contact));
+                model.setCustomerName(contact.getFullName());
                 model.setGlId("-");
                 model.setReverseCharge("-");
-                model.setCustomerCountry(contact.getCountry().getCountryName());
+                model.setCustomerCountry(contact.getCountryName());
                 model.setCustomerTRN(contact.getVatRegistrationNumber());
-                customerData.add(model);
+                listener.onRow(FtaAuditSection.CUSTOMER_DATA, model);
             }
-            fta_response.setCustomerDataResponseModels(customerData);
+            listener.onSectionEnd(FtaAuditSection.CUSTOMER_DATA);
 
             //  Supplier Data
-            for (Contact contact : supplierList) {
+            listener.onSectionStart(FtaAuditSection.SUPPLIER_DATA);
+            for (FtaAuditContactModel contact : getFtaAuditContacts(FTA_SUPPLIER_CONTACT_TYPES)) {
                 SupplierDataResponseModel supplierDataResponseModel = new SupplierDataResponseModel();
-                supplierDataResponseModel.setSupplierName(getContactFullName(contact));
+                supplierDataResponseModel.setSupplierName(contact.getFullName());
                 supplierDataResponseModel.setGlId("-");
-                supplierDataResponseModel.setSupplierCountry(contact.getCountry().getCountryName());
+                supplierDataResponseModel.setSupplierCountry(contact.getCountryName());
                 supplierDataResponseModel.setSupplierTRN(contact.getVatRegistrationNumber());
                 supplierDataResponseModel.setReverseCharge("No");
-                supplierData.add(supplierDataResponseModel);
+                listener.onRow(FtaAuditSection.SUPPLIER_DATA, supplierDataResponseModel);
             }
-            fta_response.setSupplierDataResponseModels(supplierData);
+            listener.onSectionEnd(FtaAuditSection.SUPPLIER_DATA);
 
-//            Purchase Data
-            for (InvoiceLineItem invoiceLineItem : invoiceLineItemList) {
+            // Excise audit files number the lines across purchases and supplies, VAT audit files use 1
+            AtomicInteger lineNo = new AtomicInteger(1);
+
+            //  Purchase Data
+            summary.setPurchaseTotal(BigDecimal.ZERO);
+            summary.setSupplierTransactionCountTotal(0);
+            if (exciseReport) {
+                summary.setSupplierExciseTotal(BigDecimal.ZERO);
+            } else {
+                summary.setSupplierVATTotal(BigDecimal.ZERO);
+            }
+            listener.onSectionStart(FtaAuditSection.SUPPLIER_SUPPLY_LISTING);
+            processFtaAuditLines(Collections.singletonList(InvoiceTypeConstant.SUPPLIER), startDate, endDate, line -> {
                 SupplierSupplyListingResponseModel supplierSupplyListing = new SupplierSupplyListingResponseModel();
-              if (invoiceLineItem.getInvoice().getType() == 1 && invoiceLineItem.getInvoice().getStatus() == 6) {
-                    supplierSupplyListing.setSupplierName(getFullName(invoiceLineItem));
-                    supplierSupplyListing.setSupplierCountry(invoiceLineItem.getInvoice().getContact().getCountry().getCountryName());
-                    supplierSupplyListing.setSupplierTRN(invoiceLineItem.getInvoice().getContact().getVatRegistrationNumber());
-                  ZoneId timeZone = ZoneId.systemDefault();
-                  Date date = Date.from(invoiceLineItem.getInvoice().getInvoiceDate().atStartOfDay(timeZone).toInstant());
-                    supplierSupplyListing.setInvoiceDate(date);
-                    supplierSupplyListing.setInvoiceNo(invoiceLineItem.getInvoice().getReferenceNumber());
-                  List<SupplierInvoicePayment> supplierInvoicePayments = invoicePaymentRepository.findBySupplierInvoiceId(invoiceLineItem.getInvoice().getId());
-                  for(SupplierInvoicePayment supplierInvoicePayment : supplierInvoicePayments){
-                      supplierSupplyListing.setTransactionID(supplierInvoicePayment.getTransaction().getTransactionId());
-                  }
+                supplierSupplyListing.setSupplierName(line.getContactFullName());
+                supplierSupplyListing.setSupplierCountry(line.getContactCountry());
+                supplierSupplyListing.setSupplierTRN(line.getContactTRN());
+                supplierSupplyListing.setInvoiceDate(toFtaAuditDate(line.getInvoiceDate()));
+                supplierSupplyListing.setInvoiceNo(line.getReferenceNumber());
+                if (line.getSettlement() != null) {
+                    supplierSupplyListing.setTransactionID(line.getSettlement().getTransactionId());
+                }
+                supplierSupplyListing.setProductName(line.getProductName());
+                supplierSupplyListing.setProductType(line.getProductType());
+                supplierSupplyListing.setProductDescription(line.getProductDescription());
+                supplierSupplyListing.setPurchaseValue(line.getUnitPrice());
+                supplierSupplyListing.setPurchaseFCY(line.getUnitPrice());
+                if (exciseReport) {
+                    supplierSupplyListing.setLineNo(lineNo.getAndIncrement());
+                    supplierSupplyListing.setExciseTaxValue(line.getExciseAmount());
+                    supplierSupplyListing.setExciseTaxFCY(line.getExciseAmount());
+                    summary.setSupplierExciseTotal(summary.getSupplierExciseTotal().add(line.getExciseAmount()));
+                } else {
                     supplierSupplyListing.setLineNo(1);
-                    supplierSupplyListing.setProductName(invoiceLineItem.getProduct().getProductName());
-                    supplierSupplyListing.setProductType(invoiceLineItem.getProduct().getProductType());
-                    supplierSupplyListing.setProductDescription(invoiceLineItem.getProduct().getProductDescription());
-                    supplierSupplyListing.setPurchaseValue(invoiceLineItem.getUnitPrice());
-                    supplierSupplyListing.setVATValue(invoiceLineItem.getVatAmount());
+                    supplierSupplyListing.setVATValue(line.getVatAmount());
                     supplierSupplyListing.setTaxCode("-");
                     supplierSupplyListing.setPermitNo(0);
                     supplierSupplyListing.setFCYCode("-");
-                    supplierSupplyListing.setVATFCY(invoiceLineItem.getVatAmount());
-                    supplierSupplyListing.setPurchaseFCY(invoiceLineItem.getUnitPrice());
-                    purchaseTotal = purchaseTotal.add(invoiceLineItem.getUnitPrice());
-                  supplierVATTotal =  supplierVATTotal.add((invoiceLineItem.getVatAmount()));
-                  supplierSupplyListingRes.add(supplierSupplyListing);
-
+                    supplierSupplyListing.setVATFCY(line.getVatAmount());
+                    summary.setSupplierVATTotal(summary.getSupplierVATTotal().add(line.getVatAmount()));
                 }
-
-            }
-            fta_response.setPurchaseTotal(purchaseTotal);
-            fta_response.setSupplierVATTotal(supplierVATTotal);
-            fta_response.setSupplierSupplyListingResponseModels(supplierSupplyListingRes);
-            fta_response.setSupplierTransactionCountTotal(supplierSupplyListingRes.size());
+                summary.setPurchaseTotal(summary.getPurchaseTotal().add(line.getUnitPrice()));
+                summary.setSupplierTransactionCountTotal(summary.getSupplierTransactionCountTotal() + 1);
+                listener.onRow(FtaAuditSection.SUPPLIER_SUPPLY_LISTING, supplierSupplyListing);
+            });
+            listener.onSectionEnd(FtaAuditSection.SUPPLIER_SUPPLY_LISTING);
 
             // Supply Data
-            for (InvoiceLineItem invoiceLineItem : invoiceLineItemList) {
+            summary.setSupplyTotal(BigDecimal.ZERO);
+            summary.setCustomerTransactionCountTotal(0);
+            if (exciseReport) {
+                summary.setCustomerExciseTotal(BigDecimal.ZERO);
+            } else {
+                summary.setCustomerVATTotal(BigDecimal.ZERO);
+            }
+            listener.onSectionStart(FtaAuditSection.CUSTOMER_SUPPLY_LISTING);
+            processFtaAuditLines(Collections.singletonList(InvoiceTypeConstant.CUSTOMER), startDate, endDate, line -> {
                 CustomerSupplyListingResponseModel customerSupplyList = new CustomerSupplyListingResponseModel();
-                if(invoiceLineItem.getInvoice().getType() == 2 && invoiceLineItem.getInvoice().getStatus() == 6) {
-                    customerSupplyList.setCustomerName(getFullName(invoiceLineItem));
-                    customerSupplyList.setCustomerCountry(invoiceLineItem.getInvoice().getContact().getCountry().getCountryName());
-                    customerSupplyList.setCustomerTRN(invoiceLineItem.getInvoice().getContact().getVatRegistrationNumber());
-                    ZoneId timeZone = ZoneId.systemDefault();
-                    Date date = Date.from(invoiceLineItem.getInvoice().getInvoiceDate().atStartOfDay(timeZone).toInstant());
-                    customerSupplyList.setInvoiceDate(date);
-                    customerSupplyList.setInvoiceNo(invoiceLineItem.getInvoice().getReferenceNumber());
-                    List<CustomerInvoiceReceipt> customerInvoiceReceipts = invoiceReceiptRepository.findByCustomerInvoiceId(invoiceLineItem.getInvoice().getId());
-                    for(CustomerInvoiceReceipt customerInvoiceReceipt : customerInvoiceReceipts){
-                        customerSupplyList.setTransactionID(customerInvoiceReceipt.getTransaction().getTransactionId());
-                    }
+                customerSupplyList.setCustomerName(line.getContactFullName());
+                customerSupplyList.setCustomerCountry(line.getContactCountry());
+                customerSupplyList.setCustomerTRN(line.getContactTRN());
+                customerSupplyList.setInvoiceDate(toFtaAuditDate(line.getInvoiceDate()));
+                customerSupplyList.setInvoiceNo(line.getReferenceNumber());
+                if (line.getSettlement() != null) {
+                    customerSupplyList.setTransactionID(line.getSettlement().getTransactionId());
+                }
+                customerSupplyList.setProductName(line.getProductName());
+                customerSupplyList.setProductType(line.getProductType());
+                customerSupplyList.setProductDescription(line.getProductDescription());
+                customerSupplyList.setSupplyValue(line.getUnitPrice());
+                customerSupplyList.setSupplyFCY(line.getUnitPrice());
+                if (exciseReport) {
+                    customerSupplyList.setLineNo(lineNo.getAndIncrement());
+                    customerSupplyList.setExciseTaxValue(line.getExciseAmount());
+                    customerSupplyList.setExciseTaxFCY(line.getExciseAmount());
+                    summary.setCustomerExciseTotal(summary.getCustomerExciseTotal().add(line.getExciseAmount()));
+                } else {
                     customerSupplyList.setPermitNo(0);
                     customerSupplyList.setLineNo(1);
-                    customerSupplyList.setProductName(invoiceLineItem.getProduct().getProductName());
-                    customerSupplyList.setProductType(invoiceLineItem.getProduct().getProductType());
-                    customerSupplyList.setProductDescription(invoiceLineItem.getProduct().getProductDescription());
-                    customerSupplyList.setSupplyValue(invoiceLineItem.getUnitPrice());
-                    customerSupplyList.setVATValue(invoiceLineItem.getVatAmount());
+                    customerSupplyList.setVATValue(line.getVatAmount());
                     customerSupplyList.setTaxCode("-");
-                    customerSupplyList.setVATFCY(invoiceLineItem.getVatAmount());
-                    customerSupplyList.setSupplyFCY(invoiceLineItem.getUnitPrice());
+                    customerSupplyList.setVATFCY(line.getVatAmount());
                     customerSupplyList.setFCYCode("-");
-                    supplyTotal = supplyTotal.add(invoiceLineItem.getUnitPrice());
-                    customerVATTotal = customerVATTotal.add(invoiceLineItem.getVatAmount());
-                    customerSupplyListingRes.add(customerSupplyList);
-
+                    summary.setCustomerVATTotal(summary.getCustomerVATTotal().add(line.getVatAmount()));
                 }
-
-            }
-            fta_response.setSupplyTotal(supplyTotal);
-            fta_response.setCustomerVATTotal(customerVATTotal);
-            fta_response.setCustomerSupplyListingResponseModel(customerSupplyListingRes);
-            fta_response.setCustomerTransactionCountTotal(customerSupplyListingRes.size());
-
-            for (InvoiceLineItem invoiceLineItem : invoiceLineItemList) {
+                summary.setSupplyTotal(summary.getSupplyTotal().add(line.getUnitPrice()));
+                summary.setCustomerTransactionCountTotal(summary.getCustomerTransactionCountTotal() + 1);
+                listener.onRow(FtaAuditSection.CUSTOMER_SUPPLY_LISTING, customerSupplyList);
+            });
+            listener.onSectionEnd(FtaAuditSection.CUSTOMER_SUPPLY_LISTING);
+
+            // General Ledger Data
+            summary.setTotalDebit(BigDecimal.ZERO);
+            summary.setTotalCredit(BigDecimal.ZERO);
+            summary.setTransactionCountTotal(0);
+            listener.onSectionStart(FtaAuditSection.GENERAL_LEDGER_LISTING);
+            processFtaAuditLines(Arrays.asList(InvoiceTypeConstant.SUPPLIER, InvoiceTypeConstant.CUSTOMER), startDate, endDate, line -> {
                 GeneralLedgerListingResponseModel generalLedgerListing = new GeneralLedgerListingResponseModel();
-                if(invoiceLineItem.getInvoice().getType() == 2 && invoiceLineItem.getInvoice().getStatus() == 6) {
-                    List<CustomerInvoiceReceipt> customerInvoiceReceipts = invoiceReceiptRepository.findByCustomerInvoiceId(invoiceLineItem.getInvoice().getId());
-                    for (CustomerInvoiceReceipt customerInvoiceReceipt : customerInvoiceReceipts) {
-                        generalLedgerListing.setTransactionDate(customerInvoiceReceipt.getTransaction().getTransactionDate());
-                        generalLedgerListing.setAccountID(customerInvoiceReceipt.getTransaction().getBankAccount().getBankAccountId());
-                        generalLedgerListing.setAccountName(customerInvoiceReceipt.getTransaction().getCoaCategory().getChartOfAccountCategoryName());
-                        generalLedgerListing.setTransactionDescription(customerInvoiceReceipt.getTransaction().getTransactionDescription());
-                        generalLedgerListing.setName(invoiceLineItem.getInvoice().getReferenceNumber());
-                        generalLedgerListing.setTransactionID(customerInvoiceReceipt.getTransaction().getTransactionId());
-                        generalLedgerListing.setSourceDocumentID("-");
-                          if(customerInvoiceReceipt.getTransaction().getDebitCreditFlag() == 'C') {
-                            generalLedgerListing.setSourceType(ACCOUNT_RECEIVABLE);
-                        }else{
-                            generalLedgerListing.setSourceType("Account Payable");
-                        }
-                        if(customerInvoiceReceipt.getTransaction().getDebitCreditFlag() == 'C'){
-                            generalLedgerListing.setCredit(invoiceLineItem.getUnitPrice());
-                            TotalCredit = TotalCredit.add(generalLedgerListing.getCredit());
-                            generalLedgerListing.setDebit(BigDecimal.ZERO);
-                        }else {
-                            generalLedgerListing.setDebit(invoiceLineItem.getUnitPrice());
-                            TotalDebit = TotalDebit.add(generalLedgerListing.getDebit());
-                            generalLedgerListing.setCredit(BigDecimal.ZERO);
-                        }
-                        generalLedgerListing.setBalance(invoiceLineItem.getUnitPrice());
+                FtaAuditSettlementModel settlement = line.getSettlement();
+                if (settlement != null) {
+                    generalLedgerListing.setTransactionDate(settlement.getTransactionDate());
+                    generalLedgerListing.setTransactionID(settlement.getTransactionId());
+                    generalLedgerListing.setAccountID(settlement.getBankAccountId());
+                    generalLedgerListing.setAccountName(settlement.getAccountName());
+                    generalLedgerListing.setTransactionDescription(settlement.getTransactionDescription());
+                    generalLedgerListing.setName(line.getReferenceNumber());
+                    generalLedgerListing.setSourceDocumentID("-");
+                    // receipts are debit unless flagged as credit, payments are credit unless flagged as debit
+                    boolean credit = line.getInvoiceType() == InvoiceTypeConstant.CUSTOMER
+                            ? Character.valueOf('C').equals(settlement.getDebitCreditFlag())
+                            : !Character.valueOf('D').equals(settlement.getDebitCreditFlag());
+                    if (credit) {
+                        generalLedgerListing.setSourceType(ACCOUNT_RECEIVABLE);
+                        generalLedgerListing.setCredit(line.getUnitPrice());
+                        generalLedgerListing.setDebit(BigDecimal.ZERO);
+                        summary.setTotalCredit(summary.getTotalCredit().add(line.getUnitPrice()));
+                    } else {
+                        generalLedgerListing.setSourceType(ACCOUNT_PAYABLE);
+                        generalLedgerListing.setDebit(line.getUnitPrice());
+                        generalLedgerListing.setCredit(BigDecimal.ZERO);
+                        summary.setTotalDebit(summary.getTotalDebit().add(line.getUnitPrice()));
                     }
-                    generalLedgerListingRes.add(generalLedgerListing);
-                }else if(invoiceLineItem.getInvoice().getType() == 1 && invoiceLineItem.getInvoice().getStatus() == 6){
-                    List<SupplierInvoicePayment> supplierInvoicePayments = invoicePaymentRepository.findBySupplierInvoiceId(invoiceLineItem.getInvoice().getId());
-                    for(SupplierInvoicePayment supplierInvoicePayment : supplierInvoicePayments){
-                        generalLedgerListing.setTransactionDate(supplierInvoicePayment.getTransaction().getTransactionDate());
-                        generalLedgerListing.setTransactionID(supplierInvoicePayment.getTransaction().getTransactionId());
-                        generalLedgerListing.setAccountID(supplierInvoicePayment.getTransaction().getBankAccount().getBankAccountId());
-                        generalLedgerListing.setAccountName(supplierInvoicePayment.getTransaction().getCoaCategory().getChartOfAccountCategoryName());
-                        generalLedgerListing.setTransactionDescription(supplierInvoicePayment.getTransaction().getTransactionDescription());
-                        generalLedgerListing.setName(invoiceLineItem.getInvoice().getReferenceNumber());
-                        generalLedgerListing.setSourceDocumentID("-");
-                        if(supplierInvoicePayment.getTransaction().getDebitCreditFlag() == 'D') {
-                            generalLedgerListing.setSourceType("Account Payable");
-                        }else{
-                            generalLedgerListing.setSourceType(ACCOUNT_RECEIVABLE);
-                        }
-                        if(supplierInvoicePayment.getTransaction().getDebitCreditFlag() == 'D'){
-                            generalLedgerListing.setDebit(invoiceLineItem.getUnitPrice());
-                            TotalDebit = TotalDebit.add(generalLedgerListing.getDebit());
-                            generalLedgerListing.setCredit(BigDecimal.ZERO);
-                        }else {
-                            generalLedgerListing.setCredit(invoiceLineItem.getUnitPrice());
-                            TotalCredit = TotalCredit.add(generalLedgerListing.getCredit());
-                            generalLedgerListing.setDebit(BigDecimal.ZERO);
-                        }
-                        generalLedgerListing.setBalance(invoiceLineItem.getUnitPrice());
-
-                    }  generalLedgerListingRes.add(generalLedgerListing);
-
+                    generalLedgerListing.setBalance(line.getUnitPrice());
                 }
-
-            }
-            fta_response.setTotalCredit(TotalCredit);
-            fta_response.setTotalDebit(TotalDebit);
-            fta_response.setTransactionCountTotal(generalLedgerListingRes.size());
-            fta_response.setGeneralLedgerListingResponseModels(generalLedgerListingRes);
-            fta_response.setGLTCurrency(company.getCurrencyCode().getCurrencyIsoCode());
+                summary.setTransactionCountTotal(summary.getTransactionCountTotal() + 1);
+                listener.onRow(FtaAuditSection.GENERAL_LEDGER_LISTING, generalLedgerListing);
+            });
+            listener.onSectionEnd(FtaAuditSection.GENERAL_LEDGER_LISTING);
         }
 
-        return fta_response;
+        listener.onComplete(summary);
     }
 
-    @Override
-    public FtaAuditResponseModel getFtaExciseAuditReport(FtaAuditRequestModel requestModel) {
-        FtaAuditResponseModel   fta_Excise_response = new FtaAuditResponseModel();
-        Integer lineNo = 1;
-        BigDecimal purchaseTotal = new BigDecimal(0);
-        BigDecimal supplyTotal = new BigDecimal(0);
-        BigDecimal supplierExciseTotal = new BigDecimal(0);
-        BigDecimal customerExciseTotal = new BigDecimal(0);
-        BigDecimal TransactionCountTotal = new BigDecimal(0);
-        BigDecimal TotalDebit = new BigDecimal(0);
-        BigDecimal TotalCredit =  new BigDecimal(0);
-        List<SupplierSupplyListingResponseModel> supplierSupplyListingRes = new LinkedList<>();
-        List<CustomerSupplyListingResponseModel> customerSupplyListingRes = new LinkedList<>();
-        List<GeneralLedgerListingResponseModel> generalLedgerListingRes = new LinkedList<>();
-        List<CustomerDataResponseModel> customerData = new LinkedList<>();
-        List<SupplierDataResponseModel> supplierData = new LinkedList<>();
+    private List<FtaAuditContactModel> getFtaAuditContacts(List<Integer> contactTypes) {
+        return getEntityManager().createQuery(FTA_AUDIT_CONTACTS_QUERY, FtaAuditContactModel.class)
+                .setParameter("contactTypes", contactTypes)
+                .getResultList();
+    }
 
-        Optional<Company> optionalCompany = companyRepository.findById(requestModel.getCompanyId());
+    /**
+     * Feeds the paid invoice lines of the given invoice types and period to the consumer in line id order.
+     * Each chunk is read with keyset pagination on the line id, so every query stays cheap however deep
+     * into the ledger it is, and the projections of a chunk can be garbage collected once consumed.
+     */
+    void processFtaAuditLines(List<Integer> invoiceTypes, LocalDate startDate, LocalDate endDate,
+                              Consumer<FtaAuditLineModel> consumer) {
+        StringBuilder queryString = new StringBuilder(FTA_AUDIT_LINES_QUERY);
+        if (startDate != null) {
+            queryString.append(" AND i.invoiceDate >= :startDate");
+        }
+        if (endDate != null) {
+            queryString.append(" AND i.invoiceDate <= :endDate");
+        }
+        queryString.append(" ORDER BY li.id");
+
+        Integer lastLineItemId = Integer.MIN_VALUE;
+        List<FtaAuditLineModel> chunk;
+        do {
+            TypedQuery<FtaAuditLineModel> query = getEntityManager()
+                    .createQuery(queryString.toString(), FtaAuditLineModel.class)
+                    .setParameter("invoiceTypes", invoiceTypes)
+                    .setParameter("status", CommonStatusEnum.PAID.getValue())
+                    .setParameter("lastLineItemId", lastLineItemId)
+                    .setMaxResults(FTA_AUDIT_CHUNK_SIZE);
+            if (startDate != null) {
+                query.setParameter(QUERY_PARAM_START_DATE, startDate);
+            }
+            if (endDate != null) {
+                query.setParameter(QUERY_PARAM_END_DATE, endDate);
+            }
+            chunk = query.getResultList();
+            if (chunk.isEmpty()) {
+                break;
+            }
+            attachFtaAuditSettlements(chunk);
+            chunk.forEach(consumer);
+            lastLineItemId = chunk.get(chunk.size() - 1).getLineItemId();
+        } while (chunk.size() == FTA_AUDIT_CHUNK_SIZE);
+    }
 
-        String CquertStr = "SELECT c  FROM Contact c WHERE c.contactType IN (2,3) AND c.deleteFlag=false ";
-        Query Cquery = getEntityManager().createQuery(CquertStr);
-        List<Contact> customerList = Cquery.getResultList();
+    /**
+     * Sets the latest payment of every supplier invoice and the latest receipt of every customer invoice
+     * in the chunk, using one query per kind instead of one per line.
+     */
+    private void attachFtaAuditSettlements(List<FtaAuditLineModel> chunk) {
+        Set<Integer> supplierInvoiceIds = new HashSet<>();
+        Set<Integer> customerInvoiceIds = new HashSet<>();
+        for (FtaAuditLineModel line : chunk) {
+            if (line.getInvoiceType() == InvoiceTypeConstant.SUPPLIER) {
+                supplierInvoiceIds.add(line.getInvoiceId());
+            } else {
+                customerInvoiceIds.add(line.getInvoiceId());
+            }
+        }
+        Map<Integer, FtaAuditSettlementModel> settlements = new HashMap<>();
+        putLatestSettlements(settlements, FTA_AUDIT_PAYMENTS_QUERY, supplierInvoiceIds);
+        putLatestSettlements(settlements, FTA_AUDIT_RECEIPTS_QUERY, customerInvoiceIds);
+        for (FtaAuditLineModel line : chunk) {
+            line.setSettlement(settlements.get(line.getInvoiceId()));
+        }
+    }
 
-        String SquertStr = "SELECT c  FROM Contact c WHERE c.contactType IN (1,3) AND c.deleteFlag=false ";
-        Query Squery = getEntityManager().createQuery(SquertStr);
-        List<Contact> supplierList = Squery.getResultList();
+    private void putLatestSettlements(Map<Integer, FtaAuditSettlementModel> settlements, String queryString,
+                                      Set<Integer> invoiceIds) {
+        if (invoiceIds.isEmpty()) {
+            return;
+        }
+        List<FtaAuditSettlementModel> rows = getEntityManager()
+                .createQuery(queryString, FtaAuditSettlementModel.class)
+                .setParameter("invoiceIds", invoiceIds)
+                .getResultList();
+        // rows are ordered by payment id, so the last one of an invoice wins
+        for (FtaAuditSettlementModel row : rows) {
+            settlements.put(row.getInvoiceId(), row);
+        }
+    }
 
-        List<InvoiceLineItem> invoiceLineItemList = invoiceLineitemRepository.findAll();
+    private static LocalDate parseFtaAuditDate(String date) {
+        if (date == null || date.isEmpty()) {
+            return null;
+        }
+        return LocalDate.parse(date, DateTimeFormatter.ofPattern(CommonColumnConstants.DD_MM_YYYY));
+    }
 
-      Optional<VatTaxAgency> optionalTaxAgency = taxAgencyRepository.findById(requestModel.getTaxAgencyId());
+    private static Date toFtaAuditDate(LocalDate invoiceDate) {
+        return Date.from(invoiceDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
 
-        if (optionalCompany.isPresent() && optionalTaxAgency.isPresent()) {
+    /**
+     * Keeps the rows of an FTA audit file in memory for the callers that need the whole response model.
+     */
+    private static class FtaAuditResponseCollector implements FtaAuditReportListener {
 
-            Company company = optionalCompany.get();
-         VatTaxAgency vatTaxAgency = optionalTaxAgency.get();
-
-            fta_Excise_response.setCompanyName(company.getCompanyName());
-            fta_Excise_response.setTaxablePersonNameEn(vatTaxAgency.getTaxablePersonNameInEnglish());
-            fta_Excise_response.setTaxablePersonNameAr(vatTaxAgency.getTaxablePersonNameInArabic());
-            fta_Excise_response.setTaxRegistrationNumber(company.getVatNumber());
-            fta_Excise_response.setTaxAgencyName(vatTaxAgency.getTaxAgencyName());
-            fta_Excise_response.setTaxAgencyNumber(vatTaxAgency.getTaxAgencyNumber());
-            fta_Excise_response.setTaxAgentName(vatTaxAgency.getTaxAgentName());
-            fta_Excise_response.setTaxAgencyAgentNumber(vatTaxAgency.getTaxAgentApprovalNumber());
-            fta_Excise_response.setStartDate(requestModel.getStartDate());
-            fta_Excise_response.setEndDate(requestModel.getStartDate());
-            fta_Excise_response.setProductVersion("-");
-            fta_Excise_response.setFafVersion("-");
-            fta_Excise_response.setCreationDate(vatTaxAgency.getCreatedDate());
+        private final Map<FtaAuditSection, List<Object>> sections = new EnumMap<>(FtaAuditSection.class);
 
-            //  Customer Data
-            for (Contact contact : customerList) {
-                CustomerDataResponseModel model = new CustomerDataResponseModel();
-                model.setCustomerName(getContactFullName(contact));
-                model.setGlId("-");
-                model.setReverseCharge("-");
-                model.setCustomerCountry(contact.getCountry().getCountryName());
-                model.setCustomerTRN(contact.getVatRegistrationNumber());
-                customerData.add(model);
-            }
-            fta_Excise_response.setCustomerDataResponseModels(customerData);
-
-            //  Supplier Data
-            for (Contact contact : supplierList) {
-                SupplierDataResponseModel supplierDataResponseModel = new SupplierDataResponseModel();
-                supplierDataResponseModel.setSupplierName(getContactFullName(contact));
-                supplierDataResponseModel.setGlId("-");
-                supplierDataResponseModel.setSupplierCountry(contact.getCountry().getCountryName());
-                supplierDataResponseModel.setSupplierTRN(contact.getVatRegistrationNumber());
-                supplierDataResponseModel.setReverseCharge("No");
-                supplierData.add(supplierDataResponseModel);
-            }
-            fta_Excise_response.setSupplierDataResponseModels(supplierData);
+        private FtaAuditResponseModel response;
 
-//            Purchase Data
-            for (InvoiceLineItem invoiceLineItem : invoiceLineItemList) {
-                SupplierSupplyListingResponseModel supplierSupplyListing = new SupplierSupplyListingResponseModel();
-                if (invoiceLineItem.getInvoice().getType() == 1 && invoiceLineItem.getInvoice().getStatus() == 6) {
-                    supplierSupplyListing.setSupplierName(getFullName(invoiceLineItem));
-                    supplierSupplyListing.setSupplierCountry(invoiceLineItem.getInvoice().getContact().getCountry().getCountryName());
-                    supplierSupplyListing.setSupplierTRN(invoiceLineItem.getInvoice().getContact().getVatRegistrationNumber());
-                    ZoneId timeZone = ZoneId.systemDefault();
-                    Date date = Date.from(invoiceLineItem.getInvoice().getInvoiceDate().atStartOfDay(timeZone).toInstant());
-                    supplierSupplyListing.setInvoiceDate(date);
-                    supplierSupplyListing.setInvoiceNo(invoiceLineItem.getInvoice().getReferenceNumber());
-                    List<SupplierInvoicePayment> supplierInvoicePayments = invoicePaymentRepository.findBySupplierInvoiceId(invoiceLineItem.getInvoice().getId());
-                    for(SupplierInvoicePayment supplierInvoicePayment : supplierInvoicePayments){
-                        supplierSupplyListing.setTransactionID(supplierInvoicePayment.getTransaction().getTransactionId());
-                    }
-                    supplierSupplyListing.setLineNo(lineNo++);
-                    supplierSupplyListing.setProductName(invoiceLineItem.getProduct().getProductName());
-                    supplierSupplyListing.setProductType(invoiceLineItem.getProduct().getProductType());
-                    supplierSupplyListing.setProductDescription(invoiceLineItem.getProduct().getProductDescription());
-                    supplierSupplyListing.setPurchaseValue(invoiceLineItem.getUnitPrice());
-                    supplierSupplyListing.setExciseTaxValue(invoiceLineItem.getExciseAmount());
-
-                    supplierSupplyListing.setExciseTaxFCY(invoiceLineItem.getExciseAmount());
-                    supplierSupplyListing.setPurchaseFCY(invoiceLineItem.getUnitPrice());
-                    purchaseTotal = purchaseTotal.add(invoiceLineItem.getUnitPrice());
-                    supplierExciseTotal =  supplierExciseTotal.add((invoiceLineItem.getExciseAmount()));
-                    supplierSupplyListingRes.add(supplierSupplyListing);
+        @Override
+        public void onSectionStart(FtaAuditSection section) {
+            sections.put(section, new LinkedList<>());
+        }
 
-                }
+        @Override
+        public void onRow(FtaAuditSection section, Object row) {
+            sections.get(section).add(row);
+        }
 
-            }
-            fta_Excise_response.setPurchaseTotal(purchaseTotal);
-            fta_Excise_response.setSupplierExciseTotal(supplierExciseTotal);
-            fta_Excise_response.setSupplierSupplyListingResponseModels(supplierSupplyListingRes);
-            fta_Excise_response.setSupplierTransactionCountTotal(supplierSupplyListingRes.size());
+        @Override
+        public void onSectionEnd(FtaAuditSection section) {
+            // rows are assigned to the response on completion
+        }
 
-            // Supply Data
-            for (InvoiceLineItem invoiceLineItem : invoiceLineItemList) {
-                CustomerSupplyListingResponseModel customerSupplyList = new CustomerSupplyListingResponseModel();
-                if(invoiceLineItem.getInvoice().getType() == 2 && invoiceLineItem.getInvoice().getStatus() == 6) {
-                    customerSupplyList.setCustomerName(getFullName(invoiceLineItem));
-                    customerSupplyList.setCustomerCountry(invoiceLineItem.getInvoice().getContact().getCountry().getCountryName());
-                    customerSupplyList.setCustomerTRN(invoiceLineItem.getInvoice().getContact().getVatRegistrationNumber());
-                    ZoneId timeZone = ZoneId.systemDefault();
-                    Date date = Date.from(invoiceLineItem.getInvoice().getInvoiceDate().atStartOfDay(timeZone).toInstant());
-                    customerSupplyList.setInvoiceDate(date);
-                    customerSupplyList.setInvoiceNo(invoiceLineItem.getInvoice().getReferenceNumber());
-                    List<CustomerInvoiceReceipt> customerInvoiceReceipts = invoiceReceiptRepository.findByCustomerInvoiceId(invoiceLineItem.getInvoice().getId());
-                    for(CustomerInvoiceReceipt customerInvoiceReceipt : customerInvoiceReceipts){
-                        customerSupplyList.setTransactionID(customerInvoiceReceipt.getTransaction().getTransactionId());
-                    }
+        @Override
+        public void onComplete(FtaAuditResponseModel summary) {
+            sections.forEach((section, rows) -> section.setRows(summary, rows));
+            response = summary;
+        }
 
-                    customerSupplyList.setLineNo(lineNo++);
-                    customerSupplyList.setProductName(invoiceLineItem.getProduct().getProductName());
-                    customerSupplyList.setProductType(invoiceLineItem.getProduct().getProductType());
-                    customerSupplyList.setProductDescription(invoiceLineItem.getProduct().getProductDescription());
-                    customerSupplyList.setSupplyValue(invoiceLineItem.getUnitPrice());
-                    customerSupplyList.setExciseTaxValue(invoiceLineItem.getExciseAmount());
+        FtaAuditResponseModel getResponse() {
+            return response;
+        }
+    }
 
-                    customerSupplyList.setExciseTaxFCY(invoiceLineItem.getExciseAmount());
-                    customerSupplyList.setSupplyFCY(invoiceLineItem.getUnitPrice());
-                    supplyTotal = supplyTotal.add(invoiceLineItem.getUnitPrice());
-                    customerExciseTotal = customerExciseTotal.add(invoiceLineItem.getExciseAmount());
-                    customerSupplyListingRes.add(customerSupplyList);
+    /**
+     * Groups the outstanding customer invoices per contact in one query. Each bucket is a conditional sum over
+     * an invoice date range, derived from the end date and the bucket day limits, so the invoice date index is
+     * usable and no invoice is loaded. The outstanding amount is the due amount, which receipts and applied
+     * credit notes already reduce, converted to the base currency with the invoice exchange rate.
+     */
+    @Override
+    public AgingListModel getAgingReport(AgingRequestModel requestModel) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(CommonColumnConstants.DD_MM_YYYY);
+        LocalDate endDate = LocalDate.parse(requestModel.getEndDate(), formatter);
+        List<Integer> bucketDays = getAgingBucketDays(requestModel.getBucketDays());
+
+        TypedQuery<Object[]> query = getEntityManager().createQuery(buildAgingQuery(bucketDays.size()), Object[].class)
+                .setParameter("type", InvoiceTypeConstant.CUSTOMER)
+                .setParameter("statuses", AGING_INVOICE_STATUSES)
+                .setParameter(QUERY_PARAM_END_DATE, endDate);
+        for (int i = 0; i < bucketDays.size(); i++) {
+            query.setParameter(AGING_CUTOFF + i, endDate.minusDays(bucketDays.get(i)));
+        }
 
-                }
+        List<AgingResponseModel> agingResponseModels = new ArrayList<>();
+        for (Object[] row : query.getResultList()) {
+            agingResponseModels.add(toAgingResponseModel(row, bucketDays.size() + 1));
+        }
+        AgingListModel agingListModel = new AgingListModel();
+        agingListModel.setBucketLabels(getAgingBucketLabels(bucketDays));
+        agingListModel.setAgingResponseModelList(agingResponseModels);
+        return agingListModel;
+    }
 
+    /**
+     * Bucket 0 holds invoices at most {@code bucketDays[0]} days old, bucket i those older than
+     * {@code bucketDays[i-1]} and at most {@code bucketDays[i]} days old, and the last bucket everything older.
+     */
+    static String buildAgingQuery(int limits) {
+        StringBuilder select = new StringBuilder("SELECT c.contactId, c.firstName, c.lastName, c.organization");
+        for (int i = 0; i <= limits; i++) {
+            List<String> conditions = new ArrayList<>();
+            if (i < limits) {
+                conditions.add("i.invoiceDate >= :" + AGING_CUTOFF + i);
             }
-            fta_Excise_response.setSupplyTotal(supplyTotal);
-            fta_Excise_response.setCustomerExciseTotal(customerExciseTotal);
-            fta_Excise_response.setCustomerSupplyListingResponseModel(customerSupplyListingRes);
-            fta_Excise_response.setCustomerTransactionCountTotal(customerSupplyListingRes.size());
-
-            for (InvoiceLineItem invoiceLineItem : invoiceLineItemList) {
-                GeneralLedgerListingResponseModel generalLedgerListing = new GeneralLedgerListingResponseModel();
-                if(invoiceLineItem.getInvoice().getType() == 2 && invoiceLineItem.getInvoice().getStatus() == 6) {
-                    List<CustomerInvoiceReceipt> customerInvoiceReceipts = invoiceReceiptRepository.findByCustomerInvoiceId(invoiceLineItem.getInvoice().getId());
-                    for (CustomerInvoiceReceipt customerInvoiceReceipt : customerInvoiceReceipts) {
-                        generalLedgerListing.setTransactionDate(customerInvoiceReceipt.getTransaction().getTransactionDate());
-                        generalLedgerListing.setTransactionID(customerInvoiceReceipt.getTransaction().getTransactionId());
-                        generalLedgerListing.setAccountID(customerInvoiceReceipt.getTransaction().getBankAccount().getBankAccountId());
-                        generalLedgerListing.setAccountName(customerInvoiceReceipt.getTransaction().getCoaCategory().getChartOfAccountCategoryName());
-                        generalLedgerListing.setTransactionDescription(customerInvoiceReceipt.getTransaction().getTransactionDescription());
-                        generalLedgerListing.setName(invoiceLineItem.getInvoice().getReferenceNumber());
-                        generalLedgerListing.setSourceDocumentID("-");
-                        if(customerInvoiceReceipt.getTransaction().getDebitCreditFlag() == 'D') {
-                            generalLedgerListing.setSourceType("Account Payable");
-                        }else{
-                            generalLedgerListing.setSourceType(ACCOUNT_RECEIVABLE);
-                        }
-                        if(customerInvoiceReceipt.getTransaction().getDebitCreditFlag() == 'C'){
-                            generalLedgerListing.setCredit(invoiceLineItem.getUnitPrice());
-                            TotalCredit = TotalCredit.add(generalLedgerListing.getCredit());
-                            generalLedgerListing.setDebit(BigDecimal.ZERO);
-                        }else {
-                            generalLedgerListing.setDebit(invoiceLineItem.getUnitPrice());
-                            TotalDebit = TotalDebit.add(generalLedgerListing.getDebit());
-                            generalLedgerListing.setCredit(BigDecimal.ZERO);
-                        }
-                        generalLedgerListing.setBalance(invoiceLineItem.getUnitPrice());
-                    }
-                    generalLedgerListingRes.add(generalLedgerListing);
-                }else if(invoiceLineItem.getInvoice().getType() == 1 && invoiceLineItem.getInvoice().getStatus() == 6){
-                    List<SupplierInvoicePayment> supplierInvoicePayments = invoicePaymentRepository.findBySupplierInvoiceId(invoiceLineItem.getInvoice().getId());
-                    for(SupplierInvoicePayment supplierInvoicePayment : supplierInvoicePayments){
-                        generalLedgerListing.setTransactionDate(supplierInvoicePayment.getTransaction().getTransactionDate());
-                        generalLedgerListing.setTransactionID(supplierInvoicePayment.getTransaction().getTransactionId());
-                        generalLedgerListing.setAccountID(supplierInvoicePayment.getTransaction().getBankAccount().getBankAccountId());
-                        generalLedgerListing.setAccountName(supplierInvoicePayment.getTransaction().getCoaCategory().getChartOfAccountCategoryName());
-                        generalLedgerListing.setTransactionDescription(supplierInvoicePayment.getTransaction().getTransactionDescription());
-                        generalLedgerListing.setName(invoiceLineItem.getInvoice().getReferenceNumber());
-                        generalLedgerListing.setSourceDocumentID("-");
-                        if(supplierInvoicePayment.getTransaction().getDebitCreditFlag() == 'C') {
-                            generalLedgerListing.setSourceType(ACCOUNT_RECEIVABLE);
-                        }else{
-                            generalLedgerListing.setSourceType("Account Payable");
-                        }
-                        if(supplierInvoicePayment.getTransaction().getDebitCreditFlag() == 'D'){
-                            generalLedgerListing.setDebit(invoiceLineItem.getUnitPrice());
-                            TotalDebit = TotalDebit.add(generalLedgerListing.getDebit());
-                            generalLedgerListing.setCredit(BigDecimal.ZERO);
-                        }else {
-                            generalLedgerListing.setCredit(invoiceLineItem.getUnitPrice());
-                            TotalCredit = TotalCredit.add(generalLedgerListing.getCredit());
-                            generalLedgerListing.setDebit(BigDecimal.ZERO);
-                        }
-                        generalLedgerListing.setBalance(invoiceLineItem.getUnitPrice());
-                    }
-                    generalLedgerListingRes.add(generalLedgerListing);
-                }
-
+            if (i > 0) {
+                conditions.add("i.invoiceDate < :" + AGING_CUTOFF + (i - 1));
             }
-            fta_Excise_response.setTotalCredit(TotalCredit);
-            fta_Excise_response.setTotalDebit(TotalDebit);
-            fta_Excise_response.setTransactionCountTotal(generalLedgerListingRes.size());
-            fta_Excise_response.setGeneralLedgerListingResponseModels(generalLedgerListingRes);
-            fta_Excise_response.setGLTCurrency(company.getCurrencyCode().getCurrencyIsoCode());
+            select.append(", SUM(CASE WHEN ").append(String.join(" AND ", conditions))
+                    .append(" THEN ").append(AGING_OUTSTANDING_AMOUNT).append(" ELSE 0 END)");
         }
-
-        return fta_Excise_response;
+        return select.append(", SUM(").append(AGING_OUTSTANDING_AMOUNT).append(") ")
+                .append("FROM Invoice i JOIN i.contact c ")
+                .append("WHERE i.type = :type AND i.status IN (:statuses) AND i.deleteFlag = false ")
+                .append("AND i.invoiceDate <= :endDate ")
+                .append("GROUP BY c.contactId, c.firstName, c.lastName, c.organization ")
+                .append("HAVING SUM(").append(AGING_OUTSTANDING_AMOUNT).append(") <> 0 ")
+                .append("ORDER BY c.contactId")
+                .toString();
     }
-    public String getFullName(InvoiceLineItem invoiceLineItem) {
 
-            if(invoiceLineItem.getInvoice().getContact()!=null) {
-                return getContactFullName(invoiceLineItem.getInvoice().getContact());
-            }
-            return " - ";
+    /**
+     * @return positive distinct bucket day limits in ascending order, {@link #DEFAULT_AGING_BUCKET_DAYS} if none
+     */
+    static List<Integer> getAgingBucketDays(List<Integer> bucketDays) {
+        List<Integer> days = bucketDays == null ? Collections.emptyList() : bucketDays.stream()
+                .filter(Objects::nonNull).filter(day -> day > 0).distinct().sorted().collect(Collectors.toList());
+        return days.isEmpty() ? DEFAULT_AGING_BUCKET_DAYS : days;
     }
-    public String getContactFullName(Contact contact) {
-        StringBuilder sb = new StringBuilder();
-        if (contact != null ) {
-            sb.append(contact.getFirstName()).append(" ");
-            sb.append(contact.getMiddleName()).append(" ");
-            sb.append(contact.getLastName());
+
+    static List<String> getAgingBucketLabels(List<Integer> bucketDays) {
+        List<String> labels = new ArrayList<>();
+        int from = 0;
+        for (Integer day : bucketDays) {
+            labels.add(from + "-" + day);
+            from = day + 1;
         }
-        return sb.toString();
+        labels.add(bucketDays.get(bucketDays.size() - 1) + "+");
+        return labels;
     }
 
-    @Override
-    public AgingListModel getAgingReport(AgingRequestModel requestModel) {
-        AgingListModel agingListModel = new AgingListModel();
-        List<AgingResponseModel> agingResponseModels = new LinkedList<>();
+    private static AgingResponseModel toAgingResponseModel(Object[] row, int buckets) {
+        AgingResponseModel agingResponseModel = new AgingResponseModel();
+        agingResponseModel.setContactId((Integer) row[0]);
+        String organization = (String) row[3];
+        agingResponseModel.setOrganizationName(organization);
+        agingResponseModel.setContactName(organization == null || organization.isEmpty()
+                ? row[1] + " " + row[2] : organization);
+        for (int i = 0; i < buckets; i++) {
+            agingResponseModel.getBucketAmounts().add(toAmount(row[4 + i]));
+        }
+        agingResponseModel.setTotalAmount(toAmount(row[4 + buckets]));
+
+        // the fixed columns keep their meaning for the default limits of 15 and 30 days
+        List<BigDecimal> amounts = agingResponseModel.getBucketAmounts();
+        agingResponseModel.setLessthen15(amounts.get(0));
+        agingResponseModel.setBetween15to30(buckets > 2 ? amounts.get(1) : BigDecimal.ZERO);
+        agingResponseModel.setMorethan30(amounts.subList(buckets > 2 ? 2 : 1, buckets).stream()
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        return agingResponseModel;
+    }
 
-        Map<Integer, AgingResponseModel> agingReport = new HashMap<>();
-        List<Invoice> queryresp = invoiceRepository.findAllByStatusAndType(3 ,2);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(CommonColumnConstants.DD_MM_YYYY);
-        LocalDate endDate = LocalDate.parse(requestModel.getEndDate(), formatter);
-        for (Invoice invoice : queryresp) {
-  Duration daysBetween = Duration.between(invoice.getInvoiceDate().atStartOfDay(),endDate.atStartOfDay());
-  Integer contact = invoice.getContact().getContactId();
-            AgingResponseModel agingResponseModel = agingReport.get(contact);
-            if(agingResponseModel == null){
-               agingResponseModel = new AgingResponseModel();
-               agingReport.put(contact,agingResponseModel);
-                agingResponseModels.add(agingResponseModel);
-            }
-            if (invoice.getContact().getOrganization() == null || invoice.getContact().getOrganization().isEmpty()){
-                agingResponseModel.setContactName(invoice.getContact().getFirstName() +" "+invoice.getContact().getLastName());
-            }else {
-                agingResponseModel.setContactName(invoice.getContact().getOrganization());
-            }
-            agingResponseModel.setOrganizationName(invoice.getContact().getOrganization());
-            if (daysBetween.toDays() < 15) {
-                agingResponseModel.setLessthen15(agingResponseModel.getLessthen15().add(invoice.getTotalAmount().multiply(invoice.getExchangeRate())));
-                agingResponseModel.setTotalAmount(agingResponseModel.getTotalAmount().add(invoice.getTotalAmount().multiply(invoice.getExchangeRate())));
-            } else if (daysBetween.toDays() > 15 && daysBetween.toDays() < 30) {
-                agingResponseModel.setBetween15to30(agingResponseModel.getBetween15to30().add(invoice.getTotalAmount().multiply(invoice.getExchangeRate())));
-                agingResponseModel.setTotalAmount(agingResponseModel.getTotalAmount().add(invoice.getTotalAmount().multiply(invoice.getExchangeRate())));
-            } else {
-                agingResponseModel.setMorethan30(agingResponseModel.getTotalAmount().add(invoice.getTotalAmount().multiply(invoice.getExchangeRate())));
-                agingResponseModel.setTotalAmount(agingResponseModel.getTotalAmount().add(invoice.getTotalAmount().multiply(invoice.getExchangeRate())));
-            }
-         }
-        agingListModel.setAgingResponseModelList(agingResponseModels);
-        return agingListModel;
+    private static BigDecimal toAmount(Object value) {
+        return value == null ? BigDecimal.ZERO : new BigDecimal(value.toString());
     }
 }
@@ -2,6 +2,7 @@ package com.simpleaccounts.rest.simpleaccountreports;
 
 import com.simpleaccounts.rest.simpleaccountreports.Aging.AgingListModel;
 import com.simpleaccounts.rest.simpleaccountreports.Aging.AgingRequestModel;
+import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditReportListener;
 import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditRequestModel;
 import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditResponseModel;
 import com.simpleaccounts.rest.simpleaccountreports.soa.StatementOfAccountRequestModel;
@@ -45,5 +46,7 @@ public abstract class SimpleAccountReportService {
 
     public abstract FtaAuditResponseModel getFtaExciseAuditReport(FtaAuditRequestModel requestModel);
 
+    public abstract void writeFtaAuditReport(FtaAuditRequestModel requestModel, boolean exciseReport, FtaAuditReportListener listener);
+
     public abstract AgingListModel getAgingReport(AgingRequestModel requestModel);
 }
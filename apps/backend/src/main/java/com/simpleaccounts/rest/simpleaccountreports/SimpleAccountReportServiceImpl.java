@@ -3,6 +3,7 @@ package com.simpleaccounts.rest.simpleaccountreports;
 import com.simpleaccounts.rest.simpleaccountreports.Aging.AgingListModel;
 import lombok.RequiredArgsConstructor;
 import com.simpleaccounts.rest.simpleaccountreports.Aging.AgingRequestModel;
+import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditReportListener;
 import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditRequestModel;
 import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditResponseModel;
 import com.simpleaccounts.rest.simpleaccountreports.soa.StatementOfAccountRequestModel;
@@ -99,6 +100,11 @@ public class SimpleAccountReportServiceImpl extends SimpleAccountReportService{
     public FtaAuditResponseModel getFtaExciseAuditReport(FtaAuditRequestModel requestModel) {
         return simpleAccountReportDao.getFtaExciseAuditReport(requestModel);
     }
+
+    @Override
+    public void writeFtaAuditReport(FtaAuditRequestModel requestModel, boolean exciseReport, FtaAuditReportListener listener) {
+        simpleAccountReportDao.writeFtaAuditReport(requestModel, exciseReport, listener);
+    }
     @Override
     public AgingListModel getAgingReport(AgingRequestModel requestModel) {
         return simpleAccountReportDao.getAgingReport(requestModel);
@@ -9,18 +9,20 @@ import static com.simpleaccounts.constant.ErrorConstant.ERROR;
 import com.simpleaccounts.rest.simpleaccountreports.Aging.AgingListModel;
 import com.simpleaccounts.rest.simpleaccountreports.Aging.AgingRequestModel;
 import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditRequestModel;
-import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditResponseModel;
 import com.simpleaccounts.rest.simpleaccountreports.soa.StatementOfAccountRequestModel;
 import com.simpleaccounts.rest.simpleaccountreports.soa.StatementOfAccountResponseModel;
 import com.simpleaccounts.security.JwtTokenUtil;
 import com.simpleaccounts.service.UserService;
 import io.swagger.annotations.ApiOperation;
+import java.io.IOException;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -304,33 +306,19 @@ public class SimpleAccountReportsController {
     @LogRequest
     @ApiOperation(value = "Get FTA Audit Report")
     @GetMapping(value = "/getFtaAuditReport")
-    public ResponseEntity<FtaAuditResponseModel> getFtaAuditReport(FtaAuditRequestModel requestModel,
-                                                                   HttpServletRequest request) {
-        FtaAuditResponseModel ftaAuditResponseModel = simpleAccountReportRestHelper.getFtaAuditReport(requestModel);
-        try {
-            if (ftaAuditResponseModel == null) {
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-            }
-        } catch (Exception e) {
-            logger.error(ERROR, e);
-        }
-        return new ResponseEntity<>(ftaAuditResponseModel, HttpStatus.OK);
+    public void getFtaAuditReport(FtaAuditRequestModel requestModel, HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        simpleAccountReportRestHelper.writeFtaAuditReport(requestModel, false, response.getOutputStream());
     }
 
     @LogRequest
     @ApiOperation(value = "Get FTA Excise Audit Report")
     @GetMapping(value = "/getFtaExciseAuditReport")
-    public ResponseEntity<FtaAuditResponseModel> getFtaExciseAuditReport(FtaAuditRequestModel requestModel,
-                                                                   HttpServletRequest request) {
-        FtaAuditResponseModel ftaAuditResponseModel = simpleAccountReportRestHelper.getFtaExciseAuditReport(requestModel);
-        try {
-            if (ftaAuditResponseModel == null) {
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-            }
-        } catch (Exception e) {
-            logger.error(ERROR, e);
-        }
-        return new ResponseEntity<>(ftaAuditResponseModel, HttpStatus.OK);
+    public void getFtaExciseAuditReport(FtaAuditRequestModel requestModel, HttpServletRequest request,
+                                        HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        simpleAccountReportRestHelper.writeFtaAuditReport(requestModel, true, response.getOutputStream());
     }
 
     @LogRequest
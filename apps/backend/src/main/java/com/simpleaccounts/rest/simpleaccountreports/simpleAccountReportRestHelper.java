@@ -2,10 +2,14 @@ package com.simpleaccounts.rest.simpleaccountreports;
 
 import com.simpleaccounts.rest.simpleaccountreports.Aging.AgingListModel;
 import com.simpleaccounts.rest.simpleaccountreports.Aging.AgingRequestModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditJsonWriter;
 import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditRequestModel;
 import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditResponseModel;
 import com.simpleaccounts.rest.simpleaccountreports.soa.StatementOfAccountRequestModel;
 import com.simpleaccounts.rest.simpleaccountreports.soa.StatementOfAccountResponseModel;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -18,6 +22,8 @@ public class simpleAccountReportRestHelper {
 
 private final SimpleAccountReportService simpleAccountReportService;
 
+    private final ObjectMapper objectMapper;
+
     public  PurchaseByProductResponseModel getPurchaseByProduct(ReportRequestModel requestModel) {
 
        PurchaseByProductResponseModel purchaseByProductResponseModel = new PurchaseByProductResponseModel();
@@ -135,6 +141,15 @@ public ExpenseDetailsResponseModel getExpenseDetails(ReportRequestModel requestM
         return simpleAccountReportService.getFtaExciseAuditReport(requestModel);
     }
 
+    /**
+     * Streams the FTA VAT or excise audit file as JSON, in the same form as {@link FtaAuditResponseModel}.
+     */
+    public void writeFtaAuditReport(FtaAuditRequestModel requestModel, boolean exciseReport, OutputStream outputStream)
+            throws IOException {
+        simpleAccountReportService.writeFtaAuditReport(requestModel, exciseReport,
+                new FtaAuditJsonWriter(objectMapper, outputStream));
+    }
+
     public AgingListModel getAgingReport(AgingRequestModel requestModel) {
         return simpleAccountReportService.getAgingReport(requestModel);
     }
@@ -2,6 +2,7 @@ package com.simpleaccounts.rest.taxescontroller;
 
 import com.simpleaccounts.aop.LogRequest;
 import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.exceptions.InvalidContinuationTokenException;
 import com.simpleaccounts.rest.PaginationResponseModel;
 import com.simpleaccounts.security.JwtTokenUtil;
 import com.simpleaccounts.service.JournalLineItemService;
@@ -81,6 +82,9 @@ public class TaxesRestController {
             }
             responseModel.setData(taxesRestHelper.getListModel(responseModel.getData()));
             return new ResponseEntity<>(responseModel, HttpStatus.OK);
+        } catch (InvalidContinuationTokenException e) {
+            logger.warn(e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             logger.error(ERROR, e);
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
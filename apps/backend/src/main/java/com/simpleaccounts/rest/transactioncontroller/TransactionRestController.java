@@ -38,7 +38,6 @@ import com.simpleaccounts.service.bankaccount.TransactionStatusService;
 import com.simpleaccounts.utils.ChartUtil;
 import com.simpleaccounts.utils.DateFormatUtil;
 import com.simpleaccounts.utils.FileHelper;
-import com.simpleaccounts.utils.InvoiceNumberUtil;
 import io.swagger.annotations.ApiOperation;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONObject;
@@ -138,8 +137,6 @@ public class TransactionRestController {
 
 	private final PayrollRepository payrollRepository;
 
-	private final InvoiceNumberUtil invoiceNumberUtil;
-
 	private final VatPaymentRepository vatPaymentRepository;
 
 	private final VatRecordPaymentHistoryRepository vatRecordPaymentHistoryRepository;
@@ -195,7 +192,6 @@ public class TransactionRestController {
 									 FileAttachmentService fileAttachmentService,
 									 CustomizeInvoiceTemplateService customizeInvoiceTemplateService,
 									 PayrollRepository payrollRepository,
-									 InvoiceNumberUtil invoiceNumberUtil,
 									 VatPaymentRepository vatPaymentRepository,
 									 VatRecordPaymentHistoryRepository vatRecordPaymentHistoryRepository,
 									 VatReportFilingRepository vatReportFilingRepository,
@@ -239,7 +235,6 @@ public class TransactionRestController {
 		this.fileAttachmentService = fileAttachmentService;
 		this.customizeInvoiceTemplateService = customizeInvoiceTemplateService;
 		this.payrollRepository = payrollRepository;
-		this.invoiceNumberUtil = invoiceNumberUtil;
 		this.vatPaymentRepository = vatPaymentRepository;
 		this.vatRecordPaymentHistoryRepository = vatRecordPaymentHistoryRepository;
 		this.vatReportFilingRepository = vatReportFilingRepository;
@@ -1894,16 +1889,7 @@ public class TransactionRestController {
 
 	private Expense createNewExpense(TransactionPresistModel model, Integer userId) {
 		Expense expense = new Expense();
-		String nxtExpenseNo = customizeInvoiceTemplateService.getLastInvoice(10);
-		expense.setExpenseNumber(nxtExpenseNo);
-		if (expense.getExpenseNumber()!=null) {
-			CustomizeInvoiceTemplate template = customizeInvoiceTemplateService.getInvoiceTemplate(10);
-			String suffix = invoiceNumberUtil.fetchSuffixFromString(expense.getExpenseNumber());
-			template.setSuffix(Integer.parseInt(suffix));
-			String prefix = expense.getExpenseNumber().substring(0, expense.getExpenseNumber().lastIndexOf(suffix));
-			template.setPrefix(prefix);
-			customizeInvoiceTemplateService.persist(template);
-		}
+		expense.setExpenseNumber(customizeInvoiceTemplateService.allocateNextNumber(10));
 		expense.setStatus(ExpenseStatusEnum.POSTED.getValue());
 		Expense.ExpenseBuilder expenseBuilder = expense.toBuilder();
 		if(model.getUserId()!=null) {
@@ -16,7 +16,9 @@ import com.simpleaccounts.constant.dbfilter.ORDERBYENUM;
 import com.simpleaccounts.constant.dbfilter.UserFilterEnum;
 import com.simpleaccounts.entity.*;
 import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.integration.MailDispatcher;
 import com.simpleaccounts.integration.MailIntegration;
+import com.simpleaccounts.integration.MailSenderProvider;
 import com.simpleaccounts.repository.PasswordHistoryRepository;
 import com.simpleaccounts.rest.DropdownModel;
 import com.simpleaccounts.rest.PaginationResponseModel;
@@ -85,6 +87,10 @@ public class UserController{
 
 	private final MailIntegration mailIntegration;
 
+	private final MailDispatcher mailDispatcher;
+
+	private final MailSenderProvider mailSenderProvider;
+
 	private final TransactionCategoryService transactionCategoryService;
 
 	private final CoacTransactionCategoryService coacTransactionCategoryService;
@@ -349,8 +355,7 @@ public class UserController{
 			MessageFormat msgFormat = new MessageFormat(fileUtility.readFile(pathname));
 			MimeMultipart mimeMultipart = fileUtility.getMessageBody(msgFormat.format(args));
 			String[] email = { userMail };
-			MailConfigurationModel mailDefaultConfigurationModel = MailUtility
-					.getEMailConfigurationList(configurationService.getConfigurationList());
+			MailConfigurationModel mailDefaultConfigurationModel = mailSenderProvider.getConfiguration();
 			sendActivationMail(mailEnum, mimeMultipart, mailDefaultConfigurationModel.getMailusername(), email);
 		} catch (Exception e) {
 			logger.error(ERROR, e);
@@ -360,20 +365,13 @@ public class UserController{
 
 	private void sendActivationMail(MailEnum mailEnum, MimeMultipart mimeMultipart, String userName,
 									String[] senderMailAddress) {
-		Thread t = new Thread(() -> {
-			try {
-				Mail mail = new Mail();
-				mail.setFrom(userName);
-				mail.setFromName(EmailConstant.ADMIN_EMAIL_SENDER_NAME);
-				mail.setTo(senderMailAddress);
-				mail.setSubject(mailEnum.getSubject());
-				mailIntegration.sendHtmlEmail(mimeMultipart, mail,
-						MailUtility.getJavaMailSender(configurationService.getConfigurationList()),false);
-			} catch (Exception ex) {
-				logger.error(ERROR, ex);
-			}
-		});
-		t.start();
+		Mail mail = new Mail();
+		mail.setFrom(userName);
+		mail.setFromName(EmailConstant.ADMIN_EMAIL_SENDER_NAME);
+		mail.setTo(senderMailAddress);
+		mail.setSubject(mailEnum.getSubject());
+		mailDispatcher.dispatch(MailDispatcher.emailLog("USER", userName, senderMailAddress),
+				mailIntegration.htmlEmailPreparator(mimeMultipart, mail, false));
 	}
 
 	@LogRequest
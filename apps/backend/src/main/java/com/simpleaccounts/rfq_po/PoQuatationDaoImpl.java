@@ -26,10 +26,7 @@ public class PoQuatationDaoImpl extends AbstractDao<Integer,PoQuatation> impleme
                         .condition(productFilter.getCondition()).value(value).build()));
         paginationModel.setSortingCol(
                 datatableUtil.getColName(paginationModel.getSortingCol(), DatatableSortingFilterConstant.INVOICE));
-        PaginationResponseModel response = new PaginationResponseModel();
-        response.setCount(this.getResultCount(dbFilters));
-        response.setData(this.executeQuery(dbFilters, paginationModel));
-        return response;
+        return this.executeQueryWithCount(dbFilters, paginationModel);
     }
     public PaginationResponseModel getPOList(Map<POFilterEnum, Object> filterDataMap, PaginationModel paginationModel){
         List<DbFilter> dbFilters = new ArrayList<>();
@@ -38,10 +35,7 @@ public class PoQuatationDaoImpl extends AbstractDao<Integer,PoQuatation> impleme
                         .condition(productFilter.getCondition()).value(value).build()));
         paginationModel.setSortingCol(
                 datatableUtil.getColName(paginationModel.getSortingCol(), DatatableSortingFilterConstant.INVOICE));
-        PaginationResponseModel response = new PaginationResponseModel();
-        response.setCount(this.getResultCount(dbFilters));
-        response.setData(this.executeQuery(dbFilters, paginationModel));
-        return response;
+        return this.executeQueryWithCount(dbFilters, paginationModel);
     }
     public PaginationResponseModel getQuotationList(Map<QuotationFilterEnum, Object> filterDataMap, PaginationModel paginationModel) {
         List<DbFilter> dbFilters = new ArrayList<>();
@@ -50,10 +44,7 @@ public class PoQuatationDaoImpl extends AbstractDao<Integer,PoQuatation> impleme
                         .condition(productFilter.getCondition()).value(value).build()));
         paginationModel.setSortingCol(
                 datatableUtil.getColName(paginationModel.getSortingCol(), DatatableSortingFilterConstant.INVOICE));
-        PaginationResponseModel response = new PaginationResponseModel();
-        response.setCount(this.getResultCount(dbFilters));
-        response.setData(this.executeQuery(dbFilters, paginationModel));
-        return response;
+        return this.executeQueryWithCount(dbFilters, paginationModel);
     }
    public List<DropdownModel> getRfqPoForDropDown(Integer type){
 
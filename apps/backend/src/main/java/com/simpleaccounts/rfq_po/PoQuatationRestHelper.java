@@ -88,8 +88,6 @@ public class PoQuatationRestHelper {
 
     private final ExciseTaxService exciseTaxService;
 
-    private final EmaiLogsService emaiLogsService;
-
     private final UnitTypesRepository unitTypesRepository;
     @Transactional(rollbackFor = Exception.class)
     public PoQuatation getRfqEntity(PoQuatationRequestModel requestModel, Integer userId) {
@@ -432,9 +430,6 @@ public class PoQuatationRestHelper {
         }
 
         if (poQuatation.getSupplierId() != null && contact.getBillingEmail() != null && !contact.getBillingEmail().isEmpty()) {
-            mailUtility.triggerEmailOnBackground2(subject,content, body, null, EmailConstant.ADMIN_SUPPORT_EMAIL,
-                    EmailConstant.ADMIN_EMAIL_SENDER_NAME, new String[]{poQuatation.getSupplierId().getBillingEmail()},
-                    true);
             User user = userService.findByPK(userId);
             EmailLogs emailLogs = new EmailLogs();
             emailLogs.setEmailDate(LocalDateTime.now());
@@ -447,7 +442,9 @@ public class PoQuatationRestHelper {
             logger.info(baseUrl);
             emailLogs.setBaseUrl(baseUrl);
             emailLogs.setModuleName("REQUEST FOR QUOTATION");
-            emaiLogsService.persist(emailLogs);
+            mailUtility.triggerEmailOnBackground2(subject,content, body, null, EmailConstant.ADMIN_SUPPORT_EMAIL,
+                    EmailConstant.ADMIN_EMAIL_SENDER_NAME, new String[]{poQuatation.getSupplierId().getBillingEmail()},
+                    true, emailLogs);
         } else {
            logger.info("BILLING ADDRES NOT PRESENT");
         }
@@ -1522,9 +1519,6 @@ public class PoQuatationRestHelper {
         }
 
         if (poQuatation.getSupplierId() != null && contact.getBillingEmail() != null && !contact.getBillingEmail().isEmpty()) {
-            mailUtility.triggerEmailOnBackground2(subject,content, body, null, EmailConstant.ADMIN_SUPPORT_EMAIL,
-                    EmailConstant.ADMIN_EMAIL_SENDER_NAME, new String[]{poQuatation.getSupplierId().getBillingEmail()},
-                    true);
             User user = userService.findByPK(userId);
             EmailLogs emailLogs = new EmailLogs();
             emailLogs.setEmailDate(LocalDateTime.now());
@@ -1537,7 +1531,9 @@ public class PoQuatationRestHelper {
             logger.info(baseUrl);
             emailLogs.setBaseUrl(baseUrl);
             emailLogs.setModuleName("PURCHASE ORDER");
-            emaiLogsService.persist(emailLogs);
+            mailUtility.triggerEmailOnBackground2(subject,content, body, null, EmailConstant.ADMIN_SUPPORT_EMAIL,
+                    EmailConstant.ADMIN_EMAIL_SENDER_NAME, new String[]{poQuatation.getSupplierId().getBillingEmail()},
+                    true, emailLogs);
         } else {
             logger.info(ERROR_BILLING_ADDRESS_NOT_PRESENT);
         }
@@ -1804,9 +1800,6 @@ public class PoQuatationRestHelper {
         }
 
         if (poQuatation.getSupplierId() != null && contact.getBillingEmail() != null && !contact.getBillingEmail().isEmpty()) {
-            mailUtility.triggerEmailOnBackground2(subject,content, body, null, EmailConstant.ADMIN_SUPPORT_EMAIL,
-                    EmailConstant.ADMIN_EMAIL_SENDER_NAME, new String[]{poQuatation.getSupplierId().getBillingEmail()},
-                    true);
             User user = userService.findByPK(userId);
             EmailLogs emailLogs = new EmailLogs();
             emailLogs.setEmailDate(LocalDateTime.now());
@@ -1819,7 +1812,9 @@ public class PoQuatationRestHelper {
             logger.info(baseUrl);
             emailLogs.setBaseUrl(baseUrl);
             emailLogs.setModuleName("GOODS RECEIVED NOTE");
-            emaiLogsService.persist(emailLogs);
+            mailUtility.triggerEmailOnBackground2(subject,content, body, null, EmailConstant.ADMIN_SUPPORT_EMAIL,
+                    EmailConstant.ADMIN_EMAIL_SENDER_NAME, new String[]{poQuatation.getSupplierId().getBillingEmail()},
+                    true, emailLogs);
         } else {
             logger.info(ERROR_BILLING_ADDRESS_NOT_PRESENT);
         }
@@ -1996,14 +1991,8 @@ public class PoQuatationRestHelper {
         poQuatation.setCreatedBy(userId);
         poQuatation.setCreatedDate(LocalDateTime.now());
         poQuatation.setDeleteFlag(false);
-        String nxtInvoiceNo = customizeInvoiceTemplateService.getLastInvoice(4);
         poQuatation.setType(4);
-        CustomizeInvoiceTemplate template = customizeInvoiceTemplateService.getInvoiceTemplate(4);
-        String suffix=invoiceNumberUtil.fetchSuffixFromString(nxtInvoiceNo);
-        template.setSuffix(Integer.parseInt(suffix));
-        String prefix= nxtInvoiceNo.substring(0,nxtInvoiceNo.lastIndexOf(suffix));
-        template.setPrefix(prefix);
-        poQuatation.setPoNumber(prefix+suffix);
+        poQuatation.setPoNumber(customizeInvoiceTemplateService.allocateNextNumber(4));
         poQuatation.setPoApproveDate(rfqQuatation.getRfqExpiryDate());
         poQuatation.setPoReceiveDate(rfqQuatation.getRfqReceiveDate());
         poQuatation.setSupplierId(rfqQuatation.getSupplierId());
@@ -2037,14 +2026,8 @@ public class PoQuatationRestHelper {
         poQuatation.setCreatedBy(userId);
         poQuatation.setCreatedDate(LocalDateTime.now());
         poQuatation.setDeleteFlag(false);
-        String nxtInvoiceNo = customizeInvoiceTemplateService.getLastInvoice(5);
         poQuatation.setType(5);
-        CustomizeInvoiceTemplate template = customizeInvoiceTemplateService.getInvoiceTemplate(5);
-        String suffix=invoiceNumberUtil.fetchSuffixFromString(nxtInvoiceNo);
-        template.setSuffix(Integer.parseInt(suffix));
-        String prefix= nxtInvoiceNo.substring(0,nxtInvoiceNo.lastIndexOf(suffix));
-        template.setPrefix(prefix);
-        poQuatation.setGrnNumber(prefix+suffix);
+        poQuatation.setGrnNumber(customizeInvoiceTemplateService.allocateNextNumber(5));
         poQuatation.setGrnReceiveDate(purchaseOrderQuatation.getPoApproveDate());
         poQuatation.setSupplierId(purchaseOrderQuatation.getSupplierId());
         poQuatation.setTotalAmount(purchaseOrderQuatation.getTotalAmount());
@@ -2076,13 +2059,7 @@ public class PoQuatationRestHelper {
     public Invoice createSupplierInvoiceForGrn(PoQuatation poQuatation, Integer userId) {
         Invoice supplierInvoice= new Invoice();
         supplierInvoice.setType(1);
-        String nxtInvoiceNo = customizeInvoiceTemplateService.getLastInvoice(1);
-        CustomizeInvoiceTemplate template = customizeInvoiceTemplateService.getInvoiceTemplate(1);
-        String suffix=invoiceNumberUtil.fetchSuffixFromString(nxtInvoiceNo);
-        template.setSuffix(Integer.parseInt(suffix));
-        String prefix= nxtInvoiceNo.substring(0,nxtInvoiceNo.lastIndexOf(suffix));
-        template.setPrefix(prefix);
-        supplierInvoice.setReferenceNumber(prefix+suffix);
+        supplierInvoice.setReferenceNumber(customizeInvoiceTemplateService.allocateNextNumber(1));
         supplierInvoice.setCreatedBy(poQuatation.getCreatedBy());
         supplierInvoice.setCreatedDate(poQuatation.getCreatedDate());
         supplierInvoice.setContact(poQuatation.getSupplierId());
@@ -2426,9 +2403,6 @@ public class PoQuatationRestHelper {
         }
 
      if (poQuatation.getSupplierId() != null && contact.getBillingEmail() != null && !contact.getBillingEmail().isEmpty()) {
-        mailUtility.triggerEmailOnBackground2(subject,content, body, null, EmailConstant.ADMIN_SUPPORT_EMAIL,
-                EmailConstant.ADMIN_EMAIL_SENDER_NAME, new String[]{poQuatation.getSupplierId().getBillingEmail()},
-                true);
         User user = userService.findByPK(userId);
         EmailLogs emailLogs = new EmailLogs();
         emailLogs.setEmailDate(LocalDateTime.now());
@@ -2440,7 +2414,9 @@ public class PoQuatationRestHelper {
                 .toUriString();
         emailLogs.setBaseUrl(baseUrl);
         emailLogs.setModuleName("PURCHASE ORDER");
-        emaiLogsService.persist(emailLogs);
+        mailUtility.triggerEmailOnBackground2(subject,content, body, null, EmailConstant.ADMIN_SUPPORT_EMAIL,
+                EmailConstant.ADMIN_EMAIL_SENDER_NAME, new String[]{poQuatation.getSupplierId().getBillingEmail()},
+                true, emailLogs);
     } else {
         logger.info("BILLING ADDRESS NOT PRESENT");
     }
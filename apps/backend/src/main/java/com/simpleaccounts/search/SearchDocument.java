@@ -0,0 +1,125 @@
+package com.simpleaccounts.search;
+
+import com.simpleaccounts.entity.Contact;
+import com.simpleaccounts.entity.Invoice;
+import com.simpleaccounts.entity.Product;
+import com.simpleaccounts.entity.bankaccount.Transaction;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.StringJoiner;
+import lombok.Getter;
+import org.hibernate.Hibernate;
+
+/**
+ * Searchable text of one entity: the title is what a result shows and weighs more when ranking, the detail holds
+ * the other values it can be found by.
+ */
+@Getter
+public final class SearchDocument {
+
+	private final SearchDocumentType type;
+
+	private final Integer id;
+
+	private final String title;
+
+	private final String detail;
+
+	public SearchDocument(SearchDocumentType type, Integer id, String title, String detail) {
+		this.type = Objects.requireNonNull(type);
+		this.id = Objects.requireNonNull(id);
+		this.title = title != null ? title : "";
+		this.detail = detail != null ? detail : "";
+	}
+
+	/**
+	 * @return key of the document in the index, unique across types
+	 */
+	public String getKey() {
+		return key(type, id);
+	}
+
+	static String key(SearchDocumentType type, Integer id) {
+		return type.name() + ':' + id;
+	}
+
+	/**
+	 * Reads the document of an entity. Associations are only read when they are already loaded, so this can run
+	 * after the transaction of the entity has ended.
+	 *
+	 * @return the document, or null when the entity is not searched or is deleted
+	 */
+	public static SearchDocument of(Object entity) {
+		if (entity instanceof Contact) {
+			Contact contact = (Contact) entity;
+			if (Boolean.TRUE.equals(contact.getDeleteFlag())) {
+				return null;
+			}
+			String name = join(contact.getFirstName(), contact.getMiddleName(), contact.getLastName());
+			boolean organization = contact.getOrganization() != null && !contact.getOrganization().trim().isEmpty();
+			return new SearchDocument(SearchDocumentType.CONTACT, contact.getContactId(),
+					organization ? contact.getOrganization() : name,
+					join(organization ? name : null, contact.getEmail(), contact.getMobileNumber(),
+							contact.getTelephone(), contact.getVatRegistrationNumber()));
+		}
+		if (entity instanceof Invoice) {
+			Invoice invoice = (Invoice) entity;
+			if (Boolean.TRUE.equals(invoice.getDeleteFlag())) {
+				return null;
+			}
+			Contact contact = invoice.getContact() != null && Hibernate.isInitialized(invoice.getContact())
+					? invoice.getContact()
+					: null;
+			return new SearchDocument(SearchDocumentType.INVOICE, invoice.getId(), invoice.getReferenceNumber(),
+					join(contact != null ? contact.getOrganization() : null,
+							contact != null ? join(contact.getFirstName(), contact.getLastName()) : null,
+							invoice.getNotes(), amount(invoice.getTotalAmount())));
+		}
+		if (entity instanceof Product) {
+			Product product = (Product) entity;
+			if (Boolean.TRUE.equals(product.getDeleteFlag())) {
+				return null;
+			}
+			return new SearchDocument(SearchDocumentType.PRODUCT, product.getProductID(), product.getProductName(),
+					join(product.getProductCode(), product.getProductDescription()));
+		}
+		if (entity instanceof Transaction) {
+			Transaction transaction = (Transaction) entity;
+			if (Boolean.TRUE.equals(transaction.getDeleteFlag())) {
+				return null;
+			}
+			return new SearchDocument(SearchDocumentType.TRANSACTION, transaction.getTransactionId(),
+					transaction.getTransactionDescription(),
+					join(transaction.getReferenceStr(), amount(transaction.getTransactionAmount()),
+							transaction.getTransactionDate() != null
+									? transaction.getTransactionDate().toLocalDate().toString()
+									: null));
+		}
+		if (entity instanceof TransactionCategory) {
+			TransactionCategory transactionCategory = (TransactionCategory) entity;
+			if (Boolean.TRUE.equals(transactionCategory.getDeleteFlag())) {
+				return null;
+			}
+			return new SearchDocument(SearchDocumentType.TRANSACTION_CATEGORY,
+					transactionCategory.getTransactionCategoryId(), transactionCategory.getTransactionCategoryName(),
+					join(transactionCategory.getTransactionCategoryCode(),
+							transactionCategory.getTransactionCategoryDescription()));
+		}
+		return null;
+	}
+
+	private static String amount(BigDecimal amount) {
+		return amount != null ? amount.stripTrailingZeros().toPlainString() : null;
+	}
+
+	private static String join(String... values) {
+		StringJoiner joiner = new StringJoiner(" ");
+		for (String value : values) {
+			if (value != null && !value.trim().isEmpty()) {
+				joiner.add(value.trim());
+			}
+		}
+		return joiner.toString();
+	}
+}
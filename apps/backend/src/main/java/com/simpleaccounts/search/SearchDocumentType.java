@@ -0,0 +1,73 @@
+package com.simpleaccounts.search;
+
+import com.simpleaccounts.entity.Contact;
+import com.simpleaccounts.entity.Invoice;
+import com.simpleaccounts.entity.Product;
+import com.simpleaccounts.entity.bankaccount.Transaction;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Entities found by the global search, with the attributes the database fallback matches against.
+ */
+public enum SearchDocumentType {
+
+	CONTACT(Contact.class, "contactId", "", "firstName", "lastName", "organization", "email", "mobileNumber"),
+
+	INVOICE(Invoice.class, "id", " LEFT JOIN FETCH e.contact", "referenceNumber", "notes"),
+
+	PRODUCT(Product.class, "productID", "", "productName", "productCode", "productDescription"),
+
+	TRANSACTION(Transaction.class, "transactionId", "", "transactionDescription", "referenceStr"),
+
+	TRANSACTION_CATEGORY(TransactionCategory.class, "transactionCategoryId", "", "transactionCategoryName",
+			"transactionCategoryCode");
+
+	private final Class<?> entityClass;
+
+	private final String idAttribute;
+
+	private final String fetch;
+
+	private final List<String> textAttributes;
+
+	SearchDocumentType(Class<?> entityClass, String idAttribute, String fetch, String... textAttributes) {
+		this.entityClass = entityClass;
+		this.idAttribute = idAttribute;
+		this.fetch = fetch;
+		this.textAttributes = Collections.unmodifiableList(Arrays.asList(textAttributes));
+	}
+
+	public Class<?> getEntityClass() {
+		return entityClass;
+	}
+
+	public String getIdAttribute() {
+		return idAttribute;
+	}
+
+	/**
+	 * @return join fetch clauses for the associations a document of the type reads, empty when it reads none
+	 */
+	public String getFetch() {
+		return fetch;
+	}
+
+	public List<String> getTextAttributes() {
+		return textAttributes;
+	}
+
+	/**
+	 * @return the type the entity class is indexed as, null when it is not searched
+	 */
+	public static SearchDocumentType of(Class<?> entityClass) {
+		for (SearchDocumentType type : values()) {
+			if (type.entityClass.isAssignableFrom(entityClass)) {
+				return type;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,29 @@
+package com.simpleaccounts.search;
+
+import lombok.Getter;
+
+/**
+ * One result of a search, the higher the score the better the match. Results read from the database while the
+ * index is not ready have a score of 0.
+ */
+@Getter
+public final class SearchHit {
+
+	private final SearchDocumentType type;
+
+	private final Integer id;
+
+	private final String title;
+
+	private final String detail;
+
+	private final double score;
+
+	public SearchHit(SearchDocument document, double score) {
+		this.type = document.getType();
+		this.id = document.getId();
+		this.title = document.getTitle();
+		this.detail = document.getDetail();
+		this.score = score;
+	}
+}
@@ -0,0 +1,406 @@
+package com.simpleaccounts.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.stereotype.Component;
+
+/**
+ * In memory inverted index behind the global search.
+ *
+ * Every term of a document points to the documents holding it, so a query reads the postings of its own terms
+ * instead of scanning tables with {@code LIKE '%x%'}. A query term matches index terms exactly, as a prefix or, from
+ * four letters on, within one edit (two from eight letters on). Matches are ranked by how rare the term is, how close
+ * the match is and whether it is in the title, and every query term has to match for a document to be found.
+ *
+ * While a rebuild reads the database, changes made meanwhile are kept and applied again to the rebuilt index before
+ * it replaces the current one, so nothing committed during a rebuild is lost.
+ */
+@Component
+public class SearchIndex {
+
+	private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{Nd}]+(?:\\.\\p{Nd}+)?");
+
+	private static final Pattern RUN = Pattern.compile("[\\p{L}\\p{Nd}]+");
+
+	/** a digit followed by a letter, where {@link #TOKEN} may split a run after a decimal point */
+	private static final Pattern DIGIT_LETTER = Pattern.compile("\\p{Nd}\\p{L}");
+
+	private static final int TITLE_WEIGHT = 2;
+
+	private static final int DETAIL_WEIGHT = 1;
+
+	private static final double PREFIX_FACTOR = 0.8;
+
+	private static final int FUZZY_MIN_LENGTH = 4;
+
+	private static final int FUZZY_TWO_EDITS_LENGTH = 8;
+
+	private static final double FUZZY_FACTOR = 0.5;
+
+	private static final Comparator<SearchHit> RANKING = Comparator.comparingDouble(SearchHit::getScore).reversed()
+			.thenComparing(SearchHit::getTitle).thenComparing(hit -> hit.getType().ordinal())
+			.thenComparing(SearchHit::getId);
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private Postings postings = new Postings();
+
+	private List<Change> journal;
+
+	private volatile boolean ready;
+
+	/**
+	 * @return true once the index has been built, until then searches should go to the database
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return postings.documents.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds the document, or replaces the one indexed with the same type and id.
+	 */
+	public void put(SearchDocument document) {
+		lock.writeLock().lock();
+		try {
+			postings.put(document);
+			if (journal != null) {
+				journal.add(new Change(document.getKey(), document));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(SearchDocumentType type, Integer id) {
+		String key = SearchDocument.key(type, id);
+		lock.writeLock().lock();
+		try {
+			postings.remove(key);
+			if (journal != null) {
+				journal.add(new Change(key, null));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Starts keeping the changes made from now on, for {@link #finishRebuild(Collection)} to apply again.
+	 */
+	public void startRebuild() {
+		lock.writeLock().lock();
+		try {
+			journal = new ArrayList<>();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Replaces the index with the documents read since {@link #startRebuild()}, together with the changes made
+	 * while they were read.
+	 */
+	public void finishRebuild(Collection<SearchDocument> documents) {
+		Postings rebuilt = new Postings();
+		for (SearchDocument document : documents) {
+			rebuilt.put(document);
+		}
+		lock.writeLock().lock();
+		try {
+			if (journal != null) {
+				for (Change change : journal) {
+					if (change.document != null) {
+						rebuilt.put(change.document);
+					} else {
+						rebuilt.remove(change.key);
+					}
+				}
+			}
+			postings = rebuilt;
+			journal = null;
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Stops keeping changes after a failed rebuild; the current index stays as it is.
+	 */
+	public void abortRebuild() {
+		lock.writeLock().lock();
+		try {
+			journal = null;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @param query text to search for
+	 * @param types types to search, all of them when null or empty
+	 * @param limit maximum number of hits
+	 * @return the best hits, best first
+	 */
+	public List<SearchHit> search(String query, Set<SearchDocumentType> types, int limit) {
+		List<String> queryTerms = tokenize(query);
+		if (queryTerms.isEmpty() || limit <= 0) {
+			return Collections.emptyList();
+		}
+		lock.readLock().lock();
+		try {
+			Map<String, Double> scores = null;
+			for (String queryTerm : queryTerms) {
+				Map<String, Double> termScores = postings.match(queryTerm);
+				if (scores == null) {
+					scores = termScores;
+				} else {
+					Map<String, Double> both = new HashMap<>();
+					for (Map.Entry<String, Double> entry : scores.entrySet()) {
+						Double termScore = termScores.get(entry.getKey());
+						if (termScore != null) {
+							both.put(entry.getKey(), entry.getValue() + termScore);
+						}
+					}
+					scores = both;
+				}
+				if (scores.isEmpty()) {
+					return Collections.emptyList();
+				}
+			}
+			PriorityQueue<SearchHit> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+			for (Map.Entry<String, Double> entry : scores.entrySet()) {
+				SearchDocument document = postings.documents.get(entry.getKey());
+				if (types == null || types.isEmpty() || types.contains(document.getType())) {
+					best.add(new SearchHit(document, entry.getValue()));
+					if (best.size() > limit) {
+						best.poll();
+					}
+				}
+			}
+			List<SearchHit> hits = new ArrayList<>(best);
+			hits.sort(RANKING);
+			return hits;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Narrows a {@code LIKE '%text%'} filter on indexed text to the documents that can match it. Text containing
+	 * the filter value also contains each run of letters and digits of the value, and every such run lies inside
+	 * one indexed term, so a document is kept when each run occurs inside one of its terms. The result can hold
+	 * documents the filter does not match, never the other way round, as long as the index is current.
+	 *
+	 * @param type  type of the documents
+	 * @param text  value of the filter
+	 * @param limit maximum number of ids worth returning
+	 * @return ids of the documents that can match, null when the index cannot narrow the filter: it is not built
+	 *         yet, the text has no run to look for, or more than limit documents match
+	 */
+	public Set<Integer> findContaining(SearchDocumentType type, String text, int limit) {
+		if (!ready || text == null) {
+			return null;
+		}
+		List<String> runs = new ArrayList<>();
+		Matcher matcher = RUN.matcher(text.toLowerCase(Locale.ROOT));
+		while (matcher.find()) {
+			// a digit run after a decimal point is indexed apart from the letters following it
+			if (!DIGIT_LETTER.matcher(matcher.group()).find()) {
+				runs.add(matcher.group());
+			}
+		}
+		if (runs.isEmpty()) {
+			return null;
+		}
+		runs.sort(Comparator.comparingInt(String::length).reversed());
+		String prefix = type.name() + ':';
+		lock.readLock().lock();
+		try {
+			Set<String> candidates = null;
+			for (String run : runs) {
+				Set<String> holders = new HashSet<>();
+				for (Map.Entry<String, Map<String, Integer>> entry : postings.terms.entrySet()) {
+					if (entry.getKey().contains(run)) {
+						for (String key : entry.getValue().keySet()) {
+							if (key.startsWith(prefix) && (candidates == null || candidates.contains(key))) {
+								holders.add(key);
+							}
+						}
+					}
+				}
+				candidates = holders;
+				if (candidates.isEmpty()) {
+					break;
+				}
+			}
+			if (candidates.size() > limit) {
+				return null;
+			}
+			Set<Integer> ids = new HashSet<>();
+			for (String key : candidates) {
+				ids.add(postings.documents.get(key).getId());
+			}
+			return ids;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	static List<String> tokenize(String text) {
+		List<String> terms = new ArrayList<>();
+		if (text != null) {
+			Matcher matcher = TOKEN.matcher(text.toLowerCase(Locale.ROOT));
+			while (matcher.find()) {
+				terms.add(matcher.group());
+			}
+		}
+		return terms;
+	}
+
+	/**
+	 * @return the Levenshtein distance of the two terms, or {@code max + 1} once it is known to be larger than max
+	 */
+	static int distance(String a, String b, int max) {
+		if (Math.abs(a.length() - b.length()) > max) {
+			return max + 1;
+		}
+		int[] previous = new int[b.length() + 1];
+		int[] current = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++) {
+			previous[j] = j;
+		}
+		for (int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			int rowMin = current[0];
+			for (int j = 1; j <= b.length(); j++) {
+				int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+				current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+				rowMin = Math.min(rowMin, current[j]);
+			}
+			if (rowMin > max) {
+				return max + 1;
+			}
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[b.length()];
+	}
+
+	private static final class Change {
+
+		private final String key;
+
+		private final SearchDocument document;
+
+		private Change(String key, SearchDocument document) {
+			this.key = key;
+			this.document = document;
+		}
+	}
+
+	private static final class Postings {
+
+		private final Map<String, SearchDocument> documents = new HashMap<>();
+
+		/** term to the weight of the term in each document holding it */
+		private final NavigableMap<String, Map<String, Integer>> terms = new TreeMap<>();
+
+		private final Map<String, Set<String>> documentTerms = new HashMap<>();
+
+		private void put(SearchDocument document) {
+			String key = document.getKey();
+			remove(key);
+			Map<String, Integer> weights = new HashMap<>();
+			for (String term : tokenize(document.getTitle())) {
+				weights.merge(term, TITLE_WEIGHT, Math::max);
+			}
+			for (String term : tokenize(document.getDetail())) {
+				weights.merge(term, DETAIL_WEIGHT, Math::max);
+			}
+			for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+				terms.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(key, entry.getValue());
+			}
+			documents.put(key, document);
+			documentTerms.put(key, weights.keySet());
+		}
+
+		private void remove(String key) {
+			documents.remove(key);
+			Set<String> previous = documentTerms.remove(key);
+			if (previous != null) {
+				for (String term : previous) {
+					Map<String, Integer> holders = terms.get(term);
+					holders.remove(key);
+					if (holders.isEmpty()) {
+						terms.remove(term);
+					}
+				}
+			}
+		}
+
+		/**
+		 * @return score of each document matching the query term, by its best matching index term
+		 */
+		private Map<String, Double> match(String queryTerm) {
+			Map<String, Double> scores = new HashMap<>();
+			for (Map.Entry<String, Map<String, Integer>> entry : terms.tailMap(queryTerm, true).entrySet()) {
+				if (!entry.getKey().startsWith(queryTerm)) {
+					break;
+				}
+				double factor = entry.getKey().length() == queryTerm.length() ? 1.0
+						: PREFIX_FACTOR * queryTerm.length() / entry.getKey().length();
+				score(entry.getValue(), factor, scores);
+			}
+			if (queryTerm.length() >= FUZZY_MIN_LENGTH) {
+				int maxEdits = queryTerm.length() >= FUZZY_TWO_EDITS_LENGTH ? 2 : 1;
+				// Typos rarely hit the first letter, so only terms sharing it are compared.
+				String first = queryTerm.substring(0, 1);
+				String next = String.valueOf((char) (queryTerm.charAt(0) + 1));
+				for (Map.Entry<String, Map<String, Integer>> entry : terms.subMap(first, true, next, false)
+						.entrySet()) {
+					if (entry.getKey().startsWith(queryTerm)) {
+						continue;
+					}
+					int edits = distance(queryTerm, entry.getKey(), maxEdits);
+					if (edits <= maxEdits) {
+						score(entry.getValue(), FUZZY_FACTOR / edits, scores);
+					}
+				}
+			}
+			return scores;
+		}
+
+		private void score(Map<String, Integer> holders, double factor, Map<String, Double> scores) {
+			double idf = Math.log(1.0 + (double) documents.size() / holders.size());
+			for (Map.Entry<String, Integer> holder : holders.entrySet()) {
+				scores.merge(holder.getKey(), factor * idf * holder.getValue(), Math::max);
+			}
+		}
+	}
+}
@@ -0,0 +1,199 @@
+package com.simpleaccounts.search;
+
+import com.simpleaccounts.dao.SearchDocumentDao;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the {@link SearchIndex} current. Committed inserts, updates and deletes of searched entities are applied to
+ * the index as Hibernate reports them, soft deletes included, and the whole index is built again from the database
+ * on startup and on request. A rebuild reads each type in id order, one page per transaction, on a thread of its own.
+ */
+@Slf4j
+@Component
+public class SearchIndexer implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+		PostCommitDeleteEventListener, DisposableBean {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient SearchIndex searchIndex;
+
+	private final transient SearchDocumentDao searchDocumentDao;
+
+	private final transient EntityManagerFactory entityManagerFactory;
+
+	private final transient TransactionTemplate transactionTemplate;
+
+	private final transient ExecutorService worker = Executors
+			.newSingleThreadExecutor(new CustomizableThreadFactory("search-index-"));
+
+	private final boolean rebuildOnStartup;
+
+	private final int pageSize;
+
+	public SearchIndexer(SearchIndex searchIndex, SearchDocumentDao searchDocumentDao,
+			EntityManagerFactory entityManagerFactory, PlatformTransactionManager transactionManager,
+			@Value("${simpleaccounts.search.rebuild-on-startup:true}") boolean rebuildOnStartup,
+			@Value("${simpleaccounts.search.rebuild-page-size:1000}") int pageSize) {
+		this.searchIndex = searchIndex;
+		this.searchDocumentDao = searchDocumentDao;
+		this.entityManagerFactory = entityManagerFactory;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		this.rebuildOnStartup = rebuildOnStartup;
+		this.pageSize = Math.max(pageSize, 1);
+	}
+
+	@PostConstruct
+	public void register() {
+		EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+				.getServiceRegistry().getService(EventListenerRegistry.class);
+		registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+		registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+		registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (rebuildOnStartup) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Queues a rebuild of the whole index.
+	 *
+	 * @return completed with the number of documents indexed
+	 */
+	public CompletableFuture<Integer> rebuild() {
+		return CompletableFuture.supplyAsync(this::rebuildNow, worker);
+	}
+
+	private int rebuildNow() {
+		long start = System.currentTimeMillis();
+		searchIndex.startRebuild();
+		try {
+			List<SearchDocument> documents = new ArrayList<>();
+			for (SearchDocumentType type : SearchDocumentType.values()) {
+				readDocuments(type, documents);
+			}
+			searchIndex.finishRebuild(documents);
+			log.info("Search index rebuilt with {} documents in {} ms", documents.size(),
+					System.currentTimeMillis() - start);
+			return documents.size();
+		} catch (RuntimeException e) {
+			searchIndex.abortRebuild();
+			log.error("Search index could not be rebuilt", e);
+			throw e;
+		}
+	}
+
+	private void readDocuments(SearchDocumentType type, List<SearchDocument> documents) {
+		Integer afterId = null;
+		boolean more = true;
+		while (more) {
+			Integer pageAfterId = afterId;
+			List<SearchDocument> page = transactionTemplate.execute(status -> {
+				List<SearchDocument> read = new ArrayList<>();
+				for (Object entity : searchDocumentDao.getDocuments(type, pageAfterId, pageSize)) {
+					read.add(SearchDocument.of(entity));
+				}
+				return read;
+			});
+			for (SearchDocument document : page) {
+				if (document != null) {
+					documents.add(document);
+					afterId = document.getId();
+				}
+			}
+			more = page.size() == pageSize;
+		}
+	}
+
+	@Override
+	public void onPostInsert(PostInsertEvent event) {
+		index(event.getEntity(), event.getId());
+	}
+
+	@Override
+	public void onPostUpdate(PostUpdateEvent event) {
+		index(event.getEntity(), event.getId());
+	}
+
+	@Override
+	public void onPostDelete(PostDeleteEvent event) {
+		SearchDocumentType type = SearchDocumentType.of(event.getEntity().getClass());
+		if (type != null && event.getId() instanceof Integer) {
+			searchIndex.remove(type, (Integer) event.getId());
+		}
+	}
+
+	private void index(Object entity, Object id) {
+		SearchDocumentType type = SearchDocumentType.of(entity.getClass());
+		if (type == null) {
+			return;
+		}
+		try {
+			SearchDocument document = SearchDocument.of(entity);
+			if (document != null) {
+				searchIndex.put(document);
+			} else if (id instanceof Integer) {
+				searchIndex.remove(type, (Integer) id);
+			}
+		} catch (RuntimeException e) {
+			// The change is committed already, a stale entry must not fail the request that made it.
+			log.warn("{} {} could not be indexed for search", type, id, e);
+		}
+	}
+
+	@Override
+	public void onPostInsertCommitFailed(PostInsertEvent event) {
+		// Nothing was indexed before the commit.
+	}
+
+	@Override
+	public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+		// Nothing was indexed before the commit.
+	}
+
+	@Override
+	public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+		// Nothing was removed before the commit.
+	}
+
+	@Override
+	public boolean requiresPostCommitHanding(EntityPersister persister) {
+		return SearchDocumentType.of(persister.getMappedClass()) != null;
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		worker.shutdownNow();
+		worker.awaitTermination(30, TimeUnit.SECONDS);
+	}
+}
@@ -24,6 +24,7 @@ public class CustomUserDetails implements UserDetails {
     private String username;
     private String password;
     private Role role;
+    private String timezone;
 
     public CustomUserDetails() {
     }
@@ -33,6 +34,7 @@ public class CustomUserDetails implements UserDetails {
         this.username = user.getUserEmail();
         this.password = user.getPassword();
         this.role = user.getRole();
+        this.timezone = user.getUserTimezone();
     }
 
     public Integer getUserId() {
@@ -69,6 +71,17 @@ public class CustomUserDetails implements UserDetails {
         this.role = role;
     }
 
+    /**
+     * Time zone of the user, {@code null} when the user has none.
+     */
+    public String getTimezone() {
+        return timezone;
+    }
+
+    public void setTimezone(String timezone) {
+        this.timezone = timezone;
+    }
+
     @Override
     public boolean isAccountNonExpired() {
         return true;
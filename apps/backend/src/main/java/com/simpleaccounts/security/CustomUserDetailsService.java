@@ -26,9 +26,7 @@ public class CustomUserDetailsService implements UserDetailsService
         Optional<User> user = userService.getUserByEmail(emailAddress);
 
         if (user.isPresent()) {
-            User singleUser = user.get();
-            if(singleUser.getUserTimezone()!=null)
-            			System.setProperty("simpleaccounts.user.timezone",singleUser.getUserTimezone());            return new CustomUserDetails(singleUser);
+            return new CustomUserDetails(user.get());
         } else {
             throw new UsernameNotFoundException("Email not found");
         }
@@ -26,6 +26,8 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
 	private final JwtTokenUtil jwtTokenUtil;
 
+	private final UserPrincipalCache userPrincipalCache;
+
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
 			throws ServletException, IOException {
@@ -52,7 +54,9 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 		//Once we get the token validate it.
 		if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-			UserDetails userDetails = this.customUserDetailsService.loadUserByUsername(username);
+			final String tokenUsername = username;
+			UserDetails userDetails = userPrincipalCache.get(username, jwtTokenUtil.getIssuedAtDateFromToken(jwtToken),
+					() -> this.customUserDetailsService.loadUserByUsername(tokenUsername));
 
 				if (Boolean.TRUE.equals(jwtTokenUtil.validateToken(jwtToken, userDetails))) {
 
@@ -0,0 +1,173 @@
+package com.simpleaccounts.security;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the principals loaded by {@link JwtRequestFilter} so that a request does not read its user again
+ * while the token it carries stays the same.
+ *
+ * Entries are keyed by user name and the issued at time of the token, kept in least recently used order up
+ * to the configured size and reloaded at the latest after the configured time to live. Changes of a user or
+ * a role evict the affected entries again after the transaction commits, so a request running concurrently
+ * with the change cannot keep the old principal. Hit and miss counts are exported over JMX.
+ */
+@Component
+@ManagedResource(objectName = "com.simpleaccounts:type=Security,name=UserPrincipalCache",
+		description = "JWT principal cache")
+public class UserPrincipalCache {
+
+	private final int maxEntries;
+
+	private final long timeToLiveMillis;
+
+	private final Map<String, Entry> entries;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	public UserPrincipalCache(@Value("${simpleaccounts.security.principal-cache.max-entries:1000}") int maxEntries,
+			@Value("${simpleaccounts.security.principal-cache.ttl-seconds:900}") long timeToLiveSeconds) {
+		this.maxEntries = maxEntries;
+		this.timeToLiveMillis = TimeUnit.SECONDS.toMillis(timeToLiveSeconds);
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > UserPrincipalCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached principal of the token, loading it on a miss. Tokens without issued at time are
+	 * never cached.
+	 */
+	public CustomUserDetails get(String username, Date issuedAt, Supplier<CustomUserDetails> loader) {
+		if (issuedAt == null || maxEntries <= 0) {
+			misses.increment();
+			return loader.get();
+		}
+		String key = username + '|' + issuedAt.getTime();
+		long now = System.currentTimeMillis();
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null && entry.expiresAt > now) {
+				hits.increment();
+				return entry.principal;
+			}
+		}
+		misses.increment();
+		CustomUserDetails principal = loader.get();
+		if (principal != null) {
+			synchronized (entries) {
+				entries.put(key, new Entry(principal, now + timeToLiveMillis));
+			}
+		}
+		return principal;
+	}
+
+	/**
+	 * Evicts every principal of the user, matched by id or by user name since the e-mail may have changed.
+	 */
+	public void evictUser(Integer userId, String username) {
+		evict(() -> {
+			synchronized (entries) {
+				Iterator<Entry> iterator = entries.values().iterator();
+				while (iterator.hasNext()) {
+					CustomUserDetails principal = iterator.next().principal;
+					if ((userId != null && userId.equals(principal.getUserId()))
+							|| (username != null && username.equalsIgnoreCase(principal.getUsername()))) {
+						iterator.remove();
+						evictions.increment();
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Evicts every principal, used when a role changes.
+	 */
+	@ManagedOperation(description = "Evicts all cached principals")
+	public void evictAll() {
+		evict(() -> {
+			synchronized (entries) {
+				evictions.add(entries.size());
+				entries.clear();
+			}
+		});
+	}
+
+	private static void evict(Runnable eviction) {
+		eviction.run();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+				@Override
+				public void afterCommit() {
+					eviction.run();
+				}
+			});
+		}
+	}
+
+	@ManagedAttribute(description = "Requests served from the cache")
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	@ManagedAttribute(description = "Requests that loaded the user")
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	@ManagedAttribute(description = "Principals evicted by user or role changes")
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	@ManagedAttribute(description = "Share of requests served from the cache")
+	public double getHitRate() {
+		long hitCount = hits.sum();
+		long total = hitCount + misses.sum();
+		return total == 0 ? 0d : (double) hitCount / total;
+	}
+
+	@ManagedAttribute(description = "Cached principals")
+	public int getSize() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	private static class Entry {
+
+		private final CustomUserDetails principal;
+
+		private final long expiresAt;
+
+		Entry(CustomUserDetails principal, long expiresAt) {
+			this.principal = principal;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
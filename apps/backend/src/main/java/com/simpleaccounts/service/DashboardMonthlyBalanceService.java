@@ -0,0 +1,27 @@
+package com.simpleaccounts.service;
+
+import com.simpleaccounts.entity.DashboardMonthlyBalance;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.Supplier;
+
+public abstract class DashboardMonthlyBalanceService extends SimpleAccountsService<Integer, DashboardMonthlyBalance> {
+
+	/**
+	 * Applies a closing balance change of the category to its month and all later months.
+	 *
+	 * @param monthClosingBalance closing balance of the category after the change, only read when the month
+	 *                            has no row yet
+	 */
+	public abstract void applyDelta(TransactionCategory category, LocalDateTime closingBalanceDate, BigDecimal amount,
+			Supplier<BigDecimal> monthClosingBalance);
+
+	/**
+	 * @param chartOfAccountCodes comma separated, optionally quoted chart of account codes
+	 */
+	public abstract List<DashboardMonthlyBalance> getList(YearMonth fromMonth, YearMonth toMonth, String chartOfAccountCodes);
+}
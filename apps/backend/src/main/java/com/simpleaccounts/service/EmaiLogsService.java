@@ -1,6 +1,21 @@
 package com.simpleaccounts.service;
 
 import com.simpleaccounts.entity.EmailLogs;
+import java.time.LocalDateTime;
+import java.util.List;
 
 public abstract class EmaiLogsService extends SimpleAccountsService <Integer, EmailLogs> {
+
+	/**
+	 * Claims up to {@code limit} pending mails due at {@code now} for sending, skipping mails another sender
+	 * claimed in the meantime.
+	 */
+	public abstract List<EmailLogs> claimDueEmails(LocalDateTime now, int limit);
+
+	public abstract int releaseStaleEmails(LocalDateTime staleBefore);
+
+	/**
+	 * Saves the outcome of send attempts without logging an activity per attempt.
+	 */
+	public abstract void updateEmails(List<EmailLogs> emails);
 }
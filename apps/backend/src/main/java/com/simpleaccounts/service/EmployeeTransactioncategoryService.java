@@ -3,6 +3,9 @@ package com.simpleaccounts.service;
 import com.simpleaccounts.entity.Employee;
 import com.simpleaccounts.entity.EmployeeTransactionCategoryRelation;
 import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Created By Zain Khan
@@ -10,4 +13,11 @@ import com.simpleaccounts.entity.bankaccount.TransactionCategory;
 
 public abstract class EmployeeTransactioncategoryService  extends SimpleAccountsService<Integer, EmployeeTransactionCategoryRelation> {
     public abstract void addEmployeeTransactionCategory(Employee employee, TransactionCategory transactionCategory);
+
+    /**
+     * Loads the transaction categories of many employees in one go.
+     *
+     * @return the categories of each employee in the order they were assigned
+     */
+    public abstract Map<Integer, List<TransactionCategory>> getTransactionCategoriesByEmployeeIds(Collection<Integer> employeeIds);
 }
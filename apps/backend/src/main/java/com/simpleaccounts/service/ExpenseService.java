@@ -24,6 +24,8 @@ public abstract class ExpenseService extends SimpleAccountsService<Integer, Expe
 
     public abstract void deleteByIds(List<Integer> ids);
 
+    public abstract boolean isExpenseNumberInUse(String expenseNumber);
+
 	public abstract List<Expense> getUnMappedExpenses(Integer userId , BigDecimal amount);
 
     public abstract void sumOfTotalExpensesWithVat(ReportRequestModel reportRequestModel, VatReportResponseModel vatReportResponseModel);
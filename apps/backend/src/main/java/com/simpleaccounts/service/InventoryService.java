@@ -5,6 +5,7 @@ import com.simpleaccounts.entity.Inventory;
 import com.simpleaccounts.entity.Product;
 import com.simpleaccounts.rest.PaginationModel;
 import com.simpleaccounts.rest.PaginationResponseModel;
+import com.simpleaccounts.rest.InventoryController.InventoryDashboardModel;
 import com.simpleaccounts.rest.productcontroller.InventoryListModel;
 
 import java.math.BigDecimal;
@@ -36,4 +37,9 @@ public abstract  class InventoryService extends SimpleAccountsService<Integer, I
     public abstract BigDecimal getTotalInventoryValue();
 
     public abstract Integer getTotalInventoryCountForContact(int contactId);
+
+    /**
+     * @return every tile of the inventory dashboard; callers must not modify it
+     */
+    public abstract InventoryDashboardModel getInventoryDashboard();
 }
@@ -29,6 +29,8 @@ public abstract class InvoiceService extends SimpleAccountsService<Integer, Invo
 
 	public abstract Integer getLastInvoiceNo(Integer invoiceType);
 
+	public abstract boolean isReferenceNumberInUse(String referenceNumber);
+
 	public abstract List<Invoice> getInvoiceList(int mounthCount);
 
 	public abstract OverDueAmountDetailsModel getOverDueAmountDetails(Integer type);
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import com.simpleaccounts.entity.JournalLineItem;
 import com.simpleaccounts.entity.VatReportFiling;
@@ -22,6 +23,9 @@ public abstract class JournalLineItemService extends SimpleAccountsService<Integ
 
 	public abstract List<JournalLineItem> getList(ReportRequestModel reportRequestModel);
 
+	public abstract void processListOrderedByCategory(ReportRequestModel reportRequestModel, int chunkSize,
+			Consumer<List<JournalLineItem>> chunkConsumer);
+
 	public abstract BigDecimal updateCurrentBalance(TransactionCategory transactionCategory, BigDecimal balance);
 
 	public abstract Map<Integer, CreditDebitAggregator> getAggregateTransactionCategoryMap(
@@ -24,4 +24,13 @@ public abstract class JournalService extends SimpleAccountsService<Integer, Jour
 	public abstract Journal getJournalByReferenceId(Integer transactionId);
 	public abstract Journal getJournalByReferenceIdAndType(Integer transactionId, PostingReferenceTypeEnum refType);
 
+	/**
+	 * Posts many journals at once, such as the salary journals of a payroll run. The line items of all journals are
+	 * grouped per transaction category, so each category balance is read and written once per group instead of once
+	 * per line, and every line still gets its own running balance. The journals are then written in JDBC batches.
+	 *
+	 * @param journals journals to post
+	 */
+	public abstract void postJournals(List<Journal> journals);
+
 }
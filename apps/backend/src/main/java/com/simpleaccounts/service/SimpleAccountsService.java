@@ -61,6 +61,23 @@ public abstract class SimpleAccountsService<PK, ENTITY> {
 		persist(entity, null);
 	}
 
+	/**
+	 * Persists the entities in JDBC batches through {@link Dao#persistAll(List)}, with their activities.
+	 */
+	public void persistAll(List<ENTITY> entities) {
+		getDao().persistAll(entities);
+		persistActivities(entities, " Created ");
+	}
+
+	/**
+	 * Merges the entities in JDBC batches through {@link Dao#updateAll(List)}, with their activities.
+	 */
+	public List<ENTITY> updateAll(List<ENTITY> entities) {
+		List<ENTITY> merged = getDao().updateAll(entities);
+		persistActivities(merged, " Updated ");
+		return merged;
+	}
+
 	public ENTITY update(ENTITY entity, PK pk) {
 		return update(entity, pk, null);
 	}
@@ -145,6 +162,19 @@ public abstract class SimpleAccountsService<PK, ENTITY> {
 		}
 	}
 
+	private void persistActivities(List<ENTITY> entities, String activityCode) {
+		List<Activity> activities = new ArrayList<>(entities.size());
+		for (ENTITY entity : entities) {
+			Activity activity = getDefaultLogActivity(entity, activityCode);
+			if (activity.isLoggingRequired()) {
+				activities.add(activity);
+			}
+		}
+		if (!activities.isEmpty()) {
+			activityDao.persistAll(activities);
+		}
+	}
+
 	public ENTITY getFirstElement(List<ENTITY> list) {
 
 		if (list != null && !list.isEmpty()) {
@@ -0,0 +1,119 @@
+package com.simpleaccounts.service.impl;
+
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Serialises balance updates per transaction category instead of per bean.
+ *
+ * Two layers are used. Inside a transaction the TRANSACTION_CATEGORY row is locked
+ * with SELECT ... FOR UPDATE so that postings from other nodes wait for the same
+ * category, and the lock is released on commit/rollback. Inside the JVM a fixed set
+ * of striped locks keeps threads posting to the same category in order, while
+ * postings to unrelated categories run in parallel.
+ *
+ * The row lock is always taken before the striped lock so that a thread never waits
+ * on the database while holding an in-process lock.
+ */
+@Slf4j
+@Component
+public class BalanceUpdateCoordinator {
+
+	static final int DEFAULT_STRIPES = 64;
+
+	private final ReentrantLock[] stripes;
+
+	private final EntityManager entityManager;
+
+	@Autowired
+	public BalanceUpdateCoordinator(EntityManager entityManager) {
+		this(entityManager, DEFAULT_STRIPES);
+	}
+
+	BalanceUpdateCoordinator(EntityManager entityManager, int stripeCount) {
+		this.entityManager = entityManager;
+		int size = Integer.highestOneBit(Math.max(1, stripeCount));
+		if (size < stripeCount) {
+			size <<= 1;
+		}
+		this.stripes = new ReentrantLock[size];
+		for (int i = 0; i < size; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Runs the balance update while holding the lock for the given category.
+	 *
+	 * @param category category whose balances are updated
+	 * @param work     the update
+	 * @return the result of {@code work}
+	 */
+	public <T> T executeForCategory(TransactionCategory category, Supplier<T> work) {
+		Integer categoryId = category != null ? category.getTransactionCategoryId() : null;
+		lockCategoryRow(categoryId);
+		ReentrantLock lock = stripeFor(categoryId);
+		lock.lock();
+		try {
+			return work.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Takes the database lock of every category in ascending id order. Called before
+	 * posting a multi line journal so that two journals touching the same categories
+	 * in a different order cannot deadlock each other.
+	 *
+	 * @param categories categories touched by the journal
+	 */
+	public void lockCategories(Collection<TransactionCategory> categories) {
+		if (categories == null || categories.isEmpty()) {
+			return;
+		}
+		TreeSet<Integer> categoryIds = new TreeSet<>();
+		for (TransactionCategory category : categories) {
+			if (category != null && category.getTransactionCategoryId() != null) {
+				categoryIds.add(category.getTransactionCategoryId());
+			}
+		}
+		for (Integer categoryId : categoryIds) {
+			lockCategoryRow(categoryId);
+		}
+	}
+
+	ReentrantLock stripeFor(Integer categoryId) {
+		int hash = Objects.hashCode(categoryId);
+		hash ^= (hash >>> 16);
+		return stripes[hash & (stripes.length - 1)];
+	}
+
+	int getStripeCount() {
+		return stripes.length;
+	}
+
+	private void lockCategoryRow(Integer categoryId) {
+		if (categoryId == null || !TransactionSynchronizationManager.isActualTransactionActive()) {
+			return;
+		}
+		TransactionCategory managed = entityManager.find(TransactionCategory.class, categoryId);
+		if (managed != null && entityManager.getLockMode(managed) != LockModeType.PESSIMISTIC_WRITE) {
+			log.debug("Locking transaction category {} for balance update", categoryId);
+			entityManager.lock(managed, LockModeType.PESSIMISTIC_WRITE);
+		}
+	}
+}
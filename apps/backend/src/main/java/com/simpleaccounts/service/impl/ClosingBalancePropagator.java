@@ -0,0 +1,214 @@
+package com.simpleaccounts.service.impl;
+
+import com.simpleaccounts.dao.TransactionCategoryClosingBalanceDao;
+import com.simpleaccounts.entity.TransactionCategoryClosingBalance;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.persistence.EntityManager;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Carries closing balance changes forward to the later TRANSACTION_CATEGORY_CLOSING_BALANCE rows of a category.
+ *
+ * A back-dated posting only updates the row of its own date and records the delta here. Deltas are kept
+ * per transaction, grouped by category and date, and the earliest pending date of a category is its dirty
+ * watermark. Before the transaction commits every group is written with one set-based UPDATE, so posting
+ * cost no longer grows with the number of later rows and many postings on the same date are coalesced.
+ * Read paths call {@link #settle()} to apply pending deltas on demand. Without an active transaction the
+ * delta is applied immediately.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClosingBalancePropagator {
+
+	private final TransactionCategoryClosingBalanceDao transactionCategoryClosingBalanceDao;
+
+	private final EntityManager entityManager;
+
+	/**
+	 * Records that every closing balance row of the category after {@code fromDate} must move by the amounts.
+	 *
+	 * @param bankAmount amount for the bank account balance columns, {@code null} for non bank categories
+	 */
+	public void propagate(TransactionCategory category, LocalDateTime fromDate, BigDecimal amount, BigDecimal bankAmount) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()
+				|| !TransactionSynchronizationManager.isActualTransactionActive()) {
+			transactionCategoryClosingBalanceDao.addToClosingBalancesAfter(fromDate, category, amount, bankAmount);
+			return;
+		}
+		getPending(true).computeIfAbsent(category.getTransactionCategoryId(), id -> new PendingCategory(category))
+				.add(fromDate, amount, bankAmount);
+	}
+
+	/**
+	 * Returns the delta recorded in the current transaction for exactly this category and date, which the
+	 * row of that date already contains but the later rows do not yet.
+	 */
+	public Delta getPendingDelta(TransactionCategory category, LocalDateTime closingBalanceDate) {
+		Map<Integer, PendingCategory> pending = getPending(false);
+		PendingCategory pendingCategory = pending != null ? pending.get(category.getTransactionCategoryId()) : null;
+		Delta delta = pendingCategory != null ? pendingCategory.getDeltas().get(closingBalanceDate) : null;
+		return delta != null ? delta : Delta.NONE;
+	}
+
+	/**
+	 * Returns the sum of the deltas recorded in the current transaction for the category before the date,
+	 * which a row of that date does not yet contain.
+	 */
+	public Delta getPendingDeltaBefore(TransactionCategory category, LocalDateTime closingBalanceDate) {
+		Map<Integer, PendingCategory> pending = getPending(false);
+		PendingCategory pendingCategory = pending != null ? pending.get(category.getTransactionCategoryId()) : null;
+		Delta sum = Delta.NONE;
+		if (pendingCategory != null) {
+			for (Delta delta : pendingCategory.getDeltas().headMap(closingBalanceDate, false).values()) {
+				sum = sum.plus(delta);
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * @return earliest date after which rows of the category still miss a pending delta, {@code null} if clean
+	 */
+	public LocalDateTime getDirtyFromDate(TransactionCategory category) {
+		Map<Integer, PendingCategory> pending = getPending(false);
+		PendingCategory pendingCategory = pending != null ? pending.get(category.getTransactionCategoryId()) : null;
+		return pendingCategory != null ? pendingCategory.getDeltas().firstKey() : null;
+	}
+
+	/**
+	 * Applies all deltas pending in the current transaction.
+	 */
+	public void settle() {
+		settle(true);
+	}
+
+	private void settle(boolean refreshLoadedBalances) {
+		Map<Integer, PendingCategory> pending = getPending(false);
+		if (pending == null || pending.isEmpty()) {
+			return;
+		}
+		entityManager.flush();
+		Map<Integer, LocalDateTime> watermarks = new LinkedHashMap<>();
+		for (PendingCategory pendingCategory : pending.values()) {
+			int rows = 0;
+			for (Map.Entry<LocalDateTime, Delta> entry : pendingCategory.getDeltas().entrySet()) {
+				rows += transactionCategoryClosingBalanceDao.addToClosingBalancesAfter(entry.getKey(),
+						pendingCategory.getCategory(), entry.getValue().getAmount(), entry.getValue().getBankAmount());
+			}
+			log.debug("Propagated {} closing balance deltas of category {} to {} rows", pendingCategory.getDeltas().size(),
+					pendingCategory.getCategory().getTransactionCategoryId(), rows);
+			watermarks.put(pendingCategory.getCategory().getTransactionCategoryId(), pendingCategory.getDeltas().firstKey());
+		}
+		pending.clear();
+		if (refreshLoadedBalances) {
+			refreshManagedBalances(watermarks);
+		}
+	}
+
+	/**
+	 * The set-based UPDATE bypasses the persistence context, so rows already loaded in this transaction are
+	 * reloaded to keep later changes from writing stale balances back.
+	 */
+	private void refreshManagedBalances(Map<Integer, LocalDateTime> watermarks) {
+		SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+		if (session == null) {
+			return;
+		}
+		List<TransactionCategoryClosingBalance> stale = new ArrayList<>();
+		for (Object entity : session.getPersistenceContext().getEntitiesByKey().values()) {
+			if (entity instanceof TransactionCategoryClosingBalance) {
+				TransactionCategoryClosingBalance balance = (TransactionCategoryClosingBalance) entity;
+				LocalDateTime watermark = balance.getTransactionCategory() != null
+						? watermarks.get(balance.getTransactionCategory().getTransactionCategoryId()) : null;
+				if (watermark != null && balance.getClosingBalanceDate() != null
+						&& balance.getClosingBalanceDate().isAfter(watermark)) {
+					stale.add(balance);
+				}
+			}
+		}
+		for (TransactionCategoryClosingBalance balance : stale) {
+			entityManager.refresh(balance);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<Integer, PendingCategory> getPending(boolean create) {
+		Map<Integer, PendingCategory> pending = (Map<Integer, PendingCategory>) TransactionSynchronizationManager.getResource(this);
+		if (pending == null && create) {
+			pending = new LinkedHashMap<>();
+			TransactionSynchronizationManager.bindResource(this, pending);
+			TransactionSynchronizationManager.registerSynchronization(new PropagationSynchronization());
+		}
+		return pending;
+	}
+
+	private class PropagationSynchronization extends TransactionSynchronizationAdapter {
+
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			settle(false);
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(ClosingBalancePropagator.this);
+		}
+	}
+
+	@Getter
+	private static class PendingCategory {
+
+		private final TransactionCategory category;
+
+		private final TreeMap<LocalDateTime, Delta> deltas = new TreeMap<>();
+
+		PendingCategory(TransactionCategory category) {
+			this.category = category;
+		}
+
+		void add(LocalDateTime fromDate, BigDecimal amount, BigDecimal bankAmount) {
+			deltas.merge(fromDate, new Delta(amount, bankAmount), Delta::plus);
+		}
+	}
+
+	/**
+	 * Amount pending for the balance columns and, for bank categories, the bank account balance columns.
+	 */
+	@Getter
+	public static class Delta {
+
+		static final Delta NONE = new Delta(BigDecimal.ZERO, null);
+
+		private final BigDecimal amount;
+
+		private final BigDecimal bankAmount;
+
+		Delta(BigDecimal amount, BigDecimal bankAmount) {
+			this.amount = amount;
+			this.bankAmount = bankAmount;
+		}
+
+		Delta plus(Delta other) {
+			BigDecimal bank = bankAmount == null ? other.bankAmount
+					: other.bankAmount == null ? bankAmount : bankAmount.add(other.bankAmount);
+			return new Delta(amount.add(other.amount), bank);
+		}
+	}
+}
@@ -9,6 +9,7 @@ import com.simpleaccounts.dao.ConfigurationDao;
 import lombok.RequiredArgsConstructor;
 import com.simpleaccounts.dao.Dao;
 import com.simpleaccounts.entity.Configuration;
+import com.simpleaccounts.integration.MailSenderProvider;
 import com.simpleaccounts.service.ConfigurationService;
 import java.util.List;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,8 @@ public class ConfigurationServiceImpl extends ConfigurationService {
 
     private final ConfigurationDao dao;
 
+    private final MailSenderProvider mailSenderProvider;
+
     @Override
     public Configuration getConfigurationByName(String cofigurationName) {
         return dao.getConfigurationByName(cofigurationName);
@@ -50,6 +53,7 @@ public class ConfigurationServiceImpl extends ConfigurationService {
                 dao.persist(configuration);
             }
         }
+        mailSenderProvider.invalidate();
     }
 
 }
@@ -0,0 +1,65 @@
+package com.simpleaccounts.service.impl;
+
+import com.simpleaccounts.dao.DashboardMonthlyBalanceDao;
+import com.simpleaccounts.dao.Dao;
+import com.simpleaccounts.entity.DashboardMonthlyBalance;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.helper.DashboardCacheEvictor;
+import com.simpleaccounts.service.DashboardMonthlyBalanceService;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Maintains DASHBOARD_MONTHLY_BALANCE from journal posting. A posting adds its amount to the row of its
+ * month, creating the row from the closing balance after the posting if the month had none, and to the rows
+ * of all later months with one UPDATE, so the cost depends on the number of months only. Callers hold the
+ * balance lock of the category, see {@link BalanceUpdateCoordinator}.
+ */
+@Service
+@RequiredArgsConstructor
+public class DashboardMonthlyBalanceServiceImpl extends DashboardMonthlyBalanceService {
+
+	private final DashboardMonthlyBalanceDao dashboardMonthlyBalanceDao;
+
+	private final DashboardCacheEvictor dashboardCacheEvictor;
+
+	@Override
+	protected Dao<Integer, DashboardMonthlyBalance> getDao() {
+		return dashboardMonthlyBalanceDao;
+	}
+
+	@Override
+	public void applyDelta(TransactionCategory category, LocalDateTime closingBalanceDate, BigDecimal amount,
+			Supplier<BigDecimal> monthClosingBalance) {
+		LocalDate balanceMonth = closingBalanceDate.toLocalDate().withDayOfMonth(1);
+		if (dashboardMonthlyBalanceDao.addToMonth(category, balanceMonth, amount) == 0) {
+			DashboardMonthlyBalance monthlyBalance = new DashboardMonthlyBalance();
+			monthlyBalance.setTransactionCategory(category);
+			monthlyBalance.setBalanceMonth(balanceMonth);
+			monthlyBalance.setClosingBalance(monthClosingBalance.get());
+			dashboardMonthlyBalanceDao.persist(monthlyBalance);
+		}
+		if (amount.signum() != 0) {
+			dashboardMonthlyBalanceDao.addToMonthsAfter(category, balanceMonth, amount);
+		}
+		dashboardCacheEvictor.evictProfitLoss(YearMonth.from(balanceMonth));
+	}
+
+	@Override
+	public List<DashboardMonthlyBalance> getList(YearMonth fromMonth, YearMonth toMonth, String chartOfAccountCodes) {
+		List<String> accountCodes = new ArrayList<>();
+		if (chartOfAccountCodes != null && !chartOfAccountCodes.isEmpty()) {
+			for (String code : chartOfAccountCodes.split(",")) {
+				accountCodes.add(code.trim().replace("'", ""));
+			}
+		}
+		return dashboardMonthlyBalanceDao.getListByChartOfAccountCodes(fromMonth.atDay(1), toMonth.atDay(1), accountCodes);
+	}
+}
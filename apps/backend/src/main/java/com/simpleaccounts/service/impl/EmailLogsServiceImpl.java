@@ -4,10 +4,15 @@ import com.simpleaccounts.dao.Dao;
 import com.simpleaccounts.dao.EmailLogsDao;
 import com.simpleaccounts.entity.EmailLogs;
 import com.simpleaccounts.service.EmaiLogsService;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service("emailLogsService")
+@Transactional
 @RequiredArgsConstructor
 public class EmailLogsServiceImpl extends EmaiLogsService {
 
@@ -16,4 +21,36 @@ public class EmailLogsServiceImpl extends EmaiLogsService {
     protected Dao<Integer, EmailLogs> getDao() {
         return this.emailLogsDao;
     }
+
+    /**
+     * Overridden so the class level transaction also covers the mail dispatcher, which persists from its own
+     * threads.
+     */
+    @Override
+    public void persist(EmailLogs emailLogs) {
+        super.persist(emailLogs);
+    }
+
+    @Override
+    public List<EmailLogs> claimDueEmails(LocalDateTime now, int limit) {
+        List<Integer> claimed = new ArrayList<>();
+        for (Integer id : emailLogsDao.getDueEmailIds(now, limit)) {
+            if (emailLogsDao.claimEmail(id, now)) {
+                claimed.add(id);
+            }
+        }
+        return emailLogsDao.getEmailsByIds(claimed);
+    }
+
+    @Override
+    public int releaseStaleEmails(LocalDateTime staleBefore) {
+        return emailLogsDao.releaseStaleEmails(staleBefore);
+    }
+
+    @Override
+    public void updateEmails(List<EmailLogs> emails) {
+        for (EmailLogs email : emails) {
+            emailLogsDao.update(email);
+        }
+    }
 }
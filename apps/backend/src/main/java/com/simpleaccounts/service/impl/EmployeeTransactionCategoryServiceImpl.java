@@ -7,6 +7,11 @@ import com.simpleaccounts.entity.Employee;
 import com.simpleaccounts.entity.EmployeeTransactionCategoryRelation;
 import com.simpleaccounts.entity.bankaccount.TransactionCategory;
 import com.simpleaccounts.service.EmployeeTransactioncategoryService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.stereotype.Service;
 
 /**
@@ -29,4 +34,17 @@ public class EmployeeTransactionCategoryServiceImpl extends EmployeeTransactionc
         relation.setTransactionCategory(transactionCategory);
         persist(relation);
     }
+
+    @Override
+    public Map<Integer, List<TransactionCategory>> getTransactionCategoriesByEmployeeIds(Collection<Integer> employeeIds) {
+        Map<Integer, List<TransactionCategory>> categories = new LinkedHashMap<>();
+        if (employeeIds.isEmpty()) {
+            return categories;
+        }
+        for (EmployeeTransactionCategoryRelation relation : employeeTransactionCategoryDao.getRelationsByEmployeeIds(employeeIds)) {
+            categories.computeIfAbsent(relation.getEmployee().getId(), id -> new ArrayList<>())
+                    .add(relation.getTransactionCategory());
+        }
+        return categories;
+    }
 }
@@ -85,6 +85,11 @@ public class ExpenseServiceImpl extends ExpenseService {
 		expenseDao.deleteByIds(ids);
 	}
 
+	@Override
+	public boolean isExpenseNumberInUse(String expenseNumber) {
+		return expenseDao.isExpenseNumberInUse(expenseNumber);
+	}
+
 	@Override
 	public PaginationResponseModel getExpensesList(Map<ExpenseFIlterEnum, Object> filterMap,
 			PaginationModel paginationModel) {
@@ -0,0 +1,214 @@
+package com.simpleaccounts.service.impl;
+
+import com.simpleaccounts.dao.InventoryDao;
+import com.simpleaccounts.dao.InventoryHistoryDao;
+import com.simpleaccounts.entity.Contact;
+import com.simpleaccounts.entity.Inventory;
+import com.simpleaccounts.entity.InventoryHistory;
+import com.simpleaccounts.entity.Invoice;
+import com.simpleaccounts.entity.InvoiceLineItem;
+import com.simpleaccounts.entity.Product;
+import com.simpleaccounts.helper.DashboardCacheEvictor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Books stock movements of invoices against the INVENTORY rows of a product.
+ *
+ * Every row is a cost layer: a purchase from a supplier adds to the row of that supplier and folds its cost into
+ * the weighted average unit cost of the row, a sale takes stock from the oldest rows first. Quantities are changed
+ * with a single UPDATE per row that adds or subtracts, and a sale only takes what the row still holds, so concurrent
+ * invoices of the same product neither lose updates nor sell the same stock twice. Each movement is appended to
+ * INVENTORY_HISTORY with the quantity it moved, which is what reversing the invoice puts back. The average purchase
+ * cost of the product is written with a bulk update rather than through the loaded entity, so a movement does not
+ * collide with concurrent edits of the product on its version.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Transactional(rollbackFor = Exception.class)
+public class InventoryLedger {
+
+	private final InventoryDao inventoryDao;
+
+	private final InventoryHistoryDao inventoryHistoryDao;
+
+	private final DashboardCacheEvictor dashboardCacheEvictor;
+
+	/**
+	 * Sells the quantity of a customer invoice line, oldest stock first.
+	 */
+	public void issue(InvoiceLineItem lineItem) {
+		Integer productId = lineItem.getProduct().getProductID();
+		int remaining = lineItem.getQuantity();
+		if (remaining <= 0) {
+			return;
+		}
+		for (Object[] layer : inventoryDao.getStockLayers(productId)) {
+			Integer inventoryId = (Integer) layer[0];
+			Integer available = (Integer) layer[1];
+			while (available != null && available > 0) {
+				int taken = Math.min(remaining, available);
+				if (inventoryDao.issueStock(inventoryId, taken) == 1) {
+					recordIssue(lineItem, inventoryId, taken);
+					remaining -= taken;
+					break;
+				}
+				available = inventoryDao.getStockOnHand(inventoryId);
+			}
+			if (remaining == 0) {
+				break;
+			}
+		}
+		if (remaining > 0) {
+			log.warn("Product {} is short of {} units for invoice {}", productId, remaining,
+					lineItem.getInvoice().getId());
+		}
+		refreshAveragePurchaseCost(productId);
+		dashboardCacheEvictor.evictInventory();
+	}
+
+	/**
+	 * Adds the quantity of a supplier invoice line to the row of the supplier, creating it on the first purchase.
+	 */
+	public void receive(InvoiceLineItem lineItem, Product product, Contact supplier, Integer userId) {
+		Inventory inventory = inventoryDao.getInventoryRow(product.getProductID(),
+				supplier != null ? supplier.getContactId() : null);
+		InventoryHistory inventoryHistory = new InventoryHistory();
+		if (inventory != null) {
+			inventoryDao.receiveStock(inventory.getInventoryID(), lineItem.getQuantity(),
+					lineItem.getUnitPrice().floatValue());
+			inventoryHistory.setUnitCost(lineItem.getUnitPrice().floatValue());
+		} else {
+			inventory = new Inventory();
+			inventory.setProductId(product);
+			inventory.setSupplierId(supplier);
+			inventory.setPurchaseQuantity(lineItem.getQuantity());
+			inventory.setStockOnHand(lineItem.getQuantity());
+			inventory.setQuantitySold(0);
+			inventory.setCreatedBy(userId);
+			inventory.setCreatedDate(LocalDateTime.now());
+			inventory.setLastUpdateDate(LocalDateTime.now());
+			inventory.setReorderLevel(lineItem.getQuantity() / 10);
+			inventory.setUnitCost(lineItem.getUnitPrice().multiply(lineItem.getInvoice().getExchangeRate()).floatValue());
+			inventoryDao.persist(inventory);
+			inventoryHistory.setUnitCost(inventory.getUnitCost());
+		}
+		inventoryHistory.setInventory(inventory);
+		inventoryHistory.setInvoice(lineItem.getInvoice());
+		inventoryHistory.setProductId(product);
+		inventoryHistory.setSupplierId(supplier);
+		inventoryHistory.setQuantity(lineItem.getQuantity().floatValue());
+		inventoryHistory.setUnitSellingPrice(
+				lineItem.getUnitPrice().floatValue() * lineItem.getInvoice().getExchangeRate().floatValue());
+		inventoryHistory.setCreatedBy(userId);
+		inventoryHistory.setCreatedDate(LocalDateTime.now());
+		inventoryHistory.setLastUpdateBy(inventory.getLastUpdateBy());
+		inventoryHistory.setLastUpdateDate(LocalDateTime.now());
+		inventoryHistory.setTransactionDate(lineItem.getInvoice().getInvoiceDate());
+		inventoryHistoryDao.persist(inventoryHistory);
+		refreshAveragePurchaseCost(product.getProductID());
+		dashboardCacheEvictor.evictInventory();
+	}
+
+	/**
+	 * Adds the quantity of a debit note line to the row of the supplier at the cost the row already carries, creating
+	 * the row at the price of the line when the supplier has none.
+	 */
+	public void restock(Product product, Contact supplier, Integer quantity, BigDecimal unitPrice, Integer userId) {
+		Inventory inventory = inventoryDao.getInventoryRow(product.getProductID(),
+				supplier != null ? supplier.getContactId() : null);
+		if (inventory != null) {
+			inventoryDao.restock(inventory.getInventoryID(), quantity);
+		} else {
+			inventory = new Inventory();
+			inventory.setProductId(product);
+			inventory.setSupplierId(supplier);
+			inventory.setPurchaseQuantity(quantity);
+			inventory.setStockOnHand(quantity);
+			inventory.setQuantitySold(0);
+			inventory.setCreatedBy(userId);
+			inventory.setCreatedDate(LocalDateTime.now());
+			inventory.setLastUpdateDate(LocalDateTime.now());
+			inventory.setReorderLevel(quantity / 10);
+			inventory.setUnitCost(unitPrice.floatValue());
+			inventoryDao.persist(inventory);
+		}
+		InventoryHistory inventoryHistory = new InventoryHistory();
+		inventoryHistory.setInventory(inventory);
+		inventoryHistory.setProductId(product);
+		inventoryHistory.setSupplierId(supplier);
+		inventoryHistory.setUnitCost(inventory.getUnitCost());
+		inventoryHistory.setQuantity(quantity.floatValue());
+		inventoryHistory.setCreatedBy(userId);
+		inventoryHistory.setCreatedDate(LocalDateTime.now());
+		inventoryHistory.setLastUpdateBy(inventory.getLastUpdateBy());
+		inventoryHistory.setLastUpdateDate(LocalDateTime.now());
+		inventoryHistory.setTransactionDate(LocalDate.now());
+		inventoryHistoryDao.persist(inventoryHistory);
+		refreshAveragePurchaseCost(product.getProductID());
+		dashboardCacheEvictor.evictInventory();
+	}
+
+	/**
+	 * Takes back every stock movement of the invoice. A supplier row that only ever held this purchase is removed
+	 * with it.
+	 */
+	public void reverse(Invoice invoice) {
+		Set<Integer> productIds = new LinkedHashSet<>();
+		for (InventoryHistory movement : inventoryHistoryDao.getMovementsByInvoiceId(invoice.getId())) {
+			Inventory inventory = movement.getInventory();
+			int quantity = Math.round(movement.getQuantity());
+			if (invoice.getType() == 2) {
+				inventoryDao.returnStock(inventory.getInventoryID(), quantity);
+				inventoryHistoryDao.delete(movement);
+			} else if (invoice.getType() == 1) {
+				long movements = inventoryHistoryDao.getMovementCount(inventory.getInventoryID());
+				inventoryHistoryDao.delete(movement);
+				if (movements == 1) {
+					// deleting at the version read here fails if a sale took from the row in the meantime
+					inventoryDao.delete(inventory);
+				} else {
+					inventoryDao.removeReceipt(inventory.getInventoryID(), quantity);
+				}
+			}
+			if (movement.getProductId() != null) {
+				productIds.add(movement.getProductId().getProductID());
+			}
+		}
+		productIds.forEach(this::refreshAveragePurchaseCost);
+		dashboardCacheEvictor.evictInventory();
+	}
+
+	private void recordIssue(InvoiceLineItem lineItem, Integer inventoryId, int quantity) {
+		Inventory inventory = inventoryDao.findByPK(inventoryId);
+		InventoryHistory inventoryHistory = new InventoryHistory();
+		inventoryHistory.setCreatedBy(inventory.getCreatedBy());
+		inventoryHistory.setCreatedDate(LocalDateTime.now());
+		inventoryHistory.setLastUpdateBy(inventory.getLastUpdateBy());
+		inventoryHistory.setLastUpdateDate(LocalDateTime.now());
+		inventoryHistory.setTransactionDate(lineItem.getInvoice().getInvoiceDate());
+		inventoryHistory.setInventory(inventory);
+		inventoryHistory.setInvoice(lineItem.getInvoice());
+		inventoryHistory.setProductId(inventory.getProductId());
+		inventoryHistory.setUnitCost(inventory.getUnitCost());
+		inventoryHistory.setQuantity((float) quantity);
+		inventoryHistory.setUnitSellingPrice(
+				lineItem.getUnitPrice().floatValue() * lineItem.getInvoice().getExchangeRate().floatValue());
+		inventoryHistory.setSupplierId(inventory.getSupplierId());
+		inventoryHistoryDao.persist(inventoryHistory);
+	}
+
+	private void refreshAveragePurchaseCost(Integer productId) {
+		inventoryDao.updateAveragePurchaseCost(productId, inventoryDao.getAveragePurchaseCost(productId));
+	}
+}
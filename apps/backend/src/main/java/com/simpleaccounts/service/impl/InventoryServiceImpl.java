@@ -3,24 +3,38 @@ package com.simpleaccounts.service.impl;
 import com.simpleaccounts.constant.dbfilter.InventoryFilterEnum;
 import com.simpleaccounts.dao.Dao;
 import com.simpleaccounts.dao.InventoryDao;
+import com.simpleaccounts.dao.InventoryHistoryDao;
+import com.simpleaccounts.entity.Activity;
 import com.simpleaccounts.entity.Inventory;
 import com.simpleaccounts.entity.Product;
+import com.simpleaccounts.helper.DashboardCacheEvictor;
+import com.simpleaccounts.rest.InventoryController.InventoryDashboardModel;
 import com.simpleaccounts.rest.PaginationModel;
 import com.simpleaccounts.rest.PaginationResponseModel;
 import com.simpleaccounts.rest.productcontroller.InventoryListModel;
 import com.simpleaccounts.service.InventoryService;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 @Service("InventoryService")
 @RequiredArgsConstructor
 public  class InventoryServiceImpl extends InventoryService {
 
+    private static final int TOP_SELLING_PRODUCTS = 5;
+
     private final InventoryDao inventoryDao;
 
+    private final InventoryHistoryDao inventoryHistoryDao;
+
+    private final DashboardCacheEvictor dashboardCacheEvictor;
+
     public  PaginationResponseModel getInventoryList(Map<InventoryFilterEnum, Object> filterMap, PaginationModel paginationModel){
         return  inventoryDao.getInventoryList(filterMap,paginationModel);
     }
@@ -64,4 +78,84 @@ public  class InventoryServiceImpl extends InventoryService {
     public  Integer getTotalInventoryCountForContact(int contactId){
         return inventoryDao.getTotalInventoryCountForContact(contactId);
     }
+
+    /**
+     * The stock tiles come from one grouped scan of INVENTORY, the sales tiles from INVENTORY_HISTORY. The
+     * snapshot is evicted whenever stock moves and otherwise lives for the time to live of its cache.
+     */
+    @Override
+    @Cacheable(cacheNames = DashboardCacheEvictor.INVENTORY, key = "'snapshot'", sync = true)
+    public InventoryDashboardModel getInventoryDashboard() {
+        List<Object[]> summary = inventoryDao.getInventorySummary();
+        long totalStockOnHand = 0;
+        long lowStockCount = 0;
+        int outOfStockCount = 0;
+        BigDecimal totalInventoryValue = BigDecimal.ZERO;
+        for (Object[] row : summary) {
+            long stockOnHand = row[2] != null ? ((Number) row[2]).longValue() : 0;
+            totalStockOnHand += stockOnHand;
+            lowStockCount += ((Number) row[4]).longValue();
+            if (row[2] != null && stockOnHand == 0) {
+                outOfStockCount++;
+            }
+            if (row[5] != null) {
+                totalInventoryValue = totalInventoryValue.add(((BigDecimal) row[5]).multiply(BigDecimal.valueOf(stockOnHand)));
+            }
+        }
+        InventoryDashboardModel dashboard = new InventoryDashboardModel();
+        dashboard.setProductCount(summary.size());
+        dashboard.setTotalStockOnHand((int) totalStockOnHand);
+        dashboard.setLowStockProductCount((int) lowStockCount);
+        dashboard.setOutOfStockCount(outOfStockCount);
+        dashboard.setTotalInventoryValue(totalInventoryValue);
+        dashboard.setTopSellingProductList(summary.stream()
+                .sorted(Comparator.comparingLong((Object[] row) -> ((Number) row[3]).longValue()).reversed())
+                .limit(TOP_SELLING_PRODUCTS)
+                .map(row -> {
+                    InventoryListModel inventoryListModel = new InventoryListModel();
+                    inventoryListModel.setProductId((Integer) row[0]);
+                    inventoryListModel.setProductName((String) row[1]);
+                    inventoryListModel.setQuantitySold(((Number) row[3]).intValue());
+                    return inventoryListModel;
+                })
+                .collect(Collectors.toCollection(ArrayList::new)));
+        dashboard.setTotalRevenue(inventoryHistoryDao.getTotalRevenueForInventory());
+        dashboard.setTotalQuantitySold(inventoryHistoryDao.getTotalQuantitySoldForInventory());
+        dashboard.setTopSellingProducts(inventoryHistoryDao.getTopSellingProductsForInventory());
+        dashboard.setTopProfitGeneratingProducts(inventoryHistoryDao.getTopProfitGeneratingProductsForInventory());
+        dashboard.setLowSellingProducts(inventoryHistoryDao.getLowSellingProductsForInventory());
+        return dashboard;
+    }
+
+    @Override
+    protected void persist(Inventory inventory, Integer pk, Activity activity) {
+        super.persist(inventory, pk, activity);
+        dashboardCacheEvictor.evictInventory();
+    }
+
+    @Override
+    protected Inventory update(Inventory inventory, Integer pk, Activity activity) {
+        Inventory updated = super.update(inventory, pk, activity);
+        dashboardCacheEvictor.evictInventory();
+        return updated;
+    }
+
+    @Override
+    public void persistAll(List<Inventory> inventories) {
+        super.persistAll(inventories);
+        dashboardCacheEvictor.evictInventory();
+    }
+
+    @Override
+    public List<Inventory> updateAll(List<Inventory> inventories) {
+        List<Inventory> updated = super.updateAll(inventories);
+        dashboardCacheEvictor.evictInventory();
+        return updated;
+    }
+
+    @Override
+    protected void delete(Inventory inventory, Integer pk, Activity activity) {
+        super.delete(inventory, pk, activity);
+        dashboardCacheEvictor.evictInventory();
+    }
 }
@@ -1,6 +1,7 @@
 package com.simpleaccounts.service.impl;
 
 import java.math.BigDecimal;
+import java.time.YearMonth;
 import lombok.RequiredArgsConstructor;
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -18,9 +19,11 @@ import com.simpleaccounts.dao.InvoiceDao;
 import com.simpleaccounts.dao.JournalDao;
 import com.simpleaccounts.dao.JournalLineItemDao;
 import com.simpleaccounts.dao.SupplierInvoicePaymentDao;
+import com.simpleaccounts.entity.Activity;
 import com.simpleaccounts.entity.Invoice;
 import com.simpleaccounts.entity.JournalLineItem;
 import com.simpleaccounts.entity.VatReportFiling;
+import com.simpleaccounts.helper.DashboardCacheEvictor;
 import com.simpleaccounts.model.EarningDetailsModel;
 import com.simpleaccounts.model.OverDueAmountDetailsModel;
 import com.simpleaccounts.model.VatReportResponseModel;
@@ -67,6 +70,8 @@ public class InvoiceServiceImpl extends InvoiceService {
 
 	private final VatReportFilingRepository vatReportFilingRepository;
 
+	private final DashboardCacheEvictor dashboardCacheEvictor;
+
 	@Override
 	protected Dao<Integer, Invoice> getDao() {
 		return supplierInvoiceDao;
@@ -77,9 +82,47 @@ public class InvoiceServiceImpl extends InvoiceService {
 		return supplierInvoiceDao.getInvoiceList(map, paginationModel);
 	}
 
+	@Override
+	protected void persist(Invoice invoice, Integer pk, Activity activity) {
+		super.persist(invoice, pk, activity);
+		evictInvoiceChart(invoice);
+	}
+
+	@Override
+	protected Invoice update(Invoice invoice, Integer pk, Activity activity) {
+		Invoice updatedInvoice = super.update(invoice, pk, activity);
+		evictInvoiceChart(updatedInvoice);
+		return updatedInvoice;
+	}
+
+	@Override
+	public void persistAll(List<Invoice> invoices) {
+		super.persistAll(invoices);
+		invoices.forEach(this::evictInvoiceChart);
+	}
+
+	@Override
+	public List<Invoice> updateAll(List<Invoice> invoices) {
+		List<Invoice> updatedInvoices = super.updateAll(invoices);
+		updatedInvoices.forEach(this::evictInvoiceChart);
+		return updatedInvoices;
+	}
+
+	@Override
+	protected void delete(Invoice invoice, Integer pk, Activity activity) {
+		super.delete(invoice, pk, activity);
+		evictInvoiceChart(invoice);
+	}
+
 	@Override
 	public void deleteByIds(List<Integer> ids) {
 		supplierInvoiceDao.deleteByIds(ids);
+		dashboardCacheEvictor.evictInvoiceChart(null);
+	}
+
+	private void evictInvoiceChart(Invoice invoice) {
+		dashboardCacheEvictor.evictInvoiceChart(invoice != null && invoice.getInvoiceDate() != null
+				? YearMonth.from(invoice.getInvoiceDate()) : null);
 	}
 
 	@Override
@@ -87,6 +130,11 @@ public class InvoiceServiceImpl extends InvoiceService {
 		return supplierInvoiceDao.getInvoicesForDropdown(type);
 	}
 
+	@Override
+	public boolean isReferenceNumberInUse(String referenceNumber) {
+		return supplierInvoiceDao.isReferenceNumberInUse(referenceNumber);
+	}
+
 	@Override
 	public Integer  getLastInvoiceNo(Integer invoiceType) {
 
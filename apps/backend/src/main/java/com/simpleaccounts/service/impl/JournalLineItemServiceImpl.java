@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import com.simpleaccounts.entity.VatReportFiling;
 import com.simpleaccounts.rest.PaginationResponseModel;
@@ -18,6 +19,7 @@ import com.simpleaccounts.rest.financialreport.CreditDebitAggregator;
 import com.simpleaccounts.rest.financialreport.FinancialReportRequestModel;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.simpleaccounts.dao.Dao;
 import com.simpleaccounts.dao.JournalLineItemDao;
@@ -49,6 +51,13 @@ public class JournalLineItemServiceImpl extends JournalLineItemService {
 		return journalLineItemDao.getList(reportRequestModel);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public void processListOrderedByCategory(ReportRequestModel reportRequestModel, int chunkSize,
+			Consumer<List<JournalLineItem>> chunkConsumer) {
+		journalLineItemDao.processListOrderedByCategory(reportRequestModel, chunkSize, chunkConsumer);
+	}
+
 	@Override
 	public BigDecimal updateCurrentBalance(TransactionCategory transactionCategory, BigDecimal balance) {
 		List<JournalLineItem> itemList = journalLineItemDao.getListByTransactionCategory(transactionCategory);
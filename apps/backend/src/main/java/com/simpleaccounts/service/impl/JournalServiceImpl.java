@@ -1,5 +1,10 @@
 package com.simpleaccounts.service.impl;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import java.util.Map;
@@ -10,6 +15,7 @@ import com.simpleaccounts.dao.Dao;
 import com.simpleaccounts.dao.JournalDao;
 import com.simpleaccounts.entity.Journal;
 import com.simpleaccounts.entity.JournalLineItem;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
 import com.simpleaccounts.rest.PaginationModel;
 import com.simpleaccounts.rest.PaginationResponseModel;
 import com.simpleaccounts.service.JournalService;
@@ -24,6 +30,8 @@ public class JournalServiceImpl extends JournalService {
 
 	private final TransactionCategoryBalanceService transactionCategoryBalanceService;
 
+	private final BalanceUpdateCoordinator balanceUpdateCoordinator;
+
 	@Override
 	public PaginationResponseModel getJornalList(Map<JournalFilterEnum, Object> filterMap,
 			PaginationModel paginationModel) {
@@ -54,6 +62,7 @@ public class JournalServiceImpl extends JournalService {
 
 	@Override
 	public void persist(Journal journal) {
+		balanceUpdateCoordinator.lockCategories(getTransactionCategories(journal));
 		for (JournalLineItem lineItem : journal.getJournalLineItems()) {
 			lineItem.setCurrentBalance(transactionCategoryBalanceService.updateRunningBalance(lineItem));
 		}
@@ -62,9 +71,101 @@ public class JournalServiceImpl extends JournalService {
 	}
 	public void updateOpeningBalance(Journal journal,Boolean updateOpeningBalance)
 	{
+		balanceUpdateCoordinator.lockCategories(getTransactionCategories(journal));
 		for (JournalLineItem lineItem : journal.getJournalLineItems()) {
 			lineItem.setCurrentBalance(transactionCategoryBalanceService.updateRunningBalanceAndOpeningBalance(lineItem,updateOpeningBalance));
 		}
 		super.persist(journal);
 	}
+
+	@Override
+	public void postJournals(List<Journal> journals) {
+		if (journals == null || journals.isEmpty()) {
+			return;
+		}
+		List<TransactionCategory> categories = new ArrayList<>();
+		Map<List<Object>, List<JournalLineItem>> groups = new LinkedHashMap<>();
+		for (Journal journal : journals) {
+			categories.addAll(getTransactionCategories(journal));
+			for (JournalLineItem lineItem : journal.getJournalLineItems()) {
+				groups.computeIfAbsent(getBalanceKey(lineItem), key -> new ArrayList<>()).add(lineItem);
+			}
+		}
+		balanceUpdateCoordinator.lockCategories(categories);
+		for (List<JournalLineItem> lineItems : groups.values()) {
+			updateRunningBalance(lineItems);
+		}
+		persistAll(journals);
+	}
+
+	/**
+	 * Applies the first line on its own, so a category without a balance yet gets the same opening balance as with
+	 * {@link #persist(Journal)}, and the rest of the group as one net amount. The running balance of the lines in
+	 * between is worked out in memory.
+	 */
+	private void updateRunningBalance(List<JournalLineItem> lineItems) {
+		JournalLineItem first = lineItems.get(0);
+		BigDecimal runningBalance = transactionCategoryBalanceService.updateRunningBalance(first);
+		first.setCurrentBalance(runningBalance);
+		if (lineItems.size() == 1) {
+			return;
+		}
+		BigDecimal net = BigDecimal.ZERO;
+		for (JournalLineItem lineItem : lineItems.subList(1, lineItems.size())) {
+			net = net.add(getBalanceDelta(lineItem));
+			lineItem.setCurrentBalance(runningBalance != null ? runningBalance.add(net) : null);
+		}
+		if (net.signum() == 0) {
+			return;
+		}
+		JournalLineItem last = lineItems.get(lineItems.size() - 1);
+		JournalLineItem total = new JournalLineItem();
+		total.setTransactionCategory(last.getTransactionCategory());
+		total.setJournal(last.getJournal());
+		total.setCreatedBy(last.getCreatedBy());
+		total.setExchangeRate(last.getExchangeRate());
+		total.setDeleteFlag(last.getDeleteFlag());
+		boolean credit = net.signum() > 0 != Boolean.TRUE.equals(last.getDeleteFlag());
+		if (credit) {
+			total.setCreditAmount(net.abs());
+		} else {
+			total.setDebitAmount(net.abs());
+		}
+		last.setCurrentBalance(transactionCategoryBalanceService.updateRunningBalance(total));
+	}
+
+	/**
+	 * Lines with the same key change the same balance rows the same way. Lines with an exchange rate are kept apart
+	 * because their closing balance is rounded line by line.
+	 */
+	private List<Object> getBalanceKey(JournalLineItem lineItem) {
+		TransactionCategory category = lineItem.getTransactionCategory();
+		Journal journal = lineItem.getJournal();
+		LocalDate closingDate = journal.getTransactionDate() != null ? journal.getTransactionDate()
+				: journal.getJournalDate();
+		BigDecimal exchangeRate = lineItem.getExchangeRate();
+		Object rate = exchangeRate == null || exchangeRate.compareTo(BigDecimal.ONE) == 0 ? BigDecimal.ONE
+				: new Object();
+		return Arrays.asList(category != null ? category.getTransactionCategoryId() : null,
+				Boolean.TRUE.equals(lineItem.getDeleteFlag()), closingDate, rate);
+	}
+
+	/**
+	 * @return the change of the running balance, a credit adds and a debit subtracts, the other way round for a
+	 *         deleted line
+	 */
+	private BigDecimal getBalanceDelta(JournalLineItem lineItem) {
+		BigDecimal debit = lineItem.getDebitAmount() != null ? lineItem.getDebitAmount() : BigDecimal.ZERO;
+		BigDecimal credit = lineItem.getCreditAmount() != null ? lineItem.getCreditAmount() : BigDecimal.ZERO;
+		BigDecimal delta = debit.signum() != 0 ? debit.negate() : credit;
+		return Boolean.TRUE.equals(lineItem.getDeleteFlag()) ? delta.negate() : delta;
+	}
+
+	private List<TransactionCategory> getTransactionCategories(Journal journal) {
+		List<TransactionCategory> categories = new ArrayList<>();
+		for (JournalLineItem lineItem : journal.getJournalLineItems()) {
+			categories.add(lineItem.getTransactionCategory());
+		}
+		return categories;
+	}
 }
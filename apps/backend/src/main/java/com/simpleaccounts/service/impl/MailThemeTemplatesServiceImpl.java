@@ -1,10 +1,12 @@
 package com.simpleaccounts.service.impl;
 
 import com.simpleaccounts.dao.Dao;
+import com.simpleaccounts.entity.Activity;
 import lombok.RequiredArgsConstructor;
 import com.simpleaccounts.dao.MailThemeTemplates;
 import com.simpleaccounts.dao.MailThemeTemplatesDao;
 import com.simpleaccounts.service.MailThemeTemplatesService;
+import com.simpleaccounts.utils.MailTemplateCache;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +22,8 @@ public class MailThemeTemplatesServiceImpl extends MailThemeTemplatesService {
 
     private final MailThemeTemplatesDao mailThemeTemplatesDao;
 
+    private final MailTemplateCache mailTemplateCache;
+
     @Override
     protected Dao<Integer, MailThemeTemplates> getDao() {
         return this.mailThemeTemplatesDao;
@@ -27,6 +31,13 @@ public class MailThemeTemplatesServiceImpl extends MailThemeTemplatesService {
     @Override
     public void updateMailTheme(Integer templateId){
        mailThemeTemplatesDao.updateMailTheme(templateId);
+       mailTemplateCache.invalidate();
+    }
+    @Override
+    protected MailThemeTemplates update(MailThemeTemplates entity, Integer pk, Activity activity) {
+        MailThemeTemplates updated = super.update(entity, pk, activity);
+        mailTemplateCache.invalidate();
+        return updated;
     }
     @Override
     public MailThemeTemplates getMailThemeTemplate(Integer moduleId){
@@ -19,6 +19,7 @@ import com.simpleaccounts.dao.Dao;
 import com.simpleaccounts.dao.ProductCategoryDao;
 import com.simpleaccounts.entity.Activity;
 import com.simpleaccounts.entity.ProductCategory;
+import com.simpleaccounts.helper.ReferenceDataRegistry;
 import com.simpleaccounts.rest.PaginationModel;
 import com.simpleaccounts.rest.PaginationResponseModel;
 import com.simpleaccounts.service.ProductCategoryService;
@@ -31,6 +32,7 @@ public class ProductCategoryServiceImpl extends ProductCategoryService {
 
 	private final ProductCategoryDao productCategoryDao;
 	private final CacheManager cacheManager;
+	private final ReferenceDataRegistry referenceDataRegistry;
 
 	@Override
 	public List<ProductCategory> findAllProductCategoryByUserId(Integer userId, boolean isDeleted) {
@@ -48,15 +50,34 @@ public class ProductCategoryServiceImpl extends ProductCategoryService {
 	}
 	@Override
 	public void persist(ProductCategory productCategory) {
-		super.persist(productCategory, null, getActivity(productCategory, "CREATED"));
+		persist(productCategory, null, getActivity(productCategory, "CREATED"));
 	}
 	@Override
 	public ProductCategory update(ProductCategory productCategory) {
-		ProductCategory productCategoryUpdated =  super.update(productCategory, null, getActivity(productCategory, "UPDATED"));
+		return update(productCategory, null, getActivity(productCategory, "UPDATED"));
+	}
+
+	@Override
+	protected void persist(ProductCategory productCategory, Integer pk, Activity activity) {
+		super.persist(productCategory, pk, activity);
+		referenceDataRegistry.invalidate(ReferenceDataRegistry.PRODUCT_CATEGORIES);
+	}
+
+	@Override
+	protected ProductCategory update(ProductCategory productCategory, Integer pk, Activity activity) {
+		ProductCategory productCategoryUpdated = super.update(productCategory, pk, activity);
 		deleteFromCache(Collections.singletonList(productCategoryUpdated.getId()));
+		referenceDataRegistry.invalidate(ReferenceDataRegistry.PRODUCT_CATEGORIES);
 		return productCategoryUpdated;
 	}
 
+	@Override
+	protected void delete(ProductCategory productCategory, Integer pk, Activity activity) {
+		super.delete(productCategory, pk, activity);
+		deleteFromCache(Collections.singletonList(productCategory.getId()));
+		referenceDataRegistry.invalidate(ReferenceDataRegistry.PRODUCT_CATEGORIES);
+	}
+
 	private Activity getActivity(ProductCategory productCategory, String activityCode) {
 		Activity activity = new Activity();
 		activity.setActivityCode(activityCode);
@@ -74,6 +95,7 @@ public class ProductCategoryServiceImpl extends ProductCategoryService {
 	public void deleteByIds(ArrayList<Integer> ids) {
 		productCategoryDao.deleteByIds(ids);
 		deleteFromCache(ids);
+		referenceDataRegistry.invalidate(ReferenceDataRegistry.PRODUCT_CATEGORIES);
 	}
 
 	private void deleteFromCache(List<Integer> ids) {
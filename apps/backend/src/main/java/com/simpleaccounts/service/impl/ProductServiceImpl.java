@@ -61,7 +61,7 @@ public class ProductServiceImpl extends ProductService {
     @Override
     @Cacheable(cacheNames = "productCache", key = "#productId")
     public Product findByPK(Integer productId) {
-        return productDao.findByPK(productId);
+        return productDao.findByPK(productId, Product.DETAIL_GRAPH);
     }
     @Override
     public Integer getTotalProductCountByVatId(Integer vatId){
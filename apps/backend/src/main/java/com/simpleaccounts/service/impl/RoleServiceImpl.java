@@ -3,7 +3,9 @@ package com.simpleaccounts.service.impl;
 import com.simpleaccounts.dao.Dao;
 import lombok.RequiredArgsConstructor;
 import com.simpleaccounts.dao.RoleDao;
+import com.simpleaccounts.entity.Activity;
 import com.simpleaccounts.entity.Role;
+import com.simpleaccounts.security.UserPrincipalCache;
 import com.simpleaccounts.service.RoleService;
 import java.util.List;
 import org.springframework.stereotype.Service;
@@ -20,6 +22,8 @@ public class RoleServiceImpl extends RoleService {
 
     private final RoleDao roleDao;
 
+    private final UserPrincipalCache userPrincipalCache;
+
     @Override
     public List<Role> getRoles() {
         return roleDao.getRoles();
@@ -39,4 +43,17 @@ public class RoleServiceImpl extends RoleService {
     public Role getDefaultRole() {
         return roleDao.getDefaultRole();
     }
+
+    @Override
+    protected Role update(Role role, Integer pk, Activity activity) {
+        Role updatedRole = super.update(role, pk, activity);
+        userPrincipalCache.evictAll();
+        return updatedRole;
+    }
+
+    @Override
+    protected void delete(Role role, Integer pk, Activity activity) {
+        super.delete(role, pk, activity);
+        userPrincipalCache.evictAll();
+    }
 }
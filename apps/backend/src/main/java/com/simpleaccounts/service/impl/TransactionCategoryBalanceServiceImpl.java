@@ -29,13 +29,17 @@ public class TransactionCategoryBalanceServiceImpl extends TransactionCategoryBa
 
 	private final TransactionCategoryClosingBalanceService transactionCategoryClosingBalanceService;
 
+	private final BalanceUpdateCoordinator balanceUpdateCoordinator;
+
 	@Autowired
 	public TransactionCategoryBalanceServiceImpl(TransactionCategoryBalanceDao transactionCategoryBalanceDao,
 												 DateUtils dateUtils,
-												 TransactionCategoryClosingBalanceService transactionCategoryClosingBalanceService) {
+												 TransactionCategoryClosingBalanceService transactionCategoryClosingBalanceService,
+												 BalanceUpdateCoordinator balanceUpdateCoordinator) {
 		this.transactionCategoryBalanceDao = transactionCategoryBalanceDao;
 		this.dateUtils = dateUtils;
 		this.transactionCategoryClosingBalanceService = transactionCategoryClosingBalanceService;
+		this.balanceUpdateCoordinator = balanceUpdateCoordinator;
 	}
 
 	@Override
@@ -49,106 +53,114 @@ public class TransactionCategoryBalanceServiceImpl extends TransactionCategoryBa
 	}
 
 	@Override
-	
-	public synchronized BigDecimal updateRunningBalance(JournalLineItem lineItem) {
-		if (lineItem != null) {
-			TransactionCategory category = lineItem.getTransactionCategory();
-
-			Map<String, Object> param = new HashMap<>();
-			param.put("transactionCategory", category);
-
-			TransactionCategoryBalance balance = getFirstElement(findByAttributes(param));
-
-			if (balance == null) {
-				balance = new TransactionCategoryBalance();
-				balance.setTransactionCategory(category);
-				balance.setCreatedBy(lineItem.getCreatedBy());
-					balance.setOpeningBalance(lineItem.getCreditAmount()!=null && lineItem.getCreditAmount().compareTo(BigDecimal.ZERO)>0?lineItem.getCreditAmount():lineItem.getDebitAmount());
-				balance.setEffectiveDate(dateUtils.get(lineItem.getJournal().getJournalDate().atStartOfDay()));
-			}
+	public BigDecimal updateRunningBalance(JournalLineItem lineItem) {
+		if (lineItem == null) {
+			return null;
+		}
+		return balanceUpdateCoordinator.executeForCategory(lineItem.getTransactionCategory(),
+				() -> applyRunningBalance(lineItem));
+	}
+
+	private BigDecimal applyRunningBalance(JournalLineItem lineItem) {
+		TransactionCategory category = lineItem.getTransactionCategory();
+
+		Map<String, Object> param = new HashMap<>();
+		param.put("transactionCategory", category);
+
+		TransactionCategoryBalance balance = getFirstElement(findByAttributes(param));
+
+		if (balance == null) {
+			balance = new TransactionCategoryBalance();
+			balance.setTransactionCategory(category);
+			balance.setCreatedBy(lineItem.getCreatedBy());
+				balance.setOpeningBalance(lineItem.getCreditAmount()!=null && lineItem.getCreditAmount().compareTo(BigDecimal.ZERO)>0?lineItem.getCreditAmount():lineItem.getDebitAmount());
+			balance.setEffectiveDate(dateUtils.get(lineItem.getJournal().getJournalDate().atStartOfDay()));
+		}
 
-			boolean isDelated = lineItem.getDeleteFlag();
-			boolean isDebit = (lineItem.getDebitAmount() != null && lineItem.getDebitAmount().compareTo(BigDecimal.ZERO) !=0)
-					? Boolean.TRUE
-					: Boolean.FALSE;
-			BigDecimal runningBalance = balance.getRunningBalance() != null ? balance.getRunningBalance()
-					: BigDecimal.ZERO;
-			if (!isDelated) {
-				if (isDebit) {
-					runningBalance = runningBalance
-							.subtract(lineItem.getDebitAmount() != null ? lineItem.getDebitAmount() : BigDecimal.ZERO);
-				} else {
-					runningBalance = runningBalance
-							.add(lineItem.getCreditAmount() != null ? lineItem.getCreditAmount() : BigDecimal.ZERO);
-				}
+		boolean isDelated = lineItem.getDeleteFlag();
+		boolean isDebit = (lineItem.getDebitAmount() != null && lineItem.getDebitAmount().compareTo(BigDecimal.ZERO) !=0)
+				? Boolean.TRUE
+				: Boolean.FALSE;
+		BigDecimal runningBalance = balance.getRunningBalance() != null ? balance.getRunningBalance()
+				: BigDecimal.ZERO;
+		if (!isDelated) {
+			if (isDebit) {
+				runningBalance = runningBalance
+						.subtract(lineItem.getDebitAmount() != null ? lineItem.getDebitAmount() : BigDecimal.ZERO);
 			} else {
-				if (isDebit) {
-					runningBalance = runningBalance
-							.add(lineItem.getDebitAmount() != null ? lineItem.getDebitAmount() : BigDecimal.ZERO);
-				} else {
-					runningBalance = runningBalance.subtract(
-							lineItem.getCreditAmount() != null ? lineItem.getCreditAmount() : BigDecimal.ZERO);
-				}
+				runningBalance = runningBalance
+						.add(lineItem.getCreditAmount() != null ? lineItem.getCreditAmount() : BigDecimal.ZERO);
+			}
+		} else {
+			if (isDebit) {
+				runningBalance = runningBalance
+						.add(lineItem.getDebitAmount() != null ? lineItem.getDebitAmount() : BigDecimal.ZERO);
+			} else {
+				runningBalance = runningBalance.subtract(
+						lineItem.getCreditAmount() != null ? lineItem.getCreditAmount() : BigDecimal.ZERO);
 			}
-			balance.setRunningBalance(runningBalance);
-			transactionCategoryBalanceDao.update(balance);
-			transactionCategoryClosingBalanceService.updateClosingBalance(lineItem);
-			return balance.getRunningBalance();
 		}
+		balance.setRunningBalance(runningBalance);
+		transactionCategoryBalanceDao.update(balance);
+		transactionCategoryClosingBalanceService.updateClosingBalance(lineItem);
+		return balance.getRunningBalance();
+	}
 
-		return null;
+	public BigDecimal updateRunningBalanceAndOpeningBalance(JournalLineItem lineItem,Boolean updateOpeningBalance) {
+		if (lineItem == null) {
+			return null;
+		}
+		return balanceUpdateCoordinator.executeForCategory(lineItem.getTransactionCategory(),
+				() -> applyRunningBalanceAndOpeningBalance(lineItem, updateOpeningBalance));
 	}
 
-	public synchronized BigDecimal updateRunningBalanceAndOpeningBalance(JournalLineItem lineItem,Boolean updateOpeningBalance) {
-		if (lineItem != null) {
-			TransactionCategory category = lineItem.getTransactionCategory();
+	private BigDecimal applyRunningBalanceAndOpeningBalance(JournalLineItem lineItem,Boolean updateOpeningBalance) {
+		TransactionCategory category = lineItem.getTransactionCategory();
 
-			Map<String, Object> param = new HashMap<>();
-			param.put("transactionCategory", category);
+		Map<String, Object> param = new HashMap<>();
+		param.put("transactionCategory", category);
 
-			TransactionCategoryBalance balance = getFirstElement(findByAttributes(param));
+		TransactionCategoryBalance balance = getFirstElement(findByAttributes(param));
 
-			if (balance == null) {
-				balance = new TransactionCategoryBalance();
-				balance.setTransactionCategory(category);
-				balance.setCreatedBy(lineItem.getCreatedBy());
-				balance.setOpeningBalance(lineItem.getCreditAmount()!=null?lineItem.getCreditAmount():lineItem.getDebitAmount());
-				balance.setRunningBalance(lineItem.getCreditAmount()!=null?lineItem.getCreditAmount():lineItem.getDebitAmount());
-				balance.setEffectiveDate(dateUtils.get(lineItem.getJournal().getJournalDate().atStartOfDay()));
-			}
+		if (balance == null) {
+			balance = new TransactionCategoryBalance();
+			balance.setTransactionCategory(category);
+			balance.setCreatedBy(lineItem.getCreatedBy());
+			balance.setOpeningBalance(lineItem.getCreditAmount()!=null?lineItem.getCreditAmount():lineItem.getDebitAmount());
+			balance.setRunningBalance(lineItem.getCreditAmount()!=null?lineItem.getCreditAmount():lineItem.getDebitAmount());
+			balance.setEffectiveDate(dateUtils.get(lineItem.getJournal().getJournalDate().atStartOfDay()));
+		}
 
-			boolean isDelated = lineItem.getDeleteFlag();
-			boolean isDebit = (lineItem.getDebitAmount() != null && lineItem.getDebitAmount().intValue()!=0)
-					? Boolean.TRUE
-					: Boolean.FALSE;
-			BigDecimal runningBalance = balance.getRunningBalance() != null ? balance.getRunningBalance()
-					: BigDecimal.ZERO;
-			if (!isDelated) {
-				if (isDebit) {
-					runningBalance = runningBalance
-							.subtract(lineItem.getDebitAmount() != null ? lineItem.getDebitAmount() : BigDecimal.ZERO);
-				} else {
-					runningBalance = runningBalance
-							.add(lineItem.getCreditAmount() != null ? lineItem.getCreditAmount() : BigDecimal.ZERO);
-				}
+		boolean isDelated = lineItem.getDeleteFlag();
+		boolean isDebit = (lineItem.getDebitAmount() != null && lineItem.getDebitAmount().intValue()!=0)
+				? Boolean.TRUE
+				: Boolean.FALSE;
+		BigDecimal runningBalance = balance.getRunningBalance() != null ? balance.getRunningBalance()
+				: BigDecimal.ZERO;
+		if (!isDelated) {
+			if (isDebit) {
+				runningBalance = runningBalance
+						.subtract(lineItem.getDebitAmount() != null ? lineItem.getDebitAmount() : BigDecimal.ZERO);
+			} else {
+				runningBalance = runningBalance
+						.add(lineItem.getCreditAmount() != null ? lineItem.getCreditAmount() : BigDecimal.ZERO);
+			}
+		} else {
+			if (isDebit) {
+				runningBalance = runningBalance
+						.add(lineItem.getDebitAmount() != null ? lineItem.getDebitAmount() : BigDecimal.ZERO);
 			} else {
-				if (isDebit) {
-					runningBalance = runningBalance
-							.add(lineItem.getDebitAmount() != null ? lineItem.getDebitAmount() : BigDecimal.ZERO);
-				} else {
-					runningBalance = runningBalance.subtract(
-							lineItem.getCreditAmount() != null ? lineItem.getCreditAmount() : BigDecimal.ZERO);
-				}
+				runningBalance = runningBalance.subtract(
+						lineItem.getCreditAmount() != null ? lineItem.getCreditAmount() : BigDecimal.ZERO);
 			}
-			balance.setRunningBalance(runningBalance);
-				if(Boolean.TRUE.equals(updateOpeningBalance)&& runningBalance!=null && runningBalance.longValue()<0)
-					balance.setOpeningBalance(runningBalance.negate());
-				else if(Boolean.TRUE.equals(updateOpeningBalance)&& runningBalance!=null)
-					balance.setOpeningBalance(runningBalance);
-			transactionCategoryBalanceDao.update(balance);
-			transactionCategoryClosingBalanceService.updateClosingBalance(lineItem);
-			return balance.getRunningBalance();
 		}
-		return null;
+		balance.setRunningBalance(runningBalance);
+			if(Boolean.TRUE.equals(updateOpeningBalance)&& runningBalance!=null && runningBalance.longValue()<0)
+				balance.setOpeningBalance(runningBalance.negate());
+			else if(Boolean.TRUE.equals(updateOpeningBalance)&& runningBalance!=null)
+				balance.setOpeningBalance(runningBalance);
+		transactionCategoryBalanceDao.update(balance);
+		transactionCategoryClosingBalanceService.updateClosingBalance(lineItem);
+		return balance.getRunningBalance();
 	}
 }
@@ -13,6 +13,7 @@ import com.simpleaccounts.rest.detailedgeneralledgerreport.ReportRequestModel;
 import com.simpleaccounts.rest.financialreport.FinancialReportRequestModel;
 import com.simpleaccounts.service.BankAccountService;
 import com.simpleaccounts.service.CurrencyExchangeService;
+import com.simpleaccounts.service.DashboardMonthlyBalanceService;
 import com.simpleaccounts.service.TransactionCategoryClosingBalanceService;
 import com.simpleaccounts.utils.DateFormatUtil;
 import java.math.BigDecimal;
@@ -35,6 +36,12 @@ public class TransactionCategoryClosingBalanceServiceImpl extends TransactionCat
 
     private final CurrencyExchangeService currencyExchangeService;
 
+    private final BalanceUpdateCoordinator balanceUpdateCoordinator;
+
+    private final ClosingBalancePropagator closingBalancePropagator;
+
+    private final DashboardMonthlyBalanceService dashboardMonthlyBalanceService;
+
     @Override
     protected Dao<Integer, TransactionCategoryClosingBalance> getDao() {
         return transactionCategoryClosingBalanceDao;
@@ -42,11 +49,13 @@ public class TransactionCategoryClosingBalanceServiceImpl extends TransactionCat
 
     public List<TransactionCategoryClosingBalance> getList(ReportRequestModel reportRequestModel)
     {
+        closingBalancePropagator.settle();
         return transactionCategoryClosingBalanceDao.getList(reportRequestModel);
     }
 
     public List<TransactionCategoryClosingBalance> getListByChartOfAccountIds(ReportRequestModel reportRequestModel)
     {
+        closingBalancePropagator.settle();
         return transactionCategoryClosingBalanceDao.getListByChartOfAccountIds(reportRequestModel);
     }
     public List<VatReportModel> getListByPlaceOfSupply(FinancialReportRequestModel reportRequestModel)
@@ -55,6 +64,7 @@ public class TransactionCategoryClosingBalanceServiceImpl extends TransactionCat
     }
 
     public TransactionCategoryClosingBalance getLastClosingBalanceByDate(TransactionCategory category){
+        closingBalancePropagator.settle();
         return transactionCategoryClosingBalanceDao.getLastClosingBalanceByDate(category);
     }
 
@@ -89,10 +99,13 @@ public class TransactionCategoryClosingBalanceServiceImpl extends TransactionCat
             updateClosingBalance(transaction,category);
     }
 
-    public synchronized BigDecimal updateClosingBalance(Transaction transaction,TransactionCategory category) {
+    public BigDecimal updateClosingBalance(Transaction transaction,TransactionCategory category) {
+        return balanceUpdateCoordinator.executeForCategory(category, () -> applyClosingBalance(transaction, category));
+    }
+
+    private BigDecimal applyClosingBalance(Transaction transaction,TransactionCategory category) {
         boolean isBankTransaction = false;
         BigDecimal  bankTransactionAmount =BigDecimal.ZERO;
-        List<TransactionCategoryClosingBalance> balanceList = new ArrayList<>();
         if ((category.getChartOfAccount().getChartOfAccountId()==7 || category.getChartOfAccount().getChartOfAccountId()==8 )
                 && category.getTransactionCategoryId()!=46){
             Map<String,Object> filterMap = new HashMap<>();
@@ -110,142 +123,59 @@ public class TransactionCategoryClosingBalanceServiceImpl extends TransactionCat
             isBankTransaction = true;
         }
         if (transaction != null) {
-            boolean isUpdateOpeningBalance=false;
             boolean isDebit = transaction.getDebitCreditFlag().equals('D')
                     ? Boolean.TRUE
                     : Boolean.FALSE;
             BigDecimal transactionAmount = transaction.getTransactionAmount()!=null?transaction.getTransactionAmount():BigDecimal.ZERO;
+            BigDecimal amount = isDebit ? transactionAmount.negate() : transactionAmount;
+            BigDecimal bankAmount = null;
+            if (isBankTransaction) {
+                bankAmount = isDebit ? bankTransactionAmount.negate() : bankTransactionAmount;
+            }
 
             Map<String, Object> param = new HashMap<>();
             param.put(JSON_KEY_TRANSACTION_CATEGORY, category);
             param.put("closingBalanceDate", transaction.getTransactionDate());
 
             TransactionCategoryClosingBalance balance = getFirstElement(findByAttributes(param));
-            BigDecimal closingBalance = BigDecimal.ZERO;
-            BigDecimal bankClosingBalance =BigDecimal.ZERO;
-            BigDecimal bankOpeningBalance = BigDecimal.ZERO;
             if (balance == null) {
-                param = new HashMap<>();
-                param.put(JSON_KEY_TRANSACTION_CATEGORY, category);
-	                TransactionCategoryClosingBalance lastBalance = transactionCategoryClosingBalanceDao.getClosingBalanceLessThanCurrentDate(transaction.getTransactionDate(), category);
-                if(lastBalance == null && balance != null) {
-                    balance = new TransactionCategoryClosingBalance();
-                    balance.setTransactionCategory(category);
-                    balance.setCreatedBy(transaction.getCreatedBy());
-                    balance.setOpeningBalance(BigDecimal.ZERO);
-                    balance.setEffectiveDate(new Date());
-                    balance.setClosingBalanceDate(transaction.getTransactionDate());
-                    balanceList.add(balance);
-                }
-                else if(lastBalance != null)
-                {
-                    balance = new TransactionCategoryClosingBalance();
-                    balance.setTransactionCategory(lastBalance.getTransactionCategory());
-                    balance.setCreatedBy(transaction.getCreatedBy());
-                    balance.setOpeningBalance(lastBalance.getClosingBalance());
-                    balance.setEffectiveDate(new Date());
-                    balance.setClosingBalanceDate(transaction.getTransactionDate());
-                    balance.setClosingBalance(lastBalance.getClosingBalance());
-                    balance.setBankAccountClosingBalance(lastBalance.getBankAccountClosingBalance());
-                    balanceList.add(balance);
-                    List<TransactionCategoryClosingBalance> upperbalanceList = transactionCategoryClosingBalanceDao.
-                            getClosingBalanceGreaterThanCurrentDate(balance.getClosingBalanceDate(),balance.getTransactionCategory());
-                    if(!upperbalanceList.isEmpty()) {
-                        balanceList.addAll(upperbalanceList);
-                        isUpdateOpeningBalance = true;
+                TransactionCategoryClosingBalance lastBalance = transactionCategoryClosingBalanceDao.getClosingBalanceLessThanCurrentDate(transaction.getTransactionDate(), category);
+                balance = new TransactionCategoryClosingBalance();
+                balance.setTransactionCategory(category);
+                balance.setCreatedBy(transaction.getCreatedBy());
+                balance.setEffectiveDate(new Date());
+                balance.setClosingBalanceDate(transaction.getTransactionDate());
+                if (lastBalance != null) {
+                    // a delta still pending on the previous row is propagated to this new row as well
+                    ClosingBalancePropagator.Delta pending = closingBalancePropagator.getPendingDelta(category, lastBalance.getClosingBalanceDate());
+                    BigDecimal carriedBalance = lastBalance.getClosingBalance().subtract(pending.getAmount());
+                    BigDecimal carriedBankBalance = lastBalance.getBankAccountClosingBalance();
+                    if (carriedBankBalance != null && pending.getBankAmount() != null) {
+                        carriedBankBalance = carriedBankBalance.subtract(pending.getBankAmount());
                     }
-                }
-                else
-                {
-                    balance = new TransactionCategoryClosingBalance();
-                    balance.setTransactionCategory(category);
-                    balance.setCreatedBy(transaction.getCreatedBy());
+                    balance.setOpeningBalance(carriedBalance);
+                    balance.setClosingBalance(carriedBalance);
+                    balance.setBankAccountClosingBalance(carriedBankBalance);
+                } else {
                     balance.setOpeningBalance(BigDecimal.ZERO);
-                    balance.setEffectiveDate(new Date());
-                    balance.setClosingBalanceDate(transaction.getTransactionDate());
                     balance.setClosingBalance(BigDecimal.ZERO);
-                    balanceList.add(balance);
-                    List<TransactionCategoryClosingBalance> upperbalanceList = transactionCategoryClosingBalanceDao.
-                            getClosingBalanceGreaterThanCurrentDate(balance.getClosingBalanceDate(),balance.getTransactionCategory());
-                    if(!upperbalanceList.isEmpty()) {
-                        balanceList.addAll(upperbalanceList);
-                        isUpdateOpeningBalance = true;
-                    }
                 }
             }
-            else
-            {
-                param = new HashMap<>();
-                param.put(JSON_KEY_TRANSACTION_CATEGORY, category);
-                closingBalance = balance.getClosingBalance();
-	                TransactionCategoryClosingBalance lastBalance = transactionCategoryClosingBalanceDao.getLastClosingBalanceByDate(category);
-                if(lastBalance!=null && lastBalance.getClosingBalance() != balance.getClosingBalance() &&
-                !(lastBalance.getClosingBalanceDate().isEqual(balance.getClosingBalanceDate())))
-                {
-                    isUpdateOpeningBalance = true;
-                    balanceList = transactionCategoryClosingBalanceDao.
-                            getClosingBalanceForTimeRange(balance.getClosingBalanceDate(),lastBalance.getClosingBalanceDate()
-                                    ,balance.getTransactionCategory());
-                }
-                else
-                    balanceList.add(balance);
+            balance.setClosingBalance(balance.getClosingBalance().add(amount));
+            if (isBankTransaction) {
+                BigDecimal bankClosingBalance = balance.getBankAccountClosingBalance() != null
+                        ? balance.getBankAccountClosingBalance() : BigDecimal.ZERO;
+                balance.setBankAccountClosingBalance(bankClosingBalance.add(bankAmount));
             }
-            boolean firstTransaction = true;
-            for(TransactionCategoryClosingBalance transactionCategoryClosingBalance : balanceList) {
-                closingBalance = transactionCategoryClosingBalance.getClosingBalance();
-                if ( isBankTransaction){
-                    if (transactionCategoryClosingBalance.getBankAccountClosingBalance()==null){
-                        bankClosingBalance = BigDecimal.ZERO;
-                    }
-                    else {
-                        bankClosingBalance = transactionCategoryClosingBalance.getBankAccountClosingBalance();
-                    }
-                }
-                if (isDebit) {
-                    closingBalance = closingBalance
-                            .subtract(transactionAmount);
-                    if ( isBankTransaction)
-                    bankClosingBalance = bankClosingBalance.subtract(bankTransactionAmount);
-                } else {
-                    closingBalance = closingBalance
-                            .add(transactionAmount);
-                    if ( isBankTransaction)
-                    bankClosingBalance  = bankClosingBalance.add(bankTransactionAmount);
-                }
-                if(isUpdateOpeningBalance &&!firstTransaction){
-                    BigDecimal openingBalance = transactionCategoryClosingBalance.getOpeningBalance();
-                    if ( isBankTransaction){
-                        if (transactionCategoryClosingBalance.getBankAccountOpeningBalance()==null){
-                            bankOpeningBalance = BigDecimal.ZERO;
-                        }
-                        else {
-                            bankOpeningBalance = transactionCategoryClosingBalance.getBankAccountOpeningBalance();
-                        }
-                    }
-                    if (isDebit) {
-                        openingBalance = openingBalance
-                                .subtract(transactionAmount);
-                        if ( isBankTransaction) {
-                            bankOpeningBalance = bankOpeningBalance.subtract(bankTransactionAmount);
-                        }
-                    } else {
-                        openingBalance = openingBalance
-                                .add(transactionAmount);
-                        if ( isBankTransaction) {
-                            bankOpeningBalance = bankOpeningBalance.add(bankTransactionAmount);
-                        }
-                    }
-                    transactionCategoryClosingBalance.setOpeningBalance(openingBalance);
-                    if (isBankTransaction){
-                        transactionCategoryClosingBalance.setBankAccountOpeningBalance(bankOpeningBalance);
-                    }
-                }
-                firstTransaction= false;
-                transactionCategoryClosingBalance.setClosingBalance(closingBalance);
-                if (isBankTransaction){
-                    transactionCategoryClosingBalance.setBankAccountClosingBalance(bankClosingBalance);
-                }
-                transactionCategoryClosingBalanceDao.update(transactionCategoryClosingBalance);
+            transactionCategoryClosingBalanceDao.update(balance);
+            BigDecimal dateClosingBalance = balance.getClosingBalance();
+            LocalDateTime closingBalanceDate = balance.getClosingBalanceDate();
+            dashboardMonthlyBalanceService.applyDelta(category, closingBalanceDate, amount, () -> dateClosingBalance
+                    .add(closingBalancePropagator.getPendingDeltaBefore(category, closingBalanceDate).getAmount()));
+
+            TransactionCategoryClosingBalance lastBalance = transactionCategoryClosingBalanceDao.getLastClosingBalanceByDate(category);
+            if (lastBalance != null && lastBalance.getClosingBalanceDate().isAfter(balance.getClosingBalanceDate())) {
+                closingBalancePropagator.propagate(category, balance.getClosingBalanceDate(), amount, bankAmount);
             }
             return balance.getClosingBalance();
         }
@@ -254,6 +184,7 @@ public class TransactionCategoryClosingBalanceServiceImpl extends TransactionCat
 
     @Override
     public BigDecimal matchClosingBalanceForReconcile(LocalDateTime reconcileDate, TransactionCategory category) {
+        closingBalancePropagator.settle();
         TransactionCategoryClosingBalance transactionCategoryClosingBalance = transactionCategoryClosingBalanceDao.
                 getClosingBalanceLessThanCurrentDate(reconcileDate,category);
         if(transactionCategoryClosingBalance !=null)
@@ -268,6 +199,7 @@ public class TransactionCategoryClosingBalanceServiceImpl extends TransactionCat
 
     @Override
     public BigDecimal sumOfTotalAmountClosingBalance(FinancialReportRequestModel reportRequestModel, String lastMonth){
+        closingBalancePropagator.settle();
         return transactionCategoryClosingBalanceDao.sumOfTotalAmountClosingBalance(reportRequestModel,lastMonth);
 
     }
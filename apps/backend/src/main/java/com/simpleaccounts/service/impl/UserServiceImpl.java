@@ -5,6 +5,7 @@ import static com.simpleaccounts.rest.invoicecontroller.HtmlTemplateConstants.TE
 import com.simpleaccounts.constant.EmailConstant;
 import com.simpleaccounts.constant.dbfilter.UserFilterEnum;
 import com.simpleaccounts.dao.UserDao;
+import com.simpleaccounts.entity.Activity;
 import com.simpleaccounts.entity.User;
 import com.simpleaccounts.model.JwtRequest;
 import com.simpleaccounts.repository.UserJpaRepository;
@@ -12,6 +13,7 @@ import com.simpleaccounts.rest.DropdownModel;
 import com.simpleaccounts.rest.PaginationModel;
 import com.simpleaccounts.rest.PaginationResponseModel;
 import com.simpleaccounts.rest.usercontroller.UserModel;
+import com.simpleaccounts.security.UserPrincipalCache;
 import com.simpleaccounts.service.UserService;
 import com.simpleaccounts.utils.DateUtils;
 import com.simpleaccounts.utils.EmailSender;
@@ -50,6 +52,7 @@ public class UserServiceImpl extends UserService{
 	private final EmailSender emailSender;
 	private final ResourceLoader resourceLoader;
 	private final DateUtils dateUtils;
+	private final UserPrincipalCache userPrincipalCache;
 
 	public UserServiceImpl(
 			UserJpaRepository userJpaRepo,
@@ -57,13 +60,15 @@ public class UserServiceImpl extends UserService{
 			RandomString randomString,
 			EmailSender emailSender,
 			ResourceLoader resourceLoader,
-			DateUtils dateUtils) {
+			DateUtils dateUtils,
+			UserPrincipalCache userPrincipalCache) {
 		this.userJpaRepo = userJpaRepo;
 		this.dao = dao;
 		this.randomString = randomString;
 		this.emailSender = emailSender;
 		this.resourceLoader = resourceLoader;
 		this.dateUtils = dateUtils;
+		this.userPrincipalCache = userPrincipalCache;
 	}
 
 	@Override
@@ -103,6 +108,45 @@ public class UserServiceImpl extends UserService{
 	@Override
 	public void deleteByIds(List<Integer> ids) {
 		getDao().deleteByIds(ids);
+		for (Integer id : ids) {
+			userPrincipalCache.evictUser(id, null);
+		}
+	}
+
+	@Override
+	protected void persist(User user, Integer pk, Activity activity) {
+		super.persist(user, pk, activity);
+		userPrincipalCache.evictUser(user.getUserId(), user.getUserEmail());
+	}
+
+	@Override
+	protected User update(User user, Integer pk, Activity activity) {
+		User updatedUser = super.update(user, pk, activity);
+		userPrincipalCache.evictUser(updatedUser.getUserId(), updatedUser.getUserEmail());
+		return updatedUser;
+	}
+
+	@Override
+	public void persistAll(List<User> users) {
+		super.persistAll(users);
+		for (User user : users) {
+			userPrincipalCache.evictUser(user.getUserId(), user.getUserEmail());
+		}
+	}
+
+	@Override
+	public List<User> updateAll(List<User> users) {
+		List<User> updatedUsers = super.updateAll(users);
+		for (User user : updatedUsers) {
+			userPrincipalCache.evictUser(user.getUserId(), user.getUserEmail());
+		}
+		return updatedUsers;
+	}
+
+	@Override
+	protected void delete(User user, Integer pk, Activity activity) {
+		super.delete(user, pk, activity);
+		userPrincipalCache.evictUser(user.getUserId(), user.getUserEmail());
 	}
 
 	@Override
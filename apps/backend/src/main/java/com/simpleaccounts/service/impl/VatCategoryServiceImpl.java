@@ -16,6 +16,7 @@ import com.simpleaccounts.dao.Dao;
 import com.simpleaccounts.dao.VatCategoryDao;
 import com.simpleaccounts.entity.Activity;
 import com.simpleaccounts.entity.VatCategory;
+import com.simpleaccounts.helper.ReferenceDataRegistry;
 import com.simpleaccounts.rest.DropdownModel;
 import com.simpleaccounts.rest.PaginationModel;
 import com.simpleaccounts.rest.PaginationResponseModel;
@@ -31,6 +32,8 @@ public class VatCategoryServiceImpl extends VatCategoryService {
 
 	private final CacheManager cacheManager;
 
+	private final ReferenceDataRegistry referenceDataRegistry;
+
 	private static final String VAT_CATEGORY = "VAT_CATEGORY";
 
 	public List<VatCategory> getVatCategoryList() {
@@ -56,15 +59,34 @@ public class VatCategoryServiceImpl extends VatCategoryService {
 
 	@Override
 	public void persist(VatCategory vatCategory) {
-		super.persist(vatCategory, null, getActivity(vatCategory, "CREATED"));
+		persist(vatCategory, null, getActivity(vatCategory, "CREATED"));
 	}
 	@Override
 	public VatCategory update(VatCategory vatCategory) {
-		VatCategory vatCategoryUpdated =  super.update(vatCategory, null, getActivity(vatCategory, "UPDATED"));
+		VatCategory vatCategoryUpdated =  update(vatCategory, null, getActivity(vatCategory, "UPDATED"));
+
+		return vatCategoryUpdated;
+	}
+
+	@Override
+	protected void persist(VatCategory vatCategory, Integer pk, Activity activity) {
+		super.persist(vatCategory, pk, activity);
+		referenceDataRegistry.invalidate(ReferenceDataRegistry.VAT_CATEGORIES);
+	}
 
+	@Override
+	protected VatCategory update(VatCategory vatCategory, Integer pk, Activity activity) {
+		VatCategory vatCategoryUpdated = super.update(vatCategory, pk, activity);
+		referenceDataRegistry.invalidate(ReferenceDataRegistry.VAT_CATEGORIES);
 		return vatCategoryUpdated;
 	}
 
+	@Override
+	protected void delete(VatCategory vatCategory, Integer pk, Activity activity) {
+		super.delete(vatCategory, pk, activity);
+		referenceDataRegistry.invalidate(ReferenceDataRegistry.VAT_CATEGORIES);
+	}
+
 	private Activity getActivity(VatCategory vatCategory, String activityCode) {
 		Activity activity = new Activity();
 		activity.setActivityCode(activityCode);
@@ -81,7 +103,7 @@ public class VatCategoryServiceImpl extends VatCategoryService {
 	@Override
 	public void deleteByIds(List<Integer> ids) {
 		vatCategoryDao.deleteByIds(ids);
-
+		referenceDataRegistry.invalidate(ReferenceDataRegistry.VAT_CATEGORIES);
 	}
 
 	@Override
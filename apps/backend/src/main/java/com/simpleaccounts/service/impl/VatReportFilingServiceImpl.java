@@ -13,6 +13,7 @@ import com.simpleaccounts.entity.bankaccount.BankAccount;
 import com.simpleaccounts.entity.bankaccount.Transaction;
 import com.simpleaccounts.entity.bankaccount.TransactionCategory;
 import com.simpleaccounts.helper.DateFormatHelper;
+import com.simpleaccounts.model.VatReturnBoxes;
 import com.simpleaccounts.repository.JournalLineItemRepository;
 import com.simpleaccounts.repository.TransactionExplanationRepository;
 import com.simpleaccounts.rest.PostingRequestModel;
@@ -22,7 +23,6 @@ import com.simpleaccounts.service.*;
 import com.simpleaccounts.service.bankaccount.TransactionService;
 import com.simpleaccounts.utils.DateFormatUtil;
 import com.simpleaccounts.utils.FileHelper;
-import com.simpleaccounts.utils.InvoiceNumberUtil;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -79,7 +79,8 @@ public class VatReportFilingServiceImpl implements VatReportFilingService {
 
     private final CustomizeInvoiceTemplateService customizeInvoiceTemplateService;
 
-    private final InvoiceNumberUtil invoiceNumberUtil;
+    private final VatReturnEngine vatReturnEngine;
+
     @Override
     public boolean processVatReport(VatReportFilingRequestModel vatReportFilingRequestModel, User user){
         VatReportFiling vatReportFiling = new VatReportFiling();
@@ -93,28 +94,16 @@ public class VatReportFilingServiceImpl implements VatReportFilingService {
         }
         else {
             //added vatNumber
-            String nxtExpenseNo = customizeInvoiceTemplateService.getLastInvoice(12);
-            vatReportFiling.setVatNumber(nxtExpenseNo);
-            if (vatReportFiling.getVatNumber()!=null) {
-                CustomizeInvoiceTemplate template = customizeInvoiceTemplateService.getInvoiceTemplate(12);
-                String suffix = invoiceNumberUtil.fetchSuffixFromString(vatReportFiling.getVatNumber());
-                template.setSuffix(Integer.parseInt(suffix));
-                String prefix = vatReportFiling.getVatNumber().substring(0,vatReportFiling.getVatNumber().lastIndexOf(suffix));
-                template.setPrefix(prefix);
-                customizeInvoiceTemplateService.persist(template);
-            }
+            vatReportFiling.setVatNumber(customizeInvoiceTemplateService.allocateNextNumber(12));
         }
         BigDecimal totalVatPayable = BigDecimal.ZERO;
         BigDecimal totalInputVatAmount = BigDecimal.ZERO;
         BigDecimal totalOutputVatAmount = BigDecimal.ZERO;
         BigDecimal totalAmount = BigDecimal.ZERO;
 
-         totalInputVatAmount=journalLineItemService.totalInputVatAmount(vatReportFiling,vatReportFilingRequestModel,88) !=null?
-                 journalLineItemService.totalInputVatAmount(vatReportFiling,vatReportFilingRequestModel,88)
-                 :BigDecimal.ZERO;
-         totalOutputVatAmount=journalLineItemService.totalOutputVatAmount(vatReportFiling,vatReportFilingRequestModel,94) !=null?
-        journalLineItemService.totalOutputVatAmount(vatReportFiling,vatReportFilingRequestModel,94)
-                 :BigDecimal.ZERO;
+        VatReturnBoxes vatReturnBoxes = getVatReturnBoxes(vatReportFiling, vatReportFilingRequestModel);
+        totalInputVatAmount = vatReturnBoxes.getInputVat() != null ? vatReturnBoxes.getInputVat() : BigDecimal.ZERO;
+        totalOutputVatAmount = vatReturnBoxes.getOutputVat() != null ? vatReturnBoxes.getOutputVat() : BigDecimal.ZERO;
 
          if (totalInputVatAmount!=null && totalOutputVatAmount !=null){
              totalAmount = totalOutputVatAmount.subtract(totalInputVatAmount);
@@ -147,6 +136,16 @@ public class VatReportFilingServiceImpl implements VatReportFilingService {
         vatReportFilingRepository.save(vatReportFiling);
         return true;
     }
+    /**
+     * Boxes of the period of the filing, or of the requested period for a filing not saved yet.
+     */
+    private VatReturnBoxes getVatReturnBoxes(VatReportFiling vatReportFiling, VatReportFilingRequestModel vatReportFilingRequestModel) {
+        if (vatReportFiling.getStartDate() != null && vatReportFiling.getEndDate() != null) {
+            return vatReturnEngine.getBoxes(vatReportFiling.getStartDate(), vatReportFiling.getEndDate());
+        }
+        return vatReturnEngine.getBoxes(getStartDateAsLocalDatetime(vatReportFilingRequestModel.getStartDate()).toLocalDate(),
+                getEndDateAsLocalDatetime(vatReportFilingRequestModel.getEndDate()).toLocalDate());
+    }
     private LocalDateTime getStartDateAsLocalDatetime(String startDateOfVatFiling) {
         LocalDateTime startDate = dateUtils.getDateStrAsLocalDateTime(startDateOfVatFiling,
                 CommonColumnConstants.DD_MM_YYYY);
@@ -306,8 +305,9 @@ public class VatReportFilingServiceImpl implements VatReportFilingService {
         vatReportFilingRequestModel.setEndDate(endDate);
         vatReportFilingRequestModel.setStartDate(startDate);
 
-        BigDecimal totalInputVatAmount =  journalLineItemService.totalInputVatAmount(vatReportFiling,vatReportFilingRequestModel,88);
-        BigDecimal totalOutputVatAmount = journalLineItemService.totalOutputVatAmount(vatReportFiling,vatReportFilingRequestModel,94);
+        VatReturnBoxes vatReturnBoxes = vatReturnEngine.getBoxes(vatReportFiling.getStartDate(), vatReportFiling.getEndDate());
+        BigDecimal totalInputVatAmount = vatReturnBoxes.getInputVat();
+        BigDecimal totalOutputVatAmount = vatReturnBoxes.getOutputVat();
 
         List<Object> inputlistOfIds= journalLineItemService.getIdsAndTypeInTotalInputVat(vatReportFiling,vatReportFilingRequestModel,88);
         List<Object> outputlistOfIds= journalLineItemService.getIdsAndTypeInTotalOutputVat(vatReportFiling,vatReportFilingRequestModel,94);
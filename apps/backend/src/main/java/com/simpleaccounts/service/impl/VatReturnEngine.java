@@ -0,0 +1,269 @@
+package com.simpleaccounts.service.impl;
+
+import com.simpleaccounts.constant.CommonStatusEnum;
+import com.simpleaccounts.constant.PostingReferenceTypeEnum;
+import com.simpleaccounts.dao.VatReturnDao;
+import com.simpleaccounts.entity.VatReportFiling;
+import com.simpleaccounts.helper.VatLedgerVersion;
+import com.simpleaccounts.model.VatReportModel;
+import com.simpleaccounts.model.VatReturnBoxes;
+import com.simpleaccounts.rest.financialreport.VatReportFilingRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Works out every box of the VAT 201 return of a period from a handful of grouped queries, one per source table,
+ * instead of one query per box.
+ *
+ * Each query groups the documents of the period by the attributes the boxes filter on, such as the invoice type,
+ * the VAT category and the reverse charge and edit flags, and the boxes are then summed from those groups. The
+ * result is kept per period together with the {@link VatLedgerVersion} it was computed at, so the VAT return view
+ * and the filing of the same period share one computation until an invoice, expense, debit note or journal changes.
+ */
+@Slf4j
+@Component
+@Transactional(readOnly = true)
+public class VatReturnEngine {
+
+	public static final int INPUT_VAT_CATEGORY_ID = 88;
+
+	public static final int OUTPUT_VAT_CATEGORY_ID = 94;
+
+	private static final int SUPPLIER_INVOICE = 1;
+
+	private static final int CUSTOMER_INVOICE = 2;
+
+	private static final int STANDARD_RATED = 1;
+
+	private static final int ZERO_RATED = 2;
+
+	private static final int EXEMPT = 3;
+
+	private static final int DRAFT_INVOICE = 2;
+
+	private static final int DRAFT_EXPENSE = 1;
+
+	private final VatReturnDao vatReturnDao;
+
+	private final VatReportFilingRepository vatReportFilingRepository;
+
+	private final VatLedgerVersion vatLedgerVersion;
+
+	private final Map<List<LocalDate>, Computed> computed;
+
+	public VatReturnEngine(VatReturnDao vatReturnDao, VatReportFilingRepository vatReportFilingRepository,
+			VatLedgerVersion vatLedgerVersion, @Value("${simpleaccounts.vat.return-periods-kept:24}") int periodsKept) {
+		this.vatReturnDao = vatReturnDao;
+		this.vatReportFilingRepository = vatReportFilingRepository;
+		this.vatLedgerVersion = vatLedgerVersion;
+		this.computed = new LinkedHashMap<List<LocalDate>, Computed>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<List<LocalDate>, Computed> eldest) {
+				return size() > Math.max(periodsKept, 1);
+			}
+		};
+	}
+
+	/**
+	 * @return the boxes of the period, computed again only when the ledger changed since they were last computed
+	 */
+	public VatReturnBoxes getBoxes(LocalDate startDate, LocalDate endDate) {
+		List<LocalDate> period = Arrays.asList(startDate, endDate);
+		long version = vatLedgerVersion.current();
+		synchronized (computed) {
+			Computed latest = computed.get(period);
+			if (latest != null && latest.version == version) {
+				return latest.boxes;
+			}
+		}
+		VatReturnBoxes boxes = compute(startDate, endDate);
+		synchronized (computed) {
+			Computed latest = computed.get(period);
+			if (latest == null || latest.version <= version) {
+				computed.put(period, new Computed(version, boxes));
+			}
+		}
+		return boxes;
+	}
+
+	private VatReturnBoxes compute(LocalDate startDate, LocalDate endDate) {
+		long start = System.currentTimeMillis();
+		// Documents of a filed period are locked by clearing their edit flag, only those count once it is filed.
+		VatReportFiling filing = vatReportFilingRepository.getVatReportFilingByStartDateAndEndDate(startDate,
+				endDate);
+		Boolean editFlag = filing == null || CommonStatusEnum.UN_FILED.getValue().equals(filing.getStatus());
+		VatReturnBoxes.VatReturnBoxesBuilder boxes = VatReturnBoxes.builder().startDate(startDate).endDate(endDate);
+		addInvoiceLines(boxes, vatReturnDao.getInvoiceLineTotals(startDate, endDate), editFlag);
+		addExpenses(boxes, vatReturnDao.getExpenseTotals(startDate, endDate),
+				vatReturnDao.getReverseChargeInvoiceTotals(startDate, endDate), editFlag);
+		addDebitNotes(boxes, vatReturnDao.getDebitNoteTotals(startDate.atStartOfDay().atOffset(ZoneOffset.UTC),
+				endDate.atStartOfDay().atOffset(ZoneOffset.UTC)));
+		addVatAccounts(boxes, vatReturnDao.getVatAccountTotals(startDate, endDate,
+				Arrays.asList(INPUT_VAT_CATEGORY_ID, OUTPUT_VAT_CATEGORY_ID)));
+		log.debug("VAT return of {} to {} computed in {} ms", startDate, endDate, System.currentTimeMillis() - start);
+		return boxes.build();
+	}
+
+	private static void addInvoiceLines(VatReturnBoxes.VatReturnBoxesBuilder boxes, List<Object[]> rows,
+			Boolean editFlag) {
+		Map<Integer, VatReportModel> byPlaceOfSupply = new LinkedHashMap<>();
+		BigDecimal zeroRated = null;
+		BigDecimal exempt = null;
+		BigDecimal supplierAmount = null;
+		BigDecimal supplierVat = null;
+		for (Object[] row : rows) {
+			Integer type = (Integer) row[0];
+			Integer vatCategoryId = (Integer) row[1];
+			boolean live = Boolean.FALSE.equals(row[3]);
+			boolean editable = Objects.equals(editFlag, row[4]);
+			Integer placeOfSupplyId = (Integer) row[5];
+			if (type == CUSTOMER_INVOICE && vatCategoryId == STANDARD_RATED && live && placeOfSupplyId != null
+					&& row[9] != null) {
+				VatReportModel supplies = byPlaceOfSupply.computeIfAbsent(placeOfSupplyId,
+						id -> VatReportModel.builder().placeOfSupplyId(id).placeOfSupplyName((String) row[6])
+								.totalAmount(BigDecimal.ZERO).totalVatAmount(BigDecimal.ZERO).build());
+				supplies.setTotalAmount(supplies.getTotalAmount().add((BigDecimal) row[9]));
+				supplies.setTotalVatAmount(add(supplies.getTotalVatAmount(), (BigDecimal) row[10]));
+			} else if (type == CUSTOMER_INVOICE && vatCategoryId == ZERO_RATED && editable) {
+				zeroRated = add(zeroRated, (BigDecimal) row[7]);
+			} else if (type == SUPPLIER_INVOICE && vatCategoryId == STANDARD_RATED && live && editable
+					&& Boolean.FALSE.equals(row[2])) {
+				supplierAmount = add(supplierAmount, (BigDecimal) row[9]);
+				supplierVat = add(supplierVat, (BigDecimal) row[10]);
+			}
+			if (type == CUSTOMER_INVOICE && vatCategoryId == EXEMPT) {
+				exempt = add(exempt, (BigDecimal) row[7]);
+			}
+		}
+		boxes.standardRatedSupplies(Collections.unmodifiableList(new ArrayList<>(byPlaceOfSupply.values())))
+				.zeroRatedSupplies(zeroRated).exemptSupplies(exempt)
+				.supplierInvoiceAmount(supplierAmount != null ? supplierAmount : BigDecimal.ZERO)
+				.supplierInvoiceVat(supplierVat != null ? supplierVat : BigDecimal.ZERO);
+	}
+
+	private static void addExpenses(VatReturnBoxes.VatReturnBoxesBuilder boxes, List<Object[]> expenseRows,
+			List<Object[]> reverseChargeInvoiceRows, Boolean editFlag) {
+		BigDecimal expenseAmount = null;
+		BigDecimal expenseVat = null;
+		BigDecimal reverseChargeAmount = null;
+		BigDecimal reverseChargeVat = null;
+		for (Object[] row : reverseChargeInvoiceRows) {
+			if (Objects.equals(editFlag, row[0])) {
+				reverseChargeAmount = add(reverseChargeAmount, (BigDecimal) row[1]);
+				reverseChargeVat = add(reverseChargeVat, (BigDecimal) row[2]);
+			}
+		}
+		for (Object[] row : expenseRows) {
+			if (!Objects.equals(editFlag, row[3])) {
+				continue;
+			}
+			if (Boolean.TRUE.equals(row[1])) {
+				reverseChargeAmount = add(reverseChargeAmount, (BigDecimal) row[4]);
+				reverseChargeVat = add(reverseChargeVat, (BigDecimal) row[5]);
+			} else if (Boolean.FALSE.equals(row[1]) && Integer.valueOf(STANDARD_RATED).equals(row[0])
+					&& Boolean.TRUE.equals(row[2])) {
+				expenseAmount = add(expenseAmount, (BigDecimal) row[4]);
+				expenseVat = add(expenseVat, (BigDecimal) row[5]);
+			}
+		}
+		boxes.expenseAmount(expenseAmount != null ? expenseAmount : BigDecimal.ZERO)
+				.expenseVat(expenseVat != null ? expenseVat : BigDecimal.ZERO)
+				.reverseChargeAmount(reverseChargeAmount).reverseChargeVat(reverseChargeVat);
+	}
+
+	private static void addDebitNotes(VatReturnBoxes.VatReturnBoxesBuilder boxes, Object[] row) {
+		BigDecimal sales = (BigDecimal) row[0];
+		BigDecimal discount = (BigDecimal) row[2];
+		if (sales != null && discount != null) {
+			sales = sales.subtract(discount);
+		}
+		boxes.debitNoteSales(sales).debitNoteSalesVat((BigDecimal) row[1]);
+	}
+
+	private static void addVatAccounts(VatReturnBoxes.VatReturnBoxesBuilder boxes, List<Object[]> rows) {
+		Balance invoices = new Balance();
+		Balance expenses = new Balance();
+		Balance debitNotes = new Balance();
+		Balance output = new Balance();
+		for (Object[] row : rows) {
+			Integer transactionCategoryId = (Integer) row[0];
+			PostingReferenceTypeEnum referenceType = (PostingReferenceTypeEnum) row[1];
+			BigDecimal debit = (BigDecimal) row[7];
+			BigDecimal credit = (BigDecimal) row[8];
+			if (transactionCategoryId == OUTPUT_VAT_CATEGORY_ID) {
+				output.add(debit, credit);
+			} else if (referenceType == PostingReferenceTypeEnum.INVOICE
+					|| referenceType == PostingReferenceTypeEnum.REVERSE_INVOICE) {
+				if (row[3] != null && (Integer) row[3] != DRAFT_INVOICE) {
+					invoices.add(debit, credit);
+				}
+			} else if (referenceType == PostingReferenceTypeEnum.EXPENSE
+					|| referenceType == PostingReferenceTypeEnum.REVERSE_EXPENSE) {
+				if (row[4] != null && (Integer) row[4] != DRAFT_EXPENSE && Boolean.TRUE.equals(row[5])) {
+					expenses.add(debit, credit);
+				}
+			} else if ((referenceType == PostingReferenceTypeEnum.DEBIT_NOTE
+					|| referenceType == PostingReferenceTypeEnum.REVERSE_DEBIT_NOTE) && Boolean.FALSE.equals(row[2])
+					&& row[6] != null && (Integer) row[6] != DRAFT_INVOICE) {
+				debitNotes.add(debit, credit);
+			}
+		}
+		boxes.inputVat(invoices.debitBalance().add(expenses.debitBalance()).add(debitNotes.debitBalance()))
+				.outputVat(output.creditBalance());
+	}
+
+	private static BigDecimal add(BigDecimal total, BigDecimal amount) {
+		if (amount == null) {
+			return total;
+		}
+		return total != null ? total.add(amount) : amount;
+	}
+
+	/**
+	 * Debits and credits of a set of journal lines. A balance is null when either side has no amount, like the
+	 * difference of the two SQL sums it replaces; the input VAT counts such a balance as zero.
+	 */
+	private static final class Balance {
+
+		private BigDecimal debit;
+
+		private BigDecimal credit;
+
+		private void add(BigDecimal debitAmount, BigDecimal creditAmount) {
+			debit = VatReturnEngine.add(debit, debitAmount);
+			credit = VatReturnEngine.add(credit, creditAmount);
+		}
+
+		private BigDecimal debitBalance() {
+			return debit != null && credit != null ? debit.subtract(credit) : BigDecimal.ZERO;
+		}
+
+		private BigDecimal creditBalance() {
+			return debit != null && credit != null ? credit.subtract(debit) : null;
+		}
+	}
+
+	private static final class Computed {
+
+		private final long version;
+
+		private final VatReturnBoxes boxes;
+
+		private Computed(long version, VatReturnBoxes boxes) {
+			this.version = version;
+			this.boxes = boxes;
+		}
+	}
+}
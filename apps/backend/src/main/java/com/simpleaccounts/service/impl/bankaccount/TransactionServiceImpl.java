@@ -12,6 +12,7 @@ import com.simpleaccounts.entity.bankaccount.BankAccount;
 import com.simpleaccounts.entity.bankaccount.ReconcileStatus;
 import com.simpleaccounts.entity.bankaccount.Transaction;
 import com.simpleaccounts.entity.bankaccount.TransactionView;
+import com.simpleaccounts.helper.DashboardCacheEvictor;
 import com.simpleaccounts.model.TransactionReportRestModel;
 import com.simpleaccounts.rest.PaginationModel;
 import com.simpleaccounts.rest.PaginationResponseModel;
@@ -22,12 +23,15 @@ import com.simpleaccounts.utils.ChartUtil;
 import java.math.BigDecimal;
 import lombok.RequiredArgsConstructor;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -51,6 +55,8 @@ public class TransactionServiceImpl extends TransactionService {
 
 	private final ReconcileStatusService reconcileStatusService;
 
+	private final DashboardCacheEvictor dashboardCacheEvictor;
+
 	private static final String TRANSACTION = "TRANSACTION";
 
 	@Override
@@ -145,6 +151,7 @@ public class TransactionServiceImpl extends TransactionService {
 			}
 
 		}
+		evictDashboardCaches(transaction);
 	}
 
 	@Override
@@ -169,6 +176,7 @@ public class TransactionServiceImpl extends TransactionService {
 
 		}
 		transaction = super.update(transaction, null, getActivity(transaction, "Updated"));
+		evictDashboardCaches(transaction);
 		return transaction;
 	}
 
@@ -203,6 +211,7 @@ public class TransactionServiceImpl extends TransactionService {
 		updateOrCreateTransaction(transaction);
 		updateLatestTransaction(diffAmount, transaction);
 		updateAccountBalance(balanceAmount, transaction);
+		evictDashboardCaches(transaction);
 
 		// Find invoices
 		 
@@ -213,6 +222,7 @@ public class TransactionServiceImpl extends TransactionService {
 	public Transaction deleteChildTransaction(Transaction transaction) {
 		transaction.setDeleteFlag(true);
 		transactionDao.update(transaction);
+		evictDashboardCaches(transaction);
 		return transaction;
 	}
 
@@ -236,6 +246,7 @@ public class TransactionServiceImpl extends TransactionService {
 		} else {
 			transactionDao.update(transaction);
 		}
+		evictDashboardCaches(transaction);
 	}
 
 	@Override
@@ -323,6 +334,17 @@ public class TransactionServiceImpl extends TransactionService {
 		return transactionDao.getTransactionViewListByDateRang(bankAccountId, startDate, endDate);
 	}
 
+	/**
+	 * Evicts the cash flow and bank charts that show the month of the transaction.
+	 */
+	private void evictDashboardCaches(Transaction transaction) {
+		YearMonth month = transaction.getTransactionDate() != null ? YearMonth.from(transaction.getTransactionDate()) : null;
+		dashboardCacheEvictor.evictCashFlow(month);
+		if (transaction.getBankAccount() != null) {
+			dashboardCacheEvictor.evictBankAccount(transaction.getBankAccount().getBankAccountId(), month);
+		}
+	}
+
 	protected Activity getActivity(Transaction transaction, String activityCode) {
 		Activity activity = new Activity();
 		activity.setActivityCode(activityCode);
@@ -353,9 +375,21 @@ public class TransactionServiceImpl extends TransactionService {
 
 			int count = 0;
 			int totalCount = transactions.size();
+			Set<YearMonth> importedMonths = new HashSet<>();
 			LocalDateTime currentDate = LocalDateTime.now();
+			List<Transaction> importedTransactions = new ArrayList<>(totalCount);
+			Set<String> fingerprints = new HashSet<>();
+			for (Transaction transaction : transactions) {
+				if (transaction.refreshFingerprint() != null) {
+					fingerprints.add(transaction.getFingerprint());
+				}
+			}
+			Set<String> bookedFingerprints = new HashSet<>(
+					transactionDao.getExistingFingerprints(bankAccount.getBankAccountId(), fingerprints));
 			for (Transaction transaction : transactions) {
-				if(isAlreadyExistSimilarTransaction(transaction))
+				// rows of this statement are written together at the end, so they are matched against each other here
+				String fingerprint = transaction.getFingerprint();
+				if (fingerprint != null && bookedFingerprints.contains(fingerprint))
 					transaction.setCreationMode(TransactionCreationMode.POTENTIAL_DUPLICATE);
 				if(isValidTransaction(transaction,bankAccount,lastReconcileDate,currentDate)){
 					if (transaction.getDebitCreditFlag()=='C'){
@@ -365,7 +399,13 @@ public class TransactionServiceImpl extends TransactionService {
 						currentBalance = currentBalance.subtract(transaction.getTransactionAmount());
 					}
 					transaction.setCurrentBalance(currentBalance);
-					transactionDao.persist(transaction);
+					importedTransactions.add(transaction);
+					if (fingerprint != null) {
+						bookedFingerprints.add(fingerprint);
+					}
+					if (transaction.getTransactionDate() != null) {
+						importedMonths.add(YearMonth.from(transaction.getTransactionDate()));
+					}
 				}
 
 				else {
@@ -374,9 +414,14 @@ public class TransactionServiceImpl extends TransactionService {
 				}
 
 			}
+			transactionDao.persistAll(importedTransactions);
 			String returnMessage ="Total Transactions To Import "+totalCount + " Transactions Imported " + (totalCount-count);
 			bankAccount.setCurrentBalance(currentBalance);
 			bankAccountService.update(bankAccount);
+			for (YearMonth month : importedMonths) {
+				dashboardCacheEvictor.evictCashFlow(month);
+			}
+			dashboardCacheEvictor.evictBankAccount(bankAccount.getBankAccountId(), null);
 			return returnMessage;
 		} catch (Exception e) {
 			logger.error("Error", e);
@@ -397,11 +442,6 @@ public class TransactionServiceImpl extends TransactionService {
 				return false;
 	}
 
-	private boolean isAlreadyExistSimilarTransaction(Transaction transaction) {
-		return transactionDao.isAlreadyExistSimilarTransaction(transaction.getTransactionAmount(),transaction.getTransactionDate(),
-				transaction.getBankAccount(),transaction.getTransactionDescription());
-	}
-
 	@Override
 	public BigDecimal getCurrentBalanceByBankId(Integer bankId) {
 		Transaction trnx = transactionDao.getCurrentBalanceByBankId(bankId);
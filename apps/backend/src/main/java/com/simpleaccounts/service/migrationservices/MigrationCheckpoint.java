@@ -0,0 +1,102 @@
+package com.simpleaccounts.service.migrationservices;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Remembers how far a migration got, so a migration that failed half way continues after the last committed chunk
+ * instead of importing the same records again.
+ *
+ * The progress is kept next to the upload folder, not in it, so it is not listed as an uploaded file. Entries are
+ * keyed by file name, size and modification time, so uploading a file again starts it from the beginning.
+ */
+public class MigrationCheckpoint {
+
+	private static final String DONE = "done";
+
+	private final Path location;
+
+	private final Properties progress = new Properties();
+
+	private MigrationCheckpoint(Path location) {
+		this.location = location;
+	}
+
+	/**
+	 * @param fileLocation folder holding the uploaded files
+	 */
+	public static MigrationCheckpoint open(String fileLocation) {
+		Path folder = Paths.get(fileLocation).toAbsolutePath().normalize();
+		MigrationCheckpoint checkpoint = new MigrationCheckpoint(
+				folder.resolveSibling(folder.getFileName() + ".checkpoint"));
+		if (Files.isRegularFile(checkpoint.location)) {
+			try (InputStream in = Files.newInputStream(checkpoint.location)) {
+				checkpoint.progress.load(in);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Unable to read migration checkpoint " + checkpoint.location, e);
+			}
+		}
+		return checkpoint;
+	}
+
+	/**
+	 * @return number of records of the table already migrated
+	 */
+	public long getMigratedCount(Path file, int tableIndex) {
+		String value = progress.getProperty(key(file) + '#' + tableIndex);
+		return value != null ? Long.parseLong(value) : 0;
+	}
+
+	public void setMigratedCount(Path file, int tableIndex, long count) {
+		progress.setProperty(key(file) + '#' + tableIndex, Long.toString(count));
+		save();
+	}
+
+	public boolean isDone(Path file) {
+		return DONE.equals(progress.getProperty(key(file)));
+	}
+
+	public void setDone(Path file) {
+		progress.setProperty(key(file), DONE);
+		save();
+	}
+
+	/**
+	 * Forgets the progress once every file is migrated.
+	 */
+	public void delete() {
+		progress.clear();
+		try {
+			Files.deleteIfExists(location);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to delete migration checkpoint " + location, e);
+		}
+	}
+
+	private void save() {
+		Path temp = location.resolveSibling(location.getFileName() + ".tmp");
+		try {
+			try (OutputStream out = Files.newOutputStream(temp)) {
+				progress.store(out, null);
+			}
+			Files.move(temp, location, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to write migration checkpoint " + location, e);
+		}
+	}
+
+	private static String key(Path file) {
+		try {
+			return file.getFileName() + "|" + Files.size(file) + "|" + Files.getLastModifiedTime(file).toMillis();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.simpleaccounts.service.migrationservices;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the records of an uploaded migration CSV file one line at a time. The first line holds the column names,
+ * every further line becomes a map from column name to value. A line with fewer values than columns gets "-" for
+ * the first missing column.
+ */
+public class MigrationCsvReader implements Iterator<Map<String, String>>, Closeable {
+
+	private static final String CSV_SPLIT_BY = ",";
+
+	private final BufferedReader reader;
+
+	private final String[] headers;
+
+	private String nextLine;
+
+	private long lineCount;
+
+	public MigrationCsvReader(Path file) throws IOException {
+		this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+		String headerLine = reader.readLine();
+		this.headers = headerLine != null ? headerLine.split(CSV_SPLIT_BY) : new String[0];
+		this.nextLine = headerLine != null ? reader.readLine() : null;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return nextLine != null;
+	}
+
+	@Override
+	public Map<String, String> next() {
+		if (nextLine == null) {
+			throw new NoSuchElementException();
+		}
+		String[] values = nextLine.split(CSV_SPLIT_BY);
+		Map<String, String> record = new LinkedHashMap<>();
+		int cellCount = 0;
+		for (String value : values) {
+			record.put(cellCount < headers.length ? headers[cellCount] : null, value);
+			cellCount++;
+		}
+		if (values.length < headers.length) {
+			record.put(headers[cellCount], "-");
+		}
+		lineCount++;
+		try {
+			nextLine = reader.readLine();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return record;
+	}
+
+	/**
+	 * @return the number of records read so far
+	 */
+	public long getLineCount() {
+		return lineCount;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
@@ -0,0 +1,165 @@
+package com.simpleaccounts.service.migrationservices;
+
+import com.simpleaccounts.rest.migrationcontroller.DataMigrationRespModel;
+import com.simpleaccounts.service.SimpleAccountsService;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import javax.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Streams uploaded migration files into the database.
+ *
+ * A file is read one record at a time and never held in memory as a whole. The records are written in chunks, each
+ * in its own transaction through {@link SimpleAccountsService#persistAll(List)} of the service of the table, so the
+ * inserts of a chunk go to the database in JDBC batches and the service still records the activities and evicts
+ * the caches of what it saves. The persistence context is cleared after each chunk. After a chunk commits its
+ * position is stored in the {@link MigrationCheckpoint}, and a migration started again after a failure carries on
+ * from there. Throughput is logged per table and reported in the migration summary.
+ */
+@Slf4j
+@Component
+public class MigrationEngine {
+
+	private final EntityManager entityManager;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final int chunkSize;
+
+	public MigrationEngine(EntityManager entityManager, PlatformTransactionManager transactionManager,
+			@Value("${simpleaccounts.migration.chunk-size:500}") int chunkSize) {
+		this.entityManager = entityManager;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.chunkSize = Math.max(chunkSize, 1);
+	}
+
+	/**
+	 * Counts the records of a file without migrating them.
+	 *
+	 * @param filter keeps the records to migrate
+	 */
+	public MigrationStats scan(Path file, Predicate<Map<String, String>> filter) throws IOException {
+		return read(file, filter, record -> {
+		});
+	}
+
+	/**
+	 * Reads the records to migrate into a list, for the tables that are built from all records of a file together.
+	 *
+	 * @param filter  keeps the records to migrate
+	 * @param records receives the kept records
+	 */
+	public MigrationStats load(Path file, Predicate<Map<String, String>> filter, List<Map<String, String>> records)
+			throws IOException {
+		return read(file, filter, records::add);
+	}
+
+	/**
+	 * Creates an entity per record and persists it, a chunk at a time.
+	 *
+	 * @param tableIndex  position of the table among the tables of the file, for the checkpoint
+	 * @param filter      keeps the records to migrate
+	 * @param mapper      builds the entity of a record, or returns null to skip the record; the entities of the
+	 *                    records before it in the same chunk are not persisted yet
+	 * @param service     service of the table, persists the entities of a chunk
+	 * @param afterPersist creates what depends on a persisted entity
+	 */
+	public MigrationStats migrate(Path file, int tableIndex, String tableName, MigrationCheckpoint checkpoint,
+			Predicate<Map<String, String>> filter, Function<Map<String, String>, Object> mapper,
+			SimpleAccountsService<Object, Object> service, Consumer<Object> afterPersist) throws IOException {
+		long alreadyMigrated = checkpoint.getMigratedCount(file, tableIndex);
+		List<Map<String, String>> chunk = new ArrayList<>(chunkSize);
+		long[] position = {0};
+		MigrationStats stats = read(file, filter, record -> {
+			position[0]++;
+			if (position[0] <= alreadyMigrated) {
+				return;
+			}
+			chunk.add(record);
+			if (chunk.size() == chunkSize) {
+				write(chunk, mapper, service, afterPersist);
+				checkpoint.setMigratedCount(file, tableIndex, position[0]);
+			}
+		});
+		long start = System.nanoTime();
+		write(chunk, mapper, service, afterPersist);
+		checkpoint.setMigratedCount(file, tableIndex, position[0]);
+		stats.elapsed(System.nanoTime() - start);
+		stats.persisted(Math.max(position[0] - alreadyMigrated, 0));
+		log.info("Migrated {} records of {} into {} in {} ms ({} records/s), {} done before", stats.getRecordsPersisted(),
+				file.getFileName(), tableName, stats.getElapsedMillis(), Math.round(stats.getRecordsPerSecond()),
+				Math.min(alreadyMigrated, position[0]));
+		return stats;
+	}
+
+	private void write(List<Map<String, String>> chunk, Function<Map<String, String>, Object> mapper,
+			SimpleAccountsService<Object, Object> service, Consumer<Object> afterPersist) {
+		if (chunk.isEmpty()) {
+			return;
+		}
+		transactionTemplate.execute(status -> {
+			List<Object> entities = new ArrayList<>(chunk.size());
+			for (Map<String, String> record : chunk) {
+				Object entity = mapper.apply(record);
+				if (entity != null) {
+					entities.add(entity);
+				}
+			}
+			if (!entities.isEmpty()) {
+				service.persistAll(entities);
+				entities.forEach(afterPersist);
+			}
+			entityManager.flush();
+			entityManager.clear();
+			return null;
+		});
+		chunk.clear();
+	}
+
+	private MigrationStats read(Path file, Predicate<Map<String, String>> filter, Consumer<Map<String, String>> sink)
+			throws IOException {
+		MigrationStats stats = new MigrationStats();
+		long start = System.nanoTime();
+		try (MigrationCsvReader reader = new MigrationCsvReader(file)) {
+			while (reader.hasNext()) {
+				Map<String, String> record = reader.next();
+				if (filter.test(record)) {
+					stats.accepted();
+					sink.accept(record);
+				} else {
+					stats.removed();
+				}
+			}
+		}
+		stats.elapsed(System.nanoTime() - start);
+		return stats;
+	}
+
+	/**
+	 * @return the summary line of a migrated file
+	 */
+	public static DataMigrationRespModel toResponse(String file, String migrationBeginningDate, MigrationStats stats) {
+		DataMigrationRespModel dataMigrationRespModel = new DataMigrationRespModel();
+		dataMigrationRespModel.setMigrationBeginningDate(migrationBeginningDate);
+		dataMigrationRespModel.setExecutionDate(LocalDateTime.now().toString());
+		dataMigrationRespModel.setFileName(file);
+		dataMigrationRespModel.setRecordCount(stats.getRecordCount());
+		dataMigrationRespModel.setRecordsMigrated(stats.getRecordsAccepted());
+		dataMigrationRespModel.setRecordsRemoved(stats.getRecordsRemoved());
+		dataMigrationRespModel.setDurationMillis(stats.getElapsedMillis());
+		dataMigrationRespModel.setRecordsPerSecond(stats.getRecordsPerSecond());
+		return dataMigrationRespModel;
+	}
+}
@@ -0,0 +1,58 @@
+package com.simpleaccounts.service.migrationservices;
+
+import lombok.Getter;
+
+/**
+ * Counts of one pass over a migration file.
+ */
+@Getter
+public class MigrationStats {
+
+	/**
+	 * Records in the file.
+	 */
+	private long recordCount;
+
+	/**
+	 * Records on or after the migration date.
+	 */
+	private long recordsAccepted;
+
+	/**
+	 * Records before the migration date, which are left out.
+	 */
+	private long recordsRemoved;
+
+	/**
+	 * Records handled by this pass, not counting those an earlier run already migrated.
+	 */
+	private long recordsPersisted;
+
+	private long elapsedNanos;
+
+	void accepted() {
+		recordCount++;
+		recordsAccepted++;
+	}
+
+	void removed() {
+		recordCount++;
+		recordsRemoved++;
+	}
+
+	void persisted(long count) {
+		recordsPersisted += count;
+	}
+
+	void elapsed(long nanos) {
+		elapsedNanos += nanos;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedNanos / 1_000_000;
+	}
+
+	public double getRecordsPerSecond() {
+		return elapsedNanos == 0 ? 0 : recordsPersisted * 1_000_000_000d / elapsedNanos;
+	}
+}
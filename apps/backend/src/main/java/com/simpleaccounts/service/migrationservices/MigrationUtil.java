@@ -40,14 +40,13 @@ import com.simpleaccounts.service.VatCategoryService;
 import com.simpleaccounts.utils.DateFormatUtil;
 import com.simpleaccounts.utils.FileHelper;
 import com.simpleaccounts.utils.TransactionCategoryCreationHelper;
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
@@ -55,9 +54,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -81,6 +82,10 @@ public class MigrationUtil {
 	  
 	  private String dateFormat = "mm/dd/yyyy";
 
+	private final Map<SetterKey, Method> setters = new ConcurrentHashMap<>();
+
+	private final Map<String, Constructor<?>> constructors = new ConcurrentHashMap<>();
+
 		private final CurrencyService currencyService;
 	
 		private final DateFormatUtil dateFormtUtil;
@@ -230,44 +235,38 @@ public class MigrationUtil {
                 case "LocalDateTime":
 
                     LocalDateTime dateTime = dateFormtUtil.getDateStrAsLocalDateTime(val.toString(), getDateFormat());
-                    Class[] paramTypes = {LocalDateTime.class};
-                    Method method = entity.getClass().getMethod(setterMethod, paramTypes);
+                    Method method = getSetter(entity.getClass(), setterMethod, LocalDateTime.class);
                     method.invoke(entity, dateTime);
                     break;
 
                 case "Integer":
 
                     Integer integer = (int) Double.parseDouble((String) val);
-                    Class[] intParamTypes = {Integer.class};
-                    method = entity.getClass().getMethod(setterMethod, intParamTypes);
+                    method = getSetter(entity.getClass(), setterMethod, Integer.class);
                     method.invoke(entity, integer);
                     break;
                 case "String":
 
                     String string = val.toString();
-                    Class[] stringParamTypes = {String.class};
-                    method = entity.getClass().getMethod(setterMethod, stringParamTypes);
+                    method = getSetter(entity.getClass(), setterMethod, String.class);
                     method.invoke(entity, string);
                     break;
                 case "Object":
 
-                    Class className = val.getClass();
-                    method = entity.getClass().getMethod(setterMethod, className);
+                    method = getSetter(entity.getClass(), setterMethod, val.getClass());
                     method.invoke(entity, val);
                     break;
 
                 case "BigDecimal":
 
                     BigDecimal bigDecimal = new BigDecimal((String) val);
-                    Class[] bigDecimalParamTypes = {BigDecimal.class};
-                    method = entity.getClass().getMethod(setterMethod, bigDecimalParamTypes);
+                    method = getSetter(entity.getClass(), setterMethod, BigDecimal.class);
                     method.invoke(entity, bigDecimal);
                     break;
 
                 case "Float":
                     Float floatValue = (float) Double.parseDouble((String) val);
-                    Class[] floatParamTypes = {Float.class};
-                    method = entity.getClass().getMethod(setterMethod, floatParamTypes);
+                    method = getSetter(entity.getClass(), setterMethod, Float.class);
                     method.invoke(entity, floatValue);
                     break;
 
@@ -280,6 +279,19 @@ public class MigrationUtil {
     }
     
     
+    /**
+     * Looks up a public setter once per entity class, name and parameter type.
+     */
+    Method getSetter(Class<?> entityClass, String setterMethod, Class<?> parameterType) throws NoSuchMethodException {
+        SetterKey key = new SetterKey(entityClass, setterMethod, parameterType);
+        Method method = setters.get(key);
+        if (method == null) {
+            method = entityClass.getMethod(setterMethod, parameterType);
+            setters.put(key, method);
+        }
+        return method;
+    }
+
     public String getDateFormat() {
         return dateFormat;
     }
@@ -367,14 +379,12 @@ public class MigrationUtil {
      */
     protected void setDefaultSetterValues(Object entity, Integer userId) {
 
-        Class[] intParamTypes = {Integer.class};
-        Class[] dateParamTypes = {LocalDateTime.class};
         Method method = null;
         try {
-            method = entity.getClass().getMethod("setCreatedBy", intParamTypes);
+            method = getSetter(entity.getClass(), "setCreatedBy", Integer.class);
             method.invoke(entity, userId);
 
-            method = entity.getClass().getMethod("setCreatedDate", dateParamTypes);
+            method = getSetter(entity.getClass(), "setCreatedDate", LocalDateTime.class);
             method.invoke(entity, LocalDateTime.now());
         } catch (Exception e) {
 
@@ -390,7 +400,9 @@ public class MigrationUtil {
      */
     protected void createDependentEntities(Object entity, Integer userId) {
         if (entity instanceof Contact) {
-            transactionCategoryCreationHelper.createTransactionCategoryForContact((Contact) entity);
+            // persistAll detaches the contacts it has written, the helper saves the contact again
+            Contact contact = contactService.findByPK(((Contact) entity).getContactId());
+            transactionCategoryCreationHelper.createTransactionCategoryForContact(contact);
         }
 
     }
@@ -404,48 +416,37 @@ public class MigrationUtil {
      * @return
      */
     public List<Map<String, String>> parseCSVFile(String fileName) {
-        String line = "";
-        String cvsSplitBy = ",";
-        Map<Integer, String> indexHeaderMap = new HashMap<>();
         List<Map<String, String>> list = new ArrayList<>();
-
-        try (FileInputStream inputStream = new FileInputStream(fileName);
-             BufferedReader br = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
-            int rowCount = 0;
-            while ((line = br.readLine()) != null) {
-
-                String[] splitList = line.split(cvsSplitBy);
-                Map<String, String> dataMap = new LinkedHashMap<>();
-                if (rowCount == 0) {
-                    int j = 0;
-                    for (String data : splitList) {
-                        indexHeaderMap.put(j, data);
-                        j++;
-                    }
-                } else {
-                    int cellCount = 0;
-                    for (String data : splitList) {
-                        dataMap.put(indexHeaderMap.get(cellCount), data);
-                        cellCount++;
-                    }
-                    int maxItr = indexHeaderMap.size() - splitList.length;
-                    if (indexHeaderMap.size() != splitList.length) {
-                        for (int loop = 1; loop <= maxItr; loop++) {
-                            dataMap.put(indexHeaderMap.get(cellCount), "-");
-                        }
-                    }
-                    list.add(dataMap);
-                }
-                rowCount++;
-
-            }
+        try (MigrationCsvReader reader = new MigrationCsvReader(Paths.get(fileName))) {
+            reader.forEachRemaining(list::add);
             return list;
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             LOG.error(LOG_ERROR_PREFIX, e);
         }
         return null;
     }
-    
+
+    /**
+     * Keeps the records dated on or after the migration date. A record is checked against each of the given date
+     * columns it has; a date that cannot be read keeps the record.
+     *
+     * @param migFromDate migration date as yyyy-MM-dd
+     * @param dateColumns columns holding a record date
+     */
+    public Predicate<Map<String, String>> onOrAfter(String migFromDate, String... dateColumns) {
+        return mapRecord -> {
+            for (String dateColumn : dateColumns) {
+                if (mapRecord.containsKey(dateColumn)) {
+                    Integer result = compareDate(mapRecord.get(dateColumn), migFromDate);
+                    if (result != null && result < 0) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        };
+    }
+
     /**
      * 
      * @param val
@@ -536,8 +537,12 @@ public class MigrationUtil {
     */
    protected Object getObject(String entityName) {
        try {
-           Class aClass = Class.forName(entityName);
-           return aClass.newInstance();
+           Constructor<?> constructor = constructors.get(entityName);
+           if (constructor == null) {
+               constructor = Class.forName(entityName).getConstructor();
+               constructors.put(entityName, constructor);
+           }
+           return constructor.newInstance();
        } catch (Exception e) {
            LOG.error("Error during migration", e);
        }
@@ -891,5 +896,34 @@ public class MigrationUtil {
 		        }
 		            VatCategory vatCategory = vatCategoryService.findByPK(2);
 		            return vatCategory;
-		    }	
+		    }
+
+	private static final class SetterKey {
+
+		private final Class<?> entityClass;
+
+		private final String name;
+
+		private final Class<?> parameterType;
+
+		SetterKey(Class<?> entityClass, String name, Class<?> parameterType) {
+			this.entityClass = entityClass;
+			this.name = name;
+			this.parameterType = parameterType;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof SetterKey)) {
+				return false;
+			}
+			SetterKey other = (SetterKey) o;
+			return entityClass == other.entityClass && parameterType == other.parameterType && name.equals(other.name);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(entityClass, name, parameterType);
+		}
+	}
 }
@@ -67,9 +67,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 	import java.util.Date;
 	import java.util.HashMap;
+	import java.util.HashSet;
 	import java.util.List;
 	import java.util.Map;
 	import java.util.Optional;
+	import java.util.Set;
+	import java.util.function.Predicate;
 	import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -123,6 +126,8 @@ public class SimpleAccountMigrationService {
 	
 	private final CoacTransactionCategoryService coacTransactionCategoryService;
 
+	private final MigrationEngine migrationEngine;
+
     List<DataMigrationRespModel> processTheMigratedData(String productName, String version, String fileLocation,
 			Integer userId, String migFromDate) throws IOException {
     	
@@ -132,117 +137,95 @@ public class SimpleAccountMigrationService {
 		ProductMigrationParser parser = ProductMigrationParser.getInstance();
 		Product product = parser.getAppVersionsToProductMap().get(productName + "_v" + version);
 		List<String> files = getFilesPresent(fileLocation);
+		MigrationCheckpoint checkpoint = MigrationCheckpoint.open(fileLocation);
+		Predicate<Map<String, String>> filter = migrationUtil.onOrAfter(migFromDate,
+				SimpleAccountMigrationConstants.INVOICE_DATE);
+		String migrationBeginningDate = companyService.getCompany().getAccountStartDate().toString();
 		
-			if (files != null) {
 				for (String file : files) {
-					List<Map<String, String>> mapList = migrationUtil.parseCSVFile(fileLocation + File.separator + file);
-					List<Map<String, String>> itemsToRemove = new ArrayList<>();
-					
-					if(mapList != null)
-					{
-						for (Map<String, String> mapRecord : mapList) {
-						
-						if (mapRecord.containsKey(SimpleAccountMigrationConstants.INVOICE_DATE)) {
-							Integer result = migrationUtil.compareDate(mapRecord.get(SimpleAccountMigrationConstants.INVOICE_DATE), migFromDate);
-							if (result != null) {
-								itemsToRemove = migrationUtil.filterMapRecord(mapList, mapRecord, result, itemsToRemove);
-							}
-						}
-						
-						}
-					}
-					mapList.removeAll(itemsToRemove);
-				
+					Path path = Paths.get(fileLocation, file);
 					List<Product.TableList.Table> tableList = product.getTableList().getTable();
 					List<Product.TableList.Table> tables = migrationUtil.getTableName(tableList, file);
-					DataMigrationRespModel dataMigrationRespModel = new DataMigrationRespModel();
-					Company company = companyService.getCompany();
-					dataMigrationRespModel.setMigrationBeginningDate(company.getAccountStartDate().toString());
-					dataMigrationRespModel.setExecutionDate(LocalDateTime.now().toString());
-					dataMigrationRespModel.setFileName(file);
-					long recordCount;
-					Path path = Paths.get(fileLocation, file);
-					try (Stream<String> lines = Files.lines(path)) {
-						recordCount = lines.count() - 1;
-					}
-					dataMigrationRespModel.setRecordCount(recordCount);
-					dataMigrationRespModel.setRecordsMigrated((long) mapList.size());
-					dataMigrationRespModel.setRecordsRemoved((long) itemsToRemove.size());
-					list.add(dataMigrationRespModel);
-					if (isSpecialHandlingNeeded(productName, file)) {
+					MigrationStats stats;
+					if (checkpoint.isDone(path)) {
+						LOG.info("{} was migrated by an earlier run", file);
+						stats = migrationEngine.scan(path, filter);
+					} else if (isSpecialHandlingNeeded(productName, file)) {
+						List<Map<String, String>> mapList = new ArrayList<>();
+						stats = migrationEngine.load(path, filter, mapList);
 						handleProductSpecificTables(tables, mapList, userId);
-						continue;
-					}
-				
-				if(tables != null) 
-				{
+						checkpoint.setDone(path);
+					} else {
+						stats = null;
 						LOG.info("processTheMigratedData tables ==>{} ", tables);
-						for (Product.TableList.Table table : tables) {
-							// get service Object
+						for (int i = 0; i < tables.size(); i++) {
+							Product.TableList.Table table = tables.get(i);
 							SimpleAccountsService<Object, Object> service =
 									(SimpleAccountsService<Object, Object>) migrationUtil.getService(table.getServiceName());
-							List<Product.TableList.Table.ColumnList.Column> columnList = table.getColumnList().getColumn();
-							// csv records
-							for (Map<String, String> recordData : mapList) {
-								Object entity = migrationUtil.getObject(table.getEntityName());
-								// iterate over all the columns and crate record and persist object to database
-								for (Product.TableList.Table.ColumnList.Column column : columnList) {
-									String val = recordData.get(column.getInputColumn());
-									LOG.info("processTheMigratedData tables ==>{} ", val);
-									if (StringUtils.isEmpty(val))
-										continue;
-								String setterMethod = column.getSetterMethod();
-								if (setterMethod.equalsIgnoreCase("setCurrency")) {
-									Currency currency = migrationUtil.getCurrencyIdByValue(val);
-									migrationUtil.setRecordIntoEntity(entity, setterMethod, currency, TYPE_OBJECT);
-								} else if (setterMethod.equalsIgnoreCase("setCountry")) {
-									Integer value = migrationUtil.getCountryIdByValue(val);
-									Country country = countryService.findByPK(value);
-									migrationUtil.setRecordIntoEntity(entity, setterMethod, country, TYPE_OBJECT);
-								} else if (setterMethod.equalsIgnoreCase("setState")) {
-									Integer value = migrationUtil.getStateIdByInputColumnValue(val);
-									State state = stateService.findByPK(value);
-									migrationUtil.setRecordIntoEntity(entity, setterMethod, state, TYPE_OBJECT);
-								} else if (setterMethod.equalsIgnoreCase("setContactType")) {
-									Integer value = migrationUtil.getContactType(val);
-									migrationUtil.setRecordIntoEntity(entity, setterMethod, value, TYPE_OBJECT);
-								} else if (setterMethod.equalsIgnoreCase("setPlaceOfSupplyId")) {
-									if (StringUtils.isEmpty(val))
-										continue;
-									PlaceOfSupply placeOfSupply = migrationUtil.getPlaceOfSupplyByValue(val);
-									migrationUtil.setRecordIntoEntity(entity, setterMethod, placeOfSupply, TYPE_OBJECT);
-								} else {
-									// set into entity
-									migrationUtil.setRecordIntoEntity(entity, setterMethod, val, column.getDataType());
-								}
-							}
-							migrationUtil.setDefaultSetterValues(entity, userId);
-								Optional<Product.TableList.Table> contactTable = tables.stream()
-										.filter(t -> t.getName().equalsIgnoreCase(SimpleAccountMigrationConstants.CONTACTS)).findFirst();
-								if (contactTable.isPresent()) {
-									// Check existing entry in db
-									Contact contact = (Contact) entity;
-									boolean isContactExist = migrationUtil.contactExist(contact);
-									if (isContactExist) {
-										LOG.info("Contact Allready Present");
-									} else {
-									// Add New Contact for Contact
-									service.persist(entity);
-									migrationUtil.createDependentEntities(entity, userId);
-								}
-								
-							} else {
-								service.persist(entity);
-								migrationUtil.createDependentEntities(entity, userId);
-							}
-							
+							Set<String> contactEmails = new HashSet<>();
+							MigrationStats tableStats = migrationEngine.migrate(path, i, table.getName(), checkpoint, filter,
+									recordData -> createEntity(table, tables, recordData, userId, contactEmails), service,
+									entity -> migrationUtil.createDependentEntities(entity, userId));
+							stats = stats != null ? stats : tableStats;
+						}
+						if (stats == null) {
+							stats = migrationEngine.scan(path, filter);
 						}
+						checkpoint.setDone(path);
 					}
-				}
-			}
+					list.add(MigrationEngine.toResponse(file, migrationBeginningDate, stats));
 		}
+		checkpoint.delete();
 		return list;
 	}
+
+	/**
+	 * Builds the entity of a record of a table without special handling.
+	 *
+	 * @param contactEmails emails of the contacts created from the file so far, the contacts of the chunk being
+	 *                      built are not in the database yet
+	 * @return the entity to persist, or null when the contact already exists
+	 */
+	private Object createEntity(Product.TableList.Table table, List<Product.TableList.Table> tables,
+			Map<String, String> recordData, Integer userId, Set<String> contactEmails) {
+		Object entity = migrationUtil.getObject(table.getEntityName());
+		// iterate over all the columns and crate record and persist object to database
+		for (Product.TableList.Table.ColumnList.Column column : table.getColumnList().getColumn()) {
+			String val = recordData.get(column.getInputColumn());
+			if (StringUtils.isEmpty(val))
+				continue;
+			String setterMethod = column.getSetterMethod();
+			if (setterMethod.equalsIgnoreCase("setCurrency")) {
+				Currency currency = migrationUtil.getCurrencyIdByValue(val);
+				migrationUtil.setRecordIntoEntity(entity, setterMethod, currency, TYPE_OBJECT);
+			} else if (setterMethod.equalsIgnoreCase("setCountry")) {
+				Integer value = migrationUtil.getCountryIdByValue(val);
+				Country country = countryService.findByPK(value);
+				migrationUtil.setRecordIntoEntity(entity, setterMethod, country, TYPE_OBJECT);
+			} else if (setterMethod.equalsIgnoreCase("setState")) {
+				Integer value = migrationUtil.getStateIdByInputColumnValue(val);
+				State state = stateService.findByPK(value);
+				migrationUtil.setRecordIntoEntity(entity, setterMethod, state, TYPE_OBJECT);
+			} else if (setterMethod.equalsIgnoreCase("setContactType")) {
+				Integer value = migrationUtil.getContactType(val);
+				migrationUtil.setRecordIntoEntity(entity, setterMethod, value, TYPE_OBJECT);
+			} else if (setterMethod.equalsIgnoreCase("setPlaceOfSupplyId")) {
+				PlaceOfSupply placeOfSupply = migrationUtil.getPlaceOfSupplyByValue(val);
+				migrationUtil.setRecordIntoEntity(entity, setterMethod, placeOfSupply, TYPE_OBJECT);
+			} else {
+				// set into entity
+				migrationUtil.setRecordIntoEntity(entity, setterMethod, val, column.getDataType());
+			}
+		}
+		migrationUtil.setDefaultSetterValues(entity, userId);
+		if (tables.stream().anyMatch(t -> t.getName().equalsIgnoreCase(SimpleAccountMigrationConstants.CONTACTS))
+				&& (migrationUtil.contactExist((Contact) entity)
+						|| !contactEmails.add(((Contact) entity).getEmail().toLowerCase()))) {
+			LOG.info("Contact Allready Present");
+			return null;
+		}
+		return entity;
+	}
 	
 	
 	  /**
@@ -99,9 +99,12 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import java.util.stream.Stream;
 import javax.servlet.http.HttpServletRequest;
@@ -162,6 +165,8 @@ public class ZohoMigrationService {
 
     private final StateService stateService;
 
+    private final MigrationEngine migrationEngine;
+
     
     /*************************************************************** start  
      * @param request *************************************************************************/
@@ -177,154 +182,104 @@ public class ZohoMigrationService {
             return list;
         }
 	        List<String> files = getFilesPresent(fileLocation);
+	        MigrationCheckpoint checkpoint = MigrationCheckpoint.open(fileLocation);
+	        Predicate<Map<String, String>> filter = migrationUtil.onOrAfter(migFromDate, INVOICE_DATE, BILL_DATE, DATE,
+	        		EXPENSE_DATE, PURCHASE_ORDER_DATE);
+	        String migrationBeginningDate = companyService.getCompany().getAccountStartDate().toString();
 	        
-	        if(files != null)
-			{
 	        	for (String file : files) {
-	        		List<Map<String, String>> mapList = migrationUtil.parseCSVFile(fileLocation + File.separator + file);
-		        		List<Map<String, String>> itemsToRemove = new ArrayList<>();
-	        		for (Map<String, String> mapRecord : mapList) {
-        			
-        			if (mapRecord.containsKey(INVOICE_DATE)) {
-        				Integer result = migrationUtil.compareDate(mapRecord.get(INVOICE_DATE), migFromDate);
-        				if (result!=null) {
-        					itemsToRemove = migrationUtil.filterMapRecord(mapList, mapRecord, result, itemsToRemove);
-        				}
-        			}
-        			
-        			if (mapRecord.containsKey(BILL_DATE)) {
-        				Integer result = migrationUtil.compareDate(mapRecord.get(BILL_DATE), migFromDate);
-        				if (result!=null) {
-        					itemsToRemove = migrationUtil.filterMapRecord(mapList, mapRecord, result, itemsToRemove);
-        				}
-        			}
-        			
-        			if (mapRecord.containsKey(DATE)) {
-        				Integer result = migrationUtil.compareDate(mapRecord.get(DATE), migFromDate);
-        				if (result!=null) {
-        					itemsToRemove = migrationUtil.filterMapRecord(mapList, mapRecord, result, itemsToRemove);
-        				}
-        			}
-        			
-        			if (mapRecord.containsKey(EXPENSE_DATE)) {
-        				Integer result = migrationUtil.compareDate(mapRecord.get(EXPENSE_DATE), migFromDate);
-        				if (result!=null) {
-        					itemsToRemove = migrationUtil.filterMapRecord(mapList, mapRecord, result, itemsToRemove);
-        				}
-        			}
-        			
-        			if (mapRecord.containsKey(PURCHASE_ORDER_DATE)) {
-        				Integer result = migrationUtil.compareDate(mapRecord.get(PURCHASE_ORDER_DATE), migFromDate);
-        				if (result!=null) {
-        					itemsToRemove = migrationUtil.filterMapRecord(mapList, mapRecord, result, itemsToRemove);
-        				}
-        			}
-        			
-        		}
-        		mapList.removeAll(itemsToRemove);
-        		
+	        		Path path = Paths.get(fileLocation, file);
 	        		List<Product.TableList.Table> tableList = product.getTableList().getTable();
 	        		List<Product.TableList.Table> tables = migrationUtil.getTableName(tableList, file);
-	        		DataMigrationRespModel dataMigrationRespModel = new DataMigrationRespModel();
-	        		Company company = companyService.getCompany();
-		        		dataMigrationRespModel.setMigrationBeginningDate(company.getAccountStartDate().toString());
-		        		dataMigrationRespModel.setExecutionDate(LocalDateTime.now().toString());
-		        		dataMigrationRespModel.setFileName(file);
-		        		long recordCount = 0;
-		        		Path recordCountPath = Paths.get(fileLocation, file);
-		        		try (Stream<String> lines = Files.lines(recordCountPath)) {
-		        			recordCount = lines.count() - 1;
-		        		} catch (IOException e) {
-	        			LOG.error("Failed to count records for file {}", file, e);
-	        		}
-	        		dataMigrationRespModel.setRecordCount(recordCount);
-        		dataMigrationRespModel.setRecordsMigrated((long) mapList.size());
-        		dataMigrationRespModel.setRecordsRemoved((long) itemsToRemove.size());
-	        		list.add(dataMigrationRespModel);
-	        		if (isSpecialHandlingNeeded(productName, file)) {
+	        		MigrationStats stats;
+	        		if (checkpoint.isDone(path)) {
+	        			LOG.info("{} was migrated by an earlier run", file);
+	        			stats = migrationEngine.scan(path, filter);
+	        		} else if (isSpecialHandlingNeeded(productName, file)) {
+	        			List<Map<String, String>> mapList = new ArrayList<>();
+	        			stats = migrationEngine.load(path, filter, mapList);
 	        			handleProductSpecificTables(tables, mapList, userId, request);
-	        			continue;
-	        		}
-        		if(tables != null) 
-				{
+	        			checkpoint.setDone(path);
+	        		} else {
+	        			stats = null;
 						LOG.info("processTheMigratedData tables ==>{} ", tables);
-						for (Product.TableList.Table table : tables) {
-							// get service Object
-							SimpleAccountsService<Object, Object> service = (SimpleAccountsService<Object, Object>) migrationUtil.getService(
-									table.getServiceName());
-							List<Product.TableList.Table.ColumnList.Column> columnList = table.getColumnList().getColumn();
-							// csv records
-							for (Map<String, String> recordData : mapList) {
-								Object entity = migrationUtil.getObject(table.getEntityName());
-								// iterate over all the columns and crate record and persist object to database
-								for (Product.TableList.Table.ColumnList.Column column : columnList) {
-									String val = recordData.get(column.getInputColumn());
-									if (StringUtils.isEmpty(val))
-										continue;
-								String setterMethod = column.getSetterMethod();
-								if (setterMethod.equalsIgnoreCase(SETTER_METHOD_SET_CURRENCY)) {
-									Currency currency = migrationUtil.getCurrencyIdByValue(val);
-									                                    migrationUtil.setRecordIntoEntity(entity, setterMethod, currency, TYPE_OBJECT);								} else if (setterMethod.equalsIgnoreCase("setCountry")) {
-									Integer value = migrationUtil.getCountryIdByValue(val);
-									Country country = countryService.findByPK(value);
-									migrationUtil.setRecordIntoEntity(entity, setterMethod, country, TYPE_OBJECT);
-								} else if (setterMethod.equalsIgnoreCase("setState")) {
-									Integer value = migrationUtil.getStateIdByInputColumnValue(val);
-									State state = stateService.findByPK(value);
-									migrationUtil.setRecordIntoEntity(entity, setterMethod, state, TYPE_OBJECT);
-								} else if (setterMethod.equalsIgnoreCase("setContactType")) {
-									Integer value = migrationUtil.getContactType(val);
-									migrationUtil.setRecordIntoEntity(entity, setterMethod, value, TYPE_OBJECT);
-								} else if (setterMethod.equalsIgnoreCase("setPlaceOfSupplyId")) {
-									if (StringUtils.isEmpty(val))
-										continue;
-									PlaceOfSupply placeOfSupply = migrationUtil.getPlaceOfSupplyByValue(val);
-									migrationUtil.setRecordIntoEntity(entity, setterMethod, placeOfSupply, TYPE_OBJECT);
-								} else if (setterMethod.equalsIgnoreCase("setTaxTreatment")) {
-										if (StringUtils.isEmpty(val))
-											continue;
-										val = setTaxTreatmentValues(val);
-										TaxTreatment taxTreatment = migrationUtil.getTaxTreatmentByValue(val);
-										migrationUtil.setRecordIntoEntity(entity, setterMethod, taxTreatment, TYPE_OBJECT);
-									} 
-								else {
-									// set into entity
-									migrationUtil.setRecordIntoEntity(entity, setterMethod, val, column.getDataType());
-								}
-							}
-							migrationUtil.setDefaultSetterValues(entity, userId);
-							Optional<Product.TableList.Table> contactTable = tables.stream().filter(t -> t.getName().equalsIgnoreCase(CONTACTS)).findFirst();
-							
-							
-							if (contactTable.isPresent()) {
-								
-								//check whether the email id is coming 
-								checkEmaiID((Contact) entity);
-								
-								// Check existing entry in db
-								boolean isContactExist = migrationUtil.contactExist((Contact) entity);
-								if (isContactExist) {
-									LOG.info("Contact Allready Present");
-								} else {
-									// Add New Contact for Contact
-									service.persist(entity);
-									migrationUtil.createDependentEntities(entity, userId);
-								}
-								
-							} else {
-								service.persist(entity);
-								migrationUtil.createDependentEntities(entity, userId);
-							}
-							
+						for (int i = 0; i < tables.size(); i++) {
+							Product.TableList.Table table = tables.get(i);
+							SimpleAccountsService<Object, Object> service =
+									(SimpleAccountsService<Object, Object>) migrationUtil.getService(table.getServiceName());
+							Set<String> contactEmails = new HashSet<>();
+							MigrationStats tableStats = migrationEngine.migrate(path, i, table.getName(), checkpoint, filter,
+									recordData -> createEntity(table, tables, recordData, userId, contactEmails), service,
+									entity -> migrationUtil.createDependentEntities(entity, userId));
+							stats = stats != null ? stats : tableStats;
 						}
-					}
-				}
-					
+						if (stats == null) {
+							stats = migrationEngine.scan(path, filter);
+						}
+						checkpoint.setDone(path);
+	        		}
+	        		list.add(MigrationEngine.toResponse(file, migrationBeginningDate, stats));
         	}
-		}
+	        checkpoint.delete();
         return list;
     }
 
+	/**
+	 * Builds the entity of a record of a table without special handling.
+	 *
+	 * @param contactEmails emails of the contacts created from the file so far, the contacts of the chunk being
+	 *                      built are not in the database yet
+	 * @return the entity to persist, or null when the contact already exists
+	 */
+	private Object createEntity(Product.TableList.Table table, List<Product.TableList.Table> tables,
+			Map<String, String> recordData, Integer userId, Set<String> contactEmails) {
+		Object entity = migrationUtil.getObject(table.getEntityName());
+		// iterate over all the columns and crate record and persist object to database
+		for (Product.TableList.Table.ColumnList.Column column : table.getColumnList().getColumn()) {
+			String val = recordData.get(column.getInputColumn());
+			if (StringUtils.isEmpty(val))
+				continue;
+			String setterMethod = column.getSetterMethod();
+			if (setterMethod.equalsIgnoreCase(SETTER_METHOD_SET_CURRENCY)) {
+				Currency currency = migrationUtil.getCurrencyIdByValue(val);
+				migrationUtil.setRecordIntoEntity(entity, setterMethod, currency, TYPE_OBJECT);
+			} else if (setterMethod.equalsIgnoreCase("setCountry")) {
+				Integer value = migrationUtil.getCountryIdByValue(val);
+				Country country = countryService.findByPK(value);
+				migrationUtil.setRecordIntoEntity(entity, setterMethod, country, TYPE_OBJECT);
+			} else if (setterMethod.equalsIgnoreCase("setState")) {
+				Integer value = migrationUtil.getStateIdByInputColumnValue(val);
+				State state = stateService.findByPK(value);
+				migrationUtil.setRecordIntoEntity(entity, setterMethod, state, TYPE_OBJECT);
+			} else if (setterMethod.equalsIgnoreCase("setContactType")) {
+				Integer value = migrationUtil.getContactType(val);
+				migrationUtil.setRecordIntoEntity(entity, setterMethod, value, TYPE_OBJECT);
+			} else if (setterMethod.equalsIgnoreCase("setPlaceOfSupplyId")) {
+				PlaceOfSupply placeOfSupply = migrationUtil.getPlaceOfSupplyByValue(val);
+				migrationUtil.setRecordIntoEntity(entity, setterMethod, placeOfSupply, TYPE_OBJECT);
+			} else if (setterMethod.equalsIgnoreCase("setTaxTreatment")) {
+				val = setTaxTreatmentValues(val);
+				TaxTreatment taxTreatment = migrationUtil.getTaxTreatmentByValue(val);
+				migrationUtil.setRecordIntoEntity(entity, setterMethod, taxTreatment, TYPE_OBJECT);
+			} else {
+				// set into entity
+				migrationUtil.setRecordIntoEntity(entity, setterMethod, val, column.getDataType());
+			}
+		}
+		migrationUtil.setDefaultSetterValues(entity, userId);
+		if (tables.stream().anyMatch(t -> t.getName().equalsIgnoreCase(CONTACTS))) {
+			//check whether the email id is coming
+			checkEmaiID((Contact) entity);
+			// Check existing entry in db
+			if (migrationUtil.contactExist((Contact) entity)
+					|| !contactEmails.add(((Contact) entity).getEmail().toLowerCase())) {
+				LOG.info("Contact Allready Present");
+				return null;
+			}
+		}
+		return entity;
+	}
+
 	private String setTaxTreatmentValues(String val) {
 		if(val.equalsIgnoreCase("vat_registered")) {
 			val = "VAT REGISTERED";
@@ -2243,60 +2198,12 @@ public class ZohoMigrationService {
 			List<DataMigrationRespModel> list = new ArrayList<>();
 			log.info("getSummaryFileLocation {} userId {}", fileLocation, userId);
 		List<String> files = getFilesPresent(fileLocation);
+		Predicate<Map<String, String>> filter = migrationUtil.onOrAfter(migFromDate, INVOICE_DATE, BILL_DATE, DATE,
+				EXPENSE_DATE, PURCHASE_ORDER_DATE);
+		String migrationBeginningDate = companyService.getCompany().getAccountStartDate().toString();
 		for (String file : files) {
-			List<Map<String, String>> mapList = migrationUtil.parseCSVFile(fileLocation + File.separator + file);
-
-				List<Map<String, String>> itemsToRemove = new ArrayList<>();
-
-			for (Map<String, String> mapRecord : mapList) {
-
-				if (mapRecord.containsKey(INVOICE_DATE)) {
-					Integer result = migrationUtil.compareDate(mapRecord.get(INVOICE_DATE), migFromDate);
-					if (result != null) {
-						itemsToRemove = migrationUtil.filterMapRecord(mapList, mapRecord, result, itemsToRemove);
-					}
-
-				}
-
-				if (mapRecord.containsKey(BILL_DATE)) {
-					Integer result = migrationUtil.compareDate(mapRecord.get(BILL_DATE), migFromDate);
-					itemsToRemove = migrationUtil.filterMapRecord(mapList, mapRecord, result, itemsToRemove);
-				}
-
-				if (mapRecord.containsKey(DATE)) {
-					Integer result = migrationUtil.compareDate(mapRecord.get(DATE), migFromDate);
-					itemsToRemove = migrationUtil.filterMapRecord(mapList, mapRecord, result, itemsToRemove);
-				}
-
-				if (mapRecord.containsKey(EXPENSE_DATE)) {
-					Integer result = migrationUtil.compareDate(mapRecord.get(EXPENSE_DATE), migFromDate);
-					itemsToRemove = migrationUtil.filterMapRecord(mapList, mapRecord, result, itemsToRemove);
-				}
-
-				if (mapRecord.containsKey(PURCHASE_ORDER_DATE)) {
-					Integer result = migrationUtil.compareDate(mapRecord.get(PURCHASE_ORDER_DATE), migFromDate);
-					itemsToRemove = migrationUtil.filterMapRecord(mapList, mapRecord, result, itemsToRemove);
-				}
-			}
-			mapList.removeAll(itemsToRemove);
-
-			DataMigrationRespModel dataMigrationRespModel = new DataMigrationRespModel();
-			Company company = companyService.getCompany();
-				dataMigrationRespModel.setMigrationBeginningDate(company.getAccountStartDate().toString());
-				dataMigrationRespModel.setExecutionDate(LocalDateTime.now().toString());
-				dataMigrationRespModel.setFileName(file);
-				long recordCount = 0;
-				Path recordCountPath = Paths.get(fileLocation, file);
-				try (Stream<String> lines = Files.lines(recordCountPath)) {
-					recordCount = lines.count() - 1;
-				} catch (IOException e) {
-					LOG.error("Failed to count records for file {}", file, e);
-				}
-				dataMigrationRespModel.setRecordCount(recordCount);
-			dataMigrationRespModel.setRecordsMigrated((long) mapList.size());
-			dataMigrationRespModel.setRecordsRemoved((long) itemsToRemove.size());
-			list.add(dataMigrationRespModel);
-
+			MigrationStats stats = migrationEngine.scan(Paths.get(fileLocation, file), filter);
+			list.add(MigrationEngine.toResponse(file, migrationBeginningDate, stats));
 		}
 		return list;
 	}		
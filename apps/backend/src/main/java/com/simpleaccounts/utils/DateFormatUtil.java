@@ -11,8 +11,11 @@ import java.text.SimpleDateFormat;
 import java.time.*;
 import java.util.*;
 
+import com.simpleaccounts.security.CustomUserDetails;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
 /**
@@ -23,6 +26,7 @@ import org.springframework.stereotype.Component;
 @Component
 public class DateFormatUtil {
 	private static final String DATE_FORMAT_DD_SLASH_MM_SLASH_YYYY = "dd/MM/yyyy";
+	private static final String DEFAULT_USER_TIMEZONE = "Asia/Dubai";
 	
 	private final Logger LOGGER = LoggerFactory.getLogger(DateFormatUtil.class);
 
@@ -42,11 +46,25 @@ public class DateFormatUtil {
 	public String getLocalDateTimeAsString(LocalDateTime localDateTimeDate, String format) {
 		Date date = Date.from(localDateTimeDate.atZone(ZoneId.systemDefault()).toInstant());
 		SimpleDateFormat dateFormatter = new SimpleDateFormat(format);
-		dateFormatter.setTimeZone(TimeZone.getTimeZone(System.getProperty("simpleaccounts.user.timezone","Asia/Dubai")));
+		dateFormatter.setTimeZone(TimeZone.getTimeZone(getUserTimezone()));
 		return dateFormatter.format(date);
 
 	}
 
+	/**
+	 * Time zone of the user authenticated for the current request, Asia/Dubai without one.
+	 */
+	private static String getUserTimezone() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails) {
+			String timezone = ((CustomUserDetails) authentication.getPrincipal()).getTimezone();
+			if (timezone != null) {
+				return timezone;
+			}
+		}
+		return DEFAULT_USER_TIMEZONE;
+	}
+
 	public LocalDateTime getDateStrAsLocalDateTime(String strDate, String format) {
 		SimpleDateFormat dateFormatter = new SimpleDateFormat(format);
 		Date d;
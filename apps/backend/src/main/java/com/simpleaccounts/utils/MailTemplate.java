@@ -0,0 +1,110 @@
+package com.simpleaccounts.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A mail template parsed once into literal text and <code>{placeholder}</code> tokens.
+ *
+ * Rendering walks the tokens a single time and looks every placeholder up in the value map, so the cost depends on
+ * the template size only and not on how many values the map holds. Placeholders without a value are written as they
+ * appear in the template, as the former chain of {@link String#replace} calls did.
+ */
+public final class MailTemplate {
+
+	private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+
+	private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(8192));
+
+	private final String source;
+
+	/** Literal text and placeholders in template order; placeholders keep their braces and are looked up as is. */
+	private final String[] tokens;
+
+	private final boolean[] placeholder;
+
+	private MailTemplate(String source, List<String> tokens, List<Boolean> placeholder) {
+		this.source = source;
+		this.tokens = tokens.toArray(new String[0]);
+		this.placeholder = new boolean[tokens.size()];
+		for (int i = 0; i < this.placeholder.length; i++) {
+			this.placeholder[i] = placeholder.get(i);
+		}
+	}
+
+	public static MailTemplate compile(String source) {
+		List<String> tokens = new ArrayList<>();
+		List<Boolean> placeholder = new ArrayList<>();
+		int literalStart = 0;
+		int open = source.indexOf('{');
+		while (open >= 0) {
+			int close = source.indexOf('}', open + 1);
+			if (close < 0) {
+				break;
+			}
+			int nested = source.lastIndexOf('{', close);
+			if (nested > open) {
+				open = nested;
+			}
+			if (isPlaceholder(source, open, close)) {
+				if (open > literalStart) {
+					tokens.add(source.substring(literalStart, open));
+					placeholder.add(Boolean.FALSE);
+				}
+				tokens.add(source.substring(open, close + 1));
+				placeholder.add(Boolean.TRUE);
+				literalStart = close + 1;
+			}
+			open = source.indexOf('{', close + 1);
+		}
+		if (literalStart < source.length()) {
+			tokens.add(source.substring(literalStart));
+			placeholder.add(Boolean.FALSE);
+		}
+		return new MailTemplate(source, tokens, placeholder);
+	}
+
+	private static boolean isPlaceholder(String source, int open, int close) {
+		if (close == open + 1) {
+			return false;
+		}
+		for (int i = open + 1; i < close; i++) {
+			if (Character.isWhitespace(source.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return whether {@link #render(Map)} fills in the key, otherwise it has to be replaced separately
+	 */
+	static boolean isPlaceholder(String key) {
+		int close = key.length() - 1;
+		return close > 0 && key.charAt(0) == '{' && key.charAt(close) == '}' && key.indexOf('{', 1) < 0
+				&& isPlaceholder(key, 0, close);
+	}
+
+	public String getSource() {
+		return source;
+	}
+
+	public String render(Map<String, String> values) {
+		StringBuilder buffer = BUFFER.get();
+		buffer.setLength(0);
+		try {
+			for (int i = 0; i < tokens.length; i++) {
+				String value = placeholder[i] && values != null ? values.get(tokens[i]) : null;
+				buffer.append(value != null ? value : tokens[i]);
+			}
+			return buffer.toString();
+		} finally {
+			if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+				BUFFER.remove();
+			} else {
+				buffer.setLength(0);
+			}
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package com.simpleaccounts.utils;
+
+import com.simpleaccounts.dao.MailThemeTemplates;
+import com.simpleaccounts.dao.MailThemeTemplatesDao;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Keeps the enabled {@link MailThemeTemplates} row of each module and the compiled form of every mail template file,
+ * so sending a mail neither queries the template table nor reads and scans the HTML file again.
+ *
+ * {@link #invalidate()} is called whenever a template row changes and drops everything, again after the transaction
+ * commits so a mail rendered concurrently cannot put the old theme back.
+ */
+@Component
+@RequiredArgsConstructor
+public class MailTemplateCache {
+
+	private static final String CLASSPATH_PREFIX = "classpath:";
+
+	private final MailThemeTemplatesDao mailThemeTemplatesDao;
+
+	private final ResourceLoader resourceLoader;
+
+	private final Map<Integer, MailThemeTemplates> activeTemplates = new ConcurrentHashMap<>();
+
+	private final Map<String, MailTemplate> compiledTemplates = new ConcurrentHashMap<>();
+
+	/**
+	 * @param moduleId module of the template, see {@link MailThemeTemplates}
+	 * @return the enabled template row of the module; callers must not modify it
+	 */
+	public MailThemeTemplates getActiveTemplate(Integer moduleId) {
+		return activeTemplates.computeIfAbsent(moduleId, mailThemeTemplatesDao::getMailThemeTemplate);
+	}
+
+	/**
+	 * @param path classpath location of the template file
+	 * @return the compiled template
+	 * @throws UncheckedIOException if the file cannot be read
+	 */
+	public MailTemplate getTemplate(String path) {
+		return compiledTemplates.computeIfAbsent(path, key -> MailTemplate.compile(read(key)));
+	}
+
+	/**
+	 * Compiles a template derived from a template file, such as the file with extra line item rows, once per
+	 * variant.
+	 *
+	 * @param path    classpath location of the template file
+	 * @param variant distinguishes the derived templates of the same file
+	 * @param derive  builds the derived source from the source of the file
+	 * @return the compiled derived template
+	 */
+	public MailTemplate getTemplate(String path, String variant, UnaryOperator<String> derive) {
+		MailTemplate template = getTemplate(path);
+		return compiledTemplates.computeIfAbsent(path + '#' + variant,
+				key -> MailTemplate.compile(derive.apply(template.getSource())));
+	}
+
+	public void invalidate() {
+		clear();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+				@Override
+				public void afterCommit() {
+					clear();
+				}
+			});
+		}
+	}
+
+	private void clear() {
+		activeTemplates.clear();
+		compiledTemplates.clear();
+	}
+
+	private String read(String path) {
+		try (InputStream in = resourceLoader.getResource(CLASSPATH_PREFIX + path).getInputStream()) {
+			return StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to read mail template " + path, e);
+		}
+	}
+}
@@ -1,17 +1,18 @@
 package com.simpleaccounts.utils;
 
 import lombok.RequiredArgsConstructor;
-import com.itextpdf.html2pdf.HtmlConverter;
 import com.simpleaccounts.constant.ConfigurationConstants;
 import com.simpleaccounts.entity.Configuration;
+import com.simpleaccounts.entity.EmailLogs;
 import com.simpleaccounts.entity.Mail;
+import com.simpleaccounts.integration.MailDispatcher;
 import com.simpleaccounts.integration.MailIntegration;
+import com.simpleaccounts.integration.PdfRenderer;
 import com.simpleaccounts.rest.MailController.EmailContentModel;
 import com.simpleaccounts.service.ConfigurationService;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.OutputStream;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import javax.activation.DataHandler;
 import javax.activation.DataSource;
 import javax.mail.internet.MimeBodyPart;
@@ -41,6 +42,10 @@ public class MailUtility {
 
 	private final Environment env;
 
+	private final MailDispatcher mailDispatcher;
+
+	private final PdfRenderer pdfRenderer;
+
 	public static final String INVOICE_REFEREBCE_NO = "Invoice_Reference_Number";
 	public static final String CN_REFERENCE_NO = "cn_referene_no";
 	public static final String INVOICE_DATE = "Invoice_Date";
@@ -158,50 +163,49 @@ public class MailUtility {
 	public static final String PLACEHOLDER_TOTAL_NET = "{totalNet}";
 	public static final String PLACEHOLDER_SUPPLIER_NAME = "{supplierName}";
 
-	public void triggerEmailOnBackground(String subject, String body, MimeMultipart mimeMultipart, String fromEmailId,
-			String fromName, String[] toMailAddress, boolean isHtml) {
-		Thread t = new Thread(new Runnable() {
-			@Override
-			public void run() {
-				try {
-					Mail mail = new Mail();
-					mail.setFrom(fromEmailId);
-					mail.setFromName(fromName);
-					mail.setTo(toMailAddress);
-					mail.setSubject(subject);
-					mail.setBody(body);
+	/**
+	 * Connect and read timeout of the SMTP connection, so a stalled server cannot hold a mail worker.
+	 */
+	private static final int SMTP_TIMEOUT_MILLIS = 30000;
 
-					MimeMultipart mimeMultipart1=new MimeMultipart();
-					try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+	/**
+	 * Module of the EMAIL_LOGS rows of mails queued without a row of the caller.
+	 */
+	private static final String MAIL_MODULE = "MAIL";
 
-						byte[] bytes = writePdf(outputStream,body);
+	public void triggerEmailOnBackground(String subject, String body, MimeMultipart mimeMultipart, String fromEmailId,
+			String fromName, String[] toMailAddress, boolean isHtml) {
+		Mail mail = new Mail();
+		mail.setFrom(fromEmailId);
+		mail.setFromName(fromName);
+		mail.setTo(toMailAddress);
+		mail.setSubject(subject);
+		mail.setBody(body);
+		CompletableFuture<byte[]> pdf = pdfRenderer.renderAsync(body);
+		mailDispatcher.dispatch(MailDispatcher.emailLog(MAIL_MODULE, fromEmailId, toMailAddress), mimeMessage -> {
+			MimeMultipart mimeMultipart1=new MimeMultipart();
+			try {
 
-						DataSource dataSource = new ByteArrayDataSource(bytes, APPLICATION_PDF);
-						DataSource dataSource1 = new ByteArrayDataSource(body.getBytes(),"application");
+				byte[] bytes = pdf.join();
 
-						MimeBodyPart pdfBodyPart = new MimeBodyPart();
-						MimeBodyPart contentBodyPart = new MimeBodyPart();
+				DataSource dataSource = new ByteArrayDataSource(bytes, APPLICATION_PDF);
 
-						pdfBodyPart.setDataHandler(new DataHandler(dataSource));
-						contentBodyPart.setContent(body, TEXT_HTML);
+				MimeBodyPart pdfBodyPart = new MimeBodyPart();
+				MimeBodyPart contentBodyPart = new MimeBodyPart();
 
-						pdfBodyPart.setFileName(INVOICE_REPORT);
+				pdfBodyPart.setDataHandler(new DataHandler(dataSource));
+				contentBodyPart.setContent(body, TEXT_HTML);
 
-						mimeMultipart1.addBodyPart(contentBodyPart);
-						mimeMultipart1.addBodyPart(pdfBodyPart);
+				pdfBodyPart.setFileName(INVOICE_REPORT);
 
-					} catch(Exception ex) {
-						ex.printStackTrace();
-					}
+				mimeMultipart1.addBodyPart(contentBodyPart);
+				mimeMultipart1.addBodyPart(pdfBodyPart);
 
-					MailIntegration.sendHtmlEmail(mimeMultipart1, mail,
-							getJavaMailSender(configurationService.getConfigurationList()), isHtml);
-				} catch (Exception ex) {
-					LOGGER.error("Error", ex);
-				}
+			} catch(Exception ex) {
+				LOGGER.error("Error attaching PDF", ex);
 			}
+			MailIntegration.htmlEmailPreparator(mimeMultipart1, mail, isHtml).prepare(mimeMessage);
 		});
-		t.start();
 	}
 
 	/**
@@ -217,67 +221,59 @@ public class MailUtility {
 	 */
 	public void triggerEmailOnBackground2(String subject, String mailcontent,String pdfBody, MimeMultipart mimeMultipart, String fromEmailId,
 										 String fromName, String[] toMailAddress, boolean isHtml) {
-		Thread t = new Thread(new Runnable() {
-			@Override
-			public void run() {
-				try {
-					Mail mail = new Mail();
-					mail.setFrom(fromEmailId);
-					mail.setFromName(fromName);
-					mail.setTo(toMailAddress);
-					mail.setSubject(subject);
-					mail.setBody(pdfBody);
-
-					MimeMultipart mimeMultipart1=new MimeMultipart();
-					try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-
-						byte[] bytes = writePdf(outputStream,pdfBody);
-
-						DataSource dataSource = new ByteArrayDataSource(bytes, APPLICATION_PDF);
-
-						MimeBodyPart pdfBodyPart = new MimeBodyPart();
-						MimeBodyPart contentBodyPart = new MimeBodyPart();
-
-						pdfBodyPart.setDataHandler(new DataHandler(dataSource));
-						contentBodyPart.setContent(mailcontent, TEXT_HTML);
-
-						if(subject.contains("CREDIT NOTE")) {
-							pdfBodyPart.setFileName(CREDIT_NOTE_REPORT);
-						}
-							else if (subject.contains("Payslip")) {
-								pdfBodyPart.setFileName(PAYSLIP_REPORT);
-							}
-							else if(subject.contains("QUOTATION")){
-							pdfBodyPart.setFileName(QUOTATION_REPORT);
-						}
-						else {
-							pdfBodyPart.setFileName(INVOICE_REPORT);
-						}
-
-						mimeMultipart1.addBodyPart(contentBodyPart);
-						mimeMultipart1.addBodyPart(pdfBodyPart);
-
-					} catch(Exception ex) {
-						ex.printStackTrace();
-					}
+		triggerEmailOnBackground2(subject, mailcontent, pdfBody, mimeMultipart, fromEmailId, fromName, toMailAddress,
+				isHtml, MailDispatcher.emailLog(MAIL_MODULE, fromEmailId, toMailAddress));
+	}
 
-					MailIntegration.sendHtmlEmail(mimeMultipart1, mail,
-							getJavaMailSender(configurationService.getConfigurationList()), isHtml);
-				} catch (Exception ex) {
-					LOGGER.error("Error", ex);
+	/**
+	 * Same as {@link #triggerEmailOnBackground2(String, String, String, MimeMultipart, String, String, String[], boolean)},
+	 * queueing the mail with the caller's EMAIL_LOGS row as its outbox entry.
+	 */
+	public void triggerEmailOnBackground2(String subject, String mailcontent,String pdfBody, MimeMultipart mimeMultipart, String fromEmailId,
+										 String fromName, String[] toMailAddress, boolean isHtml, EmailLogs emailLog) {
+		Mail mail = new Mail();
+		mail.setFrom(fromEmailId);
+		mail.setFromName(fromName);
+		mail.setTo(toMailAddress);
+		mail.setSubject(subject);
+		mail.setBody(pdfBody);
+		CompletableFuture<byte[]> pdf = pdfRenderer.renderAsync(pdfBody);
+		mailDispatcher.dispatch(emailLog, mimeMessage -> {
+			MimeMultipart mimeMultipart1=new MimeMultipart();
+			try {
+
+				byte[] bytes = pdf.join();
+
+				DataSource dataSource = new ByteArrayDataSource(bytes, APPLICATION_PDF);
+
+				MimeBodyPart pdfBodyPart = new MimeBodyPart();
+				MimeBodyPart contentBodyPart = new MimeBodyPart();
+
+				pdfBodyPart.setDataHandler(new DataHandler(dataSource));
+				contentBodyPart.setContent(mailcontent, TEXT_HTML);
+
+				if(subject.contains("CREDIT NOTE")) {
+					pdfBodyPart.setFileName(CREDIT_NOTE_REPORT);
+				}
+					else if (subject.contains("Payslip")) {
+						pdfBodyPart.setFileName(PAYSLIP_REPORT);
+					}
+					else if(subject.contains("QUOTATION")){
+					pdfBodyPart.setFileName(QUOTATION_REPORT);
+				}
+				else {
+					pdfBodyPart.setFileName(INVOICE_REPORT);
 				}
+
+				mimeMultipart1.addBodyPart(contentBodyPart);
+				mimeMultipart1.addBodyPart(pdfBodyPart);
+
+			} catch(Exception ex) {
+				LOGGER.error("Error attaching PDF", ex);
 			}
+			MailIntegration.htmlEmailPreparator(mimeMultipart1, mail, isHtml).prepare(mimeMessage);
 		});
-		t.start();
-	}
-	public static byte[] writePdf(OutputStream outputStream,String body) throws Exception {
-		try (ByteArrayOutputStream buffer = new ByteArrayOutputStream()) {
-			HtmlConverter.convertToPdf(body, buffer);
-
-			return buffer.toByteArray();
-		}
 	}
-
 	public static JavaMailSender getJavaMailSender(List<Configuration> configurationList) {
 		MailConfigurationModel mailDefaultConfigurationModel = getEMailConfigurationList(configurationList);
 		return getJavaMailSender(mailDefaultConfigurationModel);
@@ -305,6 +301,8 @@ public class MailUtility {
 		mailProps.put("mail.smtp.starttls.enable prop", "true");
 		mailProps.put("mail.smtp.socketFactory.class", "javax.net.ssl.SSLSocketFactory");
 		mailProps.put("mail.smtp.ssl.checkserveridentity", true);
+		mailProps.put("mail.smtp.connectiontimeout", String.valueOf(SMTP_TIMEOUT_MILLIS));
+		mailProps.put("mail.smtp.timeout", String.valueOf(SMTP_TIMEOUT_MILLIS));
 		sender.setJavaMailProperties(mailProps);
 		return sender;
 	}
@@ -376,10 +374,20 @@ public class MailUtility {
 		return mailDefaultConfigurationModel;
 	}
 
+	/**
+	 * Fills the <code>{placeholder}</code> keys of the map into the text in one pass, see {@link MailTemplate}. Keys
+	 * that are not placeholders are still replaced one by one.
+	 */
 	public String create(Map<String, String> dataMap, String data) {
-		for (String key : dataMap.keySet()) {
-			if (dataMap.containsKey(key) && dataMap.get(key) != null)
-				data = data.replace(key, dataMap.get(key));
+		return create(dataMap, MailTemplate.compile(data));
+	}
+
+	public String create(Map<String, String> dataMap, MailTemplate template) {
+		String data = template.render(dataMap);
+		for (Map.Entry<String, String> entry : dataMap.entrySet()) {
+			String key = entry.getKey();
+			if (entry.getValue() != null && !MailTemplate.isPlaceholder(key))
+				data = data.replace(key, entry.getValue());
 		}
 		return data;
 	}
@@ -710,58 +718,53 @@ public class MailUtility {
 										  String fromName, boolean isHtml,
 										  List<File> files,
 										  Map<String,byte[]> fileMetaData, EmailContentModel emailContentModel) {
-		List<MimeMultipart> mimeMultiparts=new ArrayList<>();
-		Thread t = new Thread(new Runnable() {
-			@Override
-			public void run() {
-				try {
-					Mail mail = new Mail();
-					mail.setFrom(fromEmailId);
-					mail.setFromName(fromName);
-					mail.setTo(emailContentModel.getTo_emails());
-					if(emailContentModel.getCc_emails()!=null)
-						mail.setCc(emailContentModel.getCc_emails());
-					if(emailContentModel.getBcc_emails()!=null)
-						mail.setBcc(emailContentModel.getBcc_emails());
-					mail.setSubject(subject);
-					mail.setBody(mailcontent);
-					MimeMultipart mimeMultipart1=new MimeMultipart();
-					try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-
-						MimeBodyPart contentBodyPart = new MimeBodyPart();
-						contentBodyPart.setContent(mailcontent, TEXT_HTML);
-						mimeMultipart1.addBodyPart(contentBodyPart);
-						for(Map.Entry<String,byte[]> fileMeta :fileMetaData.entrySet()){
-							String fileName = fileMeta.getKey();
-							DataSource dataSource = new ByteArrayDataSource(fileMeta.getValue(), "APPLICATION_PDF");
-							MimeBodyPart pdfBodyPart = new MimeBodyPart();
-							pdfBodyPart.setDataHandler(new DataHandler(dataSource));
-							pdfBodyPart.setFileName(fileName);
-							mimeMultipart1.addBodyPart(pdfBodyPart);
-						}
-						//primary email
-						if(emailContentModel.getAttachPrimaryPdf().booleanValue()==Boolean.TRUE){
-							byte[] bytes = writePdf(outputStream,pdfBody);
-							DataSource dataSource = new ByteArrayDataSource(bytes, APPLICATION_PDF);
-							MimeBodyPart pdfBodyPart = new MimeBodyPart();
-							pdfBodyPart.setDataHandler(new DataHandler(dataSource));
-							if(subject.contains("Payslip"))
-								pdfBodyPart.setFileName(PAYSLIP_REPORT);
-							else
-								pdfBodyPart.setFileName(subject+""+".pdf");
-							mimeMultipart1.addBodyPart(pdfBodyPart);
-						}
-						mimeMultiparts.add(mimeMultipart1);
-					} catch(Exception ex) {
-						ex.printStackTrace();
-					}
-					MailIntegration.sendHtmlEmails(mimeMultiparts, mail,
-							getJavaMailSender(configurationService.getConfigurationList()), isHtml,files);
-				} catch (Exception ex) {
-					LOGGER.error("Error", ex);
+		Mail mail = new Mail();
+		mail.setFrom(fromEmailId);
+		mail.setFromName(fromName);
+		mail.setTo(emailContentModel.getTo_emails());
+		if(emailContentModel.getCc_emails()!=null)
+			mail.setCc(emailContentModel.getCc_emails());
+		if(emailContentModel.getBcc_emails()!=null)
+			mail.setBcc(emailContentModel.getBcc_emails());
+		mail.setSubject(subject);
+		mail.setBody(mailcontent);
+		EmailLogs emailLog = MailDispatcher.emailLog(MAIL_MODULE, fromEmailId, emailContentModel.getTo_emails());
+		CompletableFuture<byte[]> pdf = Boolean.TRUE.equals(emailContentModel.getAttachPrimaryPdf())
+				? pdfRenderer.renderAsync(pdfBody)
+				: null;
+		mailDispatcher.dispatch(emailLog, mimeMessage -> {
+			List<MimeMultipart> mimeMultiparts=new ArrayList<>();
+			MimeMultipart mimeMultipart1=new MimeMultipart();
+			try {
+
+				MimeBodyPart contentBodyPart = new MimeBodyPart();
+				contentBodyPart.setContent(mailcontent, TEXT_HTML);
+				mimeMultipart1.addBodyPart(contentBodyPart);
+				for(Map.Entry<String,byte[]> fileMeta :fileMetaData.entrySet()){
+					String fileName = fileMeta.getKey();
+					DataSource dataSource = new ByteArrayDataSource(fileMeta.getValue(), "APPLICATION_PDF");
+					MimeBodyPart pdfBodyPart = new MimeBodyPart();
+					pdfBodyPart.setDataHandler(new DataHandler(dataSource));
+					pdfBodyPart.setFileName(fileName);
+					mimeMultipart1.addBodyPart(pdfBodyPart);
+				}
+				//primary email
+				if(pdf != null){
+					byte[] bytes = pdf.join();
+					DataSource dataSource = new ByteArrayDataSource(bytes, APPLICATION_PDF);
+					MimeBodyPart pdfBodyPart = new MimeBodyPart();
+					pdfBodyPart.setDataHandler(new DataHandler(dataSource));
+					if(subject.contains("Payslip"))
+						pdfBodyPart.setFileName(PAYSLIP_REPORT);
+					else
+						pdfBodyPart.setFileName(subject+""+".pdf");
+					mimeMultipart1.addBodyPart(pdfBodyPart);
 				}
+				mimeMultiparts.add(mimeMultipart1);
+			} catch(Exception ex) {
+				LOGGER.error("Error attaching files", ex);
 			}
+			MailIntegration.htmlEmailsPreparator(mimeMultiparts, mail, isHtml).prepare(mimeMessage);
 		});
-		t.start();
 	}
 }
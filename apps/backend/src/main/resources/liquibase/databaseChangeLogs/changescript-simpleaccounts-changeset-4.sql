@@ -527,4 +527,83 @@ INSERT INTO reports_column_configuration (id, report_name, column_names, created
 
 --changeset Ikrama Shaikh:74
 ALTER TABLE invoice ADD COLUMN generated_by_scan boolean NOT NULL DEFAULT false;
-ALTER TABLE contact ADD COLUMN update_contact boolean NOT NULL DEFAULT false;
\ No newline at end of file
+ALTER TABLE contact ADD COLUMN update_contact boolean NOT NULL DEFAULT false;
+--changeset simpleaccounts:75
+CREATE SEQUENCE IF NOT EXISTS dashboard_monthly_balance_seq START 10000 INCREMENT 1;
+
+CREATE TABLE IF NOT EXISTS public.dashboard_monthly_balance
+(
+    dashboard_monthly_balance_id integer NOT NULL,
+    transaction_category_id integer NOT NULL,
+    balance_month date NOT NULL,
+    closing_balance numeric(19, 2) NOT NULL DEFAULT 0.00,
+    last_update_date timestamp without time zone,
+    CONSTRAINT dashboard_monthly_balance_pkey PRIMARY KEY (dashboard_monthly_balance_id),
+    CONSTRAINT uk_dashboard_monthly_balance_category_month UNIQUE (transaction_category_id, balance_month),
+    CONSTRAINT fk_dashboard_monthly_balance_tranx_cat_id_tranx_cat FOREIGN KEY (transaction_category_id)
+        REFERENCES public.transaction_category (transaction_category_id)
+    );
+
+-- closing balance of the latest row of every category and month
+INSERT INTO dashboard_monthly_balance (dashboard_monthly_balance_id, transaction_category_id, balance_month, closing_balance, last_update_date)
+SELECT nextval('dashboard_monthly_balance_seq'), latest.transaction_category_id, latest.balance_month, latest.closing_balance, CURRENT_TIMESTAMP
+FROM (SELECT DISTINCT ON (tcb.transaction_category_id, date_trunc('month', tcb.transaction_category_closing_balance_date))
+             tcb.transaction_category_id,
+             CAST(date_trunc('month', tcb.transaction_category_closing_balance_date) AS date) AS balance_month,
+             tcb.closing_balance
+      FROM transaction_category_closing_balance tcb
+      WHERE tcb.delete_flag = false
+        AND tcb.transaction_category_id IS NOT NULL
+        AND tcb.transaction_category_closing_balance_date IS NOT NULL
+      ORDER BY tcb.transaction_category_id, date_trunc('month', tcb.transaction_category_closing_balance_date),
+               tcb.transaction_category_closing_balance_date DESC, tcb.transaction_category_closing_balance_id DESC) latest;
+
+--changeset simpleaccounts:76
+ALTER TABLE email_logs ADD COLUMN status character varying(20);
+ALTER TABLE email_logs ADD COLUMN attempts integer NOT NULL DEFAULT 0;
+ALTER TABLE email_logs ADD COLUMN next_attempt_date timestamp without time zone;
+ALTER TABLE email_logs ADD COLUMN last_error character varying(1000);
+ALTER TABLE email_logs ADD COLUMN mime_message bytea;
+CREATE INDEX IF NOT EXISTS idx_email_logs_status_next_attempt ON email_logs (status, next_attempt_date);
+
+--changeset simpleaccounts:77
+CREATE INDEX IF NOT EXISTS idx_invoice_reference_number_active ON invoice (reference_number) WHERE delete_flag = false;
+CREATE INDEX IF NOT EXISTS idx_expense_expense_number_active ON expense (expense_number) WHERE delete_flag = false;
+
+--changeset simpleaccounts:78
+-- ids of the bulk written tables are allocated 50 at a time, in step with the allocationSize of their entities
+ALTER SEQUENCE transaction_seq INCREMENT BY 50;
+ALTER SEQUENCE journal_seq INCREMENT BY 50;
+ALTER SEQUENCE journal_line_item_seq INCREMENT BY 50;
+ALTER SEQUENCE salary_seq INCREMENT BY 50;
+ALTER SEQUENCE activity_seq INCREMENT BY 50;
+
+--changeset simpleaccounts:79
+-- fingerprint of a bank transaction, kept by Transaction.fingerprintOf; imports look their rows up by it
+ALTER TABLE transaction ADD COLUMN fingerprint character varying(32);
+UPDATE transaction
+SET fingerprint = md5(concat_ws('|', bank_account_id, to_char(transaction_date, 'YYYY-MM-DD'), debit_credit_flag,
+        transaction_amount, lower(btrim(regexp_replace(coalesce(transaction_description, ''), '\s+', ' ', 'g')))))
+WHERE bank_account_id IS NOT NULL AND transaction_date IS NOT NULL AND transaction_amount IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_transaction_bank_account_fingerprint_active ON transaction (bank_account_id, fingerprint) WHERE delete_flag = false;
+
+--changeset simpleaccounts:80
+-- access paths of the ledger, report, banking and VAT queries; PostgreSQL does not index foreign key columns by itself
+-- ledger and VAT account lines of a category, joined to their journal
+CREATE INDEX IF NOT EXISTS idx_journal_line_item_category_journal ON journal_line_item (transaction_category_code, journal_id);
+-- lines of a journal, read and deleted with it
+CREATE INDEX IF NOT EXISTS idx_journal_line_item_journal ON journal_line_item (journal_id);
+-- lines posted for a document, looked up by reference id and type
+CREATE INDEX IF NOT EXISTS idx_journal_line_item_reference ON journal_line_item (reference_id, reference_type);
+CREATE INDEX IF NOT EXISTS idx_journal_journal_date ON journal (journal_date);
+CREATE INDEX IF NOT EXISTS idx_journal_transaction_date ON journal (transaction_date);
+-- latest closing balance of a category up to a date
+CREATE INDEX IF NOT EXISTS idx_tcb_category_closing_balance_date ON transaction_category_closing_balance (transaction_category_id, transaction_category_closing_balance_date);
+-- statement of a bank account over a period
+CREATE INDEX IF NOT EXISTS idx_transaction_bank_account_date ON transaction (bank_account_id, transaction_date);
+-- invoices of a type over a period; the queries exclude a status with <>, which an index column cannot bound
+CREATE INDEX IF NOT EXISTS idx_invoice_type_date ON invoice (type, invoice_date);
+CREATE INDEX IF NOT EXISTS idx_invoice_line_item_invoice ON invoice_line_item (invoice_id);
+CREATE INDEX IF NOT EXISTS idx_expense_expense_date ON expense (expense_date);
+CREATE INDEX IF NOT EXISTS idx_credit_note_type_date ON credit_note (type, credit_note__date);
+CREATE INDEX IF NOT EXISTS idx_credit_note_line_item_credit_note ON credit_note_line_item (credit_note_id);
@@ -0,0 +1,102 @@
+package com.simpleaccounts.benchmark;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.mockito.Mockito;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+
+/**
+ * Wiring shared by the benchmarks.
+ *
+ * Paths that talk to the database run against a JPA slice of the application: only the data source,
+ * Hibernate and the transaction manager are auto-configured, every entity is mapped and just the beans
+ * under test are registered. The schema is created from the entities in the database configured by
+ * {@code application-benchmark.properties}, an in-memory H2 in PostgreSQL mode by default. Pure
+ * computation paths are built with {@link #newWithMocks(Class, Object...)} so only the measured code runs.
+ */
+public final class BenchmarkContext {
+
+	private BenchmarkContext() {
+	}
+
+	/**
+	 * Starts the JPA slice with the given components registered as beans.
+	 */
+	public static ConfigurableApplicationContext start(Class<?>... components) {
+		Class<?>[] sources = Arrays.copyOf(components, components.length + 1);
+		sources[components.length] = JpaSliceConfiguration.class;
+		return new SpringApplicationBuilder(sources)
+				.web(WebApplicationType.NONE)
+				.logStartupInfo(false)
+				.profiles("benchmark")
+				.run();
+	}
+
+	/**
+	 * Creates the component through its widest constructor, passing the matching collaborator for every
+	 * parameter and a Mockito mock where none is given.
+	 */
+	public static <T> T newWithMocks(Class<T> type, Object... collaborators) {
+		Constructor<?> constructor = Arrays.stream(type.getConstructors())
+				.max(Comparator.comparingInt(Constructor::getParameterCount))
+				.orElseThrow(() -> new IllegalArgumentException(type + " has no public constructor"));
+		Class<?>[] parameterTypes = constructor.getParameterTypes();
+		Object[] arguments = new Object[parameterTypes.length];
+		for (int i = 0; i < parameterTypes.length; i++) {
+			Class<?> parameterType = parameterTypes[i];
+			arguments[i] = Arrays.stream(collaborators).filter(parameterType::isInstance).findFirst()
+					.orElseGet(() -> stub(parameterType));
+		}
+		try {
+			return type.cast(constructor.newInstance(arguments));
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Cannot create " + type, e);
+		}
+	}
+
+	/**
+	 * Creates a Mockito mock that does not record its invocations, which a regular mock would keep for every
+	 * benchmark operation.
+	 */
+	public static <T> T stub(Class<T> type) {
+		return Mockito.mock(type, Mockito.withSettings().stubOnly());
+	}
+
+	@SpringBootConfiguration
+	@ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+			TransactionAutoConfiguration.class})
+	@EntityScan("com.simpleaccounts")
+	static class JpaSliceConfiguration {
+
+		/**
+		 * Shared, transaction bound entity manager for constructor injection, which Spring Data registers
+		 * in the application.
+		 */
+		@Bean
+		public EntityManager entityManager(EntityManagerFactory entityManagerFactory) {
+			return SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+		}
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package com.simpleaccounts.benchmark;
+
+import com.simpleaccounts.dao.ActivityDao;
+import com.simpleaccounts.dao.impl.DashboardMonthlyBalanceDaoImpl;
+import com.simpleaccounts.dao.impl.TransactionCategoryClosingBalanceDaoImpl;
+import com.simpleaccounts.entity.JournalLineItem;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.helper.DashboardCacheEvictor;
+import com.simpleaccounts.service.BankAccountService;
+import com.simpleaccounts.service.CurrencyExchangeService;
+import com.simpleaccounts.service.TransactionCategoryClosingBalanceService;
+import com.simpleaccounts.service.impl.BalanceUpdateCoordinator;
+import com.simpleaccounts.service.impl.ClosingBalancePropagator;
+import com.simpleaccounts.service.impl.DashboardMonthlyBalanceServiceImpl;
+import com.simpleaccounts.service.impl.TransactionCategoryClosingBalanceServiceImpl;
+import com.simpleaccounts.utils.DateFormatUtil;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Posts one journal line per operation through {@link TransactionCategoryClosingBalanceService#updateClosingBalance(JournalLineItem)}
+ * in its own transaction, either on the last day of the ledger or back-dated to its first day, in which case
+ * every later closing balance row of the category moves as well.
+ *
+ * {@link #updateClosingBalance(Poster)} measures the latency of a single poster. {@link #concurrentPosts(Poster)}
+ * measures the throughput of several posters at once, each walking the categories from its own starting point:
+ * with one category every post waits for the same category lock, with more the posts spread over the locks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClosingBalanceBenchmark {
+
+	@Param({"1", "20"})
+	public int categories;
+
+	@Param({"365"})
+	public int days;
+
+	@Param({"false", "true"})
+	public boolean backDated;
+
+	private ConfigurableApplicationContext context;
+
+	private TransactionTemplate transactionTemplate;
+
+	private TransactionCategoryClosingBalanceService closingBalanceService;
+
+	private List<TransactionCategory> ledgerCategories;
+
+	private LedgerDataGenerator generator;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start(TransactionCategoryClosingBalanceServiceImpl.class,
+				TransactionCategoryClosingBalanceDaoImpl.class, DashboardMonthlyBalanceServiceImpl.class,
+				DashboardMonthlyBalanceDaoImpl.class, DashboardCacheEvictor.class,
+				BalanceUpdateCoordinator.class, ClosingBalancePropagator.class, DateFormatUtil.class,
+				ExternalServices.class);
+		transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		closingBalanceService = context.getBean(TransactionCategoryClosingBalanceService.class);
+		generator = new LedgerDataGenerator(42);
+		ledgerCategories = generator.categories(categories);
+		EntityManager entityManager = context.getBean(EntityManager.class);
+		transactionTemplate.execute(status -> {
+			generator.persistLedger(entityManager, ledgerCategories, days);
+			return null;
+		});
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public void updateClosingBalance(Poster poster) {
+		post(poster);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	@Threads(4)
+	public void concurrentPosts(Poster poster) {
+		post(poster);
+	}
+
+	private void post(Poster poster) {
+		TransactionCategory category = ledgerCategories.get(poster.nextCategory(ledgerCategories.size()));
+		JournalLineItem lineItem = poster.generator.journalLineItem(category, backDated ? 0 : days - 1);
+		transactionTemplate.execute(status -> {
+			closingBalanceService.updateClosingBalance(lineItem);
+			return null;
+		});
+	}
+
+	/**
+	 * State of one benchmark thread: the category it posts to next and its own generator for the amounts.
+	 */
+	@State(Scope.Thread)
+	public static class Poster {
+
+		private LedgerDataGenerator generator;
+
+		private int next;
+
+		@Setup(Level.Trial)
+		public void setUp(ThreadParams threadParams) {
+			generator = new LedgerDataGenerator(42L + threadParams.getThreadIndex());
+			next = threadParams.getThreadIndex();
+		}
+
+		int nextCategory(int count) {
+			return next++ % count;
+		}
+	}
+
+	/**
+	 * Bank lookups are only made for bank account categories, which the generated ledger does not contain,
+	 * and posting records no activity.
+	 */
+	@Configuration
+	static class ExternalServices {
+
+		@Bean
+		public ActivityDao activityDao() {
+			return BenchmarkContext.stub(ActivityDao.class);
+		}
+
+		@Bean
+		public BankAccountService bankAccountService() {
+			return BenchmarkContext.stub(BankAccountService.class);
+		}
+
+		@Bean
+		public CurrencyExchangeService currencyExchangeService() {
+			return BenchmarkContext.stub(CurrencyExchangeService.class);
+		}
+	}
+}
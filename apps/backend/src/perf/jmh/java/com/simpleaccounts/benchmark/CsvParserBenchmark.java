@@ -0,0 +1,74 @@
+package com.simpleaccounts.benchmark;
+
+import com.simpleaccounts.criteria.enums.TransactionEnum;
+import com.simpleaccounts.dao.DateFormatDao;
+import com.simpleaccounts.entity.DateFormat;
+import com.simpleaccounts.parserengine.CsvParser;
+import com.simpleaccounts.rest.transactionparsingcontroller.TransactionParsingSettingDetailModel;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses a generated bank statement with {@link CsvParser#parseImportData(TransactionParsingSettingDetailModel, java.io.InputStream)}
+ * using a date format and debit and credit columns, as the transaction import screen does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvParserBenchmark {
+
+	@Param({"1000", "10000"})
+	public int rows;
+
+	private CsvParser csvParser;
+
+	private TransactionParsingSettingDetailModel parsingSetting;
+
+	private byte[] statement;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		DateFormat dateFormat = new DateFormat();
+		dateFormat.setFormat(LedgerDataGenerator.CSV_DATE_FORMAT);
+		DateFormatDao dateFormatDao = BenchmarkContext.stub(DateFormatDao.class);
+		Mockito.when(dateFormatDao.findByPK(1)).thenReturn(dateFormat);
+		csvParser = new CsvParser(dateFormatDao);
+
+		Map<TransactionEnum, Integer> indexMap = new EnumMap<>(TransactionEnum.class);
+		indexMap.put(TransactionEnum.TRANSACTION_DATE, 0);
+		indexMap.put(TransactionEnum.DESCRIPTION, 1);
+		indexMap.put(TransactionEnum.DR_AMOUNT, 2);
+		indexMap.put(TransactionEnum.CR_AMOUNT, 3);
+		parsingSetting = new TransactionParsingSettingDetailModel();
+		parsingSetting.setDateFormatId(1);
+		parsingSetting.setIndexMap(indexMap);
+
+		statement = new LedgerDataGenerator(42).bankStatementCsv(rows).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public Map<String, Object> parseImportData() {
+		return csvParser.parseImportData(parsingSetting, new ByteArrayInputStream(statement));
+	}
+}
@@ -0,0 +1,114 @@
+package com.simpleaccounts.benchmark;
+
+import com.simpleaccounts.constant.dbfilter.DbFilter;
+import com.simpleaccounts.dao.impl.TransactionCategoryClosingBalanceDaoImpl;
+import com.simpleaccounts.entity.TransactionCategoryClosingBalance;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.rest.PaginationModel;
+import com.simpleaccounts.rest.PaginationResponseModel;
+import com.simpleaccounts.utils.DateFormatUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reads one sorted page of closing balances of a category through the filter based
+ * {@code AbstractDao.executeQuery}, with and without the total count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecuteQueryBenchmark {
+
+	@Param({"20"})
+	public int categories;
+
+	@Param({"730"})
+	public int days;
+
+	@Param({"20"})
+	public int pageSize;
+
+	private ConfigurableApplicationContext context;
+
+	private TransactionTemplate readOnlyTransaction;
+
+	private TransactionCategoryClosingBalanceDaoImpl closingBalanceDao;
+
+	private List<TransactionCategory> ledgerCategories;
+
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start(TransactionCategoryClosingBalanceDaoImpl.class, DateFormatUtil.class);
+		TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		LedgerDataGenerator generator = new LedgerDataGenerator(42);
+		ledgerCategories = generator.categories(categories);
+		EntityManager entityManager = context.getBean(EntityManager.class);
+		transactionTemplate.execute(status -> {
+			generator.persistLedger(entityManager, ledgerCategories, days);
+			return null;
+		});
+		readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		readOnlyTransaction.setReadOnly(true);
+		closingBalanceDao = context.getBean(TransactionCategoryClosingBalanceDaoImpl.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<TransactionCategoryClosingBalance> executeQuery() {
+		List<DbFilter> filters = filters();
+		return readOnlyTransaction.execute(status -> closingBalanceDao.executeQuery(filters, page()));
+	}
+
+	@Benchmark
+	public PaginationResponseModel executeQueryWithCount() {
+		List<DbFilter> filters = filters();
+		return readOnlyTransaction.execute(status -> closingBalanceDao.executeQueryWithCount(filters, page()));
+	}
+
+	private List<DbFilter> filters() {
+		List<DbFilter> filters = new ArrayList<>();
+		filters.add(DbFilter.builder().dbCoulmnName("transactionCategory").condition(" = :transactionCategory")
+				.value(ledgerCategories.get(next++ % ledgerCategories.size())).build());
+		filters.add(DbFilter.builder().dbCoulmnName("deleteFlag").condition(" = :deleteFlag").value(false).build());
+		return filters;
+	}
+
+	private PaginationModel page() {
+		PaginationModel paginationModel = new PaginationModel();
+		paginationModel.setPageNo(0);
+		paginationModel.setPageSize(pageSize);
+		paginationModel.setSortingCol("closingBalanceDate");
+		paginationModel.setOrder("desc");
+		return paginationModel;
+	}
+}
@@ -0,0 +1,61 @@
+package com.simpleaccounts.benchmark;
+
+import com.simpleaccounts.entity.TransactionCategoryClosingBalance;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.rest.financialreport.FinancialReportRestHelper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Folds the closing balance rows of a report period into the opening and closing balance per category
+ * with {@link FinancialReportRestHelper#processTransactionCategoryClosingBalance(List)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FinancialReportBenchmark {
+
+	@Param({"50", "200"})
+	public int categories;
+
+	@Param({"365"})
+	public int days;
+
+	private FinancialReportRestHelper financialReportRestHelper;
+
+	private List<TransactionCategoryClosingBalance> closingBalances;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		financialReportRestHelper = BenchmarkContext.newWithMocks(FinancialReportRestHelper.class);
+		LedgerDataGenerator generator = new LedgerDataGenerator(42);
+		List<TransactionCategory> ledgerCategories = generator.categories(categories);
+		for (int i = 0; i < ledgerCategories.size(); i++) {
+			ledgerCategories.get(i).setTransactionCategoryId(i + 1);
+		}
+		closingBalances = generator.closingBalances(ledgerCategories, days);
+	}
+
+	@Benchmark
+	public Map<Integer, TransactionCategoryClosingBalance> processTransactionCategoryClosingBalance() {
+		return financialReportRestHelper.processTransactionCategoryClosingBalance(closingBalances);
+	}
+}
@@ -0,0 +1,98 @@
+package com.simpleaccounts.benchmark;
+
+import com.simpleaccounts.entity.ContactTransactionCategoryRelation;
+import com.simpleaccounts.entity.Invoice;
+import com.simpleaccounts.entity.InvoiceLineItem;
+import com.simpleaccounts.entity.Journal;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.rest.PostingRequestModel;
+import com.simpleaccounts.rest.invoicecontroller.InvoiceRestHelper;
+import com.simpleaccounts.service.ContactTransactionCategoryService;
+import com.simpleaccounts.service.InvoiceLineItemService;
+import com.simpleaccounts.service.InvoiceService;
+import com.simpleaccounts.service.ProductService;
+import com.simpleaccounts.service.TransactionCategoryService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Converts a posted customer invoice into its journal with {@link InvoiceRestHelper#invoicePosting(PostingRequestModel, Integer)}.
+ * The services the conversion reads from return the generated invoice from memory, so only the conversion
+ * itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvoicePostingBenchmark {
+
+	@Param({"5", "100"})
+	public int lineItems;
+
+	@Param({"3"})
+	public int salesCategories;
+
+	private InvoiceRestHelper invoiceRestHelper;
+
+	private PostingRequestModel postingRequest;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		LedgerDataGenerator generator = new LedgerDataGenerator(42);
+		List<TransactionCategory> categories = generator.categories(salesCategories + 1);
+		for (int i = 0; i < categories.size(); i++) {
+			categories.get(i).setTransactionCategoryId(i + 1);
+		}
+		Invoice invoice = generator.customerInvoice(lineItems, categories.subList(1, categories.size()));
+		List<InvoiceLineItem> invoiceLineItems = new ArrayList<>(invoice.getInvoiceLineItems());
+
+		ContactTransactionCategoryRelation receivable = new ContactTransactionCategoryRelation();
+		receivable.setContact(invoice.getContact());
+		receivable.setTransactionCategory(categories.get(0));
+
+		InvoiceService invoiceService = BenchmarkContext.stub(InvoiceService.class);
+		Mockito.when(invoiceService.findByPK(invoice.getId())).thenReturn(invoice);
+		ContactTransactionCategoryService contactTransactionCategoryService = BenchmarkContext.stub(ContactTransactionCategoryService.class);
+		Mockito.when(contactTransactionCategoryService.findByAttributes(ArgumentMatchers.anyMap()))
+				.thenReturn(Collections.singletonList(receivable));
+		InvoiceLineItemService invoiceLineItemService = BenchmarkContext.stub(InvoiceLineItemService.class);
+		Mockito.when(invoiceLineItemService.findByAttributes(ArgumentMatchers.anyMap())).thenReturn(invoiceLineItems);
+		ProductService productService = BenchmarkContext.stub(ProductService.class);
+		for (InvoiceLineItem lineItem : invoiceLineItems) {
+			Mockito.when(productService.findByPK(lineItem.getProduct().getProductID())).thenReturn(lineItem.getProduct());
+		}
+		TransactionCategoryService transactionCategoryService = BenchmarkContext.stub(TransactionCategoryService.class);
+		Mockito.when(transactionCategoryService.findTransactionCategoryByTransactionCategoryCode(ArgumentMatchers.anyString()))
+				.thenReturn(categories.get(0));
+
+		invoiceRestHelper = BenchmarkContext.newWithMocks(InvoiceRestHelper.class, invoiceService,
+				contactTransactionCategoryService, invoiceLineItemService, productService, transactionCategoryService);
+		postingRequest = new PostingRequestModel();
+		postingRequest.setPostingRefId(invoice.getId());
+	}
+
+	@Benchmark
+	public Journal invoicePosting() {
+		return invoiceRestHelper.invoicePosting(postingRequest, 1);
+	}
+}
@@ -0,0 +1,218 @@
+package com.simpleaccounts.benchmark;
+
+import com.simpleaccounts.constant.DiscountType;
+import com.simpleaccounts.constant.InvoiceTypeConstant;
+import com.simpleaccounts.constant.ProductPriceType;
+import com.simpleaccounts.entity.Contact;
+import com.simpleaccounts.entity.Invoice;
+import com.simpleaccounts.entity.InvoiceLineItem;
+import com.simpleaccounts.entity.Journal;
+import com.simpleaccounts.entity.JournalLineItem;
+import com.simpleaccounts.entity.Product;
+import com.simpleaccounts.entity.ProductLineItem;
+import com.simpleaccounts.entity.TransactionCategoryClosingBalance;
+import com.simpleaccounts.entity.bankaccount.ChartOfAccount;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Generates a deterministic ledger for the benchmarks: transaction categories with a closing balance row
+ * per day, bank statement CSV files and customer invoices. The same seed always produces the same data,
+ * so results of different runs are comparable.
+ */
+public class LedgerDataGenerator {
+
+	public static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+
+	public static final String CSV_DATE_FORMAT = "dd/MM/yyyy";
+
+	private final Random random;
+
+	private int nextId = 1;
+
+	public LedgerDataGenerator(long seed) {
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * @return unsaved categories, each with its own chart of account
+	 */
+	public List<TransactionCategory> categories(int count) {
+		List<TransactionCategory> categories = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			ChartOfAccount chartOfAccount = new ChartOfAccount();
+			chartOfAccount.setChartOfAccountName("Benchmark account " + i);
+			chartOfAccount.setChartOfAccountCode("BM" + i);
+			chartOfAccount.setDebitCreditFlag('D');
+			chartOfAccount.setDefaltFlag('N');
+			chartOfAccount.setDeleteFlag(false);
+			chartOfAccount.setOrderSequence(i);
+			chartOfAccount.setLastUpdateDate(new Date());
+
+			TransactionCategory category = new TransactionCategory();
+			category.setTransactionCategoryName("Benchmark category " + i);
+			category.setTransactionCategoryCode("BM-" + i);
+			category.setChartOfAccount(chartOfAccount);
+			category.setDefaltFlag('N');
+			category.setSelectableFlag(true);
+			category.setEditableFlag(true);
+			category.setIsMigratedRecord(false);
+			category.setCreatedDate(LocalDateTime.now());
+			categories.add(category);
+		}
+		return categories;
+	}
+
+	/**
+	 * @return one closing balance row per category and day, latest day first as the report queries return them
+	 */
+	public List<TransactionCategoryClosingBalance> closingBalances(List<TransactionCategory> categories, int days) {
+		List<TransactionCategoryClosingBalance> balances = new ArrayList<>(categories.size() * days);
+		for (TransactionCategory category : categories) {
+			BigDecimal closingBalance = BigDecimal.ZERO;
+			for (int day = 0; day < days; day++) {
+				TransactionCategoryClosingBalance balance = new TransactionCategoryClosingBalance();
+				balance.setTransactionCategory(category);
+				balance.setClosingBalanceDate(FIRST_DAY.plusDays(day).atStartOfDay());
+				balance.setEffectiveDate(new Date());
+				balance.setOpeningBalance(closingBalance);
+				closingBalance = closingBalance.add(amount());
+				balance.setClosingBalance(closingBalance);
+				balances.add(balance);
+			}
+		}
+		Collections.reverse(balances);
+		return balances;
+	}
+
+	/**
+	 * Persists the categories with their charts of account and daily closing balances in the current
+	 * transaction.
+	 */
+	public void persistLedger(EntityManager entityManager, List<TransactionCategory> categories, int days) {
+		for (TransactionCategory category : categories) {
+			entityManager.persist(category.getChartOfAccount());
+			entityManager.persist(category);
+		}
+		int count = 0;
+		for (TransactionCategoryClosingBalance balance : closingBalances(categories, days)) {
+			entityManager.persist(balance);
+			if (++count % 500 == 0) {
+				entityManager.flush();
+				entityManager.clear();
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	/**
+	 * @return credit posting to the category on the given day of the generated ledger
+	 */
+	public JournalLineItem journalLineItem(TransactionCategory category, int day) {
+		Journal journal = new Journal();
+		journal.setJournalDate(FIRST_DAY.plusDays(day));
+		journal.setTransactionDate(FIRST_DAY.plusDays(day));
+
+		JournalLineItem lineItem = new JournalLineItem();
+		lineItem.setJournal(journal);
+		lineItem.setTransactionCategory(category);
+		lineItem.setCreditAmount(amount());
+		lineItem.setDebitAmount(BigDecimal.ZERO);
+		lineItem.setExchangeRate(BigDecimal.ONE);
+		return lineItem;
+	}
+
+	/**
+	 * @return bank statement with a header row and columns date, description, debit, credit; amounts above
+	 *         a thousand are quoted with a thousands separator as bank exports do
+	 */
+	public String bankStatementCsv(int rows) {
+		DateTimeFormatter formatter = DateTimeFormatter.ofPattern(CSV_DATE_FORMAT);
+		StringBuilder csv = new StringBuilder("Date,Description,Debit,Credit\n");
+		for (int row = 0; row < rows; row++) {
+			BigDecimal amount = amount();
+			String formatted = amount.compareTo(BigDecimal.valueOf(1000)) >= 0
+					? "\"" + String.format("%,.2f", amount) + "\"" : amount.toPlainString();
+			boolean debit = random.nextBoolean();
+			csv.append(FIRST_DAY.plusDays(row % 365).format(formatter)).append(',')
+					.append("\"Transfer ").append(row).append(", ref ").append(random.nextInt(100000)).append("\",")
+					.append(debit ? formatted : "").append(',')
+					.append(debit ? "" : formatted).append('\n');
+		}
+		return csv.toString();
+	}
+
+	/**
+	 * @return posted customer invoice in AED with VAT and a discount, its line items spread over
+	 *         {@code salesCategories} sales categories
+	 */
+	public Invoice customerInvoice(int lineCount, List<TransactionCategory> salesCategories) {
+		Contact contact = new Contact();
+		contact.setContactId(nextId++);
+		contact.setFirstName("Benchmark");
+		contact.setLastName("Customer");
+
+		Invoice invoice = new Invoice();
+		invoice.setId(nextId++);
+		invoice.setType(InvoiceTypeConstant.CUSTOMER);
+		invoice.setContact(contact);
+		invoice.setReferenceNumber("INV-" + invoice.getId());
+		invoice.setInvoiceDate(FIRST_DAY);
+		invoice.setExchangeRate(BigDecimal.ONE);
+		invoice.setDiscount(BigDecimal.TEN);
+
+		List<InvoiceLineItem> lineItems = new ArrayList<>(lineCount);
+		BigDecimal subTotal = BigDecimal.ZERO;
+		for (int i = 0; i < lineCount; i++) {
+			TransactionCategory salesCategory = salesCategories.get(i % salesCategories.size());
+			InvoiceLineItem lineItem = new InvoiceLineItem();
+			lineItem.setId(nextId++);
+			lineItem.setInvoice(invoice);
+			lineItem.setProduct(product(salesCategory));
+			lineItem.setTrnsactioncCategory(salesCategory);
+			lineItem.setQuantity(1 + random.nextInt(10));
+			lineItem.setUnitPrice(amount());
+			lineItem.setDiscountType(i % 3 == 0 ? DiscountType.PERCENTAGE : DiscountType.NONE);
+			lineItem.setDiscount(i % 3 == 0 ? BigDecimal.valueOf(5) : null);
+			BigDecimal lineTotal = lineItem.getUnitPrice().multiply(BigDecimal.valueOf(lineItem.getQuantity()));
+			lineItem.setSubTotal(lineTotal);
+			lineItem.setVatAmount(lineTotal.multiply(new BigDecimal("0.05")).setScale(2, RoundingMode.HALF_UP));
+			subTotal = subTotal.add(lineTotal);
+			lineItems.add(lineItem);
+		}
+		BigDecimal vat = subTotal.multiply(new BigDecimal("0.05")).setScale(2, RoundingMode.HALF_UP);
+		invoice.setTotalVatAmount(vat);
+		invoice.setTotalAmount(subTotal.add(vat).subtract(invoice.getDiscount()));
+		invoice.setInvoiceLineItems(lineItems);
+		return invoice;
+	}
+
+	private Product product(TransactionCategory salesCategory) {
+		Product product = new Product();
+		product.setProductID(nextId++);
+		product.setProductName("Product " + product.getProductID());
+		ProductLineItem sales = new ProductLineItem();
+		sales.setPriceType(ProductPriceType.SALES);
+		sales.setTransactioncategory(salesCategory);
+		sales.setProduct(product);
+		product.setLineItemList(Collections.singletonList(sales));
+		return product;
+	}
+
+	private BigDecimal amount() {
+		return BigDecimal.valueOf(100 + random.nextInt(500_000), 2);
+	}
+}
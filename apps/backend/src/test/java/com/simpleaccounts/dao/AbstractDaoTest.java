@@ -0,0 +1,372 @@
+package com.simpleaccounts.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.simpleaccounts.config.SimpleAccountsPostgreSQLDialect;
+import com.simpleaccounts.constant.dbfilter.DbFilter;
+import com.simpleaccounts.constant.dbfilter.ORDERBYENUM;
+import com.simpleaccounts.entity.Currency;
+import com.simpleaccounts.exceptions.InvalidContinuationTokenException;
+import com.simpleaccounts.rest.PaginationModel;
+import com.simpleaccounts.rest.PaginationResponseModel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Parameter;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.persistence.metamodel.Type;
+import org.hibernate.Session;
+import org.hibernate.dialect.function.SQLFunction;
+import org.hibernate.dialect.function.SQLFunctionRegistry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jdbc.ReturningWork;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AbstractDaoTest {
+
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private CriteriaBuilder criteriaBuilder;
+    @Mock
+    private CriteriaQuery<Currency> listQuery;
+    @Mock
+    private CriteriaQuery<Long> countQuery;
+    @Mock
+    private CriteriaQuery<Object[]> pageQuery;
+    @Mock
+    private Root<Currency> root;
+    @Mock
+    private Path<Object> path;
+    @Mock
+    private Path<Object> idPath;
+    @Mock
+    private TypedQuery<Currency> typedQuery;
+    @Mock
+    private TypedQuery<Long> typedCountQuery;
+    @Mock
+    private TypedQuery<Object[]> typedPageQuery;
+
+    private CurrencyDao dao;
+
+    private final List<Object> boundValues = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    void setUp() {
+        dao = new CurrencyDao();
+        ReflectionTestUtils.setField(dao, "entityManager", entityManager);
+        when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
+        when(criteriaBuilder.createQuery(Currency.class)).thenReturn(listQuery);
+        when(criteriaBuilder.createQuery(Long.class)).thenReturn(countQuery);
+        when(criteriaBuilder.createQuery(Object[].class)).thenReturn(pageQuery);
+        when(listQuery.from(Currency.class)).thenReturn(root);
+        when(countQuery.from(Currency.class)).thenReturn(root);
+        when(pageQuery.from(Currency.class)).thenReturn(root);
+        when(root.get(anyString())).thenReturn(path);
+        when(root.get("currencyCode")).thenReturn(idPath);
+        when(path.getJavaType()).thenReturn((Class) String.class);
+        when(idPath.getJavaType()).thenReturn((Class) Integer.class);
+        mockIdAttribute();
+        when(criteriaBuilder.parameter(any())).thenAnswer(invocation -> mock(ParameterExpression.class));
+        when(entityManager.createQuery(listQuery)).thenReturn(typedQuery);
+        when(entityManager.createQuery(countQuery)).thenReturn(typedCountQuery);
+        when(entityManager.createQuery(pageQuery)).thenReturn(typedPageQuery);
+        when(typedQuery.setParameter(any(Parameter.class), any())).thenAnswer(invocation -> {
+            boundValues.add(invocation.getArgument(1));
+            return typedQuery;
+        });
+        when(typedQuery.getResultList()).thenReturn(Collections.emptyList());
+        when(typedCountQuery.getSingleResult()).thenReturn(7L);
+    }
+
+    @Test
+    void shouldBuildCriteriaQueryOnEveryCall() {
+        dao.executeQuery(filters("Dirham", 784), pagination("currencyName", "ASC"));
+        dao.executeQuery(filters("Euro", 978), pagination("currencyName", "ASC"));
+
+        // criteria queries belong to the entity manager that built them, so none is kept between calls
+        verify(criteriaBuilder, times(2)).createQuery(Currency.class);
+        verify(entityManager, times(2)).getCriteriaBuilder();
+        verify(entityManager, times(2)).createQuery(listQuery);
+        assertThat(boundValues).containsExactly("%Dirham%", 784, "%Euro%", 978);
+    }
+
+    @Test
+    void shouldBuildNewCriteriaQueryForDifferentShape() {
+        dao.executeQuery(filters("Dirham", 784), pagination("currencyName", "ASC"));
+        dao.executeQuery(filters("Dirham", 784), pagination("currencyName", "DESC"));
+        dao.executeQuery(filters("Dirham", null), pagination("currencyName", "DESC"));
+
+        verify(criteriaBuilder, times(3)).createQuery(Currency.class);
+    }
+
+    @Test
+    void shouldNotFilterOnOrderByFilters() {
+        List<DbFilter> dbFilters = new ArrayList<>(filters("Dirham", 784));
+        dbFilters.add(DbFilter.builder().dbCoulmnName("currencyCode").condition(" = :currencyCode").value(ORDERBYENUM.DESC).build());
+
+        dao.executeQuery(dbFilters, pagination("-1", "DESC"));
+
+        assertThat(boundValues).containsExactly("%Dirham%", 784);
+        verify(criteriaBuilder).desc(idPath);
+    }
+
+    @Test
+    void shouldBuildCountQueryWithoutListQuery() {
+        assertThat(dao.getResultCount(filters("Dirham", 784))).isEqualTo(7);
+        assertThat(dao.getResultCount(filters("Euro", 978))).isEqualTo(7);
+
+        verify(criteriaBuilder, times(2)).createQuery(Long.class);
+        verify(criteriaBuilder, never()).createQuery(Currency.class);
+    }
+
+    @Test
+    void shouldUseCountAndListQueriesWithoutTotalCountFunction() {
+        PaginationResponseModel response = dao.executeQueryWithCount(filters("Dirham", 784), pagination("currencyName", "ASC"));
+
+        assertThat(response.getCount()).isEqualTo(7);
+        verify(entityManager).createQuery(countQuery);
+        verify(entityManager).createQuery(listQuery);
+        verify(entityManager, never()).createQuery(pageQuery);
+    }
+
+    @Test
+    void shouldReadPageAndCountInOneQueryOnPostgreSql() {
+        enableTotalCountFunction();
+        Currency dirham = new Currency();
+        when(typedPageQuery.getResultList()).thenReturn(Collections.singletonList(new Object[] { dirham, 42L }));
+
+        PaginationResponseModel response = dao.executeQueryWithCount(filters("Dirham", 784), pagination("currencyName", "ASC"));
+
+        assertThat(response.getCount()).isEqualTo(42);
+        assertThat(response.getData()).isEqualTo(Collections.singletonList(dirham));
+        verify(criteriaBuilder).function(SimpleAccountsPostgreSQLDialect.TOTAL_COUNT_FUNCTION, Long.class);
+        verify(typedPageQuery).setMaxResults(10);
+        verify(entityManager, never()).createQuery(countQuery);
+    }
+
+    @Test
+    void shouldCountSeparatelyWhenPageIsPastLastRow() {
+        enableTotalCountFunction();
+        when(typedPageQuery.getResultList()).thenReturn(Collections.emptyList());
+        PaginationModel paginationModel = pagination("currencyName", "ASC");
+        paginationModel.setPageNo(3);
+
+        PaginationResponseModel response = dao.executeQueryWithCount(filters("Dirham", 784), paginationModel);
+
+        assertThat(response.getCount()).isEqualTo(7);
+        verify(entityManager).createQuery(countQuery);
+    }
+
+    @Test
+    void shouldReturnFirstKeysetPageWithCountAndContinuationToken() {
+        when(typedQuery.getResultList()).thenReturn(Arrays.asList(currency("Dirham", 784), currency("Euro", 978),
+                currency("Yen", 392)));
+        PaginationModel paginationModel = keysetPagination("currencyName", "ASC", null);
+        paginationModel.setPageSize(2);
+
+        PaginationResponseModel response = dao.executeKeysetQuery(filters(null, null), paginationModel);
+
+        assertThat((List<?>) response.getData()).hasSize(2);
+        assertThat(response.getCount()).isEqualTo(7);
+        assertThat(response.getContinuationToken()).isNotNull();
+        verify(typedQuery).setMaxResults(3);
+        verify(typedQuery, never()).setFirstResult(anyInt());
+        verify(criteriaBuilder).asc(path);
+        verify(criteriaBuilder).asc(idPath);
+    }
+
+    @Test
+    void shouldSeekAfterRowOfContinuationToken() {
+        when(typedQuery.getResultList()).thenReturn(Arrays.asList(currency("Dirham", 784), currency("Euro", 978),
+                currency("Yen", 392)));
+        PaginationModel firstPage = keysetPagination("currencyName", "ASC", null);
+        firstPage.setPageSize(2);
+        String token = dao.executeKeysetQuery(filters(null, null), firstPage).getContinuationToken();
+        when(typedQuery.getResultList()).thenReturn(Collections.singletonList(currency("Yen", 392)));
+        PaginationModel nextPage = keysetPagination("currencyName", "ASC", token);
+        nextPage.setPageSize(2);
+
+        PaginationResponseModel response = dao.executeKeysetQuery(filters(null, null), nextPage);
+
+        assertThat(boundValues).containsExactly("Euro", 978);
+        assertThat(response.getCount()).isNull();
+        assertThat(response.getContinuationToken()).isNull();
+        verify(entityManager, times(1)).createQuery(countQuery);
+    }
+
+    @Test
+    void shouldSeekWithinNullSortValues() {
+        when(typedQuery.getResultList()).thenReturn(Arrays.asList(currency(null, 784), currency(null, 978)));
+        PaginationModel firstPage = keysetPagination("currencyName", "ASC", null);
+        firstPage.setPageSize(1);
+        firstPage.setSkipCount(true);
+        PaginationResponseModel first = dao.executeKeysetQuery(filters(null, null), firstPage);
+        PaginationModel nextPage = keysetPagination("currencyName", "ASC", first.getContinuationToken());
+        nextPage.setPageSize(1);
+
+        dao.executeKeysetQuery(filters(null, null), nextPage);
+
+        assertThat(first.getCount()).isNull();
+        assertThat(boundValues).containsExactly(784);
+        verify(criteriaBuilder).isNull(path);
+        verify(entityManager, never()).createQuery(countQuery);
+    }
+
+    @Test
+    void shouldRejectContinuationTokenOfAnotherSortOrder() {
+        when(typedQuery.getResultList()).thenReturn(Arrays.asList(currency("Dirham", 784), currency("Euro", 978)));
+        PaginationModel firstPage = keysetPagination("currencyName", "ASC", null);
+        firstPage.setPageSize(1);
+        String token = dao.executeKeysetQuery(filters(null, null), firstPage).getContinuationToken();
+
+        assertThatThrownBy(() -> dao.executeKeysetQuery(filters(null, null), keysetPagination("currencyName", "DESC", token)))
+                .isInstanceOf(InvalidContinuationTokenException.class);
+        assertThatThrownBy(() -> dao.executeKeysetQuery(filters(null, null), keysetPagination("currencyName", "ASC", "not-a-token")))
+                .isInstanceOf(InvalidContinuationTokenException.class);
+    }
+
+    @Test
+    void shouldRejectGarbageAndTamperedContinuationTokens() {
+        String notJson = Base64.getUrlEncoder().encodeToString("garbage".getBytes(StandardCharsets.UTF_8));
+        String tamperedId = Base64.getUrlEncoder().encodeToString(
+                "{\"s\":\"currencyName\",\"a\":true,\"v\":\"Euro\",\"i\":\"x\"}".getBytes(StandardCharsets.UTF_8));
+
+        for (String token : Arrays.asList("%%%", notJson, tamperedId)) {
+            assertThatThrownBy(() -> dao.executeKeysetQuery(filters(null, null), keysetPagination("currencyName", "ASC", token)))
+                    .as(token).isInstanceOf(InvalidContinuationTokenException.class);
+        }
+    }
+
+    @Test
+    void shouldOrderKeysetPageByIdWithoutSortColumn() {
+        dao.executeKeysetQuery(filters(null, null), keysetPagination("-1", "ASC", null));
+
+        verify(criteriaBuilder).desc(idPath);
+        verify(criteriaBuilder, never()).asc(any());
+    }
+
+    @Test
+    void shouldPersistAllInChunksWithoutRefreshingEachEntity() {
+        ReflectionTestUtils.setField(dao, "batchSize", 2);
+        List<Currency> currencies = Arrays.asList(currency("Dirham", 784), currency("Euro", 978),
+                currency("Dollar", 840), currency("Pound", 826), currency("Rupee", 356));
+
+        dao.persistAll(currencies);
+
+        currencies.forEach(currency -> verify(entityManager).persist(currency));
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(4)).detach(any());
+        verify(entityManager, never()).detach(currencies.get(4));
+        verify(entityManager, never()).refresh(any());
+        verify(entityManager, never()).clear();
+    }
+
+    @Test
+    void shouldReturnMergedEntitiesOfUpdateAllInOrder() {
+        ReflectionTestUtils.setField(dao, "batchSize", 2);
+        Currency dirham = currency("Dirham", 784);
+        Currency euro = currency("Euro", 978);
+        Currency mergedDirham = currency("Dirham", 784);
+        Currency mergedEuro = currency("Euro", 978);
+        when(entityManager.merge(dirham)).thenReturn(mergedDirham);
+        when(entityManager.merge(euro)).thenReturn(mergedEuro);
+
+        List<Currency> merged = dao.updateAll(Arrays.asList(dirham, euro));
+
+        assertThat(merged).containsExactly(mergedDirham, mergedEuro);
+        verify(entityManager).detach(mergedDirham);
+        verify(entityManager).detach(mergedEuro);
+        verify(entityManager, times(2)).flush();
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void mockIdAttribute() {
+        Metamodel metamodel = mock(Metamodel.class);
+        EntityType<Currency> entityType = mock(EntityType.class);
+        Type idType = mock(Type.class);
+        SingularAttribute idAttribute = mock(SingularAttribute.class);
+        when(entityManager.getMetamodel()).thenReturn(metamodel);
+        when(metamodel.entity(Currency.class)).thenReturn(entityType);
+        when(entityType.getIdType()).thenReturn(idType);
+        when(idType.getJavaType()).thenReturn(Integer.class);
+        when(entityType.getId(Integer.class)).thenReturn(idAttribute);
+        when(idAttribute.getName()).thenReturn("currencyCode");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void enableTotalCountFunction() {
+        EntityManagerFactory factory = mock(EntityManagerFactory.class);
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class);
+        SQLFunctionRegistry registry = mock(SQLFunctionRegistry.class);
+        Session session = mock(Session.class);
+        when(entityManager.getEntityManagerFactory()).thenReturn(factory);
+        when(factory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getSqlFunctionRegistry()).thenReturn(registry);
+        when(registry.findSQLFunction(SimpleAccountsPostgreSQLDialect.TOTAL_COUNT_FUNCTION)).thenReturn(mock(SQLFunction.class));
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.doReturningWork(any(ReturningWork.class))).thenReturn("PostgreSQL");
+    }
+
+    private static List<DbFilter> filters(String name, Integer code) {
+        return Arrays.asList(
+                DbFilter.builder().dbCoulmnName("currencyName").condition(" like CONCAT(:currencyName,'%')").value(name).build(),
+                DbFilter.builder().dbCoulmnName("currencyCode").condition(" = :currencyCode").value(code).build());
+    }
+
+    private static PaginationModel pagination(String sortingCol, String order) {
+        PaginationModel paginationModel = new PaginationModel();
+        paginationModel.setSortingCol(sortingCol);
+        paginationModel.setOrder(order);
+        return paginationModel;
+    }
+
+    private static PaginationModel keysetPagination(String sortingCol, String order, String continuationToken) {
+        PaginationModel paginationModel = pagination(sortingCol, order);
+        paginationModel.setKeysetPagination(true);
+        paginationModel.setContinuationToken(continuationToken);
+        return paginationModel;
+    }
+
+    private static Currency currency(String name, Integer code) {
+        Currency currency = new Currency();
+        currency.setCurrencyName(name);
+        currency.setCurrencyCode(code);
+        return currency;
+    }
+
+    private static class CurrencyDao extends AbstractDao<Integer, Currency> {
+    }
+}
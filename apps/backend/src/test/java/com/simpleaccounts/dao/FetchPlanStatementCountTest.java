@@ -0,0 +1,196 @@
+package com.simpleaccounts.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.simpleaccounts.constant.DatatableSortingFilterConstant;
+import com.simpleaccounts.constant.ProductPriceType;
+import com.simpleaccounts.dao.bankaccount.TransactionCategoryDao;
+import com.simpleaccounts.dao.impl.ProductDaoImpl;
+import com.simpleaccounts.dao.impl.UserDaoImpl;
+import com.simpleaccounts.dao.impl.bankaccount.TransactionCategoryDaoImpl;
+import com.simpleaccounts.entity.Company;
+import com.simpleaccounts.entity.Product;
+import com.simpleaccounts.entity.ProductLineItem;
+import com.simpleaccounts.entity.Role;
+import com.simpleaccounts.entity.User;
+import com.simpleaccounts.entity.bankaccount.ChartOfAccount;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.security.CustomUserDetails;
+import com.simpleaccounts.service.TransactionCategoryService;
+import com.simpleaccounts.service.bankaccount.ChartOfAccountService;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Counts the SQL statements of the loads behind the busiest endpoints, so that an association turned eager again
+ * or a fetch plan that stops applying shows up as a failing test rather than as slower pages.
+ */
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fetchplandb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({UserDaoImpl.class, ProductDaoImpl.class, TransactionCategoryDaoImpl.class,
+        DatatableSortingFilterConstant.class})
+class FetchPlanStatementCountTest {
+
+    @MockBean
+    private ChartOfAccountService chartOfAccountService;
+
+    @MockBean
+    private TransactionCategoryService transactionCategoryService;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private ProductDao productDao;
+
+    @Autowired
+    private TransactionCategoryDao transactionCategoryDao;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    private Integer productId;
+
+    @BeforeEach
+    void setUp() {
+        ChartOfAccount income = chartOfAccount("Income", "INC");
+        ChartOfAccount expense = chartOfAccount("Expense", "EXP");
+        TransactionCategory sales = transactionCategory("Sales", "SALES", income);
+        TransactionCategory purchases = transactionCategory("Purchases", "PURCHASES", expense);
+        for (int i = 0; i < 5; i++) {
+            Product product = product("Product " + i);
+            lineItem(product, ProductPriceType.SALES, sales);
+            lineItem(product, ProductPriceType.PURCHASE, purchases);
+            productId = product.getProductID();
+        }
+        user("owner@example.com");
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void authenticatedPrincipalIsOneStatement() {
+        User user = userDao.getUserByEmail("owner@example.com").orElseThrow();
+        CustomUserDetails principal = new CustomUserDetails(user);
+
+        assertThat(principal.getRole().getRoleName()).isEqualTo("Admin");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void productDetailIsOneStatement() {
+        Product product = productDao.findByPK(productId, Product.DETAIL_GRAPH);
+
+        assertThat(product.getLineItemList()).hasSize(2)
+                .extracting(lineItem -> lineItem.getTransactioncategory().getChartOfAccount().getChartOfAccountCode())
+                .containsExactlyInAnyOrder("INC", "EXP");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void productListBatchesTheLineItemsOfThePage() {
+        List<Product> products = entityManager.createQuery("select p from Product p", Product.class).getResultList();
+        List<String> accountCodes = new ArrayList<>();
+        for (Product product : products) {
+            for (ProductLineItem lineItem : product.getLineItemList()) {
+                accountCodes.add(lineItem.getTransactioncategory().getChartOfAccount().getChartOfAccountCode());
+            }
+        }
+
+        assertThat(accountCodes).hasSize(10);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void postingCategoryIsOneStatement() {
+        TransactionCategory category = transactionCategoryDao.findTransactionCategoryByTransactionCategoryCode("SALES");
+
+        assertThat(category.getChartOfAccount().getChartOfAccountCode()).isEqualTo("INC");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private ChartOfAccount chartOfAccount(String name, String code) {
+        ChartOfAccount chartOfAccount = new ChartOfAccount();
+        chartOfAccount.setChartOfAccountName(name);
+        chartOfAccount.setChartOfAccountCode(code);
+        chartOfAccount.setDebitCreditFlag('C');
+        chartOfAccount.setDefaltFlag('N');
+        entityManager.persist(chartOfAccount);
+        return chartOfAccount;
+    }
+
+    private TransactionCategory transactionCategory(String name, String code, ChartOfAccount chartOfAccount) {
+        TransactionCategory transactionCategory = new TransactionCategory();
+        transactionCategory.setTransactionCategoryName(name);
+        transactionCategory.setTransactionCategoryCode(code);
+        transactionCategory.setChartOfAccount(chartOfAccount);
+        transactionCategory.setDefaltFlag('N');
+        transactionCategory.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(transactionCategory);
+        return transactionCategory;
+    }
+
+    private Product product(String name) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setCreatedDate(LocalDateTime.now());
+        product.setIsInventoryEnabled(Boolean.FALSE);
+        product.setExciseStatus(Boolean.FALSE);
+        product.setExciseType(Boolean.FALSE);
+        entityManager.persist(product);
+        return product;
+    }
+
+    private void lineItem(Product product, ProductPriceType priceType, TransactionCategory transactionCategory) {
+        ProductLineItem lineItem = new ProductLineItem();
+        lineItem.setProduct(product);
+        lineItem.setPriceType(priceType);
+        lineItem.setUnitPrice(BigDecimal.TEN);
+        lineItem.setTransactioncategory(transactionCategory);
+        lineItem.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(lineItem);
+    }
+
+    private void user(String email) {
+        Company company = new Company();
+        company.setCompanyName("Acme");
+        entityManager.persist(company);
+        Role role = new Role();
+        role.setRoleName("Admin");
+        role.setDefaultFlag('N');
+        entityManager.persist(role);
+        User user = new User();
+        user.setUserEmail(email);
+        user.setFirstName("Owner");
+        user.setCompany(company);
+        user.setRole(role);
+        user.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(user);
+    }
+}
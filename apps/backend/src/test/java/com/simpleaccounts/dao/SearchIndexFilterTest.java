@@ -0,0 +1,137 @@
+package com.simpleaccounts.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.simpleaccounts.constant.DatatableSortingFilterConstant;
+import com.simpleaccounts.constant.dbfilter.ProductFilterEnum;
+import com.simpleaccounts.dao.impl.ProductDaoImpl;
+import com.simpleaccounts.entity.Product;
+import com.simpleaccounts.rest.PaginationModel;
+import com.simpleaccounts.rest.PaginationResponseModel;
+import com.simpleaccounts.search.SearchDocument;
+import com.simpleaccounts.search.SearchIndex;
+import com.simpleaccounts.service.TransactionCategoryService;
+import com.simpleaccounts.service.bankaccount.ChartOfAccountService;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Runs the contains filters of a list against H2 with the {@link SearchIndex} in place. The index is built from
+ * part of the rows on purpose, so which rows come back tells whether the ids it found were applied.
+ */
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:searchfilterdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false"
+})
+@Import({ProductDaoImpl.class, DatatableSortingFilterConstant.class, SearchIndex.class})
+class SearchIndexFilterTest {
+
+    @MockBean
+    private ChartOfAccountService chartOfAccountService;
+
+    @MockBean
+    private TransactionCategoryService transactionCategoryService;
+
+    @Autowired
+    private ProductDao productDao;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Product bluePen;
+
+    private Product redPen;
+
+    @BeforeEach
+    void setUp() {
+        bluePen = product("Blue Pen");
+        redPen = product("Red Pen");
+        product("Paper");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void readsOnlyTheRowsTheIndexFinds() {
+        buildIndex(bluePen);
+
+        assertThat(names(productDao.getProductList(filters("Pen", Boolean.FALSE), null))).containsExactly("Blue Pen");
+        assertThat(names(productDao.getProductList(filters("Pen", Boolean.FALSE), new PaginationModel())))
+                .containsExactly("Blue Pen");
+    }
+
+    @Test
+    void keepsTheLikeFilterOnTheRowsTheIndexFinds() {
+        buildIndex(bluePen, redPen);
+
+        assertThat(names(productDao.getProductList(filters("Blue", Boolean.FALSE), null)))
+                .containsExactly("Blue Pen");
+        // the index ignores case, the like filter does not
+        assertThat(names(productDao.getProductList(filters("pen", Boolean.FALSE), null))).isEmpty();
+    }
+
+    @Test
+    void fallsBackToLikeWhenTheIndexCannotNarrow() {
+        buildIndex(bluePen);
+
+        assertThat(names(productDao.getProductList(filters("Pen", null), null)))
+                .as("deleted rows not filtered out").containsExactlyInAnyOrder("Blue Pen", "Red Pen");
+        assertThat(names(productDao.getProductList(filters("Ink", Boolean.FALSE), null)))
+                .as("no id found").isEmpty();
+        assertThat(names(productDao.getProductList(filters("-", Boolean.FALSE), null)))
+                .as("no letter or digit").isEmpty();
+    }
+
+    private void buildIndex(Product... products) {
+        searchIndex.startRebuild();
+        searchIndex.finishRebuild(Arrays.stream(products).map(SearchDocument::of).collect(Collectors.toList()));
+    }
+
+    private static Map<ProductFilterEnum, Object> filters(String name, Boolean deleteFlag) {
+        Map<ProductFilterEnum, Object> filterMap = new EnumMap<>(ProductFilterEnum.class);
+        filterMap.put(ProductFilterEnum.PRODUCT_NAME, name);
+        if (deleteFlag != null) {
+            filterMap.put(ProductFilterEnum.DELETE_FLAG, deleteFlag);
+        }
+        return filterMap;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> names(PaginationResponseModel response) {
+        return ((List<Product>) response.getData()).stream().map(Product::getProductName)
+                .collect(Collectors.toList());
+    }
+
+    private Product product(String name) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setCreatedDate(LocalDateTime.now());
+        product.setIsInventoryEnabled(Boolean.FALSE);
+        product.setExciseStatus(Boolean.FALSE);
+        product.setExciseType(Boolean.FALSE);
+        entityManager.persist(product);
+        return product;
+    }
+}
@@ -0,0 +1,143 @@
+package com.simpleaccounts.dao.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.simpleaccounts.entity.DashboardMonthlyBalance;
+import com.simpleaccounts.entity.bankaccount.ChartOfAccount;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:dashboardmonthlydb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false"
+})
+@Import(DashboardMonthlyBalanceDaoImpl.class)
+class DashboardMonthlyBalanceDaoImplTest {
+
+    private static final LocalDate JAN = LocalDate.of(2024, 1, 1);
+    private static final LocalDate FEB = LocalDate.of(2024, 2, 1);
+    private static final LocalDate MAR = LocalDate.of(2024, 3, 1);
+
+    @Autowired
+    private DashboardMonthlyBalanceDaoImpl dashboardMonthlyBalanceDao;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private TransactionCategory sales;
+
+    private TransactionCategory rent;
+
+    @BeforeEach
+    void setUp() {
+        sales = persistCategory("INC", "Sales");
+        rent = persistCategory("EXP", "Rent");
+    }
+
+    @Test
+    void addToMonthUpdatesOnlyExistingRowOfThatMonth() {
+        persistMonthlyBalance(sales, JAN, "100.00");
+
+        int updated = dashboardMonthlyBalanceDao.addToMonth(sales, JAN, new BigDecimal("25.00"));
+        int missing = dashboardMonthlyBalanceDao.addToMonth(sales, FEB, new BigDecimal("25.00"));
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(missing).isZero();
+        assertThat(closingBalance(sales, JAN)).isEqualByComparingTo("125.00");
+    }
+
+    @Test
+    void addToMonthsAfterMovesLaterMonthsOfCategoryOnly() {
+        persistMonthlyBalance(sales, JAN, "100.00");
+        persistMonthlyBalance(sales, FEB, "150.00");
+        persistMonthlyBalance(sales, MAR, "180.00");
+        persistMonthlyBalance(rent, MAR, "40.00");
+
+        int updated = dashboardMonthlyBalanceDao.addToMonthsAfter(sales, JAN, new BigDecimal("-10.00"));
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(closingBalance(sales, JAN)).isEqualByComparingTo("100.00");
+        assertThat(closingBalance(sales, FEB)).isEqualByComparingTo("140.00");
+        assertThat(closingBalance(sales, MAR)).isEqualByComparingTo("170.00");
+        assertThat(closingBalance(rent, MAR)).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    void getListByChartOfAccountCodesReturnsMonthsInRangeInOrder() {
+        persistMonthlyBalance(sales, MAR, "180.00");
+        persistMonthlyBalance(sales, JAN, "100.00");
+        persistMonthlyBalance(rent, FEB, "40.00");
+        persistMonthlyBalance(sales, LocalDate.of(2023, 12, 1), "90.00");
+        entityManager.clear();
+
+        List<DashboardMonthlyBalance> result = dashboardMonthlyBalanceDao.getListByChartOfAccountCodes(JAN, MAR,
+                Arrays.asList("INC", "EXP"));
+
+        assertThat(result).extracting(DashboardMonthlyBalance::getBalanceMonth).containsExactly(JAN, FEB, MAR);
+        assertThat(result.get(1).getTransactionCategory().getChartOfAccount().getChartOfAccountCode()).isEqualTo("EXP");
+        assertThat(dashboardMonthlyBalanceDao.getListByChartOfAccountCodes(JAN, MAR, Collections.singletonList("INC")))
+                .hasSize(2);
+        assertThat(dashboardMonthlyBalanceDao.getListByChartOfAccountCodes(JAN, MAR, Collections.emptyList())).isEmpty();
+    }
+
+    private BigDecimal closingBalance(TransactionCategory category, LocalDate month) {
+        entityManager.clear();
+        return entityManager.getEntityManager().createQuery("select b.closingBalance from DashboardMonthlyBalance b "
+                + "where b.transactionCategory = :category and b.balanceMonth = :month", BigDecimal.class)
+                .setParameter("category", category)
+                .setParameter("month", month)
+                .getSingleResult();
+    }
+
+    private void persistMonthlyBalance(TransactionCategory category, LocalDate month, String closingBalance) {
+        DashboardMonthlyBalance monthlyBalance = new DashboardMonthlyBalance();
+        monthlyBalance.setTransactionCategory(category);
+        monthlyBalance.setBalanceMonth(month);
+        monthlyBalance.setClosingBalance(new BigDecimal(closingBalance));
+        dashboardMonthlyBalanceDao.persist(monthlyBalance);
+    }
+
+    private TransactionCategory persistCategory(String chartOfAccountCode, String name) {
+        ChartOfAccount chartOfAccount = new ChartOfAccount();
+        chartOfAccount.setChartOfAccountName(name);
+        chartOfAccount.setChartOfAccountCode(chartOfAccountCode);
+        chartOfAccount.setDebitCreditFlag('C');
+        chartOfAccount.setDefaltFlag('N');
+        chartOfAccount.setDeleteFlag(false);
+        chartOfAccount.setOrderSequence(1);
+        chartOfAccount.setLastUpdateDate(new java.util.Date());
+        entityManager.persist(chartOfAccount);
+
+        TransactionCategory category = new TransactionCategory();
+        category.setTransactionCategoryName(name);
+        category.setTransactionCategoryCode(chartOfAccountCode + "-" + name);
+        category.setChartOfAccount(chartOfAccount);
+        category.setDefaltFlag('N');
+        category.setSelectableFlag(true);
+        category.setEditableFlag(true);
+        category.setIsMigratedRecord(false);
+        category.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(category);
+        entityManager.flush();
+        return category;
+    }
+}
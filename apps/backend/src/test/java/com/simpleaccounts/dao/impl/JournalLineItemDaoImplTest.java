@@ -0,0 +1,143 @@
+package com.simpleaccounts.dao.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.simpleaccounts.constant.DatatableSortingFilterConstant;
+import com.simpleaccounts.entity.Journal;
+import com.simpleaccounts.entity.JournalLineItem;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.rest.detailedgeneralledgerreport.ReportRequestModel;
+import com.simpleaccounts.utils.DateFormatUtil;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class JournalLineItemDaoImplTest {
+
+    private static final LocalDate JAN_05 = LocalDate.of(2024, 1, 5);
+    private static final LocalDate JAN_20 = LocalDate.of(2024, 1, 20);
+
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private DateFormatUtil dateFormatUtil;
+    @Mock
+    private DatatableSortingFilterConstant datatableUtil;
+
+    @InjectMocks
+    private JournalLineItemDaoImpl journalLineItemDao;
+
+    private final LinkedList<List<JournalLineItem>> results = new LinkedList<>();
+    private final List<String> queries = new ArrayList<>();
+    private final List<Map<String, Object>> parameters = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(journalLineItemDao, "entityManager", entityManager);
+        when(entityManager.createQuery(anyString(), eq(JournalLineItem.class))).thenAnswer(invocation -> {
+            queries.add(invocation.getArgument(0));
+            Map<String, Object> queryParameters = new HashMap<>();
+            parameters.add(queryParameters);
+            TypedQuery<JournalLineItem> query = mock(TypedQuery.class);
+            when(query.setParameter(anyString(), any())).thenAnswer(parameter -> {
+                queryParameters.put(parameter.getArgument(0), parameter.getArgument(1));
+                return query;
+            });
+            when(query.setMaxResults(anyInt())).thenReturn(query);
+            when(query.getResultList()).thenAnswer(result -> results.isEmpty() ? Collections.emptyList() : results.poll());
+            return query;
+        });
+    }
+
+    @Test
+    void shouldReadChunksAfterLastCategoryDateAndId() {
+        results.add(Arrays.asList(lineItem(1, 10, JAN_05), lineItem(7, 10, JAN_20)));
+        results.add(Collections.singletonList(lineItem(3, 20, JAN_05)));
+        List<List<JournalLineItem>> chunks = new ArrayList<>();
+
+        journalLineItemDao.processListOrderedByCategory(request(), 2, chunks::add);
+
+        assertThat(chunks).hasSize(2);
+        assertThat(queries).hasSize(2);
+        assertThat(queries.get(0)).doesNotContain(":lastLineItemId")
+                .endsWith("order by tc.transactionCategoryId, j.journalDate, jn.id");
+        assertThat(queries.get(1)).contains(":lastLineItemId");
+        assertThat(parameters.get(1)).containsEntry("lastCategoryId", 10)
+                .containsEntry("lastJournalDate", JAN_20)
+                .containsEntry("lastLineItemId", 7)
+                .containsEntry("startDate", LocalDate.of(2024, 1, 1))
+                .containsEntry("endDate", LocalDate.of(2024, 1, 31));
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void shouldStopWhenFirstChunkIsEmpty() {
+        List<List<JournalLineItem>> chunks = new ArrayList<>();
+
+        journalLineItemDao.processListOrderedByCategory(request(), 500, chunks::add);
+
+        assertThat(chunks).isEmpty();
+        assertThat(queries).hasSize(1);
+    }
+
+    @Test
+    void shouldKeepCategoryFilterInsideDateRange() {
+        ReportRequestModel request = request();
+        request.setChartOfAccountId(84);
+        request.setReportBasis("CASH");
+
+        journalLineItemDao.processListOrderedByCategory(request, 500, chunk -> { });
+
+        assertThat(queries.get(0)).contains("where j.journalDate between :startDate and :endDate and (tc.transactionCategoryId = "
+                + ":transactionCategoryId or ptc.transactionCategoryId = :transactionCategoryId"
+                + " or tc.transactionCategoryCode in :transactionCategoryCodes)");
+        assertThat(parameters.get(0)).containsEntry("transactionCategoryId", 84)
+                .containsEntry("transactionCategoryCodes", Arrays.asList("01-01-001", "02-01-001"));
+    }
+
+    private static ReportRequestModel request() {
+        ReportRequestModel request = new ReportRequestModel();
+        request.setStartDate("01/01/2024");
+        request.setEndDate("31/01/2024");
+        return request;
+    }
+
+    private static JournalLineItem lineItem(int id, int transactionCategoryId, LocalDate journalDate) {
+        TransactionCategory category = new TransactionCategory();
+        category.setTransactionCategoryId(transactionCategoryId);
+        Journal journal = new Journal();
+        journal.setJournalDate(journalDate);
+        JournalLineItem lineItem = new JournalLineItem();
+        lineItem.setId(id);
+        lineItem.setTransactionCategory(category);
+        lineItem.setJournal(journal);
+        return lineItem;
+    }
+}
@@ -11,6 +11,9 @@ import com.simpleaccounts.entity.bankaccount.TransactionCategory;
 import com.simpleaccounts.utils.DateUtils;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -104,18 +107,36 @@ class TransactionDaoImplTest {
     }
 
     @Test
-    void isAlreadyExistSimilarTransactionDetectsExactDuplicate() {
-        LocalDateTime date = LocalDateTime.of(2024, 3, 1, 12, 0);
-        BigDecimal amount = new BigDecimal("250.00");
-        String description = "POS-REF-250";
-        persistTransaction(bankAccount, date, amount, new BigDecimal("1250.00"),
-                TransactionExplinationStatusEnum.NOT_EXPLAIN, description);
-
-        boolean exists = transactionDao.isAlreadyExistSimilarTransaction(amount, date, bankAccount, description);
-        boolean missing = transactionDao.isAlreadyExistSimilarTransaction(amount, date, bankAccount, "OTHER-REF");
-
-        assertThat(exists).isTrue();
-        assertThat(missing).isFalse();
+    void getExistingFingerprintsMatchesNormalisedRowsOfTheSameAccountInChunks() {
+        LocalDateTime date = LocalDateTime.of(2024, 3, 1, 0, 0);
+        persistTransaction(bankAccount, date, new BigDecimal("250.00"), new BigDecimal("1250.00"),
+                TransactionExplinationStatusEnum.NOT_EXPLAIN, "POS  REF 250");
+        Transaction deleted = persistTransaction(bankAccount, date, new BigDecimal("99.00"), new BigDecimal("1349.00"),
+                TransactionExplinationStatusEnum.NOT_EXPLAIN, "Reversed");
+        deleted.setDeleteFlag(true);
+        entityManager.flush();
+        BankAccount otherAccount = persistBankAccount("Other Bank");
+        persistTransaction(otherAccount, date, new BigDecimal("40.00"), new BigDecimal("40.00"),
+                TransactionExplinationStatusEnum.NOT_EXPLAIN, "Other account");
+
+        String booked = Transaction.fingerprintOf(bankAccount.getBankAccountId(), date.plusHours(9), 'C',
+                new BigDecimal("250"), " pos ref 250 ");
+        List<String> fingerprints = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            fingerprints.add(Transaction.fingerprintOf(bankAccount.getBankAccountId(), date, 'C',
+                    new BigDecimal(i), "Statement row " + i));
+        }
+        fingerprints.add(1200, booked);
+        fingerprints.add(Transaction.fingerprintOf(bankAccount.getBankAccountId(), date, 'D',
+                new BigDecimal("250.00"), "POS REF 250"));
+        fingerprints.add(Transaction.fingerprintOf(bankAccount.getBankAccountId(), date, 'C',
+                new BigDecimal("99.00"), "Reversed"));
+        fingerprints.add(Transaction.fingerprintOf(otherAccount.getBankAccountId(), date, 'C',
+                new BigDecimal("40.00"), "Other account"));
+
+        Set<String> existing = transactionDao.getExistingFingerprints(bankAccount.getBankAccountId(), fingerprints);
+
+        assertThat(existing).containsExactly(booked);
     }
 
     private BankAccount persistBankAccount(String name) {
@@ -0,0 +1,143 @@
+package com.simpleaccounts.helper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@DisplayName("DashboardCacheEvictor Tests")
+class DashboardCacheEvictorTest {
+
+    private static final YearMonth CURRENT = YearMonth.of(2024, 3);
+
+    private ConcurrentMapCacheManager cacheManager;
+
+    private DashboardCacheEvictor evictor;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager();
+        Clock clock = Clock.fixed(Instant.parse("2024-03-15T10:00:00Z"), ZoneId.of("UTC"));
+        evictor = new DashboardCacheEvictor(cacheManager, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict only profit and loss windows that reach back to the month, for all users")
+    void shouldEvictProfitLossWindowsCoveringMonth() {
+        Cache cache = cacheManager.getCache(DashboardCacheEvictor.PROFIT_LOSS);
+        cache.put("alice:1", "a1");
+        cache.put("alice:2", "a2");
+        cache.put("bob:3", "b3");
+        cache.put("bob:12", "b12");
+
+        evictor.evictProfitLoss(YearMonth.of(2024, 2));
+
+        assertThat(cache.get("alice:1")).isNotNull();
+        assertThat(cache.get("alice:2")).isNull();
+        assertThat(cache.get("bob:3")).isNull();
+        assertThat(cache.get("bob:12")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep every window for months after the current one")
+    void shouldIgnoreFutureMonths() {
+        Cache cache = cacheManager.getCache(DashboardCacheEvictor.CASH_FLOW);
+        cache.put(12, "c12");
+
+        evictor.evictCashFlow(CURRENT.plusMonths(1));
+
+        assertThat(cache.get(12)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should evict integer keyed charts by month count and clear all for unknown month")
+    void shouldEvictInvoiceChartsByMonthCount() {
+        Cache cache = cacheManager.getCache(DashboardCacheEvictor.INVOICE_CHART);
+        cache.put(3, "i3");
+        cache.put(6, "i6");
+
+        evictor.evictInvoiceChart(YearMonth.of(2023, 11));
+
+        assertThat(cache.get(3)).isNotNull();
+        assertThat(cache.get(6)).isNull();
+
+        evictor.evictInvoiceChart(null);
+
+        assertThat(cache.get(3)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should evict every chart of the bank account and the total balance")
+    void shouldEvictBankAccountCharts() {
+        Cache chart = cacheManager.getCache(DashboardCacheEvictor.BANK_CHART);
+        chart.put("7-3", "seven");
+        chart.put("7-null", "seven-year");
+        chart.put("71-3", "seventy-one");
+        Cache total = cacheManager.getCache(DashboardCacheEvictor.BANK_TOTAL_BALANCE);
+        total.put("total", "balance");
+
+        evictor.evictBankAccount(7, YearMonth.of(2020, 1));
+
+        assertThat(chart.get("7-3")).isNull();
+        assertThat(chart.get("7-null")).isNull();
+        assertThat(chart.get("71-3")).isNotNull();
+        assertThat(total.get("total")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should evict the inventory snapshot now and after commit")
+    void shouldEvictInventorySnapshot() {
+        TransactionSynchronizationManager.initSynchronization();
+        Cache cache = cacheManager.getCache(DashboardCacheEvictor.INVENTORY);
+        cache.put("snapshot", "before");
+
+        evictor.evictInventory();
+
+        assertThat(cache.get("snapshot")).isNull();
+        cache.put("snapshot", "stale");
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertThat(cache.get("snapshot")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should evict again after commit")
+    void shouldEvictAgainAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        Cache cache = cacheManager.getCache(DashboardCacheEvictor.CASH_FLOW);
+
+        evictor.evictCashFlow(CURRENT);
+        cache.put(1, "stale");
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+
+        assertThat(cache.get(1)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should treat a missing month count as a year")
+    void shouldCoverYearWithoutMonthCount() {
+        assertThat(DashboardCacheEvictor.covers(null, CURRENT.minusMonths(11), CURRENT)).isTrue();
+        assertThat(DashboardCacheEvictor.covers(null, CURRENT.minusMonths(12), CURRENT)).isFalse();
+        assertThat(DashboardCacheEvictor.covers(-1, CURRENT.minusYears(5), CURRENT)).isTrue();
+    }
+}
@@ -0,0 +1,117 @@
+package com.simpleaccounts.helper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simpleaccounts.helper.ReferenceDataRegistry.Snapshot;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@DisplayName("ReferenceDataRegistry Tests")
+class ReferenceDataRegistryTest {
+
+    private final ReferenceDataRegistry registry = new ReferenceDataRegistry(new ObjectMapper());
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should load once and share a read only snapshot between concurrent readers")
+    void shouldLoadOnceForConcurrentReaders() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Snapshot<List<String>>>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return registry.get(ReferenceDataRegistry.COUNTRIES, this::countries);
+                }));
+            }
+            start.countDown();
+            Snapshot<List<String>> first = futures.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Snapshot<List<String>>> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            }
+            assertThat(loads).hasValue(1);
+            assertThat(first.getData()).containsExactly("UAE", "India");
+            assertThatThrownBy(() -> first.getData().add("Oman")).isInstanceOf(UnsupportedOperationException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should derive the ETag from the content")
+    void shouldDeriveEtagFromContent() {
+        ReferenceDataRegistry other = new ReferenceDataRegistry(new ObjectMapper());
+
+        Snapshot<List<String>> countries = registry.get(ReferenceDataRegistry.COUNTRIES, this::countries);
+        Snapshot<List<String>> same = other.get(ReferenceDataRegistry.COUNTRIES, this::countries);
+        Snapshot<List<String>> states = registry.get(ReferenceDataRegistry.STATES + ":1",
+                () -> Arrays.asList("Dubai"));
+
+        assertThat(countries.getEtag()).startsWith("\"").endsWith("\"").isEqualTo(same.getEtag());
+        assertThat(states.getEtag()).isNotEqualTo(countries.getEtag());
+        assertThat(registry.respond(countries).getHeaders().getETag()).isEqualTo(countries.getEtag());
+        assertThat(registry.respond(countries).getHeaders().getCacheControl()).contains("no-cache", "private");
+        assertThat(registry.respond(countries).getHeaders().getLastModified()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should drop the key and its parameters, now and after commit")
+    void shouldInvalidateKeyAndParametersAfterCommitToo() {
+        registry.get(ReferenceDataRegistry.STATES + ":1", this::countries);
+        registry.get(ReferenceDataRegistry.STATES + ":2", this::countries);
+        registry.get(ReferenceDataRegistry.COUNTRIES, this::countries);
+        TransactionSynchronizationManager.initSynchronization();
+
+        registry.invalidate(ReferenceDataRegistry.STATES);
+
+        registry.get(ReferenceDataRegistry.STATES + ":1", this::countries);
+        registry.get(ReferenceDataRegistry.COUNTRIES, this::countries);
+        assertThat(loads).hasValue(4);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        registry.get(ReferenceDataRegistry.STATES + ":1", this::countries);
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    @DisplayName("Should not keep a snapshot that was invalidated while loading")
+    void shouldNotKeepSnapshotInvalidatedWhileLoading() {
+        Snapshot<List<String>> loading = registry.get(ReferenceDataRegistry.VAT_CATEGORIES, () -> {
+            registry.invalidate(ReferenceDataRegistry.VAT_CATEGORIES);
+            return countries();
+        });
+
+        assertThat(loading.getData()).containsExactly("UAE", "India");
+        assertThat(registry.get(ReferenceDataRegistry.VAT_CATEGORIES, this::countries)).isNotSameAs(loading);
+        assertThat(loads).hasValue(2);
+    }
+
+    private List<String> countries() {
+        loads.incrementAndGet();
+        return new ArrayList<>(Arrays.asList("UAE", "India"));
+    }
+}
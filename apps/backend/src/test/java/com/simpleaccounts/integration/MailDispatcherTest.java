@@ -0,0 +1,349 @@
+package com.simpleaccounts.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.simpleaccounts.constant.EmailStatusEnum;
+import com.simpleaccounts.dao.ActivityDao;
+import com.simpleaccounts.dao.EmailLogsDao;
+import com.simpleaccounts.dao.impl.EmailLogsDaoImpl;
+import com.simpleaccounts.entity.EmailLogs;
+import com.simpleaccounts.service.EmaiLogsService;
+import com.simpleaccounts.service.impl.EmailLogsServiceImpl;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the dispatcher against the EMAIL_LOGS outbox in H2 and a stand-in SMTP server on a local port.
+ */
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:mailoutboxdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false"
+})
+@Import({EmailLogsServiceImpl.class, EmailLogsDaoImpl.class})
+class MailDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @MockBean
+    private ActivityDao activityDao;
+
+    @Autowired
+    private EmaiLogsService emaiLogsService;
+
+    @Autowired
+    private EmailLogsDao emailLogsDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StandInSmtpServer smtpServer;
+
+    private JavaMailSenderImpl mailSender;
+
+    private MailSenderProvider mailSenderProvider;
+
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new StandInSmtpServer();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.getPort());
+        mailSenderProvider = mock(MailSenderProvider.class);
+        when(mailSenderProvider.getSender()).thenReturn(mailSender);
+        dispatcher = newDispatcher(2, 10);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        dispatcher.destroy();
+        smtpServer.close();
+        new TransactionTemplate(transactionManager).execute(status ->
+                emailLogsDao.getEntityManager().createQuery("delete from EmailLogs").executeUpdate());
+    }
+
+    @Test
+    void dispatchedMailsAreDeliveredAndMarkedSent() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            dispatcher.dispatch(MailDispatcher.emailLog("INVOICE", "billing@example.com", "customer" + i + "@example.com"),
+                    message("customer" + i + "@example.com", "Invoice " + i));
+        }
+
+        List<EmailLogs> sent = awaitStatus(EmailStatusEnum.SENT, 3);
+
+        assertThat(smtpServer.getSubjects()).containsExactlyInAnyOrder("Invoice 1", "Invoice 2", "Invoice 3");
+        assertThat(sent).allSatisfy(emailLog -> {
+            assertThat(emailLog.getAttempts()).isEqualTo(1);
+            assertThat(emailLog.getMimeMessage()).isNull();
+            assertThat(emailLog.getModuleName()).isEqualTo("INVOICE");
+        });
+        assertThat(dispatcher.getSentCount()).isEqualTo(3);
+        assertThat(dispatcher.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void dueMailsAreSentAsOneBatchOverOneConnection() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            persistPending("customer" + i + "@example.com", "Statement " + i);
+        }
+
+        int claimed = dispatcher.sendDue();
+
+        assertThat(claimed).isEqualTo(3);
+        assertThat(smtpServer.getConnectionCount()).isEqualTo(1);
+        assertThat(smtpServer.getSubjects()).containsExactly("Statement 1", "Statement 2", "Statement 3");
+        assertThat(dispatcher.sendDue()).isZero();
+    }
+
+    @Test
+    void rejectedMailIsRetriedUntilDelivered() throws Exception {
+        smtpServer.rejectNext(1);
+        EmailLogs emailLog = persistPending("customer@example.com", "Reminder");
+
+        dispatcher.sendDue();
+        EmailLogs afterFailure = emaiLogsService.findByPK(emailLog.getId());
+        dispatcher.sendDue();
+        EmailLogs afterRetry = emaiLogsService.findByPK(emailLog.getId());
+
+        assertThat(afterFailure.getStatus()).isEqualTo(EmailStatusEnum.PENDING);
+        assertThat(afterFailure.getAttempts()).isEqualTo(1);
+        assertThat(afterFailure.getLastError()).contains("451");
+        assertThat(afterFailure.getMimeMessage()).isNotEmpty();
+        assertThat(afterRetry.getStatus()).isEqualTo(EmailStatusEnum.SENT);
+        assertThat(afterRetry.getAttempts()).isEqualTo(2);
+        assertThat(afterRetry.getLastError()).isNull();
+        assertThat(smtpServer.getSubjects()).containsExactly("Reminder");
+        assertThat(dispatcher.getFailedAttemptCount()).isEqualTo(1);
+    }
+
+    @Test
+    void mailIsGivenUpAfterMaxAttempts() throws Exception {
+        smtpServer.rejectNext(Integer.MAX_VALUE);
+        EmailLogs emailLog = persistPending("customer@example.com", "Reminder");
+
+        for (int i = 0; i < MAX_ATTEMPTS + 1; i++) {
+            dispatcher.sendDue();
+        }
+
+        EmailLogs failed = emaiLogsService.findByPK(emailLog.getId());
+        assertThat(failed.getStatus()).isEqualTo(EmailStatusEnum.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(failed.getNextAttemptDate()).isNull();
+        assertThat(failed.getMimeMessage()).isNotEmpty();
+        assertThat(dispatcher.getGivenUpCount()).isEqualTo(1);
+        assertThat(smtpServer.getSubjects()).isEmpty();
+    }
+
+    @Test
+    void callerComposesWhenQueueIsFull() throws Exception {
+        dispatcher.destroy();
+        dispatcher = newDispatcher(1, 1);
+        CountDownLatch composing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> composerThreads = new CopyOnWriteArrayList<>();
+
+        dispatcher.dispatch(MailDispatcher.emailLog("MAIL", "a@example.com", "b@example.com"), mimeMessage -> {
+            composing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            message("b@example.com", "First").prepare(mimeMessage);
+        });
+        assertThat(composing.await(10, TimeUnit.SECONDS)).isTrue();
+        dispatcher.dispatch(MailDispatcher.emailLog("MAIL", "a@example.com", "b@example.com"), message("b@example.com", "Second"));
+        dispatcher.dispatch(MailDispatcher.emailLog("MAIL", "a@example.com", "b@example.com"), mimeMessage -> {
+            composerThreads.add(Thread.currentThread().getName());
+            message("b@example.com", "Third").prepare(mimeMessage);
+        });
+        release.countDown();
+
+        awaitStatus(EmailStatusEnum.SENT, 3);
+        assertThat(composerThreads).containsExactly(Thread.currentThread().getName());
+        assertThat(dispatcher.getComposedByCallerCount()).isEqualTo(1);
+        assertThat(smtpServer.getSubjects()).containsExactlyInAnyOrder("First", "Second", "Third");
+    }
+
+    private MailDispatcher newDispatcher(int threads, int queueCapacity) {
+        return new MailDispatcher(mailSenderProvider, emaiLogsService, threads, queueCapacity, 20, MAX_ATTEMPTS, 0, 0);
+    }
+
+    private EmailLogs persistPending(String to, String subject) throws Exception {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        message(to, subject).prepare(mimeMessage);
+        mimeMessage.saveChanges();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        mimeMessage.writeTo(content);
+        EmailLogs emailLog = MailDispatcher.emailLog("MAIL", "billing@example.com", to);
+        emailLog.setStatus(EmailStatusEnum.PENDING);
+        emailLog.setNextAttemptDate(LocalDateTime.now().minusSeconds(1));
+        emailLog.setMimeMessage(content.toByteArray());
+        emaiLogsService.persist(emailLog);
+        return emailLog;
+    }
+
+    private static MimeMessagePreparator message(String to, String subject) {
+        return mimeMessage -> {
+            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+            helper.setFrom("billing@example.com");
+            helper.setTo(to);
+            helper.setSubject(subject);
+            helper.setText("<p>" + subject + "</p>", true);
+        };
+    }
+
+    private List<EmailLogs> awaitStatus(EmailStatusEnum status, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        List<EmailLogs> matching;
+        do {
+            matching = emailLogsDao.dumpData().stream()
+                    .filter(emailLog -> emailLog.getStatus() == status)
+                    .collect(Collectors.toList());
+            if (matching.size() >= count) {
+                return matching;
+            }
+            Thread.sleep(50);
+        } while (System.currentTimeMillis() < deadline);
+        throw new AssertionError("Expected " + count + " mails in " + status + " but found " + matching.size());
+    }
+
+    /**
+     * Accepts SMTP sessions on a local port and records the subject of every accepted message.
+     */
+    private static class StandInSmtpServer implements Closeable {
+
+        private final ServerSocket serverSocket;
+
+        private final List<String> subjects = new CopyOnWriteArrayList<>();
+
+        private final AtomicInteger connections = new AtomicInteger();
+
+        private final AtomicInteger rejections = new AtomicInteger();
+
+        StandInSmtpServer() throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::accept, "stand-in-smtp");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        List<String> getSubjects() {
+            return subjects;
+        }
+
+        int getConnectionCount() {
+            return connections.get();
+        }
+
+        void rejectNext(int count) {
+            rejections.set(count);
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread session = new Thread(() -> serve(socket), "stand-in-smtp-session");
+                    session.setDaemon(true);
+                    session.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (Socket client = socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+                 PrintWriter out = new PrintWriter(client.getOutputStream(), true)) {
+                reply(out, "220 localhost stand-in SMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        String subject = readData(in);
+                        if (rejections.getAndUpdate(left -> Math.max(left - 1, 0)) > 0) {
+                            reply(out, "451 Try again later");
+                        } else {
+                            subjects.add(subject);
+                            reply(out, "250 OK");
+                        }
+                    } else if (command.startsWith("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // client went away
+            }
+        }
+
+        private static String readData(BufferedReader in) throws IOException {
+            String subject = null;
+            String line;
+            while ((line = in.readLine()) != null && !".".equals(line)) {
+                if (subject == null && line.startsWith("Subject: ")) {
+                    subject = line.substring("Subject: ".length());
+                }
+            }
+            return subject;
+        }
+
+        private static void reply(PrintWriter out, String reply) {
+            out.print(reply + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.simpleaccounts.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class PdfRendererTest {
+
+    private static final String INVOICE = "<html><body><h1>Invoice</h1><table><tr><td>Pen</td><td>10.00</td></tr>"
+            + "</table></body></html>";
+
+    private PdfRenderer pdfRenderer = new PdfRenderer(2, 10, 4);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pdfRenderer.destroy();
+    }
+
+    @Test
+    void renderConvertsOnceAndServesTheSameHtmlFromCache() {
+        byte[] first = pdfRenderer.render(INVOICE);
+        byte[] second = pdfRenderer.render(INVOICE);
+
+        assertThat(new String(first, 0, 4)).isEqualTo("%PDF");
+        assertThat(second).isSameAs(first);
+        assertThat(pdfRenderer.getRenderCount()).isEqualTo(1);
+        assertThat(pdfRenderer.getCacheHitCount()).isEqualTo(1);
+        assertThat(pdfRenderer.getCachedCount()).isEqualTo(1);
+        assertThat(pdfRenderer.getCachedBytes()).isEqualTo(first.length);
+    }
+
+    @Test
+    void renderAsyncSharesOneConversionBetweenConcurrentRequests() {
+        List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(pdfRenderer.renderAsync(INVOICE));
+        }
+
+        byte[] pdf = futures.get(0).join();
+
+        for (CompletableFuture<byte[]> future : futures) {
+            assertThat(future.join()).isSameAs(pdf);
+        }
+        assertThat(pdfRenderer.getRenderCount()).isEqualTo(1);
+        assertThat(pdfRenderer.render(INVOICE.replace("Pen", "Ink"))).isNotSameAs(pdf);
+        assertThat(pdfRenderer.getRenderCount()).isEqualTo(2);
+    }
+
+    @Test
+    void renderToStreamWritesThroughAndCachesTheDocument() throws Exception {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+
+        pdfRenderer.render(INVOICE, response);
+
+        assertThat(new String(response.toByteArray(), 0, 4)).isEqualTo("%PDF");
+        assertThat(pdfRenderer.render(INVOICE)).isEqualTo(response.toByteArray());
+        ByteArrayOutputStream again = new ByteArrayOutputStream();
+        pdfRenderer.render(INVOICE, again);
+        assertThat(again.toByteArray()).isEqualTo(response.toByteArray());
+        assertThat(pdfRenderer.getRenderCount()).isEqualTo(1);
+    }
+
+    @Test
+    void disabledCacheRendersEveryTime() throws Exception {
+        PdfRenderer uncached = new PdfRenderer(1, 1, 0);
+        try {
+            uncached.render(INVOICE);
+            uncached.render(INVOICE, new ByteArrayOutputStream());
+
+            assertThat(uncached.getRenderCount()).isEqualTo(2);
+            assertThat(uncached.getCachedCount()).isZero();
+        } finally {
+            uncached.destroy();
+        }
+    }
+
+    @Test
+    void renderAsyncReportsMissingHtmlThroughTheFuture() {
+        CompletableFuture<byte[]> future = pdfRenderer.renderAsync(null);
+
+        assertThatThrownBy(future::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void renderAsyncFailsTheFutureOnceShutDown() throws Exception {
+        pdfRenderer.destroy();
+
+        CompletableFuture<byte[]> future = pdfRenderer.renderAsync(INVOICE);
+
+        assertThat(future).isCompletedExceptionally();
+        assertThatThrownBy(future::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(pdfRenderer.getRenderedByCallerCount()).isZero();
+        assertThat(pdfRenderer.renderAsync(INVOICE)).isCompletedExceptionally();
+    }
+}
@@ -13,6 +13,7 @@ import java.io.IOException;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
@@ -64,6 +65,44 @@ class ExcelParserTest {
         assertThat(errors).contains("2,0", "2,2");
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    void parseImportDataShouldStillReadLegacyXlsWorkbooks() throws IOException {
+        TransactionParsingSettingDetailModel model = buildModel();
+        model.setDateFormatId(1);
+        DateFormat format = new DateFormat();
+        format.setFormat("dd/MM/yyyy");
+        when(dateFormatDao.findByPK(1)).thenReturn(format);
+
+        MockMultipartFile file;
+        try (HSSFWorkbook workbook = new HSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("Sheet1");
+            String[][] rows = {
+                    {"Transaction Date", "Description", "Debit Amount", "Credit Amount"},
+                    {"1/5/2024", "Short date", "", "20"}
+            };
+            for (int i = 0; i < rows.length; i++) {
+                Row row = sheet.createRow(i);
+                for (int j = 0; j < rows[i].length; j++) {
+                    row.createCell(j).setCellValue(rows[i][j]);
+                }
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            workbook.write(outputStream);
+            file = new MockMultipartFile("file", "sample.xls", "application/vnd.ms-excel", outputStream.toByteArray());
+        }
+
+        Map<String, Object> result = excelParser.parseImportData(model, file);
+
+        List<Map<String, String>> rows = (List<Map<String, String>>) result.get("data");
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0))
+                .containsEntry("Transaction Date", "01/05/2024")
+                .containsEntry("Debit Amount", "0")
+                .containsEntry("Credit Amount", "20");
+        assertThat((List<String>) result.get("error")).isEmpty();
+    }
+
     private TransactionParsingSettingDetailModel buildModel() {
         TransactionParsingSettingDetailModel model = new TransactionParsingSettingDetailModel();
         model.setHeaderRowNo(1);
@@ -0,0 +1,30 @@
+package com.simpleaccounts.parserengine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import org.junit.jupiter.api.Test;
+
+class StatementDateFormatsTest {
+
+    @Test
+    void parsesTheDatePatternsOfTheTemplatesLeniently() {
+        assertThat(StatementDateFormats.parse("dd/MM/yyyy", "1/5/2024")).isEqualTo(LocalDateTime.of(2024, 5, 1, 0, 0));
+        assertThat(StatementDateFormats.parse("dd-MMM-yy", "05-JAN-24")).isEqualTo(LocalDateTime.of(2024, 1, 5, 0, 0));
+        assertThat(StatementDateFormats.parse("dd MMMM yyyy", " 5 January 2024 "))
+                .isEqualTo(LocalDateTime.of(2024, 1, 5, 0, 0));
+        assertThat(StatementDateFormats.parse("dd/MM/yyyy HH:mm", "01/05/2024 13:45"))
+                .isEqualTo(LocalDateTime.of(2024, 5, 1, 13, 45));
+        assertThatThrownBy(() -> StatementDateFormats.parse("dd/MM/yyyy", "2024-12-01"))
+                .isInstanceOf(DateTimeParseException.class);
+    }
+
+    @Test
+    void normalizeRewritesTheValueWithThePatternOrReturnsEmpty() {
+        assertThat(StatementDateFormats.normalize("dd/MM/yyyy", "1/5/2024")).isEqualTo("01/05/2024");
+        assertThat(StatementDateFormats.normalize("dd/MM/yyyy", "bad-date")).isEmpty();
+        assertThat(StatementDateFormats.getFormatter("dd/MM/yyyy")).isSameAs(StatementDateFormats.getFormatter("dd/MM/yyyy"));
+    }
+}
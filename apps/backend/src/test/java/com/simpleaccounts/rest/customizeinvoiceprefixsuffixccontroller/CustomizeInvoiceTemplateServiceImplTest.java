@@ -0,0 +1,124 @@
+package com.simpleaccounts.rest.customizeinvoiceprefixsuffixccontroller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.simpleaccounts.dao.ActivityDao;
+import com.simpleaccounts.entity.CustomizeInvoiceTemplate;
+import com.simpleaccounts.utils.InvoiceNumberUtil;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:invoicenumberingdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false"
+})
+@Import({CustomizeInvoiceTemplateServiceImpl.class, CustomizeInvoiceTemplateDaoImpl.class, InvoiceNumberUtil.class})
+class CustomizeInvoiceTemplateServiceImplTest {
+
+    private static final int EXPENSE = 10;
+
+    @MockBean
+    private ActivityDao activityDao;
+
+    @Autowired
+    private CustomizeInvoiceTemplateService customizeInvoiceTemplateService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.execute(status -> {
+            CustomizeInvoiceTemplate template = new CustomizeInvoiceTemplate();
+            template.setType(EXPENSE);
+            template.setPrefix("EXP-");
+            template.setSuffix(7);
+            entityManager.persist(template);
+            return null;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.execute(status ->
+                entityManager.createQuery("delete from CustomizeInvoiceTemplate").executeUpdate());
+    }
+
+    @Test
+    void allocateNextNumberHandsOutEveryNumberOnceUnderConcurrency() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<String>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < 20; i++) {
+                futures.add(executor.submit(() -> customizeInvoiceTemplateService.allocateNextNumber(EXPENSE)));
+            }
+            Set<String> numbers = new HashSet<>();
+            for (Future<String> future : futures) {
+                numbers.add(future.get());
+            }
+
+            assertThat(numbers).hasSize(20).contains("EXP-8", "EXP-27");
+            assertThat(counter()).isEqualTo(27);
+            assertThat(customizeInvoiceTemplateService.getLastInvoice(EXPENSE)).isEqualTo("EXP-28");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void recordNumberOnlyMovesForwardWithinThePrefix() {
+        customizeInvoiceTemplateService.recordNumber(EXPENSE, "EXP-12");
+        assertThat(counter()).isEqualTo(12);
+
+        customizeInvoiceTemplateService.recordNumber(EXPENSE, "EXP-3");
+        customizeInvoiceTemplateService.recordNumber(EXPENSE, "EXP-");
+        assertThat(customizeInvoiceTemplateService.getLastInvoice(EXPENSE)).isEqualTo("EXP-13");
+
+        customizeInvoiceTemplateService.recordNumber(EXPENSE, "EX2024/1");
+        assertThat(customizeInvoiceTemplateService.getLastInvoice(EXPENSE)).isEqualTo("EX2024/2");
+    }
+
+    @Test
+    void unknownTypeHasNothingToAllocate() {
+        assertThat(customizeInvoiceTemplateService.allocateNextNumber(99)).isNull();
+        customizeInvoiceTemplateService.recordNumber(99, "INV-1");
+        assertThat(counter()).isEqualTo(7);
+    }
+
+    private Integer counter() {
+        return transactionTemplate.execute(status ->
+                customizeInvoiceTemplateService.getInvoiceTemplate(EXPENSE).getSuffix());
+    }
+}
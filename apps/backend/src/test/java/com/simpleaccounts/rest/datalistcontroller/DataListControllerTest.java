@@ -0,0 +1,74 @@
+package com.simpleaccounts.rest.datalistcontroller;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simpleaccounts.entity.IndustryType;
+import com.simpleaccounts.helper.ReferenceDataRegistry;
+import com.simpleaccounts.service.IndustryTypeService;
+import java.util.Collections;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DataListController Unit Tests")
+class DataListControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private IndustryTypeService industryTypeService;
+
+    @Spy
+    private ReferenceDataRegistry referenceDataRegistry = new ReferenceDataRegistry(new ObjectMapper());
+
+    @InjectMocks
+    private DataListController dataListController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(dataListController).build();
+    }
+
+    @Test
+    @DisplayName("Should answer a matching If-None-Match with 304 without reading the table again")
+    void industryTypesAreRevalidatedWithTheirEtag() throws Exception {
+        IndustryType industryType = new IndustryType();
+        industryType.setId(1);
+        industryType.setIndustryTypeName("Trading");
+        when(industryTypeService.getIndustryTypes()).thenReturn(Collections.singletonList(industryType));
+
+        String etag = mockMvc.perform(get("/rest/datalist/getIndustryTypes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].label").value("Trading"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/rest/datalist/getIndustryTypes").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        referenceDataRegistry.invalidate(ReferenceDataRegistry.INDUSTRY_TYPES);
+        industryType.setIndustryTypeName("Services");
+
+        mockMvc.perform(get("/rest/datalist/getIndustryTypes").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].label").value("Services"));
+        verify(industryTypeService, times(2)).getIndustryTypes();
+    }
+}
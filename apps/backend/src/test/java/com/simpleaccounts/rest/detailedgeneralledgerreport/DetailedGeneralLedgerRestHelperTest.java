@@ -0,0 +1,247 @@
+package com.simpleaccounts.rest.detailedgeneralledgerreport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simpleaccounts.constant.PostingReferenceTypeEnum;
+import com.simpleaccounts.entity.Contact;
+import com.simpleaccounts.entity.Invoice;
+import com.simpleaccounts.entity.Journal;
+import com.simpleaccounts.entity.JournalLineItem;
+import com.simpleaccounts.entity.TransactionCategoryClosingBalance;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.service.InvoiceService;
+import com.simpleaccounts.service.JournalLineItemService;
+import com.simpleaccounts.service.TransactionCategoryClosingBalanceService;
+import com.simpleaccounts.utils.DateFormatUtil;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DetailedGeneralLedgerRestHelperTest {
+
+    private static final LocalDate JAN_05 = LocalDate.of(2024, 1, 5);
+    private static final LocalDate JAN_20 = LocalDate.of(2024, 1, 20);
+
+    @Mock
+    private JournalLineItemService journalLineItemService;
+    @Mock
+    private TransactionCategoryClosingBalanceService transactionCategoryClosingBalanceService;
+    @Mock
+    private InvoiceService invoiceService;
+    @Mock
+    private DateFormatUtil dateUtil;
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private DetailedGeneralLedgerRestHelper helper;
+
+    private final List<List<JournalLineItem>> chunks = new ArrayList<>();
+    private final List<Collection<Object>> invoiceQueryIds = new ArrayList<>();
+    private final List<Invoice> invoices = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(dateUtil.getLocalDateTimeAsString(any(), anyString())).thenAnswer(invocation ->
+                invocation.<LocalDateTime>getArgument(0).format(DateTimeFormatter.ofPattern(invocation.getArgument(1))));
+        when(transactionCategoryClosingBalanceService.getList(any())).thenReturn(Collections.emptyList());
+        doAnswer(invocation -> {
+            Consumer<List<JournalLineItem>> consumer = invocation.getArgument(2);
+            chunks.forEach(consumer);
+            return null;
+        }).when(journalLineItemService).processListOrderedByCategory(any(), anyInt(), any());
+        when(entityManager.createQuery(DetailedGeneralLedgerRestHelper.INVOICES_QUERY, Invoice.class)).thenAnswer(invocation -> {
+            TypedQuery<Invoice> query = mock(TypedQuery.class);
+            when(query.setParameter(eq("ids"), any())).thenAnswer(parameter -> {
+                invoiceQueryIds.add(parameter.getArgument(1));
+                return query;
+            });
+            when(query.getResultList()).thenReturn(invoices);
+            return query;
+        });
+    }
+
+    @Test
+    void shouldFrameEachCategoryWithBalanceRowsAcrossChunks() {
+        chunks.add(Arrays.asList(manual(10, JAN_05, "40.00", null), manual(10, JAN_20, null, "15.00")));
+        chunks.add(Arrays.asList(manual(10, JAN_20, "5.00", null), manual(20, JAN_05, null, "60.00")));
+        when(transactionCategoryClosingBalanceService.getList(any()))
+                .thenReturn(Collections.singletonList(closingBalance(10, "-100.00", "250.00")));
+
+        List<Object> report = helper.getDetailedGeneralLedgerReport(request());
+
+        assertThat(report).hasSize(2);
+        List<DetailedGeneralLedgerReportListModel> first = rows(report.get(0));
+        assertThat(first).extracting(DetailedGeneralLedgerReportListModel::getPostingReferenceTypeEnum)
+                .containsExactly("Opening Balance", "Manual", "Manual", "Manual", "Closing Balance");
+        assertThat(first.get(0).getDate()).isEqualTo("As on 01/01/2024");
+        assertThat(first.get(0).getCreditAmount()).isEqualByComparingTo("100.00");
+        assertThat(first.get(0).getTransactionTypeName()).isEqualTo("Category 10");
+        assertThat(first.get(4).getDate()).isEqualTo("As on 31/01/2024");
+        assertThat(first.get(4).getDebitAmount()).isEqualByComparingTo("250.00");
+        assertThat(rows(report.get(1))).extracting(DetailedGeneralLedgerReportListModel::getDate)
+                .containsExactly("05/01/2024");
+    }
+
+    @Test
+    void shouldLoadInvoicesOfChunkWithOneQuery() {
+        invoices.add(invoice(501, "INV-501", "Acme LLC"));
+        invoices.add(invoice(502, "INV-502", null));
+        chunks.add(Arrays.asList(invoiceLine(501, "100.00"), invoiceLine(502, "20.00"), invoiceLine(501, "5.00")));
+
+        List<Object> report = helper.getDetailedGeneralLedgerReport(request());
+
+        assertThat(invoiceQueryIds).hasSize(1);
+        assertThat(invoiceQueryIds.get(0)).containsExactlyInAnyOrder(501, 502);
+        verify(invoiceService, never()).findByPK(any());
+        assertThat(rows(report.get(0))).extracting(DetailedGeneralLedgerReportListModel::getName)
+                .containsExactly("Acme LLC", "John Smith", "Acme LLC");
+    }
+
+    @Test
+    void shouldFallBackToSingleLookupForMissingInvoice() {
+        Invoice invoice = invoice(503, "INV-503", "Late Co");
+        when(invoiceService.findByPK(503)).thenReturn(invoice);
+        chunks.add(Collections.singletonList(invoiceLine(503, "10.00")));
+
+        List<Object> report = helper.getDetailedGeneralLedgerReport(request());
+
+        verify(invoiceService, times(1)).findByPK(503);
+        assertThat(rows(report.get(0)).get(0).getTransactonRefNo()).isEqualTo("INV-503");
+    }
+
+    @Test
+    void shouldStreamSameJsonAsList() throws Exception {
+        chunks.add(Arrays.asList(manual(10, JAN_05, "40.00", null), manual(20, JAN_20, null, "15.00")));
+        when(transactionCategoryClosingBalanceService.getList(any()))
+                .thenReturn(Collections.singletonList(closingBalance(20, "30.00", "-45.00")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        helper.writeDetailedGeneralLedgerReport(request(), DetailedGeneralLedgerExportFormat.JSON, out);
+
+        List<Object> report = helper.getDetailedGeneralLedgerReport(request());
+        assertThat(objectMapper.readTree(out.toByteArray()))
+                .isEqualTo(objectMapper.readTree(objectMapper.writeValueAsBytes(report)));
+    }
+
+    @Test
+    void shouldWriteCsvRecordPerRow() throws Exception {
+        chunks.add(Arrays.asList(manual(10, JAN_05, "40.00", null), manual(10, JAN_20, null, "15.00")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        helper.writeDetailedGeneralLedgerReport(request(), DetailedGeneralLedgerExportFormat.CSV, out);
+
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo(String.join(",", DetailedGeneralLedgerCsvWriter.HEADER));
+        assertThat(lines[1]).isEqualTo("Category 10,05/01/2024,Manual,,,JV-1,40.00,,40.00");
+        assertThat(lines[2]).isEqualTo("Category 10,20/01/2024,Manual,,,JV-1,,15.00,15.00");
+    }
+
+    @Test
+    void shouldReturnEmptyReportWithoutLineItems() {
+        assertThat(helper.getDetailedGeneralLedgerReport(request())).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<DetailedGeneralLedgerReportListModel> rows(Object category) {
+        return (List<DetailedGeneralLedgerReportListModel>) category;
+    }
+
+    private static ReportRequestModel request() {
+        ReportRequestModel request = new ReportRequestModel();
+        request.setStartDate("01/01/2024");
+        request.setEndDate("31/01/2024");
+        return request;
+    }
+
+    private static JournalLineItem manual(int transactionCategoryId, LocalDate journalDate, String debit, String credit) {
+        JournalLineItem lineItem = lineItem(transactionCategoryId, journalDate, PostingReferenceTypeEnum.MANUAL, 1);
+        lineItem.setDebitAmount(debit != null ? new BigDecimal(debit) : null);
+        lineItem.setCreditAmount(credit != null ? new BigDecimal(credit) : null);
+        return lineItem;
+    }
+
+    private static JournalLineItem invoiceLine(int invoiceId, String credit) {
+        JournalLineItem lineItem = lineItem(30, JAN_05, PostingReferenceTypeEnum.INVOICE, invoiceId);
+        lineItem.setCreditAmount(new BigDecimal(credit));
+        lineItem.setDebitAmount(BigDecimal.ZERO);
+        return lineItem;
+    }
+
+    private static JournalLineItem lineItem(int transactionCategoryId, LocalDate journalDate,
+            PostingReferenceTypeEnum referenceType, int referenceId) {
+        TransactionCategory category = new TransactionCategory();
+        category.setTransactionCategoryId(transactionCategoryId);
+        category.setTransactionCategoryName("Category " + transactionCategoryId);
+        Journal journal = new Journal();
+        journal.setJournalDate(journalDate);
+        journal.setJournlReferencenNo("JV-1");
+        JournalLineItem lineItem = new JournalLineItem();
+        lineItem.setTransactionCategory(category);
+        lineItem.setJournal(journal);
+        lineItem.setReferenceType(referenceType);
+        lineItem.setReferenceId(referenceId);
+        return lineItem;
+    }
+
+    private static Invoice invoice(int id, String referenceNumber, String organization) {
+        Contact contact = new Contact();
+        contact.setOrganization(organization);
+        contact.setFirstName("John");
+        contact.setLastName("Smith");
+        Invoice invoice = new Invoice();
+        invoice.setId(id);
+        invoice.setReferenceNumber(referenceNumber);
+        invoice.setType(2);
+        invoice.setContact(contact);
+        return invoice;
+    }
+
+    private static TransactionCategoryClosingBalance closingBalance(int transactionCategoryId, String opening, String closing) {
+        TransactionCategory category = new TransactionCategory();
+        category.setTransactionCategoryId(transactionCategoryId);
+        TransactionCategoryClosingBalance balance = new TransactionCategoryClosingBalance();
+        balance.setTransactionCategory(category);
+        balance.setOpeningBalance(new BigDecimal(opening));
+        balance.setClosingBalance(new BigDecimal(closing));
+        balance.setClosingBalanceDate(LocalDateTime.of(2024, 1, 31, 0, 0));
+        return balance;
+    }
+}
@@ -1,11 +1,15 @@
 package com.simpleaccounts.rest.invoicecontroller;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.simpleaccounts.entity.Invoice;
+import com.simpleaccounts.entity.Role;
+import com.simpleaccounts.entity.User;
+import com.simpleaccounts.exceptions.InvalidContinuationTokenException;
 import com.simpleaccounts.helper.ExpenseRestHelper;
 import com.simpleaccounts.repository.JournalLineItemRepository;
 import com.simpleaccounts.repository.QuotationInvoiceRepository;
@@ -28,6 +32,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import javax.servlet.http.HttpServletRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -91,4 +96,22 @@ class InvoiceRestControllerTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void shouldReturnBadRequestForGarbageContinuationToken() throws Exception {
+        Role role = new Role();
+        role.setRoleCode(1);
+        User user = new User();
+        user.setRole(role);
+        when(jwtTokenUtil.getUserIdFromHttpRequest(any(HttpServletRequest.class))).thenReturn(1);
+        when(userService.findByPK(1)).thenReturn(user);
+        when(invoiceService.getInvoiceList(any(), any()))
+                .thenThrow(new InvalidContinuationTokenException("Invalid continuation token"));
+
+        mockMvc.perform(get("/rest/invoice/getList")
+                .param("keysetPagination", "true")
+                .param("continuationToken", "garbage")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
 }
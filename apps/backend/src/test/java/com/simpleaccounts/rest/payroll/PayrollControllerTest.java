@@ -0,0 +1,59 @@
+package com.simpleaccounts.rest.payroll;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.simpleaccounts.rest.payroll.model.PayslipJobModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+@ExtendWith(MockitoExtension.class)
+class PayrollControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private PayslipJobRunner payslipJobRunner;
+
+    @InjectMocks
+    private PayrollController payrollController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(payrollController).build();
+    }
+
+    @Test
+    void getPayslipProgressReturnsTheProgressOfTheRun() throws Exception {
+        PayslipJobModel progress = new PayslipJobModel();
+        progress.setPayrollId(5);
+        progress.setStatus(PayslipJobRunner.STATUS_RUNNING);
+        progress.setTotal(3);
+        progress.setSent(1);
+        progress.setFailed(1);
+        when(payslipJobRunner.getProgress(5)).thenReturn(progress);
+
+        mockMvc.perform(get("/rest/payroll/getPayslipProgress").param("payrollId", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(PayslipJobRunner.STATUS_RUNNING))
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.sent").value(1))
+                .andExpect(jsonPath("$.failed").value(1));
+    }
+
+    @Test
+    void getPayslipProgressReturnsNotFoundForUnknownRun() throws Exception {
+        when(payslipJobRunner.getProgress(6)).thenReturn(null);
+
+        mockMvc.perform(get("/rest/payroll/getPayslipProgress").param("payrollId", "6"))
+                .andExpect(status().isNotFound());
+    }
+}
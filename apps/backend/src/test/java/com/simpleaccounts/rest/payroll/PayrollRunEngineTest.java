@@ -0,0 +1,173 @@
+package com.simpleaccounts.rest.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.simpleaccounts.constant.PostingReferenceTypeEnum;
+import com.simpleaccounts.entity.Employee;
+import com.simpleaccounts.entity.Journal;
+import com.simpleaccounts.entity.JournalLineItem;
+import com.simpleaccounts.entity.Payroll;
+import com.simpleaccounts.entity.Salary;
+import com.simpleaccounts.entity.User;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.repository.PayrollRepository;
+import com.simpleaccounts.rest.payroll.service.SalaryService;
+import com.simpleaccounts.service.CoacTransactionCategoryService;
+import com.simpleaccounts.service.EmployeeTransactioncategoryService;
+import com.simpleaccounts.service.JournalService;
+import com.simpleaccounts.service.TransactionCategoryService;
+import com.simpleaccounts.service.bankaccount.ChartOfAccountService;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PayrollRunEngineTest {
+
+    private static final int PAYROLL_ID = 5;
+
+    @Mock
+    private SalaryService salaryService;
+    @Mock
+    private PayrollRepository payrollRepository;
+    @Mock
+    private TransactionCategoryService transactionCategoryService;
+    @Mock
+    private ChartOfAccountService chartOfAccountService;
+    @Mock
+    private CoacTransactionCategoryService coacTransactionCategoryService;
+    @Mock
+    private EmployeeTransactioncategoryService employeeTransactioncategoryService;
+    @Mock
+    private JournalService journalService;
+    @Mock
+    private PayslipJobRunner payslipJobRunner;
+
+    @InjectMocks
+    private PayrollRunEngine payrollRunEngine;
+
+    private final User user = new User();
+    private final Payroll payroll = new Payroll();
+    private final TransactionCategory payrollLiability = category(200);
+
+    @BeforeEach
+    void setUp() {
+        user.setUserId(3);
+        payroll.setId(PAYROLL_ID);
+        payroll.setPayrollDate(LocalDateTime.of(2024, 1, 31, 0, 0));
+        payroll.setPayrollSubject("January salaries");
+        when(payrollRepository.findById(PAYROLL_ID)).thenReturn(payroll);
+    }
+
+    @Test
+    void shouldPostTheJournalsOfAllEmployeesTogether() {
+        when(salaryService.findByAttributes(anyMap())).thenReturn(Arrays.asList(
+                salary(1, 1, "1000"), salary(1, 2, "250"), salary(2, 2, "3000"), salary(2, 1, "2000")));
+        when(transactionCategoryService.findByAttributes(anyMap()))
+                .thenReturn(Collections.singletonList(payrollLiability));
+        Map<Integer, List<TransactionCategory>> employeeCategories = new HashMap<>();
+        employeeCategories.put(1, Arrays.asList(category(101), category(111)));
+        employeeCategories.put(2, Arrays.asList(category(102), category(112)));
+        when(employeeTransactioncategoryService.getTransactionCategoriesByEmployeeIds(any()))
+                .thenReturn(employeeCategories);
+
+        payrollRunEngine.approveAndRun(user, PAYROLL_ID, "01/01/2024", "31/01/2024", Arrays.asList(1, 2));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Journal>> journals = ArgumentCaptor.forClass(List.class);
+        verify(journalService).postJournals(journals.capture());
+        assertThat(journals.getValue()).hasSize(2);
+        Journal first = journals.getValue().get(0);
+        assertThat(first.getJournalDate()).isEqualTo(LocalDate.of(2024, 1, 31));
+        assertThat(first.getPostingReferenceType()).isEqualTo(PostingReferenceTypeEnum.PAYROLL_APPROVED);
+        assertThat(first.getDescription()).isEqualTo("January salaries");
+        assertThat(first.getJournalLineItems()).extracting(line -> line.getTransactionCategory().getTransactionCategoryId())
+                .containsExactly(200, 111);
+        assertThat(first.getJournalLineItems()).extracting(JournalLineItem::getReferenceId)
+                .containsOnly(PAYROLL_ID);
+        List<JournalLineItem> lines = new ArrayList<>(first.getJournalLineItems());
+        assertThat(lines.get(0).getCreditAmount()).isEqualByComparingTo("1000");
+        assertThat(lines.get(1).getDebitAmount()).isEqualByComparingTo("1000");
+        assertThat(journals.getValue().get(1).getJournalLineItems())
+                .extracting(line -> line.getTransactionCategory().getTransactionCategoryId())
+                .containsExactly(200, 112);
+        verify(employeeTransactioncategoryService).getTransactionCategoriesByEmployeeIds(
+                new LinkedHashSet<>(Arrays.asList(1, 2)));
+        assertThat(payroll.getStatus()).isEqualTo("Approved");
+        assertThat(payroll.getPayrollApprover()).isEqualTo(3);
+        verify(payrollRepository).save(payroll);
+        verify(payslipJobRunner).submit(PAYROLL_ID, 3, Arrays.asList(1, 2), "31/01/2024", "01/01/2024",
+                "31/01/2024");
+    }
+
+    @Test
+    void shouldPostNothingWhenAnEmployeePartWayThroughHasNoSalaryCategory() {
+        when(salaryService.findByAttributes(anyMap())).thenReturn(Arrays.asList(
+                salary(1, 1, "1000"), salary(2, 1, "2000"), salary(3, 1, "1500")));
+        when(transactionCategoryService.findByAttributes(anyMap()))
+                .thenReturn(Collections.singletonList(payrollLiability));
+        Map<Integer, List<TransactionCategory>> employeeCategories = new HashMap<>();
+        employeeCategories.put(1, Arrays.asList(category(101), category(111)));
+        employeeCategories.put(2, Collections.singletonList(category(102)));
+        employeeCategories.put(3, Arrays.asList(category(103), category(113)));
+        when(employeeTransactioncategoryService.getTransactionCategoriesByEmployeeIds(any()))
+                .thenReturn(employeeCategories);
+
+        assertThatThrownBy(() -> payrollRunEngine.approveAndRun(user, PAYROLL_ID, null, null, Arrays.asList(1, 2, 3)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Employee 2");
+
+        verify(journalService, never()).postJournals(any());
+        verify(payrollRepository, never()).save(any());
+        verifyNoInteractions(payslipJobRunner);
+        assertThat(payroll.getStatus()).isNull();
+    }
+
+    @Test
+    void shouldOnlyQueueThePayslipsWhenThereIsNothingToPost() {
+        when(salaryService.findByAttributes(anyMap())).thenReturn(Collections.singletonList(salary(1, 2, "250")));
+
+        payrollRunEngine.approveAndRun(user, PAYROLL_ID, null, null, Collections.emptyList());
+
+        verifyNoInteractions(journalService, transactionCategoryService, employeeTransactioncategoryService);
+        verify(payrollRepository, never()).save(any());
+        verify(payslipJobRunner).submit(PAYROLL_ID, 3, Collections.emptyList(), "31/01/2024", null, null);
+    }
+
+    private static Salary salary(int employeeId, int type, String totalAmount) {
+        Employee employee = new Employee();
+        employee.setId(employeeId);
+        Salary salary = new Salary();
+        salary.setEmployeeId(employee);
+        salary.setType(type);
+        salary.setTotalAmount(new BigDecimal(totalAmount));
+        return salary;
+    }
+
+    private static TransactionCategory category(int id) {
+        TransactionCategory category = new TransactionCategory();
+        category.setTransactionCategoryId(id);
+        return category;
+    }
+}
@@ -0,0 +1,120 @@
+package com.simpleaccounts.rest.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.simpleaccounts.entity.User;
+import com.simpleaccounts.rest.payroll.model.PayslipJobModel;
+import com.simpleaccounts.rest.payroll.service.SalaryService;
+import com.simpleaccounts.service.UserService;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class PayslipJobRunnerTest {
+
+    private static final String SALARY_DATE = "31/01/2024";
+
+    private SalaryService salaryService;
+    private SalaryRestHelper salaryRestHelper;
+    private UserService userService;
+    private PlatformTransactionManager transactionManager;
+    private PayslipJobRunner payslipJobRunner;
+    private final User user = new User();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        salaryService = mock(SalaryService.class);
+        salaryRestHelper = mock(SalaryRestHelper.class);
+        userService = mock(UserService.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        ObjectProvider<SalaryRestHelper> helperProvider = mock(ObjectProvider.class);
+        when(helperProvider.getObject()).thenReturn(salaryRestHelper);
+        when(userService.findByPK(7)).thenReturn(user);
+        payslipJobRunner = new PayslipJobRunner(salaryService, helperProvider, userService, transactionManager, 2);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        payslipJobRunner.destroy();
+    }
+
+    @Test
+    void shouldReportProgressWhileSendingThePayslips() throws Exception {
+        SalarySlipModel first = new SalarySlipModel();
+        SalarySlipModel second = new SalarySlipModel();
+        when(salaryService.getSalaryByEmployeeId(1, SALARY_DATE)).thenReturn(first);
+        when(salaryService.getSalaryByEmployeeId(2, SALARY_DATE)).thenReturn(second);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+            return null;
+        }).when(salaryRestHelper).sendPayslipEmail(first, 1, "01/01/2024", "31/01/2024", user);
+
+        PayslipJobModel queued = payslipJobRunner.submit(11, 7, Arrays.asList(1, 2), SALARY_DATE, "01/01/2024",
+                "31/01/2024");
+
+        assertThat(queued.getTotal()).isEqualTo(2);
+        assertThat(queued.getQueuedAt()).isNotNull();
+        assertThat(sending.await(10, TimeUnit.SECONDS)).isTrue();
+        PayslipJobModel running = payslipJobRunner.getProgress(11);
+        assertThat(running.getStatus()).isEqualTo(PayslipJobRunner.STATUS_RUNNING);
+        assertThat(running.getSent()).isZero();
+        assertThat(running.getStartedAt()).isNotNull();
+
+        release.countDown();
+        payslipJobRunner.destroy();
+
+        PayslipJobModel completed = payslipJobRunner.getProgress(11);
+        assertThat(completed.getStatus()).isEqualTo(PayslipJobRunner.STATUS_COMPLETED);
+        assertThat(completed.getSent()).isEqualTo(2);
+        assertThat(completed.getFailed()).isZero();
+        assertThat(completed.getFinishedAt()).isNotNull();
+        verify(salaryRestHelper).sendPayslipEmail(second, 2, "01/01/2024", "31/01/2024", user);
+    }
+
+    @Test
+    void shouldSkipAnEmployeeWhosePayslipFailsAndGoOn() throws Exception {
+        SalarySlipModel slip = new SalarySlipModel();
+        when(salaryService.getSalaryByEmployeeId(any(), eq(SALARY_DATE))).thenReturn(slip);
+        doThrow(new IllegalStateException("mail server down")).when(salaryRestHelper)
+                .sendPayslipEmail(slip, 2, null, null, user);
+
+        payslipJobRunner.submit(12, 7, Arrays.asList(1, 2, 3), SALARY_DATE, null, null);
+        payslipJobRunner.destroy();
+
+        PayslipJobModel progress = payslipJobRunner.getProgress(12);
+        assertThat(progress.getStatus()).isEqualTo(PayslipJobRunner.STATUS_COMPLETED);
+        assertThat(progress.getTotal()).isEqualTo(3);
+        assertThat(progress.getSent()).isEqualTo(2);
+        assertThat(progress.getFailed()).isEqualTo(1);
+        verify(salaryRestHelper).sendPayslipEmail(slip, 3, null, null, user);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void shouldKeepOnlyTheLatestRuns() throws Exception {
+        payslipJobRunner.submit(1, 7, null, SALARY_DATE, null, null);
+        payslipJobRunner.submit(2, 7, null, SALARY_DATE, null, null);
+        payslipJobRunner.submit(3, 7, null, SALARY_DATE, null, null);
+        payslipJobRunner.destroy();
+
+        assertThat(payslipJobRunner.getProgress(1)).isNull();
+        assertThat(payslipJobRunner.getProgress(2).getStatus()).isEqualTo(PayslipJobRunner.STATUS_COMPLETED);
+        assertThat(payslipJobRunner.getProgress(3).getTotal()).isZero();
+    }
+}
@@ -18,6 +18,7 @@ import com.simpleaccounts.repository.TransactionExpensesRepository;
 import com.simpleaccounts.rest.PaginationResponseModel;
 import com.simpleaccounts.rest.transactioncategorycontroller.TranscationCategoryHelper;
 import com.simpleaccounts.security.JwtTokenUtil;
+import com.simpleaccounts.security.UserPrincipalCache;
 import com.simpleaccounts.service.BankAccountService;
 import com.simpleaccounts.service.ChartOfAccountCategoryService;
 import com.simpleaccounts.service.ContactService;
@@ -72,6 +73,7 @@ class ReconsilationControllerTest {
     @MockBean private OSValidator osValidator;
     @MockBean private CustomUserDetailsService customUserDetailsService;
     @MockBean private JwtTokenUtil jwtTokenUtil;
+    @MockBean private UserPrincipalCache userPrincipalCache;
 
     @TestConfiguration
     static class StaticResourceConfigMocks {
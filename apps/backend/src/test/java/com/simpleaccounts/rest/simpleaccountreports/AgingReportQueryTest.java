@@ -0,0 +1,130 @@
+package com.simpleaccounts.rest.simpleaccountreports;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.simpleaccounts.entity.Contact;
+import com.simpleaccounts.entity.Invoice;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:agingreportdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false"
+})
+class AgingReportQueryTest {
+
+    private static final LocalDate END_DATE = LocalDate.of(2024, 3, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Contact acme;
+
+    private Contact jane;
+
+    @BeforeEach
+    void setUp() {
+        acme = persistContact("Joe", "Doe", "Acme");
+        jane = persistContact("Jane", "Roe", null);
+    }
+
+    @Test
+    void shouldSumOutstandingBaseAmountPerContactAndBucket() {
+        persistInvoice(acme, 0, 3, "10.00", null, null);
+        persistInvoice(acme, 15, 3, "16.00", "2");
+        persistInvoice(acme, 16, 5, "17.00", "2");
+        persistInvoice(acme, 30, 3, "31.00", "2");
+        persistInvoice(acme, 31, 3, "32.00", "2");
+        persistInvoice(acme, 100, 5, "101.00", "2");
+        persistInvoice(jane, 45, 3, "50.00", "1");
+        persistInvoice(jane, 1, 3, null, "1", "8.00");
+
+        List<Object[]> rows = runQuery(Arrays.asList(15, 30));
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)[0]).isEqualTo(acme.getContactId());
+        assertThat(amounts(rows.get(0))).containsExactly("42.00", "96.00", "266.00", "404.00");
+        assertThat(rows.get(1)[0]).isEqualTo(jane.getContactId());
+        assertThat(amounts(rows.get(1))).containsExactly("8.00", "0.00", "50.00", "58.00");
+    }
+
+    @Test
+    void shouldSkipSettledDraftDeletedLaterAndFullyPaidContacts() {
+        persistInvoice(acme, 5, 6, "10.00", "1");
+        persistInvoice(acme, 5, 2, "10.00", "1");
+        persistInvoice(acme, -1, 3, "10.00", "1");
+        Invoice deleted = persistInvoice(acme, 5, 3, "10.00", "1");
+        deleted.setDeleteFlag(true);
+        persistInvoice(acme, 5, 3, "0.00", "1");
+        persistInvoice(jane, 5, 3, "0.00", "1");
+        persistInvoice(jane, 70, 3, "25.00", "1");
+
+        List<Object[]> rows = runQuery(Arrays.asList(30, 60, 90));
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)[0]).isEqualTo(jane.getContactId());
+        assertThat(amounts(rows.get(0))).containsExactly("0.00", "0.00", "25.00", "0.00", "25.00");
+    }
+
+    private List<Object[]> runQuery(List<Integer> bucketDays) {
+        entityManager.flush();
+        javax.persistence.TypedQuery<Object[]> query = entityManager.getEntityManager()
+                .createQuery(SimpleAccountReportDaoImpl.buildAgingQuery(bucketDays.size()), Object[].class)
+                .setParameter("type", 2)
+                .setParameter("statuses", Arrays.asList(3, 5))
+                .setParameter("endDate", END_DATE);
+        for (int i = 0; i < bucketDays.size(); i++) {
+            query.setParameter("cutoff" + i, END_DATE.minusDays(bucketDays.get(i)));
+        }
+        return query.getResultList();
+    }
+
+    private static String[] amounts(Object[] row) {
+        return Arrays.stream(row, 4, row.length)
+                .map(value -> ((BigDecimal) value).setScale(2, BigDecimal.ROUND_HALF_UP).toPlainString())
+                .toArray(String[]::new);
+    }
+
+    private Contact persistContact(String firstName, String lastName, String organization) {
+        Contact contact = new Contact();
+        contact.setFirstName(firstName);
+        contact.setLastName(lastName);
+        contact.setOrganization(organization);
+        contact.setCreatedDate(LocalDateTime.now());
+        return entityManager.persist(contact);
+    }
+
+    private Invoice persistInvoice(Contact contact, int age, int status, String dueAmount, String exchangeRate) {
+        return persistInvoice(contact, age, status, dueAmount, exchangeRate, "999.00");
+    }
+
+    private Invoice persistInvoice(Contact contact, int age, int status, String dueAmount, String exchangeRate,
+                                   String totalAmount) {
+        Invoice invoice = new Invoice();
+        invoice.setContact(contact);
+        invoice.setType(2);
+        invoice.setStatus(status);
+        invoice.setInvoiceDate(END_DATE.minusDays(age));
+        invoice.setTotalAmount(totalAmount != null ? new BigDecimal(totalAmount) : null);
+        invoice.setDueAmount(dueAmount != null ? new BigDecimal(dueAmount) : null);
+        invoice.setExchangeRate(exchangeRate != null ? new BigDecimal(exchangeRate) : null);
+        invoice.setCreatedDate(LocalDateTime.now());
+        return entityManager.persist(invoice);
+    }
+}
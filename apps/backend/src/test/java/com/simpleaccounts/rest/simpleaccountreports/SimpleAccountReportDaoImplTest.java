@@ -0,0 +1,330 @@
+package com.simpleaccounts.rest.simpleaccountreports;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.simpleaccounts.constant.InvoiceTypeConstant;
+import com.simpleaccounts.entity.Company;
+import com.simpleaccounts.entity.Currency;
+import com.simpleaccounts.entity.VatTaxAgency;
+import com.simpleaccounts.repository.CompanyRepository;
+import com.simpleaccounts.repository.TaxAgencyRepository;
+import com.simpleaccounts.rest.simpleaccountreports.Aging.AgingListModel;
+import com.simpleaccounts.rest.simpleaccountreports.Aging.AgingRequestModel;
+import com.simpleaccounts.rest.simpleaccountreports.Aging.AgingResponseModel;
+import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditContactModel;
+import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditJsonWriter;
+import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditLineModel;
+import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditRequestModel;
+import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditResponseModel;
+import com.simpleaccounts.rest.simpleaccountreports.FTA.FtaAuditSettlementModel;
+import com.simpleaccounts.rest.simpleaccountreports.FTA.GeneralLedgerListingResponseModel;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SimpleAccountReportDaoImplTest {
+
+    private static final LocalDate JAN_15 = LocalDate.of(2024, 1, 15);
+
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private CompanyRepository companyRepository;
+    @Mock
+    private TaxAgencyRepository taxAgencyRepository;
+
+    @InjectMocks
+    private SimpleAccountReportDaoImpl simpleAccountReportDao;
+
+    private final List<FtaAuditLineModel> lines = new ArrayList<>();
+    private final List<FtaAuditSettlementModel> payments = new ArrayList<>();
+    private final List<FtaAuditSettlementModel> receipts = new ArrayList<>();
+    private final List<String> lineQueries = new ArrayList<>();
+    private final List<Object> lastLineItemIds = new ArrayList<>();
+    private int settlementQueryCount;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(simpleAccountReportDao, "entityManager", entityManager);
+
+        when(entityManager.createQuery(startsWith(SimpleAccountReportDaoImpl.FTA_AUDIT_LINES_QUERY), eq(FtaAuditLineModel.class)))
+                .thenAnswer(invocation -> {
+                    lineQueries.add(invocation.getArgument(0));
+                    return lineQuery();
+                });
+        when(entityManager.createQuery(SimpleAccountReportDaoImpl.FTA_AUDIT_PAYMENTS_QUERY, FtaAuditSettlementModel.class))
+                .thenAnswer(invocation -> settlementQuery(payments));
+        when(entityManager.createQuery(SimpleAccountReportDaoImpl.FTA_AUDIT_RECEIPTS_QUERY, FtaAuditSettlementModel.class))
+                .thenAnswer(invocation -> settlementQuery(receipts));
+
+        TypedQuery<FtaAuditContactModel> contactQuery = typedQuery();
+        when(contactQuery.getResultList()).thenReturn(Collections.singletonList(
+                new FtaAuditContactModel("Mona", "K", "Haddad", "United Arab Emirates", "100200300400503")));
+        when(entityManager.createQuery(SimpleAccountReportDaoImpl.FTA_AUDIT_CONTACTS_QUERY, FtaAuditContactModel.class))
+                .thenReturn(contactQuery);
+
+        Currency currency = new Currency();
+        currency.setCurrencyIsoCode("AED");
+        Company company = new Company();
+        company.setCompanyName("Falcon Trading LLC");
+        company.setCurrencyCode(currency);
+        VatTaxAgency taxAgency = new VatTaxAgency();
+        taxAgency.setTaxAgencyName("Dubai Tax Agents");
+        taxAgency.setCreatedDate(LocalDateTime.of(2024, 2, 1, 9, 30));
+        when(companyRepository.findById(1)).thenReturn(Optional.of(company));
+        when(taxAgencyRepository.findById(2)).thenReturn(Optional.of(taxAgency));
+    }
+
+    @Test
+    void shouldReadLinesInKeysetChunksWithOneSettlementQueryPerChunk() {
+        for (int id = 1; id <= SimpleAccountReportDaoImpl.FTA_AUDIT_CHUNK_SIZE + 1; id++) {
+            lines.add(line(id, id % 7, InvoiceTypeConstant.SUPPLIER, "10.00"));
+        }
+        payments.add(settlement(3, 900, 'D'));
+        List<FtaAuditLineModel> consumed = new ArrayList<>();
+
+        simpleAccountReportDao.processFtaAuditLines(Collections.singletonList(InvoiceTypeConstant.SUPPLIER),
+                null, null, consumed::add);
+
+        assertThat(consumed).hasSize(SimpleAccountReportDaoImpl.FTA_AUDIT_CHUNK_SIZE + 1);
+        assertThat(consumed).extracting(FtaAuditLineModel::getLineItemId).isSorted();
+        assertThat(lastLineItemIds).containsExactly(Integer.MIN_VALUE, SimpleAccountReportDaoImpl.FTA_AUDIT_CHUNK_SIZE);
+        assertThat(settlementQueryCount).isEqualTo(2);
+        assertThat(consumed.get(2).getSettlement().getTransactionId()).isEqualTo(900);
+        assertThat(consumed.get(0).getSettlement()).isNull();
+    }
+
+    @Test
+    void shouldBoundLinesByRequestedPeriod() {
+        simpleAccountReportDao.getFtaAuditReport(request());
+
+        assertThat(lineQueries).isNotEmpty().allSatisfy(query -> assertThat(query)
+                .contains("i.invoiceDate >= :startDate")
+                .contains("i.invoiceDate <= :endDate"));
+    }
+
+    @Test
+    void shouldBuildVatAuditListingsAndTotals() {
+        lines.add(line(1, 10, InvoiceTypeConstant.SUPPLIER, "100.00"));
+        lines.add(line(2, 20, InvoiceTypeConstant.CUSTOMER, "250.00"));
+        lines.add(line(3, 21, InvoiceTypeConstant.CUSTOMER, "40.00"));
+        payments.add(settlement(10, 501, 'D'));
+        receipts.add(settlement(20, 601, 'D'));
+        receipts.add(settlement(20, 602, 'C'));
+
+        FtaAuditResponseModel response = simpleAccountReportDao.getFtaAuditReport(request());
+
+        assertThat(response.getSupplierSupplyListingResponseModels()).hasSize(1);
+        assertThat(response.getCustomerSupplyListingResponseModel()).extracting("transactionID")
+                .containsExactly(602, 0);
+        assertThat(response.getPurchaseTotal()).isEqualByComparingTo("100.00");
+        assertThat(response.getSupplyTotal()).isEqualByComparingTo("290.00");
+        assertThat(response.getCustomerVATTotal()).isEqualByComparingTo("14.50");
+        assertThat(response.getGeneralLedgerListingResponseModels())
+                .extracting(GeneralLedgerListingResponseModel::getTransactionID)
+                .containsExactly(501, 602, null);
+        assertThat(response.getTotalDebit()).isEqualByComparingTo("100.00");
+        assertThat(response.getTotalCredit()).isEqualByComparingTo("250.00");
+        assertThat(response.getTransactionCountTotal()).isEqualTo(3);
+        assertThat(response.getGLTCurrency()).isEqualTo("AED");
+    }
+
+    @Test
+    void shouldNumberExciseLinesAcrossPurchasesAndSupplies() {
+        lines.add(line(1, 10, InvoiceTypeConstant.SUPPLIER, "100.00"));
+        lines.add(line(2, 20, InvoiceTypeConstant.CUSTOMER, "250.00"));
+
+        FtaAuditResponseModel response = simpleAccountReportDao.getFtaExciseAuditReport(request());
+
+        assertThat(response.getSupplierSupplyListingResponseModels().get(0).getLineNo()).isEqualTo(1);
+        assertThat(response.getCustomerSupplyListingResponseModel().get(0).getLineNo()).isEqualTo(2);
+        assertThat(response.getSupplierExciseTotal()).isEqualByComparingTo("1.00");
+        assertThat(response.getCustomerExciseTotal()).isEqualByComparingTo("1.00");
+        assertThat(response.getSupplierVATTotal()).isNull();
+    }
+
+    @Test
+    void shouldStreamSameJsonAsResponseModel() throws Exception {
+        lines.add(line(1, 10, InvoiceTypeConstant.SUPPLIER, "100.00"));
+        lines.add(line(2, 20, InvoiceTypeConstant.CUSTOMER, "250.00"));
+        payments.add(settlement(10, 501, 'D'));
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        FtaAuditResponseModel response = simpleAccountReportDao.getFtaAuditReport(request());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        simpleAccountReportDao.writeFtaAuditReport(request(), false, new FtaAuditJsonWriter(objectMapper, outputStream));
+
+        assertThat(objectMapper.readTree(outputStream.toByteArray()))
+                .isEqualTo(objectMapper.readTree(objectMapper.writeValueAsBytes(response)));
+    }
+
+    @Test
+    void shouldStreamEmptyReportWhenCompanyIsMissing() throws Exception {
+        FtaAuditRequestModel request = request();
+        request.setCompanyId(99);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        simpleAccountReportDao.writeFtaAuditReport(request, false, new FtaAuditJsonWriter(objectMapper, outputStream));
+
+        assertThat(objectMapper.readTree(outputStream.toByteArray()))
+                .isEqualTo(objectMapper.readTree(objectMapper.writeValueAsBytes(new FtaAuditResponseModel())));
+        assertThat(lineQueries).isEmpty();
+    }
+
+    private TypedQuery<FtaAuditLineModel> lineQuery() {
+        TypedQuery<FtaAuditLineModel> query = typedQuery();
+        Map<String, Object> parameters = new HashMap<>();
+        int[] maxResults = {Integer.MAX_VALUE};
+        when(query.setParameter(anyString(), any())).thenAnswer(invocation -> {
+            parameters.put(invocation.getArgument(0), invocation.getArgument(1));
+            return query;
+        });
+        when(query.setMaxResults(anyInt())).thenAnswer(invocation -> {
+            maxResults[0] = invocation.getArgument(0);
+            return query;
+        });
+        when(query.getResultList()).thenAnswer(invocation -> {
+            Collection<?> invoiceTypes = (Collection<?>) parameters.get("invoiceTypes");
+            int lastLineItemId = (Integer) parameters.get("lastLineItemId");
+            lastLineItemIds.add(lastLineItemId);
+            // the DAO attaches settlements to the rows, so every query returns fresh projections
+            return lines.stream()
+                    .filter(line -> invoiceTypes.contains(line.getInvoiceType()) && line.getLineItemId() > lastLineItemId)
+                    .limit(maxResults[0])
+                    .map(SimpleAccountReportDaoImplTest::copy)
+                    .collect(Collectors.toList());
+        });
+        return query;
+    }
+
+    @Test
+    void shouldMapAgingRowsToConfiguredBucketsAndLegacyColumns() {
+        TypedQuery<Object[]> query = typedQuery();
+        Map<String, Object> parameters = new HashMap<>();
+        when(query.setParameter(anyString(), any())).thenAnswer(invocation -> {
+            parameters.put(invocation.getArgument(0), invocation.getArgument(1));
+            return query;
+        });
+        when(query.getResultList()).thenReturn(Arrays.asList(
+                new Object[]{7, "Omar", "Saleh", null, new BigDecimal("10"), new BigDecimal("20"),
+                        new BigDecimal("30"), new BigDecimal("40"), new BigDecimal("100")},
+                new Object[]{8, "Sara", "Ali", "Acme", null, null, null, new BigDecimal("5"), new BigDecimal("5")}));
+        when(entityManager.createQuery(eq(SimpleAccountReportDaoImpl.buildAgingQuery(3)), eq(Object[].class)))
+                .thenReturn(query);
+        AgingRequestModel request = new AgingRequestModel();
+        request.setEndDate("31/03/2024");
+        request.setBucketDays(Arrays.asList(90, 30, 60, 30, -1));
+
+        AgingListModel report = simpleAccountReportDao.getAgingReport(request);
+
+        assertThat(report.getBucketLabels()).containsExactly("0-30", "31-60", "61-90", "90+");
+        assertThat(parameters).containsEntry("cutoff0", LocalDate.of(2024, 3, 1))
+                .containsEntry("cutoff2", LocalDate.of(2024, 1, 1))
+                .containsEntry("endDate", LocalDate.of(2024, 3, 31));
+        AgingResponseModel omar = report.getAgingResponseModelList().get(0);
+        assertThat(omar.getContactName()).isEqualTo("Omar Saleh");
+        assertThat(omar.getBucketAmounts()).extracting(BigDecimal::intValue).containsExactly(10, 20, 30, 40);
+        assertThat(omar.getLessthen15()).isEqualByComparingTo("10");
+        assertThat(omar.getBetween15to30()).isEqualByComparingTo("20");
+        assertThat(omar.getMorethan30()).isEqualByComparingTo("70");
+        assertThat(omar.getTotalAmount()).isEqualByComparingTo("100");
+        AgingResponseModel acme = report.getAgingResponseModelList().get(1);
+        assertThat(acme.getContactName()).isEqualTo("Acme");
+        assertThat(acme.getBucketAmounts()).extracting(BigDecimal::intValue).containsExactly(0, 0, 0, 5);
+    }
+
+    @Test
+    void shouldDefaultAgingBucketsToFifteenAndThirtyDays() {
+        assertThat(SimpleAccountReportDaoImpl.getAgingBucketDays(null))
+                .isEqualTo(SimpleAccountReportDaoImpl.DEFAULT_AGING_BUCKET_DAYS).containsExactly(15, 30);
+        assertThat(SimpleAccountReportDaoImpl.getAgingBucketLabels(SimpleAccountReportDaoImpl.getAgingBucketDays(
+                Collections.singletonList(0)))).containsExactly("0-15", "16-30", "30+");
+    }
+
+    private TypedQuery<FtaAuditSettlementModel> settlementQuery(List<FtaAuditSettlementModel> settlements) {
+        TypedQuery<FtaAuditSettlementModel> query = typedQuery();
+        Map<String, Object> parameters = new HashMap<>();
+        when(query.setParameter(anyString(), any())).thenAnswer(invocation -> {
+            parameters.put(invocation.getArgument(0), invocation.getArgument(1));
+            return query;
+        });
+        when(query.getResultList()).thenAnswer(invocation -> {
+            settlementQueryCount++;
+            Collection<?> invoiceIds = (Collection<?>) parameters.get("invoiceIds");
+            return settlements.stream()
+                    .filter(settlement -> invoiceIds.contains(settlement.getInvoiceId()))
+                    .collect(Collectors.toList());
+        });
+        return query;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> TypedQuery<T> typedQuery() {
+        TypedQuery<T> query = mock(TypedQuery.class);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        return query;
+    }
+
+    private static FtaAuditRequestModel request() {
+        FtaAuditRequestModel request = new FtaAuditRequestModel();
+        request.setStartDate("01/01/2024");
+        request.setEndDate("31/03/2024");
+        request.setCompanyId(1);
+        request.setTaxAgencyId(2);
+        return request;
+    }
+
+    private static FtaAuditLineModel line(int lineItemId, int invoiceId, int invoiceType, String unitPrice) {
+        BigDecimal price = new BigDecimal(unitPrice);
+        return new FtaAuditLineModel(lineItemId, invoiceId, invoiceType, "INV-" + invoiceId, JAN_15, 7, "Omar", null,
+                "Saleh", "United Arab Emirates", "100300500700903", "Dates 1kg", null, "Premium dates",
+                price, price.multiply(new BigDecimal("0.05")), BigDecimal.ONE);
+    }
+
+    private static FtaAuditLineModel copy(FtaAuditLineModel line) {
+        return new FtaAuditLineModel(line.getLineItemId(), line.getInvoiceId(), line.getInvoiceType(),
+                line.getReferenceNumber(), line.getInvoiceDate(), line.getContactId(), line.getContactFirstName(),
+                line.getContactMiddleName(), line.getContactLastName(), line.getContactCountry(), line.getContactTRN(),
+                line.getProductName(), line.getProductType(), line.getProductDescription(), line.getUnitPrice(),
+                line.getVatAmount(), line.getExciseAmount());
+    }
+
+    private static FtaAuditSettlementModel settlement(int invoiceId, int transactionId, char debitCreditFlag) {
+        return new FtaAuditSettlementModel(invoiceId, transactionId, LocalDateTime.of(2024, 1, 20, 0, 0), 3,
+                "Money Received", "Invoice settlement", debitCreditFlag);
+    }
+}
@@ -0,0 +1,127 @@
+package com.simpleaccounts.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SearchIndexTest {
+
+    private SearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new SearchIndex();
+        searchIndex.startRebuild();
+        searchIndex.finishRebuild(Arrays.asList(
+                new SearchDocument(SearchDocumentType.CONTACT, 1, "Al Futtaim Trading", "Omar Haddad omar@alfuttaim.ae"),
+                new SearchDocument(SearchDocumentType.CONTACT, 2, "Emirates Stationery", "Sara Khan"),
+                new SearchDocument(SearchDocumentType.PRODUCT, 1, "Stationery Pack", "SP-100 pens and paper"),
+                new SearchDocument(SearchDocumentType.INVOICE, 7, "INV-0042", "Emirates Stationery 1250.5"),
+                new SearchDocument(SearchDocumentType.TRANSACTION_CATEGORY, 3, "Office Supplies", "stationery")));
+    }
+
+    @Test
+    void findsByPrefixWithTitleMatchesFirst() {
+        List<SearchHit> hits = searchIndex.search("statio", null, 10);
+
+        assertThat(keys(hits)).containsExactlyInAnyOrder("CONTACT:2", "PRODUCT:1", "INVOICE:7",
+                "TRANSACTION_CATEGORY:3");
+        assertThat(keys(hits.subList(0, 2))).containsExactlyInAnyOrder("CONTACT:2", "PRODUCT:1");
+    }
+
+    @Test
+    void findsMisspelledTermsBelowExactOnes() {
+        assertThat(keys(searchIndex.search("futaim", null, 10))).containsExactly("CONTACT:1");
+        assertThat(keys(searchIndex.search("stationary", null, 10))).hasSize(4);
+        assertThat(searchIndex.search("xyzzy", null, 10)).isEmpty();
+
+        searchIndex.put(new SearchDocument(SearchDocumentType.PRODUCT, 2, "Stationary Bike", ""));
+
+        assertThat(keys(searchIndex.search("stationary", null, 10)).get(0)).isEqualTo("PRODUCT:2");
+    }
+
+    @Test
+    void requiresEveryTermAndFiltersByTypeAndLimit() {
+        assertThat(keys(searchIndex.search("emirates inv", null, 10))).containsExactly("INVOICE:7");
+        assertThat(keys(searchIndex.search("1250.5", null, 10))).containsExactly("INVOICE:7");
+        assertThat(keys(searchIndex.search("stationery", EnumSet.of(SearchDocumentType.PRODUCT), 10)))
+                .containsExactly("PRODUCT:1");
+        assertThat(searchIndex.search("stationery", null, 2)).hasSize(2);
+        assertThat(searchIndex.search("  - ", null, 10)).isEmpty();
+    }
+
+    @Test
+    void replacesAndRemovesDocuments() {
+        searchIndex.put(new SearchDocument(SearchDocumentType.CONTACT, 2, "Gulf Paper", "Sara Khan"));
+        searchIndex.remove(SearchDocumentType.PRODUCT, 1);
+
+        assertThat(keys(searchIndex.search("stationery", null, 10))).containsExactlyInAnyOrder("INVOICE:7",
+                "TRANSACTION_CATEGORY:3");
+        assertThat(keys(searchIndex.search("gulf", null, 10))).containsExactly("CONTACT:2");
+        assertThat(searchIndex.size()).isEqualTo(4);
+    }
+
+    @Test
+    void keepsChangesMadeWhileRebuilding() {
+        searchIndex.startRebuild();
+        searchIndex.put(new SearchDocument(SearchDocumentType.CONTACT, 9, "Dubai Logistics", ""));
+        searchIndex.remove(SearchDocumentType.CONTACT, 1);
+        searchIndex.finishRebuild(Arrays.asList(
+                new SearchDocument(SearchDocumentType.CONTACT, 1, "Al Futtaim Trading", ""),
+                new SearchDocument(SearchDocumentType.CONTACT, 2, "Emirates Stationery", "")));
+
+        assertThat(keys(searchIndex.search("dubai", null, 10))).containsExactly("CONTACT:9");
+        assertThat(searchIndex.search("futtaim", null, 10)).isEmpty();
+        assertThat(searchIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    void findsDocumentsWhoseTextCanContainTheValue() {
+        assertThat(searchIndex.findContaining(SearchDocumentType.CONTACT, "tioner", 10)).containsExactly(2);
+        assertThat(searchIndex.findContaining(SearchDocumentType.CONTACT, "Omar@AlFutt", 10)).containsExactly(1);
+        assertThat(searchIndex.findContaining(SearchDocumentType.PRODUCT, "SP-10", 10)).containsExactly(1);
+        assertThat(searchIndex.findContaining(SearchDocumentType.INVOICE, "250.5", 10)).containsExactly(7);
+        assertThat(searchIndex.findContaining(SearchDocumentType.PRODUCT, "haddad", 10)).isEmpty();
+    }
+
+    @Test
+    void cannotNarrowWithoutLettersOrDigitsOrBeyondTheLimit() {
+        assertThat(searchIndex.findContaining(SearchDocumentType.CONTACT, " - ", 10)).isNull();
+        assertThat(searchIndex.findContaining(SearchDocumentType.CONTACT, "a", 1)).isNull();
+        assertThat(searchIndex.findContaining(SearchDocumentType.CONTACT, "a", 2)).containsExactlyInAnyOrder(1, 2);
+        assertThat(new SearchIndex().findContaining(SearchDocumentType.CONTACT, "omar", 10)).isNull();
+    }
+
+    @Test
+    void skipsDigitsRunningIntoLettersAfterADecimalPoint() {
+        searchIndex.put(new SearchDocument(SearchDocumentType.PRODUCT, 2, "Cable 2.5mm", ""));
+
+        // indexed as "2.5" and "mm", so "2.5mm" is looked up by "2" alone
+        assertThat(searchIndex.findContaining(SearchDocumentType.PRODUCT, "2.5mm", 10)).containsExactly(2);
+        assertThat(searchIndex.findContaining(SearchDocumentType.PRODUCT, "5mm", 10)).isNull();
+    }
+
+    @Test
+    void isReadyOnlyOnceBuilt() {
+        SearchIndex empty = new SearchIndex();
+        empty.startRebuild();
+        empty.abortRebuild();
+
+        assertThat(empty.isReady()).isFalse();
+
+        empty.startRebuild();
+        empty.finishRebuild(Collections.emptyList());
+
+        assertThat(empty.isReady()).isTrue();
+    }
+
+    private static List<String> keys(List<SearchHit> hits) {
+        return hits.stream().map(hit -> hit.getType() + ":" + hit.getId()).collect(Collectors.toList());
+    }
+}
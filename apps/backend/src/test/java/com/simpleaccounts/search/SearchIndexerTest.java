@@ -0,0 +1,149 @@
+package com.simpleaccounts.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.simpleaccounts.dao.impl.SearchDocumentDaoImpl;
+import com.simpleaccounts.entity.Contact;
+import com.simpleaccounts.entity.Product;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:searchindexerdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false",
+        "simpleaccounts.search.rebuild-page-size=2"
+})
+@Import({SearchIndex.class, SearchIndexer.class, SearchDocumentDaoImpl.class})
+class SearchIndexerTest {
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private SearchIndexer searchIndexer;
+
+    @Autowired
+    private SearchDocumentDaoImpl searchDocumentDao;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.execute(status -> {
+            entityManager.createQuery("delete from Contact").executeUpdate();
+            entityManager.createQuery("delete from Product").executeUpdate();
+            return null;
+        });
+    }
+
+    @Test
+    void indexesCommittedChangesOnly() {
+        Contact contact = transactionTemplate.execute(status -> contact("Gulf Paper Trading"));
+
+        assertThat(keys("gulf")).containsExactly("CONTACT:" + contact.getContactId());
+
+        transactionTemplate.execute(status -> {
+            Contact stored = entityManager.find(Contact.class, contact.getContactId());
+            stored.setOrganization("Desert Paper");
+            return null;
+        });
+
+        assertThat(keys("gulf")).isEmpty();
+        assertThat(keys("desert")).containsExactly("CONTACT:" + contact.getContactId());
+
+        transactionTemplate.execute(status -> {
+            contact("Rolled Back Supplies");
+            status.setRollbackOnly();
+            return null;
+        });
+        transactionTemplate.execute(status -> {
+            entityManager.find(Contact.class, contact.getContactId()).setDeleteFlag(Boolean.TRUE);
+            return null;
+        });
+
+        assertThat(keys("rolled")).isEmpty();
+        assertThat(keys("desert")).isEmpty();
+    }
+
+    @Test
+    void rebuildReadsEveryPageOfEveryType() throws Exception {
+        transactionTemplate.execute(status -> {
+            for (int i = 1; i <= 5; i++) {
+                contact("Supplier " + i);
+            }
+            contact("Deleted Supplier").setDeleteFlag(Boolean.TRUE);
+            Product product = new Product();
+            product.setProductName("Supplier Catalogue");
+            product.setCreatedDate(LocalDateTime.now());
+            product.setExciseStatus(Boolean.FALSE);
+            product.setExciseType(Boolean.FALSE);
+            entityManager.persist(product);
+            return null;
+        });
+        searchIndex.startRebuild();
+        searchIndex.finishRebuild(Collections.emptyList());
+
+        assertThat(searchIndexer.rebuild().get(30, TimeUnit.SECONDS)).isEqualTo(6);
+        assertThat(searchIndex.search("supplier", null, 10)).hasSize(6);
+    }
+
+    @Test
+    void fallsBackToLikeMatchingOnTextAttributes() {
+        transactionTemplate.execute(status -> {
+            contact("Al Futtaim 100%");
+            contact("Emirates Stationery");
+            return null;
+        });
+
+        assertThat(searchDocumentDao.findByText(SearchDocumentType.CONTACT, "FUTTAIM", 10)).hasSize(1);
+        assertThat(searchDocumentDao.findByText(SearchDocumentType.CONTACT, "0%", 10)).hasSize(1);
+        assertThat(searchDocumentDao.findByText(SearchDocumentType.CONTACT, "e", 1)).hasSize(1);
+    }
+
+    private Contact contact(String organization) {
+        Contact contact = new Contact();
+        contact.setOrganization(organization);
+        contact.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(contact);
+        return contact;
+    }
+
+    private List<String> keys(String query) {
+        return searchIndex.search(query, null, 10).stream().map(hit -> hit.getType() + ":" + hit.getId())
+                .collect(Collectors.toList());
+    }
+}
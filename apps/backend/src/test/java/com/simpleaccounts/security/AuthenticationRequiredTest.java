@@ -12,6 +12,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -30,6 +31,9 @@ public class AuthenticationRequiredTest {
     @Mock
     private CustomUserDetailsService userDetailsService;
 
+    @Spy
+    private UserPrincipalCache userPrincipalCache = new UserPrincipalCache(100, 900);
+
     @Mock
     private HttpServletRequest request;
 
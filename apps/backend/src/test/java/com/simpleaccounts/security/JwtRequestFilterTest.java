@@ -1,13 +1,16 @@
 package com.simpleaccounts.security;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.simpleaccounts.entity.Role;
 import io.jsonwebtoken.ExpiredJwtException;
+import java.util.Date;
 import javax.servlet.FilterChain;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -16,6 +19,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -37,6 +41,9 @@ public class JwtRequestFilterTest {
     @InjectMocks
     private JwtRequestFilter jwtRequestFilter;
 
+    @Spy
+    private UserPrincipalCache userPrincipalCache = new UserPrincipalCache(100, 900);
+
     @Mock
     private HttpServletRequest request;
 
@@ -164,4 +171,42 @@ public class JwtRequestFilterTest {
         verify(filterChain).doFilter(request, response);
         // Authentication should not be set when validation fails
     }
+
+    @Test
+    public void testPrincipalIsLoadedOncePerToken() throws Exception {
+        String token = "valid.jwt.token";
+        String username = "testuser";
+        CustomUserDetails userDetails = createTestUserDetails(username, "password");
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtTokenUtil.getUsernameFromToken(token)).thenReturn(username);
+        when(jwtTokenUtil.getIssuedAtDateFromToken(token)).thenReturn(new Date(1700000000000L));
+        when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
+        when(jwtTokenUtil.validateToken(token, userDetails)).thenReturn(true);
+
+        jwtRequestFilter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        jwtRequestFilter.doFilterInternal(request, response, filterChain);
+
+        verify(userDetailsService, times(1)).loadUserByUsername(username);
+        assertEquals(userDetails, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        assertEquals(1, userPrincipalCache.getHitCount());
+    }
+
+    @Test
+    public void testNewTokenOfSameUserReloadsPrincipal() throws Exception {
+        String token = "valid.jwt.token";
+        String username = "testuser";
+        CustomUserDetails userDetails = createTestUserDetails(username, "password");
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtTokenUtil.getUsernameFromToken(token)).thenReturn(username);
+        when(jwtTokenUtil.getIssuedAtDateFromToken(token)).thenReturn(new Date(1700000000000L), new Date(1700000060000L));
+        when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
+        when(jwtTokenUtil.validateToken(token, userDetails)).thenReturn(true);
+
+        jwtRequestFilter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        jwtRequestFilter.doFilterInternal(request, response, filterChain);
+
+        verify(userDetailsService, times(2)).loadUserByUsername(username);
+    }
 }
@@ -0,0 +1,109 @@
+package com.simpleaccounts.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tests for the principal cache used by {@link JwtRequestFilter}.
+ */
+public class UserPrincipalCacheTest {
+
+    private static final Date ISSUED_AT = new Date(1700000000000L);
+
+    private UserPrincipalCache cache;
+
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() {
+        cache = new UserPrincipalCache(2, 900);
+        loads = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void shouldServeSameTokenFromCacheAndCountHits() {
+        CustomUserDetails first = cache.get("john@test.com", ISSUED_AT, loader(1, "john@test.com"));
+        CustomUserDetails second = cache.get("john@test.com", ISSUED_AT, loader(1, "john@test.com"));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5d, cache.getHitRate(), 0.0001d);
+    }
+
+    @Test
+    public void shouldNotCacheTokenWithoutIssuedAt() {
+        cache.get("john@test.com", null, loader(1, "john@test.com"));
+        cache.get("john@test.com", null, loader(1, "john@test.com"));
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void shouldDropLeastRecentlyUsedPrincipalWhenFull() {
+        cache.get("a@test.com", ISSUED_AT, loader(1, "a@test.com"));
+        cache.get("b@test.com", ISSUED_AT, loader(2, "b@test.com"));
+        cache.get("a@test.com", ISSUED_AT, loader(1, "a@test.com"));
+        cache.get("c@test.com", ISSUED_AT, loader(3, "c@test.com"));
+
+        cache.get("a@test.com", ISSUED_AT, loader(1, "a@test.com"));
+        cache.get("b@test.com", ISSUED_AT, loader(2, "b@test.com"));
+
+        assertEquals(2, cache.getSize());
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void shouldEvictAllTokensOfChangedUser() {
+        cache.get("john@test.com", ISSUED_AT, loader(1, "john@test.com"));
+        cache.get("john@test.com", new Date(ISSUED_AT.getTime() + 1000), loader(1, "john@test.com"));
+
+        cache.evictUser(1, "john.doe@test.com");
+
+        assertEquals(0, cache.getSize());
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    public void shouldEvictAgainAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evictAll();
+        CustomUserDetails stale = cache.get("john@test.com", ISSUED_AT, loader(1, "john@test.com"));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+
+        assertNotSame(stale, cache.get("john@test.com", ISSUED_AT, loader(1, "john@test.com")));
+        assertEquals(2, loads.get());
+    }
+
+    private Supplier<CustomUserDetails> loader(Integer userId, String username) {
+        return () -> {
+            loads.incrementAndGet();
+            CustomUserDetails userDetails = new CustomUserDetails();
+            userDetails.setUserId(userId);
+            userDetails.setUsername(username);
+            return userDetails;
+        };
+    }
+}
@@ -3,18 +3,21 @@ package com.simpleaccounts.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.simpleaccounts.constant.PostingReferenceTypeEnum;
 import com.simpleaccounts.constant.dbfilter.InvoiceFilterEnum;
+import com.simpleaccounts.dao.ActivityDao;
 import com.simpleaccounts.dao.InvoiceDao;
 import com.simpleaccounts.dao.JournalDao;
 import com.simpleaccounts.dao.JournalLineItemDao;
 import com.simpleaccounts.entity.Invoice;
 import com.simpleaccounts.entity.Journal;
 import com.simpleaccounts.entity.JournalLineItem;
+import com.simpleaccounts.helper.DashboardCacheEvictor;
 import com.simpleaccounts.repository.InvoiceRepository;
 import com.simpleaccounts.rest.PaginationModel;
 import com.simpleaccounts.rest.PaginationResponseModel;
@@ -27,6 +30,8 @@ import com.simpleaccounts.utils.ChartUtil;
 import com.simpleaccounts.utils.DateUtils;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -37,6 +42,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class InvoiceServiceImplTest {
@@ -55,6 +61,8 @@ class InvoiceServiceImplTest {
     private JournalDao journalDao;
     @Mock
     private JournalLineItemDao journalLineItemDao;
+    @Mock
+    private DashboardCacheEvictor dashboardCacheEvictor;
 
     @InjectMocks
     private InvoiceServiceImpl invoiceService;
@@ -299,6 +307,32 @@ class InvoiceServiceImplTest {
         verify(journalDao, never()).deleteByIds(any());
     }
 
+    @Test
+    void shouldEvictInvoiceChartsOfInvoiceMonthOnUpdate() {
+        ReflectionTestUtils.setField(invoiceService, "activityDao", mock(ActivityDao.class));
+        Invoice invoice = new Invoice();
+        invoice.setInvoiceDate(LocalDate.of(2024, 3, 15));
+        when(supplierInvoiceDao.update(invoice)).thenReturn(invoice);
+
+        invoiceService.update(invoice);
+
+        verify(dashboardCacheEvictor).evictInvoiceChart(YearMonth.of(2024, 3));
+    }
+
+    @Test
+    void shouldEvictInvoiceChartsOfInvoiceMonthsOnPersistAll() {
+        ReflectionTestUtils.setField(invoiceService, "activityDao", mock(ActivityDao.class));
+        Invoice march = new Invoice();
+        march.setInvoiceDate(LocalDate.of(2024, 3, 15));
+        Invoice may = new Invoice();
+        may.setInvoiceDate(LocalDate.of(2024, 5, 2));
+
+        invoiceService.persistAll(Arrays.asList(march, may));
+
+        verify(dashboardCacheEvictor).evictInvoiceChart(YearMonth.of(2024, 3));
+        verify(dashboardCacheEvictor).evictInvoiceChart(YearMonth.of(2024, 5));
+    }
+
     @Test
     void shouldDelegateGetInvoiceListToDao() {
         Map<InvoiceFilterEnum, Object> filterMap = new HashMap<>();
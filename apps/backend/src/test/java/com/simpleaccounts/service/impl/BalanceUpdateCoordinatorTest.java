@@ -0,0 +1,230 @@
+package com.simpleaccounts.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class BalanceUpdateCoordinatorTest {
+
+    private EntityManager entityManager;
+    private BalanceUpdateCoordinator coordinator;
+    private ExecutorService executorService;
+
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        coordinator = new BalanceUpdateCoordinator(entityManager);
+        executorService = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executorService.shutdownNow();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Nested
+    @DisplayName("In-process striped locking")
+    class StripedLockTests {
+
+        @Test
+        void shouldRoundStripeCountUpToPowerOfTwo() {
+            assertThat(new BalanceUpdateCoordinator(entityManager, 48).getStripeCount()).isEqualTo(64);
+            assertThat(new BalanceUpdateCoordinator(entityManager, 64).getStripeCount()).isEqualTo(64);
+            assertThat(new BalanceUpdateCoordinator(entityManager, 1).getStripeCount()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldNotLoseUpdatesOnSameCategory() throws Exception {
+            TransactionCategory category = category(7);
+            long[] balance = new long[1];
+            int threads = 8;
+            int postsPerThread = 500;
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int i = 0; i < threads; i++) {
+                futures.add(executorService.submit(() -> {
+                    for (int j = 0; j < postsPerThread; j++) {
+                        coordinator.executeForCategory(category, () -> balance[0]++);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+
+            assertThat(balance[0]).isEqualTo((long) threads * postsPerThread);
+        }
+
+        @Test
+        void shouldLetDistinctCategoriesProceedInParallel() throws Exception {
+            CyclicBarrier bothInside = new CyclicBarrier(2);
+            Future<Boolean> first = executorService.submit(
+                    () -> coordinator.executeForCategory(category(1), () -> await(bothInside)));
+            Future<Boolean> second = executorService.submit(
+                    () -> coordinator.executeForCategory(category(2), () -> await(bothInside)));
+
+            assertThat(first.get(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(second.get(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Test
+        void shouldAllowNestedUpdatesForSameCategory() {
+            TransactionCategory category = category(3);
+
+            String result = coordinator.executeForCategory(category,
+                    () -> coordinator.executeForCategory(category, () -> "closing-balance"));
+
+            assertThat(result).isEqualTo("closing-balance");
+        }
+    }
+
+    @Nested
+    @DisplayName("Database row locking")
+    class RowLockTests {
+
+        @Test
+        void shouldSkipRowLockWithoutTransaction() {
+            coordinator.executeForCategory(category(5), () -> null);
+            coordinator.lockCategories(Arrays.asList(category(5), category(6)));
+
+            verifyNoInteractions(entityManager);
+        }
+
+        @Test
+        void shouldLockCategoriesInAscendingOrderInsideTransaction() {
+            TransactionCategory high = category(40);
+            TransactionCategory low = category(12);
+            when(entityManager.find(TransactionCategory.class, 40)).thenReturn(high);
+            when(entityManager.find(TransactionCategory.class, 12)).thenReturn(low);
+            when(entityManager.getLockMode(high)).thenReturn(LockModeType.NONE);
+            when(entityManager.getLockMode(low)).thenReturn(LockModeType.NONE);
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+
+            coordinator.lockCategories(Arrays.asList(high, low, high, null));
+
+            InOrder order = inOrder(entityManager);
+            order.verify(entityManager).lock(low, LockModeType.PESSIMISTIC_WRITE);
+            order.verify(entityManager).lock(high, LockModeType.PESSIMISTIC_WRITE);
+        }
+
+        @Test
+        void shouldNotRelockCategoryAlreadyHeldByTransaction() {
+            TransactionCategory category = category(9);
+            when(entityManager.find(TransactionCategory.class, 9)).thenReturn(category);
+            when(entityManager.getLockMode(category)).thenReturn(LockModeType.PESSIMISTIC_WRITE);
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+
+            coordinator.executeForCategory(category, () -> null);
+
+            verify(entityManager, never()).lock(category, LockModeType.PESSIMISTIC_WRITE);
+        }
+    }
+
+    @Nested
+    @DisplayName("Stripe independence")
+    class StripeIndependenceTests {
+
+        @Test
+        void shouldPostToOtherCategoryWhileStripeIsHeld() throws Exception {
+            TransactionCategory held = category(1);
+            TransactionCategory other = category(2);
+            assertThat(coordinator.stripeFor(2)).isNotSameAs(coordinator.stripeFor(1));
+            CountDownLatch inside = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            Future<Boolean> holder = executorService.submit(() -> coordinator.executeForCategory(held, () -> {
+                inside.countDown();
+                return await(release);
+            }));
+            assertThat(inside.await(10, TimeUnit.SECONDS)).isTrue();
+
+            try {
+                Future<String> posting = executorService.submit(
+                        () -> coordinator.executeForCategory(other, () -> "posted"));
+
+                assertThat(posting.get(10, TimeUnit.SECONDS)).isEqualTo("posted");
+                assertThat(coordinator.stripeFor(1).isLocked()).isTrue();
+                assertThat(holder.isDone()).isFalse();
+            } finally {
+                release.countDown();
+            }
+            assertThat(holder.get(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Test
+        void shouldBlockPostToSameCategoryWhileStripeIsHeld() throws Exception {
+            TransactionCategory category = category(4);
+            CountDownLatch inside = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            Future<Boolean> holder = executorService.submit(() -> coordinator.executeForCategory(category, () -> {
+                inside.countDown();
+                return await(release);
+            }));
+            assertThat(inside.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<String> posting = executorService.submit(
+                    () -> coordinator.executeForCategory(category, () -> "posted"));
+
+            try {
+                while (!coordinator.stripeFor(4).hasQueuedThreads()) {
+                    Thread.yield();
+                }
+                assertThat(posting.isDone()).isFalse();
+            } finally {
+                release.countDown();
+            }
+            assertThat(holder.get(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(posting.get(10, TimeUnit.SECONDS)).isEqualTo("posted");
+        }
+    }
+
+    private static TransactionCategory category(int id) {
+        TransactionCategory category = new TransactionCategory();
+        category.setTransactionCategoryId(id);
+        return category;
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.simpleaccounts.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.simpleaccounts.dao.TransactionCategoryClosingBalanceDao;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class ClosingBalancePropagatorTest {
+
+    private static final LocalDateTime JAN_10 = LocalDateTime.of(2024, 1, 10, 0, 0);
+    private static final LocalDateTime FEB_01 = LocalDateTime.of(2024, 2, 1, 0, 0);
+
+    @Mock
+    private TransactionCategoryClosingBalanceDao transactionCategoryClosingBalanceDao;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private ClosingBalancePropagator propagator;
+
+    private TransactionCategory category;
+
+    @BeforeEach
+    void setUp() {
+        category = new TransactionCategory();
+        category.setTransactionCategoryId(49);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.unbindResourceIfPossible(propagator);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void shouldApplyImmediatelyWithoutTransaction() {
+        propagator.propagate(category, JAN_10, new BigDecimal("100.00"), null);
+
+        verify(transactionCategoryClosingBalanceDao)
+                .addToClosingBalancesAfter(JAN_10, category, new BigDecimal("100.00"), null);
+    }
+
+    @Test
+    void shouldSumPendingDeltasBeforeDate() {
+        beginTransaction();
+
+        propagator.propagate(category, JAN_10, new BigDecimal("100.00"), null);
+        propagator.propagate(category, FEB_01, new BigDecimal("5.00"), null);
+
+        assertThat(propagator.getPendingDeltaBefore(category, FEB_01).getAmount()).isEqualByComparingTo("100.00");
+        assertThat(propagator.getPendingDeltaBefore(category, FEB_01.plusDays(1)).getAmount()).isEqualByComparingTo("105.00");
+        assertThat(propagator.getPendingDeltaBefore(category, JAN_10).getAmount()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void shouldDeferAndCoalesceDeltasUntilCommit() {
+        beginTransaction();
+
+        propagator.propagate(category, JAN_10, new BigDecimal("100.00"), null);
+        propagator.propagate(category, JAN_10, new BigDecimal("-30.00"), null);
+        propagator.propagate(category, FEB_01, new BigDecimal("5.00"), null);
+
+        verifyNoInteractions(transactionCategoryClosingBalanceDao);
+        assertThat(propagator.getDirtyFromDate(category)).isEqualTo(JAN_10);
+        assertThat(propagator.getPendingDelta(category, JAN_10).getAmount()).isEqualByComparingTo("70.00");
+
+        commit();
+
+        verify(entityManager).flush();
+        verify(transactionCategoryClosingBalanceDao)
+                .addToClosingBalancesAfter(JAN_10, category, new BigDecimal("70.00"), null);
+        verify(transactionCategoryClosingBalanceDao)
+                .addToClosingBalancesAfter(FEB_01, category, new BigDecimal("5.00"), null);
+        assertThat(propagator.getDirtyFromDate(category)).isNull();
+    }
+
+    @Test
+    void shouldSumBankAmountsOfBankCategories() {
+        beginTransaction();
+
+        propagator.propagate(category, JAN_10, new BigDecimal("100.00"), new BigDecimal("27.23"));
+        propagator.propagate(category, JAN_10, new BigDecimal("50.00"), new BigDecimal("13.61"));
+        commit();
+
+        verify(transactionCategoryClosingBalanceDao)
+                .addToClosingBalancesAfter(JAN_10, category, new BigDecimal("150.00"), new BigDecimal("40.84"));
+    }
+
+    @Test
+    void shouldSettlePendingDeltasOnDemand() {
+        beginTransaction();
+        propagator.propagate(category, JAN_10, new BigDecimal("10.00"), null);
+
+        propagator.settle();
+        commit();
+
+        verify(transactionCategoryClosingBalanceDao)
+                .addToClosingBalancesAfter(eq(JAN_10), eq(category), any(), any());
+        assertThat(propagator.getPendingDelta(category, JAN_10).getAmount()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void shouldReturnNoDeltaForCleanCategory() {
+        assertThat(propagator.getPendingDelta(category, JAN_10).getAmount()).isEqualByComparingTo("0");
+        assertThat(propagator.getPendingDelta(category, JAN_10).getBankAmount()).isNull();
+        assertThat(propagator.getDirtyFromDate(category)).isNull();
+
+        propagator.settle();
+
+        verify(entityManager, never()).flush();
+    }
+
+    private void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    private void commit() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.simpleaccounts.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.simpleaccounts.dao.DashboardMonthlyBalanceDao;
+import com.simpleaccounts.entity.DashboardMonthlyBalance;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.helper.DashboardCacheEvictor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardMonthlyBalanceServiceImplTest {
+
+    private static final LocalDate FEB = LocalDate.of(2024, 2, 1);
+
+    @Mock
+    private DashboardMonthlyBalanceDao dashboardMonthlyBalanceDao;
+
+    @Mock
+    private DashboardCacheEvictor dashboardCacheEvictor;
+
+    @InjectMocks
+    private DashboardMonthlyBalanceServiceImpl service;
+
+    private TransactionCategory category;
+
+    @BeforeEach
+    void setUp() {
+        category = new TransactionCategory();
+        category.setTransactionCategoryId(84);
+    }
+
+    @Test
+    void shouldAddDeltaToExistingMonthAndLaterMonths() {
+        when(dashboardMonthlyBalanceDao.addToMonth(category, FEB, new BigDecimal("75.00"))).thenReturn(1);
+
+        service.applyDelta(category, LocalDateTime.of(2024, 2, 20, 0, 0), new BigDecimal("75.00"), () -> {
+            throw new AssertionError("closing balance must not be read for an existing month");
+        });
+
+        verify(dashboardMonthlyBalanceDao, never()).persist(any());
+        verify(dashboardMonthlyBalanceDao).addToMonthsAfter(category, FEB, new BigDecimal("75.00"));
+        verify(dashboardCacheEvictor).evictProfitLoss(YearMonth.of(2024, 2));
+    }
+
+    @Test
+    void shouldCreateMissingMonthFromClosingBalance() {
+        when(dashboardMonthlyBalanceDao.addToMonth(category, FEB, new BigDecimal("-20.00"))).thenReturn(0);
+
+        service.applyDelta(category, LocalDateTime.of(2024, 2, 3, 0, 0), new BigDecimal("-20.00"),
+                () -> new BigDecimal("480.00"));
+
+        ArgumentCaptor<DashboardMonthlyBalance> created = ArgumentCaptor.forClass(DashboardMonthlyBalance.class);
+        verify(dashboardMonthlyBalanceDao).persist(created.capture());
+        assertThat(created.getValue().getTransactionCategory()).isSameAs(category);
+        assertThat(created.getValue().getBalanceMonth()).isEqualTo(FEB);
+        assertThat(created.getValue().getClosingBalance()).isEqualByComparingTo("480.00");
+        verify(dashboardMonthlyBalanceDao).addToMonthsAfter(category, FEB, new BigDecimal("-20.00"));
+    }
+
+    @Test
+    void shouldSplitQuotedChartOfAccountCodes() {
+        service.getList(YearMonth.of(2024, 1), YearMonth.of(2024, 3), "'INC', 'EXP'");
+
+        verify(dashboardMonthlyBalanceDao).getListByChartOfAccountCodes(LocalDate.of(2024, 1, 1),
+                LocalDate.of(2024, 3, 1), Arrays.asList("INC", "EXP"));
+    }
+}
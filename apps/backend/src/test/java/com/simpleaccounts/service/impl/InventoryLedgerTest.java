@@ -0,0 +1,281 @@
+package com.simpleaccounts.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import com.simpleaccounts.constant.DatatableSortingFilterConstant;
+import com.simpleaccounts.dao.impl.InventoryDaoImpl;
+import com.simpleaccounts.dao.impl.InventoryHistoryDaoImpl;
+import com.simpleaccounts.entity.Contact;
+import com.simpleaccounts.entity.Inventory;
+import com.simpleaccounts.entity.Invoice;
+import com.simpleaccounts.entity.InvoiceLineItem;
+import com.simpleaccounts.entity.Product;
+import com.simpleaccounts.helper.DashboardCacheEvictor;
+import com.simpleaccounts.utils.DateUtils;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.persistence.EntityManager;
+import javax.persistence.OptimisticLockException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventoryledgerdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false"
+})
+@Import({InventoryLedger.class, InventoryDaoImpl.class, InventoryHistoryDaoImpl.class, DateUtils.class,
+        DatatableSortingFilterConstant.class})
+class InventoryLedgerTest {
+
+    private static final int SUPPLIER_INVOICE = 1;
+
+    private static final int CUSTOMER_INVOICE = 2;
+
+    @MockBean
+    private DashboardCacheEvictor dashboardCacheEvictor;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Product product;
+
+    private Contact supplierA;
+
+    private Contact supplierB;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.execute(status -> {
+            product = new Product();
+            product.setProductName("Pen");
+            product.setCreatedDate(LocalDateTime.now());
+            product.setIsInventoryEnabled(Boolean.TRUE);
+            product.setExciseStatus(Boolean.FALSE);
+            product.setExciseType(Boolean.FALSE);
+            entityManager.persist(product);
+            supplierA = contact("Supplier A");
+            supplierB = contact("Supplier B");
+            return null;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.execute(status -> {
+            entityManager.createQuery("delete from InventoryHistory").executeUpdate();
+            entityManager.createQuery("delete from Inventory").executeUpdate();
+            entityManager.createQuery("delete from Invoice").executeUpdate();
+            entityManager.createQuery("delete from Contact").executeUpdate();
+            entityManager.createQuery("delete from Product").executeUpdate();
+            return null;
+        });
+    }
+
+    @Test
+    void concurrentSalesOfOneProductNeverSellMoreThanTheStock() throws Exception {
+        receive(supplierA, 30, "10");
+        receive(supplierB, 30, "20");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < 8; thread++) {
+                Invoice invoice = invoice(CUSTOMER_INVOICE, null);
+                futures.add(executor.submit(() -> {
+                    for (int sale = 0; sale < 10; sale++) {
+                        inventoryLedger.issue(lineItem(invoice, 1, "15"));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (Inventory layer : layers()) {
+            assertThat(layer.getStockOnHand()).isZero();
+            assertThat(layer.getQuantitySold()).isEqualTo(30);
+        }
+        assertThat(soldQuantity()).isEqualTo(60.0);
+        assertThat(averagePurchaseCost()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void salesTakeTheOldestLayerFirstAndReversalsPutTheirOwnQuantityBack() {
+        receive(supplierA, 10, "5");
+        receive(supplierA, 10, "7");
+        Invoice secondSupplierPurchase = receive(supplierB, 5, "10");
+        assertThat(averagePurchaseCost()).isEqualByComparingTo("6.8");
+
+        Invoice earlierSale = invoice(CUSTOMER_INVOICE, null);
+        inventoryLedger.issue(lineItem(earlierSale, 1, "15"));
+        Invoice sale = invoice(CUSTOMER_INVOICE, null);
+        inventoryLedger.issue(lineItem(sale, 21, "15"));
+
+        List<Inventory> layers = layers();
+        assertThat(layers).extracting(Inventory::getStockOnHand).containsExactly(0, 3);
+        assertThat(layers.get(0).getUnitCost()).isEqualTo(6f);
+        assertThat(averagePurchaseCost()).isEqualByComparingTo("10");
+
+        inventoryLedger.reverse(sale);
+
+        assertThat(layers()).extracting(Inventory::getStockOnHand).containsExactly(19, 5);
+        assertThat(layers()).extracting(Inventory::getQuantitySold).containsExactly(1, 0);
+
+        inventoryLedger.reverse(secondSupplierPurchase);
+
+        assertThat(layers()).extracting(Inventory::getStockOnHand).containsExactly(19);
+        assertThat(averagePurchaseCost()).isEqualByComparingTo("6");
+    }
+
+    @Test
+    void stockMovementsBumpTheRowVersionSoAStaleEditCannotOverwriteThem() {
+        receive(supplierA, 10, "5");
+        Inventory stale = layers().get(0);
+        Integer version = stale.getVersionNumber();
+
+        receive(supplierA, 10, "7");
+        assertThat(layers().get(0).getVersionNumber()).isEqualTo(version + 1);
+        Invoice sale = invoice(CUSTOMER_INVOICE, null);
+        inventoryLedger.issue(lineItem(sale, 4, "15"));
+        assertThat(layers().get(0).getVersionNumber()).isEqualTo(version + 2);
+        inventoryLedger.reverse(sale);
+        assertThat(layers().get(0).getVersionNumber()).isEqualTo(version + 3);
+
+        stale.setReorderLevel(5);
+        assertThatThrownBy(() -> transactionTemplate.execute(status -> entityManager.merge(stale)))
+                .isInstanceOf(OptimisticLockException.class);
+        assertThat(layers()).extracting(Inventory::getStockOnHand).containsExactly(20);
+    }
+
+    @Test
+    void receiptsWriteTheAveragePurchaseCostWithoutTouchingTheProductVersion() {
+        Integer version = productVersion();
+
+        receive(supplierA, 10, "5");
+        receive(supplierB, 10, "7");
+
+        assertThat(averagePurchaseCost()).isEqualByComparingTo("6");
+        assertThat(productVersion()).isEqualTo(version);
+    }
+
+    @Test
+    void restockAddsToTheSupplierRowAtItsCostOrOpensOneAtThePriceOfTheLine() {
+        Integer version = productVersion();
+        receive(supplierA, 10, "5");
+
+        transactionTemplate.execute(status -> {
+            inventoryLedger.restock(product, supplierA, 4, new BigDecimal("9"), 1);
+            inventoryLedger.restock(product, supplierB, 5, new BigDecimal("8"), 1);
+            return null;
+        });
+
+        List<Inventory> layers = layers();
+        assertThat(layers).extracting(Inventory::getStockOnHand).containsExactly(14, 5);
+        assertThat(layers).extracting(Inventory::getPurchaseQuantity).containsExactly(14, 5);
+        assertThat(layers).extracting(Inventory::getUnitCost).containsExactly(5f, 8f);
+        assertThat(averagePurchaseCost()).isCloseTo(new BigDecimal("5.79"), within(new BigDecimal("0.01")));
+        assertThat(productVersion()).isEqualTo(version);
+    }
+
+    private Invoice receive(Contact supplier, int quantity, String unitPrice) {
+        Invoice invoice = invoice(SUPPLIER_INVOICE, supplier);
+        transactionTemplate.execute(status -> {
+            Product managed = entityManager.find(Product.class, product.getProductID());
+            inventoryLedger.receive(lineItem(invoice, quantity, unitPrice), managed, supplier, 1);
+            return null;
+        });
+        return invoice;
+    }
+
+    private Contact contact(String name) {
+        Contact contact = new Contact();
+        contact.setFirstName(name);
+        contact.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(contact);
+        return contact;
+    }
+
+    private Invoice invoice(int type, Contact contact) {
+        return transactionTemplate.execute(status -> {
+            Invoice invoice = new Invoice();
+            invoice.setType(type);
+            invoice.setContact(contact);
+            invoice.setInvoiceDate(LocalDate.of(2024, 3, 1));
+            invoice.setExchangeRate(BigDecimal.ONE);
+            invoice.setCreatedDate(LocalDateTime.now());
+            entityManager.persist(invoice);
+            return invoice;
+        });
+    }
+
+    private InvoiceLineItem lineItem(Invoice invoice, int quantity, String unitPrice) {
+        InvoiceLineItem lineItem = new InvoiceLineItem();
+        lineItem.setInvoice(invoice);
+        lineItem.setProduct(product);
+        lineItem.setQuantity(quantity);
+        lineItem.setUnitPrice(new BigDecimal(unitPrice));
+        return lineItem;
+    }
+
+    private List<Inventory> layers() {
+        return transactionTemplate.execute(status -> entityManager.createQuery(
+                "select i from Inventory i order by i.inventoryID", Inventory.class).getResultList());
+    }
+
+    private Double soldQuantity() {
+        return transactionTemplate.execute(status -> entityManager.createQuery(
+                "select sum(ih.quantity) from InventoryHistory ih where ih.invoice.type = 2", Double.class)
+                .getSingleResult());
+    }
+
+    private Integer productVersion() {
+        return transactionTemplate.execute(status -> entityManager.createQuery(
+                "select p.versionNumber from Product p where p.productID = :productId", Integer.class)
+                .setParameter("productId", product.getProductID())
+                .getSingleResult());
+    }
+
+    private BigDecimal averagePurchaseCost() {
+        return transactionTemplate.execute(status -> entityManager.createQuery(
+                "select p.avgPurchaseCost from Product p where p.productID = :productId", BigDecimal.class)
+                .setParameter("productId", product.getProductID())
+                .getSingleResult());
+    }
+}
@@ -0,0 +1,142 @@
+package com.simpleaccounts.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+import com.simpleaccounts.constant.DatatableSortingFilterConstant;
+import com.simpleaccounts.dao.ActivityDao;
+import com.simpleaccounts.dao.InventoryDao;
+import com.simpleaccounts.dao.impl.InventoryDaoImpl;
+import com.simpleaccounts.dao.impl.InventoryHistoryDaoImpl;
+import com.simpleaccounts.entity.Inventory;
+import com.simpleaccounts.entity.Product;
+import com.simpleaccounts.helper.DashboardCacheEvictor;
+import com.simpleaccounts.rest.InventoryController.InventoryDashboardModel;
+import com.simpleaccounts.rest.productcontroller.InventoryListModel;
+import com.simpleaccounts.utils.DateUtils;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventoryservicedb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false"
+})
+@Import({InventoryServiceImpl.class, InventoryDaoImpl.class, InventoryHistoryDaoImpl.class, DateUtils.class,
+        DatatableSortingFilterConstant.class})
+class InventoryServiceImplTest {
+
+    @MockBean
+    private DashboardCacheEvictor dashboardCacheEvictor;
+
+    @MockBean
+    private ActivityDao activityDao;
+
+    @Autowired
+    private InventoryServiceImpl inventoryService;
+
+    @Autowired
+    private InventoryDao inventoryDao;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Product pen = product("Pen", "2");
+        inventory(pen, 10, 5, 2);
+        inventory(pen, 1, 7, 3);
+        Product ink = product("Ink", "4");
+        inventory(ink, 0, 13, 1);
+        Product pad = product("Pad", null);
+        inventory(pad, 4, 1, 0);
+        for (int i = 0; i < 5; i++) {
+            inventory(product("Clip " + i, "1"), 1, i, 0);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void dashboardTilesMatchTheQueriesTheyReplace() {
+        InventoryDashboardModel dashboard = inventoryService.getInventoryDashboard();
+
+        assertThat(dashboard.getProductCount()).isEqualTo(inventoryDao.getProductCountForInventory()).isEqualTo(8);
+        assertThat(dashboard.getTotalStockOnHand()).isEqualTo(inventoryDao.totalStockOnHand()).isEqualTo(20);
+        assertThat(dashboard.getLowStockProductCount())
+                .isEqualTo(inventoryDao.getlowStockProductCountForInventory()).isEqualTo(2);
+        assertThat(dashboard.getOutOfStockCount()).isEqualTo(inventoryDao.getOutOfStockCountOfInventory()).isEqualTo(1);
+        assertThat(dashboard.getTotalInventoryValue())
+                .isEqualByComparingTo(inventoryDao.getTotalInventoryValue()).isEqualByComparingTo("27");
+        assertThat(dashboard.getTopSellingProductList()).extracting(InventoryListModel::getProductName)
+                .containsExactly("Ink", "Pen", "Clip 4", "Clip 3", "Clip 2");
+        assertThat(dashboard.getTopSellingProductList()).extracting(InventoryListModel::getQuantitySold)
+                .containsExactlyElementsOf(inventoryDao.getTopSellingProductListForInventory().stream()
+                        .map(InventoryListModel::getQuantitySold)::iterator);
+        assertThat(dashboard.getTotalRevenue().getTotalRevenueYearly()).isEqualByComparingTo("0");
+        assertThat(dashboard.getTotalQuantitySold().getTotalQtySoldYearly()).isEqualByComparingTo("0");
+        assertThat(dashboard.getTopSellingProducts().getTopSellingProductsYearly()).isEmpty();
+    }
+
+    @Test
+    void changingAnInventoryRowEvictsTheDashboard() {
+        Inventory inventory = entityManager.createQuery("select i from Inventory i", Inventory.class)
+                .setMaxResults(1).getSingleResult();
+        inventory.setReorderLevel(0);
+
+        inventoryService.update(inventory);
+
+        verify(dashboardCacheEvictor).evictInventory();
+    }
+
+    @Test
+    void savingInventoryRowsInABatchEvictsTheDashboard() {
+        Inventory inventory = entityManager.createQuery("select i from Inventory i", Inventory.class)
+                .setMaxResults(1).getSingleResult();
+        inventory.setReorderLevel(0);
+
+        inventoryService.updateAll(Collections.singletonList(inventory));
+
+        verify(dashboardCacheEvictor).evictInventory();
+    }
+
+    private Product product(String name, String avgPurchaseCost) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setCreatedDate(LocalDateTime.now());
+        product.setIsInventoryEnabled(Boolean.TRUE);
+        product.setExciseStatus(Boolean.FALSE);
+        product.setExciseType(Boolean.FALSE);
+        product.setAvgPurchaseCost(avgPurchaseCost != null ? new BigDecimal(avgPurchaseCost) : null);
+        entityManager.persist(product);
+        return product;
+    }
+
+    private void inventory(Product product, int stockOnHand, int quantitySold, int reorderLevel) {
+        Inventory inventory = new Inventory();
+        inventory.setProductId(product);
+        inventory.setStockOnHand(stockOnHand);
+        inventory.setQuantitySold(quantitySold);
+        inventory.setPurchaseQuantity(stockOnHand + quantitySold);
+        inventory.setReorderLevel(reorderLevel);
+        inventory.setUnitCost(1f);
+        inventory.setCreatedBy(1);
+        inventory.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(inventory);
+    }
+}
@@ -12,10 +12,13 @@ import com.simpleaccounts.dao.ActivityDao;
 import com.simpleaccounts.dao.JournalDao;
 import com.simpleaccounts.entity.Journal;
 import com.simpleaccounts.entity.JournalLineItem;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
 import com.simpleaccounts.rest.PaginationModel;
 import com.simpleaccounts.rest.PaginationResponseModel;
 import com.simpleaccounts.service.TransactionCategoryBalanceService;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -24,6 +27,7 @@ import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -41,6 +45,9 @@ class JournalServiceImplTest {
     @Mock
     private ActivityDao activityDao;
 
+    @Mock
+    private BalanceUpdateCoordinator balanceUpdateCoordinator;
+
     @InjectMocks
     private JournalServiceImpl journalService;
 
@@ -125,6 +132,7 @@ class JournalServiceImplTest {
         assertThat(item1.getCurrentBalance()).isEqualTo(balance1);
         assertThat(item2.getCurrentBalance()).isEqualTo(balance2);
         
+        verify(balanceUpdateCoordinator).lockCategories(any());
         verify(transactionCategoryBalanceService).updateRunningBalance(item1);
         verify(transactionCategoryBalanceService).updateRunningBalance(item2);
         verify(journalDao).persist(journal);
@@ -148,4 +156,82 @@ class JournalServiceImplTest {
         verify(transactionCategoryBalanceService).updateRunningBalanceAndOpeningBalance(item1, updateOpening);
         verify(journalDao).persist(journal);
     }
+
+    @Test
+    void shouldPostJournalsWithOneBalanceUpdatePerCategoryGroup() {
+        TransactionCategory liability = category(1);
+        List<Journal> journals = new ArrayList<>();
+        List<JournalLineItem> credits = new ArrayList<>();
+        List<JournalLineItem> debits = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Journal journal = new Journal();
+            journal.setJournalDate(LocalDate.of(2024, 1, 31));
+            JournalLineItem credit = lineItem(journal, liability, BigDecimal.ZERO, new BigDecimal(i * 100));
+            JournalLineItem debit = lineItem(journal, category(10 + i), new BigDecimal(i * 100), BigDecimal.ZERO);
+            journal.setJournalLineItems(Arrays.asList(credit, debit));
+            journals.add(journal);
+            credits.add(credit);
+            debits.add(debit);
+        }
+        when(transactionCategoryBalanceService.updateRunningBalance(any())).thenAnswer(invocation -> {
+            JournalLineItem lineItem = invocation.getArgument(0);
+            if (lineItem.getTransactionCategory() != liability) {
+                return lineItem.getDebitAmount().negate();
+            }
+            return new BigDecimal("1000").add(lineItem.getCreditAmount());
+        });
+
+        journalService.postJournals(journals);
+
+        ArgumentCaptor<JournalLineItem> applied = ArgumentCaptor.forClass(JournalLineItem.class);
+        verify(transactionCategoryBalanceService, times(5)).updateRunningBalance(applied.capture());
+        JournalLineItem total = applied.getAllValues().get(1);
+        assertThat(total.getTransactionCategory()).isSameAs(liability);
+        assertThat(total.getCreditAmount()).isEqualByComparingTo("500");
+        assertThat(total.getDebitAmount()).isEqualByComparingTo("0");
+        assertThat(credits).extracting(JournalLineItem::getCurrentBalance)
+                .containsExactly(new BigDecimal("1100"), new BigDecimal("1300"), new BigDecimal("1500"));
+        assertThat(debits.get(2).getCurrentBalance()).isEqualByComparingTo("-300");
+        verify(balanceUpdateCoordinator, times(1)).lockCategories(any());
+        verify(journalDao).persistAll(journals);
+    }
+
+    @Test
+    void shouldPostConvertedAndDeletedLinesOnTheirOwn() {
+        TransactionCategory bank = category(1);
+        Journal journal = new Journal();
+        journal.setJournalDate(LocalDate.of(2024, 1, 31));
+        JournalLineItem converted = lineItem(journal, bank, BigDecimal.ZERO, BigDecimal.TEN);
+        converted.setExchangeRate(new BigDecimal("3.6725"));
+        JournalLineItem convertedAgain = lineItem(journal, bank, BigDecimal.ZERO, BigDecimal.TEN);
+        convertedAgain.setExchangeRate(new BigDecimal("3.6725"));
+        JournalLineItem deleted = lineItem(journal, bank, BigDecimal.ZERO, BigDecimal.TEN);
+        deleted.setDeleteFlag(Boolean.TRUE);
+        journal.setJournalLineItems(Arrays.asList(converted, convertedAgain, deleted));
+        when(transactionCategoryBalanceService.updateRunningBalance(any())).thenReturn(BigDecimal.ONE);
+
+        journalService.postJournals(Collections.singletonList(journal));
+
+        ArgumentCaptor<JournalLineItem> applied = ArgumentCaptor.forClass(JournalLineItem.class);
+        verify(transactionCategoryBalanceService, times(3)).updateRunningBalance(applied.capture());
+        assertThat(applied.getAllValues()).usingElementComparator((a, b) -> a == b ? 0 : 1)
+                .containsExactly(converted, convertedAgain, deleted);
+        verify(journalDao).persistAll(Collections.singletonList(journal));
+    }
+
+    private static TransactionCategory category(int id) {
+        TransactionCategory category = new TransactionCategory();
+        category.setTransactionCategoryId(id);
+        return category;
+    }
+
+    private static JournalLineItem lineItem(Journal journal, TransactionCategory category, BigDecimal debit,
+            BigDecimal credit) {
+        JournalLineItem lineItem = new JournalLineItem();
+        lineItem.setJournal(journal);
+        lineItem.setTransactionCategory(category);
+        lineItem.setDebitAmount(debit);
+        lineItem.setCreditAmount(credit);
+        return lineItem;
+    }
 }
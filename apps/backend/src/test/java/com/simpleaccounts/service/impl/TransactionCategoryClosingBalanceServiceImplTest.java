@@ -0,0 +1,166 @@
+package com.simpleaccounts.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.simpleaccounts.dao.TransactionCategoryClosingBalanceDao;
+import com.simpleaccounts.entity.TransactionCategoryClosingBalance;
+import com.simpleaccounts.entity.bankaccount.ChartOfAccount;
+import com.simpleaccounts.entity.bankaccount.Transaction;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.rest.detailedgeneralledgerreport.ReportRequestModel;
+import com.simpleaccounts.service.BankAccountService;
+import com.simpleaccounts.service.CurrencyExchangeService;
+import com.simpleaccounts.service.DashboardMonthlyBalanceService;
+import com.simpleaccounts.utils.DateFormatUtil;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.function.Supplier;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionCategoryClosingBalanceServiceImplTest {
+
+    private static final LocalDateTime JAN_10 = LocalDateTime.of(2024, 1, 10, 0, 0);
+    private static final LocalDateTime MAR_31 = LocalDateTime.of(2024, 3, 31, 0, 0);
+
+    @Mock
+    private TransactionCategoryClosingBalanceDao closingBalanceDao;
+
+    @Mock
+    private DateFormatUtil dateFormatUtil;
+
+    @Mock
+    private BankAccountService bankAccountService;
+
+    @Mock
+    private CurrencyExchangeService currencyExchangeService;
+
+    @Mock
+    private ClosingBalancePropagator closingBalancePropagator;
+
+    @Mock
+    private DashboardMonthlyBalanceService dashboardMonthlyBalanceService;
+
+    private TransactionCategoryClosingBalanceServiceImpl service;
+
+    private TransactionCategory category;
+
+    @BeforeEach
+    void setUp() {
+        BalanceUpdateCoordinator coordinator = new BalanceUpdateCoordinator(mock(EntityManager.class));
+        service = new TransactionCategoryClosingBalanceServiceImpl(closingBalanceDao, dateFormatUtil,
+                bankAccountService, currencyExchangeService, coordinator, closingBalancePropagator,
+                dashboardMonthlyBalanceService);
+
+        ChartOfAccount chartOfAccount = new ChartOfAccount();
+        chartOfAccount.setChartOfAccountId(2);
+        category = new TransactionCategory();
+        category.setTransactionCategoryId(84);
+        category.setChartOfAccount(chartOfAccount);
+    }
+
+    @Test
+    void shouldUpdateOwnRowAndDeferLaterRowsForBackDatedPosting() {
+        TransactionCategoryClosingBalance existing = balance(JAN_10, "500.00");
+        when(closingBalanceDao.findByAttributes(anyMap())).thenReturn(Collections.singletonList(existing));
+        when(closingBalanceDao.getLastClosingBalanceByDate(category)).thenReturn(balance(MAR_31, "900.00"));
+
+        BigDecimal result = service.updateClosingBalance(transaction(JAN_10, 'C', "120.00"), category);
+
+        assertThat(result).isEqualByComparingTo("620.00");
+        verify(closingBalanceDao, times(1)).update(existing);
+        verify(closingBalancePropagator).propagate(category, JAN_10, new BigDecimal("120.00"), null);
+        verify(closingBalanceDao, never()).getClosingBalanceGreaterThanCurrentDate(any(), any());
+        verify(closingBalanceDao, never()).getClosingBalanceForTimeRange(any(), any(), any());
+    }
+
+    @Test
+    void shouldNotPropagateWhenPostingIsOnLatestDate() {
+        TransactionCategoryClosingBalance latest = balance(MAR_31, "900.00");
+        when(closingBalanceDao.findByAttributes(anyMap())).thenReturn(Collections.singletonList(latest));
+        when(closingBalanceDao.getLastClosingBalanceByDate(category)).thenReturn(latest);
+
+        BigDecimal result = service.updateClosingBalance(transaction(MAR_31, 'D', "100.00"), category);
+
+        assertThat(result).isEqualByComparingTo("800.00");
+        verify(closingBalancePropagator, never()).propagate(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldCarryPreviousBalanceWithoutItsPendingDeltaIntoNewRow() {
+        TransactionCategoryClosingBalance previous = balance(JAN_10, "500.00");
+        when(closingBalanceDao.findByAttributes(anyMap())).thenReturn(Collections.emptyList());
+        when(closingBalanceDao.getClosingBalanceLessThanCurrentDate(MAR_31, category)).thenReturn(previous);
+        when(closingBalancePropagator.getPendingDelta(category, JAN_10))
+                .thenReturn(new ClosingBalancePropagator.Delta(new BigDecimal("200.00"), null));
+
+        BigDecimal result = service.updateClosingBalance(transaction(MAR_31, 'C', "50.00"), category);
+
+        ArgumentCaptor<TransactionCategoryClosingBalance> saved = ArgumentCaptor.forClass(TransactionCategoryClosingBalance.class);
+        verify(closingBalanceDao).update(saved.capture());
+        assertThat(saved.getValue().getOpeningBalance()).isEqualByComparingTo("300.00");
+        assertThat(result).isEqualByComparingTo("350.00");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldApplyPostingToMonthlyBalanceWithPendingEarlierDeltas() {
+        TransactionCategoryClosingBalance previous = balance(JAN_10, "500.00");
+        when(closingBalanceDao.findByAttributes(anyMap())).thenReturn(Collections.emptyList());
+        when(closingBalanceDao.getClosingBalanceLessThanCurrentDate(MAR_31, category)).thenReturn(previous);
+        when(closingBalancePropagator.getPendingDelta(category, JAN_10)).thenReturn(ClosingBalancePropagator.Delta.NONE);
+
+        service.updateClosingBalance(transaction(MAR_31, 'C', "50.00"), category);
+
+        ArgumentCaptor<Supplier<BigDecimal>> monthClosingBalance = ArgumentCaptor.forClass(Supplier.class);
+        verify(dashboardMonthlyBalanceService).applyDelta(eq(category), eq(MAR_31), eq(new BigDecimal("50.00")),
+                monthClosingBalance.capture());
+        when(closingBalancePropagator.getPendingDeltaBefore(category, MAR_31))
+                .thenReturn(new ClosingBalancePropagator.Delta(new BigDecimal("30.00"), null));
+        assertThat(monthClosingBalance.getValue().get()).isEqualByComparingTo("580.00");
+    }
+
+    @Test
+    void shouldSettlePendingDeltasBeforeReadingReports() {
+        ReportRequestModel request = new ReportRequestModel();
+
+        service.getListByChartOfAccountIds(request);
+
+        InOrder order = inOrder(closingBalancePropagator, closingBalanceDao);
+        order.verify(closingBalancePropagator).settle();
+        order.verify(closingBalanceDao).getListByChartOfAccountIds(request);
+    }
+
+    private TransactionCategoryClosingBalance balance(LocalDateTime date, String closingBalance) {
+        TransactionCategoryClosingBalance balance = new TransactionCategoryClosingBalance();
+        balance.setTransactionCategory(category);
+        balance.setClosingBalanceDate(date);
+        balance.setClosingBalance(new BigDecimal(closingBalance));
+        return balance;
+    }
+
+    private static Transaction transaction(LocalDateTime date, char debitCreditFlag, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionDate(date);
+        transaction.setDebitCreditFlag(debitCreditFlag);
+        transaction.setTransactionAmount(new BigDecimal(amount));
+        return transaction;
+    }
+}
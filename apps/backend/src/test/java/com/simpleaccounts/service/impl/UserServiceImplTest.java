@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.simpleaccounts.dao.ActivityDao;
 import com.simpleaccounts.dao.UserDao;
 import com.simpleaccounts.entity.Company;
 import com.simpleaccounts.entity.Role;
@@ -16,6 +17,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import com.simpleaccounts.repository.UserJpaRepository;
+import com.simpleaccounts.security.UserPrincipalCache;
 import com.simpleaccounts.utils.DateUtils;
 import com.simpleaccounts.utils.EmailSender;
 import com.simpleaccounts.utils.RandomString;
@@ -47,12 +49,65 @@ class UserServiceImplTest {
     @Mock
     private DateUtils dateUtils;
 
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
+    @Mock
+    private ActivityDao activityDao;
+
     @InjectMocks
     private UserServiceImpl userService;
 
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(userService, "dao", dao);
+        ReflectionTestUtils.setField(userService, "activityDao", activityDao);
+    }
+
+    @Test
+    @DisplayName("Should evict cached principals of updated user")
+    void updateEvictsCachedPrincipal() {
+        User user = createUser(5, "John", "Doe", "john@test.com");
+        when(dao.update(user)).thenReturn(user);
+
+        userService.update(user);
+
+        verify(userPrincipalCache).evictUser(5, "john@test.com");
+    }
+
+    @Test
+    @DisplayName("Should evict cached principals of users saved in a batch")
+    void persistAllEvictsCachedPrincipals() {
+        List<User> users = Arrays.asList(createUser(5, "John", "Doe", "john@test.com"),
+                createUser(6, "Jane", "Roe", "jane@test.com"));
+
+        userService.persistAll(users);
+
+        verify(dao).persistAll(users);
+        verify(userPrincipalCache).evictUser(5, "john@test.com");
+        verify(userPrincipalCache).evictUser(6, "jane@test.com");
+    }
+
+    @Test
+    @DisplayName("Should evict cached principals of users updated in a batch")
+    void updateAllEvictsCachedPrincipals() {
+        List<User> users = Arrays.asList(createUser(5, "John", "Doe", "john@test.com"),
+                createUser(6, "Jane", "Roe", "jane@test.com"));
+        when(dao.updateAll(users)).thenReturn(users);
+
+        assertThat(userService.updateAll(users)).isEqualTo(users);
+
+        verify(userPrincipalCache).evictUser(5, "john@test.com");
+        verify(userPrincipalCache).evictUser(6, "jane@test.com");
+    }
+
+    @Test
+    @DisplayName("Should evict cached principals of deleted users")
+    void deleteByIdsEvictsCachedPrincipals() {
+        userService.deleteByIds(Arrays.asList(5, 6));
+
+        verify(userPrincipalCache).evictUser(5, null);
+        verify(userPrincipalCache).evictUser(6, null);
     }
 
     @Test
@@ -0,0 +1,224 @@
+package com.simpleaccounts.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.simpleaccounts.constant.PostingReferenceTypeEnum;
+import com.simpleaccounts.dao.impl.VatReturnDaoImpl;
+import com.simpleaccounts.entity.Expense;
+import com.simpleaccounts.entity.Invoice;
+import com.simpleaccounts.entity.InvoiceLineItem;
+import com.simpleaccounts.entity.Journal;
+import com.simpleaccounts.entity.JournalLineItem;
+import com.simpleaccounts.entity.PlaceOfSupply;
+import com.simpleaccounts.entity.VatCategory;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.helper.VatLedgerVersion;
+import com.simpleaccounts.model.VatReportModel;
+import com.simpleaccounts.model.VatReturnBoxes;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:vatreturndb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false"
+})
+@Import({VatReturnEngine.class, VatReturnDaoImpl.class, VatLedgerVersion.class})
+class VatReturnEngineTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private static final LocalDate END = LocalDate.of(2024, 3, 31);
+
+    @Autowired
+    private VatReturnEngine vatReturnEngine;
+
+    @Autowired
+    private VatLedgerVersion vatLedgerVersion;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.execute(status -> {
+            for (int id = 1; id <= 3; id++) {
+                entityManager.createNativeQuery("INSERT INTO VAT_CATEGORY (VAT_CATEGORY_ID, NAME, CREATED_BY, "
+                        + "CREATED_DATE) VALUES (?, ?, 0, CURRENT_TIMESTAMP)").setParameter(1, id)
+                        .setParameter(2, "VAT " + id).executeUpdate();
+            }
+            entityManager.createNativeQuery("INSERT INTO PLACE_OF_SUPPLY (PLACE_OF_SUPPLY_ID, PLACE_OF_SUPPLY, "
+                    + "CREATED_BY, CREATED_DATE) VALUES (2, 'Dubai', 0, CURRENT_TIMESTAMP)").executeUpdate();
+            for (int id : new int[] {VatReturnEngine.INPUT_VAT_CATEGORY_ID, VatReturnEngine.OUTPUT_VAT_CATEGORY_ID}) {
+                entityManager.createNativeQuery("INSERT INTO TRANSACTION_CATEGORY (TRANSACTION_CATEGORY_ID, "
+                        + "TRANSACTION_CATEGORY_NAME, CREATED_BY, CREATED_DATE) VALUES (?, ?, 0, CURRENT_TIMESTAMP)")
+                        .setParameter(1, id).setParameter(2, "VAT " + id).executeUpdate();
+            }
+            return null;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.execute(status -> {
+            entityManager.createQuery("delete from JournalLineItem").executeUpdate();
+            entityManager.createQuery("delete from Journal").executeUpdate();
+            entityManager.createQuery("delete from InvoiceLineItem").executeUpdate();
+            entityManager.createQuery("delete from Invoice").executeUpdate();
+            entityManager.createQuery("delete from Expense").executeUpdate();
+            entityManager.createQuery("delete from TransactionCategory").executeUpdate();
+            entityManager.createQuery("delete from PlaceOfSupply").executeUpdate();
+            entityManager.createQuery("delete from VatCategory").executeUpdate();
+            return null;
+        });
+    }
+
+    @Test
+    void computesEveryBoxFromGroupedTotals() {
+        transactionTemplate.execute(status -> {
+            Invoice sale = invoice(2, 1, "105", "5");
+            invoice(2, 2, "40", "0").setPlaceOfSupplyId(null);
+            invoice(2, 3, "30", "0");
+            invoice(1, 1, "210", "10");
+            Invoice reverseCharge = invoice(1, 1, "60", "3");
+            reverseCharge.setIsReverseChargeEnabled(Boolean.TRUE);
+            Invoice draft = invoice(2, 1, "999", "9");
+            draft.setStatus(2);
+            expense("50", "2.5");
+            Journal journal = journal();
+            journalLine(journal, VatReturnEngine.INPUT_VAT_CATEGORY_ID, sale.getId(), "10", "0");
+            journalLine(journal, VatReturnEngine.OUTPUT_VAT_CATEGORY_ID, sale.getId(), "1", "5");
+            return null;
+        });
+
+        VatReturnBoxes boxes = vatReturnEngine.getBoxes(START, END);
+
+        assertThat(boxes.getStandardRatedSupplies()).extracting(VatReportModel::getPlaceOfSupplyName)
+                .containsExactly("Dubai");
+        VatReportModel dubai = boxes.getStandardRatedSupplies().get(0);
+        assertThat(dubai.getTotalAmount()).isEqualByComparingTo("105");
+        assertThat(dubai.getTotalVatAmount()).isEqualByComparingTo("5");
+        assertThat(boxes.getZeroRatedSupplies()).isEqualByComparingTo("40");
+        assertThat(boxes.getExemptSupplies()).isEqualByComparingTo("30");
+        assertThat(boxes.getSupplierInvoiceAmount()).isEqualByComparingTo("210");
+        assertThat(boxes.getSupplierInvoiceVat()).isEqualByComparingTo("10");
+        assertThat(boxes.getReverseChargeAmount()).isEqualByComparingTo("60");
+        assertThat(boxes.getReverseChargeVat()).isEqualByComparingTo("3");
+        assertThat(boxes.getExpenseAmount()).isEqualByComparingTo("50");
+        assertThat(boxes.getExpenseVat()).isEqualByComparingTo("2.5");
+        assertThat(boxes.getDebitNoteSales()).isNull();
+        assertThat(boxes.getInputVat()).isEqualByComparingTo("10");
+        assertThat(boxes.getOutputVat()).isEqualByComparingTo("4");
+    }
+
+    @Test
+    void reusesTheBoxesUntilTheLedgerChanges() {
+        VatReturnBoxes empty = vatReturnEngine.getBoxes(START, END);
+
+        assertThat(empty.getStandardRatedSupplies()).isEmpty();
+        assertThat(empty.getOutputVat()).isNull();
+        assertThat(vatReturnEngine.getBoxes(START, END)).isSameAs(empty);
+
+        long version = vatLedgerVersion.current();
+        transactionTemplate.execute(status -> invoice(2, 2, "40", "0"));
+
+        assertThat(vatLedgerVersion.current()).isGreaterThan(version);
+        VatReturnBoxes changed = vatReturnEngine.getBoxes(START, END);
+        assertThat(changed).isNotSameAs(empty);
+        assertThat(changed.getZeroRatedSupplies()).isEqualByComparingTo("40");
+    }
+
+    private Invoice invoice(int type, int vatCategoryId, String subTotal, String vat) {
+        Invoice invoice = new Invoice();
+        invoice.setType(type);
+        invoice.setStatus(3);
+        invoice.setInvoiceDate(START.plusDays(10));
+        invoice.setExchangeRate(BigDecimal.ONE);
+        invoice.setTotalAmount(new BigDecimal(subTotal));
+        invoice.setTotalVatAmount(new BigDecimal(vat));
+        invoice.setPlaceOfSupplyId(entityManager.find(PlaceOfSupply.class, 2));
+        invoice.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(invoice);
+        line(invoice, vatCategoryId, subTotal, vat);
+        return invoice;
+    }
+
+    private void line(Invoice invoice, int vatCategoryId, String subTotal, String vat) {
+        InvoiceLineItem line = new InvoiceLineItem();
+        line.setInvoice(invoice);
+        line.setQuantity(1);
+        line.setUnitPrice(new BigDecimal(subTotal));
+        line.setSubTotal(new BigDecimal(subTotal));
+        line.setVatAmount(new BigDecimal(vat));
+        line.setVatCategory(entityManager.find(VatCategory.class, vatCategoryId));
+        line.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(line);
+    }
+
+    private void expense(String amount, String vat) {
+        Expense expense = new Expense();
+        expense.setStatus(3);
+        expense.setExpenseDate(START.plusDays(20));
+        expense.setExchangeRate(BigDecimal.ONE);
+        expense.setExpenseAmount(new BigDecimal(amount));
+        expense.setExpenseVatAmount(new BigDecimal(vat));
+        expense.setVatCategory(entityManager.find(VatCategory.class, 1));
+        expense.setVatClaimable(Boolean.TRUE);
+        expense.setExpenseType(Boolean.FALSE);
+        expense.setBankGenerated(Boolean.FALSE);
+        expense.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(expense);
+    }
+
+    private Journal journal() {
+        Journal journal = new Journal();
+        journal.setJournalDate(START.plusDays(10));
+        journal.setTransactionDate(START.plusDays(10));
+        journal.setPostingReferenceType(PostingReferenceTypeEnum.INVOICE);
+        journal.setCreatedDate(LocalDateTime.now());
+        journal.setJournalLineItems(Collections.emptyList());
+        entityManager.persist(journal);
+        return journal;
+    }
+
+    private void journalLine(Journal journal, int transactionCategoryId, Integer invoiceId, String debit,
+            String credit) {
+        JournalLineItem line = new JournalLineItem();
+        line.setJournal(journal);
+        line.setTransactionCategory(entityManager.find(TransactionCategory.class, transactionCategoryId));
+        line.setReferenceType(PostingReferenceTypeEnum.INVOICE);
+        line.setReferenceId(invoiceId);
+        line.setDebitAmount(new BigDecimal(debit));
+        line.setCreditAmount(new BigDecimal(credit));
+        line.setCurrentBalance(BigDecimal.ZERO);
+        line.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(line);
+    }
+}
@@ -2,6 +2,7 @@ package com.simpleaccounts.service.impl.bankaccount;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -12,16 +13,17 @@ import com.simpleaccounts.dao.bankaccount.TransactionDao;
 import com.simpleaccounts.entity.bankaccount.BankAccount;
 import com.simpleaccounts.entity.bankaccount.ReconcileStatus;
 import com.simpleaccounts.entity.bankaccount.Transaction;
+import com.simpleaccounts.helper.DashboardCacheEvictor;
 import com.simpleaccounts.service.BankAccountService;
 import com.simpleaccounts.service.bankaccount.ReconcileStatusService;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -37,6 +39,8 @@ class TransactionServiceImplTest {
     private BankAccountService bankAccountService;
     @Mock
     private ReconcileStatusService reconcileStatusService;
+    @Mock
+    private DashboardCacheEvictor dashboardCacheEvictor;
 
     @InjectMocks
     private TransactionServiceImpl transactionService;
@@ -60,18 +64,18 @@ class TransactionServiceImplTest {
         when(bankAccountService.findByPK(99)).thenReturn(bankAccount);
         when(reconcileStatusService.getAllReconcileStatusListByBankAccountId(99))
                 .thenReturn(Collections.singletonList(latestReconcileStatus(LocalDateTime.now().minusDays(10))));
-        when(transactionDao.isAlreadyExistSimilarTransaction(any(), any(), any(), any())).thenReturn(false);
+        when(transactionDao.getExistingFingerprints(eq(99), any())).thenReturn(Collections.emptySet());
 
         String message = transactionService.saveTransactions(transactions);
 
-        ArgumentCaptor<Transaction> persisted = ArgumentCaptor.forClass(Transaction.class);
-        verify(transactionDao).persist(persisted.capture());
-        assertThat(persisted.getValue().getCurrentBalance())
-                .isEqualByComparingTo(new BigDecimal("1200.00"));
+        verify(transactionDao).persistAll(Collections.singletonList(valid));
+        assertThat(valid.getCurrentBalance()).isEqualByComparingTo(new BigDecimal("1200.00"));
         verify(bankAccountService).update(bankAccount);
         assertThat(bankAccount.getCurrentBalance()).isEqualByComparingTo(new BigDecimal("1200.00"));
-        verify(transactionDao, never()).persist(invalid);
+        verify(transactionDao, never()).persist(any());
         assertThat(message).contains("Transactions Imported 1");
+        verify(dashboardCacheEvictor).evictCashFlow(YearMonth.from(valid.getTransactionDate()));
+        verify(dashboardCacheEvictor).evictBankAccount(99, null);
     }
 
     @Test
@@ -82,13 +86,33 @@ class TransactionServiceImplTest {
         when(bankAccountService.findByPK(99)).thenReturn(bankAccount);
         when(reconcileStatusService.getAllReconcileStatusListByBankAccountId(99))
                 .thenReturn(Collections.emptyList());
-        when(transactionDao.isAlreadyExistSimilarTransaction(any(), any(), any(), any())).thenReturn(true);
+        String booked = Transaction.fingerprintOf(99, duplicate.getTransactionDate(), 'C', new BigDecimal("30"), "test");
+        when(transactionDao.getExistingFingerprints(99, Collections.singleton(booked)))
+                .thenReturn(Collections.singleton(booked));
 
         transactionService.saveTransactions(transactions);
 
         assertThat(duplicate.getCreationMode()).isEqualTo(TransactionCreationMode.POTENTIAL_DUPLICATE);
     }
 
+    @Test
+    void saveTransactionsShouldFlagRepeatedRowsOfTheSameStatement() {
+        LocalDateTime date = LocalDateTime.now().minusDays(2);
+        Transaction first = buildTransaction(date, new BigDecimal("30.00"));
+        Transaction repeated = buildTransaction(date, new BigDecimal("30.00"));
+
+        when(bankAccountService.findByPK(99)).thenReturn(bankAccount);
+        when(reconcileStatusService.getAllReconcileStatusListByBankAccountId(99))
+                .thenReturn(Collections.emptyList());
+        when(transactionDao.getExistingFingerprints(eq(99), any())).thenReturn(Collections.emptySet());
+
+        transactionService.saveTransactions(java.util.Arrays.asList(first, repeated));
+
+        assertThat(first.getCreationMode()).isNotEqualTo(TransactionCreationMode.POTENTIAL_DUPLICATE);
+        assertThat(repeated.getCreationMode()).isEqualTo(TransactionCreationMode.POTENTIAL_DUPLICATE);
+        verify(transactionDao).persistAll(java.util.Arrays.asList(first, repeated));
+    }
+
     private Transaction buildTransaction(LocalDateTime date, BigDecimal amount) {
         Transaction transaction = new Transaction();
         transaction.setTransactionDate(date);
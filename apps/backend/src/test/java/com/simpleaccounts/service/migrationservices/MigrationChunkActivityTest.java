@@ -0,0 +1,115 @@
+package com.simpleaccounts.service.migrationservices;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.simpleaccounts.dao.impl.ActivityDaoImpl;
+import com.simpleaccounts.dao.impl.ChartOfAccountCategoryDaoImpl;
+import com.simpleaccounts.entity.Activity;
+import com.simpleaccounts.entity.ChartOfAccountCategory;
+import com.simpleaccounts.service.SimpleAccountsService;
+import com.simpleaccounts.service.impl.ChartOfAccountCategoryServiceImpl;
+import com.simpleaccounts.utils.ChartUtil;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Migrates a file through {@link MigrationEngine} into H2 with a real service, so the chunks go through
+ * {@link SimpleAccountsService#persistAll(List)} and commit as they do during a migration.
+ */
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrationchunkdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false",
+        "simpleaccounts.migration.chunk-size=2"
+})
+@Import({MigrationEngine.class, ChartOfAccountCategoryServiceImpl.class, ChartOfAccountCategoryDaoImpl.class,
+        ActivityDaoImpl.class})
+class MigrationChunkActivityTest {
+
+    @MockBean
+    private ChartUtil chartUtil;
+
+    @Autowired
+    private MigrationEngine migrationEngine;
+
+    @Autowired
+    private ChartOfAccountCategoryServiceImpl chartOfAccountCategoryService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path uploads;
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            entityManager.createQuery("delete from Activity").executeUpdate();
+            entityManager.createQuery("delete from ChartOfAccountCategory").executeUpdate();
+            return null;
+        });
+    }
+
+    @Test
+    void migratedChunksRecordAnActivityPerEntity() throws Exception {
+        Path file = uploads.resolve("Categories.csv");
+        Files.write(file, "Name\nAssets\nLiabilities\nEquity\n".getBytes(StandardCharsets.UTF_8));
+        List<Object> dependents = new ArrayList<>();
+
+        MigrationStats stats = migrationEngine.migrate(file, 0, "Categories",
+                MigrationCheckpoint.open(uploads.toString()), record -> true, record -> category(record.get("Name")),
+                castService(), dependents::add);
+
+        assertThat(stats.getRecordsPersisted()).isEqualTo(3);
+        assertThat(dependents).hasSize(3);
+        assertThat(entityManager.createQuery("select c.chartOfAccountCategoryName from ChartOfAccountCategory c",
+                String.class).getResultList()).containsExactlyInAnyOrder("Assets", "Liabilities", "Equity");
+        assertThat(entityManager.createQuery("select a from Activity a", Activity.class).getResultList())
+                .hasSize(3)
+                .allSatisfy(activity -> {
+                    assertThat(activity.getModuleCode()).isEqualTo("ChartOfAccountCategory");
+                    assertThat(activity.getActivityCode()).isEqualTo(" Created ");
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private SimpleAccountsService<Object, Object> castService() {
+        return (SimpleAccountsService<Object, Object>) (SimpleAccountsService<?, ?>) chartOfAccountCategoryService;
+    }
+
+    private static ChartOfAccountCategory category(String name) {
+        ChartOfAccountCategory category = new ChartOfAccountCategory();
+        category.setChartOfAccountCategoryName(name);
+        category.setChartOfAccountCategoryCode(name.substring(0, 3).toUpperCase());
+        category.setDefaltFlag('N');
+        category.setSelectFlag('N');
+        category.setOrderSequence(1);
+        return category;
+    }
+}
@@ -0,0 +1,118 @@
+package com.simpleaccounts.service.migrationservices;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.simpleaccounts.service.SimpleAccountsService;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class MigrationEngineTest {
+
+    private static final Predicate<Map<String, String>> KEEP_ACTIVE = record -> !"old".equals(record.get("Status"));
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private SimpleAccountsService<Object, Object> service;
+
+    @TempDir
+    Path uploads;
+
+    private Path file;
+
+    private MigrationEngine migrationEngine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        migrationEngine = new MigrationEngine(entityManager, transactionManager, 2);
+        file = uploads.resolve("Contacts.csv");
+        Files.write(file, ("Name,Status\n" + "a,new\n" + "b,old\n" + "c,new\n" + "d,new\n" + "e\n")
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void readerStreamsRecordsWithTheHeaderAsKeys() throws Exception {
+        List<Map<String, String>> records = new ArrayList<>();
+
+        MigrationStats stats = migrationEngine.load(file, KEEP_ACTIVE, records);
+
+        assertThat(records).extracting(record -> record.get("Name")).containsExactly("a", "c", "d", "e");
+        assertThat(records.get(3).get("Status")).isEqualTo("-");
+        assertThat(stats.getRecordCount()).isEqualTo(5);
+        assertThat(stats.getRecordsAccepted()).isEqualTo(4);
+        assertThat(stats.getRecordsRemoved()).isEqualTo(1);
+    }
+
+    @Test
+    void migratePersistsInChunkTransactionsAndRecordsTheCheckpoint() throws Exception {
+        MigrationCheckpoint checkpoint = MigrationCheckpoint.open(uploads.toString());
+        List<Object> dependents = new ArrayList<>();
+
+        MigrationStats stats = migrationEngine.migrate(file, 0, "Contacts", checkpoint, KEEP_ACTIVE,
+                record -> "skip".equals(record.get("Name")) ? null : record.get("Name"), service, dependents::add);
+
+        InOrder chunks = inOrder(service, entityManager, transactionManager);
+        chunks.verify(service).persistAll(Arrays.asList("a", "c"));
+        chunks.verify(entityManager).flush();
+        chunks.verify(entityManager).clear();
+        chunks.verify(transactionManager).commit(any());
+        chunks.verify(service).persistAll(Arrays.asList("d", "e"));
+        chunks.verify(entityManager).clear();
+        chunks.verify(transactionManager).commit(any());
+        verify(transactionManager, times(2)).commit(any());
+        assertThat(dependents).containsExactly("a", "c", "d", "e");
+        assertThat(stats.getRecordsPersisted()).isEqualTo(4);
+        assertThat(MigrationCheckpoint.open(uploads.toString()).getMigratedCount(file, 0)).isEqualTo(4);
+    }
+
+    @Test
+    void migrateResumesAfterTheLastCommittedChunk() throws Exception {
+        MigrationCheckpoint checkpoint = MigrationCheckpoint.open(uploads.toString());
+        List<Object> persisted = new ArrayList<>();
+
+        assertThatThrownBy(() -> migrationEngine.migrate(file, 0, "Contacts", checkpoint, KEEP_ACTIVE, record -> {
+            if ("d".equals(record.get("Name"))) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return record.get("Name");
+        }, service, persisted::add)).isInstanceOf(IllegalStateException.class);
+        assertThat(MigrationCheckpoint.open(uploads.toString()).getMigratedCount(file, 0)).isEqualTo(2);
+
+        persisted.clear();
+        MigrationCheckpoint resumed = MigrationCheckpoint.open(uploads.toString());
+        MigrationStats stats = migrationEngine.migrate(file, 0, "Contacts", resumed, KEEP_ACTIVE,
+                record -> record.get("Name"), service, persisted::add);
+
+        assertThat(persisted).containsExactly("d", "e");
+        assertThat(stats.getRecordsPersisted()).isEqualTo(2);
+        resumed.setDone(file);
+        assertThat(MigrationCheckpoint.open(uploads.toString()).isDone(file)).isTrue();
+        resumed.delete();
+        assertThat(MigrationCheckpoint.open(uploads.toString()).isDone(file)).isFalse();
+    }
+}
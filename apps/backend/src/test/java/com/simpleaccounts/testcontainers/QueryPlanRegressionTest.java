@@ -0,0 +1,325 @@
+package com.simpleaccounts.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simpleaccounts.constant.DatatableSortingFilterConstant;
+import com.simpleaccounts.constant.PostingReferenceTypeEnum;
+import com.simpleaccounts.dao.impl.JournalDaoImpl;
+import com.simpleaccounts.dao.impl.JournalLineItemDaoImpl;
+import com.simpleaccounts.dao.impl.TransactionCategoryClosingBalanceDaoImpl;
+import com.simpleaccounts.dao.impl.VatReturnDaoImpl;
+import com.simpleaccounts.dao.impl.bankaccount.TransactionDaoImpl;
+import com.simpleaccounts.entity.bankaccount.BankAccount;
+import com.simpleaccounts.entity.bankaccount.TransactionCategory;
+import com.simpleaccounts.helper.VatLedgerVersion;
+import com.simpleaccounts.rest.detailedgeneralledgerreport.ReportRequestModel;
+import com.simpleaccounts.service.TransactionCategoryBalanceService;
+import com.simpleaccounts.service.TransactionCategoryService;
+import com.simpleaccounts.service.bankaccount.ChartOfAccountService;
+import com.simpleaccounts.service.impl.BalanceUpdateCoordinator;
+import com.simpleaccounts.service.impl.VatReturnEngine;
+import com.simpleaccounts.utils.DateFormatUtil;
+import com.simpleaccounts.utils.DateUtils;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import javax.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.startupcheck.OneShotStartupCheckStrategy;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * Query plan regression tests against PostgreSQL.
+ *
+ * The schema is built by running the Liquibase changelog with the Liquibase CLI image, as liquibase-core 5 needs
+ * Java 17 and the tests run on Java 11; the changelog is formatted SQL only, so the CLI version does not change what
+ * runs. The ledger, report, banking and VAT tables are then filled with a generated dataset and analyzed.
+ *
+ * Each hot query is produced by calling its DAO method, so the SQL explained is the SQL Hibernate generates from the
+ * JPQL in use. The calls match no row; the plans do not depend on the values, as they are the generic plans
+ * PostgreSQL keeps for prepared statements. A query fails when its plan reads one of the large tables with a
+ * sequential scan, or when it costs more than half of the plan PostgreSQL finds with index scans disabled, which is
+ * what the plan falls back to once an index it relies on is lost.
+ *
+ * Note: Requires Docker; the tests are skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = QueryPlanRegressionTest.Initializer.class)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.liquibase.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.simpleaccounts.testcontainers.QueryPlanRegressionTest$RecordingInspector"
+})
+@Import({VatReturnDaoImpl.class, JournalLineItemDaoImpl.class, JournalDaoImpl.class,
+        TransactionCategoryClosingBalanceDaoImpl.class, TransactionDaoImpl.class, DateFormatUtil.class, DateUtils.class,
+        DatatableSortingFilterConstant.class, VatLedgerVersion.class})
+class QueryPlanRegressionTest {
+
+    private static final List<String> LARGE_TABLES = Arrays.asList("journal", "journal_line_item",
+            "transaction_category_closing_balance", "transaction", "invoice", "invoice_line_item");
+
+    private static final double MAX_COST_RATIO = 0.5;
+
+    /** a period without rows, the plans are generic so the values only have to be valid */
+    private static final LocalDate EMPTY_START = LocalDate.of(1999, 1, 1);
+
+    private static final LocalDate EMPTY_END = LocalDate.of(1999, 3, 31);
+
+    private static final Network NETWORK = Network.newNetwork();
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("simpleaccounts_test")
+            .withUsername("test")
+            .withPassword("test")
+            .withNetwork(NETWORK)
+            .withNetworkAliases("postgres");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final List<String> RECORDED = new CopyOnWriteArrayList<>();
+
+    private static Connection connection;
+
+    @MockBean
+    private ChartOfAccountService chartOfAccountService;
+
+    @MockBean
+    private TransactionCategoryService transactionCategoryService;
+
+    @MockBean
+    private TransactionCategoryBalanceService transactionCategoryBalanceService;
+
+    @MockBean
+    private BalanceUpdateCoordinator balanceUpdateCoordinator;
+
+    @Autowired
+    private VatReturnDaoImpl vatReturnDao;
+
+    @Autowired
+    private JournalLineItemDaoImpl journalLineItemDao;
+
+    @Autowired
+    private JournalDaoImpl journalDao;
+
+    @Autowired
+    private TransactionCategoryClosingBalanceDaoImpl closingBalanceDao;
+
+    @Autowired
+    private TransactionDaoImpl transactionDao;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    enum HotQuery {
+        DETAILED_GENERAL_LEDGER(test -> {
+            ReportRequestModel request = new ReportRequestModel();
+            request.setStartDate("01/01/1999");
+            request.setEndDate("31/01/1999");
+            test.journalLineItemDao.processListOrderedByCategory(request, 500, chunk -> { });
+        }),
+        LINES_OF_JOURNAL(test -> test.journalLineItemDao.deleteByJournalId(-1)),
+        JOURNAL_OF_DOCUMENT(test -> test.journalDao.getJournalByReferenceIdAndType(-1, PostingReferenceTypeEnum.INVOICE)),
+        VAT_ACCOUNT_TOTALS(test -> test.vatReturnDao.getVatAccountTotals(EMPTY_START, EMPTY_END,
+                Arrays.asList(VatReturnEngine.INPUT_VAT_CATEGORY_ID, VatReturnEngine.OUTPUT_VAT_CATEGORY_ID))),
+        VAT_INVOICE_LINES(test -> test.vatReturnDao.getInvoiceLineTotals(EMPTY_START, EMPTY_END)),
+        REVERSE_CHARGE_INVOICES(test -> test.vatReturnDao.getReverseChargeInvoiceTotals(EMPTY_START, EMPTY_END)),
+        LATEST_CLOSING_BALANCE(test -> test.closingBalanceDao.getClosingBalanceLessThanCurrentDate(
+                EMPTY_START.atStartOfDay(), test.entityManager.getReference(TransactionCategory.class, 1))),
+        BANK_STATEMENT(test -> {
+            BankAccount bankAccount = new BankAccount();
+            bankAccount.setBankAccountId(-1);
+            test.transactionDao.getTransactionsByDateRangeAndBankAccountId(bankAccount,
+                    java.sql.Date.valueOf(EMPTY_START), java.sql.Date.valueOf(EMPTY_END));
+        });
+
+        private final Consumer<QueryPlanRegressionTest> call;
+
+        HotQuery(Consumer<QueryPlanRegressionTest> call) {
+            this.call = call;
+        }
+    }
+
+    /**
+     * Records the SQL Hibernate prepares, unchanged.
+     */
+    public static class RecordingInspector implements StatementInspector {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String inspect(String sql) {
+            RECORDED.add(sql);
+            return sql;
+        }
+    }
+
+    static class Initializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+        @Override
+        public void initialize(ConfigurableApplicationContext context) {
+            TestPropertyValues.of("spring.datasource.url=" + POSTGRES.getJdbcUrl(),
+                    "spring.datasource.username=" + POSTGRES.getUsername(),
+                    "spring.datasource.password=" + POSTGRES.getPassword()).applyTo(context.getEnvironment());
+        }
+    }
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        try (GenericContainer<?> liquibase = new GenericContainer<>("liquibase/liquibase:4.29")
+                .withNetwork(NETWORK)
+                .withCopyFileToContainer(MountableFile.forClasspathResource("liquibase"), "/liquibase/changelog")
+                .withCommand("--search-path=/liquibase/changelog", "--changelog-file=liquibase-changelog.xml",
+                        "--url=jdbc:postgresql://postgres:5432/" + POSTGRES.getDatabaseName(),
+                        "--username=" + POSTGRES.getUsername(), "--password=" + POSTGRES.getPassword(), "update")
+                .withStartupCheckStrategy(new OneShotStartupCheckStrategy().withTimeout(Duration.ofMinutes(5)))) {
+            liquibase.start();
+        }
+        connection = POSTGRES.createConnection("");
+        try (Statement statement = connection.createStatement()) {
+            // the generated rows point at bank accounts and contacts that do not exist
+            statement.execute("SET session_replication_role = replica");
+            statement.execute("INSERT INTO journal (journal_id, created_by, reference_type, journal_date, transaction_date) "
+                    + "SELECT 1000000 + i, 0, 'INVOICE', DATE '2020-01-01' + i % 1826, DATE '2020-01-01' + i % 1826 "
+                    + "FROM generate_series(1, 100000) i");
+            statement.execute("INSERT INTO journal_line_item (journal_line_item_id, created_by, reference_id, reference_type, "
+                    + "journal_id, transaction_category_code, debit_amount, credit_amount) "
+                    + "SELECT 1000000 + i, 0, i % 50000 + 1, (ARRAY['INVOICE','EXPENSE','PAYMENT'])[i % 3 + 1], "
+                    + "1000000 + i % 100000 + 1, c.ids[i % array_length(c.ids, 1) + 1], i % 100, 0 "
+                    + "FROM generate_series(1, 300000) i, "
+                    + "(SELECT array_agg(transaction_category_id ORDER BY transaction_category_id) ids "
+                    + "FROM transaction_category) c");
+            statement.execute("INSERT INTO transaction_category_closing_balance (transaction_category_closing_balance_id, "
+                    + "transaction_category_id, transaction_category_closing_balance_date, closing_balance) "
+                    + "SELECT 1000000 + i, i % 500 + 1, TIMESTAMP '2020-01-01' + (i / 500) * INTERVAL '1 day', i % 1000 "
+                    + "FROM generate_series(0, 182499) i");
+            statement.execute("INSERT INTO transaction (transaction_id, created_by, debit_credit_flag, bank_account_id, "
+                    + "transaction_date) SELECT 1000000 + i, 0, 'D', i % 200 + 1, "
+                    + "TIMESTAMP '2020-01-01' + (i % 1826) * INTERVAL '1 day' FROM generate_series(1, 200000) i");
+            statement.execute("INSERT INTO invoice (invoice_id, edit_flag, type, status, invoice_date, reference_number, "
+                    + "is_reverse_charge_enabled, total_vat_amount) "
+                    + "SELECT 1000000 + i, true, i % 2 + 1, i % 6 + 1, DATE '2020-01-01' + i % 1826, 'INV-' || i, "
+                    + "i % 20 = 0, i % 5 FROM generate_series(1, 100000) i");
+            statement.execute("INSERT INTO invoice_line_item (invoice_line_item_id, created_by, quantity, invoice_id, "
+                    + "vat_id, sub_total, vat_amount) SELECT 1000000 + i, 0, 1, 1000000 + i % 100000 + 1, "
+                    + "i % 4 + 1, i % 100, i % 5 FROM generate_series(1, 200000) i");
+            statement.execute("SET session_replication_role = DEFAULT");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(HotQuery.class)
+    @DisplayName("Should read the large tables through indexes")
+    void shouldNotScanLargeTables(HotQuery query) throws Exception {
+        List<String> scanned = new ArrayList<>();
+        collectSequentialScans(explain(sqlOf(query)).get("Plan"), scanned);
+
+        assertThat(scanned).as("tables read with a sequential scan by %s", query).isEmpty();
+    }
+
+    @ParameterizedTest
+    @EnumSource(HotQuery.class)
+    @DisplayName("Should cost well below the plan without indexes")
+    void shouldCostWellBelowFullScan(HotQuery query) throws Exception {
+        String sql = sqlOf(query);
+        double indexed = explain(sql).get("Plan").get("Total Cost").asDouble();
+        double fullScan;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_indexscan = off");
+            statement.execute("SET enable_indexonlyscan = off");
+            statement.execute("SET enable_bitmapscan = off");
+            try {
+                fullScan = explain(sql).get("Plan").get("Total Cost").asDouble();
+            } finally {
+                statement.execute("RESET enable_indexscan");
+                statement.execute("RESET enable_indexonlyscan");
+                statement.execute("RESET enable_bitmapscan");
+            }
+        }
+
+        assertThat(indexed).as("cost of %s against %s without indexes", query, fullScan)
+                .isLessThanOrEqualTo(fullScan * MAX_COST_RATIO);
+    }
+
+    /**
+     * @return the one statement the DAO method of the query prepares, with numbered parameters
+     */
+    private String sqlOf(HotQuery query) {
+        RECORDED.clear();
+        query.call.accept(this);
+
+        assertThat(RECORDED).as("statements of %s", query).hasSize(1);
+        StringBuilder sql = new StringBuilder();
+        int parameter = 0;
+        for (char c : RECORDED.get(0).toCharArray()) {
+            if (c == '?') {
+                sql.append('$').append(++parameter);
+            } else {
+                sql.append(c);
+            }
+        }
+        return sql.toString();
+    }
+
+    private static JsonNode explain(String sql) throws Exception {
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + sql)) {
+            resultSet.next();
+            return MAPPER.readTree(resultSet.getString(1)).get(0);
+        }
+    }
+
+    private static void collectSequentialScans(JsonNode plan, List<String> scanned) {
+        String relation = plan.path("Relation Name").asText();
+        if ("Seq Scan".equals(plan.path("Node Type").asText()) && LARGE_TABLES.contains(relation)) {
+            scanned.add(relation);
+        }
+        for (JsonNode child : plan.path("Plans")) {
+            collectSequentialScans(child, scanned);
+        }
+    }
+}
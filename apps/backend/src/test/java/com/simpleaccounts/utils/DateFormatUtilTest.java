@@ -2,10 +2,14 @@ package com.simpleaccounts.utils;
 
 import static org.assertj.core.api.Assertions.*;
 
+import com.simpleaccounts.security.CustomUserDetails;
 import java.time.*;
+import java.time.format.DateTimeFormatter;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,6 +18,8 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("DateFormatUtil Tests")
@@ -27,6 +33,43 @@ class DateFormatUtilTest {
         dateFormatUtil = new DateFormatUtil();
     }
 
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should format in the time zone of the authenticated user")
+    void shouldFormatInTimezoneOfAuthenticatedUser() {
+        // given
+        LocalDateTime dateTime = LocalDateTime.of(2024, 3, 15, 10, 30);
+        CustomUserDetails principal = new CustomUserDetails();
+        principal.setTimezone("Asia/Kolkata");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList()));
+
+        // when
+        String result = dateFormatUtil.getLocalDateTimeAsString(dateTime, "HH:mm");
+
+        // then
+        assertThat(result).isEqualTo(dateTime.atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(ZoneId.of("Asia/Kolkata")).format(DateTimeFormatter.ofPattern("HH:mm")));
+    }
+
+    @Test
+    @DisplayName("Should format in Asia/Dubai without authenticated user")
+    void shouldFormatInDefaultTimezoneWithoutUser() {
+        // given
+        LocalDateTime dateTime = LocalDateTime.of(2024, 3, 15, 10, 30);
+
+        // when
+        String result = dateFormatUtil.getLocalDateTimeAsString(dateTime, "HH:mm");
+
+        // then
+        assertThat(result).isEqualTo(dateTime.atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(ZoneId.of("Asia/Dubai")).format(DateTimeFormatter.ofPattern("HH:mm")));
+    }
+
     @Test
     @DisplayName("Should return list of date formats")
     void shouldReturnListOfDateFormats() {
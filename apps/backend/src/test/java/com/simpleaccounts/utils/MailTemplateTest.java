@@ -0,0 +1,96 @@
+package com.simpleaccounts.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.simpleaccounts.dao.MailThemeTemplates;
+import com.simpleaccounts.dao.MailThemeTemplatesDao;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ResourceLoader;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MailTemplate Tests")
+class MailTemplateTest {
+
+    @Mock
+    private MailThemeTemplatesDao mailThemeTemplatesDao;
+
+    @Mock
+    private ResourceLoader resourceLoader;
+
+    @Test
+    void renderFillsPlaceholdersAndKeepsUnknownOnesAndCss() {
+        MailTemplate template = MailTemplate.compile(
+                "<style>td { color: red; }</style><b>{product}</b> {product1} {missing} {} {total}");
+        Map<String, String> values = new HashMap<>();
+        values.put("{product}", "Pen");
+        values.put("{product1}", "Ink");
+        values.put("{total}", "{product}");
+
+        assertThat(template.render(values))
+                .isEqualTo("<style>td { color: red; }</style><b>Pen</b> Ink {missing} {} {product}");
+        assertThat(template.getSource()).startsWith("<style>");
+    }
+
+    @Test
+    void renderHandlesNestedBraceAndTemplateEdges() {
+        Map<String, String> values = new HashMap<>();
+        values.put("{a}", "1");
+
+        assertThat(MailTemplate.compile("{a}").render(values)).isEqualTo("1");
+        assertThat(MailTemplate.compile("{{a}}").render(values)).isEqualTo("{1}");
+        assertThat(MailTemplate.compile("x {a").render(values)).isEqualTo("x {a");
+        assertThat(MailTemplate.compile("").render(values)).isEmpty();
+    }
+
+    @Test
+    void createMatchesReplaceForPlainKeys() {
+        MailUtility mailUtility = new MailUtility(null, null, null, null, null);
+        Map<String, String> values = new HashMap<>();
+        values.put("{invoiceDate}", "01-01-2024");
+        values.put("untaxedAmount", "100.00");
+        values.put("{notes}", null);
+
+        assertThat(mailUtility.create(values, "{invoiceDate} {untaxedAmount} {notes}"))
+                .isEqualTo("01-01-2024 {100.00} {notes}");
+    }
+
+    @Test
+    void cacheCompilesEachFileOnceUntilInvalidated() {
+        MailTemplateCache cache = new MailTemplateCache(mailThemeTemplatesDao, resourceLoader);
+        when(resourceLoader.getResource("classpath:MailTemplates/invoice.html"))
+                .thenAnswer(invocation -> new ByteArrayResource("<p>{product}</p>".getBytes()));
+        MailThemeTemplates row = new MailThemeTemplates();
+        row.setPath("MailTemplates/invoice.html");
+        when(mailThemeTemplatesDao.getMailThemeTemplate(1)).thenReturn(row);
+
+        assertThat(cache.getActiveTemplate(1)).isSameAs(row);
+        assertThat(cache.getActiveTemplate(1)).isSameAs(row);
+        MailTemplate template = cache.getTemplate(row.getPath());
+        assertThat(cache.getTemplate(row.getPath())).isSameAs(template);
+        MailTemplate twoRows = cache.getTemplate(row.getPath(), "rows2", source -> source + source);
+        assertThat(cache.getTemplate(row.getPath(), "rows2", source -> "unused")).isSameAs(twoRows);
+        assertThat(twoRows.getSource()).isEqualTo("<p>{product}</p><p>{product}</p>");
+        verify(mailThemeTemplatesDao, times(1)).getMailThemeTemplate(1);
+        verify(resourceLoader, times(1)).getResource(anyString());
+
+        cache.invalidate();
+
+        assertThat(cache.getTemplate(row.getPath())).isNotSameAs(template);
+        cache.getActiveTemplate(1);
+        verify(mailThemeTemplatesDao, times(2)).getMailThemeTemplate(1);
+        verify(resourceLoader, times(2)).getResource(anyString());
+        verify(mailThemeTemplatesDao, never()).updateMailTheme(1);
+    }
+}